@@ -0,0 +1,162 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius;
+
+import java.io.IOException;
+import java.text.ParseException;
+
+import fr.cnes.sirius.patrius.forces.gravity.CunninghamGravityModel;
+import fr.cnes.sirius.patrius.forces.gravity.DrozinerGravityModel;
+import fr.cnes.sirius.patrius.forces.gravity.potential.GRGSFormatReader;
+import fr.cnes.sirius.patrius.forces.gravity.potential.GravityFieldFactory;
+import fr.cnes.sirius.patrius.forces.gravity.potential.PotentialCoefficientsProvider;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.orbits.CartesianOrbit;
+import fr.cnes.sirius.patrius.orbits.KeplerianOrbit;
+import fr.cnes.sirius.patrius.orbits.Orbit;
+import fr.cnes.sirius.patrius.orbits.PositionAngle;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.TimeScalesFactory;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Shared configuration of the JMH benchmarks.
+ * <p>
+ * All benchmarks use the test data ("regular-data" and GRGS gravity field) and the IERS 2003 frames configuration
+ * with EOP, so that results are comparable between PATRIUS releases. Benchmarks are run with the BENCHMARK Maven
+ * profile: {@code mvn -P BENCHMARK test-compile exec:exec}.
+ * </p>
+ *
+ * @since 4.14
+ */
+public final class BenchmarkUtils {
+
+    /** Earth equatorial radius (m). */
+    public static final double AE = Constants.GRIM5C1_EARTH_EQUATORIAL_RADIUS;
+
+    /** Earth gravitational parameter (m<sup>3</sup>/s<sup>2</sup>). */
+    public static final double MU = Constants.GRIM5C1_EARTH_MU;
+
+    /** Earth flattening. */
+    public static final double F = Constants.GRIM5C1_EARTH_FLATTENING;
+
+    /** Private constructor. */
+    private BenchmarkUtils() {
+    }
+
+    /**
+     * Configure data and frames.
+     *
+     * @throws PatriusException
+     *         if EOP data cannot be loaded
+     */
+    public static void init() throws PatriusException {
+        Utils.setDataRoot("regular-data:potential/grgs-format");
+        FramesFactory.setConfiguration(Utils.getIERS2003Configuration(true));
+        GravityFieldFactory.addPotentialCoefficientsReader(new GRGSFormatReader("grim4s4_gr", true));
+    }
+
+    /**
+     * Getter for the reference epoch of the benchmarks (within the range of the EOP test data).
+     *
+     * @return the reference epoch
+     * @throws PatriusException
+     *         if the UTC time scale cannot be loaded
+     */
+    public static AbsoluteDate getEpoch() throws PatriusException {
+        return new AbsoluteDate(2004, 1, 1, 0, 0, 0., TimeScalesFactory.getUTC());
+    }
+
+    /**
+     * Build a LEO orbit (sun-synchronous, 800 km altitude) in GCRF.
+     *
+     * @param date
+     *        orbit date
+     * @return a LEO orbit
+     */
+    public static Orbit getLEOOrbit(final AbsoluteDate date) {
+        return new KeplerianOrbit(AE + 800.e3, 1.e-3, MathLib.toRadians(98.6), MathLib.toRadians(90.),
+            MathLib.toRadians(30.), 0., PositionAngle.MEAN, FramesFactory.getGCRF(), date, MU);
+    }
+
+    /**
+     * Build a GEO orbit in GCRF.
+     *
+     * @param date
+     *        orbit date
+     * @return a GEO orbit
+     */
+    public static Orbit getGEOOrbit(final AbsoluteDate date) {
+        final double a = 42164.e3;
+        final double v = MathLib.sqrt(MU / a);
+        return new CartesianOrbit(new PVCoordinates(new Vector3D(a, 0., 0.), new Vector3D(0., v, 1.)),
+            FramesFactory.getGCRF(), date, MU);
+    }
+
+    /**
+     * Build a Cunningham Earth gravity model from the GRGS test field.
+     *
+     * @param degree
+     *        degree of the model
+     * @param order
+     *        order of the model
+     * @return the gravity model
+     * @throws IOException
+     *         if the gravity field cannot be read
+     * @throws ParseException
+     *         if the gravity field cannot be parsed
+     * @throws PatriusException
+     *         if the gravity field cannot be loaded
+     */
+    public static CunninghamGravityModel getCunninghamModel(final int degree,
+                                                            final int order)
+        throws IOException, ParseException, PatriusException {
+        final PotentialCoefficientsProvider provider = GravityFieldFactory.getPotentialProvider();
+        return new CunninghamGravityModel(FramesFactory.getITRF(), provider.getAe(), provider.getMu(),
+            provider.getC(degree, order, false), provider.getS(degree, order, false));
+    }
+
+    /**
+     * Build a Droziner Earth gravity model from the GRGS test field.
+     *
+     * @param degree
+     *        degree of the model
+     * @param order
+     *        order of the model
+     * @return the gravity model
+     * @throws IOException
+     *         if the gravity field cannot be read
+     * @throws ParseException
+     *         if the gravity field cannot be parsed
+     * @throws PatriusException
+     *         if the gravity field cannot be loaded
+     */
+    public static DrozinerGravityModel getDrozinerModel(final int degree,
+                                                        final int order)
+        throws IOException, ParseException, PatriusException {
+        final PotentialCoefficientsProvider provider = GravityFieldFactory.getPotentialProvider();
+        return new DrozinerGravityModel(FramesFactory.getITRF(), provider.getAe(), provider.getMu(),
+            provider.getC(degree, order, false), provider.getS(degree, order, false));
+    }
+}
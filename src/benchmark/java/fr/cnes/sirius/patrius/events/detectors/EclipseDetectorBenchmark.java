@@ -0,0 +1,121 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.events.detectors;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.cnes.sirius.patrius.BenchmarkUtils;
+import fr.cnes.sirius.patrius.bodies.CelestialBodyFactory;
+import fr.cnes.sirius.patrius.events.EventDetector.Action;
+import fr.cnes.sirius.patrius.orbits.Orbit;
+import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.propagation.analytical.KeplerianPropagator;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * JMH benchmark of {@link EclipseDetector}: switching function evaluation and eclipses detection over one day of
+ * Keplerian propagation of a LEO orbit.
+ *
+ * @since 4.14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EclipseDetectorBenchmark {
+
+    /** Number of states. */
+    private static final int NB_STATES = 600;
+
+    /** Eclipse detector. */
+    private EclipseDetector detector;
+
+    /** States along the orbit. */
+    private SpacecraftState[] states;
+
+    /** Propagator. */
+    private KeplerianPropagator propagator;
+
+    /** Initial orbit. */
+    private Orbit orbit;
+
+    /** Index of the current state. */
+    private int index;
+
+    /**
+     * Build the detector.
+     *
+     * @throws PatriusException
+     *         if data cannot be loaded
+     */
+    @Setup
+    public void setUp() throws PatriusException {
+        BenchmarkUtils.init();
+        this.detector = new EclipseDetector(CelestialBodyFactory.getSun(), Constants.SUN_RADIUS,
+            CelestialBodyFactory.getEarth(), BenchmarkUtils.AE, 0., 60., 1.e-3, Action.CONTINUE, Action.CONTINUE);
+        this.orbit = BenchmarkUtils.getLEOOrbit(BenchmarkUtils.getEpoch());
+        this.states = new SpacecraftState[NB_STATES];
+        for (int i = 0; i < NB_STATES; i++) {
+            this.states[i] = new SpacecraftState(this.orbit.shiftedBy(i * 10.));
+        }
+        this.propagator = new KeplerianPropagator(this.orbit);
+        this.propagator.addEventDetector(this.detector);
+    }
+
+    /**
+     * Switching function evaluation.
+     *
+     * @return the switching function value
+     * @throws PatriusException
+     *         if computation fails
+     */
+    @Benchmark
+    public double g() throws PatriusException {
+        this.index = (this.index + 1) % NB_STATES;
+        return this.detector.g(this.states[this.index]);
+    }
+
+    /**
+     * Eclipses detection over one day.
+     *
+     * @return the final state
+     * @throws PatriusException
+     *         if propagation fails
+     */
+    @Benchmark
+    public SpacecraftState detection() throws PatriusException {
+        this.propagator.resetInitialState(new SpacecraftState(this.orbit));
+        return this.propagator.propagate(this.orbit.getDate().shiftedBy(Constants.JULIAN_DAY));
+    }
+}
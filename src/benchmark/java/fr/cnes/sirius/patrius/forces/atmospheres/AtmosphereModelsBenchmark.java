@@ -0,0 +1,140 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.forces.atmospheres;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.cnes.sirius.patrius.BenchmarkUtils;
+import fr.cnes.sirius.patrius.bodies.CelestialBody;
+import fr.cnes.sirius.patrius.bodies.CelestialBodyFactory;
+import fr.cnes.sirius.patrius.bodies.OneAxisEllipsoid;
+import fr.cnes.sirius.patrius.forces.atmospheres.solarActivity.ConstantSolarActivity;
+import fr.cnes.sirius.patrius.forces.atmospheres.solarActivity.SolarActivityDataProvider;
+import fr.cnes.sirius.patrius.forces.atmospheres.solarActivity.specialized.ClassicalMSISE2000SolarData;
+import fr.cnes.sirius.patrius.forces.atmospheres.solarActivity.specialized.DTMSolarData;
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.orbits.Orbit;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * JMH benchmark of {@link DTM2000} and {@link MSISE2000} (NRLMSISE-00) density computation.
+ * <p>
+ * Density is computed along a LEO trajectory sampled every 10 s, in GCRF, as done by the drag force during
+ * propagation (hence including frame transformations and Sun position computation).
+ * </p>
+ *
+ * @since 4.14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AtmosphereModelsBenchmark {
+
+    /** Number of trajectory points. */
+    private static final int NB_POINTS = 600;
+
+    /** DTM2000 model. */
+    private DTM2000 dtm2000;
+
+    /** MSISE2000 model. */
+    private MSISE2000 msise2000;
+
+    /** Trajectory dates. */
+    private AbsoluteDate[] dates;
+
+    /** Trajectory positions. */
+    private Vector3D[] positions;
+
+    /** Trajectory frame. */
+    private Frame frame;
+
+    /** Index of the current point. */
+    private int index;
+
+    /**
+     * Build the models and the trajectory.
+     *
+     * @throws PatriusException
+     *         if data cannot be loaded
+     */
+    @Setup
+    public void setUp() throws PatriusException {
+        BenchmarkUtils.init();
+        final CelestialBody sun = CelestialBodyFactory.getSun();
+        final OneAxisEllipsoid earth = new OneAxisEllipsoid(BenchmarkUtils.AE, BenchmarkUtils.F,
+            FramesFactory.getITRF());
+        final SolarActivityDataProvider solarActivity = new ConstantSolarActivity(140., 15.);
+        this.dtm2000 = new DTM2000(new DTMSolarData(solarActivity), sun, earth);
+        this.msise2000 = new MSISE2000(new ClassicalMSISE2000SolarData(solarActivity), earth, sun);
+
+        this.frame = FramesFactory.getGCRF();
+        final Orbit orbit = BenchmarkUtils.getLEOOrbit(BenchmarkUtils.getEpoch());
+        this.dates = new AbsoluteDate[NB_POINTS];
+        this.positions = new Vector3D[NB_POINTS];
+        for (int i = 0; i < NB_POINTS; i++) {
+            final Orbit shifted = orbit.shiftedBy(i * 10.);
+            this.dates[i] = shifted.getDate();
+            this.positions[i] = shifted.getPVCoordinates().getPosition();
+        }
+    }
+
+    /**
+     * DTM2000 density.
+     *
+     * @return the density
+     * @throws PatriusException
+     *         if computation fails
+     */
+    @Benchmark
+    public double dtm2000() throws PatriusException {
+        this.index = (this.index + 1) % NB_POINTS;
+        return this.dtm2000.getDensity(this.dates[this.index], this.positions[this.index], this.frame);
+    }
+
+    /**
+     * MSISE2000 density.
+     *
+     * @return the density
+     * @throws PatriusException
+     *         if computation fails
+     */
+    @Benchmark
+    public double msise2000() throws PatriusException {
+        this.index = (this.index + 1) % NB_POINTS;
+        return this.msise2000.getDensity(this.dates[this.index], this.positions[this.index], this.frame);
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.forces.gravity;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.cnes.sirius.patrius.BenchmarkUtils;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * JMH benchmark of {@link CunninghamGravityModel} and {@link DrozinerGravityModel} acceleration computation, for
+ * several field sizes. Acceleration derivatives are also measured for the Cunningham model (they are not available
+ * for the Droziner model).
+ *
+ * @since 4.14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GravityModelsBenchmark {
+
+    /** Number of positions. */
+    private static final int NB_POSITIONS = 64;
+
+    /** Degree and order of the field. */
+    @Param({ "8", "20", "50" })
+    private int degree;
+
+    /** Cunningham model. */
+    private CunninghamGravityModel cunningham;
+
+    /** Droziner model. */
+    private DrozinerGravityModel droziner;
+
+    /** Positions in body frame. */
+    private Vector3D[] positions;
+
+    /** Computation date. */
+    private AbsoluteDate date;
+
+    /** Index of the current position. */
+    private int index;
+
+    /**
+     * Build the models.
+     *
+     * @throws IOException
+     *         if the gravity field cannot be read
+     * @throws ParseException
+     *         if the gravity field cannot be parsed
+     * @throws PatriusException
+     *         if the gravity field cannot be read
+     */
+    @Setup
+    public void setUp() throws IOException, ParseException, PatriusException {
+        BenchmarkUtils.init();
+        this.cunningham = BenchmarkUtils.getCunninghamModel(this.degree, this.degree);
+        this.droziner = BenchmarkUtils.getDrozinerModel(this.degree, this.degree);
+        this.date = BenchmarkUtils.getEpoch();
+        this.positions = new Vector3D[NB_POSITIONS];
+        for (int i = 0; i < NB_POSITIONS; i++) {
+            final double lon = 2. * MathLib.PI * i / NB_POSITIONS;
+            final double lat = 1.4 * MathLib.sin(3. * lon);
+            this.positions[i] = new Vector3D(lon, lat).scalarMultiply(BenchmarkUtils.AE + 700.e3);
+        }
+    }
+
+    /**
+     * Cunningham acceleration.
+     *
+     * @return the acceleration
+     * @throws PatriusException
+     *         if computation fails
+     */
+    @Benchmark
+    public Vector3D cunninghamAcceleration() throws PatriusException {
+        return this.cunningham.computeAcceleration(this.nextPosition(), this.date);
+    }
+
+    /**
+     * Droziner acceleration.
+     *
+     * @return the acceleration
+     * @throws PatriusException
+     *         if computation fails
+     */
+    @Benchmark
+    public Vector3D drozinerAcceleration() throws PatriusException {
+        return this.droziner.computeAcceleration(this.nextPosition(), this.date);
+    }
+
+    /**
+     * Cunningham acceleration derivatives.
+     *
+     * @return the acceleration derivatives
+     * @throws PatriusException
+     *         if computation fails
+     */
+    @Benchmark
+    public double[][] cunninghamDAccDPos() throws PatriusException {
+        return this.cunningham.computeDAccDPos(this.nextPosition(), this.date);
+    }
+
+    /**
+     * Getter for the next position.
+     *
+     * @return the next position
+     */
+    private Vector3D nextPosition() {
+        this.index = (this.index + 1) % NB_POSITIONS;
+        return this.positions[this.index];
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.frames;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.cnes.sirius.patrius.BenchmarkUtils;
+import fr.cnes.sirius.patrius.frames.transformations.Transform;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * JMH benchmark of {@link Frame#getTransformTo(Frame, AbsoluteDate)} between GCRF and ITRF.
+ * <p>
+ * Two access patterns are measured: a new date at each call (typical of propagation, where date-based caches are
+ * mostly missed) and repeated calls at the same date (typical of several computations at the same date, where caches
+ * are hit).
+ * </p>
+ *
+ * @since 4.14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrameTransformBenchmark {
+
+    /** Date step between two calls (s). */
+    private static final double STEP = 10.;
+
+    /** Number of dates before looping back to the first one (one day). */
+    private static final int NB_DATES = 8640;
+
+    /** GCRF. */
+    private Frame gcrf;
+
+    /** ITRF. */
+    private Frame itrf;
+
+    /** Dates. */
+    private AbsoluteDate[] dates;
+
+    /** Index of the current date. */
+    private int index;
+
+    /**
+     * Initialize frames.
+     *
+     * @throws PatriusException
+     *         if data cannot be loaded
+     */
+    @Setup
+    public void setUp() throws PatriusException {
+        BenchmarkUtils.init();
+        this.gcrf = FramesFactory.getGCRF();
+        this.itrf = FramesFactory.getITRF();
+        final AbsoluteDate epoch = BenchmarkUtils.getEpoch();
+        this.dates = new AbsoluteDate[NB_DATES];
+        for (int i = 0; i < NB_DATES; i++) {
+            this.dates[i] = epoch.shiftedBy(i * STEP);
+        }
+    }
+
+    /**
+     * GCRF to ITRF transform, new date at each call.
+     *
+     * @return the transform
+     * @throws PatriusException
+     *         if transform cannot be computed
+     */
+    @Benchmark
+    public Transform gcrfToItrf() throws PatriusException {
+        this.index = (this.index + 1) % NB_DATES;
+        return this.gcrf.getTransformTo(this.itrf, this.dates[this.index]);
+    }
+
+    /**
+     * ITRF to GCRF transform, new date at each call.
+     *
+     * @return the transform
+     * @throws PatriusException
+     *         if transform cannot be computed
+     */
+    @Benchmark
+    public Transform itrfToGcrf() throws PatriusException {
+        this.index = (this.index + 1) % NB_DATES;
+        return this.itrf.getTransformTo(this.gcrf, this.dates[this.index]);
+    }
+
+    /**
+     * GCRF to ITRF transform, always at the same date.
+     *
+     * @return the transform
+     * @throws PatriusException
+     *         if transform cannot be computed
+     */
+    @Benchmark
+    public Transform gcrfToItrfSameDate() throws PatriusException {
+        return this.gcrf.getTransformTo(this.itrf, this.dates[0]);
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.propagation.analytical;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import fr.cnes.sirius.patrius.BenchmarkUtils;
+import fr.cnes.sirius.patrius.orbits.Orbit;
+import fr.cnes.sirius.patrius.propagation.ParametersType;
+import fr.cnes.sirius.patrius.propagation.Propagator;
+import fr.cnes.sirius.patrius.propagation.analytical.tle.TLE;
+import fr.cnes.sirius.patrius.propagation.analytical.tle.TLEPropagator;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * JMH benchmark of analytical propagators: Keplerian, Eckstein-Hechler and SGP4/SDP4.
+ * <p>
+ * Each benchmark computes a one day ephemeris with a 60 s step, which is representative of ground station visibility
+ * and mission analysis usage.
+ * </p>
+ *
+ * @since 4.14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticalPropagatorsBenchmark {
+
+    /** Number of ephemeris points. */
+    private static final int NB_POINTS = 1440;
+
+    /** Ephemeris step (s). */
+    private static final double STEP = 60.;
+
+    /** Keplerian propagator. */
+    private Propagator keplerian;
+
+    /** Eckstein-Hechler propagator. */
+    private Propagator ecksteinHechler;
+
+    /** SGP4 propagator (LEO TLE). */
+    private Propagator sgp4;
+
+    /** SDP4 propagator (GEO TLE). */
+    private Propagator sdp4;
+
+    /** Initial date of the ephemeris. */
+    private AbsoluteDate start;
+
+    /**
+     * Build the propagators.
+     *
+     * @throws PatriusException
+     *         if data cannot be loaded
+     */
+    @Setup
+    public void setUp() throws PatriusException {
+        BenchmarkUtils.init();
+        this.start = BenchmarkUtils.getEpoch();
+        final Orbit orbit = BenchmarkUtils.getLEOOrbit(this.start);
+        this.keplerian = new KeplerianPropagator(orbit);
+        this.ecksteinHechler = new EcksteinHechlerPropagator(orbit, BenchmarkUtils.AE, BenchmarkUtils.MU,
+            orbit.getFrame(), Constants.EIGEN5C_EARTH_C20, Constants.EIGEN5C_EARTH_C30,
+            Constants.EIGEN5C_EARTH_C40, Constants.EIGEN5C_EARTH_C50, Constants.EIGEN5C_EARTH_C60,
+            ParametersType.OSCULATING);
+        this.sgp4 = TLEPropagator.selectExtrapolator(new TLE(
+            "1 27421U 02021A   02124.48976499 -.00021470  00000-0 -89879-2 0    20",
+            "2 27421  98.7490 199.5121 0001333 133.9522 226.1918 14.26113993    62"));
+        this.sdp4 = TLEPropagator.selectExtrapolator(new TLE(
+            "1 27508U 02040A   12021.25695307 -.00000113  00000-0  10000-3 0  7326",
+            "2 27508   0.0571 356.7800 0005033 344.4621 218.7816  1.00271798 34501"));
+    }
+
+    /**
+     * Benchmark of the Keplerian propagator.
+     *
+     * @param blackhole
+     *        sink for the propagated states
+     * @throws PatriusException
+     *         if propagation fails
+     */
+    @Benchmark
+    public void keplerian(final Blackhole blackhole) throws PatriusException {
+        this.ephemeris(this.keplerian, this.start, blackhole);
+    }
+
+    /**
+     * Benchmark of the Eckstein-Hechler propagator.
+     *
+     * @param blackhole
+     *        sink for the propagated states
+     * @throws PatriusException
+     *         if propagation fails
+     */
+    @Benchmark
+    public void ecksteinHechler(final Blackhole blackhole) throws PatriusException {
+        this.ephemeris(this.ecksteinHechler, this.start, blackhole);
+    }
+
+    /**
+     * Benchmark of the SGP4 propagator.
+     *
+     * @param blackhole
+     *        sink for the propagated states
+     * @throws PatriusException
+     *         if propagation fails
+     */
+    @Benchmark
+    public void sgp4(final Blackhole blackhole) throws PatriusException {
+        this.ephemeris(this.sgp4, this.sgp4.getInitialState().getDate(), blackhole);
+    }
+
+    /**
+     * Benchmark of the SDP4 propagator.
+     *
+     * @param blackhole
+     *        sink for the propagated states
+     * @throws PatriusException
+     *         if propagation fails
+     */
+    @Benchmark
+    public void sdp4(final Blackhole blackhole) throws PatriusException {
+        this.ephemeris(this.sdp4, this.sdp4.getInitialState().getDate(), blackhole);
+    }
+
+    /**
+     * Compute an ephemeris.
+     *
+     * @param propagator
+     *        propagator
+     * @param date0
+     *        initial date
+     * @param blackhole
+     *        sink for the propagated states
+     * @throws PatriusException
+     *         if propagation fails
+     */
+    private void ephemeris(final Propagator propagator, final AbsoluteDate date0,
+                           final Blackhole blackhole) throws PatriusException {
+        for (int i = 0; i < NB_POINTS; i++) {
+            blackhole.consume(propagator.propagate(date0.shiftedBy(i * STEP)));
+        }
+    }
+}
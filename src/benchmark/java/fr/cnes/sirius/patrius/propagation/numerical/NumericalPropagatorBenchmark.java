@@ -0,0 +1,160 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.propagation.numerical;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.cnes.sirius.patrius.BenchmarkUtils;
+import fr.cnes.sirius.patrius.assembly.Assembly;
+import fr.cnes.sirius.patrius.assembly.AssemblyBuilder;
+import fr.cnes.sirius.patrius.assembly.models.AeroModel;
+import fr.cnes.sirius.patrius.assembly.models.MassModel;
+import fr.cnes.sirius.patrius.assembly.properties.AeroSphereProperty;
+import fr.cnes.sirius.patrius.assembly.properties.MassProperty;
+import fr.cnes.sirius.patrius.bodies.CelestialBody;
+import fr.cnes.sirius.patrius.bodies.CelestialBodyFactory;
+import fr.cnes.sirius.patrius.bodies.OneAxisEllipsoid;
+import fr.cnes.sirius.patrius.forces.atmospheres.DTM2000;
+import fr.cnes.sirius.patrius.forces.atmospheres.solarActivity.ConstantSolarActivity;
+import fr.cnes.sirius.patrius.forces.atmospheres.solarActivity.specialized.DTMSolarData;
+import fr.cnes.sirius.patrius.forces.drag.DragForce;
+import fr.cnes.sirius.patrius.forces.gravity.DirectBodyAttraction;
+import fr.cnes.sirius.patrius.forces.gravity.ThirdBodyAttraction;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.frames.UpdatableFrame;
+import fr.cnes.sirius.patrius.frames.transformations.Transform;
+import fr.cnes.sirius.patrius.math.ode.nonstiff.DormandPrince853Integrator;
+import fr.cnes.sirius.patrius.orbits.Orbit;
+import fr.cnes.sirius.patrius.orbits.OrbitType;
+import fr.cnes.sirius.patrius.orbits.PositionAngle;
+import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * JMH benchmark of {@link NumericalPropagator} with typical force models sets:
+ * <ul>
+ * <li>LEO: 20x20 Earth potential, Sun and Moon attraction, DTM2000 drag, propagation over one orbit</li>
+ * <li>GEO: 8x8 Earth potential, Sun and Moon attraction, propagation over one day</li>
+ * </ul>
+ *
+ * @since 4.14
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class NumericalPropagatorBenchmark {
+
+    /** Main part name. */
+    private static final String MAIN_PART = "Main";
+
+    /** Force models set. */
+    @Param({ "LEO", "GEO" })
+    private String forces;
+
+    /** Propagator. */
+    private NumericalPropagator propagator;
+
+    /** Mass model. */
+    private MassModel massModel;
+
+    /** Initial orbit. */
+    private Orbit initialOrbit;
+
+    /** Propagation duration (s). */
+    private double duration;
+
+    /**
+     * Build the propagator.
+     *
+     * @throws IOException
+     *         if the gravity field cannot be read
+     * @throws ParseException
+     *         if the gravity field cannot be parsed
+     * @throws PatriusException
+     *         if data cannot be loaded
+     */
+    @Setup
+    public void setUp() throws IOException, ParseException, PatriusException {
+        BenchmarkUtils.init();
+        final AbsoluteDate epoch = BenchmarkUtils.getEpoch();
+        final CelestialBody sun = CelestialBodyFactory.getSun();
+        final CelestialBody moon = CelestialBodyFactory.getMoon();
+
+        // Spacecraft
+        final AssemblyBuilder builder = new AssemblyBuilder();
+        builder.addMainPart(MAIN_PART);
+        builder.addProperty(new MassProperty(1000.), MAIN_PART);
+        builder.addProperty(new AeroSphereProperty(1., 2.2), MAIN_PART);
+        builder.initMainPartFrame(new UpdatableFrame(FramesFactory.getGCRF(), Transform.IDENTITY, MAIN_PART));
+        final Assembly assembly = builder.returnAssembly();
+        this.massModel = new MassModel(assembly);
+
+        this.propagator = new NumericalPropagator(new DormandPrince853Integrator(0.1, 500., 1e-3, 1e-9),
+            FramesFactory.getGCRF(), OrbitType.CARTESIAN, PositionAngle.TRUE);
+        this.propagator.setMassProviderEquation(this.massModel);
+        if ("LEO".equals(this.forces)) {
+            this.initialOrbit = BenchmarkUtils.getLEOOrbit(epoch);
+            this.duration = this.initialOrbit.getKeplerianPeriod();
+            this.propagator.addForceModel(new DirectBodyAttraction(BenchmarkUtils.getCunninghamModel(20, 20)));
+            final OneAxisEllipsoid earth = new OneAxisEllipsoid(BenchmarkUtils.AE, BenchmarkUtils.F,
+                FramesFactory.getITRF());
+            final DTM2000 atmosphere = new DTM2000(new DTMSolarData(new ConstantSolarActivity(140., 15.)), sun,
+                earth);
+            this.propagator.addForceModel(new DragForce(atmosphere, new AeroModel(assembly)));
+        } else {
+            this.initialOrbit = BenchmarkUtils.getGEOOrbit(epoch);
+            this.duration = 86400.;
+            this.propagator.addForceModel(new DirectBodyAttraction(BenchmarkUtils.getCunninghamModel(8, 8)));
+        }
+        this.propagator.addForceModel(new ThirdBodyAttraction(sun.getGravityModel()));
+        this.propagator.addForceModel(new ThirdBodyAttraction(moon.getGravityModel()));
+    }
+
+    /**
+     * Propagate the initial orbit.
+     *
+     * @return the final state
+     * @throws PatriusException
+     *         if propagation fails
+     */
+    @Benchmark
+    public SpacecraftState propagate() throws PatriusException {
+        this.propagator.setInitialState(new SpacecraftState(this.initialOrbit, this.massModel));
+        return this.propagator.propagate(this.initialOrbit.getDate().shiftedBy(this.duration));
+    }
+}
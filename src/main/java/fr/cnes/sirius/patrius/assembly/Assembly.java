@@ -424,6 +424,11 @@ public class Assembly implements Serializable {
      * {@link #initMainPartFrame(UpdatableFrame)} or {@link #initMainPartFrame(SpacecraftState)}). If that is not the
      * case, an {@link IllegalArgumentException} is thrown.
      * </p>
+     * <p>
+     * This method is synchronized so that several force models sharing the same assembly can update it concurrently
+     * for the same state (see
+     * {@link fr.cnes.sirius.patrius.propagation.numerical.NumericalPropagator#setForceModelsParallelism(int)}).
+     * </p>
      * 
      * @param state
      *        the SpacecraftState
@@ -432,7 +437,7 @@ public class Assembly implements Serializable {
      * @throws IllegalArgumentException
      *         if the main frame has no parent yet
      */
-    public final void updateMainPartFrame(final SpacecraftState state) throws PatriusException {
+    public final synchronized void updateMainPartFrame(final SpacecraftState state) throws PatriusException {
 
         if (!this.needUpdate(state)) {
             // Check if state has changed
@@ -317,7 +317,8 @@ public abstract class AbstractCelestialPoint implements CelestialPoint {
                 final FramesConfiguration config,
                 final boolean computeSpinDerivatives) throws PatriusException {
             // compute translation from parent frame to self
-            final PVCoordinates pv = getEphemeris().getPVCoordinates(date, this.parentFrame);
+            final PVCoordinates pv = CelestialEphemerisSnapshot.getPVCoordinates(getEphemeris(), date,
+                this.parentFrame);
             return new Transform(date, pv);
         }
     }
@@ -0,0 +1,361 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.bodies;
+
+import java.util.Map;
+
+import fr.cnes.sirius.patrius.frames.CelestialBodyFrame;
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Abstract class for the loaders of JPL ephemerides binary files (DE 4xx) and similar formats (INPOP).
+ * <p>
+ * This class holds what does not depend on the way the files are read: the ephemerides built for each ephemeris type
+ * (including the Earth-Moon mass ratio scaling of the Earth-Moon barycenter and solar system barycenter ephemerides),
+ * the constants and gravitational coefficients deduced from the headers, and the consistency checks of the headers.
+ * </p>
+ *
+ * @see JPLHistoricEphemerisLoader
+ * @see JPLMappedEphemerisLoader
+ *
+ * @since 4.14
+ */
+public abstract class AbstractJPLEphemerisLoader implements JPLEphemerisLoader {
+
+    /** The constant name for the astronomical unit. */
+    static final String CONSTANT_AU = "AU";
+
+    /** The constant name for the earth-moon mass ratio. */
+    static final String CONSTANT_EMRAT = "EMRAT";
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = 2387190532871365420L;
+
+    /** AU threshold. */
+    private static final double THRESHOLD_AU = 0.001;
+
+    /** Mass-ratio threshold. */
+    private static final double THRESHOLD_MASS_RATIO = 1E-8;
+
+    /** Min AU. */
+    private static final double MIN_AU = 1.4e11;
+
+    /** Max AU. */
+    private static final double MAX_AU = 1.6e11;
+
+    /** Min Earth-Moon ratio. */
+    private static final double MIN_EM_RATIO = 80;
+
+    /** Max Earth-Moon ratio. */
+    private static final double MAX_EM_RATIO = 82;
+
+    /** Km to m ratio. */
+    private static final double KM_TO_M = 1000.;
+
+    /** Ephemeris type to generate. */
+    private final EphemerisType generateType;
+
+    /** Ephemeris type to load. */
+    private final EphemerisType loadType;
+
+    /**
+     * Constructor.
+     *
+     * @param generateTypeIn
+     *        ephemeris type to generate
+     */
+    protected AbstractJPLEphemerisLoader(final EphemerisType generateTypeIn) {
+        this.generateType = generateTypeIn;
+        if (generateTypeIn == EphemerisType.SOLAR_SYSTEM_BARYCENTER) {
+            this.loadType = EphemerisType.EARTH_MOON;
+        } else if (generateTypeIn == EphemerisType.EARTH_MOON) {
+            this.loadType = EphemerisType.MOON;
+        } else {
+            this.loadType = generateTypeIn;
+        }
+    }
+
+    /**
+     * Load celestial body ephemeris.
+     *
+     * @param name
+     *        name of the celestial body
+     * @return loaded celestial body
+     * @throws PatriusException
+     *         if the body cannot be loaded
+     */
+    @Override
+    public CelestialBodyEphemeris loadCelestialBodyEphemeris(final String name) throws PatriusException {
+
+        // Initialization
+        final CelestialBodyEphemeris res;
+
+        switch (this.generateType) {
+            case SOLAR_SYSTEM_BARYCENTER:
+                final CelestialBodyFrame icrf =
+                    CelestialBodyFactory.getPoint(CelestialBodyFactory.EARTH_MOON).getICRF();
+                res = this.buildEphemeris(name, -1.0, icrf);
+                break;
+            case EARTH_MOON:
+                res = this.buildEphemeris(name, 1.0 / (1.0 + this.getLoadedEarthMoonMassRatio()),
+                    FramesFactory.getGCRF());
+                break;
+            case EARTH:
+                res = new EarthEphemeris();
+                break;
+            case MOON:
+                res = this.buildEphemeris(name, 1.0, FramesFactory.getGCRF());
+                break;
+            default:
+                // General case
+                res = this.buildEphemeris(name, 1.0, FramesFactory.getICRF());
+                break;
+        }
+
+        // Return result
+        return res;
+    }
+
+    /**
+     * Build the ephemeris of the loaded body.
+     *
+     * @param name
+     *        name of the body
+     * @param scale
+     *        scaling factor for position-velocity
+     * @param parentFrame
+     *        parent frame (usually it should be the ICRF centered on the parent body)
+     * @return the ephemeris of the loaded body
+     */
+    protected abstract CelestialBodyEphemeris buildEphemeris(final String name, final double scale,
+                                                             final Frame parentFrame);
+
+    /**
+     * Get the constants defined in the ephemerides headers, loading them if needed.
+     *
+     * @return the constants defined in the ephemerides headers
+     * @exception PatriusException
+     *            if constants cannot be loaded
+     */
+    protected abstract Map<String, Double> getConstants() throws PatriusException;
+
+    /**
+     * Get astronomical unit.
+     *
+     * @return astronomical unit in meters
+     * @exception PatriusException
+     *            if constants cannot be loaded
+     */
+    public double getLoadedAstronomicalUnit() throws PatriusException {
+        return KM_TO_M * this.getLoadedConstant(CONSTANT_AU);
+    }
+
+    /**
+     * Get Earth/Moon mass ratio.
+     *
+     * @return Earth/Moon mass ratio
+     * @exception PatriusException
+     *            if constants cannot be loaded
+     */
+    public double getLoadedEarthMoonMassRatio() throws PatriusException {
+        return this.getLoadedConstant(CONSTANT_EMRAT);
+    }
+
+    /**
+     * Get the gravitational coefficient of a body.
+     *
+     * @param body
+     *        body for which the gravitational coefficient is requested
+     * @return gravitational coefficient in m<sup>3</sup>/s<sup>2</sup>
+     * @exception PatriusException
+     *            if constants cannot be loaded
+     */
+    // CHECKSTYLE: stop CyclomaticComplexity check
+    // CHECKSTYLE: stop ReturnCount check
+    // Reason: Orekit code kept as such
+    @Override
+    public double getLoadedGravitationalCoefficient(final EphemerisType body)
+        throws PatriusException {
+        // CHECKSTYLE: resume ReturnCount check
+        // CHECKSTYLE: resume CyclomaticComplexity check
+
+        // coefficient in au<sup>3</sup>/day<sup>2</sup>
+        final double rawGM;
+        switch (body) {
+            case SOLAR_SYSTEM_BARYCENTER:
+                return this.getLoadedGravitationalCoefficient(EphemerisType.SUN) +
+                        this.getLoadedGravitationalCoefficient(EphemerisType.MERCURY) +
+                        this.getLoadedGravitationalCoefficient(EphemerisType.VENUS) +
+                        this.getLoadedGravitationalCoefficient(EphemerisType.EARTH_MOON) +
+                        this.getLoadedGravitationalCoefficient(EphemerisType.MARS) +
+                        this.getLoadedGravitationalCoefficient(EphemerisType.JUPITER) +
+                        this.getLoadedGravitationalCoefficient(EphemerisType.SATURN) +
+                        this.getLoadedGravitationalCoefficient(EphemerisType.URANUS) +
+                        this.getLoadedGravitationalCoefficient(EphemerisType.NEPTUNE) +
+                        this.getLoadedGravitationalCoefficient(EphemerisType.PLUTO);
+            case SUN:
+                rawGM = this.getLoadedConstant("GMS", "GM_Sun");
+                break;
+            case MERCURY:
+                rawGM = this.getLoadedConstant("GM1", "GM_Mer");
+                break;
+            case VENUS:
+                rawGM = this.getLoadedConstant("GM2", "GM_Ven");
+                break;
+            case EARTH_MOON:
+                rawGM = this.getLoadedConstant("GMB", "GM_EMB");
+                break;
+            case EARTH:
+                // Deduced from E/M mass ratio
+                return this.getLoadedEarthMoonMassRatio() *
+                        this.getLoadedGravitationalCoefficient(EphemerisType.MOON);
+            case MOON:
+                // Deduced from E/M mass ratio
+                return this.getLoadedGravitationalCoefficient(EphemerisType.EARTH_MOON) /
+                        (1.0 + this.getLoadedEarthMoonMassRatio());
+            case MARS:
+                rawGM = this.getLoadedConstant("GM4", "GM_Mar");
+                break;
+            case JUPITER:
+                rawGM = this.getLoadedConstant("GM5", "GM_Jup");
+                break;
+            case SATURN:
+                rawGM = this.getLoadedConstant("GM6", "GM_Sat");
+                break;
+            case URANUS:
+                rawGM = this.getLoadedConstant("GM7", "GM_Ura");
+                break;
+            case NEPTUNE:
+                rawGM = this.getLoadedConstant("GM8", "GM_Nep");
+                break;
+            case PLUTO:
+                rawGM = this.getLoadedConstant("GM9", "GM_Plu");
+                break;
+            default:
+                // SHould not happen
+                throw PatriusException.createInternalError(null);
+        }
+
+        // Compute final coefficient
+        final double au = this.getLoadedAstronomicalUnit();
+        return rawGM * au * au * au / (Constants.JULIAN_DAY * Constants.JULIAN_DAY);
+
+    }
+
+    /**
+     * Get a constant defined in the ephemerides headers.
+     * <p>
+     * Note that since constants are defined in the JPL headers files, they are available as soon as one file is
+     * available, even if it doesn't match the desired central date. This is because the header must be parsed before
+     * the dates can be checked.
+     * </p>
+     * <p>
+     * There are alternate names for constants since for example JPL names are different from INPOP names (Sun gravity:
+     * GMS or GM_Sun, Mercury gravity: GM4 or GM_Mar...).
+     * </p>
+     *
+     * @param names
+     *        alternate names of the constant
+     * @return value of the constant of NaN if the constant is not defined
+     * @exception PatriusException
+     *            if constants cannot be loaded
+     */
+    public double getLoadedConstant(final String... names) throws PatriusException {
+        final Map<String, Double> map = this.getConstants();
+        // loop on the names
+        for (final String name : names) {
+            // test if the map owns the name
+            if (map.containsKey(name)) {
+                // return the double value with the associated key
+                return map.get(name).doubleValue();
+            }
+        }
+
+        return Double.NaN;
+    }
+
+    /**
+     * Getter for the ephemeris type to generate.
+     *
+     * @return the ephemeris type to generate
+     */
+    public EphemerisType getGenerateType() {
+        return this.generateType;
+    }
+
+    /**
+     * Getter for the ephemeris type to load.
+     *
+     * @return the ephemeris type to load (the Earth-Moon barycenter for the solar system barycenter, the Moon for
+     *         the Earth-Moon barycenter, the ephemeris type to generate otherwise)
+     */
+    protected EphemerisType getLoadType() {
+        return this.loadType;
+    }
+
+    /**
+     * Check the astronomical unit and the Earth-Moon mass ratio read in the header of a file.
+     *
+     * @param au
+     *        astronomical unit read in the header (m)
+     * @param emRat
+     *        Earth-Moon mass ratio read in the header
+     * @param reference
+     *        constants of the first loaded file, the header constants must be consistent with (null if the file is
+     *        the first loaded one)
+     * @param name
+     *        name of the file
+     * @exception PatriusException
+     *            if the header constants are out of their expected range or inconsistent with the reference ones
+     */
+    protected static void checkHeaderConstants(final double au, final double emRat,
+                                               final Map<String, Double> reference,
+                                               final String name) throws PatriusException {
+
+        // check astronomical unit consistency
+        if ((au < MIN_AU) || (au > MAX_AU)) {
+            throw new PatriusException(PatriusMessages.NOT_A_JPL_EPHEMERIDES_BINARY_FILE, name);
+        }
+        if (reference != null) {
+            final double referenceAU = KM_TO_M * reference.get(CONSTANT_AU);
+            if (MathLib.abs(referenceAU - au) >= THRESHOLD_AU) {
+                throw new PatriusException(PatriusMessages.INCONSISTENT_ASTRONOMICAL_UNIT_IN_FILES, referenceAU,
+                    au);
+            }
+        }
+
+        // check Earth-Moon mass ratio consistency
+        if ((emRat < MIN_EM_RATIO) || (emRat > MAX_EM_RATIO)) {
+            throw new PatriusException(PatriusMessages.NOT_A_JPL_EPHEMERIDES_BINARY_FILE, name);
+        }
+        if (reference != null) {
+            final double referenceEMRat = reference.get(CONSTANT_EMRAT);
+            if (MathLib.abs(referenceEMRat - emRat) >= THRESHOLD_MASS_RATIO) {
+                throw new PatriusException(PatriusMessages.INCONSISTENT_EARTH_MOON_RATIO_IN_FILES,
+                    referenceEMRat, emRat);
+            }
+        }
+    }
+}
@@ -0,0 +1,359 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.bodies;
+
+import java.io.Serializable;
+
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.tools.cache.CacheMetrics;
+import fr.cnes.sirius.patrius.tools.cache.CacheMetricsRegistry;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Snapshot of celestial points ephemerides shared by the models of a derivatives computation.
+ * <p>
+ * During one derivatives computation, several models (third body attractions, solar radiation pressure and its
+ * lighting ratio, atmosphere models, tides, attitude laws, etc.) request the position of the same celestial points at
+ * the same date. While a {@link Scope scope} of the snapshot is {@link #open() open} in a thread, the ephemerides of
+ * the celestial points are evaluated once per date and frame and the states are handed to every subsequent request
+ * of this thread. All the consumers benefit from it without any change, whether they call
+ * {@link CelestialPoint#getPVCoordinates} or use the point-centered frames: both end up in
+ * {@link #getPVCoordinates(CelestialBodyEphemeris, AbsoluteDate, Frame)}.
+ * </p>
+ * <p>
+ * The snapshot is meant to be propagator-scoped, see
+ * {@link fr.cnes.sirius.patrius.propagation.numerical.NumericalPropagator#setCelestialEphemerisSnapshot
+ * NumericalPropagator.setCelestialEphemerisSnapshot}: a scope is opened at the beginning of each derivatives
+ * computation and closed at its end, which discards its states. The celestial points themselves are never modified,
+ * hence other computations, in other threads or outside the scope, are not affected.
+ * </p>
+ * <p>
+ * Hits and misses are reported to the {@link CacheMetrics metrics} registered under the snapshot name in the
+ * {@link CacheMetricsRegistry}, if metrics are enabled.
+ * </p>
+ *
+ * @concurrency thread-safe
+ *
+ * @concurrency.comment the snapshot itself is immutable; the states of a scope are held in an immutable holder
+ *                      replaced atomically: threads sharing a scope may occasionally compute the same state twice but
+ *                      never see inconsistent states
+ *
+ * @since 4.14
+ */
+public class CelestialEphemerisSnapshot implements Serializable {
+
+    /** Default name of the snapshot metrics. */
+    public static final String DEFAULT_METRICS_NAME = CelestialEphemerisSnapshot.class.getName();
+
+    /** Maximum number of states kept by a scope. */
+    public static final int MAX_STATES = 8;
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = -1530627744096518391L;
+
+    /** Scope open in each thread. */
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    /** Name of the metrics the snapshot reports to. */
+    private final String name;
+
+    /** Metrics the snapshot reports to (null if not resolved yet or if metrics are disabled). */
+    private transient CacheMetrics metrics;
+
+    /**
+     * Constructor reporting to the metrics named {@link #DEFAULT_METRICS_NAME}.
+     */
+    public CelestialEphemerisSnapshot() {
+        this(DEFAULT_METRICS_NAME);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param metricsName
+     *        name of the {@link CacheMetrics metrics} the snapshot reports to
+     */
+    public CelestialEphemerisSnapshot(final String metricsName) {
+        this.name = metricsName;
+    }
+
+    /**
+     * Open a new scope of this snapshot in the current thread.
+     * <p>
+     * The scope starts empty and lasts until it is {@link Scope#close() closed}, which restores the scope previously
+     * open in the thread, if any.
+     * </p>
+     *
+     * @return the new scope
+     */
+    public Scope open() {
+        return new Scope(this, new Holder());
+    }
+
+    /**
+     * Get the state of an ephemeris, through the scope open in the current thread if any.
+     *
+     * @param ephemeris
+     *        ephemeris
+     * @param date
+     *        date
+     * @param frame
+     *        frame
+     * @return the state of the ephemeris at the date, in the frame
+     * @throws PatriusException
+     *         if the state cannot be computed
+     */
+    public static PVCoordinates getPVCoordinates(final CelestialBodyEphemeris ephemeris, final AbsoluteDate date,
+                                                 final Frame frame) throws PatriusException {
+        final Scope scope = CURRENT.get();
+        if (scope == null) {
+            return ephemeris.getPVCoordinates(date, frame);
+        }
+        return scope.getPVCoordinates(ephemeris, date, frame);
+    }
+
+    /**
+     * Getter for the scope open in the current thread.
+     *
+     * @return the scope open in the current thread, null if none
+     */
+    public static Scope getCurrentScope() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Getter for the metrics the snapshot reports to.
+     *
+     * @return the metrics the snapshot reports to, null if metrics are {@link CacheMetricsRegistry#setEnabled(boolean)
+     *         disabled}
+     */
+    public CacheMetrics getMetrics() {
+        if (!CacheMetricsRegistry.isEnabled()) {
+            return null;
+        }
+        CacheMetrics cacheMetrics = this.metrics;
+        if (cacheMetrics == null) {
+            // resolving the metrics concurrently is harmless
+            cacheMetrics = CacheMetricsRegistry.getMetrics(this.name);
+            this.metrics = cacheMetrics;
+        }
+        return cacheMetrics;
+    }
+
+    /**
+     * Scope of a snapshot, open in one thread.
+     * <p>
+     * The states computed while the scope is open are kept (at most {@link #MAX_STATES}) and discarded when it is
+     * closed. A scope can be {@link #share() shared} with other threads, for instance to evaluate force models
+     * concurrently.
+     * </p>
+     */
+    public static final class Scope implements AutoCloseable {
+
+        /** Snapshot. */
+        private final CelestialEphemerisSnapshot snapshot;
+
+        /** States holder. */
+        private final Holder holder;
+
+        /** Scope previously open in the thread. */
+        private final Scope previous;
+
+        /**
+         * Constructor: installs the scope in the current thread.
+         *
+         * @param snapshotIn
+         *        snapshot
+         * @param holderIn
+         *        states holder
+         */
+        private Scope(final CelestialEphemerisSnapshot snapshotIn, final Holder holderIn) {
+            this.snapshot = snapshotIn;
+            this.holder = holderIn;
+            this.previous = CURRENT.get();
+            CURRENT.set(this);
+        }
+
+        /**
+         * Open in the current thread a scope sharing the states of this scope.
+         *
+         * @return the new scope
+         */
+        public Scope share() {
+            return new Scope(this.snapshot, this.holder);
+        }
+
+        /**
+         * Get the state of an ephemeris, computing it if it is not available.
+         *
+         * @param ephemeris
+         *        ephemeris
+         * @param date
+         *        date
+         * @param frame
+         *        frame
+         * @return the state of the ephemeris at the date, in the frame
+         * @throws PatriusException
+         *         if the state cannot be computed
+         */
+        private PVCoordinates getPVCoordinates(final CelestialBodyEphemeris ephemeris, final AbsoluteDate date,
+                                               final Frame frame) throws PatriusException {
+            final CacheMetrics cacheMetrics = this.snapshot.getMetrics();
+            final States current = this.holder.states;
+            final PVCoordinates cached = current.get(ephemeris, date, frame);
+            if (cached != null) {
+                if (cacheMetrics != null) {
+                    cacheMetrics.recordHit();
+                }
+                return cached;
+            }
+
+            // Compute the state and publish it
+            final PVCoordinates pv;
+            if (cacheMetrics == null) {
+                pv = ephemeris.getPVCoordinates(date, frame);
+            } else {
+                cacheMetrics.recordMiss();
+                final long start = System.nanoTime();
+                pv = ephemeris.getPVCoordinates(date, frame);
+                cacheMetrics.recordGeneration(System.nanoTime() - start);
+            }
+            this.holder.states = current.with(ephemeris, date, frame, pv);
+            return pv;
+        }
+
+        /**
+         * Close the scope: the scope previously open in the thread is restored.
+         */
+        @Override
+        public void close() {
+            if (this.previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(this.previous);
+            }
+        }
+    }
+
+    /**
+     * Holder of the states of a scope, shared by the threads using it.
+     */
+    private static final class Holder {
+
+        /** States. */
+        private volatile States states = States.EMPTY;
+    }
+
+    /**
+     * Immutable states of ephemerides.
+     */
+    private static final class States {
+
+        /** Empty states. */
+        private static final States EMPTY = new States(new CelestialBodyEphemeris[0], new AbsoluteDate[0],
+            new Frame[0], new PVCoordinates[0]);
+
+        /** Ephemerides, from the most recent to the oldest one. */
+        private final CelestialBodyEphemeris[] ephemerides;
+
+        /** Dates. */
+        private final AbsoluteDate[] dates;
+
+        /** Frames. */
+        private final Frame[] frames;
+
+        /** States. */
+        private final PVCoordinates[] pvs;
+
+        /**
+         * Constructor.
+         *
+         * @param ephemerides
+         *        ephemerides
+         * @param dates
+         *        dates
+         * @param frames
+         *        frames
+         * @param pvs
+         *        states
+         */
+        private States(final CelestialBodyEphemeris[] ephemerides, final AbsoluteDate[] dates, final Frame[] frames,
+                       final PVCoordinates[] pvs) {
+            this.ephemerides = ephemerides;
+            this.dates = dates;
+            this.frames = frames;
+            this.pvs = pvs;
+        }
+
+        /**
+         * Get a state.
+         *
+         * @param ephemeris
+         *        ephemeris
+         * @param date
+         *        date
+         * @param frame
+         *        frame
+         * @return the state, null if it is not available
+         */
+        public PVCoordinates get(final CelestialBodyEphemeris ephemeris, final AbsoluteDate date, final Frame frame) {
+            for (int i = 0; i < this.pvs.length; i++) {
+                if (this.ephemerides[i] == ephemeris && this.frames[i] == frame && this.dates[i].equals(date)) {
+                    return this.pvs[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Build the states with an additional state, dropping the oldest one if {@link #MAX_STATES} is reached.
+         *
+         * @param ephemeris
+         *        ephemeris
+         * @param date
+         *        date
+         * @param frame
+         *        frame
+         * @param pv
+         *        state
+         * @return the new states
+         */
+        public States with(final CelestialBodyEphemeris ephemeris, final AbsoluteDate date, final Frame frame,
+                           final PVCoordinates pv) {
+            final int n = MathLib.min(this.pvs.length + 1, MAX_STATES);
+            final CelestialBodyEphemeris[] newEphemerides = new CelestialBodyEphemeris[n];
+            final AbsoluteDate[] newDates = new AbsoluteDate[n];
+            final Frame[] newFrames = new Frame[n];
+            final PVCoordinates[] newPvs = new PVCoordinates[n];
+            newEphemerides[0] = ephemeris;
+            newDates[0] = date;
+            newFrames[0] = frame;
+            newPvs[0] = pv;
+            System.arraycopy(this.ephemerides, 0, newEphemerides, 1, n - 1);
+            System.arraycopy(this.dates, 0, newDates, 1, n - 1);
+            System.arraycopy(this.frames, 0, newFrames, 1, n - 1);
+            System.arraycopy(this.pvs, 0, newPvs, 1, n - 1);
+            return new States(newEphemerides, newDates, newFrames, newPvs);
+        }
+    }
+}
@@ -145,7 +145,35 @@ public class JPLCelestialBodyLoader extends AbstractJPLCelestialBodyLoader {
     public JPLCelestialBodyLoader(final String supportedNamesIn,
             final EphemerisType generateTypeIn,
             final GravityModel gravityModelIn) {
-        super(supportedNamesIn, new JPLHistoricEphemerisLoader(supportedNamesIn, generateTypeIn));
+        this(supportedNamesIn, generateTypeIn, gravityModelIn,
+            new JPLHistoricEphemerisLoader(supportedNamesIn, generateTypeIn));
+    }
+
+    /**
+     * Create a loader for JPL ephemerides binary files (DE-INPOP type) using a specific ephemeris loader (e.g. a
+     * {@link JPLMappedEphemerisLoader} for long-span analyses).
+     *
+     * @param supportedNamesIn
+     *        regular expression for supported files names
+     * @param generateTypeIn
+     *        ephemeris type to generate
+     * @param gravityModelIn
+     *        gravitational attraction model
+     * @param ephemerisLoaderIn
+     *        ephemeris loader, generating the same ephemeris type
+     * @throws IllegalArgumentException
+     *         if the ephemeris loader does not generate the requested ephemeris type
+     * @since 4.14
+     */
+    public JPLCelestialBodyLoader(final String supportedNamesIn,
+            final EphemerisType generateTypeIn,
+            final GravityModel gravityModelIn,
+            final AbstractJPLEphemerisLoader ephemerisLoaderIn) {
+        super(supportedNamesIn, ephemerisLoaderIn);
+        if (ephemerisLoaderIn.getGenerateType() != generateTypeIn) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.INCONSISTENT_EPHEMERIS_TYPE,
+                ephemerisLoaderIn.getGenerateType(), generateTypeIn);
+        }
         this.gravityModel = gravityModelIn;
         this.ephemerisType = generateTypeIn;
     }
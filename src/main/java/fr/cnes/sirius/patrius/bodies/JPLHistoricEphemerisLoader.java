@@ -41,9 +41,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import fr.cnes.sirius.patrius.data.DataLoader;
 import fr.cnes.sirius.patrius.data.DataProvidersManager;
-import fr.cnes.sirius.patrius.frames.CelestialBodyFrame;
 import fr.cnes.sirius.patrius.frames.Frame;
-import fr.cnes.sirius.patrius.frames.FramesFactory;
 import fr.cnes.sirius.patrius.frames.transformations.Transform;
 import fr.cnes.sirius.patrius.math.util.MathLib;
 import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
@@ -103,7 +101,7 @@ import fr.cnes.sirius.patrius.utils.exception.TimeStampedCacheException;
  *
  * @since 4.10
  */
-public class JPLHistoricEphemerisLoader implements JPLEphemerisLoader {
+public class JPLHistoricEphemerisLoader extends AbstractJPLEphemerisLoader {
 
     /** Default supported files name pattern for JPL DE files. */
     public static final String DEFAULT_DE_SUPPORTED_NAMES = "^[lu]nx[mp](\\d\\d\\d\\d)\\.(?:4\\d\\d)$";
@@ -162,12 +160,6 @@ public class JPLHistoricEphemerisLoader implements JPLEphemerisLoader {
     /** Offset of the range end in the data records. */
     private static final int DATE_END_RANGE_OFFSET = 8;
 
-    /** The constant name for the astronomical unit. */
-    private static final String CONSTANT_AU = "AU";
-
-    /** The constant name for the earth-moon mass ratio. */
-    private static final String CONSTANT_EMRAT = "EMRAT";
-
     /** 1 byte (long). */
     private static final long BYTE_LONG = 0xffL;
 
@@ -210,24 +202,6 @@ public class JPLHistoricEphemerisLoader implements JPLEphemerisLoader {
     /** 10. */
     private static final int C_10 = 10;
 
-    /** AU threshold. */
-    private static final double THRESHOLD_AU = 0.001;
-
-    /** Mass-ratio threshold. */
-    private static final double THRESHOLD_MASS_RATIO = 1E-8;
-
-    /** Min AU. */
-    private static final double MIN_AU = 1.4e11;
-
-    /** Max AU. */
-    private static final double MAX_AU = 1.6e11;
-
-    /** Min Earth-Moon ratio. */
-    private static final double MIN_EM_RATIO = 80;
-
-    /** Max Earth-Moon ratio. */
-    private static final double MAX_EM_RATIO = 82;
-
     /** Number of Chebychev coefficients. */
     private static final int CHEBYCHEV_NUMBER = 12;
 
@@ -249,12 +223,6 @@ public class JPLHistoricEphemerisLoader implements JPLEphemerisLoader {
     /** Constants defined in the file. */
     private transient ThreadLocal<AtomicReference<Map<String, Double>>> constants;
 
-    /** Ephemeris type to generate. */
-    private final EphemerisType generateType;
-
-    /** Ephemeris type to load. */
-    private final EphemerisType loadType;
-
     /** Chunks duration (in seconds). */
     private double maxChunksDuration;
 
@@ -274,6 +242,7 @@ public class JPLHistoricEphemerisLoader implements JPLEphemerisLoader {
      */
     public JPLHistoricEphemerisLoader(final String supportedNamesIn,
                                       final EphemerisType generateTypeIn) {
+        super(generateTypeIn);
         this.supportedNames = supportedNamesIn;
         this.constants = new ThreadLocal<AtomicReference<Map<String, Double>>>(){
             /** {@inheritDoc} */
@@ -284,181 +253,19 @@ public class JPLHistoricEphemerisLoader implements JPLEphemerisLoader {
         };
 
         this.maxChunksDuration = Double.NaN;
-        this.generateType = generateTypeIn;
-        if (generateTypeIn == EphemerisType.SOLAR_SYSTEM_BARYCENTER) {
-            this.loadType = EphemerisType.EARTH_MOON;
-        } else if (generateTypeIn == EphemerisType.EARTH_MOON) {
-            this.loadType = EphemerisType.MOON;
-        } else {
-            this.loadType = generateTypeIn;
-        }
 
         this.ephemerides = new EphemerisPerThread().getThreadLocal();
     }
 
-    /**
-     * Load celestial body ephemeris.
-     *
-     * @param name
-     *        name of the celestial body
-     * @return loaded celestial body
-     * @throws PatriusException
-     *         if the body cannot be loaded
-     */
+    /** {@inheritDoc} */
     @Override
-    public CelestialBodyEphemeris loadCelestialBodyEphemeris(final String name) throws PatriusException {
-
-        // Initialization
-        final CelestialBodyEphemeris res;
-
-        switch (this.generateType) {
-            case SOLAR_SYSTEM_BARYCENTER:
-                final CelestialBodyFrame icrf =
-                    CelestialBodyFactory.getPoint(CelestialBodyFactory.EARTH_MOON).getICRF();
-                res = new JPLCelestialBodyEphemeris(name, -1.0, icrf);
-                break;
-            case EARTH_MOON:
-                res = new JPLCelestialBodyEphemeris(name, 1.0 / (1.0 + getLoadedEarthMoonMassRatio()),
-                    FramesFactory.getGCRF());
-                break;
-            case EARTH:
-                res = new EarthEphemeris();
-                break;
-            case MOON:
-                res = new JPLCelestialBodyEphemeris(name, 1.0, FramesFactory.getGCRF());
-                break;
-            default:
-                // General case
-                res = new JPLCelestialBodyEphemeris(name, 1.0, FramesFactory.getICRF());
-                break;
-        }
-
-        // Return result
-        return res;
-    }
-
-    /**
-     * Get astronomical unit.
-     *
-     * @return astronomical unit in meters
-     * @exception PatriusException
-     *            if constants cannot be loaded
-     */
-    public double getLoadedAstronomicalUnit() throws PatriusException {
-        return KM_TO_M * getLoadedConstant(CONSTANT_AU);
-    }
-
-    /**
-     * Get Earth/Moon mass ratio.
-     *
-     * @return Earth/Moon mass ratio
-     * @exception PatriusException
-     *            if constants cannot be loaded
-     */
-    public double getLoadedEarthMoonMassRatio() throws PatriusException {
-        return getLoadedConstant(CONSTANT_EMRAT);
+    protected CelestialBodyEphemeris buildEphemeris(final String name, final double scale, final Frame parentFrame) {
+        return new JPLCelestialBodyEphemeris(name, scale, parentFrame);
     }
 
-    /**
-     * Get the gravitational coefficient of a body.
-     *
-     * @param body
-     *        body for which the gravitational coefficient is requested
-     * @return gravitational coefficient in m<sup>3</sup>/s<sup>2</sup>
-     * @exception PatriusException
-     *            if constants cannot be loaded
-     */
-    // CHECKSTYLE: stop CyclomaticComplexity check
-    // CHECKSTYLE: stop ReturnCount check
-    // Reason: Orekit code kept as such
+    /** {@inheritDoc} */
     @Override
-    public double getLoadedGravitationalCoefficient(final EphemerisType body)
-        throws PatriusException {
-        // CHECKSTYLE: resume ReturnCount check
-        // CHECKSTYLE: resume CyclomaticComplexity check
-
-        // coefficient in au<sup>3</sup>/day<sup>2</sup>
-        final double rawGM;
-        switch (body) {
-            case SOLAR_SYSTEM_BARYCENTER:
-                return getLoadedGravitationalCoefficient(EphemerisType.SUN) +
-                        getLoadedGravitationalCoefficient(EphemerisType.MERCURY) +
-                        getLoadedGravitationalCoefficient(EphemerisType.VENUS) +
-                        getLoadedGravitationalCoefficient(EphemerisType.EARTH_MOON) +
-                        getLoadedGravitationalCoefficient(EphemerisType.MARS) +
-                        getLoadedGravitationalCoefficient(EphemerisType.JUPITER) +
-                        getLoadedGravitationalCoefficient(EphemerisType.SATURN) +
-                        getLoadedGravitationalCoefficient(EphemerisType.URANUS) +
-                        getLoadedGravitationalCoefficient(EphemerisType.NEPTUNE) +
-                        getLoadedGravitationalCoefficient(EphemerisType.PLUTO);
-            case SUN:
-                rawGM = getLoadedConstant("GMS", "GM_Sun");
-                break;
-            case MERCURY:
-                rawGM = getLoadedConstant("GM1", "GM_Mer");
-                break;
-            case VENUS:
-                rawGM = getLoadedConstant("GM2", "GM_Ven");
-                break;
-            case EARTH_MOON:
-                rawGM = getLoadedConstant("GMB", "GM_EMB");
-                break;
-            case EARTH:
-                // Deduced from E/M mass ratio
-                return getLoadedEarthMoonMassRatio() *
-                        getLoadedGravitationalCoefficient(EphemerisType.MOON);
-            case MOON:
-                // Deduced from E/M mass ratio
-                return getLoadedGravitationalCoefficient(EphemerisType.EARTH_MOON) /
-                        (1.0 + getLoadedEarthMoonMassRatio());
-            case MARS:
-                rawGM = getLoadedConstant("GM4", "GM_Mar");
-                break;
-            case JUPITER:
-                rawGM = getLoadedConstant("GM5", "GM_Jup");
-                break;
-            case SATURN:
-                rawGM = getLoadedConstant("GM6", "GM_Sat");
-                break;
-            case URANUS:
-                rawGM = getLoadedConstant("GM7", "GM_Ura");
-                break;
-            case NEPTUNE:
-                rawGM = getLoadedConstant("GM8", "GM_Nep");
-                break;
-            case PLUTO:
-                rawGM = getLoadedConstant("GM9", "GM_Plu");
-                break;
-            default:
-                // SHould not happen
-                throw PatriusException.createInternalError(null);
-        }
-
-        // Compute final coefficient
-        final double au = getLoadedAstronomicalUnit();
-        return rawGM * au * au * au / (Constants.JULIAN_DAY * Constants.JULIAN_DAY);
-
-    }
-
-    /**
-     * Get a constant defined in the ephemerides headers.
-     * <p>
-     * Note that since constants are defined in the JPL headers files, they are available as soon as one file is
-     * available, even if it doesn't match the desired central date. This is because the header must be parsed before
-     * the dates can be checked.
-     * </p>
-     * <p>
-     * There are alternate names for constants since for example JPL names are different from INPOP names (Sun gravity:
-     * GMS or GM_Sun, Mercury gravity: GM4 or GM_Mar...).
-     * </p>
-     *
-     * @param names
-     *        alternate names of the constant
-     * @return value of the constant of NaN if the constant is not defined
-     * @exception PatriusException
-     *            if constants cannot be loaded
-     */
-    public double getLoadedConstant(final String... names) throws PatriusException {
+    protected Map<String, Double> getConstants() throws PatriusException {
 
         // lazy loading of constants
         Map<String, Double> map = this.constants.get().get();
@@ -470,16 +277,7 @@ public class JPLHistoricEphemerisLoader implements JPLEphemerisLoader {
             map = parser.getConstants();
             this.constants.get().compareAndSet(null, map);
         }
-        // loop on the names
-        for (final String name : names) {
-            // test if the map owns the name
-            if (map.containsKey(name)) {
-                // return the double value with the associated key
-                return map.get(name).doubleValue();
-            }
-        }
-
-        return Double.NaN;
+        return map;
     }
 
     /**
@@ -963,7 +761,7 @@ public class JPLHistoricEphemerisLoader implements JPLEphemerisLoader {
             // Special case for Earth: we do not really load any ephemeris data
             // Other cases: we have to look for data in all available ephemerides files as there
             // may be data overlaps that result in incomplete data
-            return (JPLHistoricEphemerisLoader.this.generateType != EphemerisType.EARTH);
+            return (getGenerateType() != EphemerisType.EARTH);
         }
 
         /** {@inheritDoc} */
@@ -987,25 +785,9 @@ public class JPLHistoricEphemerisLoader implements JPLEphemerisLoader {
                     parseConstants(first, second, name));
             }
 
-            // check astronomical unit consistency
-            final double au = 1000 * extractDouble(first, HEADER_ASTRONOMICAL_UNIT_OFFSET);
-            if ((au < MIN_AU) || (au > MAX_AU)) {
-                throw new PatriusException(PatriusMessages.NOT_A_JPL_EPHEMERIDES_BINARY_FILE, name);
-            }
-            if (MathLib.abs(getLoadedAstronomicalUnit() - au) >= THRESHOLD_AU) {
-                throw new PatriusException(PatriusMessages.INCONSISTENT_ASTRONOMICAL_UNIT_IN_FILES,
-                    getLoadedAstronomicalUnit(), au);
-            }
-
-            // check Earth-Moon mass ratio consistency
-            final double emRat = extractDouble(first, HEADER_EM_RATIO_OFFSET);
-            if ((emRat < MIN_EM_RATIO) || (emRat > MAX_EM_RATIO)) {
-                throw new PatriusException(PatriusMessages.NOT_A_JPL_EPHEMERIDES_BINARY_FILE, name);
-            }
-            if (MathLib.abs(getLoadedEarthMoonMassRatio() - emRat) >= THRESHOLD_MASS_RATIO) {
-                throw new PatriusException(PatriusMessages.INCONSISTENT_EARTH_MOON_RATIO_IN_FILES,
-                    getLoadedEarthMoonMassRatio(), emRat);
-            }
+            // check astronomical unit and Earth-Moon mass ratio consistency
+            checkHeaderConstants(1000 * extractDouble(first, HEADER_ASTRONOMICAL_UNIT_OFFSET),
+                extractDouble(first, HEADER_EM_RATIO_OFFSET), getConstants(), name);
 
             // parse first header record
             parseFirstHeaderRecord(first, name);
@@ -1083,17 +865,17 @@ public class JPLHistoricEphemerisLoader implements JPLEphemerisLoader {
                 final int row3 = extractInt(record, HEADER_CHEBISHEV_INDICES_OFFSET + 8
                         + (4 + 8) * i);
                 ok = ok && (row1 >= 0) && (row2 >= 0) && (row3 >= 0);
-                final boolean c1 = (i == 0) && (JPLHistoricEphemerisLoader.this.loadType == EphemerisType.MERCURY);
-                final boolean c2 = (i == 1) && (JPLHistoricEphemerisLoader.this.loadType == EphemerisType.VENUS);
-                final boolean c3 = (i == 2) && (JPLHistoricEphemerisLoader.this.loadType == EphemerisType.EARTH_MOON);
-                final boolean c4 = (i == 3) && (JPLHistoricEphemerisLoader.this.loadType == EphemerisType.MARS);
-                final boolean c5 = (i == 4) && (JPLHistoricEphemerisLoader.this.loadType == EphemerisType.JUPITER);
-                final boolean c6 = (i == 5) && (JPLHistoricEphemerisLoader.this.loadType == EphemerisType.SATURN);
-                final boolean c7 = (i == 6) && (JPLHistoricEphemerisLoader.this.loadType == EphemerisType.URANUS);
-                final boolean c8 = (i == C_7) && (JPLHistoricEphemerisLoader.this.loadType == EphemerisType.NEPTUNE);
-                final boolean c9 = (i == C_8) && (JPLHistoricEphemerisLoader.this.loadType == EphemerisType.PLUTO);
-                final boolean c10 = (i == C_9) && (JPLHistoricEphemerisLoader.this.loadType == EphemerisType.MOON);
-                final boolean c11 = (i == C_10) && (JPLHistoricEphemerisLoader.this.loadType == EphemerisType.SUN);
+                final boolean c1 = (i == 0) && (getLoadType() == EphemerisType.MERCURY);
+                final boolean c2 = (i == 1) && (getLoadType() == EphemerisType.VENUS);
+                final boolean c3 = (i == 2) && (getLoadType() == EphemerisType.EARTH_MOON);
+                final boolean c4 = (i == 3) && (getLoadType() == EphemerisType.MARS);
+                final boolean c5 = (i == 4) && (getLoadType() == EphemerisType.JUPITER);
+                final boolean c6 = (i == 5) && (getLoadType() == EphemerisType.SATURN);
+                final boolean c7 = (i == 6) && (getLoadType() == EphemerisType.URANUS);
+                final boolean c8 = (i == C_7) && (getLoadType() == EphemerisType.NEPTUNE);
+                final boolean c9 = (i == C_8) && (getLoadType() == EphemerisType.PLUTO);
+                final boolean c10 = (i == C_9) && (getLoadType() == EphemerisType.MOON);
+                final boolean c11 = (i == C_10) && (getLoadType() == EphemerisType.SUN);
                 final boolean c1c2c3c4 = c1 || c2 || c3 || c4;
                 final boolean c5c6c7c8 = c5 || c6 || c7 || c8;
                 final boolean c9c10c11 = c9 || c10 || c11;
@@ -1301,7 +1083,8 @@ public class JPLHistoricEphemerisLoader implements JPLEphemerisLoader {
                 /** {@inheritDoc} */
                 @Override
                 protected TimeStampedCache<PosVelChebyshev> initialValue() {
-                    return new TimeStampedCache<>(2, PatriusConfiguration.getCacheSlotsNumber(),
+                    return new TimeStampedCache<>(JPLHistoricEphemerisLoader.class.getName(), 2,
+                        PatriusConfiguration.getCacheSlotsNumber(),
                         Double.POSITIVE_INFINITY, cacheSize, new EphemerisParser(), PosVelChebyshev.class);
                 }
             };
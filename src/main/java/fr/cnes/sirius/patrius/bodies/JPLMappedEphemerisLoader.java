@@ -0,0 +1,233 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.bodies;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import fr.cnes.sirius.patrius.data.DataLoader;
+import fr.cnes.sirius.patrius.data.DataProvidersManager;
+import fr.cnes.sirius.patrius.data.PATRIUSFileInputStream;
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.transformations.Transform;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Memory-mapped loader for JPL ephemerides binary files (DE 4xx) and similar formats (INPOP).
+ * <p>
+ * This loader accepts the same files as {@link JPLHistoricEphemerisLoader} and gives the same results, but instead of
+ * parsing the data records into {@link PosVelChebyshev} instances held in per-thread caches, it maps the files in
+ * memory and evaluates the Chebyshev polynomials straight from the mapped buffers, the record applicable at a date
+ * being located arithmetically from the fixed record layout. Only the header records are read when the files are first
+ * needed: the start-up time does not depend on the span of the files, and the memory use only depends on the records
+ * actually evaluated, which makes this loader suited to long-span analyses (e.g. DE440 over centuries). A single
+ * instance can be used by several threads.
+ * </p>
+ * <p>
+ * The files are found with the {@link DataProvidersManager} and must be regular files (i.e. provided by a
+ * {@link fr.cnes.sirius.patrius.data.DirectoryCrawler}): compressed files and files provided by zip archives or the
+ * class path cannot be mapped.
+ * </p>
+ *
+ * @concurrency thread-safe
+ *
+ * @concurrency.comment the files are mapped once, under lock, and then only read
+ *
+ * @since 4.14
+ */
+public class JPLMappedEphemerisLoader extends AbstractJPLEphemerisLoader {
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = 4969264498722457096L;
+
+    /** Regular expression for supported files names. */
+    private final String supportedNames;
+
+    /** Mapped files, by increasing start epoch (null until the files are first needed). */
+    private transient volatile JPLMappedFile[] files;
+
+    /** Constants defined in the first loaded file (null until the files are first needed). */
+    private transient volatile Map<String, Double> constants;
+
+    /**
+     * Create a memory-mapped loader for JPL ephemerides binary files.
+     *
+     * @param supportedNamesIn
+     *        regular expression for supported files names
+     * @param generateTypeIn
+     *        ephemeris type to generate
+     */
+    public JPLMappedEphemerisLoader(final String supportedNamesIn, final EphemerisType generateTypeIn) {
+        super(generateTypeIn);
+        this.supportedNames = supportedNamesIn;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected CelestialBodyEphemeris buildEphemeris(final String name, final double scale, final Frame parentFrame) {
+        return new MappedCelestialBodyEphemeris(scale, parentFrame);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The constants are those of the first file found by the {@link DataProvidersManager}.
+     * </p>
+     */
+    @Override
+    protected Map<String, Double> getConstants() throws PatriusException {
+        this.getFiles();
+        return this.constants;
+    }
+
+    /**
+     * Getter for the mapped files, which are mapped when first needed.
+     *
+     * @return the mapped files, by increasing start epoch
+     * @throws PatriusException
+     *         if no file can be found or mapped
+     */
+    private JPLMappedFile[] getFiles() throws PatriusException {
+        JPLMappedFile[] result = this.files;
+        if (result == null) {
+            synchronized (this) {
+                result = this.files;
+                if (result == null) {
+                    final FilesMapper mapper = new FilesMapper();
+                    if (!DataProvidersManager.getInstance().feed(this.supportedNames, mapper) ||
+                            mapper.mapped.isEmpty()) {
+                        throw new PatriusException(PatriusMessages.NO_JPL_EPHEMERIDES_BINARY_FILES_FOUND);
+                    }
+                    // The constants are those of the first loaded file
+                    this.constants = mapper.mapped.get(0).getConstants();
+                    result = mapper.mapped.toArray(new JPLMappedFile[mapper.mapped.size()]);
+                    Arrays.sort(result, (f1, f2) -> f1.getStartEpoch().compareTo(f2.getStartEpoch()));
+                    this.files = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compute the position-velocity-acceleration of the loaded body at a date.
+     *
+     * @param date
+     *        date
+     * @return position-velocity-acceleration relative to the center of the body ephemeris, in the ephemeris frame
+     * @throws PatriusException
+     *         if the date is not covered by the files
+     */
+    private PVCoordinates getRawPositionVelocity(final AbsoluteDate date) throws PatriusException {
+        final JPLMappedFile[] mapped = getFiles();
+        // The files starting last are the most specific ones
+        JPLMappedFile latest = mapped[0];
+        for (int i = mapped.length - 1; i >= 0; i--) {
+            if (mapped[i].covers(date)) {
+                return mapped[i].getPositionVelocity(date);
+            }
+            if (mapped[i].getFinalEpoch().compareTo(latest.getFinalEpoch()) > 0) {
+                latest = mapped[i];
+            }
+        }
+        throw new PatriusException(PatriusMessages.OUT_OF_RANGE_EPHEMERIDES_DATE, date, mapped[0].getStartEpoch(),
+            latest.getFinalEpoch());
+    }
+
+    /** Data loader mapping the files. */
+    private class FilesMapper implements DataLoader {
+
+        /** Mapped files, in loading order. */
+        private final List<JPLMappedFile> mapped = new ArrayList<>();
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean stillAcceptsData() {
+            // All the files are mapped, as there may be data overlaps
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void loadData(final InputStream input, final String name) throws PatriusException {
+            // Only regular files can be mapped
+            if (!(input instanceof PATRIUSFileInputStream)) {
+                throw new PatriusException(PatriusMessages.WRONG_FILE_FORMAT, name);
+            }
+            final JPLMappedFile file = new JPLMappedFile(((PATRIUSFileInputStream) input).getFile(),
+                getLoadType());
+
+            // check astronomical unit and Earth-Moon mass ratio consistency with the first file
+            checkHeaderConstants(file.getHeaderAstronomicalUnit(), file.getHeaderEarthMoonMassRatio(),
+                this.mapped.isEmpty() ? null : this.mapped.get(0).getConstants(), name);
+            this.mapped.add(file);
+        }
+    }
+
+    /** Local celestial body ephemeris class. */
+    private class MappedCelestialBodyEphemeris implements CelestialBodyEphemeris {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = -3779264981566211418L;
+
+        /** Scaling factor for position-velocity. */
+        private final double scale;
+
+        /** Parent frame. */
+        private final Frame parentFrame;
+
+        /**
+         * Simple constructor.
+         *
+         * @param scaleIn
+         *        scaling factor for position-velocity
+         * @param parentFrameIn
+         *        parent frame (usually it should be the ICRF centered on the parent body)
+         */
+        public MappedCelestialBodyEphemeris(final double scaleIn, final Frame parentFrameIn) {
+            this.scale = scaleIn;
+            this.parentFrame = parentFrameIn;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public PVCoordinates getPVCoordinates(final AbsoluteDate date, final Frame frame) throws PatriusException {
+            final PVCoordinates scaledPV = new PVCoordinates(this.scale, getRawPositionVelocity(date));
+
+            // the raw PV are relative to the parent frame
+            final Transform transform = this.parentFrame.getTransformTo(frame, date, true);
+
+            // convert to request frame
+            return transform.transformPVCoordinates(scaledPV);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Frame getNativeFrame(final AbsoluteDate date) throws PatriusException {
+            return this.parentFrame;
+        }
+    }
+}
@@ -0,0 +1,636 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.bodies;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.DateComponents;
+import fr.cnes.sirius.patrius.time.TimeComponents;
+import fr.cnes.sirius.patrius.time.TimeScale;
+import fr.cnes.sirius.patrius.time.TimeScalesFactory;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Memory-mapped JPL DE (or IMCCE INPOP) ephemerides binary file.
+ * <p>
+ * Only the two header records are parsed at construction. All the data records have the same size and cover the same
+ * time span: the record applicable at a date, and the Chebyshev coefficients of a body in this record, are located
+ * arithmetically and read straight from the mapped buffers, without building {@link PosVelChebyshev} instances. The
+ * header parsing and the arithmetic are those of {@link JPLHistoricEphemerisLoader}, so that both give the same
+ * results.
+ * </p>
+ *
+ * @concurrency immutable
+ *
+ * @concurrency.comment the mapped buffers are only read with absolute accessors
+ *
+ * @see JPLMappedEphemerisLoader
+ *
+ * @since 4.14
+ */
+final class JPLMappedFile {
+
+    /** DE number used by INPOP files. */
+    private static final int INPOP_DE_NUMBER = 100;
+
+    /** Maximal number of constants in headers. */
+    private static final int CONSTANTS_MAX_NUMBER = 400;
+
+    /** Length of a constant name in the first header record. */
+    private static final int CONSTANT_NAME_LENGTH = 6;
+
+    /** Offset of the ephemeris type in first header record. */
+    private static final int HEADER_EPHEMERIS_TYPE_OFFSET = 2840;
+
+    /** Offset of the record size (for INPOP files) in first header record. */
+    private static final int HEADER_RECORD_SIZE_OFFSET = 2856;
+
+    /** Offset of the start epoch in first header record. */
+    private static final int HEADER_START_EPOCH_OFFSET = 2652;
+
+    /** Offset of the end epoch in first header record. */
+    private static final int HEADER_END_EPOCH_OFFSET = 2660;
+
+    /** Offset of chunks duration in first header record. */
+    private static final int HEADER_CHUNK_DURATION_OFFSET = 2668;
+
+    /** Offset of the astronomical unit in first header record. */
+    private static final int HEADER_ASTRONOMICAL_UNIT_OFFSET = 2680;
+
+    /** Offset of the Earth-Moon mass ratio in first header record. */
+    private static final int HEADER_EM_RATIO_OFFSET = 2688;
+
+    /** Offset of Chebishev coefficients indices in first header record. */
+    private static final int HEADER_CHEBISHEV_INDICES_OFFSET = 2696;
+
+    /** Offset of libration coefficients indices in first header record. */
+    private static final int HEADER_LIBRATION_INDICES_OFFSET = 2844;
+
+    /** Offset of the constants names in first header record. */
+    private static final int HEADER_CONSTANTS_NAMES_OFFSET = 252;
+
+    /** Offset of the range start in the data records. */
+    private static final int DATA_START_RANGE_OFFSET = 0;
+
+    /** Offset of the range end in the data records. */
+    private static final int DATA_END_RANGE_OFFSET = 8;
+
+    /** Number of header records. */
+    private static final int HEADER_RECORDS = 2;
+
+    /** Number of Chebyshev coefficients indices triplets in first header record. */
+    private static final int CHEBYCHEV_NUMBER = 12;
+
+    /** Half integer range (endianness detection). */
+    private static final int HALF_INTEGER_RANGE = 15;
+
+    /** Max time span of a record (days). */
+    private static final int MAX_TIMESPAN = 100;
+
+    /** Maximal size of a chunk of mapped file (bytes). */
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    /** Km to m ratio. */
+    private static final double KM_TO_M = 1000.;
+
+    /** 4 bytes. */
+    private static final long BYTE4 = 0xffffffffL;
+
+    /** Is-in-range threshold (s), as in {@link PosVelChebyshev}. */
+    private static final double THRESHOLD = 0.001;
+
+    /** Index of the Chebyshev coefficients indices of each body in first header record. */
+    private static final Map<EphemerisType, Integer> BODY_INDICES;
+
+    static {
+        final Map<EphemerisType, Integer> map = new HashMap<>();
+        map.put(EphemerisType.MERCURY, 0);
+        map.put(EphemerisType.VENUS, 1);
+        map.put(EphemerisType.EARTH_MOON, 2);
+        map.put(EphemerisType.MARS, 3);
+        map.put(EphemerisType.JUPITER, 4);
+        map.put(EphemerisType.SATURN, 5);
+        map.put(EphemerisType.URANUS, 6);
+        map.put(EphemerisType.NEPTUNE, 7);
+        map.put(EphemerisType.PLUTO, 8);
+        map.put(EphemerisType.MOON, 9);
+        map.put(EphemerisType.SUN, 10);
+        BODY_INDICES = Collections.unmodifiableMap(map);
+    }
+
+    /** Name of the file. */
+    private final String name;
+
+    /** Mapped chunks of the file, each one containing a whole number of records. */
+    private final ByteBuffer[] chunks;
+
+    /** Size of the records (bytes). */
+    private final int recordSize;
+
+    /** Number of records in each chunk. */
+    private final int recordsPerChunk;
+
+    /** Number of data records. */
+    private final int nbRecords;
+
+    /** Constants defined in the file. */
+    private final Map<String, Double> constants;
+
+    /** Time scale of the dates. */
+    private final TimeScale timeScale;
+
+    /** Start epoch of the file. */
+    private final AbsoluteDate startEpoch;
+
+    /** Final epoch of the file. */
+    private final AbsoluteDate finalEpoch;
+
+    /** Duration of the records (s). */
+    private final double recordDuration;
+
+    /** Index of the first data for the loaded body (1 for the first double of the record). */
+    private final int firstIndex;
+
+    /** Number of coefficients for the loaded body. */
+    private final int coeffs;
+
+    /** Number of chunks for the loaded body in each record. */
+    private final int nbChunks;
+
+    /** Duration of the chunks of the loaded body (s). */
+    private final double chunksDuration;
+
+    /** Number of components contained in the file. */
+    private final int components;
+
+    /** Unit of the position coordinates (as a multiple of meters). */
+    private final double positionUnit;
+
+    /**
+     * Constructor: maps the file and parses its header records.
+     *
+     * @param file
+     *        ephemerides file
+     * @param loadType
+     *        ephemeris type whose Chebyshev coefficients are read (unused if it is not stored in the file, e.g.
+     *        {@link EphemerisType#EARTH})
+     * @throws PatriusException
+     *         if the file cannot be read or is not a JPL ephemerides binary file
+     */
+    JPLMappedFile(final File file, final EphemerisType loadType) throws PatriusException {
+        this.name = file.getPath();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_RECORD_SIZE_OFFSET + Integer.BYTES) {
+                throw new PatriusException(PatriusMessages.UNABLE_TO_READ_JPL_HEADER, this.name);
+            }
+
+            // Endianness and record size
+            final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                HEADER_RECORD_SIZE_OFFSET + Integer.BYTES);
+            if ((header.getInt(HEADER_EPHEMERIS_TYPE_OFFSET) & BYTE4) > (1 << HALF_INTEGER_RANGE)) {
+                header.order(ByteOrder.LITTLE_ENDIAN);
+            }
+            if (header.getInt(HEADER_EPHEMERIS_TYPE_OFFSET) == INPOP_DE_NUMBER) {
+                // INPOP files have an extended DE format, which includes also the record size
+                this.recordSize = header.getInt(HEADER_RECORD_SIZE_OFFSET) << 3;
+            } else {
+                this.recordSize = computeRecordSize(header, this.name);
+            }
+            if (this.recordSize <= 0 || size < HEADER_RECORDS * (long) this.recordSize) {
+                throw new PatriusException(PatriusMessages.UNABLE_TO_READ_JPL_HEADER, this.name);
+            }
+
+            // Map the file by chunks of whole records
+            this.nbRecords = (int) (size / this.recordSize) - HEADER_RECORDS;
+            final long totalRecords = this.nbRecords + HEADER_RECORDS;
+            this.recordsPerChunk = (int) MathLib.max(1L, MathLib.min(totalRecords, MAX_CHUNK_SIZE / this.recordSize));
+            this.chunks = new ByteBuffer[(int) ((totalRecords + this.recordsPerChunk - 1) / this.recordsPerChunk)];
+            for (int i = 0; i < this.chunks.length; i++) {
+                final long first = (long) i * this.recordsPerChunk;
+                final long length = MathLib.min(this.recordsPerChunk, totalRecords - first) * this.recordSize;
+                this.chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, first * this.recordSize, length)
+                    .order(header.order());
+            }
+        } catch (final IOException e) {
+            throw new PatriusException(e, PatriusMessages.UNABLE_TO_READ_JPL_HEADER, this.name);
+        }
+
+        this.constants = parseConstants();
+
+        // Components, units and time scale
+        final int deNum = getInt(0, HEADER_EPHEMERIS_TYPE_OFFSET);
+        int nbComponents = 3;
+        double unit = KM_TO_M;
+        TimeScale scale = TimeScalesFactory.getTDB();
+        if (deNum == INPOP_DE_NUMBER) {
+            // an INPOP file may contain 6 components (including coefficients for the velocity vector)
+            final double format = getConstant("FORMAT");
+            if (!Double.isNaN(format) && (int) MathLib.IEEEremainder(format, 10) != 1) {
+                nbComponents = 6;
+            }
+            // INPOP files may have their polynomials expressed in AU
+            final double unite = getConstant("UNITE");
+            if (!Double.isNaN(unite) && (int) unite == 0) {
+                unit = KM_TO_M * getConstant(AbstractJPLEphemerisLoader.CONSTANT_AU);
+            }
+            // INPOP files may have their times expressed in TCB
+            final double timesc = getConstant("TIMESC");
+            if (!Double.isNaN(timesc) && (int) timesc == 1) {
+                scale = TimeScalesFactory.getTCB();
+            }
+        }
+        this.components = nbComponents;
+        this.positionUnit = unit;
+        this.timeScale = scale;
+
+        // Covered date range
+        this.startEpoch = extractDate(0, HEADER_START_EPOCH_OFFSET);
+        this.finalEpoch = extractDate(0, HEADER_END_EPOCH_OFFSET);
+        boolean ok = this.finalEpoch.compareTo(this.startEpoch) > 0;
+
+        // Indices of the Chebyshev coefficients of the loaded body
+        int first = 0;
+        int nbCoeffs = 0;
+        int chunksNumber = 0;
+        final Integer bodyIndex = BODY_INDICES.get(loadType);
+        for (int i = 0; i < CHEBYCHEV_NUMBER; ++i) {
+            final int offset = HEADER_CHEBISHEV_INDICES_OFFSET + (4 + 8) * i;
+            final int row1 = getInt(0, offset);
+            final int row2 = getInt(0, offset + 4);
+            final int row3 = getInt(0, offset + 8);
+            ok = ok && (row1 >= 0) && (row2 >= 0) && (row3 >= 0);
+            if (bodyIndex != null && bodyIndex == i) {
+                first = row1;
+                nbCoeffs = row2;
+                chunksNumber = row3;
+            }
+        }
+        this.firstIndex = first;
+        this.coeffs = nbCoeffs;
+        this.nbChunks = chunksNumber;
+
+        // Records and chunks duration
+        final double timeSpan = getDouble(0, HEADER_CHUNK_DURATION_OFFSET);
+        ok = ok && (timeSpan > 0) && (timeSpan < MAX_TIMESPAN);
+        this.recordDuration = Constants.JULIAN_DAY * timeSpan;
+        this.chunksDuration = Constants.JULIAN_DAY * (timeSpan / this.nbChunks);
+        if (!ok) {
+            throw new PatriusException(PatriusMessages.NOT_A_JPL_EPHEMERIDES_BINARY_FILE, this.name);
+        }
+    }
+
+    /**
+     * Getter for the name of the file.
+     *
+     * @return the name of the file
+     */
+    String getName() {
+        return this.name;
+    }
+
+    /**
+     * Getter for the constants defined in the file.
+     *
+     * @return unmodifiable map of the constants
+     */
+    Map<String, Double> getConstants() {
+        return this.constants;
+    }
+
+    /**
+     * Getter for the start epoch of the file.
+     *
+     * @return the start epoch of the file
+     */
+    AbsoluteDate getStartEpoch() {
+        return this.startEpoch;
+    }
+
+    /**
+     * Getter for the final epoch of the file.
+     *
+     * @return the final epoch of the file
+     */
+    AbsoluteDate getFinalEpoch() {
+        return this.finalEpoch;
+    }
+
+    /**
+     * Getter for the astronomical unit stored in the header.
+     *
+     * @return the astronomical unit (m)
+     */
+    double getHeaderAstronomicalUnit() {
+        return KM_TO_M * getDouble(0, HEADER_ASTRONOMICAL_UNIT_OFFSET);
+    }
+
+    /**
+     * Getter for the Earth-Moon mass ratio stored in the header.
+     *
+     * @return the Earth-Moon mass ratio
+     */
+    double getHeaderEarthMoonMassRatio() {
+        return getDouble(0, HEADER_EM_RATIO_OFFSET);
+    }
+
+    /**
+     * Check if a date is covered by the file.
+     *
+     * @param date
+     *        date
+     * @return true if the date is within the file range (with a 1 ms tolerance)
+     */
+    boolean covers(final AbsoluteDate date) {
+        return date.durationFrom(this.startEpoch) >= -THRESHOLD && date.durationFrom(this.finalEpoch) <= THRESHOLD;
+    }
+
+    /**
+     * Compute the position-velocity-acceleration of the loaded body at a date, as given by the Chebyshev polynomials
+     * of the file.
+     *
+     * @param date
+     *        date, covered by the file
+     * @return position-velocity-acceleration (m, m/s, m/s<sup>2</sup>) relative to the center of the body
+     *         ephemeris, in the ephemeris frame
+     * @throws PatriusException
+     *         if the file data records are inconsistent with its header
+     */
+    PVCoordinates getPositionVelocity(final AbsoluteDate date) throws PatriusException {
+
+        // Records have the same size and cover the same time span
+        int record = (int) MathLib.floor(date.durationFrom(this.startEpoch) / this.recordDuration);
+        record = MathLib.max(0, MathLib.min(record, this.nbRecords - 1)) + HEADER_RECORDS;
+        AbsoluteDate rangeStart = extractDate(record, DATA_START_RANGE_OFFSET);
+        if (record > HEADER_RECORDS && date.durationFrom(rangeStart) < 0) {
+            // Rounding error on the date: previous record
+            record--;
+            rangeStart = extractDate(record, DATA_START_RANGE_OFFSET);
+        } else if (record < this.nbRecords + 1 &&
+                date.durationFrom(extractDate(record, DATA_END_RANGE_OFFSET)) >= 0) {
+            // Rounding error on the date: next record
+            record++;
+            rangeStart = extractDate(record, DATA_START_RANGE_OFFSET);
+        }
+        if (rangeStart.compareTo(this.startEpoch) < 0 ||
+                extractDate(record, DATA_END_RANGE_OFFSET).compareTo(this.finalEpoch) > 0) {
+            throw new PatriusException(PatriusMessages.OUT_OF_RANGE_EPHEMERIDES_DATE, rangeStart, this.startEpoch,
+                this.finalEpoch);
+        }
+
+        // Chunk of the record
+        final int chunk = MathLib.max(0, MathLib.min(
+            (int) MathLib.floor(date.durationFrom(rangeStart) / this.chunksDuration), this.nbChunks - 1));
+        final AbsoluteDate chunkStart = chunk == 0 ? rangeStart : rangeStart.shiftedBy(chunk * this.chunksDuration);
+
+        // Evaluate the Chebyshev polynomials, as in PosVelChebyshev
+        final int index = this.firstIndex + this.components * chunk * this.coeffs - 1;
+        final int x = 8 * index;
+        final int y = 8 * (index + this.coeffs);
+        final int z = 8 * (index + 2 * this.coeffs);
+        final double duration = this.chunksDuration;
+
+        // normalize date
+        final double t = (2 * date.durationFrom(chunkStart) - duration) / duration;
+        final double twoT = 2 * t;
+
+        // initialize Chebyshev polynomials recursion
+        double pKm1 = 1;
+        double pK = t;
+        double xP = this.positionUnit * getDouble(record, x);
+        double yP = this.positionUnit * getDouble(record, y);
+        double zP = this.positionUnit * getDouble(record, z);
+
+        // initialize Chebishev polynomials derivatives recursion
+        double qKm1 = 0;
+        double qK = 1;
+        double xV = 0;
+        double yV = 0;
+        double zV = 0;
+
+        // initialize Chebishev polynomials 2nd derivatives recursion
+        double rKm1 = 0;
+        double rK = 0;
+        double xA = 0;
+        double yA = 0;
+        double zA = 0;
+
+        // combine polynomials by applying coefficients
+        for (int k = 1; k < this.coeffs; ++k) {
+            final double xCoeff = this.positionUnit * getDouble(record, x + 8 * k);
+            final double yCoeff = this.positionUnit * getDouble(record, y + 8 * k);
+            final double zCoeff = this.positionUnit * getDouble(record, z + 8 * k);
+
+            // consider last computed polynomials on position
+            xP += xCoeff * pK;
+            yP += yCoeff * pK;
+            zP += zCoeff * pK;
+
+            // consider last computed polynomials on velocity
+            xV += xCoeff * qK;
+            yV += yCoeff * qK;
+            zV += zCoeff * qK;
+
+            // consider last computed polynomials on acceleration
+            xA += xCoeff * rK;
+            yA += yCoeff * rK;
+            zA += zCoeff * rK;
+
+            // compute next Chebyshev polynomial value
+            final double pKm2 = pKm1;
+            pKm1 = pK;
+            pK = twoT * pKm1 - pKm2;
+
+            // compute next Chebyshev polynomial derivative
+            final double qKm2 = qKm1;
+            qKm1 = qK;
+            qK = twoT * qKm1 + 2 * pKm1 - qKm2;
+
+            // compute next Chebyshev polynomial second derivative
+            final double rKm2 = rKm1;
+            rKm1 = rK;
+            rK = twoT * rKm1 + 4 * qKm1 - rKm2;
+        }
+
+        final double vScale = 2 / duration;
+        final double aScale = vScale * vScale;
+        return new PVCoordinates(new Vector3D(xP, yP, zP),
+            new Vector3D(xV * vScale, yV * vScale, zV * vScale), new Vector3D(xA * aScale, yA * aScale, zA * aScale));
+    }
+
+    /**
+     * Get a constant defined in the file.
+     *
+     * @param constantName
+     *        name of the constant
+     * @return value of the constant, NaN if it is not defined
+     */
+    private double getConstant(final String constantName) {
+        final Double value = this.constants.get(constantName);
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+
+    /**
+     * Parse constants from the two header records.
+     *
+     * @return unmodifiable map of the constants
+     */
+    private Map<String, Double> parseConstants() {
+        final Map<String, Double> map = new HashMap<>();
+        final byte[] nameBytes = new byte[CONSTANT_NAME_LENGTH];
+        for (int i = 0; i < CONSTANTS_MAX_NUMBER; ++i) {
+            for (int j = 0; j < CONSTANT_NAME_LENGTH; j++) {
+                nameBytes[j] = this.chunks[0].get(HEADER_CONSTANTS_NAMES_OFFSET + i * CONSTANT_NAME_LENGTH + j);
+            }
+            final String constantName = new String(nameBytes, StandardCharsets.US_ASCII).trim();
+            if (constantName.length() == 0) {
+                // no more constants to read
+                break;
+            }
+            map.put(constantName, getDouble(1, 8 * i));
+        }
+
+        // INPOP files do not have constants for AU and EMRAT, thus extract them from
+        // the header record and create a constant for them to be consistent with JPL files
+        if (!map.containsKey(AbstractJPLEphemerisLoader.CONSTANT_AU)) {
+            map.put(AbstractJPLEphemerisLoader.CONSTANT_AU, getDouble(0, HEADER_ASTRONOMICAL_UNIT_OFFSET));
+        }
+        if (!map.containsKey(AbstractJPLEphemerisLoader.CONSTANT_EMRAT)) {
+            map.put(AbstractJPLEphemerisLoader.CONSTANT_EMRAT, getDouble(0, HEADER_EM_RATIO_OFFSET));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Extract a date (julian day) from a record.
+     *
+     * @param record
+     *        record number (0 for the first header record)
+     * @param offset
+     *        offset of the date within the record
+     * @return extracted date
+     */
+    private AbsoluteDate extractDate(final int record, final int offset) {
+        final double t = getDouble(record, offset);
+        int jDay = (int) MathLib.floor(t);
+        double seconds = (t + 1. / 2. - jDay) * Constants.JULIAN_DAY;
+        if (seconds >= Constants.JULIAN_DAY) {
+            ++jDay;
+            seconds -= Constants.JULIAN_DAY;
+        }
+        return new AbsoluteDate(new DateComponents(DateComponents.JULIAN_EPOCH, jDay),
+            new TimeComponents(seconds), this.timeScale);
+    }
+
+    /**
+     * Read a double from a record.
+     *
+     * @param record
+     *        record number (0 for the first header record)
+     * @param offset
+     *        offset of the double within the record (bytes)
+     * @return the double
+     */
+    private double getDouble(final int record, final int offset) {
+        return this.chunks[record / this.recordsPerChunk].getDouble((record % this.recordsPerChunk) *
+                this.recordSize + offset);
+    }
+
+    /**
+     * Read an int from a record.
+     *
+     * @param record
+     *        record number (0 for the first header record)
+     * @param offset
+     *        offset of the int within the record (bytes)
+     * @return the int
+     */
+    private int getInt(final int record, final int offset) {
+        return this.chunks[record / this.recordsPerChunk].getInt((record % this.recordsPerChunk) *
+                this.recordSize + offset);
+    }
+
+    /**
+     * Calculate the record size of a JPL ephemerides file.
+     *
+     * @param header
+     *        beginning of the first header record
+     * @param name
+     *        the name of the data file
+     * @return the record size for this file (bytes)
+     * @throws PatriusException
+     *         if the file contains unexpected data
+     */
+    private static int computeRecordSize(final ByteBuffer header, final String name) throws PatriusException {
+
+        int size = 0;
+        boolean ok = true;
+        // JPL files always have 3 position components
+        final int nComp = 3;
+
+        // iterate over the coefficient ptr array and sum up the record size
+        // the coeffPtr array has the dimensions [12][nComp]
+        for (int j = 0; j < CHEBYCHEV_NUMBER; j++) {
+            final int nCompCur = (j == CHEBYCHEV_NUMBER - 1) ? 2 : nComp;
+
+            // Note: the array element coeffPtr[j][0] is not needed for the calculation
+            final int idx = HEADER_CHEBISHEV_INDICES_OFFSET + j * nComp * 4;
+            final int coeffPtr1 = header.getInt(idx + 4);
+            final int coeffPtr2 = header.getInt(idx + 8);
+
+            // sanity checks
+            ok = ok && (coeffPtr1 >= 0 || coeffPtr2 >= 0);
+
+            size += coeffPtr1 * coeffPtr2 * nCompCur;
+        }
+
+        // the libration ptr array has the dimension [3]
+        // Note: the array element libratPtr[0] is not needed for the calculation
+        final int libratPtr1 = header.getInt(HEADER_LIBRATION_INDICES_OFFSET + 4);
+        final int libratPtr2 = header.getInt(HEADER_LIBRATION_INDICES_OFFSET + 8);
+
+        // sanity checks
+        ok = ok && (libratPtr1 >= 0 || libratPtr2 >= 0);
+
+        size += libratPtr1 * libratPtr2 * nComp + 2;
+        size <<= 3;
+
+        if (!ok || size <= 0) {
+            // Wrong file type
+            throw new PatriusException(PatriusMessages.NOT_A_JPL_EPHEMERIDES_BINARY_FILE, name);
+        }
+        return size;
+    }
+}
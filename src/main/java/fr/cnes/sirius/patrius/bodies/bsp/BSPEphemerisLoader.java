@@ -26,6 +26,7 @@
  */
 package fr.cnes.sirius.patrius.bodies.bsp;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
@@ -41,14 +42,9 @@ import fr.cnes.sirius.patrius.bodies.CelestialBodyEphemeris;
 import fr.cnes.sirius.patrius.bodies.CelestialBodyEphemerisLoader;
 import fr.cnes.sirius.patrius.bodies.EphemerisType;
 import fr.cnes.sirius.patrius.bodies.JPLEphemerisLoader;
-import fr.cnes.sirius.patrius.bodies.bsp.spice.DafHandle;
-import fr.cnes.sirius.patrius.bodies.bsp.spice.DafReader;
-import fr.cnes.sirius.patrius.bodies.bsp.spice.FindArraysDAF;
+import fr.cnes.sirius.patrius.bodies.bsp.spice.MappedSpkReader;
 import fr.cnes.sirius.patrius.bodies.bsp.spice.SpiceBody;
-import fr.cnes.sirius.patrius.bodies.bsp.spice.SpiceCommon;
-import fr.cnes.sirius.patrius.bodies.bsp.spice.SpiceFrame;
-import fr.cnes.sirius.patrius.bodies.bsp.spice.SpiceKernelManager;
-import fr.cnes.sirius.patrius.bodies.bsp.spice.SpkReader;
+import fr.cnes.sirius.patrius.bodies.bsp.spice.SpkKernel;
 import fr.cnes.sirius.patrius.data.DataLoader;
 import fr.cnes.sirius.patrius.data.DataProvidersManager;
 import fr.cnes.sirius.patrius.data.PATRIUSFileInputStream;
@@ -73,6 +69,9 @@ import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
  * <p>
  * This reader implements the {@link CelestialBodyEphemerisLoader} interface and develops its own loading methods.
  * <p>
+ * The BSP files are memory-mapped and read through a {@link MappedSpkReader}, which does not rely on the static state
+ * of the SPICE library port: the loaded ephemerides can be evaluated concurrently by several threads.
+ * </p>
  *
  * @author Emmanuel Bignon
  * 
@@ -164,6 +163,9 @@ public class BSPEphemerisLoader implements JPLEphemerisLoader, DataLoader {
     /** Supported file names. */
     private final String supportedNames;
 
+    /** Reader of the loaded BSP files. */
+    private volatile MappedSpkReader reader;
+
     /**
      * Constructor.
      *
@@ -174,106 +176,31 @@ public class BSPEphemerisLoader implements JPLEphemerisLoader, DataLoader {
         super();
         this.supportedNames = supportedNames;
         this.ephemeris = new HashMap<>();
-    }
-
-    /**
-     * Read all BSP segments.
-     * 
-     * @param bspFile
-     *        BSP file
-     * @return a map of the segments contained in the file
-     * @throws PatriusException
-     *         if the file is not open or there is a problem while reading the first record
-     * @throws IOException
-     *         if there is a problem tempting to read the first record
-     */
-    private Map<String, BSPCelestialBodyEphemeris> readSegments(final String bspFile) throws
-        PatriusException, IOException {
-        // Initialization of SPK reading by getting the initial handle
-        final int[] handle = new int[1];
-        final boolean loaded = DafHandle.isLoaded(bspFile, handle);
-        if (!loaded) {
-            throw new PatriusException(PatriusMessages.PDB_SPICE_KERNEL_NOT_LOADED, bspFile);
-        }
-
-        // Reading the content of the record of the SPK File
-        final int[] kernelRecord = readRecord(handle[0]);
-        final int nd = kernelRecord[0];
-        final int ni = kernelRecord[1];
-
-        // Beginning forward search in the SPK kernel
-        FindArraysDAF.beginForwardSearch(handle[0]);
-        FindArraysDAF.selectDaf(handle[0]);
-
-        // Now, we are going to scroll through the SPK kernel segments.
-        // While scrolling the segments, we instantiate the SPK segment
-        // to encapsulate each array's descriptor, filling the spkRawData.
-        return readSegments(nd, ni);
-    }
-
-    /**
-     * Read a record.
-     * 
-     * @param handle
-     *        handle
-     * @return the record
-     * @throws PatriusException
-     *         if the file is not open or there is a problem while reading the first record
-     * @throws IOException
-     *         if there is a problem tempting to read the first record
-     */
-    private static int[] readRecord(final int handle) throws PatriusException, IOException {
-        final String[] ifname = new String[1];
-        final int[] fward = new int[1];
-        final int[] bward = new int[1];
-        final int[] free = new int[1];
-        final int[] ndArg = new int[1];
-        final int[] niArg = new int[1];
-        DafReader.readFileRecord(handle, ndArg, niArg, ifname, fward, bward, free);
-        return new int[] { ndArg[0], niArg[0], free[0], fward[0], bward[0] };
+        this.reader = new MappedSpkReader();
     }
 
     /**
      * Read all segments.
      * 
-     * @param nd
-     *        kernel record size
-     * @param ni
-     *        kernel record size
+     * @param kernel
+     *        mapped BSP file
      * @return segments
      * @throws PatriusException
      *         if reading failed
      */
-    private Map<String, BSPCelestialBodyEphemeris> readSegments(final int nd, final int ni) throws PatriusException {
+    private Map<String, BSPCelestialBodyEphemeris> readSegments(final SpkKernel kernel) throws PatriusException {
 
         // Segment list to return
         final Map<String, BSPCelestialBodyEphemeris> ephemerisList =
             new ConcurrentHashMap<>();
 
-        // Find the next array to read its data
-        boolean found = FindArraysDAF.findNextArray();
-
-        // Counting segments and printing content
-        while (found) {
-            // While found is true, we are scrolling through the CK kernel array by array and getting the data of each
-            // segment descriptor
-
-            // Reading array descriptor (or summary)
-            final double[] summary = FindArraysDAF.getSummaryOfArray(); // CSPICE.dafgs(recordSize);
-            final double[] dc = new double[nd];
-            final int[] ic = new int[ni];
-            SpiceCommon.unpackSummary(summary, nd, ni, dc, ic);
-
+        // Scroll through the segment descriptors (or summaries) of the SPK kernel
+        for (final SpkKernel.Segment spkSegment : kernel.getSegments()) {
             // Build segment
-            final int targetID = ic[0];
-            final int centerID = ic[1];
-            final int frameID = ic[2];
-            final DAFSegment segment = new DAFSegment(targetID, centerID, frameID);
+            final int targetID = spkSegment.getTarget();
+            final DAFSegment segment = new DAFSegment(targetID, spkSegment.getCenter(), spkSegment.getFrame());
             final String name = SpiceBody.bodyCode2Name(targetID);
             ephemerisList.put(name, new BSPCelestialBodyEphemeris(segment));
-
-            // Testing if there is a next array and iterating if so
-            found = FindArraysDAF.findNextArray();
         }
 
         // Link parent/children for all segments
@@ -346,12 +273,13 @@ public class BSPEphemerisLoader implements JPLEphemerisLoader, DataLoader {
         // File name
         final String bspFile = ((PATRIUSFileInputStream) input).getFile().getAbsolutePath();
 
-        // Loading the file data in the kernel pool
-        SpiceKernelManager.loadSpiceKernel(bspFile);
+        // Map the file: it has priority over the already loaded files
+        final SpkKernel kernel = new SpkKernel(new File(bspFile));
+        this.reader = this.reader.addKernel(kernel);
 
         // Read segments and add to ephemeris map
         // WARNING: already known objects may be overridden
-        this.ephemeris.putAll(readSegments(bspFile));
+        this.ephemeris.putAll(readSegments(kernel));
 
         // Add root object which is not defined as a segment in BSP file
         final int rootID = getRootID();
@@ -580,12 +508,15 @@ public class BSPEphemerisLoader implements JPLEphemerisLoader, DataLoader {
         /** Observer ID. */
         private final int observerID;
 
+        /** Observer frame ID. */
+        private final int observerFrameID;
+
+        /** Target ID. */
+        private final int targetID;
+
         /** Observer name. */
         private final String observerName;
 
-        /** Observer frame name. */
-        private final String observerFrameName;
-
         /** Target name. */
         private final String targetName;
 
@@ -612,9 +543,10 @@ public class BSPEphemerisLoader implements JPLEphemerisLoader, DataLoader {
          */
         public DAFSegment(final int targetID, final int centerID, final int frameID) throws PatriusException {
             this.observerID = centerID;
+            this.observerFrameID = frameID;
+            this.targetID = targetID;
             this.targetName = SpiceBody.bodyCode2Name(targetID);
             this.observerName = SpiceBody.bodyCode2Name(centerID);
-            this.observerFrameName = SpiceFrame.frameId2Name(frameID);
             this.children = new ArrayList<>();
         }
 
@@ -628,14 +560,12 @@ public class BSPEphemerisLoader implements JPLEphemerisLoader, DataLoader {
          *         if computation failed
          */
         private PVCoordinates getRawPVCoordinates(final AbsoluteDate date) throws PatriusException {
-            final double[] lt = new double[1];
-
             // getNbrSecAfterJ2000InTDB
             final double nbrSecAfterJ2000InTDB = date.durationFrom(SPICE_J2000_EPOCH, TimeScalesFactory.getTDB());
 
-            // Call Spice routine
-            final double[] state = SpkReader.getStateRelativeToBody(this.targetName, nbrSecAfterJ2000InTDB,
-                this.observerFrameName, this.observerName, lt);
+            // Call Spice routine (thread-safe version)
+            final double[] state = BSPEphemerisLoader.this.reader.getStateRelativeToBody(this.targetID,
+                nbrSecAfterJ2000InTDB, this.observerFrameID, this.observerID);
 
             // SPICE SPK high level state reading routines return distances in km and velocities in km/s whereas
             // PVCoordinates uses m and m/s. So we must convert those values into m and m/s before creating the
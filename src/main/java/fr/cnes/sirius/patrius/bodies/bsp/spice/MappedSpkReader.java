@@ -0,0 +1,404 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.bodies.bsp.spice;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.cnes.sirius.patrius.math.exception.NonMonotonicSequenceException;
+import fr.cnes.sirius.patrius.math.linear.Array2DRowRealMatrix;
+import fr.cnes.sirius.patrius.math.util.MathArrays;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Thread-safe reader of states from a set of {@link SpkKernel memory-mapped SPK files}.
+ * <p>
+ * This class provides the same service as {@link SpkReader#getStateRelativeToBody(String, double, String, String,
+ * double[])}, without relying on the static state of the SPICE port (loaded kernels, saved names, search and record
+ * buffers): the set of kernels is immutable and each query only uses local variables. A single instance can thus be
+ * shared by all the threads of a parallel propagation.
+ * </p>
+ * <p>
+ * As in SPICE, when several kernels provide the state of a body at an epoch, the last added kernel is used.
+ * </p>
+ * <p>
+ * Series of sorted epochs (e.g. ephemeris tables) can be evaluated in a single pass with
+ * {@link #getStatesRelativeToBody(int, double[], int, int)}.
+ * </p>
+ *
+ * @concurrency immutable
+ *
+ * @concurrency.comment the kernels are immutable
+ *
+ * @since 4.14
+ */
+public final class MappedSpkReader implements Serializable {
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = 3016286217787893658L;
+
+    /** Solar system barycenter code. */
+    private static final int SOLAR_SYSTEM_BARYCENTER = 0;
+
+    /** Maximum length of a chain of centers of motion. */
+    private static final int CHLEN = 20;
+
+    /** Size of a position or velocity vector. */
+    private static final int VECTOR_LENGTH = 3;
+
+    static {
+        // Build the inertial frames rotations before any concurrent access
+        try {
+            SpiceChangeFrame.frameRotationMatrix(1, 1);
+        } catch (final PatriusException e) {
+            // Cannot happen: J2000 is always defined
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Kernels, in loading order. */
+    private final SpkKernel[] kernels;
+
+    /**
+     * Constructor.
+     *
+     * @param kernelsIn
+     *        kernels, in loading order (the last ones have priority)
+     */
+    public MappedSpkReader(final SpkKernel... kernelsIn) {
+        this.kernels = kernelsIn.clone();
+    }
+
+    /**
+     * Build a reader using an additional kernel, with priority over the kernels of this reader.
+     *
+     * @param kernel
+     *        kernel to add
+     * @return a new reader, this reader is not modified
+     */
+    public MappedSpkReader addKernel(final SpkKernel kernel) {
+        final SpkKernel[] array = Arrays.copyOf(this.kernels, this.kernels.length + 1);
+        array[this.kernels.length] = kernel;
+        return new MappedSpkReader(array);
+    }
+
+    /**
+     * Getter for the kernels.
+     *
+     * @return unmodifiable list of the kernels, in loading order
+     */
+    public List<SpkKernel> getKernels() {
+        return Collections.unmodifiableList(Arrays.asList(this.kernels));
+    }
+
+    /**
+     * Find the segment providing the state of a body at an epoch.
+     *
+     * @param body
+     *        NAIF ID code of the body
+     * @param epoch
+     *        epoch (s after J2000 TDB)
+     * @return the segment of the last added kernel providing the state of the body at the epoch, null if there is none
+     */
+    public SpkKernel.Segment findSegment(final int body, final double epoch) {
+        return findSegment(body, epoch, new double[2]);
+    }
+
+    /**
+     * Find the segment providing the state of a body at an epoch, and the interval around the epoch where the same
+     * segment is used.
+     *
+     * @param body
+     *        NAIF ID code of the body
+     * @param epoch
+     *        epoch (s after J2000 TDB)
+     * @param validity
+     *        2-array filled with the bounds of the open interval around the epoch where the same segment is used
+     * @return the segment of the last added kernel providing the state of the body at the epoch, null if there is none
+     */
+    private SpkKernel.Segment findSegment(final int body, final double epoch, final double[] validity) {
+        // The segment of a kernel is used as long as the kernels added after it do not provide the state of the body
+        double lower = Double.NEGATIVE_INFINITY;
+        double upper = Double.POSITIVE_INFINITY;
+        SpkKernel.Segment segment = null;
+        for (int i = this.kernels.length - 1; i >= 0 && segment == null; i--) {
+            segment = this.kernels[i].findSegment(body, epoch, validity);
+            lower = MathLib.max(lower, validity[0]);
+            upper = MathLib.min(upper, validity[1]);
+        }
+        validity[0] = lower;
+        validity[1] = upper;
+        return segment;
+    }
+
+    /**
+     * Return the geometric state (position and velocity) of a target body relative to an observing body. Never
+     * corrected for light time or stellar aberration.
+     * <p>
+     * This method is based on the SPKGEO routine of the SPICE library: the states of the target and of the observer
+     * are accumulated along their chains of centers of motion up to the first common center, frames being changed
+     * when needed (only inertial frames are supported).
+     * </p>
+     *
+     * @param target
+     *        NAIF ID code of the target body
+     * @param epoch
+     *        epoch (s after J2000 TDB)
+     * @param ref
+     *        NAIF ID code of the reference frame of the returned state
+     * @param obs
+     *        NAIF ID code of the observing body
+     * @return 6-array containing the position (km) and the velocity (km/s) of the target relative to the observer,
+     *         in the reference frame
+     * @throws PatriusException
+     *         if the loaded data do not connect the target and the observer at this epoch, if a frame is not inertial
+     *         or if a segment cannot be evaluated
+     */
+    public double[] getStateRelativeToBody(final int target, final double epoch, final int ref, final int obs)
+        throws PatriusException {
+        return computeState(target, epoch, ref, obs, new SegmentLookup());
+    }
+
+    /**
+     * Return the geometric states (position and velocity) of a target body relative to an observing body at sorted
+     * epochs.
+     * <p>
+     * The epochs are evaluated in a single pass: the segments found for the target, the observer and their centers of
+     * motion are reused as long as they apply, and each data record is decoded once.
+     * </p>
+     *
+     * @param target
+     *        NAIF ID code of the target body
+     * @param epochs
+     *        epochs (s after J2000 TDB), in increasing order
+     * @param ref
+     *        NAIF ID code of the reference frame of the returned states
+     * @param obs
+     *        NAIF ID code of the observing body
+     * @return for each epoch, 6-array containing the position (km) and the velocity (km/s) of the target relative to
+     *         the observer, in the reference frame
+     * @throws PatriusException
+     *         if the loaded data do not connect the target and the observer at one of the epochs, if a frame is not
+     *         inertial or if a segment cannot be evaluated
+     * @throws NonMonotonicSequenceException
+     *         if the epochs are not sorted in increasing order
+     *
+     * @see #getStateRelativeToBody(int, double, int, int)
+     */
+    public double[][] getStatesRelativeToBody(final int target, final double[] epochs, final int ref, final int obs)
+        throws PatriusException {
+        if (epochs.length > 1) {
+            MathArrays.checkOrder(epochs, MathArrays.OrderDirection.INCREASING, false);
+        }
+        final SegmentLookup lookup = new SegmentLookup();
+        final double[][] states = new double[epochs.length][];
+        for (int i = 0; i < epochs.length; i++) {
+            states[i] = computeState(target, epochs[i], ref, obs, lookup);
+        }
+        return states;
+    }
+
+    /**
+     * Return the geometric state (position and velocity) of a target body relative to an observing body.
+     *
+     * @param target
+     *        NAIF ID code of the target body
+     * @param epoch
+     *        epoch (s after J2000 TDB)
+     * @param ref
+     *        NAIF ID code of the reference frame of the returned state
+     * @param obs
+     *        NAIF ID code of the observing body
+     * @param lookup
+     *        segments found for the previous epochs
+     * @return 6-array containing the position (km) and the velocity (km/s) of the target relative to the observer,
+     *         in the reference frame
+     * @throws PatriusException
+     *         if the loaded data do not connect the target and the observer at this epoch, if a frame is not inertial
+     *         or if a segment cannot be evaluated
+     */
+    private double[] computeState(final int target, final double epoch, final int ref, final int obs,
+                                  final SegmentLookup lookup)
+        throws PatriusException {
+
+        // Obvious case first
+        if (target == obs) {
+            return new double[SpiceChangeFrame.STATE_LENGTH];
+        }
+
+        // Chain of the target: state of the target relative to each center, in the frame of the last segment
+        final List<Integer> centers = new ArrayList<>();
+        final List<double[]> states = new ArrayList<>();
+        final List<Integer> frames = new ArrayList<>();
+        centers.add(target);
+        states.add(new double[SpiceChangeFrame.STATE_LENGTH]);
+        frames.add(ref);
+        int current = target;
+        while (current != obs && current != SOLAR_SYSTEM_BARYCENTER && centers.size() < CHLEN) {
+            final SpkKernel.Segment segment = lookup.find(current, epoch);
+            if (segment == null) {
+                break;
+            }
+            final int last = states.size() - 1;
+            final double[] state = segment.getState(epoch);
+            if (last > 0) {
+                add(state, rotate(states.get(last), frames.get(last), segment.getFrame()));
+            }
+            current = segment.getCenter();
+            centers.add(current);
+            states.add(state);
+            frames.add(segment.getFrame());
+        }
+
+        // Chain of the observer, up to a common center
+        int cobs = obs;
+        double[] sobs = new double[SpiceChangeFrame.STATE_LENGTH];
+        int cframe = ref;
+        int ctpos = centers.indexOf(cobs);
+        int legs = 0;
+        while (ctpos < 0 && cobs != SOLAR_SYSTEM_BARYCENTER && legs < CHLEN) {
+            final SpkKernel.Segment segment = lookup.find(cobs, epoch);
+            if (segment == null) {
+                break;
+            }
+            final double[] state = segment.getState(epoch);
+            if (legs > 0) {
+                add(state, rotate(sobs, cframe, segment.getFrame()));
+            }
+            sobs = state;
+            cframe = segment.getFrame();
+            cobs = segment.getCenter();
+            ctpos = centers.indexOf(cobs);
+            legs++;
+        }
+
+        if (ctpos < 0) {
+            throw new PatriusException(PatriusMessages.PDB_INSUFFICIENT_DATA_FOR_STATE, bodyName(target),
+                bodyName(obs), String.valueOf(epoch));
+        }
+
+        // State of the target relative to the observer, in the requested frame
+        final double[] state = rotate(states.get(ctpos), frames.get(ctpos), ref);
+        final double[] observer = rotate(sobs, cframe, ref);
+        for (int i = 0; i < SpiceChangeFrame.STATE_LENGTH; i++) {
+            state[i] -= observer[i];
+        }
+        return state;
+    }
+
+    /**
+     * Add a state to another one.
+     *
+     * @param state
+     *        state to update
+     * @param other
+     *        state to add
+     */
+    private static void add(final double[] state, final double[] other) {
+        for (int i = 0; i < SpiceChangeFrame.STATE_LENGTH; i++) {
+            state[i] += other[i];
+        }
+    }
+
+    /**
+     * Rotate a state from an inertial frame to another.
+     *
+     * @param state
+     *        state to rotate
+     * @param from
+     *        NAIF ID code of the frame of the state
+     * @param to
+     *        NAIF ID code of the frame of the returned state
+     * @return the rotated state (a copy of the state if frames are the same)
+     * @throws PatriusException
+     *         if one of the frames is not inertial
+     */
+    private static double[] rotate(final double[] state, final int from, final int to) throws PatriusException {
+        if (from == to) {
+            return state.clone();
+        }
+        if (!SpiceFrame.isInertial(from) || !SpiceFrame.isInertial(to)) {
+            throw new PatriusException(PatriusMessages.PDB_NOT_INERTIAL_FRAME_SPICE, from, to);
+        }
+        final Array2DRowRealMatrix rot = SpiceChangeFrame.frameRotationMatrix(from, to);
+        final double[] rotated = new double[SpiceChangeFrame.STATE_LENGTH];
+        System.arraycopy(rot.operate(Arrays.copyOfRange(state, 0, VECTOR_LENGTH)), 0, rotated, 0, VECTOR_LENGTH);
+        System.arraycopy(rot.operate(Arrays.copyOfRange(state, VECTOR_LENGTH, SpiceChangeFrame.STATE_LENGTH)), 0,
+            rotated, VECTOR_LENGTH, VECTOR_LENGTH);
+        return rotated;
+    }
+
+    /**
+     * Build the name of a body for error messages.
+     *
+     * @param code
+     *        NAIF ID code of the body
+     * @return the code followed by the name of the body, if known
+     * @throws PatriusException
+     *         if the body name cannot be retrieved
+     */
+    private static String bodyName(final int code) throws PatriusException {
+        final String name = SpiceBody.bodyCode2Name(code);
+        return name.isEmpty() ? String.valueOf(code) : code + " (" + name + ")";
+    }
+
+    /**
+     * Segments found for the bodies of a query, with the interval where each of them applies.
+     */
+    private final class SegmentLookup {
+
+        /** Last segment found for each body. */
+        private final Map<Integer, SpkKernel.Segment> segments = new HashMap<>();
+
+        /** Open validity interval of the last segment found for each body. */
+        private final Map<Integer, double[]> validities = new HashMap<>();
+
+        /**
+         * Find the segment providing the state of a body at an epoch, reusing the last segment found for the body if
+         * it still applies.
+         *
+         * @param body
+         *        NAIF ID code of the body
+         * @param epoch
+         *        epoch (s after J2000 TDB)
+         * @return the segment providing the state of the body at the epoch, null if there is none
+         */
+        private SpkKernel.Segment find(final int body, final double epoch) {
+            double[] validity = this.validities.get(body);
+            if (validity != null && validity[0] < epoch && epoch < validity[1]) {
+                return this.segments.get(body);
+            }
+            if (validity == null) {
+                validity = new double[2];
+                this.validities.put(body, validity);
+            }
+            final SpkKernel.Segment segment = findSegment(body, epoch, validity);
+            this.segments.put(body, segment);
+            return segment;
+        }
+    }
+}
@@ -21,6 +21,7 @@
 package fr.cnes.sirius.patrius.bodies.bsp.spice;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import fr.cnes.sirius.patrius.math.linear.Array2DRowRealMatrix;
@@ -43,12 +44,6 @@ public final class SpiceChangeFrame {
     /** Length of an state array. */
     public static final int STATE_LENGTH = 6;
 
-    /** List of inertial frames. */
-    private static final List<InertialFrames> FRAMES = new ArrayList<InertialFrames>();
-
-    /** Boolean indicating if it is the first time calling a method for initialization purposes. */
-    private static boolean first = true;
-
     /** J2000 string. */
     private static final String J2000 = "J2000";
 
@@ -61,12 +56,6 @@ public final class SpiceChangeFrame {
     /** No rotation string. */
     private static final String NO_ROTATION = "0.0  3";
 
-    /** Boolean indicating if _______ is ready. */
-    private static boolean ready = false;
-
-    /** List of transformations. */
-    private static final Array2DRowRealMatrix[] TRANS = new Array2DRowRealMatrix[SpiceFrame.NINERT];
-
     /**
      * Constructor.
      */
@@ -75,15 +64,18 @@ public final class SpiceChangeFrame {
     }
 
     /**
-     * Initialize the list of inertial frames.
+     * Build the list of inertial frames.
+     *
+     * @return the list of inertial frames
      */
     //CHECKSTYLE: stop MethodLength check
     //Reason: Spice code kept as such
-    private static void init() {
+    private static List<InertialFrames> initFrames() {
         //CHECKSTYLE: resume MethodLength check
 
+        final List<InertialFrames> frames = new ArrayList<InertialFrames>();
         // The root frame is mostly for show. Rotate by 0 arc seconds about the x-axis to obtain the identity matrix.
-        FRAMES.add(new InertialFrames(J2000, J2000, "0.0  1"));
+        frames.add(new InertialFrames(J2000, J2000, "0.0  1"));
         /**
          * The B1950 reference frame is obtained by precessing the J2000 frame backwards from Julian year 2000 to
          * Besselian year 1950, using the 1976 IAU precession model.
@@ -111,7 +103,7 @@ public final class SpiceChangeFrame {
          *             zeta  =  1152.84248596724"
          * </pre>
          */
-        FRAMES.add(new InertialFrames(B1950, J2000, "1152.84248596724 3  -1002.26108439117  2  1153.04066200330  3"));
+        frames.add(new InertialFrames(B1950, J2000, "1152.84248596724 3  -1002.26108439117  2  1153.04066200330  3"));
         /**
          * The FK4 reference frame is derived from the B1950 frame by applying the equinox offset determined by Fricke.
          * This is just the rotation.
@@ -121,7 +113,7 @@ public final class SpiceChangeFrame {
          *                       3
          * </pre>
          */
-        FRAMES.add(new InertialFrames(FK4, B1950, "0.525  3"));
+        frames.add(new InertialFrames(FK4, B1950, "0.525  3"));
         /**
          * The DE-118 reference frame is nearly identical to the FK4 reference frame. It is also derived from the B1950
          * frame.
@@ -143,7 +135,7 @@ public final class SpiceChangeFrame {
          * rotation is to correct for truncating the magnitude of the first rotation. At his suggestion, we will use the
          * untruncated value, and stick to a single rotation.
          */
-        FRAMES.add(new InertialFrames("DE-118", B1950, "0.53155  3"));
+        frames.add(new InertialFrames("DE-118", B1950, "0.53155  3"));
         /**
          * Most of the other DE reference frames may be defined relative to either the DE-118 or B1950 frames. The
          * values below are taken from [4].
@@ -163,14 +155,14 @@ public final class SpiceChangeFrame {
          * 
          * We will use B1950 for now, since the offsets generally have more significant digits.
          */
-        FRAMES.add(new InertialFrames("DE-96", B1950, "0.4107  3"));
-        FRAMES.add(new InertialFrames("DE-102", B1950, "0.1359  3"));
-        FRAMES.add(new InertialFrames("DE-108", B1950, "0.4775  3"));
-        FRAMES.add(new InertialFrames("DE-111", B1950, "0.5880  3"));
-        FRAMES.add(new InertialFrames("DE-114", B1950, "0.5529  3"));
-        FRAMES.add(new InertialFrames("DE-122", B1950, "0.5316  3"));
-        FRAMES.add(new InertialFrames("DE-125", B1950, "0.5754  3"));
-        FRAMES.add(new InertialFrames("DE-130", B1950, "0.5247  3"));
+        frames.add(new InertialFrames("DE-96", B1950, "0.4107  3"));
+        frames.add(new InertialFrames("DE-102", B1950, "0.1359  3"));
+        frames.add(new InertialFrames("DE-108", B1950, "0.4775  3"));
+        frames.add(new InertialFrames("DE-111", B1950, "0.5880  3"));
+        frames.add(new InertialFrames("DE-114", B1950, "0.5529  3"));
+        frames.add(new InertialFrames("DE-122", B1950, "0.5316  3"));
+        frames.add(new InertialFrames("DE-125", B1950, "0.5754  3"));
+        frames.add(new InertialFrames("DE-130", B1950, "0.5247  3"));
         /**
          * The Galactic System II reference frame is defined by the following rotations:
          * 
@@ -192,7 +184,7 @@ public final class SpiceChangeFrame {
          *             282.25   = 1016100"
          * </pre>
          */
-        FRAMES.add(new InertialFrames("GALACTIC", FK4, "1177200.0  3  225360.0  1  1016100.0  3"));
+        frames.add(new InertialFrames("GALACTIC", FK4, "1177200.0  3  225360.0  1  1016100.0  3"));
         /**
          * According to Standish, the various DE-200 frames are identical with J2000, because he rotates the ephemerides
          * before releasing them (in order to avoid problems like the one that this routine is designed to solve).
@@ -204,16 +196,16 @@ public final class SpiceChangeFrame {
          *                    3
          * </pre>
          */
-        FRAMES.add(new InertialFrames("DE-200", J2000, NO_ROTATION));
-        FRAMES.add(new InertialFrames("DE-202", J2000, NO_ROTATION));
+        frames.add(new InertialFrames("DE-200", J2000, NO_ROTATION));
+        frames.add(new InertialFrames("DE-202", J2000, NO_ROTATION));
         // The values for the transformation from J2000 to MARSIAU_MO are derived from the constants given for the pole
         // of Mars on page 8-2 of reference [6].
-        FRAMES.add(new InertialFrames("MARSIAU", J2000, "324000.0 3 133610.4 2 -152348.4 3"));
+        frames.add(new InertialFrames("MARSIAU", J2000, "324000.0 3 133610.4 2 -152348.4 3"));
         // The value for the obliquity of the ecliptic at J2000 is taken from page 114 of [7] equation 3.222-1. This
         // agrees with the expression given in [5]
-        FRAMES.add(new InertialFrames("ECLIPJ2000", J2000, "84381.448 1"));
+        frames.add(new InertialFrames("ECLIPJ2000", J2000, "84381.448 1"));
         // The value for the obliquity of the ecliptic at B1950 is taken from page 171 of [7].
-        FRAMES.add(new InertialFrames("ECLIPB1950", B1950, "84404.836 1"));
+        frames.add(new InertialFrames("ECLIPB1950", B1950, "84404.836 1"));
         /**
          * The frame for DE-140 is simply DE-400 rotated by the rotation:
          * 
@@ -246,7 +238,7 @@ public final class SpiceChangeFrame {
          * transformation.<br>
          * Note that these numbers are quite close to the values used for the transformation from J2000 to B1950
          */
-        FRAMES.add(new InertialFrames("DE-140", J2000,
+        frames.add(new InertialFrames("DE-140", J2000,
             "1152.71013777252 3  -1002.25042010533  2  1153.75719544491  3"));
         /**
          * The frame for DE-142 is simply DE-402 rotated by the rotation:
@@ -262,7 +254,7 @@ public final class SpiceChangeFrame {
          * The Euler angles giving the transformation for J2000 to DE-142 were constructed in the same way as the
          * transformation from J2000 to DE140. Only the input matrix changed to use the one given above.
          */
-        FRAMES.add(new InertialFrames("DE-142", J2000,
+        frames.add(new InertialFrames("DE-142", J2000,
             "1152.72061453864 3  -1002.25052830351  2  1153.74663857521  3"));
         /**
          * The frame for DE-143 is simply DE-403 rotated by the rotation:
@@ -278,8 +270,48 @@ public final class SpiceChangeFrame {
          * The Euler angles giving the transformation for J2000 to DE-143 were constructed in the same way as the
          * transformation from J2000 to DE140. Only the input matrix changed to use the one given above.
          */
-        FRAMES.add(new InertialFrames("DE-143", J2000, "1153.03919093833 3  -1002.24822382286 2  1153.42900222357 3"));
-        first = false;
+        frames.add(new InertialFrames("DE-143", J2000, "1153.03919093833 3  -1002.24822382286 2  1153.42900222357 3"));
+        return Collections.unmodifiableList(frames);
+    }
+
+    /**
+     * Build the transformations from the root frame to each inertial frame.
+     *
+     * @param frames
+     *        list of inertial frames
+     * @return the transformations from the root frame to each inertial frame
+     */
+    private static Array2DRowRealMatrix[] initTransformations(final List<InertialFrames> frames) {
+
+        /**
+         * Construct the transformation from the root frame to each supported reference frame.<br>
+         * Begin by constructing the identity matrix (rotating by zero radians about the x-axis). Apply the rotations
+         * indicated in the frame definition (from right to left) to get the incremental rotation from the base frame.
+         * The final rotation is:
+         * 
+         * <pre>
+         *             R             = (R           ) (R          )
+         *              root->frame      base->frame    root->base
+         * </pre>
+         */
+        final Array2DRowRealMatrix[] trans = new Array2DRowRealMatrix[SpiceFrame.NINERT];
+        for (int i = 0; i < SpiceFrame.NINERT; i++) {
+            trans[i] = rotate(0, 1);
+            final String[] rots = frames.get(i).getDefs().split("\\s+");
+
+            for (int j = rots.length; j >= 2; j = j - 2) {
+                final int axis = Integer.parseInt(rots[j - 1]);
+                final double angle = Double.parseDouble(rots[j - 2]);
+                // Conversion of angles to radians
+                final double radAng = angle * (MathLib.PI / 180.0) / 3600;
+                rotMat(radAng, axis, trans[i]);
+            }
+            // We look for the index where the base of the current frame is defined in the frame list
+            final int b = frames.indexOf(new InertialFrames(frames.get(i).getBase()));
+
+            trans[i] = trans[i].multiply(trans[b]);
+        }
+        return trans;
     }
 
     /**
@@ -299,17 +331,13 @@ public final class SpiceChangeFrame {
             return 1;
         }
 
-        // We do the initialization only if the frame is not j2000
-        if (first) {
-            init();
-        }
-
+        // The frames are only initialized if the frame is not j2000
         // Check if the frame is any form of "default" including having spaces in the middle
         if (name.trim().matches("(?i)d\\s*e\\s*f\\s*a\\s*u\\s*l\\s*t")) {
             // If the name is "DEFAULT" return the default frame.
             return 0;
         }
-        return 1 + FRAMES.indexOf(new InertialFrames(name));
+        return 1 + InertialRotations.FRAMES.indexOf(new InertialFrames(name));
     }
 
     /**
@@ -328,46 +356,8 @@ public final class SpiceChangeFrame {
      */
     public static Array2DRowRealMatrix frameRotationMatrix(final int refA, final int refB) throws PatriusException {
 
-        // We do the initialization if it is needed
-        if (first) {
-            init();
-        }
-
-        /**
-         * If it has not been done already, construct the transformation from the root frame to each supported reference
-         * frame.<br>
-         * Begin by constructing the identity matrix (rotating by zero radians about the x-axis). Apply the rotations
-         * indicated in the frame definition (from right to left) to get the incremental rotation from the base frame.
-         * The final rotation is:
-         * 
-         * <pre>
-         *             R             = (R           ) (R          )
-         *              root->frame      base->frame    root->base
-         * </pre>
-         */
-        if (!ready) {
-            for (int i = 0; i < SpiceFrame.NINERT; i++) {
-                TRANS[i] = rotate(0, 1);
-                final String[] rots = FRAMES.get(i).getDefs().split("\\s+");
-
-                for (int j = rots.length; j >= 2; j = j - 2) {
-                    final int axis = Integer.parseInt(rots[j - 1]);
-                    final double angle = Double.parseDouble(rots[j - 2]);
-                    // Conversion of angles to radians
-                    final double radAng = angle * (MathLib.PI / 180.0) / 3600;
-                    rotMat(radAng, axis, TRANS[i]);
-                }
-                // We look for the index where the base of the current frame is defined in the frame list
-                final int b = FRAMES.indexOf(new InertialFrames(FRAMES.get(i).getBase()));
-
-                TRANS[i] = TRANS[i].multiply(TRANS[b]);
-            }
-
-            ready = true;
-        }
-
         /**
-         * If the transformations have been defined, we can proceed with the business at hand: determining the rotation
+         * The transformations being defined, we can proceed with the business at hand: determining the rotation
          * from one frame to another. To get from frame A to frame B, the rotation is:
          * 
          * <pre>
@@ -393,7 +383,7 @@ public final class SpiceChangeFrame {
         } else if (refA == refB) {
             return rotate(0, 1);
         } else {
-            return TRANS[refB - 1].multiply(TRANS[refA - 1], true);
+            return InertialRotations.TRANS[refB - 1].multiply(InertialRotations.TRANS[refA - 1], true);
         }
     }
 
@@ -513,4 +503,24 @@ public final class SpiceChangeFrame {
 
         mIn.setSubMatrix(mout, 0, 0);
     }
+
+    /**
+     * Holder of the inertial frames and of the rotations from the root frame, built once by the class loader on first
+     * use: they are safely published and never modified afterwards.
+     */
+    private static final class InertialRotations {
+
+        /** List of inertial frames. */
+        private static final List<InertialFrames> FRAMES = initFrames();
+
+        /** Transformations from the root frame to each inertial frame. */
+        private static final Array2DRowRealMatrix[] TRANS = initTransformations(FRAMES);
+
+        /**
+         * Private constructor.
+         */
+        private InertialRotations() {
+            // Nothing to do
+        }
+    }
 }
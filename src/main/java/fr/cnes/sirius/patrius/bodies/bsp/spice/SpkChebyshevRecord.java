@@ -0,0 +1,195 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.bodies.bsp.spice;
+
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Decoded data record of a type 2 or type 3 SPK segment (Chebyshev polynomials).
+ * <p>
+ * The record is read and checked once; it can then be evaluated at any epoch of its coverage interval without
+ * copying the coefficients, contrary to {@link SpkRecord#evaluateType2(double, double[])} and
+ * {@link SpkRecord#evaluateType3(double, double[])}. The arithmetic is the same as in these methods, so that both
+ * give the same results.
+ * </p>
+ * <p>
+ * The record is identified by the initial address of its segment and its record number, not by the segment itself:
+ * records are cached by thread and must not keep their kernel reachable.
+ * </p>
+ *
+ * @concurrency immutable
+ *
+ * @see SpkRecordCache
+ *
+ * @since 4.14
+ */
+final class SpkChebyshevRecord {
+
+    /** Number of components of a position (type 2 records). */
+    private static final int POSITION_COMPONENTS = 3;
+
+    /** Number of components of a state (type 3 records). */
+    private static final int STATE_COMPONENTS = 6;
+
+    /** Initial address of the segment containing the record. */
+    private final int segmentAddress;
+
+    /** Record number in the segment (1 for the first record). */
+    private final int recordNumber;
+
+    /** Midpoint of the coverage interval (s after J2000 TDB). */
+    private final double midpoint;
+
+    /** Radius of the coverage interval (s). */
+    private final double radius;
+
+    /** Number of coefficients for each component. */
+    private final int ncof;
+
+    /** True if the record contains the velocity coefficients (type 3), false otherwise (type 2). */
+    private final boolean velocity;
+
+    /** Coefficients, stored contiguously for each component. */
+    private final double[] coefficients;
+
+    /**
+     * Constructor.
+     *
+     * @param segmentIn
+     *        segment containing the record
+     * @param recordNumberIn
+     *        record number in the segment (1 for the first record)
+     * @param data
+     *        record data: midpoint and radius of the coverage interval followed by the coefficients
+     * @throws PatriusException
+     *         if the record size or the radius of the coverage interval is invalid
+     */
+    SpkChebyshevRecord(final SpkKernel.Segment segmentIn, final int recordNumberIn, final double[] data)
+        throws PatriusException {
+        this.segmentAddress = segmentIn.getBeginAddress();
+        this.recordNumber = recordNumberIn;
+        this.velocity = segmentIn.getType() == SpkKernel.TYPE_3;
+        this.ncof = (data.length - 2) / (this.velocity ? STATE_COMPONENTS : POSITION_COMPONENTS);
+        if (this.ncof < 1) {
+            throw new PatriusException(PatriusMessages.PDB_NCOF_SPK_RECORD_NEGATIVE, this.ncof);
+        }
+        if (data[1] <= 0) {
+            throw new PatriusException(PatriusMessages.PDB_SPK_INTERVAL_RADIUS_NEGATIVE, data[1]);
+        }
+        this.midpoint = data[0];
+        this.radius = data[1];
+        this.coefficients = new double[data.length - 2];
+        System.arraycopy(data, 2, this.coefficients, 0, this.coefficients.length);
+    }
+
+    /**
+     * Check if this record is a given record of a segment.
+     *
+     * @param segmentIn
+     *        segment
+     * @param recordNumberIn
+     *        record number in the segment
+     * @return true if this record is the record of the segment with the given number
+     */
+    boolean isRecord(final SpkKernel.Segment segmentIn, final int recordNumberIn) {
+        return this.segmentAddress == segmentIn.getBeginAddress() && this.recordNumber == recordNumberIn;
+    }
+
+    /**
+     * Evaluate the record.
+     * <p>
+     * This method is based on the SPKE02 and SPKE03 routines of the SPICE library.
+     * </p>
+     *
+     * @param epoch
+     *        epoch (s after J2000 TDB)
+     * @return 6-array containing the position (km) and the velocity (km/s)
+     */
+    double[] evaluate(final double epoch) {
+        final double[] state = new double[STATE_COMPONENTS];
+        final double s = (epoch - this.midpoint) / this.radius;
+        if (this.velocity) {
+            for (int i = 0; i < STATE_COMPONENTS; i++) {
+                state[i] = value(i * this.ncof, s);
+            }
+        } else {
+            for (int i = 0; i < POSITION_COMPONENTS; i++) {
+                valueAndDerivative(i * this.ncof, s, state, i);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Evaluate a Chebyshev expansion (CHBVAL routine of the SPICE library).
+     *
+     * @param offset
+     *        index of the first coefficient of the expansion
+     * @param s
+     *        normalized epoch
+     * @return the value of the expansion
+     */
+    private double value(final int offset, final double s) {
+        final double s2 = 2 * s;
+        double w0 = 0;
+        double w1 = 0;
+        double w2;
+        for (int j = this.ncof - 1; j > 0; j--) {
+            w2 = w1;
+            w1 = w0;
+            w0 = this.coefficients[offset + j] + (s2 * w1 - w2);
+        }
+        return (s * w0 - w1) + this.coefficients[offset];
+    }
+
+    /**
+     * Evaluate a Chebyshev expansion and its derivative (CHBINT routine of the SPICE library).
+     *
+     * @param offset
+     *        index of the first coefficient of the expansion
+     * @param s
+     *        normalized epoch
+     * @param state
+     *        state in which the value (at index i) and the derivative (at index i + 3) are stored
+     * @param i
+     *        index of the component
+     */
+    private void valueAndDerivative(final int offset, final double s, final double[] state, final int i) {
+        final double s2 = 2 * s;
+        double w0 = 0;
+        double w1 = 0;
+        double w2;
+        double dw0 = 0;
+        double dw1 = 0;
+        double dw2;
+        for (int j = this.ncof - 1; j > 0; j--) {
+            w2 = w1;
+            w1 = w0;
+            w0 = this.coefficients[offset + j] + (s2 * w1 - w2);
+
+            dw2 = dw1;
+            dw1 = dw0;
+            dw0 = w1 * 2 + s2 * dw1 - dw2;
+        }
+        state[i] = this.coefficients[offset] + (s * w0 - w1);
+        state[i + POSITION_COMPONENTS] = (w0 + s * dw0 - dw1) / this.radius;
+    }
+}
@@ -0,0 +1,756 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.bodies.bsp.spice;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Memory-mapped SPK file.
+ * <p>
+ * Contrary to the SPICE port ({@link DafHandle}, {@link ReadDoublePrecisionDAF}, {@link FindArraysDAF}...), which
+ * stores the opened files and the read records in static tables and reads the file through a
+ * {@link java.io.RandomAccessFile} one record at a time, this class maps the whole file in memory and parses the summary
+ * records once, at construction, into an immutable list of {@link Segment segments}. The data records are then read
+ * straight from the mapped buffers, which are never modified after construction: any number of threads may evaluate
+ * states concurrently, without locks.
+ * </p>
+ * <p>
+ * Only the type 2 and type 3 segments (Chebyshev polynomials) can be evaluated, as with {@link SpkReader}.
+ * </p>
+ * <p>
+ * The segments of each body are indexed by elementary time intervals, so that finding the segment applicable at an
+ * epoch is a binary search. The last records used by each thread are kept decoded: the successive epochs of a
+ * propagation, which usually fall in the same records, do not read nor copy the coefficients again.
+ * </p>
+ * <p>
+ * The file is mapped in chunks of 1 GiB, so that files larger than 2 GiB (e.g. DE441) are supported. The mapping is
+ * released by the garbage collector once the kernel is no longer referenced: the decoded records cached by each thread
+ * do not reference the kernel.
+ * </p>
+ *
+ * @concurrency thread-safe
+ *
+ * @concurrency.comment the mapped buffers are only read with absolute accessors and the decoded records are cached by
+ *                      thread
+ *
+ * @see MappedSpkReader
+ *
+ * @since 4.14
+ */
+public final class SpkKernel implements Serializable {
+
+    /** Number of double precision components in SPK summaries. */
+    public static final int ND = 2;
+
+    /** Number of integer components in SPK summaries. */
+    public static final int NI = 6;
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = -6125842914389211582L;
+
+    /** Size of a chunk of mapped file (bytes): a multiple of the record length. */
+    private static final long CHUNK_SIZE = 1L << 30;
+
+    /** Size of the ID word (bytes). */
+    private static final int IDWORD_LENGTH = 8;
+
+    /** Position of ND in the file record (bytes). */
+    private static final int ND_POSITION = 8;
+
+    /** Position of NI in the file record (bytes). */
+    private static final int NI_POSITION = 12;
+
+    /** Position of FWARD in the file record (bytes). */
+    private static final int FWARD_POSITION = 76;
+
+    /** Position of the binary file format ID word in the file record (bytes). */
+    private static final int BFF_POSITION = 88;
+
+    /** Beginning of the FTP validation string area in the file record. */
+    private static final int FTP_BEGIN = 499;
+
+    /** End of the FTP validation string area in the file record. */
+    private static final int FTP_END = 999;
+
+    /** Size of a summary in double precision numbers. */
+    private static final int SUMMARY_SIZE = ND + (NI + 1) / 2;
+
+    /** Number of double precision numbers before the first summary of a summary record (NEXT, PREV, NSUM). */
+    private static final int SUMMARY_RECORD_HEADER = 3;
+
+    /** Size of the segment directory (INIT, INTLEN, RSIZE, N) of type 2 and 3 segments. */
+    private static final int DIRECTORY_SIZE = 4;
+
+    /** Type 2 segment: Chebyshev polynomials for position. */
+    static final int TYPE_2 = 2;
+
+    /** Type 3 segment: Chebyshev polynomials for position and velocity. */
+    static final int TYPE_3 = 3;
+
+    /** Mapped file. */
+    private final File file;
+
+    /** Mapped chunks of the file. */
+    private final transient ByteBuffer[] chunks;
+
+    /** Segments, in file order. */
+    private final transient List<Segment> segments;
+
+    /** Index of the segments of each body. */
+    private final transient Map<Integer, BodyIndex> indexes;
+
+    /** Decoded records cache of each thread. */
+    private final transient ThreadLocal<SpkRecordCache> recordCaches = ThreadLocal.withInitial(SpkRecordCache::new);
+
+    /**
+     * Constructor: maps the file and parses its summary records.
+     *
+     * @param fileIn
+     *        SPK file
+     * @throws PatriusException
+     *         if the file cannot be found or read, or is not a SPK file
+     */
+    public SpkKernel(final File fileIn) throws PatriusException {
+        this.file = fileIn;
+        if (!(fileIn.exists() && fileIn.isFile())) {
+            throw new PatriusException(PatriusMessages.UNABLE_TO_FIND_FILE, fileIn.getPath());
+        }
+
+        // Map the file
+        try (FileChannel channel = FileChannel.open(fileIn.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < SpiceCommon.RECORD_LENGTH) {
+                throw new PatriusException(PatriusMessages.PDB_NOT_ENOUGH_BYTES);
+            }
+            this.chunks = new ByteBuffer[(int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+            final ByteOrder order = readByteOrder(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                SpiceCommon.RECORD_LENGTH));
+            for (int i = 0; i < this.chunks.length; i++) {
+                final long position = i * CHUNK_SIZE;
+                final MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    MathLib.min(CHUNK_SIZE, size - position));
+                chunk.order(order);
+                this.chunks[i] = chunk;
+            }
+        } catch (final IOException e) {
+            throw new PatriusException(e, PatriusMessages.PDB_FILE_CANT_BE_READ);
+        }
+
+        // Parse the summary records
+        try {
+            this.segments = Collections.unmodifiableList(readSegments());
+        } catch (final IndexOutOfBoundsException e) {
+            // Summary records point outside the file
+            throw new PatriusException(e, PatriusMessages.PDB_FILE_CANT_BE_READ);
+        }
+        final Map<Integer, List<Segment>> byBody = new HashMap<>();
+        for (final Segment segment : this.segments) {
+            byBody.computeIfAbsent(segment.getTarget(), k -> new ArrayList<>()).add(0, segment);
+        }
+        this.indexes = new HashMap<>();
+        for (final Map.Entry<Integer, List<Segment>> entry : byBody.entrySet()) {
+            this.indexes.put(entry.getKey(), new BodyIndex(entry.getValue()));
+        }
+    }
+
+    /**
+     * Getter for the mapped file.
+     *
+     * @return the mapped file
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Getter for the segments of the file.
+     *
+     * @return unmodifiable list of the segments, in file order
+     */
+    public List<Segment> getSegments() {
+        return this.segments;
+    }
+
+    /**
+     * Find the segment providing the state of a body at an epoch.
+     * <p>
+     * As in SPICE, when several segments of the file cover the epoch, the last one in the file is used.
+     * </p>
+     *
+     * @param body
+     *        NAIF ID code of the body
+     * @param epoch
+     *        epoch (s after J2000 TDB)
+     * @return the segment providing the state of the body at the epoch, null if there is none
+     */
+    public Segment findSegment(final int body, final double epoch) {
+        return findSegment(body, epoch, new double[2]);
+    }
+
+    /**
+     * Find the segment providing the state of a body at an epoch, and the interval around the epoch where the same
+     * segment is used.
+     *
+     * @param body
+     *        NAIF ID code of the body
+     * @param epoch
+     *        epoch (s after J2000 TDB)
+     * @param validity
+     *        2-array filled with the bounds of the open interval around the epoch where the same segment (or no
+     *        segment) is found; both bounds are set to the epoch if there is no such interval
+     * @return the segment providing the state of the body at the epoch, null if there is none
+     */
+    Segment findSegment(final int body, final double epoch, final double[] validity) {
+        final BodyIndex index = this.indexes.get(body);
+        if (index == null) {
+            validity[0] = Double.NEGATIVE_INFINITY;
+            validity[1] = Double.POSITIVE_INFINITY;
+            return null;
+        }
+        return index.find(epoch, validity);
+    }
+
+    /**
+     * Compute the state of the target of a segment relative to its center, in the segment frame.
+     * <p>
+     * This method is based on the SPKPVN routine of the SPICE library.
+     * </p>
+     *
+     * @param segment
+     *        segment of this file
+     * @param epoch
+     *        epoch (s after J2000 TDB)
+     * @return 6-array containing the position (km) and the velocity (km/s)
+     * @throws PatriusException
+     *         if the segment type is not supported or the record is invalid
+     */
+    public double[] getState(final Segment segment, final double epoch) throws PatriusException {
+        if (!segment.isChebyshev()) {
+            throw new PatriusException(PatriusMessages.PDB_SPK_TYPE_NOT_SUPPORTED, segment.getType());
+        }
+
+        // Successive epochs usually fall in the same record: it is decoded once by each thread
+        final int recno = segment.getRecordNumber(epoch);
+        final SpkRecordCache cache = this.recordCaches.get();
+        SpkChebyshevRecord record = cache.get(segment, recno);
+        if (record == null) {
+            record = readRecord(segment, recno);
+            cache.put(record);
+        }
+        return record.evaluate(epoch);
+    }
+
+    /**
+     * Read and decode a data record of a type 2 or type 3 segment.
+     * <p>
+     * This method is based on the SPKR02 and SPKR03 routines of the SPICE library.
+     * </p>
+     *
+     * @param segment
+     *        segment of this file
+     * @param recno
+     *        record number in the segment (1 for the first record)
+     * @return the decoded record
+     * @throws PatriusException
+     *         if the record is invalid
+     */
+    SpkChebyshevRecord readRecord(final Segment segment, final int recno) throws PatriusException {
+        final long recadr = (long) (recno - 1) * segment.recordSize + segment.getBeginAddress();
+        final double[] data = new double[MathLib.max(segment.recordSize, 0)];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = readDouble(recadr + i);
+        }
+        return new SpkChebyshevRecord(segment, recno, data);
+    }
+
+    /**
+     * Read a double precision number.
+     *
+     * @param address
+     *        DAF address of the number (1 for the first number of the file)
+     * @return the number
+     */
+    double readDouble(final long address) {
+        final long position = (address - 1) * SpiceCommon.BYTES_DOUBLE;
+        return this.chunks[(int) (position / CHUNK_SIZE)].getDouble((int) (position % CHUNK_SIZE));
+    }
+
+    /**
+     * Read an integer.
+     *
+     * @param position
+     *        position of the integer in the file (bytes)
+     * @return the integer
+     */
+    private int readInt(final long position) {
+        return this.chunks[(int) (position / CHUNK_SIZE)].getInt((int) (position % CHUNK_SIZE));
+    }
+
+    /**
+     * Read the segments from the summary records.
+     * <p>
+     * This method is based on the DAFBFS and DAFFNA routines of the SPICE library.
+     * </p>
+     *
+     * @return the segments, in file order
+     * @throws PatriusException
+     *         if the file is not a SPK file
+     */
+    private List<Segment> readSegments() throws PatriusException {
+        final int nd = readInt(ND_POSITION);
+        final int ni = readInt(NI_POSITION);
+        if (nd != ND || ni != NI) {
+            throw new PatriusException(PatriusMessages.PDB_WRONG_TYPE, nd + "/" + ni);
+        }
+
+        final int recordDoubles = SpiceCommon.RECORD_LENGTH / SpiceCommon.BYTES_DOUBLE;
+        final long nbRecords = this.chunks.length == 0 ? 0 : ((this.chunks.length - 1) * CHUNK_SIZE +
+            this.chunks[this.chunks.length - 1].capacity()) / SpiceCommon.RECORD_LENGTH;
+        final List<Segment> list = new ArrayList<>();
+        int record = readInt(FWARD_POSITION);
+        long nbSummaryRecords = 0;
+        while (record > 0) {
+            nbSummaryRecords++;
+            if (nbSummaryRecords > nbRecords) {
+                // The summary records are chained in a loop
+                throw new PatriusException(PatriusMessages.PDB_FILE_CANT_BE_READ);
+            }
+            final long first = (long) (record - 1) * recordDoubles + 1;
+            final int next = (int) readDouble(first);
+            final int nsum = (int) readDouble(first + 2);
+            for (int i = 0; i < nsum; i++) {
+                // Summary: ND doubles followed by NI integers packed in the file byte order
+                final long summary = first + SUMMARY_RECORD_HEADER + i * SUMMARY_SIZE;
+                final long intPosition = (summary + ND - 1) * SpiceCommon.BYTES_DOUBLE;
+                final int[] ic = new int[NI];
+                for (int j = 0; j < NI; j++) {
+                    ic[j] = readInt(intPosition + j * Integer.BYTES);
+                }
+
+                // Name: located in the name record following the summary record
+                final byte[] name = new byte[SUMMARY_SIZE * SpiceCommon.BYTES_DOUBLE];
+                final long namePosition = (long) record * SpiceCommon.RECORD_LENGTH + i * name.length;
+                for (int j = 0; j < name.length; j++) {
+                    name[j] = this.chunks[(int) ((namePosition + j) / CHUNK_SIZE)]
+                        .get((int) ((namePosition + j) % CHUNK_SIZE));
+                }
+
+                list.add(new Segment(this, new String(name, StandardCharsets.ISO_8859_1).trim(), readDouble(summary),
+                    readDouble(summary + 1), ic));
+            }
+            record = next;
+        }
+        return list;
+    }
+
+    /**
+     * Check the file record and read the byte order of the file.
+     * <p>
+     * This method is based on the ZZDDHPPF routine of the SPICE library.
+     * </p>
+     *
+     * @param fileRecord
+     *        file record
+     * @return the byte order of the file
+     * @throws PatriusException
+     *         if the file is not a DAF SPK file, is corrupted or its binary format is not supported
+     */
+    private static ByteOrder readByteOrder(final ByteBuffer fileRecord) throws PatriusException {
+        final byte[] bytes = new byte[SpiceCommon.RECORD_LENGTH];
+        fileRecord.get(bytes);
+        final String text = new String(bytes, StandardCharsets.ISO_8859_1);
+
+        // Architecture and type
+        final String[] archType = SpiceCommon.idword2architype(text.substring(0, IDWORD_LENGTH).trim());
+        if (!SpiceCommon.DAF.equals(archType[0])) {
+            throw new PatriusException(PatriusMessages.PDB_WRONG_ARCHITECTURE, archType[0]);
+        }
+        if (!SpiceCommon.SPK.equals(archType[1]) && !SpiceCommon.UNKNOWN.equals(archType[1])) {
+            // Older files ("NAIF/DAF") do not provide their type
+            throw new PatriusException(PatriusMessages.PDB_WRONG_TYPE, archType[1]);
+        }
+
+        // FTP validation
+        final String ftp = text.substring(FTP_BEGIN, FTP_END);
+        if (SpiceCommon.ftpCheck(ftp)) {
+            throw new PatriusException(PatriusMessages.PDB_FTP_FAILED);
+        }
+
+        // Binary file format: files older than the FTP validation string are big-endian
+        ByteOrder order = ByteOrder.BIG_ENDIAN;
+        if (ftp.contains("FTPSTR")) {
+            final String bff = text.substring(BFF_POSITION, BFF_POSITION + IDWORD_LENGTH);
+            if ("LTL-IEEE".equals(bff)) {
+                order = ByteOrder.LITTLE_ENDIAN;
+            } else if (!SpiceCommon.BINARY_FORMAT.equals(bff)) {
+                throw new PatriusException(PatriusMessages.PDB_BFF_NOT_SUPPORTED, bff);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Replace the deserialized instance by a newly mapped kernel.
+     *
+     * @return a kernel mapping the same file
+     * @throws ObjectStreamException
+     *         if the file cannot be mapped anymore
+     */
+    private Object readResolve() throws ObjectStreamException {
+        try {
+            return new SpkKernel(this.file);
+        } catch (final PatriusException e) {
+            final InvalidObjectException ioe = new InvalidObjectException(e.getMessage());
+            ioe.initCause(e);
+            throw ioe;
+        }
+    }
+
+    /**
+     * Index of the segments of a body.
+     * <p>
+     * The bounds of the segments split the time line into elementary intervals; the segment with the highest priority
+     * is resolved once for each bound and each open interval between two successive bounds, so that a lookup is a
+     * binary search, whatever the number of overlapping segments.
+     * </p>
+     */
+    private static final class BodyIndex {
+
+        /** Sorted distinct bounds of the segments. */
+        private final double[] bounds;
+
+        /** Segment used at each bound (null if none). */
+        private final Segment[] atBounds;
+
+        /** Segment used between each bound and the next one (null if none). */
+        private final Segment[] between;
+
+        /**
+         * Constructor.
+         *
+         * @param segmentsIn
+         *        segments of the body, by decreasing priority
+         */
+        private BodyIndex(final List<Segment> segmentsIn) {
+            final double[] all = new double[2 * segmentsIn.size()];
+            for (int i = 0; i < segmentsIn.size(); i++) {
+                all[2 * i] = segmentsIn.get(i).getStart();
+                all[2 * i + 1] = segmentsIn.get(i).getStop();
+            }
+            this.bounds = Arrays.stream(all).sorted().distinct().toArray();
+            this.atBounds = new Segment[this.bounds.length];
+            this.between = new Segment[MathLib.max(this.bounds.length - 1, 0)];
+            for (int i = 0; i < this.bounds.length; i++) {
+                for (final Segment segment : segmentsIn) {
+                    if (segment.covers(this.bounds[i])) {
+                        this.atBounds[i] = segment;
+                        break;
+                    }
+                }
+            }
+            for (int i = 0; i < this.between.length; i++) {
+                for (final Segment segment : segmentsIn) {
+                    if (segment.getStart() <= this.bounds[i] && this.bounds[i + 1] <= segment.getStop()) {
+                        this.between[i] = segment;
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Find the segment used at an epoch.
+         *
+         * @param epoch
+         *        epoch (s after J2000 TDB)
+         * @param validity
+         *        2-array filled with the bounds of the open interval around the epoch where the same segment is used
+         *        (both set to the epoch if the epoch is a segment bound)
+         * @return the segment used at the epoch, null if there is none
+         */
+        private Segment find(final double epoch, final double[] validity) {
+            final int index = Arrays.binarySearch(this.bounds, epoch);
+            if (index >= 0) {
+                validity[0] = epoch;
+                validity[1] = epoch;
+                return this.atBounds[index];
+            }
+            final int next = -index - 1;
+            validity[0] = next == 0 ? Double.NEGATIVE_INFINITY : this.bounds[next - 1];
+            validity[1] = next == this.bounds.length ? Double.POSITIVE_INFINITY : this.bounds[next];
+            return next == 0 || next == this.bounds.length ? null : this.between[next - 1];
+        }
+    }
+
+    /**
+     * Segment of a SPK file, as described by its summary.
+     *
+     * @concurrency immutable
+     */
+    public static final class Segment {
+
+        /** Kernel containing the segment. */
+        private final SpkKernel kernel;
+
+        /** Segment name. */
+        private final String name;
+
+        /** First epoch covered by the segment (s after J2000 TDB). */
+        private final double start;
+
+        /** Last epoch covered by the segment (s after J2000 TDB). */
+        private final double stop;
+
+        /** NAIF ID code of the target. */
+        private final int target;
+
+        /** NAIF ID code of the center. */
+        private final int center;
+
+        /** NAIF ID code of the frame. */
+        private final int frame;
+
+        /** SPK data type. */
+        private final int type;
+
+        /** Initial address of the segment data. */
+        private final int beginAddress;
+
+        /** Final address of the segment data. */
+        private final int endAddress;
+
+        /** Initial epoch of the first record (type 2 and 3 segments only). */
+        private final double init;
+
+        /** Length of the interval covered by each record (type 2 and 3 segments only). */
+        private final double intervalLength;
+
+        /** Size of the records (type 2 and 3 segments only). */
+        private final int recordSize;
+
+        /** Number of records (type 2 and 3 segments only). */
+        private final int nbRecords;
+
+        /**
+         * Constructor.
+         *
+         * @param kernelIn
+         *        kernel containing the segment
+         * @param nameIn
+         *        segment name
+         * @param startIn
+         *        first epoch covered by the segment (s after J2000 TDB)
+         * @param stopIn
+         *        last epoch covered by the segment (s after J2000 TDB)
+         * @param ic
+         *        integer components of the summary: target, center, frame, type, begin and end addresses
+         */
+        private Segment(final SpkKernel kernelIn, final String nameIn, final double startIn, final double stopIn,
+                        final int[] ic) {
+            this.kernel = kernelIn;
+            this.name = nameIn;
+            this.start = startIn;
+            this.stop = stopIn;
+            this.target = ic[0];
+            this.center = ic[1];
+            this.frame = ic[2];
+            this.type = ic[3];
+            this.beginAddress = ic[4];
+            this.endAddress = ic[5];
+
+            if (isChebyshev()) {
+                // The segment directory is located at the end of the segment
+                this.init = kernelIn.readDouble(this.endAddress - DIRECTORY_SIZE + 1);
+                this.intervalLength = kernelIn.readDouble(this.endAddress - 2);
+                this.recordSize = (int) kernelIn.readDouble(this.endAddress - 1);
+                this.nbRecords = (int) kernelIn.readDouble(this.endAddress);
+            } else {
+                this.init = Double.NaN;
+                this.intervalLength = Double.NaN;
+                this.recordSize = 0;
+                this.nbRecords = 0;
+            }
+        }
+
+        /**
+         * Getter for the kernel containing the segment.
+         *
+         * @return the kernel containing the segment
+         */
+        public SpkKernel getKernel() {
+            return this.kernel;
+        }
+
+        /**
+         * Getter for the segment name.
+         *
+         * @return the segment name
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Getter for the first epoch covered by the segment.
+         *
+         * @return the first epoch covered by the segment (s after J2000 TDB)
+         */
+        public double getStart() {
+            return this.start;
+        }
+
+        /**
+         * Getter for the last epoch covered by the segment.
+         *
+         * @return the last epoch covered by the segment (s after J2000 TDB)
+         */
+        public double getStop() {
+            return this.stop;
+        }
+
+        /**
+         * Getter for the NAIF ID code of the target.
+         *
+         * @return the NAIF ID code of the target
+         */
+        public int getTarget() {
+            return this.target;
+        }
+
+        /**
+         * Getter for the NAIF ID code of the center.
+         *
+         * @return the NAIF ID code of the center
+         */
+        public int getCenter() {
+            return this.center;
+        }
+
+        /**
+         * Getter for the NAIF ID code of the frame.
+         *
+         * @return the NAIF ID code of the frame
+         */
+        public int getFrame() {
+            return this.frame;
+        }
+
+        /**
+         * Getter for the SPK data type.
+         *
+         * @return the SPK data type
+         */
+        public int getType() {
+            return this.type;
+        }
+
+        /**
+         * Check if the segment covers an epoch.
+         *
+         * @param epoch
+         *        epoch (s after J2000 TDB)
+         * @return true if the epoch is within [start, stop]
+         */
+        public boolean covers(final double epoch) {
+            return this.start <= epoch && epoch <= this.stop;
+        }
+
+        /**
+         * Compute the state of the target relative to the center, in the segment frame.
+         *
+         * @param epoch
+         *        epoch (s after J2000 TDB)
+         * @return 6-array containing the position (km) and the velocity (km/s)
+         * @throws PatriusException
+         *         if the segment type is not supported or the record is invalid
+         */
+        public double[] getState(final double epoch) throws PatriusException {
+            return this.kernel.getState(this, epoch);
+        }
+
+        /**
+         * Check if the segment contains Chebyshev polynomials (type 2 or type 3).
+         *
+         * @return true if the segment is a type 2 or type 3 segment
+         */
+        boolean isChebyshev() {
+            return this.type == TYPE_2 || this.type == TYPE_3;
+        }
+
+        /**
+         * Compute the number of the record applicable at an epoch.
+         * <p>
+         * Records have the same size and cover the same length of time (type 2 and 3 segments only).
+         * </p>
+         *
+         * @param epoch
+         *        epoch (s after J2000 TDB)
+         * @return the record number (1 for the first record)
+         */
+        int getRecordNumber(final double epoch) {
+            return MathLib.min(((int) ((epoch - this.init) / this.intervalLength)) + 1, this.nbRecords);
+        }
+
+        /**
+         * Getter for the initial address of the segment data.
+         *
+         * @return the initial address of the segment data
+         */
+        int getBeginAddress() {
+            return this.beginAddress;
+        }
+
+        /**
+         * Getter for the final address of the segment data.
+         *
+         * @return the final address of the segment data
+         */
+        int getEndAddress() {
+            return this.endAddress;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return String.format("%s: target %d, center %d, frame %d, type %d, [%s, %s]", this.name, this.target,
+                this.center, this.frame, this.type, this.start, this.stop);
+        }
+    }
+}
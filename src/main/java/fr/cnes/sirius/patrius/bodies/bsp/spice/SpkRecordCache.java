@@ -0,0 +1,79 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.bodies.bsp.spice;
+
+/**
+ * Small most-recently-used cache of {@link SpkChebyshevRecord decoded SPK records}.
+ * <p>
+ * Successive evaluations (e.g. the steps of a propagation) usually fall in the same records of the same few segments
+ * (target, its centers of motion and the observer): a handful of entries, searched linearly, is enough to decode each
+ * record once.
+ * </p>
+ *
+ * @concurrency not thread-safe
+ *
+ * @concurrency.comment one instance is used by each thread, see {@link SpkKernel}
+ *
+ * @since 4.14
+ */
+final class SpkRecordCache {
+
+    /** Number of cached records. */
+    static final int SIZE = 8;
+
+    /** Cached records, from the most recently used to the least recently used. */
+    private final SpkChebyshevRecord[] records = new SpkChebyshevRecord[SIZE];
+
+    /**
+     * Get a cached record.
+     *
+     * @param segment
+     *        segment containing the record
+     * @param recordNumber
+     *        record number in the segment
+     * @return the cached record, null if it is not cached
+     */
+    SpkChebyshevRecord get(final SpkKernel.Segment segment, final int recordNumber) {
+        for (int i = 0; i < SIZE; i++) {
+            final SpkChebyshevRecord record = this.records[i];
+            if (record == null) {
+                break;
+            }
+            if (record.isRecord(segment, recordNumber)) {
+                // Move the record to the front
+                System.arraycopy(this.records, 0, this.records, 1, i);
+                this.records[0] = record;
+                return record;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add a record to the cache, evicting the least recently used one if the cache is full.
+     *
+     * @param record
+     *        record to add
+     */
+    void put(final SpkChebyshevRecord record) {
+        System.arraycopy(this.records, 0, this.records, 1, SIZE - 1);
+        this.records[0] = record;
+    }
+}
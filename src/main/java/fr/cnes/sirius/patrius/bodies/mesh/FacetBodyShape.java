@@ -70,6 +70,8 @@ package fr.cnes.sirius.patrius.bodies.mesh;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -108,6 +110,7 @@ import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinatesProvider;
 import fr.cnes.sirius.patrius.propagation.SpacecraftState;
 import fr.cnes.sirius.patrius.signalpropagation.VacuumSignalPropagationModel;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelUtils;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
 import fr.cnes.sirius.patrius.utils.exception.PatriusRuntimeException;
@@ -157,6 +160,9 @@ public class FacetBodyShape extends AbstractBodyShape {
     /** First guess of the flattening value for the optimizer. Flattening value is between 0 and 1. */
     private static final double FIRST_GUESS_FLATTENING = 1E-1;
 
+    /** Minimum number of triangles linked by each task when triangles are linked concurrently. */
+    private static final int LINK_MIN_CHUNK_SIZE = 1024;
+
     /** Default maximum number of steps for apparent radius calculation */
     private static final int DEFAULT_MAX_APPARENT_RADIUS_STEPS = 100;
 
@@ -196,6 +202,9 @@ public class FacetBodyShape extends AbstractBodyShape {
     /** Mesh provider. */
     private final MeshProvider meshProvider;
 
+    /** Maximum number of threads used to build the shape. */
+    private final int parallelism;
+
     /**
      * Maximum angle between the normal to a facet of the body and the vector from the origin to the
      * centre of the facet.
@@ -229,8 +238,37 @@ public class FacetBodyShape extends AbstractBodyShape {
     public FacetBodyShape(final String name,
             final CelestialBodyFrame bodyFrame,
             final MeshProvider meshLoader) {
+        this(name, bodyFrame, meshLoader, 1);
+    }
+
+    /**
+     * Constructor building the BSP tree and linking the triangles with several threads.
+     * <p>
+     * The built shape is the same whatever the parallelism, which only speeds up the construction of large meshes.
+     * </p>
+     *
+     * @param name
+     *        body name
+     * @param bodyFrame
+     *        frame in which celestial body coordinates are defined
+     * @param meshLoader
+     *        mesh loader
+     * @param parallelism
+     *        maximum number of threads used to build the shape (1 for a sequential construction)
+     * @exception IllegalArgumentException
+     *            if parallelism is not strictly positive
+     * @since 4.14
+     */
+    public FacetBodyShape(final String name,
+            final CelestialBodyFrame bodyFrame,
+            final MeshProvider meshLoader,
+            final int parallelism) {
         super(name, bodyFrame);
 
+        if (parallelism < 1) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.NUMBER_TOO_SMALL, parallelism, 1);
+        }
+        this.parallelism = parallelism;
         this.meshProvider = meshLoader;
 
         this.triangles = meshLoader.getTriangles();
@@ -266,7 +304,7 @@ public class FacetBodyShape extends AbstractBodyShape {
 
 
         // Build BSP tree
-        this.tree = new TrianglesSet(this.triangles);
+        this.tree = TrianglesSet.build(this.triangles, parallelism);
 
         // Link triangles to each other
         linkTriangles();
@@ -277,18 +315,111 @@ public class FacetBodyShape extends AbstractBodyShape {
 
     /**
      * Link triangles to each other. Triangles are linked to their neighbors.
+     * <p>
+     * The neighbors of each triangle are found among the triangles sharing its vertices, so that the triangles can be
+     * processed independently (and concurrently for large meshes). Each triangle lists its neighbors in the order in
+     * which they would be linked by processing the triangles one after the other, each one linking itself with its
+     * neighbors not linked yet: first the previous triangles (in the storage order) which link it, then the neighbors
+     * it links itself (in the order of its vertices), then the following triangles which link it (only possible with
+     * degenerated triangles, the neighborhood being then not symmetric).
+     * </p>
+     * <p>
+     * Triangles referenced by the vertices but not stored in the mesh (e.g. discarded by the mesh loader) are linked
+     * as well, as when processing the triangles one after the other; their neighbors lists are updated sequentially
+     * afterwards.
+     * </p>
      */
     private void linkTriangles() {
+        // Storage index of each triangle
+        final Map<Triangle, Integer> indices = new IdentityHashMap<>(this.triangles.length * 2);
+        for (int i = 0; i < this.triangles.length; i++) {
+            indices.put(this.triangles[i], i);
+        }
+
+        try {
+            ParallelUtils.run(this.triangles.length, LINK_MIN_CHUNK_SIZE, this.parallelism,
+                (start, end) -> this.linkTriangles(indices, start, end),
+                PatriusMessages.MESH_CONSTRUCTION_INTERRUPTED);
+        } catch (final PatriusException e) {
+            // Linking does not throw any checked exception: only an interruption may be reported
+            throw new PatriusRuntimeException(PatriusMessages.MESH_CONSTRUCTION_INTERRUPTED, e);
+        }
+
+        // Link back the triangles not stored in the mesh, in the storage order
         for (final Triangle triangle : this.triangles) {
+            for (final Triangle neighbor : triangle.getNeighbors()) {
+                if (!indices.containsKey(neighbor)) {
+                    neighbor.addNeighbors(triangle);
+                }
+            }
+        }
+    }
+
+    /**
+     * Link a contiguous range of triangles to their neighbors.
+     * <p>
+     * Only the neighbors lists of the range triangles are updated, hence ranges can be processed concurrently.
+     * </p>
+     *
+     * @param indices
+     *        storage index of each triangle
+     * @param start
+     *        index of the first triangle of the range (inclusive)
+     * @param end
+     *        index of the last triangle of the range (exclusive)
+     */
+    private void linkTriangles(final Map<Triangle, Integer> indices, final int start, final int end) {
+        final List<Triangle> previous = new ArrayList<>();
+        final List<Triangle> own = new ArrayList<>();
+        final List<Triangle> following = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            final Triangle triangle = this.triangles[i];
+            previous.clear();
+            own.clear();
+            following.clear();
             for (final Vertex vertex : triangle.getVertices()) {
                 for (final Triangle triangle2 : vertex.getNeighbors()) {
-                    // Check if triangles are neighbors, if so update list of neighbors
-                    if (triangle.isNeighborByVertexID(triangle2) && !triangle.getNeighbors().contains(triangle2)) {
-                        triangle.addNeighbors(triangle2);
-                        triangle2.addNeighbors(triangle);
+                    // Check which triangle of the pair links them (triangles out of the storage never link)
+                    final Integer index2 = indices.get(triangle2);
+                    final boolean linkedBy2 = index2 != null && triangle2.isNeighborByVertexID(triangle);
+                    final List<Triangle> list;
+                    if (linkedBy2 && index2 < i) {
+                        list = previous;
+                    } else if (triangle.isNeighborByVertexID(triangle2)) {
+                        list = own;
+                    } else if (linkedBy2 && index2 > i) {
+                        list = following;
+                    } else {
+                        continue;
+                    }
+                    if (!list.contains(triangle2)) {
+                        list.add(triangle2);
                     }
                 }
             }
+            previous.sort(Comparator.comparingInt(indices::get));
+            following.sort(Comparator.comparingInt(indices::get));
+
+            // Update list of neighbors
+            addNeighbors(triangle, previous);
+            addNeighbors(triangle, own);
+            addNeighbors(triangle, following);
+        }
+    }
+
+    /**
+     * Add neighbors to a triangle, if they are not already linked to it.
+     *
+     * @param triangle
+     *        triangle
+     * @param neighbors
+     *        neighbors to add
+     */
+    private static void addNeighbors(final Triangle triangle, final List<Triangle> neighbors) {
+        for (final Triangle neighbor : neighbors) {
+            if (!triangle.getNeighbors().contains(neighbor)) {
+                triangle.addNeighbors(neighbor);
+            }
         }
     }
 
@@ -1697,10 +1828,20 @@ public class FacetBodyShape extends AbstractBodyShape {
             }
         };
         // Copy and return the new FacetBodyShape with modified vertices of triangles FacetBodyShape
-        return new FacetBodyShape(getName(), getBodyFrame(), newMeshProvider);
+        return new FacetBodyShape(getName(), getBodyFrame(), newMeshProvider, this.parallelism);
     }
 
 
+    /**
+     * Getter for the maximum number of threads used to build the shape.
+     *
+     * @return the maximum number of threads used to build the shape
+     * @since 4.14
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
     /**
      * Setter for the maximum number of steps in the while loop of
      * {@link #getApparentRadius(PVCoordinatesProvider, AbsoluteDate, PVCoordinatesProvider, PropagationDelayType)}
@@ -1728,7 +1869,7 @@ public class FacetBodyShape extends AbstractBodyShape {
         stream.defaultReadObject();
         // manually deserialize + reload the triangles and link them to each other
         this.triangles = this.meshProvider.getTriangles();
-        this.tree = new TrianglesSet(this.triangles);
+        this.tree = TrianglesSet.build(this.triangles, this.parallelism);
         linkTriangles();
     }
 
@@ -86,7 +86,33 @@ public class StarConvexFacetBodyShape extends FacetBodyShape implements StarConv
     public StarConvexFacetBodyShape(final String name,
             final CelestialBodyFrame bodyFrame,
             final MeshProvider meshLoader) {
-        super(name, bodyFrame, meshLoader);
+        this(name, bodyFrame, meshLoader, 1);
+    }
+
+    /**
+     * Constructor for a star convex FacetBodyShape built with several threads.
+     * <p>
+     * The {@link FacetBodyShape#getMaxSlope() maxSlope} value of the mesh must be smaller than PI/2 so it is considered
+     * star convex. Otherwise, use the more generic {@link FacetBodyShape} constructor.
+     * </p>
+     *
+     * @param name
+     *        body name
+     * @param bodyFrame
+     *        frame in which celestial body coordinates are defined
+     * @param meshLoader
+     *        mesh loader
+     * @param parallelism
+     *        maximum number of threads used to build the shape (1 for a sequential construction)
+     * @throws IllegalArgumentException
+     *         if loading failed, if the given mesh is not star convex or if parallelism is not strictly positive
+     * @since 4.14
+     */
+    public StarConvexFacetBodyShape(final String name,
+            final CelestialBodyFrame bodyFrame,
+            final MeshProvider meshLoader,
+            final int parallelism) {
+        super(name, bodyFrame, meshLoader, parallelism);
         // Check that the maxSlope value is smaller than PI/2: it is the condition for the facet body shape to be
         // star-convex.
         if (this.getMaxSlope() >= MathLib.PI / 2) {
@@ -99,6 +125,6 @@ public class StarConvexFacetBodyShape extends FacetBodyShape implements StarConv
     public StarConvexFacetBodyShape resize(final MarginType marginType, final double marginValue) {
         final FacetBodyShape facetBodyShape = super.resize(marginType, marginValue);
         return new StarConvexFacetBodyShape(facetBodyShape.getName(), facetBodyShape.getBodyFrame(),
-            facetBodyShape.getMeshProvider());
+            facetBodyShape.getMeshProvider(), facetBodyShape.getParallelism());
     }
 }
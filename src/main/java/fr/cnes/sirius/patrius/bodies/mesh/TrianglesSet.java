@@ -33,10 +33,12 @@ package fr.cnes.sirius.patrius.bodies.mesh;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinTask;
 
 import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Line;
 import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
 import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelUtils;
 
 /**
  * Binary Space Partition Tree for mesh storage. This class is package protected and is only for internal use.
@@ -59,6 +61,9 @@ class TrianglesSet implements Serializable {
     /** Serializable UID. */
     private static final long serialVersionUID = 181527348212602026L;
 
+    /** Minimum number of triangles of both halves of a branch for building them concurrently. */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
     /** First child branch (may be null). */
     private final TrianglesSet childBranch1;
 
@@ -76,7 +81,7 @@ class TrianglesSet implements Serializable {
      * @param triangles list of triangles
      */
     public TrianglesSet(final Triangle[] triangles) {
-        this(triangles, SplitDirection.X);
+        this(triangles, SplitDirection.X, false);
     }
 
     /**
@@ -104,11 +109,12 @@ class TrianglesSet implements Serializable {
      * Branch constructor. Assumes number of triangles >= 2.
      * @param triangles list of triangles
      * @param splitDirection next splitting direction
+     * @param parallel true if large halves are built as concurrent tasks of the current fork-join pool
      */
     @SuppressWarnings("PMD.NullAssignment")
     // Reason: math of BSP tree
     private TrianglesSet(final Triangle[] triangles,
-            final SplitDirection splitDirection) {
+            final SplitDirection splitDirection, final boolean parallel) {
 
         // Computer triangles center
         this.center = Vector3D.ZERO;
@@ -130,38 +136,88 @@ class TrianglesSet implements Serializable {
 
         // Branch (triangles count >= 2)
 
-        // Split according to direction
-        final List<Triangle> list1 = new ArrayList<>();
-        final List<Triangle> list2 = new ArrayList<>();
+        // Split according to direction (triangles order is preserved in each half)
+        final boolean[] isLeft = new boolean[triangles.length];
+        int nbLeft = 0;
         for (int i = 0; i < triangles.length; i++) {
-            final Triangle triangle = triangles[i];
-            if (splitDirection.isLeft(triangle.getCenter(), this.center)) {
-                list1.add(triangle);
+            isLeft[i] = splitDirection.isLeft(triangles[i].getCenter(), this.center);
+            if (isLeft[i]) {
+                nbLeft++;
+            }
+        }
+        final Triangle[] half1 = new Triangle[nbLeft];
+        final Triangle[] half2 = new Triangle[triangles.length - nbLeft];
+        int i1 = 0;
+        int i2 = 0;
+        for (int i = 0; i < triangles.length; i++) {
+            if (isLeft[i]) {
+                half1[i1++] = triangles[i];
             } else {
-                list2.add(triangle);
+                half2[i2++] = triangles[i];
             }
         }
 
         // Create children branches
         // May be empty in case of triangles in same 2D cut plane
-        if (list1.isEmpty()) {
-            this.childBranch1 = null;
-        } else if (list1.size() == 1) {
-            // Leaf
-            this.childBranch1 = new TrianglesSetLeaf(list1.get(0));
+        // Large halves are built concurrently when the tree is built in parallel
+        final SplitDirection next = splitDirection.next();
+        if (parallel && half1.length >= PARALLEL_THRESHOLD && half2.length >= PARALLEL_THRESHOLD) {
+            final ForkJoinTask<TrianglesSet> task = ForkJoinTask.adapt(() -> createChild(half1, next, true)).fork();
+            this.childBranch2 = createChild(half2, next, true);
+            this.childBranch1 = task.join();
         } else {
-            // Branch
-            this.childBranch1 = new TrianglesSet(list1.toArray(new Triangle[list1.size()]), splitDirection.next());
+            this.childBranch1 = createChild(half1, next, parallel);
+            this.childBranch2 = createChild(half2, next, parallel);
         }
-        if (list2.isEmpty()) {
-            this.childBranch2 = null;
-        } else if (list2.size() == 1) {
+    }
+
+    /**
+     * Build the BSP tree of the provided triangles.
+     * <p>
+     * The tree is the same whatever the parallelism: the branches are split in the same way, only large branches are
+     * built concurrently.
+     * </p>
+     *
+     * @param triangles
+     *        list of triangles
+     * @param parallelism
+     *        maximum number of threads used to build the tree
+     * @return the BSP tree
+     */
+    public static TrianglesSet build(final Triangle[] triangles, final int parallelism) {
+        if (parallelism <= 1 || triangles.length < 2 * PARALLEL_THRESHOLD) {
+            return new TrianglesSet(triangles);
+        }
+        return ParallelUtils.getSharedPool(parallelism).invoke(
+            ForkJoinTask.adapt(() -> new TrianglesSet(triangles, SplitDirection.X, true)));
+    }
+
+    /**
+     * Create a child branch.
+     *
+     * @param triangles
+     *        triangles of the child branch
+     * @param splitDirection
+     *        next splitting direction
+     * @param parallel
+     *        true if large halves are built as concurrent tasks of the current fork-join pool
+     * @return the child branch, null if there are no triangles
+     */
+    @SuppressWarnings("PMD.NullAssignment")
+    // Reason: math of BSP tree
+    private static TrianglesSet createChild(final Triangle[] triangles, final SplitDirection splitDirection,
+                                            final boolean parallel) {
+        final TrianglesSet child;
+        if (triangles.length == 0) {
+            child = null;
+        } else if (triangles.length == 1) {
             // Leaf
-            this.childBranch2 = new TrianglesSetLeaf(list2.get(0));
+            child = new TrianglesSetLeaf(triangles[0]);
         } else {
             // Branch
-            this.childBranch2 = new TrianglesSet(list2.toArray(new Triangle[list2.size()]), splitDirection.next());
+            child = new TrianglesSet(triangles, splitDirection, parallel);
         }
+        return child;
     }
 
     /**
@@ -0,0 +1,100 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.data;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Interface for data loaders whose parsed data can be stored in a binary cache.
+ * <p>
+ * When a binary cache directory is {@link DataProvidersManager#setBinaryCacheDirectory(java.io.File) set up}, the
+ * {@link DataProvidersManager} does not call {@link #loadData(InputStream, String)} for these loaders: data files are
+ * converted once into a compact binary representation using {@link #convertData(InputStream, String, DataOutput)},
+ * which is stored on disk, keyed by the data file checksum. Data are then always loaded from their binary
+ * representation using {@link #loadBinaryData(ByteBuffer, String)}, from a memory-mapped cache file when available, so
+ * that subsequent loads skip text parsing entirely.
+ * </p>
+ * <p>
+ * Data loaded through the binary representation must be exactly the same as the data loaded by
+ * {@link #loadData(InputStream, String)}.
+ * </p>
+ *
+ * @see DataProvidersManager#setBinaryCacheDirectory(java.io.File)
+ *
+ * @since 4.14
+ */
+public interface BinaryCacheableDataLoader extends DataLoader {
+
+    /**
+     * Get the identifier of the binary representation.
+     * <p>
+     * The identifier is part of the cache key: it must identify the loader type, the binary layout version and every
+     * loader setting having an influence on the parsed data.
+     * </p>
+     *
+     * @return identifier of the binary representation
+     */
+    String getBinaryFormat();
+
+    /**
+     * Parse a data file and write its binary representation.
+     * <p>
+     * The loader state may be modified by this method: {@link #loadBinaryData(ByteBuffer, String)} is always called
+     * afterwards with the written data.
+     * </p>
+     *
+     * @param input
+     *        data input stream
+     * @param name
+     *        name of the file (or zip entry)
+     * @param output
+     *        binary output
+     * @exception IOException
+     *            if data can't be read or written
+     * @exception ParseException
+     *            if data can't be parsed
+     * @exception PatriusException
+     *            if some data is missing
+     *            or if some loader specific error occurs
+     */
+    void convertData(InputStream input, String name, DataOutput output)
+        throws IOException, ParseException, PatriusException;
+
+    /**
+     * Load data from their binary representation.
+     *
+     * @param buffer
+     *        buffer containing the binary representation written by
+     *        {@link #convertData(InputStream, String, DataOutput)}, starting at its current position
+     * @param name
+     *        name of the file (or zip entry)
+     * @exception IOException
+     *            if data can't be read
+     * @exception PatriusException
+     *            if some loader specific error occurs
+     */
+    void loadBinaryData(ByteBuffer buffer, String name) throws IOException, PatriusException;
+}
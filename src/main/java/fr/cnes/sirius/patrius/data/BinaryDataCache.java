@@ -0,0 +1,241 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * On-disk cache of the binary representation of data files loaded by {@link BinaryCacheableDataLoader}.
+ * <p>
+ * Cache files are named after the loader binary format, the checksum (CRC-32) and the length of the data file
+ * content, so that a modified data file never hits a stale entry. Each cache file starts with a header repeating
+ * these keys, followed by the binary representation written by the loader. Cache files are memory-mapped when read.
+ * </p>
+ * <p>
+ * The cache is a best-effort mechanism: unreadable or inconsistent cache files are ignored and rebuilt, and failures
+ * when writing cache files are ignored.
+ * </p>
+ *
+ * @concurrency conditionally thread-safe
+ *
+ * @concurrency.comment cache files are written to temporary files then atomically moved, hence concurrent processes
+ *                      sharing the same cache directory never read partially written entries
+ *
+ * @since 4.14
+ */
+final class BinaryDataCache {
+
+    /** Cache files magic number. */
+    private static final int MAGIC = 0x50424443;
+
+    /** Cache files layout version. */
+    private static final int VERSION = 1;
+
+    /** Cache files suffix. */
+    private static final String SUFFIX = ".bin";
+
+    /** Read buffer size. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Cache directory. */
+    private final File directory;
+
+    /**
+     * Constructor.
+     *
+     * @param directory
+     *        cache directory
+     */
+    BinaryDataCache(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Load a data file through the cache.
+     *
+     * @param loader
+     *        data loader
+     * @param input
+     *        data input stream
+     * @param name
+     *        name of the file (or zip entry)
+     * @exception IOException
+     *            if data can't be read
+     * @exception ParseException
+     *            if data can't be parsed
+     * @exception PatriusException
+     *            if some data is missing or if some loader specific error occurs
+     */
+    void load(final BinaryCacheableDataLoader loader, final InputStream input,
+              final String name) throws IOException, ParseException, PatriusException {
+
+        // Cache key
+        final byte[] content = readFully(input);
+        final CRC32 crc = new CRC32();
+        crc.update(content);
+        final String format = loader.getBinaryFormat();
+        final long checksum = crc.getValue();
+        final File file = new File(this.directory, String.format(Locale.US, "%s-%08x-%x%s",
+            format.replaceAll("[^A-Za-z0-9.-]", "_"), checksum, content.length, SUFFIX));
+
+        ByteBuffer buffer = map(file, format, checksum, content.length);
+        if (buffer == null) {
+            // Cache miss: convert data file
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream output = new DataOutputStream(bytes);
+            writeHeader(output, format, checksum, content.length);
+            final int headerSize = output.size();
+            loader.convertData(new ByteArrayInputStream(content), name, output);
+            output.flush();
+            final byte[] entry = bytes.toByteArray();
+            // Payload size is only known now
+            ByteBuffer.wrap(entry).putLong(headerSize - Long.BYTES, entry.length - headerSize);
+            this.store(file, entry);
+            buffer = ByteBuffer.wrap(entry, headerSize, entry.length - headerSize).slice();
+        }
+
+        loader.loadBinaryData(buffer, name);
+    }
+
+    /**
+     * Map a cache file and check its header.
+     *
+     * @param file
+     *        cache file
+     * @param format
+     *        expected binary format
+     * @param checksum
+     *        expected data file checksum
+     * @param length
+     *        expected data file length
+     * @return buffer positioned after the header, or null if the cache file does not exist or is not consistent
+     */
+    private static ByteBuffer map(final File file, final String format, final long checksum, final long length) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r");
+                final FileChannel channel = raf.getChannel()) {
+            // The mapping remains valid after the channel is closed
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            final byte[] storedFormat = new byte[buffer.getShort() & 0xffff];
+            buffer.get(storedFormat);
+            final boolean consistent = format.equals(new String(storedFormat, StandardCharsets.UTF_8))
+                    && buffer.getLong() == checksum && buffer.getLong() == length
+                    && buffer.getLong() == buffer.remaining();
+            return consistent ? buffer.slice() : null;
+        } catch (final IOException | BufferUnderflowException e) {
+            // Unreadable cache file: it will be rebuilt
+            return null;
+        }
+    }
+
+    /**
+     * Store a cache file.
+     *
+     * @param file
+     *        cache file
+     * @param entry
+     *        cache file content, including header
+     */
+    private void store(final File file, final byte[] entry) {
+        File temporary = null;
+        try {
+            temporary = File.createTempFile(file.getName(), ".tmp", this.directory);
+            Files.write(temporary.toPath(), entry);
+            try {
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            // The cache is only an optimization: data have been parsed anyway
+            if (temporary != null && !temporary.delete()) {
+                temporary.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Write a cache file header.
+     *
+     * @param output
+     *        output
+     * @param format
+     *        binary format
+     * @param checksum
+     *        data file checksum
+     * @param length
+     *        data file length
+     * @throws IOException
+     *         if header cannot be written
+     */
+    private static void writeHeader(final DataOutputStream output, final String format, final long checksum,
+                                    final long length) throws IOException {
+        final byte[] formatBytes = format.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeShort(formatBytes.length);
+        output.write(formatBytes);
+        output.writeLong(checksum);
+        output.writeLong(length);
+        // Payload size, updated when storing
+        output.writeLong(0L);
+    }
+
+    /**
+     * Read a stream fully.
+     *
+     * @param input
+     *        input stream
+     * @return stream content
+     * @throws IOException
+     *         if stream cannot be read
+     */
+    private static byte[] readFully(final InputStream input) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        for (int n = input.read(buffer); n >= 0; n = input.read(buffer)) {
+            bytes.write(buffer, 0, n);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -39,6 +39,9 @@ public final class BodiesElements implements Serializable {
     /** Serializable UID. */
     private static final long serialVersionUID = 9193325350743225370L;
 
+    /** Number of luni-solar and planetary elements. */
+    static final int NB_ELEMENTS = 14;
+
     /** Mean anomaly of the Moon. */
     private final double l;
 
@@ -85,6 +85,9 @@ public final class DataProvidersManager implements Serializable {
     /** Loaded data. */
     private final Set<String> loaded;
 
+    /** Directory of the binary cache of parsed data (null if the binary cache is disabled). */
+    private File binaryCacheDirectory;
+
     /**
      * Build an instance with default configuration.
      * <p>
@@ -269,6 +272,43 @@ public final class DataProvidersManager implements Serializable {
         this.loaded.clear();
     }
 
+    /**
+     * Set up the directory of the binary cache of parsed data.
+     * <p>
+     * When this directory is set, data files loaded by {@link BinaryCacheableDataLoader} loaders are converted once
+     * into a compact binary representation stored in this directory, keyed by the data file checksum. Subsequent
+     * loads of the same data files (for instance in later runs) read the memory-mapped binary representation instead
+     * of parsing the data files. Modified data files are automatically parsed again. Other loaders are not affected.
+     * </p>
+     * <p>
+     * The binary cache is disabled by default.
+     * </p>
+     * 
+     * @param directory
+     *        cache directory (created if needed), null to disable the binary cache
+     * @exception PatriusException
+     *            if the directory cannot be created
+     * @see BinaryCacheableDataLoader
+     * @since 4.14
+     */
+    public void setBinaryCacheDirectory(final File directory) throws PatriusException {
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new PatriusException(PatriusMessages.NOT_A_DIRECTORY, directory.getAbsolutePath());
+        }
+        this.binaryCacheDirectory = directory;
+    }
+
+    /**
+     * Get the directory of the binary cache of parsed data.
+     * 
+     * @return cache directory, null if the binary cache is disabled
+     * @see #setBinaryCacheDirectory(File)
+     * @since 4.14
+     */
+    public File getBinaryCacheDirectory() {
+        return this.binaryCacheDirectory;
+    }
+
     /**
      * Feed a data file loader by browsing all data providers.
      * <p>
@@ -354,8 +394,13 @@ public final class DataProvidersManager implements Serializable {
         public void loadData(final InputStream input,
                              final String name) throws IOException, ParseException, PatriusException {
 
-            // delegate to monitored loader
-            this.loader.loadData(input, name);
+            // delegate to monitored loader, through the binary cache if possible
+            final File cacheDirectory = DataProvidersManager.this.binaryCacheDirectory;
+            if (cacheDirectory != null && this.loader instanceof BinaryCacheableDataLoader) {
+                new BinaryDataCache(cacheDirectory).load((BinaryCacheableDataLoader) this.loader, input, name);
+            } else {
+                this.loader.loadData(input, name);
+            }
 
             // monitor the fact new data has been loaded
             DataProvidersManager.this.loaded.add(name);
@@ -301,6 +301,24 @@ public class PoissonSeries implements Serializable {
 
     }
 
+    /**
+     * Get the coefficients of the polynomial part.
+     * 
+     * @return coefficients of the polynomial part, in increasing degree (internal array, not copied)
+     */
+    double[] getCoefficients() {
+        return this.coefficients;
+    }
+
+    /**
+     * Get the non-polynomial series.
+     * 
+     * @return non-polynomial series, series i being multiplied by t<sup>i</sup> (internal array, not copied)
+     */
+    SeriesTerm[][] getSeries() {
+        return this.series;
+    }
+
     /**
      * Compute the value of the development for the current date.
      * 
@@ -0,0 +1,301 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.utils.Constants;
+
+/**
+ * Joint evaluator of several {@link PoissonSeries} depending on the same luni-solar and planetary elements.
+ * <p>
+ * A {@link PoissonSeries} computes one sine and one cosine per term. The IERS precession-nutation developments involve
+ * about 3000 terms, but their arguments are integer combinations of only 14 {@link BodiesElements elements}. This
+ * evaluator computes the sine and cosine of each element once per date, builds the sines and cosines of their
+ * multiples with angle addition recurrences, and combines them to get the terms sines and cosines.
+ * </p>
+ * <p>
+ * All the terms are flattened into primitive arrays at construction.
+ * </p>
+ *
+ * @concurrency immutable
+ *
+ * @see PoissonSeries
+ *
+ * @since 4.14
+ */
+public final class PoissonSeriesEvaluator implements Serializable {
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = -1872630484418325045L;
+
+    /** Polynomial parts coefficients, per series, in increasing degree. */
+    private final double[][] polynomials;
+
+    /** Index of the first group of terms of each series (groups are ordered by increasing power of t). */
+    private final int[] seriesStart;
+
+    /** Index of the first term of each group. */
+    private final int[] groupStart;
+
+    /** Coefficients for the sine of the terms arguments. */
+    private final double[] sinCoeffs;
+
+    /** Coefficients for the cosine of the terms arguments. */
+    private final double[] cosCoeffs;
+
+    /** Index of the first non-zero multiplier of each term. */
+    private final int[] termStart;
+
+    /** Elements indices of non-zero multipliers. */
+    private final int[] elementIndices;
+
+    /** Non-zero multipliers. */
+    private final int[] multipliers;
+
+    /** Index of the multiples of each element in the sines and cosines tables. */
+    private final int[] tableStart;
+
+    /**
+     * Constructor.
+     *
+     * @param series
+     *        Poisson series to evaluate
+     */
+    public PoissonSeriesEvaluator(final PoissonSeries... series) {
+
+        final int nbElements = BodiesElements.NB_ELEMENTS;
+        this.polynomials = new double[series.length][];
+        this.seriesStart = new int[series.length + 1];
+        final List<Integer> groups = new ArrayList<>();
+        final List<SeriesTerm> terms = new ArrayList<>();
+        final List<int[]> termsMultipliers = new ArrayList<>();
+        final int[] maxMultipliers = new int[nbElements];
+        int nbNonZero = 0;
+        for (int s = 0; s < series.length; s++) {
+            this.polynomials[s] = series[s].getCoefficients().clone();
+            this.seriesStart[s] = groups.size();
+            for (final SeriesTerm[] group : series[s].getSeries()) {
+                groups.add(terms.size());
+                for (final SeriesTerm term : group) {
+                    final int[] m = term.getMultipliers();
+                    for (int k = 0; k < nbElements; k++) {
+                        if (m[k] != 0) {
+                            nbNonZero++;
+                            maxMultipliers[k] = MathLib.max(maxMultipliers[k], MathLib.abs(m[k]));
+                        }
+                    }
+                    terms.add(term);
+                    termsMultipliers.add(m);
+                }
+            }
+        }
+        this.seriesStart[series.length] = groups.size();
+
+        this.groupStart = new int[groups.size() + 1];
+        for (int g = 0; g < groups.size(); g++) {
+            this.groupStart[g] = groups.get(g);
+        }
+        this.groupStart[groups.size()] = terms.size();
+
+        this.sinCoeffs = new double[terms.size()];
+        this.cosCoeffs = new double[terms.size()];
+        this.termStart = new int[terms.size() + 1];
+        this.elementIndices = new int[nbNonZero];
+        this.multipliers = new int[nbNonZero];
+        int index = 0;
+        for (int i = 0; i < terms.size(); i++) {
+            this.sinCoeffs[i] = terms.get(i).getSinCoeff();
+            this.cosCoeffs[i] = terms.get(i).getCosCoeff();
+            this.termStart[i] = index;
+            final int[] m = termsMultipliers.get(i);
+            for (int k = 0; k < nbElements; k++) {
+                if (m[k] != 0) {
+                    this.elementIndices[index] = k;
+                    this.multipliers[index] = m[k];
+                    index++;
+                }
+            }
+        }
+        this.termStart[terms.size()] = index;
+
+        this.tableStart = new int[nbElements + 1];
+        for (int k = 0; k < nbElements; k++) {
+            this.tableStart[k + 1] = this.tableStart[k] + maxMultipliers[k] + 1;
+        }
+    }
+
+    /**
+     * Get the number of evaluated series.
+     *
+     * @return number of evaluated series
+     */
+    public int getNbSeries() {
+        return this.polynomials.length;
+    }
+
+    /**
+     * Compute the values of the developments for the current date.
+     *
+     * @param t
+     *        current date
+     * @param elements
+     *        luni-solar and planetary elements for the current date
+     * @return current values of the developments, in constructor order
+     */
+    public double[] value(final double t, final BodiesElements elements) {
+        final double[] values = new double[this.polynomials.length];
+        this.valueImpl(t, elements, null, values, null);
+        return values;
+    }
+
+    /**
+     * Compute the values of the developments for the current date and their first time derivatives.
+     *
+     * @param t
+     *        current date
+     * @param elements
+     *        luni-solar and planetary elements for the current date
+     * @param elementsP
+     *        luni-solar and planetary time derivative elements for the current date
+     * @return current values (first row) and time derivatives (second row) of the developments, in constructor order
+     */
+    public double[][] value(final double t, final BodiesElements elements, final BodiesElements elementsP) {
+        final double[][] values = new double[2][this.polynomials.length];
+        this.valueImpl(t, elements, elementsP, values[0], values[1]);
+        return values;
+    }
+
+    /**
+     * Compute the values of the developments for the current date, and their first time derivatives if needed.
+     *
+     * @param t
+     *        current date
+     * @param elements
+     *        luni-solar and planetary elements for the current date
+     * @param elementsP
+     *        luni-solar and planetary time derivative elements for the current date (null if derivatives are not
+     *        needed)
+     * @param values
+     *        placeholder for the values
+     * @param derivatives
+     *        placeholder for the derivatives (null if derivatives are not needed)
+     */
+    private void valueImpl(final double t, final BodiesElements elements, final BodiesElements elementsP,
+                           final double[] values, final double[] derivatives) {
+
+        final boolean deriv = elementsP != null;
+
+        // sines and cosines of the elements multiples
+        final double[] angles = toArray(elements);
+        final double[] rates = deriv ? toArray(elementsP) : null;
+        final double[] sin = new double[this.tableStart[angles.length]];
+        final double[] cos = new double[sin.length];
+        for (int k = 0; k < angles.length; k++) {
+            final int start = this.tableStart[k];
+            final int end = this.tableStart[k + 1];
+            cos[start] = 1.;
+            if (end - start > 1) {
+                final double[] sincos = MathLib.sinAndCos(angles[k]);
+                sin[start + 1] = sincos[0];
+                cos[start + 1] = sincos[1];
+                for (int n = start + 2; n < end; n++) {
+                    sin[n] = sin[n - 1] * sincos[1] + cos[n - 1] * sincos[0];
+                    cos[n] = cos[n - 1] * sincos[1] - sin[n - 1] * sincos[0];
+                }
+            }
+        }
+
+        for (int s = 0; s < this.polynomials.length; s++) {
+
+            // polynomial part
+            final double[] coefficients = this.polynomials[s];
+            double p = 0;
+            double pp = 0;
+            for (int i = coefficients.length - 1; i >= 0; --i) {
+                if (deriv) {
+                    pp = pp * t + p / Constants.JULIAN_CENTURY;
+                }
+                p = p * t + coefficients[i];
+            }
+
+            // non-polynomial part
+            double np = 0;
+            double npp = 0;
+            for (int g = this.seriesStart[s + 1] - 1; g >= this.seriesStart[s]; --g) {
+
+                // add the harmonic terms starting from the last (smallest) terms,
+                // to avoid numerical problems
+                double sum = 0;
+                double sumP = 0;
+                for (int i = this.groupStart[g + 1] - 1; i >= this.groupStart[g]; --i) {
+                    // sine and cosine of the argument by angle addition
+                    double sinA = 0;
+                    double cosA = 1;
+                    double argP = 0;
+                    for (int j = this.termStart[i]; j < this.termStart[i + 1]; j++) {
+                        final int k = this.elementIndices[j];
+                        final int m = this.multipliers[j];
+                        final int n = this.tableStart[k] + MathLib.abs(m);
+                        final double sinM = m < 0 ? -sin[n] : sin[n];
+                        final double cosM = cos[n];
+                        final double sinTmp = sinA * cosM + cosA * sinM;
+                        cosA = cosA * cosM - sinA * sinM;
+                        sinA = sinTmp;
+                        if (deriv) {
+                            argP += m * rates[k];
+                        }
+                    }
+                    sum += this.sinCoeffs[i] * sinA + this.cosCoeffs[i] * cosA;
+                    if (deriv) {
+                        sumP += argP * (this.sinCoeffs[i] * cosA - this.cosCoeffs[i] * sinA);
+                    }
+                }
+
+                if (deriv) {
+                    npp = npp * t + np / Constants.JULIAN_CENTURY + sumP;
+                }
+                np = np * t + sum;
+            }
+
+            // add the polynomial and the non-polynomial parts
+            values[s] = p + np;
+            if (deriv) {
+                derivatives[s] = pp + npp;
+            }
+        }
+    }
+
+    /**
+     * Convert elements to an array.
+     *
+     * @param elements
+     *        luni-solar and planetary elements
+     * @return elements, in {@link BodiesElements} constructor order
+     */
+    private static double[] toArray(final BodiesElements elements) {
+        return new double[] { elements.getL(), elements.getLPrime(), elements.getF(), elements.getD(),
+            elements.getOmega(), elements.getLMe(), elements.getLVe(), elements.getLE(), elements.getLMa(),
+            elements.getLJu(), elements.getLSa(), elements.getLUr(), elements.getLNe(), elements.getPa() };
+    }
+}
@@ -98,6 +98,45 @@ public abstract class SeriesTerm implements Serializable {
             ap * (this.sinCoeff * cos - this.cosCoeff * sin) };
     }
 
+    /**
+     * Get the coefficient for the sine of the argument.
+     * 
+     * @return coefficient for the sine of the argument
+     */
+    double getSinCoeff() {
+        return this.sinCoeff;
+    }
+
+    /**
+     * Get the coefficient for the cosine of the argument.
+     * 
+     * @return coefficient for the cosine of the argument
+     */
+    double getCosCoeff() {
+        return this.cosCoeff;
+    }
+
+    /**
+     * Get the multipliers of the luni-solar and planetary elements in the argument.
+     * <p>
+     * The argument being an integer linear combination of the elements, the multipliers are retrieved by computing
+     * the argument for unit elements.
+     * </p>
+     * 
+     * @return multipliers, in {@link BodiesElements} constructor order
+     */
+    int[] getMultipliers() {
+        final int[] multipliers = new int[BodiesElements.NB_ELEMENTS];
+        for (int k = 0; k < multipliers.length; k++) {
+            final double[] unit = new double[BodiesElements.NB_ELEMENTS];
+            unit[k] = 1.;
+            multipliers[k] = (int) MathLib.round(this.argument(new BodiesElements(unit[0], unit[1], unit[2],
+                unit[3], unit[4], unit[5], unit[6], unit[7], unit[8], unit[9], unit[10], unit[11], unit[12],
+                unit[13])));
+        }
+        return multipliers;
+    }
+
     /**
      * Compute the argument for the current date.
      * 
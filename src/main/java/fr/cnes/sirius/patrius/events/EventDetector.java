@@ -39,6 +39,7 @@ import java.io.Serializable;
 
 import fr.cnes.sirius.patrius.events.detectors.LocalTimeAngleDetector;
 import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.propagation.SpacecraftStateProvider;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 
@@ -253,6 +254,34 @@ public interface EventDetector extends Serializable {
      */
     int getSlopeSelection();
 
+    /**
+     * Check whether the g-function may change sign over a propagation step.
+     * <p>
+     * This method is called by propagators before sampling the g-function over a step. If it returns false, the
+     * g-function is not evaluated at all over the step and no event is searched. Implementations must therefore be
+     * conservative: they may only return false if the g-function sign is guaranteed to remain the same over the whole
+     * step. This allows detectors sharing a common (and cheaper) screening to skip most of the steps.
+     * </p>
+     * <p>
+     * By default, this method returns true: the g-function is always sampled.
+     * </p>
+     * 
+     * @param start
+     *        step start date
+     * @param end
+     *        step end date (before start date for backward propagation)
+     * @param states
+     *        spacecraft states over the step
+     * @return false if the g-function sign is guaranteed to remain the same over the step, true otherwise
+     * @throws PatriusException
+     *         if screening cannot be performed
+     * @since 4.14
+     */
+    default boolean isSignChangePossible(final AbsoluteDate start, final AbsoluteDate end,
+                                         final SpacecraftStateProvider states) throws PatriusException {
+        return true;
+    }
+
     /**
      * A copy of the detector. By default copy is deep. If not, detector javadoc will specify which
      * attribute is not fully copied. In that case, the attribute reference is passed.
@@ -0,0 +1,335 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.events.detectors;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import fr.cnes.sirius.patrius.events.EventDetector;
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.TopocentricFrame;
+import fr.cnes.sirius.patrius.frames.transformations.Transform;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.propagation.SpacecraftStateProvider;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Group of {@link ElevationDetector elevation detectors} sharing a common step screening.
+ * <p>
+ * When many stations are monitored by the same propagator (ground network visibility studies for instance), each
+ * elevation detector samples its own g-function over every step, each sample requiring a frame transformation. This
+ * group replaces a family of elevation detectors by equivalent {@link #getDetectors() detectors} sharing a common
+ * screening of each step: the spacecraft trajectory over the step is sampled once for the whole group in the stations
+ * body frame and enclosed in a set of balls. Only the detectors whose visibility cone surface intersects one of these
+ * balls may see their g-function change sign: the other ones skip the step without any g-function evaluation (see
+ * {@link EventDetector#isSignChangePossible(AbsoluteDate, AbsoluteDate, SpacecraftStateProvider)}). Remaining
+ * detectors perform the usual sampling and root-finding, hence the detected events are the same as the ones of the
+ * original detectors.
+ * </p>
+ * <p>
+ * The trajectory is sampled with the smallest max check interval of the detectors. The enclosing balls are computed
+ * assuming the spacecraft speed in the stations body frame does not exceed the largest sampled speed by more than
+ * {@link #SPEED_MARGIN} (relative) between two samples.
+ * </p>
+ * <p>
+ * All stations must be defined with respect to the same body frame.
+ * </p>
+ *
+ * @concurrency conditionally thread-safe
+ *
+ * @concurrency.comment the screening of the last step is shared by the detectors of the group and is safely published;
+ *                      detectors themselves are as thread-safe as {@link ElevationDetector}
+ *
+ * @see ElevationDetector
+ *
+ * @since 4.14
+ */
+public class ElevationDetectorsGroup implements Serializable {
+
+    /** Relative margin on the spacecraft speed between two trajectory samples. */
+    public static final double SPEED_MARGIN = 0.1;
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = -6307294813917946312L;
+
+    /** Stations body frame. */
+    private final Frame bodyFrame;
+
+    /** Stations positions in body frame. */
+    private final Vector3D[] positions;
+
+    /** Stations zenith directions in body frame. */
+    private final Vector3D[] zeniths;
+
+    /** Trajectory sampling step (s). */
+    private final double samplingStep;
+
+    /** Group detectors. */
+    private final List<EventDetector> detectors;
+
+    /** Screening of the last step. */
+    private transient volatile StepScreening screening;
+
+    /**
+     * Constructor.
+     * <p>
+     * One detector of the group is built for each given elevation detector, with the same elevation threshold,
+     * topocentric frame, max check interval, convergence threshold, actions and removal flags.
+     * </p>
+     *
+     * @param elevationDetectors
+     *        elevation detectors to group
+     * @throws PatriusException
+     *         if stations are not defined with respect to the same body frame or if stations positions cannot be
+     *         computed
+     */
+    public ElevationDetectorsGroup(final List<ElevationDetector> elevationDetectors) throws PatriusException {
+        final int size = elevationDetectors.size();
+        this.bodyFrame = size == 0 ? null : elevationDetectors.get(0).getTopocentricFrame().getParent();
+        this.positions = new Vector3D[size];
+        this.zeniths = new Vector3D[size];
+        final List<EventDetector> members = new ArrayList<>(size);
+        double step = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            final ElevationDetector detector = elevationDetectors.get(i);
+            final TopocentricFrame topo = detector.getTopocentricFrame();
+            if (topo.getParent() != this.bodyFrame) {
+                throw new PatriusException(PatriusMessages.FRAMES_MISMATCH, topo.getParent().getName(),
+                    this.bodyFrame.getName());
+            }
+            // Topocentric frames are fixed with respect to their parent frame
+            final Transform toBody = topo.getTransformTo(this.bodyFrame, AbsoluteDate.J2000_EPOCH);
+            this.positions[i] = toBody.transformPosition(Vector3D.ZERO);
+            this.zeniths[i] = toBody.transformVector(Vector3D.PLUS_K);
+            step = MathLib.min(step, detector.getMaxCheckInterval());
+            members.add(new GroupedElevationDetector(this, i, detector.getElevation(), topo,
+                detector.getMaxCheckInterval(), detector.getThreshold(), detector.getActionAtEntry(),
+                detector.getActionAtExit(), detector.isRemoveAtEntry(), detector.isRemoveAtExit()));
+        }
+        this.samplingStep = step;
+        this.detectors = Collections.unmodifiableList(members);
+    }
+
+    /**
+     * Get the detectors of the group, in the same order as the elevation detectors given at construction.
+     * <p>
+     * These detectors replace the grouped elevation detectors and should be added to the propagator instead of them.
+     * </p>
+     *
+     * @return the detectors of the group
+     */
+    public List<EventDetector> getDetectors() {
+        return this.detectors;
+    }
+
+    /**
+     * Check whether the elevation of the spacecraft may cross a threshold elevation as seen from a station over a
+     * step.
+     *
+     * @param index
+     *        station index
+     * @param elevation
+     *        threshold elevation (rad)
+     * @param start
+     *        step start date
+     * @param end
+     *        step end date
+     * @param states
+     *        spacecraft states over the step
+     * @return false if the elevation is guaranteed to remain above or below the threshold over the whole step
+     * @throws PatriusException
+     *         if the spacecraft trajectory cannot be computed
+     */
+    private boolean isCrossingPossible(final int index, final double elevation, final AbsoluteDate start,
+                                       final AbsoluteDate end,
+                                       final SpacecraftStateProvider states) throws PatriusException {
+
+        // Step screening, shared by all detectors
+        final SpacecraftState first = states.getSpacecraftState(start);
+        StepScreening current = this.screening;
+        if (current == null || !current.matches(first, end)) {
+            current = new StepScreening(first, end, states);
+            this.screening = current;
+        }
+
+        // Visibility cone of the station: angle from zenith lower than alpha
+        final double alpha = MathLib.PI / 2. - elevation;
+        final Vector3D position = this.positions[index];
+        final Vector3D zenith = this.zeniths[index];
+        for (int j = 0; j < current.radii.length; j++) {
+            final Vector3D w = current.centers[j].subtract(position);
+            final double norm = w.getNorm();
+            final double radius = current.radii[j];
+            if (norm <= radius) {
+                // Ball contains the station
+                return true;
+            }
+            // Distance from ball center to cone surface
+            final double delta = MathLib.abs(Vector3D.angle(zenith, w) - alpha);
+            final double distance = delta >= MathLib.PI / 2. ? norm : norm * MathLib.sin(delta);
+            if (distance <= radius) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Screening of a step: balls enclosing the spacecraft trajectory in the stations body frame.
+     */
+    private final class StepScreening {
+
+        /** Step first state. */
+        private final SpacecraftState first;
+
+        /** Step end date. */
+        private final AbsoluteDate end;
+
+        /** Enclosing balls centers. */
+        private final Vector3D[] centers;
+
+        /** Enclosing balls radii. */
+        private final double[] radii;
+
+        /**
+         * Constructor.
+         *
+         * @param first
+         *        step first state
+         * @param end
+         *        step end date
+         * @param states
+         *        spacecraft states over the step
+         * @throws PatriusException
+         *         if the spacecraft trajectory cannot be computed
+         */
+        StepScreening(final SpacecraftState first, final AbsoluteDate end,
+                      final SpacecraftStateProvider states) throws PatriusException {
+            final ElevationDetectorsGroup group = ElevationDetectorsGroup.this;
+            this.first = first;
+            this.end = end;
+            final double duration = end.durationFrom(first.getDate());
+            final int n = MathLib.max(1, (int) MathLib.ceil(MathLib.abs(duration) / group.samplingStep));
+            final double h = duration / n;
+            this.centers = new Vector3D[n];
+            this.radii = new double[n];
+            PVCoordinates previous = first.getPVCoordinates(group.bodyFrame);
+            for (int j = 0; j < n; j++) {
+                final AbsoluteDate date = j == n - 1 ? end : first.getDate().shiftedBy((j + 1) * h);
+                final PVCoordinates next = states.getSpacecraftState(date).getPVCoordinates(group.bodyFrame);
+                // Any point of a path of length l between p0 and p1 lies within sqrt(l^2 / 2 - |p1 - p0|^2 / 4)
+                // of the middle of [p0, p1]
+                final double chord2 = next.getPosition().distanceSq(previous.getPosition());
+                final double length = (1. + SPEED_MARGIN) * MathLib.abs(h)
+                        * MathLib.max(previous.getVelocity().getNorm(), next.getVelocity().getNorm());
+                this.centers[j] = new Vector3D(0.5, previous.getPosition(), 0.5, next.getPosition());
+                this.radii[j] = MathLib.sqrt(MathLib.max(length * length / 2. - chord2 / 4., chord2 / 4.));
+                previous = next;
+            }
+        }
+
+        /**
+         * Check whether this screening corresponds to a step.
+         *
+         * @param state
+         *        step first state
+         * @param date
+         *        step end date
+         * @return true if this screening corresponds to the step
+         */
+        boolean matches(final SpacecraftState state, final AbsoluteDate date) {
+            final PVCoordinates pv = state.getPVCoordinates();
+            final PVCoordinates firstPV = this.first.getPVCoordinates();
+            return this.end.equals(date) && this.first.getDate().equals(state.getDate())
+                    && this.first.getFrame() == state.getFrame() && firstPV.getPosition().equals(pv.getPosition())
+                    && firstPV.getVelocity().equals(pv.getVelocity());
+        }
+    }
+
+    /**
+     * Elevation detector belonging to a group.
+     */
+    private static final class GroupedElevationDetector extends ElevationDetector {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 3158466429614932270L;
+
+        /** Group. */
+        private final ElevationDetectorsGroup group;
+
+        /** Station index in the group. */
+        private final int index;
+
+        /**
+         * Constructor.
+         *
+         * @param group
+         *        group
+         * @param index
+         *        station index in the group
+         * @param elevation
+         *        threshold elevation value (rad)
+         * @param topo
+         *        topocentric frame in which elevation should be evaluated
+         * @param maxCheck
+         *        maximal checking interval (s)
+         * @param threshold
+         *        convergence threshold (s)
+         * @param raising
+         *        action performed when the satellite rises
+         * @param setting
+         *        action performed when the satellite sets
+         * @param removeRaising
+         *        true if detector should be removed after the satellite rises
+         * @param removeSetting
+         *        true if detector should be removed after the satellite sets
+         */
+        GroupedElevationDetector(final ElevationDetectorsGroup group, final int index, final double elevation,
+                                 final TopocentricFrame topo, final double maxCheck, final double threshold,
+                                 final Action raising, final Action setting, final boolean removeRaising,
+                                 final boolean removeSetting) {
+            super(elevation, topo, maxCheck, threshold, raising, setting, removeRaising, removeSetting);
+            this.group = group;
+            this.index = index;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isSignChangePossible(final AbsoluteDate start, final AbsoluteDate end,
+                                            final SpacecraftStateProvider states) throws PatriusException {
+            return this.group.isCrossingPossible(this.index, this.getElevation(), start, end, states);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public EventDetector copy() {
+            return new GroupedElevationDetector(this.group, this.index, this.getElevation(),
+                this.getTopocentricFrame(), this.getMaxCheckInterval(), this.getThreshold(), this.getActionAtEntry(),
+                this.getActionAtExit(), this.isRemoveAtEntry(), this.isRemoveAtExit());
+        }
+    }
+}
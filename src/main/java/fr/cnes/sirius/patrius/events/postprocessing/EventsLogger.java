@@ -43,6 +43,7 @@ import fr.cnes.sirius.patrius.events.EventDetector;
 import fr.cnes.sirius.patrius.events.detectors.AbstractSignalPropagationDetector.DatationChoice;
 import fr.cnes.sirius.patrius.events.utils.SignalPropagationWrapperDetector;
 import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.propagation.SpacecraftStateProvider;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
@@ -321,6 +322,13 @@ public class EventsLogger implements Serializable {
             return this.detector.getSlopeSelection();
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public boolean isSignChangePossible(final AbsoluteDate start, final AbsoluteDate end,
+                                            final SpacecraftStateProvider states) throws PatriusException {
+            return this.detector.isSignChangePossible(start, end, states);
+        }
+
         /** {@inheritDoc} */
         @Override
         public EventDetector copy() {
@@ -0,0 +1,181 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.events.screening;
+
+import java.io.Serializable;
+import java.util.Locale;
+
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+
+/**
+ * Close approach between two objects detected by a {@link ConjunctionScreening}.
+ * <p>
+ * A close approach is a local minimum of the distance between two objects (time of closest approach, or TCA) which
+ * is below the screening distance. Objects are identified by their index in the screened list.
+ * </p>
+ *
+ * @concurrency immutable
+ *
+ * @see ConjunctionScreening
+ *
+ * @since 4.14
+ */
+public final class CloseApproach implements Comparable<CloseApproach>, Serializable {
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = -2431926417394567236L;
+
+    /** Index of the primary object. */
+    private final int primaryIndex;
+
+    /** Index of the secondary object. */
+    private final int secondaryIndex;
+
+    /** Time of closest approach. */
+    private final AbsoluteDate tca;
+
+    /** Miss distance (m). */
+    private final double missDistance;
+
+    /** Relative speed at time of closest approach (m/s). */
+    private final double relativeSpeed;
+
+    /**
+     * Constructor.
+     *
+     * @param primaryIndex
+     *        index of the primary object
+     * @param secondaryIndex
+     *        index of the secondary object
+     * @param tca
+     *        time of closest approach
+     * @param missDistance
+     *        miss distance (m)
+     * @param relativeSpeed
+     *        relative speed at time of closest approach (m/s)
+     */
+    public CloseApproach(final int primaryIndex, final int secondaryIndex, final AbsoluteDate tca,
+                         final double missDistance, final double relativeSpeed) {
+        this.primaryIndex = primaryIndex;
+        this.secondaryIndex = secondaryIndex;
+        this.tca = tca;
+        this.missDistance = missDistance;
+        this.relativeSpeed = relativeSpeed;
+    }
+
+    /**
+     * Get the index of the primary object.
+     *
+     * @return the index of the primary object
+     */
+    public int getPrimaryIndex() {
+        return this.primaryIndex;
+    }
+
+    /**
+     * Get the index of the secondary object.
+     *
+     * @return the index of the secondary object
+     */
+    public int getSecondaryIndex() {
+        return this.secondaryIndex;
+    }
+
+    /**
+     * Get the time of closest approach.
+     *
+     * @return the time of closest approach
+     */
+    public AbsoluteDate getTCA() {
+        return this.tca;
+    }
+
+    /**
+     * Get the miss distance.
+     *
+     * @return the miss distance (m)
+     */
+    public double getMissDistance() {
+        return this.missDistance;
+    }
+
+    /**
+     * Get the relative speed at time of closest approach.
+     *
+     * @return the relative speed (m/s)
+     */
+    public double getRelativeSpeed() {
+        return this.relativeSpeed;
+    }
+
+    /**
+     * Compare close approaches chronologically, then by objects indices.
+     *
+     * @param other
+     *        other close approach
+     * @return a negative integer, zero, or a positive integer as this close approach occurs before, at the same time
+     *         as, or after the other one
+     */
+    @Override
+    public int compareTo(final CloseApproach other) {
+        int result = this.tca.compareTo(other.tca);
+        if (result == 0) {
+            result = Integer.compare(this.primaryIndex, other.primaryIndex);
+        }
+        if (result == 0) {
+            result = Integer.compare(this.secondaryIndex, other.secondaryIndex);
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals(final Object object) {
+        if (object == this) {
+            return true;
+        }
+        if (object instanceof CloseApproach) {
+            final CloseApproach other = (CloseApproach) object;
+            return this.primaryIndex == other.primaryIndex && this.secondaryIndex == other.secondaryIndex
+                    && this.tca.equals(other.tca)
+                    && Double.doubleToLongBits(this.missDistance) == Double.doubleToLongBits(other.missDistance)
+                    && Double.doubleToLongBits(this.relativeSpeed) == Double.doubleToLongBits(other.relativeSpeed);
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode() {
+        int result = 17;
+        result = 31 * result + this.primaryIndex;
+        result = 31 * result + this.secondaryIndex;
+        result = 31 * result + this.tca.hashCode();
+        final long bits = Double.doubleToLongBits(this.missDistance);
+        return 31 * result + (int) (bits ^ (bits >>> 32));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s: %d - %d, miss distance %.3f m, relative speed %.3f m/s", this.tca,
+            this.primaryIndex, this.secondaryIndex, this.missDistance, this.relativeSpeed);
+    }
+}
@@ -0,0 +1,1009 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.events.screening;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import fr.cnes.sirius.patrius.events.AbstractDetector;
+import fr.cnes.sirius.patrius.events.detectors.ExtremaDistanceDetector;
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.math.analysis.UnivariateFunction;
+import fr.cnes.sirius.patrius.math.analysis.solver.BrentSolver;
+import fr.cnes.sirius.patrius.math.exception.NotStrictlyPositiveException;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinatesProvider;
+import fr.cnes.sirius.patrius.propagation.analytical.tle.TLE;
+import fr.cnes.sirius.patrius.propagation.analytical.tle.TLEPropagator;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelUtils;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelUtils.RangeTask;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusExceptionWrapper;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Conjunction screening engine: finds the close approaches between a set of primary objects (for instance a fleet)
+ * and a set of secondary objects (for instance a catalogue), or between all objects of a set.
+ * <p>
+ * Objects are given as {@link PVCoordinatesProvider} (ephemerides, analytical or TLE propagators...). Screening is
+ * performed in three steps:
+ * <ol>
+ * <li>the screening interval is swept by windows of {@link #WINDOW_SLICES} time slices of a regular dates grid (the
+ * sampling step): all objects are sampled on the dates of the window and their radial extent (perigee/apogee shell)
+ * over the window is computed: secondary objects whose shell is farther than the screening distance from all primary
+ * shells are discarded for this window,</li>
+ * <li>for each time slice of the window, a bounding box of the path of each object is built (taking into account the
+ * maximal distance travelled between two samples and the screening distance), and boxes are indexed in a uniform spatial
+ * hash grid: only pairs of objects whose boxes overlap during a time slice are kept as candidates,</li>
+ * <li>candidate pairs are refined on their consecutive candidate slices by root finding of the range-rate, as done by
+ * {@link ExtremaDistanceDetector}: minima of distance below the screening distance are returned as
+ * {@link CloseApproach}.</li>
+ * </ol>
+ * Sampling, indexing and refinement are performed concurrently. Only the samples of the current window are kept in
+ * memory, hence the memory footprint does not depend on the length of the screening interval.
+ * </p>
+ * <p>
+ * Since most {@link PVCoordinatesProvider} implementations are not thread-safe, objects are provided through a
+ * {@link ProvidersBuilder}, called whenever a concurrent task needs objects and none of the lists already built is
+ * available. The lists are released when the screening is over.
+ * </p>
+ * <p>
+ * The sampling step should be small compared to the orbital periods of the screened objects: the path bounding boxes
+ * rely on the maximal sampled velocity of each object.
+ * </p>
+ *
+ * @concurrency immutable
+ *
+ * @see ExtremaDistanceDetector
+ *
+ * @since 4.14
+ */
+public class ConjunctionScreening {
+
+    /** Number of time slices sampled at once. */
+    public static final int WINDOW_SLICES = 64;
+
+    /** Maximal number of evaluations for root finding. */
+    private static final int MAX_EVAL = 100;
+
+    /** Number of bits of each cell coordinate in spatial hash keys. */
+    private static final int CELL_BITS = 21;
+
+    /** Mask of each cell coordinate in spatial hash keys. */
+    private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+
+    /** Ratio between the extent of an oversize box and the grid cell size. */
+    private static final double OVERSIZE_RATIO = 2.;
+
+    /** Multiplier of the Fibonacci hashing of the cell keys. */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /** Dimension. */
+    private static final int DIM = 3;
+
+    /** Frame in which distances are computed. */
+    private final Frame frame;
+
+    /** Screening distance (m). */
+    private final double screeningDistance;
+
+    /** Sampling step (s). */
+    private final double samplingStep;
+
+    /** Maximal checking interval for refinement (s). */
+    private final double maxCheck;
+
+    /** Convergence threshold on times of closest approach (s). */
+    private final double threshold;
+
+    /** Maximal number of threads. */
+    private final int parallelism;
+
+    /**
+     * Constructor with default refinement settings: the maximal checking interval is the sampling step and the
+     * convergence threshold is {@link AbstractDetector#DEFAULT_THRESHOLD}.
+     *
+     * @param frame
+     *        frame in which distances are computed (preferably inertial)
+     * @param screeningDistance
+     *        screening distance (m)
+     * @param samplingStep
+     *        sampling step (s)
+     * @param nbThreads
+     *        maximal number of threads (values lower than 1 are replaced by 1)
+     */
+    public ConjunctionScreening(final Frame frame, final double screeningDistance, final double samplingStep,
+                                final int nbThreads) {
+        this(frame, screeningDistance, samplingStep, samplingStep, AbstractDetector.DEFAULT_THRESHOLD, nbThreads);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param frame
+     *        frame in which distances are computed (preferably inertial)
+     * @param screeningDistance
+     *        screening distance (m)
+     * @param samplingStep
+     *        sampling step (s)
+     * @param maxCheck
+     *        maximal checking interval for refinement of candidate pairs (s)
+     * @param threshold
+     *        convergence threshold on times of closest approach (s)
+     * @param nbThreads
+     *        maximal number of threads (values lower than 1 are replaced by 1)
+     */
+    public ConjunctionScreening(final Frame frame, final double screeningDistance, final double samplingStep,
+                                final double maxCheck, final double threshold, final int nbThreads) {
+        if (screeningDistance < 0) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.NOT_POSITIVE_DISTANCE);
+        }
+        if (samplingStep <= 0) {
+            throw new NotStrictlyPositiveException(samplingStep);
+        }
+        if (maxCheck <= 0) {
+            throw new NotStrictlyPositiveException(maxCheck);
+        }
+        if (threshold <= 0) {
+            throw new NotStrictlyPositiveException(threshold);
+        }
+        this.frame = frame;
+        this.screeningDistance = screeningDistance;
+        this.samplingStep = samplingStep;
+        this.maxCheck = maxCheck;
+        this.threshold = threshold;
+        this.parallelism = MathLib.max(1, nbThreads);
+    }
+
+    /**
+     * Build a {@link ProvidersBuilder} returning a {@link TLEPropagator} for each TLE of a list.
+     *
+     * @param tles
+     *        TLE list
+     * @return providers builder
+     */
+    public static ProvidersBuilder tleProviders(final List<TLE> tles) {
+        return () -> {
+            final List<PVCoordinatesProvider> providers = new ArrayList<>(tles.size());
+            for (final TLE tle : tles) {
+                providers.add(TLEPropagator.selectExtrapolator(tle));
+            }
+            return providers;
+        };
+    }
+
+    /**
+     * Screen all pairs of objects.
+     *
+     * @param builder
+     *        builder of the screened objects
+     * @param start
+     *        screening start date
+     * @param end
+     *        screening end date
+     * @return close approaches sorted chronologically
+     * @throws PatriusException
+     *         if objects cannot be built or if their positions cannot be computed
+     */
+    public List<CloseApproach> screen(final ProvidersBuilder builder, final AbsoluteDate start,
+                                      final AbsoluteDate end) throws PatriusException {
+        return this.screen(builder, -1, start, end);
+    }
+
+    /**
+     * Screen the primary objects against all objects.
+     * <p>
+     * The first {@code nbPrimaries} objects returned by the builder are the primary objects. Pairs of secondary
+     * objects are not screened. Only the minima of distance strictly inside the screening interval are detected.
+     * </p>
+     *
+     * @param builder
+     *        builder of the screened objects
+     * @param nbPrimaries
+     *        number of primary objects (a negative value means that all objects are primary objects)
+     * @param start
+     *        screening start date
+     * @param end
+     *        screening end date
+     * @return close approaches sorted chronologically, {@link CloseApproach#getPrimaryIndex()} always being a primary
+     *         object
+     * @throws PatriusException
+     *         if objects cannot be built or if their positions cannot be computed
+     */
+    public List<CloseApproach> screen(final ProvidersBuilder builder, final int nbPrimaries,
+                                      final AbsoluteDate start, final AbsoluteDate end) throws PatriusException {
+
+        final double duration = end.durationFrom(start);
+        if (duration <= 0) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.ENDPOINTS_NOT_AN_INTERVAL, start,
+                end);
+        }
+
+        // Providers of the tasks (the first list is also used to get the number of objects)
+        final List<PVCoordinatesProvider> first = builder.build();
+        final int n = first.size();
+        final int primaries = nbPrimaries < 0 ? n : MathLib.min(nbPrimaries, n);
+        final Workspace workspace = new Workspace(builder, first);
+
+        // Dates grid
+        final int nbSlices = (int) MathLib.ceil(duration / this.samplingStep);
+        final AbsoluteDate[] dates = new AbsoluteDate[nbSlices + 1];
+        for (int j = 0; j < nbSlices; j++) {
+            dates[j] = start.shiftedBy(j * this.samplingStep);
+        }
+        dates[nbSlices] = end;
+
+        // Time-sliced sweep: the samples of a window are dropped once its candidate pairs are computed
+        final long[][] slicePairs = new long[nbSlices][];
+        for (int windowStart = 0; windowStart < nbSlices; windowStart += WINDOW_SLICES) {
+            final int firstSlice = windowStart;
+            final int nbWindowSlices = MathLib.min(WINDOW_SLICES, nbSlices - windowStart);
+
+            // Sampling
+            final Samples samples = this.sample(workspace, n, dates, firstSlice, nbWindowSlices);
+
+            // Apogee/perigee filter
+            final int[] active = this.filterShells(samples, n, primaries);
+
+            // Spatial index
+            this.run(nbWindowSlices, (startSlice, endSlice) -> {
+                for (int j = startSlice; j < endSlice; j++) {
+                    slicePairs[firstSlice + j] = this.candidatePairs(samples, active, primaries, j);
+                }
+            });
+        }
+        final List<int[]> intervals = mergeSlices(slicePairs);
+
+        // Refinement
+        final List<List<CloseApproach>> found = new ArrayList<>(intervals.size());
+        for (int i = 0; i < intervals.size(); i++) {
+            found.add(null);
+        }
+        this.run(intervals.size(), (startInterval, endInterval) -> {
+            final List<PVCoordinatesProvider> providers = workspace.acquire();
+            try {
+                for (int i = startInterval; i < endInterval; i++) {
+                    found.set(i, this.refine(providers, intervals.get(i), dates));
+                }
+            } finally {
+                workspace.release(providers);
+            }
+        });
+
+        final List<CloseApproach> result = new ArrayList<>();
+        for (final List<CloseApproach> approaches : found) {
+            result.addAll(approaches);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Sample all objects on the dates of a window of the dates grid.
+     *
+     * @param workspace
+     *        providers workspace
+     * @param n
+     *        number of objects
+     * @param dates
+     *        dates grid
+     * @param firstSlice
+     *        index of the first slice of the window
+     * @param nbWindowSlices
+     *        number of slices of the window
+     * @return samples of the window (sample 0 is at the start of its first slice)
+     * @throws PatriusException
+     *         if positions cannot be computed
+     */
+    private Samples sample(final Workspace workspace, final int n, final AbsoluteDate[] dates, final int firstSlice,
+                           final int nbWindowSlices) throws PatriusException {
+        final Samples samples = new Samples(n);
+        this.run(n, (startObject, endObject) -> {
+            final List<PVCoordinatesProvider> providers = workspace.acquire();
+            try {
+                this.sample(providers, dates, firstSlice, nbWindowSlices, startObject, endObject, samples);
+            } finally {
+                workspace.release(providers);
+            }
+        });
+        return samples;
+    }
+
+    /**
+     * Sample a range of objects on the dates of a window of the dates grid.
+     *
+     * @param providers
+     *        objects providers
+     * @param dates
+     *        dates grid
+     * @param firstSlice
+     *        index of the first slice of the window
+     * @param nbWindowSlices
+     *        number of slices of the window
+     * @param startObject
+     *        first object (inclusive)
+     * @param endObject
+     *        last object (exclusive)
+     * @param samples
+     *        samples of the window, filled for the range of objects
+     * @throws PatriusException
+     *         if positions cannot be computed
+     */
+    private void sample(final List<PVCoordinatesProvider> providers, final AbsoluteDate[] dates,
+                        final int firstSlice, final int nbWindowSlices, final int startObject, final int endObject,
+                        final Samples samples) throws PatriusException {
+        for (int k = startObject; k < endObject; k++) {
+            final double[] positions = new double[DIM * (nbWindowSlices + 1)];
+            double maxSpeed = 0;
+            double rMin = Double.POSITIVE_INFINITY;
+            double rMax = 0;
+            for (int j = 0; j <= nbWindowSlices; j++) {
+                final PVCoordinates pv = providers.get(k).getPVCoordinates(dates[firstSlice + j], this.frame);
+                final Vector3D position = pv.getPosition();
+                positions[DIM * j] = position.getX();
+                positions[DIM * j + 1] = position.getY();
+                positions[DIM * j + 2] = position.getZ();
+                maxSpeed = MathLib.max(maxSpeed, pv.getVelocity().getNorm());
+                final double r = position.getNorm();
+                rMin = MathLib.min(rMin, r);
+                rMax = MathLib.max(rMax, r);
+            }
+            // Distance between the path and the closest sample is lower than half a step travel
+            final double margin = 0.5 * maxSpeed * this.samplingStep;
+            samples.positions[k] = positions;
+            samples.margins[k] = margin;
+            samples.rMin[k] = rMin - margin;
+            samples.rMax[k] = rMax + margin;
+        }
+    }
+
+    /**
+     * Apogee/perigee filter: discard the secondary objects whose radial extent is farther than the screening distance
+     * from the radial extent of all primary objects.
+     *
+     * @param samples
+     *        objects samples
+     * @param n
+     *        number of objects
+     * @param primaries
+     *        number of primary objects
+     * @return indices of the objects to screen
+     */
+    private int[] filterShells(final Samples samples, final int n, final int primaries) {
+
+        // Union of the primary shells, extended by the screening distance
+        final double[][] shells = new double[primaries][];
+        for (int k = 0; k < primaries; k++) {
+            shells[k] = new double[] { samples.rMin[k] - this.screeningDistance,
+                samples.rMax[k] + this.screeningDistance };
+        }
+        Arrays.sort(shells, (s1, s2) -> Double.compare(s1[0], s2[0]));
+        final List<double[]> union = new ArrayList<>();
+        for (final double[] shell : shells) {
+            final double[] last = union.isEmpty() ? null : union.get(union.size() - 1);
+            if (last != null && shell[0] <= last[1]) {
+                last[1] = MathLib.max(last[1], shell[1]);
+            } else {
+                union.add(shell.clone());
+            }
+        }
+        final double[] lower = new double[union.size()];
+        for (int i = 0; i < lower.length; i++) {
+            lower[i] = union.get(i)[0];
+        }
+
+        final int[] active = new int[n];
+        int nbActive = 0;
+        for (int k = 0; k < n; k++) {
+            boolean keep = k < primaries;
+            if (!keep) {
+                // Last union interval starting below the apogee of the object
+                int i = Arrays.binarySearch(lower, samples.rMax[k]);
+                i = i < 0 ? -i - 2 : i;
+                keep = i >= 0 && union.get(i)[1] >= samples.rMin[k];
+            }
+            if (keep) {
+                active[nbActive++] = k;
+            }
+        }
+        return Arrays.copyOf(active, nbActive);
+    }
+
+    /**
+     * Compute the candidate pairs of a time slice.
+     * <p>
+     * Path bounding boxes of primary objects are stored in a uniform spatial hash grid whose cell size is the median
+     * box extent, so that most boxes span at most two cells per axis. Each object box is then checked against the
+     * primary boxes sharing one of its cells. Oversize boxes, whose extent exceeds {@link #OVERSIZE_RATIO} cells,
+     * are kept out of the grid and checked against all the boxes of the other side, so that a few fast or
+     * poorly-sampled objects do not degrade the grid.
+     * </p>
+     *
+     * @param samples
+     *        objects samples
+     * @param active
+     *        indices of the objects to screen
+     * @param primaries
+     *        number of primary objects
+     * @param slice
+     *        slice index in the window of the samples
+     * @return sorted keys of the candidate pairs (primary index in high bits, secondary index in low bits)
+     */
+    private long[] candidatePairs(final Samples samples, final int[] active, final int primaries,
+                                  final int slice) {
+
+        // Path bounding boxes
+        final double[][] boxes = new double[active.length][];
+        final double[] extents = new double[active.length];
+        for (int i = 0; i < active.length; i++) {
+            final int k = active[i];
+            final double[] positions = samples.positions[k];
+            final double pad = samples.margins[k] + 0.5 * this.screeningDistance;
+            final double[] box = new double[2 * DIM];
+            for (int axis = 0; axis < DIM; axis++) {
+                final double p0 = positions[DIM * slice + axis];
+                final double p1 = positions[DIM * (slice + 1) + axis];
+                box[axis] = MathLib.min(p0, p1) - pad;
+                box[DIM + axis] = MathLib.max(p0, p1) + pad;
+                extents[i] = MathLib.max(extents[i], box[DIM + axis] - box[axis]);
+            }
+            boxes[i] = box;
+        }
+
+        // Cell size: median extent
+        final double[] sortedExtents = extents.clone();
+        Arrays.sort(sortedExtents);
+        double cellSize = sortedExtents.length == 0 ? 0 : sortedExtents[sortedExtents.length / 2];
+        if (cellSize == 0) {
+            cellSize = 1;
+        }
+        final double maxExtent = OVERSIZE_RATIO * cellSize;
+
+        // Primary boxes in spatial hash grid, oversize ones apart
+        int nbPrimaryBoxes = 0;
+        while (nbPrimaryBoxes < active.length && active[nbPrimaryBoxes] < primaries) {
+            nbPrimaryBoxes++;
+        }
+        final CellIndex cells = new CellIndex(nbPrimaryBoxes);
+        final int[] oversize = new int[nbPrimaryBoxes];
+        int nbOversize = 0;
+        for (int i = 0; i < nbPrimaryBoxes; i++) {
+            if (extents[i] > maxExtent) {
+                oversize[nbOversize++] = i;
+            } else {
+                for (final long key : cellKeys(boxes[i], cellSize)) {
+                    cells.add(key, i);
+                }
+            }
+        }
+        cells.index();
+
+        // Boxes overlap check
+        final PairList pairs = new PairList();
+        for (int i = 0; i < active.length; i++) {
+            if (extents[i] > maxExtent) {
+                // Oversize box: checked against all the grid boxes
+                for (int other = 0; other < nbPrimaryBoxes; other++) {
+                    if (extents[other] <= maxExtent) {
+                        this.checkPair(samples, active, boxes, other, i, pairs);
+                    }
+                }
+            } else {
+                for (final long key : cellKeys(boxes[i], cellSize)) {
+                    for (int entry = cells.first(key); entry >= 0; entry = cells.next(entry)) {
+                        this.checkPair(samples, active, boxes, cells.box(entry), i, pairs);
+                    }
+                }
+            }
+            for (int j = 0; j < nbOversize; j++) {
+                this.checkPair(samples, active, boxes, oversize[j], i, pairs);
+            }
+        }
+
+        return pairs.toSortedArray();
+    }
+
+    /**
+     * Add a pair to the candidates if the path bounding boxes of its objects overlap and if their radial extents are
+     * close enough.
+     *
+     * @param samples
+     *        objects samples
+     * @param active
+     *        indices of the objects to screen
+     * @param boxes
+     *        path bounding boxes of the active objects
+     * @param primary
+     *        index of the primary object box
+     * @param other
+     *        index of the other object box
+     * @param pairs
+     *        candidate pairs
+     */
+    private void checkPair(final Samples samples, final int[] active, final double[][] boxes, final int primary,
+                           final int other, final PairList pairs) {
+        final int p = active[primary];
+        final int k = active[other];
+        if (p < k && overlap(boxes[primary], boxes[other])
+                && samples.rMin[k] - samples.rMax[p] <= this.screeningDistance
+                && samples.rMin[p] - samples.rMax[k] <= this.screeningDistance) {
+            pairs.add(((long) p << Integer.SIZE) | k);
+        }
+    }
+
+    /**
+     * Merge consecutive candidate slices of each pair into candidate intervals.
+     *
+     * @param slicePairs
+     *        sorted candidate pair keys of each slice
+     * @return candidate intervals (primary index, secondary index, first slice, last slice)
+     */
+    private static List<int[]> mergeSlices(final long[][] slicePairs) {
+        final List<int[]> intervals = new ArrayList<>();
+        final Map<Long, int[]> open = new HashMap<>();
+        for (int j = 0; j < slicePairs.length; j++) {
+            for (final long pair : slicePairs[j]) {
+                final int[] interval = open.get(pair);
+                if (interval != null && interval[3] == j - 1) {
+                    interval[3] = j;
+                } else {
+                    final int[] created = new int[] { (int) (pair >>> Integer.SIZE), (int) pair, j, j };
+                    intervals.add(created);
+                    open.put(pair, created);
+                }
+            }
+        }
+        return intervals;
+    }
+
+    /**
+     * Refine a candidate interval: find the minima of distance by root finding of the range-rate.
+     *
+     * @param providers
+     *        objects providers
+     * @param interval
+     *        candidate interval (primary index, secondary index, first slice, last slice)
+     * @param dates
+     *        dates grid
+     * @return close approaches found in the interval
+     * @throws PatriusException
+     *         if positions cannot be computed
+     */
+    private List<CloseApproach> refine(final List<PVCoordinatesProvider> providers, final int[] interval,
+                                       final AbsoluteDate[] dates) throws PatriusException {
+        final PVCoordinatesProvider primary = providers.get(interval[0]);
+        final PVCoordinatesProvider secondary = providers.get(interval[1]);
+        final AbsoluteDate t0 = dates[interval[2]];
+        final double length = dates[interval[3] + 1].durationFrom(t0);
+
+        // Range-rate: positive when objects are going farther
+        final UnivariateFunction rangeRate = dt -> {
+            try {
+                final PVCoordinates relative = this.relative(primary, secondary, t0.shiftedBy(dt));
+                return Vector3D.dotProduct(relative.getPosition(), relative.getVelocity());
+            } catch (final PatriusException e) {
+                throw new PatriusExceptionWrapper(e);
+            }
+        };
+
+        final List<CloseApproach> approaches = new ArrayList<>();
+        final BrentSolver solver = new BrentSolver(this.threshold);
+        final int nbSteps = (int) MathLib.ceil(length / this.maxCheck);
+        try {
+            double previousDt = 0;
+            double previous = rangeRate.value(previousDt);
+            for (int s = 1; s <= nbSteps; s++) {
+                final double dt = s == nbSteps ? length : s * this.maxCheck;
+                final double current = rangeRate.value(dt);
+                if (previous < 0 && current >= 0) {
+                    // Minimum of distance
+                    final double root = current == 0 ? dt : solver.solve(MAX_EVAL, rangeRate, previousDt, dt);
+                    final AbsoluteDate tca = t0.shiftedBy(root);
+                    final PVCoordinates relative = this.relative(primary, secondary, tca);
+                    final double missDistance = relative.getPosition().getNorm();
+                    if (missDistance <= this.screeningDistance) {
+                        approaches.add(new CloseApproach(interval[0], interval[1], tca, missDistance, relative
+                            .getVelocity().getNorm()));
+                    }
+                }
+                previousDt = dt;
+                previous = current;
+            }
+        } catch (final PatriusExceptionWrapper e) {
+            throw e.getException();
+        }
+        return approaches;
+    }
+
+    /**
+     * Compute the coordinates of the secondary object relative to the primary object.
+     *
+     * @param primary
+     *        primary object
+     * @param secondary
+     *        secondary object
+     * @param date
+     *        date
+     * @return relative coordinates
+     * @throws PatriusException
+     *         if positions cannot be computed
+     */
+    private PVCoordinates relative(final PVCoordinatesProvider primary, final PVCoordinatesProvider secondary,
+                                   final AbsoluteDate date) throws PatriusException {
+        final PVCoordinates pv1 = primary.getPVCoordinates(date, this.frame);
+        final PVCoordinates pv2 = secondary.getPVCoordinates(date, this.frame);
+        return new PVCoordinates(pv2.getPosition().subtract(pv1.getPosition()),
+            pv2.getVelocity().subtract(pv1.getVelocity()));
+    }
+
+    /**
+     * Check if two boxes overlap.
+     *
+     * @param box1
+     *        first box (lower corner, upper corner)
+     * @param box2
+     *        second box (lower corner, upper corner)
+     * @return true if boxes overlap
+     */
+    private static boolean overlap(final double[] box1, final double[] box2) {
+        for (int axis = 0; axis < DIM; axis++) {
+            if (box1[axis] > box2[DIM + axis] || box2[axis] > box1[DIM + axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compute the keys of the spatial hash grid cells spanned by a box.
+     *
+     * @param box
+     *        box (lower corner, upper corner)
+     * @param cellSize
+     *        cell size
+     * @return cells keys
+     */
+    private static long[] cellKeys(final double[] box, final double cellSize) {
+        final long[] min = new long[DIM];
+        final long[] max = new long[DIM];
+        int nbCells = 1;
+        for (int axis = 0; axis < DIM; axis++) {
+            min[axis] = (long) MathLib.floor(box[axis] / cellSize);
+            max[axis] = (long) MathLib.floor(box[DIM + axis] / cellSize);
+            nbCells *= (int) (max[axis] - min[axis] + 1);
+        }
+        final long[] keys = new long[nbCells];
+        int index = 0;
+        for (long x = min[0]; x <= max[0]; x++) {
+            for (long y = min[1]; y <= max[1]; y++) {
+                for (long z = min[2]; z <= max[2]; z++) {
+                    // Cells far away may share a key: this only adds candidates
+                    keys[index++] = ((x & CELL_MASK) << (2 * CELL_BITS)) | ((y & CELL_MASK) << CELL_BITS)
+                            | (z & CELL_MASK);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Run a task on contiguous ranges of indices, concurrently if more than one thread is allowed.
+     *
+     * @param n
+     *        number of indices
+     * @param task
+     *        task to run
+     * @throws PatriusException
+     *         if the task fails or if it is interrupted
+     */
+    private void run(final int n, final RangeTask task) throws PatriusException {
+        ParallelUtils.run(n, 1, this.parallelism, task, PatriusMessages.CONJUNCTION_SCREENING_INTERRUPTED);
+    }
+
+    /**
+     * Builder of the screened objects.
+     * <p>
+     * The builder is called whenever a concurrent task needs objects and none of the lists already built is available.
+     * It must return a new list of providers at each call, always in the same order, so that providers are never
+     * shared between concurrent tasks.
+     * </p>
+     */
+    @FunctionalInterface
+    public interface ProvidersBuilder {
+
+        /**
+         * Build the screened objects.
+         *
+         * @return the screened objects
+         * @throws PatriusException
+         *         if objects cannot be built
+         */
+        List<PVCoordinatesProvider> build() throws PatriusException;
+    }
+
+    /** Objects samples on the dates of a window. */
+    private static final class Samples {
+
+        /** Sampled positions of each object (x, y, z for each date of the window). */
+        private final double[][] positions;
+
+        /** Maximal distance between the path of each object and its closest sample (m). */
+        private final double[] margins;
+
+        /** Minimal radius of each object over the window, including margin (m). */
+        private final double[] rMin;
+
+        /** Maximal radius of each object over the window, including margin (m). */
+        private final double[] rMax;
+
+        /**
+         * Constructor.
+         *
+         * @param n
+         *        number of objects
+         */
+        private Samples(final int n) {
+            this.positions = new double[n][];
+            this.margins = new double[n];
+            this.rMin = new double[n];
+            this.rMax = new double[n];
+        }
+    }
+
+    /**
+     * Spatial hash grid of boxes, indexing the boxes of each cell without boxing.
+     * <p>
+     * The (cell key, box) entries are first {@link #add(long, int) added}, then {@link #index() indexed} in an open
+     * addressing table which links the entries of each cell.
+     * </p>
+     */
+    private static final class CellIndex {
+
+        /** Cell key of each entry. */
+        private long[] entryKeys;
+
+        /** Box of each entry. */
+        private int[] entryBoxes;
+
+        /** Next entry of the same cell (-1 for the last one). */
+        private int[] entryNext;
+
+        /** Number of entries. */
+        private int size;
+
+        /** Cell keys of the table slots. */
+        private long[] slotKeys;
+
+        /** First entry of the cell of each table slot (-1 for free slots). */
+        private int[] slotFirst;
+
+        /** Shift of the hash. */
+        private int shift;
+
+        /**
+         * Constructor.
+         *
+         * @param nbBoxes
+         *        expected number of boxes
+         */
+        private CellIndex(final int nbBoxes) {
+            // Most boxes span 8 cells at most
+            final int capacity = MathLib.max(1, 8 * nbBoxes);
+            this.entryKeys = new long[capacity];
+            this.entryBoxes = new int[capacity];
+        }
+
+        /**
+         * Add a box in a cell.
+         *
+         * @param key
+         *        cell key
+         * @param box
+         *        box index
+         */
+        private void add(final long key, final int box) {
+            if (this.size == this.entryKeys.length) {
+                this.entryKeys = Arrays.copyOf(this.entryKeys, 2 * this.size);
+                this.entryBoxes = Arrays.copyOf(this.entryBoxes, 2 * this.size);
+            }
+            this.entryKeys[this.size] = key;
+            this.entryBoxes[this.size] = box;
+            this.size++;
+        }
+
+        /**
+         * Index the added entries by cell.
+         */
+        private void index() {
+            // Table at most half full
+            final int bits = MathLib.max(1, Integer.SIZE
+                - Integer.numberOfLeadingZeros(MathLib.max(1, 2 * this.size - 1)));
+            this.shift = Long.SIZE - bits;
+            this.slotKeys = new long[1 << bits];
+            this.slotFirst = new int[1 << bits];
+            Arrays.fill(this.slotFirst, -1);
+            this.entryNext = new int[this.size];
+            for (int entry = 0; entry < this.size; entry++) {
+                final int slot = this.slot(this.entryKeys[entry]);
+                this.slotKeys[slot] = this.entryKeys[entry];
+                this.entryNext[entry] = this.slotFirst[slot];
+                this.slotFirst[slot] = entry;
+            }
+        }
+
+        /**
+         * Get the first entry of a cell.
+         *
+         * @param key
+         *        cell key
+         * @return first entry of the cell, -1 if the cell is empty
+         */
+        private int first(final long key) {
+            return this.slotFirst[this.slot(key)];
+        }
+
+        /**
+         * Get the next entry of the same cell.
+         *
+         * @param entry
+         *        entry
+         * @return next entry of the same cell, -1 if there are no more entries
+         */
+        private int next(final int entry) {
+            return this.entryNext[entry];
+        }
+
+        /**
+         * Get the box of an entry.
+         *
+         * @param entry
+         *        entry
+         * @return box index
+         */
+        private int box(final int entry) {
+            return this.entryBoxes[entry];
+        }
+
+        /**
+         * Find the table slot of a cell: the slot holding its key, or the free slot where it would be inserted.
+         *
+         * @param key
+         *        cell key
+         * @return table slot
+         */
+        private int slot(final long key) {
+            final int mask = this.slotFirst.length - 1;
+            int slot = (int) ((key * HASH_MULTIPLIER) >>> this.shift);
+            while (this.slotFirst[slot] >= 0 && this.slotKeys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    /** Growable list of candidate pair keys. */
+    private static final class PairList {
+
+        /** Pair keys. */
+        private long[] keys = new long[16];
+
+        /** Number of pair keys. */
+        private int size;
+
+        /**
+         * Add a pair key.
+         *
+         * @param key
+         *        pair key
+         */
+        private void add(final long key) {
+            if (this.size == this.keys.length) {
+                this.keys = Arrays.copyOf(this.keys, 2 * this.size);
+            }
+            this.keys[this.size++] = key;
+        }
+
+        /**
+         * Get the sorted pair keys, without duplicates (boxes sharing several cells are found several times).
+         *
+         * @return sorted pair keys
+         */
+        private long[] toSortedArray() {
+            Arrays.sort(this.keys, 0, this.size);
+            int nbUnique = 0;
+            for (int i = 0; i < this.size; i++) {
+                if (nbUnique == 0 || this.keys[i] != this.keys[nbUnique - 1]) {
+                    this.keys[nbUnique++] = this.keys[i];
+                }
+            }
+            return Arrays.copyOf(this.keys, nbUnique);
+        }
+    }
+
+    /**
+     * Providers of the tasks.
+     * <p>
+     * The lists of providers are handed explicitly to the tasks, which give them back when they are over: the lists
+     * are only referenced by the workspace, hence they are released with it, whatever the threads running the tasks.
+     * </p>
+     */
+    private static final class Workspace {
+
+        /** Providers builder. */
+        private final ProvidersBuilder builder;
+
+        /** Number of objects. */
+        private final int n;
+
+        /** Providers not used by any task. */
+        private final Queue<List<PVCoordinatesProvider>> idle = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Constructor.
+         *
+         * @param builder
+         *        providers builder
+         * @param first
+         *        providers already built
+         */
+        private Workspace(final ProvidersBuilder builder, final List<PVCoordinatesProvider> first) {
+            this.builder = builder;
+            this.n = first.size();
+            this.idle.add(first);
+        }
+
+        /**
+         * Get providers not used by any other task, building them if needed.
+         *
+         * @return providers, to be {@link #release(List) released} by the task
+         * @throws PatriusException
+         *         if providers cannot be built
+         */
+        private List<PVCoordinatesProvider> acquire() throws PatriusException {
+            List<PVCoordinatesProvider> providers = this.idle.poll();
+            if (providers == null) {
+                providers = this.builder.build();
+                if (providers.size() != this.n) {
+                    throw new PatriusException(PatriusMessages.DIMENSIONS_MISMATCH_SIMPLE, providers.size(), this.n);
+                }
+            }
+            return providers;
+        }
+
+        /**
+         * Give back providers which are not used by a task anymore.
+         *
+         * @param providers
+         *        providers
+         */
+        private void release(final List<PVCoordinatesProvider> providers) {
+            this.idle.add(providers);
+        }
+    }
+}
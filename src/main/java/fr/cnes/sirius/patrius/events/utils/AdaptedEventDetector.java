@@ -46,9 +46,11 @@ import fr.cnes.sirius.patrius.attitudes.AttitudeProvider;
 import fr.cnes.sirius.patrius.events.EventDetector;
 import fr.cnes.sirius.patrius.frames.Frame;
 import fr.cnes.sirius.patrius.math.ode.events.EventHandler;
+import fr.cnes.sirius.patrius.math.ode.sampling.StepInterpolator;
 import fr.cnes.sirius.patrius.orbits.OrbitType;
 import fr.cnes.sirius.patrius.orbits.PositionAngle;
 import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.propagation.SpacecraftStateProvider;
 import fr.cnes.sirius.patrius.propagation.numerical.AdditionalStateInfo;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
@@ -281,4 +283,56 @@ public class AdaptedEventDetector implements EventHandler, Serializable {
             throw new PatriusExceptionWrapper(oe);
         }
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isSignChangePossible(final double t0, final StepInterpolator interpolator) {
+        try {
+            return this.detector.isSignChangePossible(this.referenceDate.shiftedBy(t0),
+                this.referenceDate.shiftedBy(interpolator.getCurrentTime()), new InterpolatedStates(interpolator));
+        } catch (final PatriusException oe) {
+            // Exception
+            throw new PatriusExceptionWrapper(oe);
+        }
+    }
+
+    /**
+     * Spacecraft states over the current step, provided by the integrator step interpolator.
+     * 
+     * @since 4.14
+     */
+    private final class InterpolatedStates implements SpacecraftStateProvider {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 5287345160937581367L;
+
+        /** Step interpolator. */
+        private final StepInterpolator interpolator;
+
+        /**
+         * Constructor.
+         * 
+         * @param interpolator
+         *        step interpolator
+         */
+        public InterpolatedStates(final StepInterpolator interpolator) {
+            this.interpolator = interpolator;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public SpacecraftState getSpacecraftState(final AbsoluteDate date) {
+            final AdaptedEventDetector adapter = AdaptedEventDetector.this;
+            this.interpolator.setInterpolatedTime(date.durationFrom(adapter.referenceDate));
+            return new SpacecraftState(this.interpolator.getInterpolatedState(), adapter.orbitType,
+                adapter.angleType, date, adapter.mu, adapter.integrationFrame, adapter.asinfos,
+                adapter.attitudeProviderForces, adapter.attitudeProviderEvents);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Frame getNativeFrame(final AbsoluteDate date) {
+            return AdaptedEventDetector.this.integrationFrame;
+        }
+    }
 }
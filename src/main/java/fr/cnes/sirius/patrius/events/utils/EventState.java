@@ -42,6 +42,7 @@ package fr.cnes.sirius.patrius.events.utils;
 import java.io.Serializable;
 
 import fr.cnes.sirius.patrius.events.EventDetector;
+import fr.cnes.sirius.patrius.frames.Frame;
 import fr.cnes.sirius.patrius.math.analysis.UnivariateFunction;
 import fr.cnes.sirius.patrius.math.analysis.solver.AllowedSolution;
 import fr.cnes.sirius.patrius.math.analysis.solver.BracketedUnivariateSolver;
@@ -54,9 +55,11 @@ import fr.cnes.sirius.patrius.math.exception.NoBracketingException;
 import fr.cnes.sirius.patrius.math.exception.TooManyEvaluationsException;
 import fr.cnes.sirius.patrius.math.util.MathLib;
 import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.propagation.SpacecraftStateProvider;
 import fr.cnes.sirius.patrius.propagation.sampling.PatriusStepInterpolator;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PropagationException;
 
 /**
  * This class handles the state for one {@link EventDetector event detector} during integration
@@ -357,6 +360,13 @@ public class EventState implements Serializable {
                     return false;
                 }
             }
+            if (this.g0 != 0 && !this.detector.isSignChangePossible(this.t0, t1, new InterpolatedStates(interpolator))) {
+                // The detector guarantees there is no sign change during the whole step
+                this.pendingEvent = false;
+                this.pendingEventTime = null;
+                return false;
+            }
+
             final int n = MathLib.max(1,
                 (int) MathLib.ceil(MathLib.abs(dt) / this.detector.getMaxCheckInterval()));
             final double h = dt / n;
@@ -630,6 +640,49 @@ public class EventState implements Serializable {
 
     }
 
+    /**
+     * Spacecraft states over the current step, provided by the step interpolator.
+     * 
+     * @since 4.14
+     */
+    private static final class InterpolatedStates implements SpacecraftStateProvider {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = -1725404325916532046L;
+
+        /** Step interpolator. */
+        private final PatriusStepInterpolator interpolator;
+
+        /**
+         * Constructor.
+         * 
+         * @param interpolator
+         *        step interpolator
+         */
+        public InterpolatedStates(final PatriusStepInterpolator interpolator) {
+            this.interpolator = interpolator;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public SpacecraftState getSpacecraftState(final AbsoluteDate date) throws PropagationException {
+            try {
+                this.interpolator.setInterpolatedDate(date);
+                return this.interpolator.getInterpolatedState();
+            } catch (final PropagationException e) {
+                throw e;
+            } catch (final PatriusException e) {
+                throw new PropagationException(e);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Frame getNativeFrame(final AbsoluteDate date) throws PatriusException {
+            return this.getSpacecraftState(date).getFrame();
+        }
+    }
+
     /** Local runtime exception wrapping OrekitException. */
     private static class LocalWrapperException extends RuntimeException {
 
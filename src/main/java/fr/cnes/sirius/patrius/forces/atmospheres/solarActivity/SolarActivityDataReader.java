@@ -40,17 +40,24 @@
  */
 package fr.cnes.sirius.patrius.forces.atmospheres.solarActivity;
 
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
 import java.util.Map.Entry;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
-import fr.cnes.sirius.patrius.data.DataLoader;
+import fr.cnes.sirius.patrius.data.BinaryCacheableDataLoader;
 import fr.cnes.sirius.patrius.math.util.MathLib;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.DateComponents;
+import fr.cnes.sirius.patrius.time.DateTimeComponents;
+import fr.cnes.sirius.patrius.time.TimeComponents;
 import fr.cnes.sirius.patrius.time.TimeScalesFactory;
+import fr.cnes.sirius.patrius.time.UTCScale;
+import fr.cnes.sirius.patrius.utils.Constants;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusExceptionWrapper;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
@@ -68,12 +75,18 @@ import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
  */
 //CHECKSTYLE: stop AbstractClassName check
 @SuppressWarnings("PMD.AbstractNaming")
-public abstract class SolarActivityDataReader implements DataLoader, SolarActivityDataProvider {
+public abstract class SolarActivityDataReader implements BinaryCacheableDataLoader, SolarActivityDataProvider {
     // CHECKSTYLE: resume AbstractClassName check
 
      /** Serializable UID. */
     private static final long serialVersionUID = 3995601801902272896L;
 
+    /** Binary representation version. */
+    private static final String BINARY_VERSION = "-2";
+
+    /** Number of steps per second of the dates resolution of the binary representation (microsecond). */
+    private static final double BINARY_DATE_STEPS = 1e6;
+
     /** Number of AP values */
     private static final int AP_VALUES_NB = 8;
     
@@ -367,6 +380,122 @@ public abstract class SolarActivityDataReader implements DataLoader, SolarActivi
     public abstract void loadData(InputStream input, String name) throws IOException,
                                                                  ParseException, PatriusException;
 
+    /** {@inheritDoc} */
+    @Override
+    public String getBinaryFormat() {
+        return this.getClass().getName() + BINARY_VERSION;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All the data of the reader are written: this is consistent with readers completing their read after one file.
+     * Dates are written as UTC calendar components, as in the data files, so that the binary representation does not
+     * depend on the UTC-TAI history.
+     * </p>
+     */
+    @Override
+    public void convertData(final InputStream input, final String name,
+                            final DataOutput output) throws IOException, ParseException, PatriusException {
+        this.loadData(input, name);
+        final UTCScale utc = TimeScalesFactory.getUTC();
+        synchronized (this.f107s) {
+            output.writeInt(this.f107s.size());
+            for (final Entry<AbsoluteDate, Double> entry : this.f107s.entrySet()) {
+                writeDate(output, entry.getKey(), utc);
+                output.writeDouble(entry.getValue());
+            }
+        }
+        synchronized (this.aps) {
+            output.writeInt(this.aps.size());
+            for (final Entry<AbsoluteDate, Double[][]> entry : this.aps.entrySet()) {
+                writeDate(output, entry.getKey(), utc);
+                final Double[][] apkp = entry.getValue();
+                output.writeInt(apkp.length);
+                for (final Double[] row : apkp) {
+                    output.writeInt(row.length);
+                    for (final Double value : row) {
+                        // null values are written as a false flag
+                        output.writeBoolean(value != null);
+                        output.writeDouble(value == null ? Double.NaN : value);
+                    }
+                }
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void loadBinaryData(final ByteBuffer buffer, final String name) throws PatriusException {
+        final UTCScale utc = TimeScalesFactory.getUTC();
+        final int nbFluxes = buffer.getInt();
+        for (int i = 0; i < nbFluxes; i++) {
+            final AbsoluteDate date = readDate(buffer, utc);
+            this.addF107(date, buffer.getDouble());
+        }
+        final int nbApKp = buffer.getInt();
+        for (int i = 0; i < nbApKp; i++) {
+            final AbsoluteDate date = readDate(buffer, utc);
+            final Double[][] apkp = new Double[buffer.getInt()][];
+            for (int j = 0; j < apkp.length; j++) {
+                apkp[j] = new Double[buffer.getInt()];
+                for (int k = 0; k < apkp[j].length; k++) {
+                    final boolean defined = buffer.get() != 0;
+                    final double value = buffer.getDouble();
+                    apkp[j][k] = defined ? value : null;
+                }
+            }
+            this.addApKp(date, apkp);
+        }
+        this.readCompleted = true;
+    }
+
+    /**
+     * Write a date as UTC calendar components (modified julian day and seconds in day).
+     * <p>
+     * Seconds in day are rounded to the microsecond: the dates of the data files being given at most to this
+     * resolution, the calendar components are exactly the ones of the data files, whatever the rounding errors
+     * of the UTC conversion (UTC-TAI linear models before 1972).
+     * </p>
+     * 
+     * @param output
+     *        binary output
+     * @param date
+     *        date to write
+     * @param utc
+     *        UTC time scale
+     * @exception IOException
+     *            if data can't be written
+     */
+    private static void writeDate(final DataOutput output, final AbsoluteDate date,
+                                  final UTCScale utc) throws IOException {
+        final DateTimeComponents components = date.getComponents(utc);
+        int mjd = components.getDate().getMJD();
+        double seconds = MathLib.rint(components.getTime().getSecondsInDay() * BINARY_DATE_STEPS)
+                / BINARY_DATE_STEPS;
+        if (seconds >= Constants.JULIAN_DAY && !utc.insideLeap(date)) {
+            // rounded up to the next day
+            mjd++;
+            seconds -= Constants.JULIAN_DAY;
+        }
+        output.writeInt(mjd);
+        output.writeDouble(seconds);
+    }
+
+    /**
+     * Read a date written by {@link #writeDate(DataOutput, AbsoluteDate, UTCScale)}.
+     * 
+     * @param buffer
+     *        binary input
+     * @param utc
+     *        UTC time scale
+     * @return the date
+     */
+    private static AbsoluteDate readDate(final ByteBuffer buffer, final UTCScale utc) {
+        final DateComponents day = new DateComponents(DateComponents.MODIFIED_JULIAN_EPOCH, buffer.getInt());
+        return new AbsoluteDate(day, new TimeComponents(buffer.getDouble()), utc);
+    }
+
     /**
      * Get the regular expression for supported files names.
      * 
@@ -28,11 +28,13 @@
  */
 package fr.cnes.sirius.patrius.forces.gravity.potential;
 
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
 
-import fr.cnes.sirius.patrius.data.DataLoader;
+import fr.cnes.sirius.patrius.data.BinaryCacheableDataLoader;
 import fr.cnes.sirius.patrius.math.util.MathLib;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
@@ -52,12 +54,15 @@ import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
 // CHECKSTYLE: stop AbstractClassName check
 @SuppressWarnings({"PMD.AbstractNaming", "PMD.NullAssignment"})
 public abstract class PotentialCoefficientsReader
-    implements DataLoader, PotentialCoefficientsProvider {
+    implements BinaryCacheableDataLoader, PotentialCoefficientsProvider {
     // CHECKSTYLE: resume AbstractClassName check
 
     /** Serializable UID. */
     private static final long serialVersionUID = -4966936658950728369L;
 
+    /** Binary representation version. */
+    private static final String BINARY_VERSION = "-1";
+
     /** Indicator for completed read. */
     protected boolean readCompleted;
 
@@ -179,6 +184,102 @@ public abstract class PotentialCoefficientsReader
     @Override
     public abstract void loadData(InputStream input, String name) throws IOException, ParseException, PatriusException;
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The identifier depends on the reader class and on the sigmas reading and missing coefficients settings.
+     * </p>
+     */
+    @Override
+    public String getBinaryFormat() {
+        return this.getClass().getName() + BINARY_VERSION + (this.readSigmas ? "-sigmas" : "")
+                + (this.missingCoefficientsAllowedFlag ? "-missing" : "");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void convertData(final InputStream input, final String name,
+                            final DataOutput output) throws IOException, ParseException, PatriusException {
+        this.loadData(input, name);
+        output.writeDouble(this.ae);
+        output.writeDouble(this.mu);
+        writeArray(output, this.normalizedC);
+        writeArray(output, this.normalizedS);
+        writeArray(output, this.normalizedSigmasC);
+        writeArray(output, this.normalizedSigmasS);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void loadBinaryData(final ByteBuffer buffer, final String name) {
+        this.ae = buffer.getDouble();
+        this.mu = buffer.getDouble();
+        this.normalizedC = readArray(buffer);
+        this.normalizedS = readArray(buffer);
+        this.normalizedSigmasC = readArray(buffer);
+        this.normalizedSigmasS = readArray(buffer);
+        // Derived coefficients are lazily recomputed
+        this.normalizedJ = null;
+        this.unNormalizedJ = null;
+        this.unNormalizedC = null;
+        this.unNormalizedS = null;
+        this.unNormalizedSigmasC = null;
+        this.unNormalizedSigmasS = null;
+        this.readCompleted = true;
+    }
+
+    /**
+     * Write a triangular array (a null array or row being written as a -1 length).
+     * 
+     * @param output
+     *        binary output
+     * @param array
+     *        array to write, may be null
+     * @throws IOException
+     *         if array cannot be written
+     */
+    private static void writeArray(final DataOutput output, final double[][] array) throws IOException {
+        if (array == null) {
+            output.writeInt(-1);
+            return;
+        }
+        output.writeInt(array.length);
+        for (final double[] row : array) {
+            if (row == null) {
+                output.writeInt(-1);
+            } else {
+                output.writeInt(row.length);
+                for (final double value : row) {
+                    output.writeDouble(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read a triangular array written by {@link #writeArray(DataOutput, double[][])}.
+     * 
+     * @param buffer
+     *        binary input
+     * @return read array, may be null
+     */
+    private static double[][] readArray(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final double[][] array = new double[length][];
+        for (int i = 0; i < length; i++) {
+            final int rowLength = buffer.getInt();
+            if (rowLength >= 0) {
+                array[i] = new double[rowLength];
+                buffer.asDoubleBuffer().get(array[i]);
+                buffer.position(buffer.position() + rowLength * Double.BYTES);
+            }
+        }
+        return array;
+    }
+
     /** {@inheritDoc} */
     @Override
     public double[] getJ(final boolean normalized, final int n) throws PatriusException {
@@ -36,6 +36,10 @@
  */
 package fr.cnes.sirius.patrius.frames;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import fr.cnes.sirius.patrius.bodies.CelestialBodyFactory;
 import fr.cnes.sirius.patrius.bodies.CelestialPoint;
 import fr.cnes.sirius.patrius.frames.configuration.FramesConfiguration;
@@ -44,9 +48,11 @@ import fr.cnes.sirius.patrius.frames.transformations.Transform;
 import fr.cnes.sirius.patrius.frames.transformations.TransformProvider;
 import fr.cnes.sirius.patrius.math.linear.Array2DRowRealMatrix;
 import fr.cnes.sirius.patrius.math.linear.RealMatrix;
+import fr.cnes.sirius.patrius.math.util.MathLib;
 import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
 import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinatesProvider;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelUtils;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
 
@@ -83,6 +89,18 @@ public class Frame implements PVCoordinatesProvider {
 
     /** Serializable UID. */
     private static final long serialVersionUID = -6981146543760234087L;
+
+    /** Minimum number of dates per chunk in batch transformations. */
+    private static final int BATCH_MIN_CHUNK_SIZE = 256;
+
+    /** Per-thread memo of recently composed transforms. */
+    private static final ThreadLocal<TransformMemo> MEMO = new ThreadLocal<>();
+
+    /** Generation of the per-thread memos, incremented to clear the memos of all threads. */
+    private static final AtomicInteger MEMO_GENERATION = new AtomicInteger();
+
+    /** Size of the per-thread memo of composed transforms (0 if disabled). */
+    private static volatile int memoSize;
     
     /** Parent frame (only the root frame doesn't have a parent). */
     private final Frame parent;
@@ -102,6 +120,9 @@ public class Frame implements PVCoordinatesProvider {
     /** Referential of the frame. */
     private Frame referential = this;
 
+    /** Ancestors of the frame, indexed by depth (from tree root to instance), lazily built. */
+    private transient volatile Frame[] ancestors;
+
     /**
      * Private constructor used only for the root frame.
      * 
@@ -395,6 +416,44 @@ public class Frame implements PVCoordinatesProvider {
             return instanceToDestination;
         }
 
+        final int size = memoSize;
+        final int generation = MEMO_GENERATION.get();
+        if (size == 0 || date == null) {
+            return this.composeTransformTo(destination, date, config, computeSpinDerivatives);
+        }
+
+        // look for a recently composed transform in the memo of the current thread
+        TransformMemo memo = MEMO.get();
+        if (memo == null || memo.generation != generation || memo.size() != size) {
+            memo = new TransformMemo(size, generation);
+            MEMO.set(memo);
+        }
+        Transform transform = memo.get(this, destination, date, config, computeSpinDerivatives);
+        if (transform == null) {
+            transform = this.composeTransformTo(destination, date, config, computeSpinDerivatives);
+            memo.put(this, destination, date, config, computeSpinDerivatives, transform);
+        }
+        return transform;
+    }
+
+    /**
+     * Compose the transform from the instance to another frame.
+     * 
+     * @param destination
+     *        destination frame to which we want to transform vectors (different from the instance)
+     * @param date
+     *        the date (can be null if it is sure than no date dependent frame is used)
+     * @param config
+     *        frames configuration to use
+     * @param computeSpinDerivatives
+     *        spin derivatives are computed : true, or not : false
+     * @return transform from the instance to the destination frame
+     * @exception PatriusException
+     *            if some frame specific error occurs
+     */
+    private Transform composeTransformTo(final Frame destination, final AbsoluteDate date,
+            final FramesConfiguration config, final boolean computeSpinDerivatives) throws PatriusException {
+
         if (this == this.referential && destination == destination.referential) {
             // Standard case (referential == frame)
             return getTransformTo(destination, date, config, computeSpinDerivatives, false);
@@ -423,6 +482,173 @@ public class Frame implements PVCoordinatesProvider {
             destinationReferentialToDestination, computeSpinDerivatives, true);
     }
 
+    /**
+     * Transform positions and velocities given at several dates from the instance to another frame, in place.
+     * <p>
+     * This is equivalent to transforming each (position, velocity) couple with the transform returned by
+     * {@link #getTransformTo(Frame, AbsoluteDate)} at the corresponding date, without building any intermediate
+     * position-velocity object. Dates are given as offsets with respect to a reference date and coordinates are
+     * stored as consecutive (x, y, z) triplets: the coordinates of point i are stored at indices 3i, 3i + 1 and
+     * 3i + 2.
+     * </p>
+     * <p>
+     * The transform, with all its date-dependent terms (Earth orientation parameters, precession-nutation, sidereal
+     * time...), is computed only once for consecutive points at the same date, and then applied to all of them. Dates
+     * are expected to be sorted (this is not mandatory): each date of the batch is then evaluated once, and each
+     * thread evaluates the frames transforms at increasing dates, which is what their caches are optimized for.
+     * </p>
+     * <p>
+     * The dates are split into contiguous chunks which are processed concurrently on the
+     * {@link ParallelUtils#getSharedPool(int) pool shared} by the loops using the same parallelism, if more than one
+     * thread is allowed.
+     * </p>
+     * 
+     * @param destination
+     *        destination frame
+     * @param reference
+     *        reference date
+     * @param dates
+     *        dates of the points, as offsets in seconds with respect to the reference date
+     * @param positions
+     *        positions to transform, replaced by the transformed positions (3 elements per date)
+     * @param velocities
+     *        velocities to transform, replaced by the transformed velocities (3 elements per date, may be null if
+     *        only positions are needed)
+     * @param parallelism
+     *        maximum number of threads used
+     * @exception PatriusException
+     *            if some frame specific error occurs or if the transformation is interrupted
+     * @exception IllegalArgumentException
+     *            if arrays dimensions are inconsistent or if parallelism is not strictly positive
+     * @since 4.14
+     */
+    public void transformPVCoordinates(final Frame destination, final AbsoluteDate reference, final double[] dates,
+                                       final double[] positions, final double[] velocities,
+                                       final int parallelism) throws PatriusException {
+
+        // safety checks
+        if (parallelism < 1) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.NUMBER_TOO_SMALL, parallelism, 1);
+        }
+        final int[] runs = this.checkBatch(dates, positions, velocities);
+
+        final FramesConfiguration config = FramesFactory.getConfiguration();
+        ParallelUtils.run(runs.length - 1, BATCH_MIN_CHUNK_SIZE, parallelism, (start, end) -> this
+            .transformPVCoordinates(destination, reference, dates, positions, velocities, config, runs, start, end),
+            PatriusMessages.FRAME_BATCH_TRANSFORM_INTERRUPTED);
+    }
+
+    /**
+     * Transform positions and velocities given at several dates from the instance to another frame, in place, using
+     * a pool supplied by the caller.
+     * <p>
+     * This method is identical to {@link #transformPVCoordinates(Frame, AbsoluteDate, double[], double[], double[],
+     * int)}, except that the chunks are processed on the given pool, with as many threads as its parallelism. The pool
+     * is not shut down.
+     * </p>
+     * 
+     * @param destination
+     *        destination frame
+     * @param reference
+     *        reference date
+     * @param dates
+     *        dates of the points, as offsets in seconds with respect to the reference date
+     * @param positions
+     *        positions to transform, replaced by the transformed positions (3 elements per date)
+     * @param velocities
+     *        velocities to transform, replaced by the transformed velocities (3 elements per date, may be null if
+     *        only positions are needed)
+     * @param pool
+     *        pool processing the chunks
+     * @exception PatriusException
+     *            if some frame specific error occurs or if the transformation is interrupted
+     * @exception IllegalArgumentException
+     *            if arrays dimensions are inconsistent
+     * @since 4.14
+     */
+    public void transformPVCoordinates(final Frame destination, final AbsoluteDate reference, final double[] dates,
+                                       final double[] positions, final double[] velocities,
+                                       final ForkJoinPool pool) throws PatriusException {
+        final int[] runs = this.checkBatch(dates, positions, velocities);
+
+        final FramesConfiguration config = FramesFactory.getConfiguration();
+        ParallelUtils.run(runs.length - 1, BATCH_MIN_CHUNK_SIZE, pool, (start, end) -> this.transformPVCoordinates(
+            destination, reference, dates, positions, velocities, config, runs, start, end),
+            PatriusMessages.FRAME_BATCH_TRANSFORM_INTERRUPTED);
+    }
+
+    /**
+     * Check the arrays of a batch transformation and find the runs of consecutive points at the same date.
+     * 
+     * @param dates
+     *        dates of the points
+     * @param positions
+     *        positions to transform
+     * @param velocities
+     *        velocities to transform (may be null)
+     * @return index of the first point of each run, followed by the number of points
+     * @exception IllegalArgumentException
+     *            if arrays dimensions are inconsistent
+     */
+    private int[] checkBatch(final double[] dates, final double[] positions, final double[] velocities) {
+        final int n = dates.length;
+        if (positions.length != 3 * n) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.DIMENSIONS_MISMATCH_SIMPLE,
+                positions.length, 3 * n);
+        }
+        if (velocities != null && velocities.length != 3 * n) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.DIMENSIONS_MISMATCH_SIMPLE,
+                velocities.length, 3 * n);
+        }
+
+        // the runs are never split across chunks, so that each date is evaluated once
+        final int[] starts = new int[n + 1];
+        int nbRuns = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || dates[i] != dates[i - 1]) {
+                starts[nbRuns++] = i;
+            }
+        }
+        starts[nbRuns] = n;
+        return Arrays.copyOf(starts, nbRuns + 1);
+    }
+
+    /**
+     * Transform the points of a contiguous chunk of runs from the instance to another frame, in place.
+     * 
+     * @param destination
+     *        destination frame
+     * @param reference
+     *        reference date
+     * @param dates
+     *        dates of the points, as offsets in seconds with respect to the reference date
+     * @param positions
+     *        positions to transform
+     * @param velocities
+     *        velocities to transform (may be null)
+     * @param config
+     *        frames configuration to use
+     * @param runs
+     *        index of the first point of each run of points at the same date, followed by the number of points
+     * @param start
+     *        index of the first run of the chunk (inclusive)
+     * @param end
+     *        index of the last run of the chunk (exclusive)
+     * @exception PatriusException
+     *            if some frame specific error occurs
+     */
+    private void transformPVCoordinates(final Frame destination, final AbsoluteDate reference, final double[] dates,
+                                        final double[] positions, final double[] velocities,
+                                        final FramesConfiguration config, final int[] runs, final int start,
+                                        final int end) throws PatriusException {
+        for (int k = start; k < end; k++) {
+            // points sharing the same date share the same transform
+            final int i = runs[k];
+            this.getTransformTo(destination, reference.shiftedBy(dates[i]), config)
+                .transformPVCoordinates(positions, velocities, i, runs[k + 1]);
+        }
+    }
+
     /**
      * Get the transform from the instance to another frame.
      * 
@@ -451,15 +677,17 @@ public class Frame implements PVCoordinatesProvider {
 
         // transform from common to instance
         Transform commonToInstance = Transform.IDENTITY;
-        for (Frame frame = this; !frame.equals(common); frame = frame.parent) {
-            commonToInstance = new Transform(date, frame.transformProvider.getTransform(date, config,
+        final Frame[] instancePath = this.getAncestors();
+        for (int i = this.depth; i > common.depth; i--) {
+            commonToInstance = new Transform(date, instancePath[i].transformProvider.getTransform(date, config,
                     computeSpinDerivatives), commonToInstance, computeSpinDerivatives, projectVelocityAcceleration);
         }
 
         // transform from destination up to common
         Transform commonToDestination = Transform.IDENTITY;
-        for (Frame frame = destination; !frame.equals(common); frame = frame.parent) {
-            commonToDestination = new Transform(date, frame.transformProvider.getTransform(date, config,
+        final Frame[] destinationPath = destination.getAncestors();
+        for (int i = destination.depth; i > common.depth; i--) {
+            commonToDestination = new Transform(date, destinationPath[i].transformProvider.getTransform(date, config,
                     computeSpinDerivatives), commonToDestination, computeSpinDerivatives, projectVelocityAcceleration);
         }
 
@@ -477,8 +705,35 @@ public class Frame implements PVCoordinatesProvider {
         return this.transformProvider;
     }
 
+    /**
+     * Get the ancestors of the frame.
+     * <p>
+     * The path from the tree root to the frame never changes, it is built once and shared by all threads.
+     * </p>
+     * 
+     * @return ancestors of the frame, indexed by depth (the last element is the instance itself)
+     */
+    private Frame[] getAncestors() {
+        Frame[] path = this.ancestors;
+        if (path == null) {
+            // concurrent initializations build identical paths
+            path = new Frame[this.depth + 1];
+            Frame current = this;
+            for (int i = this.depth; i >= 0; i--) {
+                path[i] = current;
+                current = current.parent;
+            }
+            this.ancestors = path;
+        }
+        return path;
+    }
+
     /**
      * Find the deepest common ancestor of two frames in the frames tree.
+     * <p>
+     * Ancestors paths are compared by bisection on the depth, since two frames sharing an ancestor share all the
+     * ancestors above it.
+     * </p>
      * 
      * @param from
      *        origin frame
@@ -489,22 +744,31 @@ public class Frame implements PVCoordinatesProvider {
      */
     private static Frame findCommon(final Frame from, final Frame to) {
 
-        // select deepest frames that could be the common ancestor
-        Frame currentF = from.depth > to.depth ? from.getAncestor(from.depth - to.depth) : from;
-        Frame currentT = from.depth > to.depth ? to : to.getAncestor(to.depth - from.depth);
-
-//        if (!currentT.equals(currentF) && currentT.getName().equals(currentF.getName())) {
-//            // Incoherent frame tree
-//            throw new PatriusRuntimeException("Incoherent frame tree", null);
-//        }
+        final Frame[] pathF = from.getAncestors();
+        final Frame[] pathT = to.getAncestors();
+        final int maxDepth = MathLib.min(from.depth, to.depth);
+        if (pathF[maxDepth] == pathT[maxDepth]) {
+            // one frame is an ancestor of the other one
+            return pathF[maxDepth];
+        }
+        if (pathF[0] != pathT[0]) {
+            // frames belong to different trees
+            return null;
+        }
 
-        // go upward until we find a match
-        while (currentT != null && !currentT.equals(currentF)) {
-            currentF = currentF.parent;
-            currentT = currentT.parent;
+        // pathF[iInf] == pathT[iInf] and pathF[iSup] != pathT[iSup]
+        int iInf = 0;
+        int iSup = maxDepth;
+        while (iSup - iInf > 1) {
+            final int iMed = (iInf + iSup) >>> 1;
+            if (pathF[iMed] == pathT[iMed]) {
+                iInf = iMed;
+            } else {
+                iSup = iMed;
+            }
         }
 
-        return currentF;
+        return pathF[iInf];
 
     }
 
@@ -524,6 +788,44 @@ public class Frame implements PVCoordinatesProvider {
         return false;
     }
 
+    /**
+     * Set the size of the per-thread memo of composed transforms.
+     * <p>
+     * When the memo is enabled, each thread remembers the last transforms it composed in
+     * {@link #getTransformTo(Frame, AbsoluteDate, FramesConfiguration, boolean)}, keyed by source frame, destination
+     * frame, date, frames configuration and spin derivatives flag, so that repeated conversions between the same frames
+     * at the same date (for example by several force models and the attitude law during one derivatives evaluation)
+     * are computed only once.
+     * </p>
+     * <p>
+     * The memo is disabled by default. It must only be enabled if the transforms of the frames in use only depend on
+     * the date: frames whose transform depends on some mutable state (such as {@link UpdatableFrame} or frames whose
+     * referential is changed) would otherwise return stale transforms. Setting the size clears the memo of all threads.
+     * </p>
+     * 
+     * @param size
+     *        number of transforms remembered by each thread (0 to disable the memo)
+     * @since 4.14
+     */
+    public static void setTransformMemoSize(final int size) {
+        if (size < 0) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.NUMBER_TOO_SMALL, size, 0);
+        }
+        memoSize = size;
+        MEMO_GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Get the size of the per-thread memo of composed transforms.
+     * 
+     * @return number of transforms remembered by each thread (0 if the memo is disabled)
+     * @see #setTransformMemoSize(int)
+     * @since 4.14
+     */
+    public static int getTransformMemoSize() {
+        return memoSize;
+    }
+
     /**
      * Get the unique root frame.
      * 
@@ -652,6 +954,119 @@ public class Frame implements PVCoordinatesProvider {
         return common == null ? null : common.getFirstPseudoInertialAncestor();
     }
     
+    /** Small memo of recently composed transforms, owned by one thread. */
+    private static final class TransformMemo {
+
+        /** Source frames. */
+        private final Frame[] sources;
+
+        /** Destination frames. */
+        private final Frame[] destinations;
+
+        /** Dates. */
+        private final AbsoluteDate[] dates;
+
+        /** Frames configurations. */
+        private final FramesConfiguration[] configs;
+
+        /** Spin derivatives flags. */
+        private final boolean[] spinDerivatives;
+
+        /** Composed transforms. */
+        private final Transform[] transforms;
+
+        /** Generation of the memo. */
+        private final int generation;
+
+        /** Index of the next entry to replace. */
+        private int next;
+
+        /**
+         * Constructor.
+         * 
+         * @param size
+         *        number of remembered transforms
+         * @param generationIn
+         *        generation of the memo
+         */
+        private TransformMemo(final int size, final int generationIn) {
+            this.generation = generationIn;
+            this.sources = new Frame[size];
+            this.destinations = new Frame[size];
+            this.dates = new AbsoluteDate[size];
+            this.configs = new FramesConfiguration[size];
+            this.spinDerivatives = new boolean[size];
+            this.transforms = new Transform[size];
+        }
+
+        /**
+         * Get the number of remembered transforms.
+         * 
+         * @return number of remembered transforms
+         */
+        private int size() {
+            return this.transforms.length;
+        }
+
+        /**
+         * Get a remembered transform.
+         * 
+         * @param source
+         *        source frame
+         * @param destination
+         *        destination frame
+         * @param date
+         *        date
+         * @param config
+         *        frames configuration
+         * @param computeSpinDerivatives
+         *        spin derivatives flag
+         * @return remembered transform, null if the transform is not remembered
+         */
+        private Transform get(final Frame source, final Frame destination, final AbsoluteDate date,
+                              final FramesConfiguration config, final boolean computeSpinDerivatives) {
+            // search from the most recent entry, as it is the most likely to match
+            final int size = this.transforms.length;
+            for (int k = 1; k <= size; k++) {
+                final int i = (this.next - k + size) % size;
+                if (this.sources[i] == source && this.destinations[i] == destination && this.configs[i] == config
+                        && this.spinDerivatives[i] == computeSpinDerivatives && date.equals(this.dates[i])) {
+                    return this.transforms[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Remember a transform, replacing the oldest one.
+         * 
+         * @param source
+         *        source frame
+         * @param destination
+         *        destination frame
+         * @param date
+         *        date
+         * @param config
+         *        frames configuration
+         * @param computeSpinDerivatives
+         *        spin derivatives flag
+         * @param transform
+         *        transform to remember
+         */
+        private void put(final Frame source, final Frame destination, final AbsoluteDate date,
+                         final FramesConfiguration config, final boolean computeSpinDerivatives,
+                         final Transform transform) {
+            final int i = this.next;
+            this.sources[i] = source;
+            this.destinations[i] = destination;
+            this.dates[i] = date;
+            this.configs[i] = config;
+            this.spinDerivatives[i] = computeSpinDerivatives;
+            this.transforms[i] = transform;
+            this.next = (i + 1) % this.transforms.length;
+        }
+    }
+
     // We use the Initialization on demand holder idiom to store
     // the singletons, as it is both thread-safe, efficient (no
     // synchronization) and works with all versions of java.
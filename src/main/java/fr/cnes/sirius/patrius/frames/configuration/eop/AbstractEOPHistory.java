@@ -37,6 +37,7 @@
 package fr.cnes.sirius.patrius.frames.configuration.eop;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.SortedSet;
@@ -44,11 +45,12 @@ import java.util.TreeSet;
 import java.util.function.Function;
 
 import fr.cnes.sirius.patrius.math.analysis.polynomials.PolynomialFunctionLagrangeForm;
+import fr.cnes.sirius.patrius.math.util.MathLib;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.AbsoluteDateInterval;
 import fr.cnes.sirius.patrius.time.ChronologicalComparator;
 import fr.cnes.sirius.patrius.time.TimeScalesFactory;
 import fr.cnes.sirius.patrius.time.TimeStamped;
-import fr.cnes.sirius.patrius.time.interpolation.TimeStampedInterpolableEphemeris;
 import fr.cnes.sirius.patrius.time.interpolation.TimeStampedInterpolationFunctionBuilder;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusExceptionWrapper;
@@ -57,24 +59,27 @@ import fr.cnes.sirius.patrius.utils.serializablefunction.SerializableToDoubleFun
 
 /**
  * This class loads any kind of Earth Orientation Parameter data throughout a large time range.
+ * <p>
+ * Interpolation polynomials are precomputed once for all the intervals between consecutive entries (the first time a
+ * value is requested after entries have been added): evaluating a parameter then only requires to locate the interval
+ * and to evaluate a polynomial, without any cache nor lock.
+ * </p>
  * 
  * @author Pascal Parraud
  */
 public abstract class AbstractEOPHistory implements Serializable, EOPHistory {
 
-    /** Optimal cache size (determined by benchmark analysis). */
+    /**
+     * Optimal cache size (determined by benchmark analysis).
+     *
+     * @deprecated as of 4.14, EOP values are no longer interpolated through a cache
+     */
+    @Deprecated
     protected static final int OPTIMAL_CACHE_SIZE = 3;
 
     /** Serializable UID. */
     private static final long serialVersionUID = 7130166524297186988L;
 
-    /** Pole correction builder. */
-    private static final CorrectionBuilder<PoleCorrection> POLE_CORRECTION = (a, b) -> new PoleCorrection(a, b);
-
-    /** Nutation correction builder. */
-    private static final CorrectionBuilder<NutationCorrection> NUTATION_CORRECTION =
-        (a, b) -> new NutationCorrection(a, b);
-
     /** Earth Orientation Parameter entries. */
     private final SortedSet<TimeStamped> entries;
 
@@ -84,17 +89,8 @@ public abstract class AbstractEOPHistory implements Serializable, EOPHistory {
     /** EOP entries array. */
     private transient EOPEntry[] eopEntryArray;
 
-    /** UT1-TAI cache interpolable function (efficient way to store and give access to this value). */
-    private transient TimeStampedInterpolableEphemeris<EOPEntry, Double> ut1MinusTaiEphem;
-
-    /** LOD cache interpolable function (efficient way to store and give access to this value). */
-    private transient TimeStampedInterpolableEphemeris<EOPEntry, Double> lodEphem;
-
-    /** Pole correction cache interpolable function (efficient way to store and give access to this value). */
-    private transient TimeStampedInterpolableEphemeris<EOPEntry, PoleCorrection> poleCorrection;
-
-    /** Nutation correction cache interpolable function (efficient way to store and give access to this value). */
-    private transient TimeStampedInterpolableEphemeris<EOPEntry, NutationCorrection> nutationCorrection;
+    /** Precomputed interpolation polynomials (null until first use after entries have been added). */
+    private transient volatile PiecewisePolynomials polynomials;
 
     /**
      * Simple constructor.
@@ -115,7 +111,7 @@ public abstract class AbstractEOPHistory implements Serializable, EOPHistory {
     }
 
     /**
-     * Reset the EOP entries array and the cache values.
+     * Reset the EOP entries array and the interpolation polynomials.
      * <p>
      * Note: This method is called when an {@link #addEntry(EOPEntry) entry is added}.<br>
      * Most of the time the entries are first added, then the history is used. So these values shouldn't be reset too
@@ -125,10 +121,7 @@ public abstract class AbstractEOPHistory implements Serializable, EOPHistory {
     @SuppressWarnings("PMD.NullAssignment")
     private void resetEphemeris() {
         this.eopEntryArray = null;
-        this.ut1MinusTaiEphem = null;
-        this.lodEphem = null;
-        this.poleCorrection = null;
-        this.nutationCorrection = null;
+        this.polynomials = null;
     }
 
     /** {@inheritDoc} */
@@ -201,51 +194,54 @@ public abstract class AbstractEOPHistory implements Serializable, EOPHistory {
     /** {@inheritDoc} */
     @Override
     public double getUT1MinusTAI(final AbsoluteDate date) {
-        if (this.ut1MinusTaiEphem == null) {
-            this.ut1MinusTaiEphem = new TimeStampedInterpolableEphemeris<>(
-                getEOPEntryArray(), this.interpolator.getInterpolationPoints(),
-                new DoubleInterpolationFunctionBuilder<>(eopEntry -> eopEntry.getUT1MinusTAI()),
-                true, false, false, OPTIMAL_CACHE_SIZE);
-        }
-        return this.ut1MinusTaiEphem.interpolate(date).doubleValue();
+        final PiecewisePolynomials p = this.getPolynomials();
+        final double dt = p.offset(date);
+        return p.value(p.interval(dt), dt, PiecewisePolynomials.UT1_MINUS_TAI);
     }
 
     /** {@inheritDoc} */
     @Override
     public double getLOD(final AbsoluteDate date) {
-        if (this.lodEphem == null) {
-            this.lodEphem = new TimeStampedInterpolableEphemeris<>(
-                getEOPEntryArray(), this.interpolator.getInterpolationPoints(),
-                new DoubleInterpolationFunctionBuilder<>(eopEntry -> eopEntry.getLOD()),
-                true, false, false, OPTIMAL_CACHE_SIZE);
-        }
-        return this.lodEphem.interpolate(date).doubleValue();
+        final PiecewisePolynomials p = this.getPolynomials();
+        final double dt = p.offset(date);
+        return p.value(p.interval(dt), dt, PiecewisePolynomials.LOD);
     }
 
     /** {@inheritDoc} */
     @Override
     public PoleCorrection getPoleCorrection(final AbsoluteDate date) {
-        if (this.poleCorrection == null) {
-            this.poleCorrection = new TimeStampedInterpolableEphemeris<>(
-                getEOPEntryArray(), this.interpolator.getInterpolationPoints(),
-                new CorrectionInterpolationFunctionBuilder<>(eopEntry -> eopEntry.getX(), eopEntry -> eopEntry.getY(),
-                    POLE_CORRECTION), true, false, false, OPTIMAL_CACHE_SIZE);
-        }
-        return this.poleCorrection.interpolate(date);
+        final PiecewisePolynomials p = this.getPolynomials();
+        final double dt = p.offset(date);
+        final int i = p.interval(dt);
+        return new PoleCorrection(p.value(i, dt, PiecewisePolynomials.X), p.value(i, dt, PiecewisePolynomials.Y));
     }
 
     /** {@inheritDoc} */
     @Override
     public NutationCorrection getNutationCorrection(final AbsoluteDate date) {
+        final PiecewisePolynomials p = this.getPolynomials();
+        final double dt = p.offset(date);
+        final int i = p.interval(dt);
+        return new NutationCorrection(p.value(i, dt, PiecewisePolynomials.DX),
+            p.value(i, dt, PiecewisePolynomials.DY));
+    }
 
-        if (this.nutationCorrection == null) {
-            this.nutationCorrection = new TimeStampedInterpolableEphemeris<>(
-                getEOPEntryArray(), this.interpolator.getInterpolationPoints(),
-                new CorrectionInterpolationFunctionBuilder<>(eopEntry -> eopEntry.getDX(), eopEntry -> eopEntry.getDY(),
-                    NUTATION_CORRECTION),
-                true, false, false, OPTIMAL_CACHE_SIZE);
+    /**
+     * Getter for the interpolation polynomials, computing them if needed.
+     * <p>
+     * Polynomials are immutable: concurrent first calls may compute them several times, but they all get equivalent
+     * instances.
+     * </p>
+     * 
+     * @return the interpolation polynomials
+     */
+    private PiecewisePolynomials getPolynomials() {
+        PiecewisePolynomials p = this.polynomials;
+        if (p == null) {
+            p = new PiecewisePolynomials(getEOPEntryArray(), this.interpolator.getInterpolationPoints());
+            this.polynomials = p;
         }
-        return this.nutationCorrection.interpolate(date);
+        return p;
     }
 
     /**
@@ -304,7 +300,9 @@ public abstract class AbstractEOPHistory implements Serializable, EOPHistory {
      * 
      * @param <T>
      *        The EOPEntry type with a generic representation
+     * @deprecated as of 4.14, EOP values are interpolated on precomputed polynomials instead of cached functions
      */
+    @Deprecated
     protected static class DoubleInterpolationFunctionBuilder<T extends EOPEntry>
         implements TimeStampedInterpolationFunctionBuilder<T, Double> {
 
@@ -390,143 +388,200 @@ public abstract class AbstractEOPHistory implements Serializable, EOPHistory {
     }
 
     /**
-     * Cache interpolable function builder used to generate the corrections.
+     * Piecewise interpolation polynomials of all Earth Orientation Parameters.
+     * <p>
+     * On each interval between consecutive entries, the parameters are interpolated by the Lagrange polynomial built
+     * on the {@link EOPInterpolators#getInterpolationPoints() interpolation points} surrounding the interval (shifted
+     * at history boundaries). These polynomials are stored as monomial coefficients of the reduced variable
+     * x = (t - t<sub>i</sub>) / (t<sub>i+1</sub> - t<sub>i</sub>), in a single primitive array.
+     * </p>
      * 
-     * @param <T>
-     *        Generic representation of the interpolable function output type
+     * @concurrency immutable
      */
-    private static class CorrectionInterpolationFunctionBuilder<T>
-        implements TimeStampedInterpolationFunctionBuilder<EOPEntry, T> {
+    private static final class PiecewisePolynomials {
 
-        /** Serializable UID. */
-        private static final long serialVersionUID = -1004127630281484292L;
+        /** Index of UT1-TAI. */
+        private static final int UT1_MINUS_TAI = 0;
 
-        /** Interpolation function of the X component of the correction. */
-        private final SerializableToDoubleFunction<EOPEntry> funcx;
+        /** Index of LOD. */
+        private static final int LOD = 1;
 
-        /** Interpolation function of the Y component of the correction. */
-        private final SerializableToDoubleFunction<EOPEntry> funcy;
+        /** Index of pole X component. */
+        private static final int X = 2;
 
-        /** Correction builder. */
-        private final CorrectionBuilder<T> correctionBuilder;
+        /** Index of pole Y component. */
+        private static final int Y = 3;
 
-        /**
-         * Constructor.
-         * 
-         * @param funcx
-         *        Interpolation function of the X component of the correction
-         * @param funcy
-         *        Interpolation function of the Y component of the correction
-         * @param correctionBuilder
-         *        Correction builder
-         */
-        public CorrectionInterpolationFunctionBuilder(final SerializableToDoubleFunction<EOPEntry> funcx,
-                                                      final SerializableToDoubleFunction<EOPEntry> funcy,
-                                                      final CorrectionBuilder<T> correctionBuilder) {
-            this.funcx = funcx;
-            this.funcy = funcy;
-            this.correctionBuilder = correctionBuilder;
-        }
+        /** Index of nutation correction X component. */
+        private static final int DX = 4;
 
-        /** {@inheritDoc} */
-        @Override
-        public Function<AbsoluteDate, T> buildInterpolationFunction(final EOPEntry[] samples,
-                                                                    final int indexInf,
-                                                                    final int indexSup) {
-            return new LagrangeCorrectionInterpolationFunction<>(samples, indexInf, indexSup, this.funcx, this.funcy,
-                this.correctionBuilder);
-        }
-    }
+        /** Index of nutation correction Y component. */
+        private static final int DY = 5;
 
-    /**
-     * Cache interpolable function used to generate the corrections.
-     * 
-     * @param <T>
-     *        Generic representation of the interpolable function output type
-     */
-    private static class LagrangeCorrectionInterpolationFunction<T> implements Function<AbsoluteDate, T> {
+        /** Number of interpolated parameters. */
+        private static final int PARAMETERS = 6;
 
-        /** Interpolation function of the X component of the correction. */
-        private final PolynomialFunctionLagrangeForm pflfx;
+        /** Reference date (first entry date). */
+        private final AbsoluteDate reference;
 
-        /** Interpolation function of the Y component of the correction. */
-        private final PolynomialFunctionLagrangeForm pflfy;
+        /** Last entry date. */
+        private final AbsoluteDate last;
 
-        /** Correction builder. */
-        private final CorrectionBuilder<T> correctionBuilder;
+        /** Entries dates, as offsets from the reference date (s). */
+        private final double[] nodes;
 
-        /** Reference date. */
-        private AbsoluteDate refDate;
+        /** Inverse of intervals durations (s<sup>-1</sup>). */
+        private final double[] inverseSteps;
+
+        /** Inverse of the mean duration of intervals (s<sup>-1</sup>), used to guess intervals indices. */
+        private final double inverseMeanStep;
+
+        /** Number of coefficients of each polynomial. */
+        private final int order;
+
+        /** Polynomials coefficients, ordered by interval, parameter and increasing degree. */
+        private final double[] coefficients;
 
         /**
          * Constructor.
          * 
          * @param samples
-         *        The samples of EOP entries data
-         * @param indexInf
-         *        Inferior index
-         * @param indexSup
-         *        Superior index
-         * @param funcx
-         *        Interpolation function of the X component of the pole motion
-         * @param funcy
-         *        Interpolation function of the Y component of the pole motion
-         * @param correctionBuilder
-         *        Correction builder
+         *        EOP entries, sorted in chronological order without duplicated dates
+         * @param orderIn
+         *        number of interpolation points
+         * @exception IllegalArgumentException
+         *            if there are less entries than interpolation points
          */
-        public LagrangeCorrectionInterpolationFunction(final EOPEntry[] samples, final int indexInf,
-                                                       final int indexSup,
-                                                       final SerializableToDoubleFunction<EOPEntry> funcx,
-                                                       final SerializableToDoubleFunction<EOPEntry> funcy,
-                                                       final CorrectionBuilder<T> correctionBuilder) {
-            final int valuesLength = indexSup - indexInf;
-            final double[] dvals = new double[valuesLength];
-            final double[] xvals = new double[valuesLength];
-            final double[] yvals = new double[valuesLength];
-
-            for (int i = indexInf; i < indexSup; i++) {
+        private PiecewisePolynomials(final EOPEntry[] samples, final int orderIn) {
+            if (samples.length < orderIn) {
+                throw new IllegalArgumentException(
+                    "The interpolable ephemeris length must be greater or equal than the order");
+            }
+            final int n = samples.length;
+            this.order = orderIn;
+            this.reference = samples[0].getDate();
+            this.last = samples[n - 1].getDate();
+            this.nodes = new double[n];
+            final double[][] values = new double[n][];
+            for (int i = 0; i < n; i++) {
                 final EOPEntry entry = samples[i];
-                final int valsIndex = i - indexInf;
-                final AbsoluteDate date = entry.getDate();
-                if (this.refDate == null) {
-                    this.refDate = date;
+                this.nodes[i] = entry.getDate().durationFrom(this.reference);
+                values[i] = new double[] { entry.getUT1MinusTAI(), entry.getLOD(), entry.getX(), entry.getY(),
+                    entry.getDX(), entry.getDY() };
+            }
+            this.inverseMeanStep = (n - 1) / this.nodes[n - 1];
+
+            final int half = orderIn / 2;
+            this.inverseSteps = new double[n - 1];
+            this.coefficients = new double[(n - 1) * PARAMETERS * orderIn];
+            final double[] u = new double[orderIn];
+            final double[] c = new double[orderIn];
+            for (int i = 0; i < n - 1; i++) {
+                final double step = this.nodes[i + 1] - this.nodes[i];
+                this.inverseSteps[i] = 1. / step;
+
+                // interpolation points surrounding the interval, shifted at boundaries
+                final int first = MathLib.max(0, MathLib.min(i - half + 1, n - orderIn));
+                for (int j = 0; j < orderIn; j++) {
+                    u[j] = (this.nodes[first + j] - this.nodes[i]) / step;
+                }
+                for (int k = 0; k < PARAMETERS; k++) {
+                    for (int j = 0; j < orderIn; j++) {
+                        c[j] = values[first + j][k];
+                    }
+                    toMonomial(u, c, this.coefficients, (i * PARAMETERS + k) * orderIn);
                 }
-                dvals[valsIndex] = date.durationFrom(this.refDate);
-                xvals[valsIndex] = funcx.applyAsDouble(entry);
-                yvals[valsIndex] = funcy.applyAsDouble(entry);
             }
+        }
 
-            this.pflfx = new PolynomialFunctionLagrangeForm(dvals, xvals);
-            this.pflfy = new PolynomialFunctionLagrangeForm(dvals, yvals);
-            this.correctionBuilder = correctionBuilder;
+        /**
+         * Compute the monomial coefficients of an interpolation polynomial.
+         * 
+         * @param u
+         *        interpolation abscissas
+         * @param c
+         *        interpolation values (overwritten)
+         * @param coeffs
+         *        placeholder for the coefficients, in increasing degree
+         * @param index
+         *        index of the first coefficient in the placeholder
+         */
+        private static void toMonomial(final double[] u, final double[] c, final double[] coeffs,
+                                       final int index) {
+            final int n = u.length;
+            // Newton divided differences, computed in place
+            for (int j = 1; j < n; j++) {
+                for (int i = n - 1; i >= j; i--) {
+                    c[i] = (c[i] - c[i - 1]) / (u[i] - u[i - j]);
+                }
+            }
+            // expansion of the Newton form: p = c[n-1], then p = p * (x - u[j]) + c[j]
+            Arrays.fill(coeffs, index, index + n, 0.);
+            coeffs[index] = c[n - 1];
+            for (int j = n - 2; j >= 0; j--) {
+                for (int d = n - 1 - j; d > 0; d--) {
+                    coeffs[index + d] = coeffs[index + d - 1] - u[j] * coeffs[index + d];
+                }
+                coeffs[index] = c[j] - u[j] * coeffs[index];
+            }
         }
 
-        /** {@inheritDoc} */
-        @Override
-        public T apply(final AbsoluteDate date) {
-            final double duration = date.durationFrom(this.refDate);
-            return this.correctionBuilder.apply(this.pflfx.value(duration), this.pflfy.value(duration));
+        /**
+         * Compute the offset of a date with respect to the reference date.
+         * 
+         * @param date
+         *        date
+         * @return offset of the date (s)
+         * @exception IllegalStateException
+         *            if the date is outside the history
+         */
+        private double offset(final AbsoluteDate date) {
+            final double dt = date.durationFrom(this.reference);
+            if (dt < 0 || dt > this.nodes[this.nodes.length - 1]) {
+                throw new IllegalStateException("The provided date (" + date + ") is outside the usable interval "
+                        + new AbsoluteDateInterval(this.reference, this.last));
+            }
+            return dt;
         }
-    }
 
-    /**
-     * Interface representing a correction which depends of two values.
-     * 
-     * @param <T>
-     *        Generic representation of the correction output type
-     */
-    @FunctionalInterface
-    private interface CorrectionBuilder<T> extends Serializable {
+        /**
+         * Find the interval containing an offset.
+         * 
+         * @param dt
+         *        offset with respect to the reference date, within the history
+         * @return index i of the interval, such that nodes[i] &le; dt &lt; nodes[i + 1] (or dt = nodes[i + 1] for
+         *         the last interval)
+         */
+        private int interval(final double dt) {
+            final int nbIntervals = this.inverseSteps.length;
+            // guess assuming regular entries (daily data), checked against actual dates
+            final int guess = MathLib.min((int) (dt * this.inverseMeanStep), nbIntervals - 1);
+            if (this.nodes[guess] <= dt && (dt < this.nodes[guess + 1] || guess == nbIntervals - 1)) {
+                return guess;
+            }
+            final int found = Arrays.binarySearch(this.nodes, dt);
+            return found >= 0 ? MathLib.min(found, nbIntervals - 1) : -found - 2;
+        }
 
         /**
-         * Apply the correction.
+         * Evaluate a parameter.
          * 
-         * @param a
-         *        First value
-         * @param b
-         *        Second value
-         * @return the result
+         * @param i
+         *        index of the interval containing the offset
+         * @param dt
+         *        offset with respect to the reference date
+         * @param parameter
+         *        index of the parameter
+         * @return parameter value
          */
-        T apply(final double a, final double b);
+        private double value(final int i, final double dt, final int parameter) {
+            final double x = (dt - this.nodes[i]) * this.inverseSteps[i];
+            final int index = (i * PARAMETERS + parameter) * this.order;
+            double value = 0;
+            for (int d = this.order - 1; d >= 0; d--) {
+                value = value * x + this.coefficients[index + d];
+            }
+            return value;
+        }
     }
 }
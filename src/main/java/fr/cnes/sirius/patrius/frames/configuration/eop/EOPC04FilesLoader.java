@@ -27,12 +27,17 @@
 package fr.cnes.sirius.patrius.frames.configuration.eop;
 
 import java.io.BufferedReader;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
+import fr.cnes.sirius.patrius.data.BinaryCacheableDataLoader;
 import fr.cnes.sirius.patrius.data.DataProvidersManager;
 import fr.cnes.sirius.patrius.time.DateComponents;
 import fr.cnes.sirius.patrius.utils.Constants;
@@ -66,7 +71,7 @@ import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
  * @author Luc Maisonobe
  */
 @SuppressWarnings("PMD.NullAssignment")
-public class EOPC04FilesLoader implements EOP1980HistoryLoader, EOP2000HistoryLoader {
+public class EOPC04FilesLoader implements EOP1980HistoryLoader, EOP2000HistoryLoader, BinaryCacheableDataLoader {
 
     /** Year field. */
     private static final int YEAR_FIELD = 0;
@@ -92,16 +97,10 @@ public class EOPC04FilesLoader implements EOP1980HistoryLoader, EOP2000HistoryLo
     /** LoD field. */
     private static final int LOD_FIELD = 7;
 
-    /** Correction for nutation in obliquity field. */
-    private static final int DDEPS_FIELD = 8;
-
-    /** Correction for nutation in longitude field. */
-    private static final int DDPSI_FIELD = 9;
-
-    /** Correction for nutation dx. */
+    /** Correction for nutation dx (or in obliquity for IAU1980). */
     private static final int DX_FIELD = 8;
 
-    /** Correction for nutation dy. */
+    /** Correction for nutation dy (or in longitude for IAU1980). */
     private static final int DY_FIELD = 9;
 
     /**
@@ -116,6 +115,12 @@ public class EOPC04FilesLoader implements EOP1980HistoryLoader, EOP2000HistoryLo
      */
     private static final Pattern LINEPATTERN = Pattern.compile("^\\d+ +\\d+ +\\d+ +\\d+(?: +-?\\d+\\.\\d+){12}$");
 
+    /** Binary representation identifier. */
+    private static final String BINARY_FORMAT = "EOPC04-1";
+
+    /** Number of values of a parsed data line (MJD, x, y, UT1-UTC, LoD, fields 8 and 9). */
+    private static final int ROW_SIZE = 7;
+
     /** Regular expression for supported files names. */
     private final String supportedNames;
 
@@ -154,6 +159,42 @@ public class EOPC04FilesLoader implements EOP1980HistoryLoader, EOP2000HistoryLo
 
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public String getBinaryFormat() {
+        return BINARY_FORMAT;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void convertData(final InputStream input, final String name,
+                            final DataOutput output) throws IOException, PatriusException {
+        final List<double[]> rows = parseRows(input, name);
+        output.writeInt(rows.size());
+        for (final double[] row : rows) {
+            for (final double value : row) {
+                output.writeDouble(value);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void loadBinaryData(final ByteBuffer buffer, final String name) throws PatriusException {
+        final int size = buffer.getInt();
+        final List<double[]> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final double[] row = new double[ROW_SIZE];
+            for (int j = 0; j < ROW_SIZE; j++) {
+                row[j] = buffer.getDouble();
+            }
+            rows.add(row);
+        }
+        synchronized (this) {
+            addEntries(rows, this.history1980, this.history2000);
+        }
+    }
+
     /**
      * Loads the data in a static manner.
      * 
@@ -172,11 +213,30 @@ public class EOPC04FilesLoader implements EOP1980HistoryLoader, EOP2000HistoryLo
      */
     private static void loadDataIn(final InputStream input, final String name, final EOP1980History history1980,
                                    final EOP2000History history2000) throws IOException, PatriusException {
+        addEntries(parseRows(input, name), history1980, history2000);
+    }
+
+    /**
+     * Parse the data lines.
+     * 
+     * @param input
+     *        input stream
+     * @param name
+     *        name of the Orekit data loader resource
+     * @return parsed data lines (MJD, x, y, UT1-UTC, LoD, fields 8 and 9), angles being converted in radians
+     * @throws IOException
+     *         if data can't be read
+     * @throws PatriusException
+     *         if some data is missing
+     */
+    private static List<double[]> parseRows(final InputStream input,
+                                            final String name) throws IOException, PatriusException {
 
         // set up a reader for line-oriented bulletin B files
         final BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
 
         // read all file, ignoring header
+        final List<double[]> rows = new ArrayList<>();
         int lineNumber = 0;
         boolean inHeader = true;
         for (String line = reader.readLine(); line != null; line = reader.readLine()) {
@@ -202,18 +262,10 @@ public class EOPC04FilesLoader implements EOP1980HistoryLoader, EOP2000HistoryLo
                 final double y = Double.parseDouble(fields[POLE_Y_FIELD]) * Constants.ARC_SECONDS_TO_RADIANS;
                 final double dtu1 = Double.parseDouble(fields[UT1_UTC_FIELD]);
                 final double lod = Double.parseDouble(fields[LOD_FIELD]);
-                if (history1980 != null) {
-                    // EOP 1980
-                    final double dpsi = Double.parseDouble(fields[DDPSI_FIELD]) * Constants.ARC_SECONDS_TO_RADIANS;
-                    final double deps = Double.parseDouble(fields[DDEPS_FIELD]) * Constants.ARC_SECONDS_TO_RADIANS;
-                    history1980.addEntry(new EOP1980Entry(mjd, dtu1, lod, x, y, dpsi, deps));
-                }
-                if (history2000 != null) {
-                    // EOP 2000
-                    final double dx = Double.parseDouble(fields[DX_FIELD]) * Constants.ARC_SECONDS_TO_RADIANS;
-                    final double dy = Double.parseDouble(fields[DY_FIELD]) * Constants.ARC_SECONDS_TO_RADIANS;
-                    history2000.addEntry(new EOP2000Entry(mjd, dtu1, lod, x, y, dx, dy));
-                }
+                // nutation corrections: (ddeps, ddpsi) for EOP 1980, (dx, dy) for EOP 2000
+                final double field8 = Double.parseDouble(fields[DX_FIELD]) * Constants.ARC_SECONDS_TO_RADIANS;
+                final double field9 = Double.parseDouble(fields[DY_FIELD]) * Constants.ARC_SECONDS_TO_RADIANS;
+                rows.add(new double[] { mjd, x, y, dtu1, lod, field8, field9 });
                 parsed = true;
 
             }
@@ -229,6 +281,34 @@ public class EOPC04FilesLoader implements EOP1980HistoryLoader, EOP2000HistoryLo
             throw new PatriusException(PatriusMessages.NOT_A_SUPPORTED_IERS_DATA_FILE, name);
         }
 
+        return rows;
+    }
+
+    /**
+     * Add parsed data lines to histories.
+     * 
+     * @param rows
+     *        parsed data lines (MJD, x, y, UT1-UTC, LoD, fields 8 and 9)
+     * @param history1980
+     *        output as a EOP1980History object, may be null if output not needed
+     * @param history2000
+     *        output as a EOP2000History object, may be null if output not needed
+     * @throws PatriusException
+     *         if an entry cannot be built
+     */
+    private static void addEntries(final List<double[]> rows, final EOP1980History history1980,
+                                   final EOP2000History history2000) throws PatriusException {
+        for (final double[] row : rows) {
+            final int mjd = (int) row[0];
+            if (history1980 != null) {
+                // EOP 1980
+                history1980.addEntry(new EOP1980Entry(mjd, row[3], row[4], row[1], row[2], row[6], row[5]));
+            }
+            if (history2000 != null) {
+                // EOP 2000
+                history2000.addEntry(new EOP2000Entry(mjd, row[3], row[4], row[1], row[2], row[5], row[6]));
+            }
+        }
     }
 
     /** {@inheritDoc} */
@@ -221,6 +221,57 @@ public class IERS20032010PrecessionNutation implements PrecessionNutationModel {
      */
     private CIPCoordinates computePoleCoordinates(final AbsoluteDate date) {
 
+        final double tc = julianCenturies(date);
+        final BodiesElements elements = elements(tc);
+        final BodiesElements elementsP = elementsDerivatives(tc);
+
+        // pole position
+        final double[] resX;
+        final double[] resY;
+        final double[] resS;
+
+        switch (PatriusConfiguration.getPatriusCompatibilityMode()) {
+            case OLD_MODELS:
+            case MIXED_MODELS:
+                if (this.rotation) {
+                    // non constant rotation
+                    resX = this.xDevelopment.value(tc, elements, elementsP);
+                    resY = this.yDevelopment.value(tc, elements, elementsP);
+                    resS = this.sxy2Development.value(tc, elements, elementsP);
+                } else {
+                    // constant rotation ; derivation term is zero.
+                    final double[] cresX = { this.xDevelopment.value(tc, elements), 0. };
+                    final double[] cresY = { this.yDevelopment.value(tc, elements), 0. };
+                    final double[] cresS = { this.sxy2Development.value(tc, elements), 0. };
+                    resX = cresX;
+                    resY = cresY;
+                    resS = cresS;
+                }
+                break;
+
+            case NEW_MODELS:
+                resX = this.xDevelopment.value(tc, elements, elementsP);
+                resY = this.yDevelopment.value(tc, elements, elementsP);
+                resS = this.sxy2Development.value(tc, elements, elementsP);
+                break;
+
+            default:
+                throw new IllegalArgumentException(
+                    UNSUPPORTED_MODE_EXCEPTION + PatriusConfiguration.getPatriusCompatibilityMode());
+        }
+
+        return new CIPCoordinates(date, resX[0], resX[1], resY[0], resY[1],
+            resS[0] - resX[0] * resY[0] / 2., resS[1] - resX[0] * resY[1] / 2. - resX[1] * resY[0] / 2.);
+    }
+
+    /**
+     * Compute the duration from J2000 epoch in Julian centuries, according to the compatibility mode.
+     *
+     * @param date
+     *        date
+     * @return duration from J2000 epoch in Julian centuries
+     */
+    static double julianCenturies(final AbsoluteDate date) {
         final double tc;
         switch (PatriusConfiguration.getPatriusCompatibilityMode()) {
             case OLD_MODELS:
@@ -238,7 +289,18 @@ public class IERS20032010PrecessionNutation implements PrecessionNutationModel {
                     UNSUPPORTED_MODE_EXCEPTION + PatriusConfiguration.getPatriusCompatibilityMode());
         }
 
-        final BodiesElements elements = new BodiesElements((((F14 * tc + F13) * tc + F12) * tc + F11) * tc + F10 +
+        return tc;
+    }
+
+    /**
+     * Compute the luni-solar and planetary elements.
+     *
+     * @param tc
+     *        duration from J2000 epoch in Julian centuries
+     * @return luni-solar and planetary elements
+     */
+    static BodiesElements elements(final double tc) {
+        return new BodiesElements((((F14 * tc + F13) * tc + F12) * tc + F11) * tc + F10 +
         // mean
                 mod(1325 * tc) * MathUtils.TWO_PI,
             // anomaly
@@ -287,8 +349,17 @@ public class IERS20032010PrecessionNutation implements PrecessionNutationModel {
             F131 * tc + F130,
             // general accumulated precession in longitude
             (F142 * tc + F141) * tc);
+    }
 
-        final BodiesElements elementsP = new BodiesElements(
+    /**
+     * Compute the time derivatives of the luni-solar and planetary elements.
+     *
+     * @param tc
+     *        duration from J2000 epoch in Julian centuries
+     * @return time derivatives of the luni-solar and planetary elements
+     */
+    static BodiesElements elementsDerivatives(final double tc) {
+        return new BodiesElements(
             // mean anomaly of the Moon
             (((4 * F14 * tc + 3 * F13) * tc + 2 * F12) * tc + F11 + 1325 * MathUtils.TWO_PI) /
                     Constants.JULIAN_CENTURY,
@@ -322,44 +393,6 @@ public class IERS20032010PrecessionNutation implements PrecessionNutationModel {
             F131 / Constants.JULIAN_CENTURY,
             // general accumulated precession in longitude
             (2 * F142 * tc + F141) / Constants.JULIAN_CENTURY);
-
-        // pole position
-        final double[] resX;
-        final double[] resY;
-        final double[] resS;
-
-        switch (PatriusConfiguration.getPatriusCompatibilityMode()) {
-            case OLD_MODELS:
-            case MIXED_MODELS:
-                if (this.rotation) {
-                    // non constant rotation
-                    resX = this.xDevelopment.value(tc, elements, elementsP);
-                    resY = this.yDevelopment.value(tc, elements, elementsP);
-                    resS = this.sxy2Development.value(tc, elements, elementsP);
-                } else {
-                    // constant rotation ; derivation term is zero.
-                    final double[] cresX = { this.xDevelopment.value(tc, elements), 0. };
-                    final double[] cresY = { this.yDevelopment.value(tc, elements), 0. };
-                    final double[] cresS = { this.sxy2Development.value(tc, elements), 0. };
-                    resX = cresX;
-                    resY = cresY;
-                    resS = cresS;
-                }
-                break;
-
-            case NEW_MODELS:
-                resX = this.xDevelopment.value(tc, elements, elementsP);
-                resY = this.yDevelopment.value(tc, elements, elementsP);
-                resS = this.sxy2Development.value(tc, elements, elementsP);
-                break;
-
-            default:
-                throw new IllegalArgumentException(
-                    UNSUPPORTED_MODE_EXCEPTION + PatriusConfiguration.getPatriusCompatibilityMode());
-        }
-
-        return new CIPCoordinates(date, resX[0], resX[1], resY[0], resY[1],
-            resS[0] - resX[0] * resY[0] / 2., resS[1] - resX[0] * resY[1] / 2. - resX[1] * resY[0] / 2.);
     }
 
     /**
@@ -380,7 +413,7 @@ public class IERS20032010PrecessionNutation implements PrecessionNutationModel {
      *        file name of the series development
      * @return series development model
      */
-    private static PoissonSeries loadModel(final String name) {
+    static PoissonSeries loadModel(final String name) {
 
         // get the table data
         final InputStream stream = IERS20032010PrecessionNutation.class.getResourceAsStream(name);
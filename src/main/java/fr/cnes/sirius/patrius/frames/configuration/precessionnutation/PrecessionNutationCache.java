@@ -108,7 +108,8 @@ public class PrecessionNutationCache implements PrecessionNutationModel {
         // store parameters
         this.model = pnModel;
         final CIPCoordinatesGenerator generator = new CIPCoordinatesGenerator(this.model, interpolationPoints, span);
-        this.cache = new TimeStampedCache<>(interpolationPoints, PatriusConfiguration.getCacheSlotsNumber(),
+        this.cache = new TimeStampedCache<>(PrecessionNutationCache.class.getName(), interpolationPoints,
+            PatriusConfiguration.getCacheSlotsNumber(),
             Constants.JULIAN_YEAR, SLOT_SIZE * Constants.JULIAN_DAY, generator, CIPCoordinates.class);
         this.currentSet = getPoleCoordinates(AbsoluteDate.J2000_EPOCH);
     }
@@ -0,0 +1,183 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.frames.configuration.precessionnutation;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import fr.cnes.sirius.patrius.data.BodiesElements;
+import fr.cnes.sirius.patrius.data.PoissonSeriesEvaluator;
+import fr.cnes.sirius.patrius.frames.configuration.FrameConvention;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.PatriusConfiguration;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * IERS 2003 and 2010 CIRF precession nutation models, shared by all threads.
+ * <p>
+ * This model computes the same CIP coordinates as {@link IERS20032010PrecessionNutation} (without the compatibility
+ * rotation flag), but the X, Y and S + XY/2 developments are evaluated jointly by a {@link PoissonSeriesEvaluator},
+ * which replaces the per-term sines and cosines by trigonometric recurrences over the fundamental arguments.
+ * </p>
+ * <p>
+ * The instance is immutable: a single instance can be used by any number of threads, instead of building one model per
+ * thread (see {@link PrecessionNutationPerThread}). It may be wrapped in a {@link PrecessionNutationInterpolation}.
+ * </p>
+ * <p>
+ * An optional direct-mapped cache of computed CIP coordinates, indexed by date, can be shared by all threads: it is
+ * lock-free, concurrent computations for the same date are simply duplicated. It is efficient when the same dates are
+ * requested several times, for example by several satellites propagated with the same output dates. As cached values
+ * are not invalidated, the cache should not be used if the {@link PatriusConfiguration#getPatriusCompatibilityMode()
+ * compatibility mode} is changed after the first computation.
+ * </p>
+ *
+ * @concurrency thread-safe
+ *
+ * @concurrency.comment series are immutable and cache slots are updated atomically
+ *
+ * @see IERS20032010PrecessionNutation
+ *
+ * @since 4.14
+ */
+public final class SharedIERS20032010PrecessionNutation implements PrecessionNutationModel {
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = 6254470367806338437L;
+
+    /** Maximum cache size. */
+    private static final int MAX_CACHE_SIZE = 1 << 24;
+
+    /** Joint evaluator of the X, Y and S + XY/2 developments. */
+    private final PoissonSeriesEvaluator evaluator;
+
+    /** IERS convention. */
+    private final FrameConvention iersConvention;
+
+    /** Computed CIP coordinates, indexed by date hash (null if cache is disabled). */
+    private final AtomicReferenceArray<CIPCoordinates> cache;
+
+    /**
+     * Constructor without cache.
+     *
+     * @param convention
+     *        IERS convention to use
+     */
+    public SharedIERS20032010PrecessionNutation(final PrecessionNutationConvention convention) {
+        this(convention, 0);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param convention
+     *        IERS convention to use
+     * @param cacheSize
+     *        number of cached CIP coordinates (0 to disable cache), rounded up to a power of 2
+     * @exception IllegalArgumentException
+     *            if the cache size is negative or larger than 2<sup>24</sup>
+     */
+    public SharedIERS20032010PrecessionNutation(final PrecessionNutationConvention convention,
+                                                final int cacheSize) {
+        if (cacheSize < 0) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.NUMBER_TOO_SMALL, cacheSize, 0);
+        }
+        if (cacheSize > MAX_CACHE_SIZE) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.NUMBER_TOO_LARGE, cacheSize,
+                MAX_CACHE_SIZE);
+        }
+        final String[] dataLocation = convention.getDataLocation();
+        this.evaluator = new PoissonSeriesEvaluator(IERS20032010PrecessionNutation.loadModel(dataLocation[0]),
+            IERS20032010PrecessionNutation.loadModel(dataLocation[1]),
+            IERS20032010PrecessionNutation.loadModel(dataLocation[2]));
+        this.iersConvention = convention == PrecessionNutationConvention.IERS2003 ? FrameConvention.IERS2003
+            : FrameConvention.IERS2010;
+        this.cache = cacheSize == 0 ? null : new AtomicReferenceArray<>(Integer.highestOneBit(2 * cacheSize - 1));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CIPCoordinates getCIPCoordinates(final AbsoluteDate date) {
+        if (this.cache == null) {
+            return this.computePoleCoordinates(date);
+        }
+
+        final int h = date.hashCode();
+        final int index = (h ^ (h >>> 16)) & (this.cache.length() - 1);
+        final CIPCoordinates cached = this.cache.get(index);
+        if (cached != null && cached.getDate().equals(date)) {
+            return cached;
+        }
+        final CIPCoordinates computed = this.computePoleCoordinates(date);
+        this.cache.set(index, computed);
+        return computed;
+    }
+
+    /**
+     * Compute pole coordinates from precession and nutation effects.
+     *
+     * @param date
+     *        date
+     * @return a {@link CIPCoordinates} set
+     */
+    private CIPCoordinates computePoleCoordinates(final AbsoluteDate date) {
+
+        final double tc = IERS20032010PrecessionNutation.julianCenturies(date);
+        final BodiesElements elements = IERS20032010PrecessionNutation.elements(tc);
+
+        final double[] values;
+        final double[] derivatives;
+        switch (PatriusConfiguration.getPatriusCompatibilityMode()) {
+            case OLD_MODELS:
+            case MIXED_MODELS:
+                // constant rotation ; derivation term is zero.
+                values = this.evaluator.value(tc, elements);
+                derivatives = new double[values.length];
+                break;
+
+            case NEW_MODELS:
+                final double[][] res = this.evaluator.value(tc, elements,
+                    IERS20032010PrecessionNutation.elementsDerivatives(tc));
+                values = res[0];
+                derivatives = res[1];
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unsupported compatibility mode : "
+                        + PatriusConfiguration.getPatriusCompatibilityMode());
+        }
+
+        final double x = values[0];
+        final double y = values[1];
+        return new CIPCoordinates(date, x, derivatives[0], y, derivatives[1], values[2] - x * y / 2.,
+            derivatives[2] - x * derivatives[1] / 2. - derivatives[0] * y / 2.);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isDirect() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FrameConvention getOrigin() {
+        return this.iersConvention;
+    }
+}
@@ -111,7 +111,7 @@ class TidalCorrectionCache implements TidalCorrectionModel {
         this.model = tcModel;
         final TidalCorrectionGenerator generator = new TidalCorrectionGenerator(this.model, interpolationPointsIn,
                 span);
-        this.cache = new TimeStampedCache<>(interpolationPointsIn,
+        this.cache = new TimeStampedCache<>(TidalCorrectionCache.class.getName(), interpolationPointsIn,
             PatriusConfiguration.getCacheSlotsNumber(), Constants.JULIAN_YEAR, SLOT_SIZE * Constants.JULIAN_DAY,
             generator, TidalCorrection.class);
         this.current = computeTidesCorrection(AbsoluteDate.J2000_EPOCH);
@@ -0,0 +1,778 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.frames.transformations;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.frames.configuration.FramesConfiguration;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Rotation;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.math.util.FastMath;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.AngularCoordinates;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Transform provider using Chebyshev polynomials tabulated once over a date range.
+ * <p>
+ * The transforms of a raw provider (typically an expensive one, such as the GCRF to ITRF chain relying on the IERS
+ * 2010 CIO-based precession-nutation model) are fitted over a date range split into segments of equal duration. On
+ * each segment, the translation, velocity, rotation quaternion and rotation rate are represented by Chebyshev
+ * polynomials. The segments duration is halved until the rotation error, checked between the fitting nodes, is below
+ * a user-defined angular accuracy.
+ * </p>
+ * <p>
+ * The tabulated coefficients can be {@link #write(File) written} to a compact binary file, which is memory-mapped by
+ * {@link #load(File, TransformProvider)} on later runs, so that the tabulation cost is only paid once.
+ * {@link #loadOrBuild(File, TransformProvider, AbsoluteDate, AbsoluteDate, double)} implements this pattern. The file
+ * does not identify the raw provider: it is the user responsibility to use different files for different providers.
+ * </p>
+ * <p>
+ * Evaluation only reads immutable coefficients: it is lock-free and does not depend on the previously evaluated dates.
+ * Outside of the tabulated range, transforms are computed by the fallback provider, if any.
+ * </p>
+ * <p>
+ * Frames configuration is unused: transforms are tabulated with the frames configuration in force at build time.
+ * Earth orientation parameters are interpolated between daily values, the tabulation start date should therefore be
+ * at 0h UTC so that segments boundaries match these values dates.
+ * </p>
+ *
+ * @concurrency thread-safe
+ *
+ * @concurrency.comment coefficients are immutable and accessed using absolute reads only
+ *
+ * @serial given the fallback provider, an instance of ChebyshevTransformProvider is not guaranteed to be
+ *         serializable
+ *
+ * @see InterpolatingTransformProvider
+ *
+ * @since 4.14
+ */
+public final class ChebyshevTransformProvider implements TransformProvider {
+
+    /** Default degree of the Chebyshev polynomials. */
+    public static final int DEFAULT_DEGREE = 12;
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = -4281533871306521768L;
+
+    /** Files magic number. */
+    private static final int MAGIC = 0x50435446;
+
+    /** Files layout version. */
+    private static final int VERSION = 1;
+
+    /** Files header size (bytes). */
+    private static final int HEADER_SIZE = 48;
+
+    /** Number of tabulated components (position, velocity, quaternion, rotation rate). */
+    private static final int COMPONENTS = 13;
+
+    /** Index of the first quaternion component. */
+    private static final int QUATERNION = 6;
+
+    /** Index of the first rotation rate component. */
+    private static final int RATE = 10;
+
+    /** Initial duration of the segments (s). */
+    private static final double INITIAL_SEGMENT_DURATION = Constants.JULIAN_DAY;
+
+    /** Minimum duration of the segments (s). */
+    private static final double MIN_SEGMENT_DURATION = 60.;
+
+    /** Start of the tabulated range. */
+    private final AbsoluteDate start;
+
+    /** End of the tabulated range. */
+    private final AbsoluteDate end;
+
+    /** Duration of the segments (s). */
+    private final double segmentDuration;
+
+    /** Number of segments. */
+    private final int nbSegments;
+
+    /** Degree of the Chebyshev polynomials. */
+    private final int degree;
+
+    /** Angular accuracy of the tabulation (rad). */
+    private final double accuracy;
+
+    /** Chebyshev coefficients, ordered by segment, component and degree. */
+    private final transient DoubleBuffer coefficients;
+
+    /** Provider used outside of the tabulated range (may be null). */
+    private final TransformProvider fallback;
+
+    /**
+     * Constructor.
+     *
+     * @param startIn
+     *        start of the tabulated range
+     * @param segmentDurationIn
+     *        duration of the segments
+     * @param nbSegmentsIn
+     *        number of segments
+     * @param degreeIn
+     *        degree of the Chebyshev polynomials
+     * @param accuracyIn
+     *        angular accuracy of the tabulation
+     * @param coefficientsIn
+     *        Chebyshev coefficients
+     * @param fallbackIn
+     *        provider used outside of the tabulated range (may be null)
+     */
+    private ChebyshevTransformProvider(final AbsoluteDate startIn, final double segmentDurationIn,
+                                       final int nbSegmentsIn, final int degreeIn, final double accuracyIn,
+                                       final DoubleBuffer coefficientsIn, final TransformProvider fallbackIn) {
+        this.start = startIn;
+        this.end = startIn.shiftedBy(segmentDurationIn * nbSegmentsIn);
+        this.segmentDuration = segmentDurationIn;
+        this.nbSegments = nbSegmentsIn;
+        this.degree = degreeIn;
+        this.accuracy = accuracyIn;
+        this.coefficients = coefficientsIn;
+        this.fallback = fallbackIn;
+    }
+
+    /**
+     * Tabulate the transforms of a provider, with {@link #DEFAULT_DEGREE default degree} polynomials.
+     * <p>
+     * The raw provider is also used as fallback provider outside of the tabulated range.
+     * </p>
+     *
+     * @param provider
+     *        raw provider
+     * @param startDate
+     *        start of the range to tabulate
+     * @param endDate
+     *        end of the range to tabulate (the tabulated range may extend slightly after this date)
+     * @param angularAccuracy
+     *        required angular accuracy (rad)
+     * @return tabulated provider
+     * @exception PatriusException
+     *            if the raw provider fails or if the accuracy cannot be reached
+     */
+    public static ChebyshevTransformProvider build(final TransformProvider provider, final AbsoluteDate startDate,
+                                                   final AbsoluteDate endDate,
+                                                   final double angularAccuracy) throws PatriusException {
+        return build(provider, startDate, endDate, angularAccuracy, DEFAULT_DEGREE);
+    }
+
+    /**
+     * Tabulate the transforms of a provider.
+     * <p>
+     * The raw provider is also used as fallback provider outside of the tabulated range.
+     * </p>
+     *
+     * @param provider
+     *        raw provider
+     * @param startDate
+     *        start of the range to tabulate
+     * @param endDate
+     *        end of the range to tabulate (the tabulated range may extend slightly after this date)
+     * @param angularAccuracy
+     *        required angular accuracy (rad)
+     * @param degreeIn
+     *        degree of the Chebyshev polynomials
+     * @return tabulated provider
+     * @exception PatriusException
+     *            if the raw provider fails or if the accuracy cannot be reached
+     * @exception IllegalArgumentException
+     *            if the range is empty or if the degree is not strictly positive
+     */
+    public static ChebyshevTransformProvider build(final TransformProvider provider, final AbsoluteDate startDate,
+                                                   final AbsoluteDate endDate, final double angularAccuracy,
+                                                   final int degreeIn) throws PatriusException {
+
+        // safety checks
+        if (degreeIn < 1) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.NUMBER_TOO_SMALL, degreeIn, 1);
+        }
+        final double span = endDate.durationFrom(startDate);
+        if (span <= 0) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.INCORRECT_INTERVAL);
+        }
+
+        final FramesConfiguration config = FramesFactory.getConfiguration();
+        final int n = degreeIn + 1;
+        double duration = MathLib.min(INITIAL_SEGMENT_DURATION, span);
+        while (true) {
+            final int nb = (int) MathLib.ceil(span / duration);
+            final double[] coeffs = new double[nb * COMPONENTS * n];
+            boolean accurate = true;
+            for (int s = 0; s < nb && accurate; s++) {
+                accurate = fitSegment(provider, config, startDate.shiftedBy(s * duration), duration, n,
+                    coeffs, s * COMPONENTS * n, angularAccuracy);
+            }
+            if (accurate) {
+                return new ChebyshevTransformProvider(startDate, duration, nb, degreeIn, angularAccuracy,
+                    DoubleBuffer.wrap(coeffs), provider);
+            }
+            if (duration / 2 < MIN_SEGMENT_DURATION) {
+                throw new PatriusException(PatriusMessages.TABULATED_TRANSFORM_ACCURACY_NOT_REACHED,
+                    angularAccuracy, duration);
+            }
+            duration /= 2;
+        }
+    }
+
+    /**
+     * Tabulate the transforms from a frame to another one, with {@link #DEFAULT_DEGREE default degree} polynomials.
+     * <p>
+     * This allows tabulating a chain of providers at once, for example the GCRF to ITRF chain (CIRF, TIRF and ITRF
+     * providers). The tabulated provider can then be used to define a frame with respect to the origin frame.
+     * </p>
+     *
+     * @param origin
+     *        origin frame
+     * @param destination
+     *        destination frame
+     * @param startDate
+     *        start of the range to tabulate
+     * @param endDate
+     *        end of the range to tabulate (the tabulated range may extend slightly after this date)
+     * @param angularAccuracy
+     *        required angular accuracy (rad)
+     * @return tabulated provider for the transform from origin to destination frame
+     * @exception PatriusException
+     *            if some frame specific error occurs or if the accuracy cannot be reached
+     */
+    public static ChebyshevTransformProvider build(final Frame origin, final Frame destination,
+                                                   final AbsoluteDate startDate, final AbsoluteDate endDate,
+                                                   final double angularAccuracy) throws PatriusException {
+        return build(new FramesTransformProvider(origin, destination), startDate, endDate, angularAccuracy);
+    }
+
+    /**
+     * Load a tabulated provider from a file if it exists and covers the required range with the required accuracy,
+     * otherwise tabulate the provider and write the file.
+     *
+     * @param file
+     *        tabulation file
+     * @param provider
+     *        raw provider, also used as fallback provider outside of the tabulated range
+     * @param startDate
+     *        start of the range to tabulate
+     * @param endDate
+     *        end of the range to tabulate
+     * @param angularAccuracy
+     *        required angular accuracy (rad)
+     * @return tabulated provider
+     * @exception PatriusException
+     *            if the raw provider fails, if the accuracy cannot be reached or if the file cannot be written
+     */
+    public static ChebyshevTransformProvider loadOrBuild(final File file, final TransformProvider provider,
+                                                         final AbsoluteDate startDate, final AbsoluteDate endDate,
+                                                         final double angularAccuracy) throws PatriusException {
+        if (file.isFile()) {
+            try {
+                final ChebyshevTransformProvider loaded = load(file, provider);
+                if (loaded.start.compareTo(startDate) <= 0 && loaded.end.compareTo(endDate) >= 0
+                        && loaded.accuracy <= angularAccuracy) {
+                    return loaded;
+                }
+            } catch (final PatriusException e) {
+                // Unreadable file: it is rebuilt
+            }
+        }
+        final ChebyshevTransformProvider built = build(provider, startDate, endDate, angularAccuracy);
+        built.write(file);
+        return built;
+    }
+
+    /**
+     * Load a tabulated provider from a file.
+     * <p>
+     * The file is memory-mapped.
+     * </p>
+     *
+     * @param file
+     *        tabulation file
+     * @param fallbackProvider
+     *        provider used outside of the tabulated range (may be null)
+     * @return tabulated provider
+     * @exception PatriusException
+     *            if the file cannot be read or is not a tabulation file
+     */
+    public static ChebyshevTransformProvider load(final File file,
+                                                  final TransformProvider fallbackProvider) throws PatriusException {
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r");
+                final FileChannel channel = raf.getChannel()) {
+            // The mapping remains valid after the channel is closed
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new PatriusException(PatriusMessages.NOT_A_TABULATED_TRANSFORM_FILE, file.getAbsolutePath());
+            }
+            final long epoch = buffer.getLong();
+            final double offset = buffer.getDouble();
+            final double duration = buffer.getDouble();
+            final double acc = buffer.getDouble();
+            final int nb = buffer.getInt();
+            final int deg = buffer.getInt();
+            if (nb < 1 || deg < 1 || !(duration > 0)
+                    || buffer.remaining() != (long) nb * COMPONENTS * (deg + 1) * Double.BYTES) {
+                throw new PatriusException(PatriusMessages.NOT_A_TABULATED_TRANSFORM_FILE, file.getAbsolutePath());
+            }
+            return new ChebyshevTransformProvider(new AbsoluteDate(epoch, offset), duration, nb, deg, acc,
+                buffer.slice().asDoubleBuffer(), fallbackProvider);
+        } catch (final IOException e) {
+            throw new PatriusException(e, PatriusMessages.UNABLE_TO_FIND_FILE, file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Write the tabulated coefficients to a file.
+     * <p>
+     * The file is written to a temporary file then atomically moved, hence concurrent processes sharing the same file
+     * never read a partially written file.
+     * </p>
+     *
+     * @param file
+     *        tabulation file
+     * @exception PatriusException
+     *            if the file cannot be written
+     */
+    public void write(final File file) throws PatriusException {
+        File temporary = null;
+        try {
+            final File directory = file.getAbsoluteFile().getParentFile();
+            temporary = File.createTempFile(file.getName(), ".tmp", directory);
+            try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporary.toPath())))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeLong(this.start.getEpoch());
+                output.writeDouble(this.start.getOffset());
+                output.writeDouble(this.segmentDuration);
+                output.writeDouble(this.accuracy);
+                output.writeInt(this.nbSegments);
+                output.writeInt(this.degree);
+                for (int i = 0; i < this.coefficients.limit(); i++) {
+                    output.writeDouble(this.coefficients.get(i));
+                }
+            }
+            try {
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            if (temporary != null && !temporary.delete()) {
+                temporary.deleteOnExit();
+            }
+            throw new PatriusException(e, PatriusMessages.UNABLE_TO_WRITE_FILE, file.getAbsolutePath(),
+                e.getMessage());
+        }
+    }
+
+    /**
+     * Get the start of the tabulated range.
+     *
+     * @return start of the tabulated range
+     */
+    public AbsoluteDate getStartDate() {
+        return this.start;
+    }
+
+    /**
+     * Get the end of the tabulated range.
+     *
+     * @return end of the tabulated range
+     */
+    public AbsoluteDate getEndDate() {
+        return this.end;
+    }
+
+    /**
+     * Get the duration of the segments.
+     *
+     * @return duration of the segments (s)
+     */
+    public double getSegmentDuration() {
+        return this.segmentDuration;
+    }
+
+    /**
+     * Get the degree of the Chebyshev polynomials.
+     *
+     * @return degree of the Chebyshev polynomials
+     */
+    public int getDegree() {
+        return this.degree;
+    }
+
+    /**
+     * Get the angular accuracy of the tabulation.
+     *
+     * @return angular accuracy of the tabulation (rad)
+     */
+    public double getAccuracy() {
+        return this.accuracy;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Transform getTransform(final AbsoluteDate date) throws PatriusException {
+        return this.getTransform(date, FramesFactory.getConfiguration(), false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Frames configuration is unused.
+     * </p>
+     */
+    @Override
+    public Transform getTransform(final AbsoluteDate date, final FramesConfiguration config) throws PatriusException {
+        return this.getTransform(date, config, false);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Transform getTransform(final AbsoluteDate date,
+                                  final boolean computeSpinDerivatives) throws PatriusException {
+        return this.getTransform(date, FramesFactory.getConfiguration(), computeSpinDerivatives);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Frames configuration is unused.
+     * </p>
+     */
+    @Override
+    public Transform getTransform(final AbsoluteDate date, final FramesConfiguration config,
+                                  final boolean computeSpinDerivatives) throws PatriusException {
+
+        // segment containing the date
+        final double dt = date.durationFrom(this.start);
+        int s = (int) MathLib.floor(dt / this.segmentDuration);
+        if (s == this.nbSegments && dt == this.nbSegments * this.segmentDuration) {
+            // end of the last segment
+            s--;
+        }
+        if (dt < 0 || s >= this.nbSegments) {
+            if (this.fallback == null) {
+                throw new PatriusException(PatriusMessages.OUT_OF_RANGE_TABULATED_TRANSFORM_DATE, date, this.start,
+                    this.end);
+            }
+            return this.fallback.getTransform(date, config, computeSpinDerivatives);
+        }
+
+        // Chebyshev polynomials (and derivatives) at reduced date
+        final int n = this.degree + 1;
+        final double x = 2 * (dt - s * this.segmentDuration) / this.segmentDuration - 1;
+        final double[] t = new double[n];
+        final double[] dT = new double[n];
+        chebyshev(x, t, dT);
+
+        // evaluate components
+        final double[] c = new double[COMPONENTS];
+        final int base = s * COMPONENTS * n;
+        for (int k = 0; k < COMPONENTS; k++) {
+            c[k] = this.evaluate(base + k * n, t);
+        }
+        Vector3D acceleration = null;
+        if (computeSpinDerivatives) {
+            final double scale = 2 / this.segmentDuration;
+            acceleration = new Vector3D(scale * this.evaluate(base + RATE * n, dT),
+                scale * this.evaluate(base + (RATE + 1) * n, dT), scale * this.evaluate(base + (RATE + 2) * n, dT));
+        }
+
+        final PVCoordinates cartesian = new PVCoordinates(new Vector3D(c[0], c[1], c[2]),
+            new Vector3D(c[3], c[4], c[5]));
+        final Rotation rotation = new Rotation(true, c[QUATERNION], c[QUATERNION + 1], c[QUATERNION + 2],
+            c[QUATERNION + 3]);
+        final Vector3D rate = new Vector3D(c[RATE], c[RATE + 1], c[RATE + 2]);
+        return new Transform(date, cartesian, new AngularCoordinates(rotation, rate, acceleration));
+    }
+
+    /**
+     * Evaluate a Chebyshev series.
+     *
+     * @param index
+     *        index of the first coefficient of the series
+     * @param t
+     *        Chebyshev polynomials values (or derivatives)
+     * @return series value
+     */
+    private double evaluate(final int index, final double[] t) {
+        double sum = 0;
+        for (int j = t.length - 1; j >= 0; j--) {
+            sum += this.coefficients.get(index + j) * t[j];
+        }
+        return sum;
+    }
+
+    /**
+     * Compute the Chebyshev polynomials and their derivatives.
+     *
+     * @param x
+     *        reduced date, in [-1, 1]
+     * @param t
+     *        placeholder for polynomials values
+     * @param dT
+     *        placeholder for polynomials derivatives with respect to x
+     */
+    private static void chebyshev(final double x, final double[] t, final double[] dT) {
+        t[0] = 1;
+        dT[0] = 0;
+        if (t.length > 1) {
+            t[1] = x;
+            dT[1] = 1;
+        }
+        for (int j = 2; j < t.length; j++) {
+            t[j] = 2 * x * t[j - 1] - t[j - 2];
+            dT[j] = 2 * t[j - 1] + 2 * x * dT[j - 1] - dT[j - 2];
+        }
+    }
+
+    /**
+     * Fit one segment and check its accuracy.
+     *
+     * @param provider
+     *        raw provider
+     * @param config
+     *        frames configuration
+     * @param segmentStart
+     *        start of the segment
+     * @param duration
+     *        duration of the segment
+     * @param n
+     *        number of coefficients per component
+     * @param coeffs
+     *        placeholder for the coefficients
+     * @param index
+     *        index of the first coefficient of the segment
+     * @param angularAccuracy
+     *        required angular accuracy
+     * @return true if the fitted rotation is accurate enough
+     * @exception PatriusException
+     *            if the raw provider fails
+     */
+    private static boolean fitSegment(final TransformProvider provider, final FramesConfiguration config,
+                                      final AbsoluteDate segmentStart, final double duration, final int n,
+                                      final double[] coeffs, final int index,
+                                      final double angularAccuracy) throws PatriusException {
+
+        // sample the raw provider at Chebyshev nodes
+        final double[][] values = new double[COMPONENTS][n];
+        double[] reference = null;
+        for (int k = 0; k < n; k++) {
+            final double x = MathLib.cos(FastMath.PI * (k + 0.5) / n);
+            final Transform transform = provider.getTransform(segmentStart.shiftedBy((x + 1) * duration / 2),
+                config, false);
+            final double[] q = transform.getRotation().getQi();
+            if (reference == null) {
+                reference = q;
+            } else if (q[0] * reference[0] + q[1] * reference[1] + q[2] * reference[2] + q[3] * reference[3] < 0) {
+                // keep quaternions in the same hemisphere for continuity
+                for (int i = 0; i < 4; i++) {
+                    q[i] = -q[i];
+                }
+            }
+            final Vector3D p = transform.getTranslation();
+            final Vector3D v = transform.getVelocity();
+            final Vector3D w = transform.getRotationRate();
+            final double[] sample = { p.getX(), p.getY(), p.getZ(), v.getX(), v.getY(), v.getZ(),
+                q[0], q[1], q[2], q[3], w.getX(), w.getY(), w.getZ() };
+            for (int c = 0; c < COMPONENTS; c++) {
+                values[c][k] = sample[c];
+            }
+        }
+
+        // discrete Chebyshev transform
+        for (int c = 0; c < COMPONENTS; c++) {
+            for (int j = 0; j < n; j++) {
+                double sum = 0;
+                for (int k = 0; k < n; k++) {
+                    sum += values[c][k] * MathLib.cos(FastMath.PI * j * (k + 0.5) / n);
+                }
+                coeffs[index + c * n + j] = (j == 0 ? 1. : 2.) * sum / n;
+            }
+        }
+
+        // check rotation accuracy between nodes (including segment boundaries)
+        final ChebyshevTransformProvider segment = new ChebyshevTransformProvider(segmentStart, duration, 1, n - 1,
+            angularAccuracy, DoubleBuffer.wrap(coeffs, index, COMPONENTS * n).slice(), null);
+        for (int k = 0; k <= n; k++) {
+            final AbsoluteDate date = segmentStart.shiftedBy((MathLib.cos(FastMath.PI * k / n) + 1) * duration / 2);
+            final Rotation raw = provider.getTransform(date, config, false).getRotation();
+            final Rotation fitted = segment.getTransform(date, config, false).getRotation();
+            if (Rotation.distance(raw, fitted) > angularAccuracy) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replace the instance with a data transfer object for serialization.
+     *
+     * @return data transfer object that will be serialized
+     */
+    private Object writeReplace() {
+        final double[] array = new double[this.coefficients.limit()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = this.coefficients.get(i);
+        }
+        return new DataTransferObject(this.start, this.segmentDuration, this.nbSegments, this.degree, this.accuracy,
+            array, this.fallback);
+    }
+
+    /** Internal class used only for serialization. */
+    private static final class DataTransferObject implements Serializable {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 2913506472731452958L;
+
+        /** Start of the tabulated range. */
+        private final AbsoluteDate start;
+
+        /** Duration of the segments (s). */
+        private final double segmentDuration;
+
+        /** Number of segments. */
+        private final int nbSegments;
+
+        /** Degree of the Chebyshev polynomials. */
+        private final int degree;
+
+        /** Angular accuracy of the tabulation (rad). */
+        private final double accuracy;
+
+        /** Chebyshev coefficients. */
+        private final double[] coefficients;
+
+        /** Provider used outside of the tabulated range (may be null). */
+        private final TransformProvider fallback;
+
+        /**
+         * Constructor.
+         *
+         * @param startIn
+         *        start of the tabulated range
+         * @param segmentDurationIn
+         *        duration of the segments
+         * @param nbSegmentsIn
+         *        number of segments
+         * @param degreeIn
+         *        degree of the Chebyshev polynomials
+         * @param accuracyIn
+         *        angular accuracy of the tabulation
+         * @param coefficientsIn
+         *        Chebyshev coefficients
+         * @param fallbackIn
+         *        provider used outside of the tabulated range (may be null)
+         */
+        private DataTransferObject(final AbsoluteDate startIn, final double segmentDurationIn,
+                                   final int nbSegmentsIn, final int degreeIn, final double accuracyIn,
+                                   final double[] coefficientsIn, final TransformProvider fallbackIn) {
+            this.start = startIn;
+            this.segmentDuration = segmentDurationIn;
+            this.nbSegments = nbSegmentsIn;
+            this.degree = degreeIn;
+            this.accuracy = accuracyIn;
+            this.coefficients = coefficientsIn;
+            this.fallback = fallbackIn;
+        }
+
+        /**
+         * Replace the deserialized data transfer object with a {@link ChebyshevTransformProvider}.
+         *
+         * @return replacement {@link ChebyshevTransformProvider}
+         */
+        private Object readResolve() {
+            return new ChebyshevTransformProvider(this.start, this.segmentDuration, this.nbSegments, this.degree,
+                this.accuracy, DoubleBuffer.wrap(this.coefficients), this.fallback);
+        }
+    }
+
+    /** Raw provider for the transform between two frames. */
+    private static final class FramesTransformProvider implements TransformProvider {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = -6040735113623712262L;
+
+        /** Origin frame. */
+        private final Frame origin;
+
+        /** Destination frame. */
+        private final Frame destination;
+
+        /**
+         * Constructor.
+         *
+         * @param originIn
+         *        origin frame
+         * @param destinationIn
+         *        destination frame
+         */
+        private FramesTransformProvider(final Frame originIn, final Frame destinationIn) {
+            this.origin = originIn;
+            this.destination = destinationIn;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Transform getTransform(final AbsoluteDate date) throws PatriusException {
+            return this.getTransform(date, FramesFactory.getConfiguration(), false);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Transform getTransform(final AbsoluteDate date,
+                                      final FramesConfiguration config) throws PatriusException {
+            return this.getTransform(date, config, false);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Transform getTransform(final AbsoluteDate date,
+                                      final boolean computeSpinDerivatives) throws PatriusException {
+            return this.getTransform(date, FramesFactory.getConfiguration(), computeSpinDerivatives);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Transform getTransform(final AbsoluteDate date, final FramesConfiguration config,
+                                      final boolean computeSpinDerivatives) throws PatriusException {
+            return this.origin.getTransformTo(this.destination, date, config, computeSpinDerivatives);
+        }
+    }
+}
@@ -24,6 +24,7 @@
 package fr.cnes.sirius.patrius.frames.transformations;
 
 import fr.cnes.sirius.patrius.bodies.CelestialBodyFactory;
+import fr.cnes.sirius.patrius.bodies.CelestialEphemerisSnapshot;
 import fr.cnes.sirius.patrius.frames.FramesFactory;
 import fr.cnes.sirius.patrius.frames.configuration.FramesConfiguration;
 import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Rotation;
@@ -118,8 +119,8 @@ public final class GCRFProvider implements TransformProvider {
     public Transform getTransform(final AbsoluteDate date, final FramesConfiguration config,
                                   final boolean computeSpinDerivatives) throws PatriusException {
         // Compulsory use of JPL ephemeris in order to link GCRF and its parent frame EMB
-        final PVCoordinates pv = CelestialBodyFactory.getEarthMoonBarycenter().getEphemeris().getPVCoordinates(date,
-            FramesFactory.getGCRF()).negate();
+        final PVCoordinates pv = CelestialEphemerisSnapshot.getPVCoordinates(
+            CelestialBodyFactory.getEarthMoonBarycenter().getEphemeris(), date, FramesFactory.getGCRF()).negate();
         final AngularCoordinates angular;
         if (computeSpinDerivatives) {
             angular = AngularCoordinates.IDENTITY;
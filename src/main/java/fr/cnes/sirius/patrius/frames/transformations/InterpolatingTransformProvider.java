@@ -173,7 +173,8 @@ public class InterpolatingTransformProvider implements TransformProvider {
         this.earliest = earliestIn;
         this.latest = latestIn;
         this.step = stepIn;
-        this.cache = new TimeStampedCache<>(gridPoints, maxSlots, maxSpan, newSlotInterval,
+        this.cache = new TimeStampedCache<>(InterpolatingTransformProvider.class.getName(), gridPoints, maxSlots,
+            maxSpan, newSlotInterval,
             new Generator(computeSpinDerivatives), Transform.class);
     }
 
@@ -1050,6 +1050,45 @@ public class Transform implements TimeStamped, TimeShiftable<Transform>, TimeInt
         return this.angular.applyTo(new PVCoordinates(1, pv, -1, this.cartesian));
     }
 
+    /**
+     * Transform positions and velocities stored in primitive arrays including kinematic effects, in place.
+     * <p>
+     * This is equivalent to calling {@link #transformPVCoordinates(PVCoordinates)} on each (position, velocity)
+     * couple (or {@link #transformPosition(Vector3D)} on each position if velocities are not provided), without
+     * building any intermediate object. Coordinates are stored as consecutive (x, y, z) triplets: the coordinates of
+     * point i are stored at indices 3i, 3i + 1 and 3i + 2.
+     * </p>
+     *
+     * @param positions
+     *        positions to transform, replaced by the transformed positions
+     * @param velocities
+     *        velocities to transform, replaced by the transformed velocities (may be null if only positions are
+     *        needed)
+     * @param from
+     *        index of the first point to transform (inclusive)
+     * @param to
+     *        index of the last point to transform (exclusive)
+     * @since 4.14
+     */
+    public void transformPVCoordinates(final double[] positions, final double[] velocities, final int from,
+                                       final int to) {
+        // translation
+        final Vector3D p = this.cartesian.getPosition();
+        final Vector3D v = this.cartesian.getVelocity();
+        for (int i = 3 * from; i < 3 * to; i += 3) {
+            positions[i] -= p.getX();
+            positions[i + 1] -= p.getY();
+            positions[i + 2] -= p.getZ();
+            if (velocities != null) {
+                velocities[i] -= v.getX();
+                velocities[i + 1] -= v.getY();
+                velocities[i + 2] -= v.getZ();
+            }
+        }
+        // rotation
+        this.angular.applyTo(positions, velocities, from, to);
+    }
+
     /**
      * Transform {@link TimeStampedPVCoordinates} including kinematic effects.
      * <p>
@@ -1294,6 +1333,13 @@ public class Transform implements TimeStamped, TimeShiftable<Transform>, TimeInt
             return pv;
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public void transformPVCoordinates(final double[] positions, final double[] velocities, final int from,
+                                           final int to) {
+            // nothing to do
+        }
+
         /** {@inheritDoc} */
         @Override
         public void getJacobian(final double[][] jacobian) {
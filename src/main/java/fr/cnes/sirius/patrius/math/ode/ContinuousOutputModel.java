@@ -378,6 +378,40 @@ public class ContinuousOutputModel
         return this.steps.get(this.index).getInterpolatedState();
     }
 
+    /**
+     * Get the state vector at some time without changing the interpolated point of the model.
+     * <p>
+     * The step containing the time is copied before being set to the time, hence the model is not modified and
+     * this method can be called concurrently once the integration is over. The same remarks as for
+     * {@link #setInterpolatedTime(double)} apply to times outside of the integration interval.
+     * </p>
+     * 
+     * @param time
+     *        time of the interpolated point
+     * @return state vector at the given time
+     * @exception MaxCountExceededException
+     *            if the number of functions evaluations is exceeded
+     * @since 4.14
+     */
+    public double[] getInterpolatedState(final double time) {
+        // search the first step which does not end before the time
+        int iMin = 0;
+        int iMax = this.steps.size() - 1;
+        while (iMin < iMax) {
+            final int iMed = (iMin + iMax) >>> 1;
+            if (this.locatePoint(time, this.steps.get(iMed)) > 0) {
+                iMin = iMed + 1;
+            } else {
+                iMax = iMed;
+            }
+        }
+
+        // interpolate on a private copy of the step
+        final StepInterpolator step = this.steps.get(iMin).copy();
+        step.setInterpolatedTime(time);
+        return step.getInterpolatedState();
+    }
+
     /**
      * Compare a step interval and a double.
      * 
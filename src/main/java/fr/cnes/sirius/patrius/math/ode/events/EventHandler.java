@@ -38,6 +38,7 @@
 package fr.cnes.sirius.patrius.math.ode.events;
 
 import fr.cnes.sirius.patrius.events.detectors.LocalTimeAngleDetector;
+import fr.cnes.sirius.patrius.math.ode.sampling.StepInterpolator;
 import fr.cnes.sirius.patrius.propagation.SpacecraftState;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 
@@ -280,4 +281,26 @@ public interface EventHandler {
      *         EventHandler.INCREASING_DECREASING (2): events related to both increasing and decreasing g-function.
      */
     int getSlopeSelection();
+
+    /**
+     * Check whether the switching function may change sign over an integration step.
+     * <p>
+     * This method is called before sampling the switching function over a step. If it returns false, the switching
+     * function is not evaluated at all over the step and no event is searched. Implementations must therefore only
+     * return false if the switching function sign is guaranteed to remain the same over the whole step.
+     * </p>
+     * <p>
+     * By default, this method returns true: the switching function is always sampled.
+     * </p>
+     * 
+     * @param t0
+     *        step start time
+     * @param interpolator
+     *        step interpolator, its current time being the step end time
+     * @return false if the switching function sign is guaranteed to remain the same over the step, true otherwise
+     * @since 4.14
+     */
+    default boolean isSignChangePossible(final double t0, final StepInterpolator interpolator) {
+        return true;
+    }
 }
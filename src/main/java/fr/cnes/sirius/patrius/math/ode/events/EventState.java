@@ -368,6 +368,13 @@ public class EventState {
                 return false;
             }
 
+            if (this.g0 != 0 && !this.handler.isSignChangePossible(this.t0, interpolator)) {
+                // The handler guarantees there is no sign change during the whole step
+                this.pendingEvent = false;
+                this.pendingEventTime = Double.NaN;
+                return false;
+            }
+
             final UnivariateFunction f = new UnivariateFunction() {
                 /** Serializable UID. */
                 private static final long serialVersionUID = 3652585541755862494L;
@@ -37,6 +37,7 @@ import fr.cnes.sirius.patrius.math.utils.BinarySearchIndexClosedOpen;
 import fr.cnes.sirius.patrius.math.utils.ISearchIndex;
 import fr.cnes.sirius.patrius.propagation.SpacecraftState;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.AbsoluteDateArray;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
 
@@ -293,6 +294,24 @@ public abstract class AbstractBoundedPVProvider implements PVCoordinatesProvider
         return this.tDate[this.tDate.length - (this.polyOrder / 2)];
     }
 
+    /**
+     * Returns the search index to use for a dates grid: the given one if not null, otherwise a
+     * {@link BinarySearchIndexClosedOpen} based on the durations since the first date, computed in bulk.
+     * 
+     * @param dates
+     *        dates grid
+     * @param algo
+     *        user search index (may be null)
+     * @return search index to use (null only if algo is null and the grid is empty)
+     * @since 4.14
+     */
+    protected static ISearchIndex searchIndex(final AbsoluteDateArray dates, final ISearchIndex algo) {
+        if (algo != null || dates.size() == 0) {
+            return algo;
+        }
+        return new BinarySearchIndexClosedOpen(dates.durationFrom(dates.get(0)));
+    }
+
     /**
      * Check consistency of constructor parameters : {@code tabPV} and {@code tabDate} size shall be equals.
      * 
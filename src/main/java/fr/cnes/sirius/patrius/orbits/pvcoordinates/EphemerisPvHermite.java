@@ -38,6 +38,7 @@ import fr.cnes.sirius.patrius.math.utils.BinarySearchIndexOpenClosed;
 import fr.cnes.sirius.patrius.math.utils.ISearchIndex;
 import fr.cnes.sirius.patrius.propagation.SpacecraftState;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.AbsoluteDateArray;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
 
@@ -109,6 +110,30 @@ public class EphemerisPvHermite extends AbstractBoundedPVProvider {
         this.tAcc = tabAcc;
     }
 
+    /**
+     * Creates an instance of EphemerisPvHermite from a dates grid stored in primitive arrays.
+     * 
+     * @param tabPV
+     *        position velocity coordinates table
+     * @param samples
+     *        number of samples used for interpolation. It must be even.
+     * @param tabAcc
+     *        acceleration table (can be null)
+     * @param frame
+     *        coordinates expression frame
+     * @param dates
+     *        dates for each position velocity
+     * @param algo
+     *        class to find the nearest date index from a given date in the date table
+     *        (If null, algo will be, by default, a {@link BinarySearchIndexOpenClosed} based on a table of duration
+     *        since the first date of the dates table)
+     * @since 4.14
+     */
+    public EphemerisPvHermite(final PVCoordinates[] tabPV, final int samples, final Vector3D[] tabAcc,
+        final Frame frame, final AbsoluteDateArray dates, final ISearchIndex algo) {
+        this(tabPV, samples, tabAcc, frame, dates.toArray(), searchIndex(dates, algo));
+    }
+
     /**
      * Creates an instance of EphemerisPvHermite from a SpacecraftState table
      * 
@@ -37,6 +37,7 @@ import fr.cnes.sirius.patrius.math.utils.BinarySearchIndexOpenClosed;
 import fr.cnes.sirius.patrius.math.utils.ISearchIndex;
 import fr.cnes.sirius.patrius.propagation.SpacecraftState;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.AbsoluteDateArray;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 
 /**
@@ -94,6 +95,32 @@ public class EphemerisPvLagrange extends AbstractBoundedPVProvider {
         super(tabPV, order, frame, tabDate, algo);
     }
 
+    /**
+     * Creates an instance of EphemerisPvLagrange from a dates grid stored in primitive arrays.
+     * 
+     * @param tabPV
+     *        position velocity coordinates table
+     * @param order
+     *        interpolation order
+     * @param frame
+     *        coordinates expression frame
+     * @param dates
+     *        dates for each position velocity
+     * @param algo
+     *        class to find the nearest date index from a given date in the date table.
+     *        (If null, algo will be {@link BinarySearchIndexOpenClosed} by default
+     *        based on a table of duration since the first date of the dates table)
+     * 
+     * @throws IllegalArgumentException
+     *         if parameters are not consistent,
+     *         see {@link AbstractBoundedPVProvider}.
+     * @since 4.14
+     */
+    public EphemerisPvLagrange(final PVCoordinates[] tabPV, final int order,
+        final Frame frame, final AbsoluteDateArray dates, final ISearchIndex algo) {
+        super(tabPV, order, frame, dates.toArray(), searchIndex(dates, algo));
+    }
+
     /**
      * Creates an instance of EphemerisPvLagrange from a spacecraftstate list
      * 
@@ -0,0 +1,100 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.propagation;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import fr.cnes.sirius.patrius.attitudes.AttitudeProvider;
+import fr.cnes.sirius.patrius.orbits.Orbit;
+import fr.cnes.sirius.patrius.propagation.numerical.AdditionalStateInfo;
+
+/**
+ * Additional states storage reused from one derivatives computation to the next.
+ * <p>
+ * The storage owns the additional states map and its arrays: the spacecraft states it builds use them without copy.
+ * Such a state is consistent only until the next call to
+ * {@link #buildState(double[], Orbit, AttitudeProvider, AttitudeProvider)}, hence it must not be retained (see
+ * {@link fr.cnes.sirius.patrius.propagation.numerical.NumericalPropagator#setDerivativesStateReuse(boolean)}).
+ * </p>
+ *
+ * @concurrency not thread-safe
+ *
+ * @concurrency.comment the storage is updated in place at each call
+ *
+ * @since 4.14
+ */
+public final class AdditionalStatesStorage {
+
+    /** Additional states map, shared by the built states. */
+    private final TreeMap<String, double[]> view;
+
+    /** Additional states arrays, in the order of {@link #indices}. */
+    private final double[][] buffers;
+
+    /** Index of each additional state in the state vector. */
+    private final int[] indices;
+
+    /**
+     * Constructor.
+     *
+     * @param addStatesInfo
+     *        additional states informations
+     */
+    public AdditionalStatesStorage(final Map<String, AdditionalStateInfo> addStatesInfo) {
+        final int size = addStatesInfo.size();
+        this.view = new TreeMap<>();
+        this.buffers = new double[size][];
+        this.indices = new int[size];
+        int i = 0;
+        for (final Entry<String, AdditionalStateInfo> entry : addStatesInfo.entrySet()) {
+            this.buffers[i] = new double[entry.getValue().getSize()];
+            this.indices[i] = entry.getValue().getIndex();
+            this.view.put(entry.getKey(), this.buffers[i]);
+            i++;
+        }
+    }
+
+    /**
+     * Update the storage from a state vector and build the corresponding spacecraft state.
+     * <p>
+     * The returned state uses the storage without copy: it is consistent only until the next call.
+     * </p>
+     *
+     * @param y
+     *        state vector
+     * @param orbit
+     *        orbit
+     * @param attProviderForces
+     *        the attitude provider for forces computation
+     * @param attProviderEvents
+     *        the attitude provider for events computation
+     * @return the spacecraft state
+     */
+    public SpacecraftState buildState(final double[] y, final Orbit orbit, final AttitudeProvider attProviderForces,
+                                      final AttitudeProvider attProviderEvents) {
+        for (int i = 0; i < this.buffers.length; i++) {
+            final double[] buffer = this.buffers[i];
+            System.arraycopy(y, this.indices[i], buffer, 0, buffer.length);
+        }
+        return new SpacecraftState(orbit, this.view, attProviderForces, attProviderEvents);
+    }
+}
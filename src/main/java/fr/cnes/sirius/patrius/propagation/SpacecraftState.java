@@ -677,6 +677,42 @@ public class SpacecraftState implements TimeStamped, TimeShiftable<SpacecraftSta
         checkConsistency(this.attitude, this.attitudeEvents);
     }
 
+    /**
+     * Build a spacecraft state from an orbit and an additional states map which is used as a view: neither the map
+     * nor its arrays are copied.
+     * <p>
+     * This constructor is reserved to {@link AdditionalStatesStorage}, which owns the map and its arrays and reuses
+     * them from one derivatives computation to the next.
+     * </p>
+     * <p>
+     * As for {@link #SpacecraftState(double[], OrbitType, PositionAngle, AbsoluteDate, double, Frame, Map,
+     * AttitudeProvider, AttitudeProvider)}, attitudes stored in the additional states ("ATTITUDE_FORCES",
+     * "ATTITUDE_EVENTS" or "ATTITUDE") take precedence over the attitude providers.
+     * </p>
+     *
+     * @param orbitIn
+     *        the orbit
+     * @param addStatesView
+     *        the additional states map, used without copy
+     * @param attProviderForces
+     *        the attitude provider for forces computation
+     * @param attProviderEvents
+     *        the attitude provider for events computation
+     */
+    SpacecraftState(final Orbit orbitIn, final TreeMap<String, double[]> addStatesView,
+                    final AttitudeProvider attProviderForces, final AttitudeProvider attProviderEvents) {
+        this.orbit = orbitIn;
+        this.additionalStates = addStatesView;
+        this.attitudeProvider = attProviderForces;
+        this.attitudeProviderEvents = attProviderEvents;
+        this.attitude = null;
+        this.attitudeEvents = null;
+
+        // get attitudes for forces and events computation from additional states list
+        this.updateAttitudes(orbitIn.getDate(), orbitIn.getFrame());
+        checkConsistency(this.attitude, this.attitudeEvents);
+    }
+
     /**
      * Add the values of mass parts from MassProvider to additional states map.
      * <p>
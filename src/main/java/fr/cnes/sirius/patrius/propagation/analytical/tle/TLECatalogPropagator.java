@@ -0,0 +1,273 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.propagation.analytical.tle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.AbsoluteDateArray;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelUtils;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelUtils.RangeTask;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Catalogue-level TLE propagator: propagates a whole catalogue of TLEs to a common dates grid.
+ * <p>
+ * The {@link SGP4}/{@link DeepSDP4} models of all objects are initialized once at construction (possibly
+ * concurrently), and can then be evaluated on any number of dates grids. Positions and velocities are written into
+ * primitive arrays, without intermediate objects allocation. Objects are propagated concurrently on a fork-join pool,
+ * each object being handled by one thread at a time. Results are exactly the same as the ones returned by
+ * {@link TLEPropagator#getPVCoordinates(AbsoluteDate)}.
+ * </p>
+ * <p>
+ * The catalogue can be built from {@link TLE} objects or directly from TLE elements given in structure-of-arrays form
+ * (see {@link #fromElements(int[], AbsoluteDate[], double[], double[], double[], double[], double[], double[], double[],
+ * int)}).
+ * </p>
+ * <p>
+ * Results are stored in object-major order: position and velocity of object {@code k} at date {@code j} are stored at
+ * indices {@code 3 * (k * nbDates + j)} to {@code 3 * (k * nbDates + j) + 2} of the positions and velocities arrays.
+ * They are expressed in {@link FramesFactory#getTEME() TEME frame}.
+ * </p>
+ *
+ * @concurrency not thread-safe
+ *
+ * @concurrency.comment the underlying TLE propagators are mutable: a given instance must not be used by several
+ *                      threads at the same time
+ *
+ * @see TLEPropagator
+ *
+ * @since 4.14
+ */
+public class TLECatalogPropagator {
+
+    /** TLE propagators. */
+    private final TLEPropagator[] propagators;
+
+    /** Maximal number of threads. */
+    private final int parallelism;
+
+    /**
+     * Constructor.
+     *
+     * @param tles
+     *        catalogue TLEs
+     * @param nbThreads
+     *        maximal number of threads used for initialization and propagation (values lower than 1 are replaced by 1)
+     * @throws PatriusException
+     *         if the propagation model of one TLE cannot be initialized
+     */
+    public TLECatalogPropagator(final List<TLE> tles, final int nbThreads) throws PatriusException {
+        this.parallelism = MathLib.max(1, nbThreads);
+        this.propagators = new TLEPropagator[tles.size()];
+        this.run(this.propagators.length, (start, end) -> {
+            for (int k = start; k < end; k++) {
+                this.propagators[k] = TLEPropagator.selectExtrapolator(tles.get(k));
+            }
+        });
+    }
+
+    /**
+     * Build a catalogue propagator from TLE elements given in structure-of-arrays form.
+     * <p>
+     * All arrays must have the same length, the element {@code k} of each array refers to object {@code k}. Angles
+     * and mean motion follow the {@link TLE} conventions.
+     * </p>
+     *
+     * @param satelliteNumbers
+     *        satellite numbers
+     * @param epochs
+     *        elements epochs
+     * @param meanMotions
+     *        mean motions (rad/s)
+     * @param eccentricities
+     *        eccentricities
+     * @param inclinations
+     *        inclinations (rad)
+     * @param perigeeArguments
+     *        arguments of perigee (rad)
+     * @param raans
+     *        right ascensions of ascending node (rad)
+     * @param meanAnomalies
+     *        mean anomalies (rad)
+     * @param bStars
+     *        ballistic coefficients
+     * @param nbThreads
+     *        maximal number of threads used for initialization and propagation (values lower than 1 are replaced by 1)
+     * @return catalogue propagator
+     * @throws PatriusException
+     *         if arrays lengths are not consistent or if the propagation model of one TLE cannot be initialized
+     */
+    public static TLECatalogPropagator fromElements(final int[] satelliteNumbers, final AbsoluteDate[] epochs,
+                                                    final double[] meanMotions, final double[] eccentricities,
+                                                    final double[] inclinations, final double[] perigeeArguments,
+                                                    final double[] raans, final double[] meanAnomalies,
+                                                    final double[] bStars, final int nbThreads)
+        throws PatriusException {
+        final int n = satelliteNumbers.length;
+        for (final int length : new int[] { epochs.length, meanMotions.length, eccentricities.length,
+            inclinations.length, perigeeArguments.length, raans.length, meanAnomalies.length, bStars.length }) {
+            if (length != n) {
+                throw new PatriusException(PatriusMessages.DIMENSIONS_MISMATCH_SIMPLE, length, n);
+            }
+        }
+        final List<TLE> tles = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) {
+            tles.add(new TLE(satelliteNumbers[k], 'U', 0, 0, "", 0, 0, epochs[k], meanMotions[k], 0., 0.,
+                eccentricities[k], inclinations[k], perigeeArguments[k], raans[k], meanAnomalies[k], 0, bStars[k]));
+        }
+        return new TLECatalogPropagator(tles, nbThreads);
+    }
+
+    /**
+     * Get the number of objects in the catalogue.
+     *
+     * @return the number of objects
+     */
+    public int size() {
+        return this.propagators.length;
+    }
+
+    /**
+     * Get the TLE of an object.
+     *
+     * @param index
+     *        object index
+     * @return the TLE of the object
+     */
+    public TLE getTLE(final int index) {
+        return this.propagators[index].getTLE();
+    }
+
+    /**
+     * Get the frame of the computed positions and velocities.
+     *
+     * @return TEME frame
+     * @throws PatriusException
+     *         if the TEME frame cannot be built
+     */
+    public Frame getFrame() throws PatriusException {
+        return FramesFactory.getTEME();
+    }
+
+    /**
+     * Propagate all objects on a dates grid.
+     * <p>
+     * If the propagation of an object fails at some date (too large eccentricity, decayed object...), the
+     * corresponding positions and velocities are set to {@link Double#NaN} and the object index is returned.
+     * </p>
+     *
+     * @param dates
+     *        dates grid
+     * @param positions
+     *        array filled with positions (m), of length at least {@code 3 * size() * dates.length}
+     * @param velocities
+     *        array filled with velocities (m/s), of length at least {@code 3 * size() * dates.length}
+     * @return sorted indices of the objects whose propagation failed for at least one date (empty if all objects
+     *         have been propagated)
+     * @throws PatriusException
+     *         if arrays are too small or if propagation is interrupted
+     */
+    public int[] propagate(final AbsoluteDate[] dates, final double[] positions,
+                           final double[] velocities) throws PatriusException {
+        return this.propagate(new AbsoluteDateArray(dates), positions, velocities);
+    }
+
+    /**
+     * Propagate all objects on a dates grid stored in primitive arrays.
+     * <p>
+     * If the propagation of an object fails at some date (too large eccentricity, decayed object...), the
+     * corresponding positions and velocities are set to {@link Double#NaN} and the object index is returned.
+     * </p>
+     *
+     * @param dates
+     *        dates grid
+     * @param positions
+     *        array filled with positions (m), of length at least {@code 3 * size() * dates.size()}
+     * @param velocities
+     *        array filled with velocities (m/s), of length at least {@code 3 * size() * dates.size()}
+     * @return sorted indices of the objects whose propagation failed for at least one date (empty if all objects
+     *         have been propagated)
+     * @throws PatriusException
+     *         if arrays are too small or if propagation is interrupted
+     */
+    public int[] propagate(final AbsoluteDateArray dates, final double[] positions,
+                           final double[] velocities) throws PatriusException {
+
+        final int nbDates = dates.size();
+        final int size = 3 * this.propagators.length * nbDates;
+        if (positions.length < size || velocities.length < size) {
+            throw new PatriusException(PatriusMessages.DIMENSIONS_MISMATCH_SIMPLE,
+                MathLib.min(positions.length, velocities.length), size);
+        }
+
+        final boolean[] failed = new boolean[this.propagators.length];
+        this.run(this.propagators.length, (start, end) -> {
+            final double[] pv = new double[6];
+            for (int k = start; k < end; k++) {
+                final TLEPropagator propagator = this.propagators[k];
+                int index = 3 * k * nbDates;
+                for (int j = 0; j < nbDates; j++) {
+                    try {
+                        propagator.getPVCoordinates(dates, j, pv);
+                        System.arraycopy(pv, 0, positions, index, 3);
+                        System.arraycopy(pv, 3, velocities, index, 3);
+                    } catch (final PatriusException e) {
+                        // Object cannot be propagated at this date
+                        Arrays.fill(positions, index, index + 3, Double.NaN);
+                        Arrays.fill(velocities, index, index + 3, Double.NaN);
+                        failed[k] = true;
+                    }
+                    index += 3;
+                }
+            }
+        });
+
+        // Failed objects
+        int nbFailed = 0;
+        final int[] indices = new int[this.propagators.length];
+        for (int k = 0; k < failed.length; k++) {
+            if (failed[k]) {
+                indices[nbFailed++] = k;
+            }
+        }
+        return Arrays.copyOf(indices, nbFailed);
+    }
+
+    /**
+     * Run a task on contiguous ranges of objects, concurrently if more than one thread is allowed.
+     *
+     * @param n
+     *        number of objects
+     * @param task
+     *        task to run
+     * @throws PatriusException
+     *         if the task fails or if it is interrupted
+     */
+    private void run(final int n, final RangeTask task) throws PatriusException {
+        ParallelUtils.run(n, 1, this.parallelism, task, PatriusMessages.TLE_CATALOG_PROPAGATION_INTERRUPTED);
+    }
+}
@@ -45,6 +45,7 @@ import fr.cnes.sirius.patrius.propagation.AbstractPropagator;
 import fr.cnes.sirius.patrius.propagation.MassProvider;
 import fr.cnes.sirius.patrius.propagation.SpacecraftState;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.AbsoluteDateArray;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
 import fr.cnes.sirius.patrius.utils.exception.PropagationException;
@@ -457,6 +458,25 @@ public abstract class TLEPropagator extends AbstractPropagator {
 
     }
 
+    /**
+     * Get the extrapolated position and velocity from an initial TLE, without intermediate objects allocation.
+     * 
+     * @param dates
+     *        dates grid
+     * @param index
+     *        index of the final date in the grid
+     * @param pv
+     *        array filled with the position (m) and velocity (m/s) coordinates (x, y, z, vx, vy, vz) in TEME frame
+     * @exception PatriusException
+     *            if propagation cannot be performed at given date
+     * @since 4.14
+     */
+    void getPVCoordinates(final AbsoluteDateArray dates, final int index, final double[] pv)
+        throws PatriusException {
+        this.sxpPropagate(dates.durationFrom(index, this.tle.getDate()) / 60.0);
+        this.computePVCoordinates(pv);
+    }
+
     /**
      * Retrieves the position and velocity.
      * 
@@ -465,8 +485,23 @@ public abstract class TLEPropagator extends AbstractPropagator {
      *            if current orbit is out of supported range
      *            (too large eccentricity, too low perigee ...)
      */
-    // CHECKSTYLE: stop MethodLength check
     private PVCoordinates computePVCoordinates() throws PatriusException {
+        final double[] pv = new double[6];
+        this.computePVCoordinates(pv);
+        return new PVCoordinates(new Vector3D(pv[0], pv[1], pv[2]), new Vector3D(pv[3], pv[4], pv[5]));
+    }
+
+    /**
+     * Retrieves the position and velocity.
+     * 
+     * @param pv
+     *        array filled with the position (m) and velocity (m/s) coordinates (x, y, z, vx, vy, vz)
+     * @exception PatriusException
+     *            if current orbit is out of supported range
+     *            (too large eccentricity, too low perigee ...)
+     */
+    // CHECKSTYLE: stop MethodLength check
+    private void computePVCoordinates(final double[] pv) throws PatriusException {
         // CHECKSTYLE: resume MethodLength check
 
         if (this.e > (1 - E_LIM)) {
@@ -572,7 +607,9 @@ public abstract class TLEPropagator extends AbstractPropagator {
 
         // Position and velocity
         final double cr = 1000 * rk * TLEConstants.EARTH_RADIUS;
-        final Vector3D pos = new Vector3D(cr * ux, cr * uy, cr * uz);
+        pv[0] = cr * ux;
+        pv[1] = cr * uy;
+        pv[2] = cr * uz;
 
         final double rdot = TLEConstants.XKE * MathLib.sqrt(this.a) * esinE / r;
         final double rfdot = TLEConstants.XKE * MathLib.sqrt(MathLib.max(0.0, pl)) / r;
@@ -584,12 +621,9 @@ public abstract class TLEPropagator extends AbstractPropagator {
         final double vz = sinik * cosuk;
 
         final double cv = 1000.0 * TLEConstants.EARTH_RADIUS / 60.0;
-        final Vector3D vel = new Vector3D(cv * (rdotk * ux + rfdotk * vx),
-            cv * (rdotk * uy + rfdotk * vy),
-            cv * (rdotk * uz + rfdotk * vz));
-
-        // Return result
-        return new PVCoordinates(pos, vel);
+        pv[3] = cv * (rdotk * ux + rfdotk * vx);
+        pv[4] = cv * (rdotk * uy + rfdotk * vy);
+        pv[5] = cv * (rdotk * uz + rfdotk * vz);
     }
 
     /**
@@ -0,0 +1,128 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.propagation.numerical;
+
+import java.util.Arrays;
+
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.tools.parallel.AbstractSimpleParallelTaskImpl;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelException;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelResult;
+import fr.cnes.sirius.patrius.utils.exception.PropagationException;
+
+/**
+ * {@link fr.cnes.sirius.patrius.tools.parallel.ParallelTask ParallelTask} propagating one member of an
+ * {@link EnsemblePropagator}.
+ * <p>
+ * Instances are built by {@link EnsemblePropagator#getTaskFactory(SpacecraftState, AbsoluteDate)}. The result of the
+ * task holds the final date offset, position and velocity of the member in the propagation frame.
+ * </p>
+ *
+ * @concurrency not thread-safe
+ *
+ * @concurrency.comment each instance is meant to be run once by a
+ *                      {@link fr.cnes.sirius.patrius.tools.parallel.ParallelRunner ParallelRunner}
+ *
+ * @see EnsemblePropagator
+ *
+ * @since 4.14
+ */
+public class EnsemblePropagationTask extends AbstractSimpleParallelTaskImpl {
+
+    /** Ensemble propagator. */
+    private final EnsemblePropagator ensemble;
+
+    /** Initial state of the member. */
+    private final SpacecraftState initialState;
+
+    /** Target date. */
+    private final AbsoluteDate target;
+
+    /**
+     * Constructor.
+     *
+     * @param iid
+     *        task instance id
+     * @param ensembleIn
+     *        ensemble propagator
+     * @param initialStateIn
+     *        initial state of the member
+     * @param targetIn
+     *        target date
+     */
+    public EnsemblePropagationTask(final int iid, final EnsemblePropagator ensembleIn,
+                                   final SpacecraftState initialStateIn, final AbsoluteDate targetIn) {
+        super(iid);
+        this.ensemble = ensembleIn;
+        this.initialState = initialStateIn;
+        this.target = targetIn;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected ParallelResult callImpl() {
+        try {
+            final SpacecraftState finalState = this.ensemble.propagate(this.initialState, this.target);
+            return new EnsembleMemberResult(finalState.getDate().durationFrom(this.initialState.getDate()),
+                finalState.getPVCoordinates());
+        } catch (final PropagationException e) {
+            throw new ParallelException(e);
+        }
+    }
+
+    /**
+     * Result of an {@link EnsemblePropagationTask}.
+     */
+    public static final class EnsembleMemberResult implements ParallelResult {
+
+        /** Result data: duration, position and velocity. */
+        private final double[][] data;
+
+        /**
+         * Constructor.
+         *
+         * @param duration
+         *        propagation duration (s)
+         * @param pv
+         *        final position-velocity in propagation frame
+         */
+        public EnsembleMemberResult(final double duration, final PVCoordinates pv) {
+            this.data = new double[][] { { duration }, pv.getPosition().toArray(), pv.getVelocity().toArray() };
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[][] getDataAsArray() {
+            final double[][] copy = new double[this.data.length][];
+            for (int i = 0; i < this.data.length; i++) {
+                copy[i] = this.data[i].clone();
+            }
+            return copy;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean resultEquals(final ParallelResult other) {
+            return Arrays.deepEquals(this.data, other.getDataAsArray());
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.propagation.numerical;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelTaskFactory;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelUtils;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+import fr.cnes.sirius.patrius.utils.exception.PropagationException;
+
+/**
+ * Ensemble (Monte-Carlo) propagator: propagates a collection of initial {@link SpacecraftState} to a common target
+ * date with {@link NumericalPropagator numerical propagators} running concurrently on a fork-join pool.
+ * <p>
+ * Since {@link NumericalPropagator} is not thread-safe, one propagator is built for each ensemble member through the
+ * user-provided {@link PropagatorBuilder}. The builder is the place where immutable force-model data (gravity field
+ * coefficients, atmosphere model, ephemerides...) are shared between members: these data should be loaded once,
+ * outside the builder, and only wrapped into new force models by the builder. Mutable objects (mass model,
+ * assembly, event detectors, step handlers) must on the contrary be created by the builder for each member.
+ * </p>
+ * <p>
+ * Results are delivered in a streaming way to an {@link EnsembleResultHandler} as soon as each member has been
+ * propagated, or gathered in a list with {@link #propagate(Collection, AbsoluteDate)}. Each member can also be wrapped
+ * in a {@link fr.cnes.sirius.patrius.tools.parallel.ParallelTask ParallelTask} (see
+ * {@link #getTaskFactory(SpacecraftState, AbsoluteDate)}) in order to check with a
+ * {@link fr.cnes.sirius.patrius.tools.parallel.ParallelRunner ParallelRunner} that the data shared by the builder are
+ * actually thread-safe.
+ * </p>
+ *
+ * <p>
+ * Typical use:
+ * </p>
+ *
+ * <pre>
+ * final EnsemblePropagator ensemble = new EnsemblePropagator(() -&gt; {
+ *     final NumericalPropagator propagator = new NumericalPropagator(new DormandPrince853Integrator(...));
+ *     propagator.addForceModel(new DirectBodyAttraction(new CunninghamGravityModel(frame, ae, mu, c, s)));
+ *     return propagator;
+ * });
+ * ensemble.propagate(samples, target, (index, initial, end) -&gt; store(index, end));
+ * </pre>
+ *
+ * @concurrency conditionally thread-safe
+ *
+ * @concurrency.comment thread-safe if the provided builder is thread-safe
+ *
+ * @see EnsembleResultHandler
+ * @see EnsemblePropagationTask
+ *
+ * @since 4.14
+ */
+public class EnsemblePropagator {
+
+    /** Builder of numerical propagators. */
+    private final PropagatorBuilder builder;
+
+    /** Number of threads used for propagation. */
+    private final int parallelism;
+
+    /**
+     * Constructor using as many threads as available processors.
+     *
+     * @param propagatorBuilder
+     *        builder of the numerical propagator used for each ensemble member
+     */
+    public EnsemblePropagator(final PropagatorBuilder propagatorBuilder) {
+        this(propagatorBuilder, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param propagatorBuilder
+     *        builder of the numerical propagator used for each ensemble member
+     * @param parallelismIn
+     *        number of threads used for propagation (values lower than 1 are replaced by 1)
+     */
+    public EnsemblePropagator(final PropagatorBuilder propagatorBuilder, final int parallelismIn) {
+        this.builder = propagatorBuilder;
+        this.parallelism = MathLib.max(1, parallelismIn);
+    }
+
+    /**
+     * Getter for the number of threads used for propagation.
+     *
+     * @return the number of threads used for propagation
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Propagate a single ensemble member, in the calling thread.
+     *
+     * @param initialState
+     *        initial state of the member
+     * @param target
+     *        target date
+     * @return the state at the target date (or at the date propagation was stopped by an event)
+     * @throws PropagationException
+     *         if the propagator cannot be built or if the state cannot be propagated
+     */
+    public SpacecraftState propagate(final SpacecraftState initialState,
+                                     final AbsoluteDate target) throws PropagationException {
+        final NumericalPropagator propagator;
+        try {
+            propagator = this.builder.buildPropagator();
+        } catch (final PropagationException pe) {
+            throw pe;
+        } catch (final PatriusException e) {
+            throw new PropagationException(e);
+        }
+        propagator.setInitialState(initialState);
+        return propagator.propagate(target);
+    }
+
+    /**
+     * Propagate all the ensemble members and return the final states.
+     *
+     * @param initialStates
+     *        initial states of the members
+     * @param target
+     *        target date
+     * @return final states, in the iteration order of the initial states collection
+     * @throws PropagationException
+     *         if one member cannot be propagated or if propagation is interrupted
+     */
+    public List<SpacecraftState> propagate(final Collection<SpacecraftState> initialStates,
+                                           final AbsoluteDate target) throws PropagationException {
+        final SpacecraftState[] finalStates = new SpacecraftState[initialStates.size()];
+        this.propagate(initialStates, target, (index, initialState, finalState) -> finalStates[index] = finalState);
+        return new ArrayList<>(Arrays.asList(finalStates));
+    }
+
+    /**
+     * Propagate all the ensemble members, results being provided to the handler as soon as they are available.
+     * <p>
+     * The handler is called from the calling thread only. If one member cannot be propagated or if the handler throws
+     * an exception, the remaining propagations are cancelled and the exception is propagated.
+     * </p>
+     *
+     * @param initialStates
+     *        initial states of the members
+     * @param target
+     *        target date
+     * @param handler
+     *        handler receiving the final state of each member
+     * @throws PropagationException
+     *         if one member cannot be propagated, if the handler fails or if propagation is interrupted
+     */
+    public void propagate(final Collection<SpacecraftState> initialStates, final AbsoluteDate target,
+                          final EnsembleResultHandler handler) throws PropagationException {
+
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            // Submit one task per member
+            final CompletionService<MemberResult> service = new ExecutorCompletionService<>(pool);
+            int nbMembers = 0;
+            for (final SpacecraftState initialState : initialStates) {
+                final int index = nbMembers;
+                service.submit(() -> new MemberResult(index, initialState, this.propagate(initialState, target)));
+                nbMembers++;
+            }
+
+            // Stream the results as they complete
+            for (int i = 0; i < nbMembers; i++) {
+                final MemberResult result = service.take().get();
+                handler.handleResult(result.index, result.initialState, result.finalState);
+            }
+
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PropagationException(e, PatriusMessages.ENSEMBLE_PROPAGATION_INTERRUPTED);
+        } catch (final ExecutionException e) {
+            throw PropagationException.unwrap(ParallelUtils.unwrap(e.getCause()));
+        } catch (final PropagationException pe) {
+            throw pe;
+        } catch (final PatriusException e) {
+            // Exception raised by the handler
+            throw new PropagationException(e);
+        } finally {
+            // Cancel remaining tasks in case of failure
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Build a factory of {@link EnsemblePropagationTask} for a given ensemble member, for use with a
+     * {@link fr.cnes.sirius.patrius.tools.parallel.ParallelRunner ParallelRunner}.
+     * <p>
+     * Since all the tasks created by this factory propagate the same member, a parallel runner checks that concurrent
+     * propagations using the objects shared by the builder return exactly the same result.
+     * </p>
+     *
+     * @param initialState
+     *        initial state of the member
+     * @param target
+     *        target date
+     * @return a task factory
+     */
+    public ParallelTaskFactory<EnsemblePropagationTask> getTaskFactory(final SpacecraftState initialState,
+                                                                       final AbsoluteDate target) {
+        return new ParallelTaskFactory<EnsemblePropagationTask>(){
+
+            /** Current task id. */
+            private int id = 1;
+
+            /** {@inheritDoc} */
+            @Override
+            public EnsemblePropagationTask newInstance() {
+                return new EnsemblePropagationTask(this.id++, EnsemblePropagator.this, initialState, target);
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public void reset() {
+                this.id = 1;
+            }
+        };
+    }
+
+    /**
+     * Builder of the numerical propagator used for each ensemble member.
+     * <p>
+     * The builder is called concurrently from the pool threads, it must therefore be thread-safe. A new propagator
+     * must be returned at each call.
+     * </p>
+     */
+    @FunctionalInterface
+    public interface PropagatorBuilder {
+
+        /**
+         * Build a new numerical propagator, fully configured except for the initial state.
+         *
+         * @return a new numerical propagator
+         * @throws PatriusException
+         *         if the propagator cannot be built
+         */
+        NumericalPropagator buildPropagator() throws PatriusException;
+    }
+
+    /** Result of the propagation of one member. */
+    private static final class MemberResult {
+
+        /** Index of the member. */
+        private final int index;
+
+        /** Initial state. */
+        private final SpacecraftState initialState;
+
+        /** Final state. */
+        private final SpacecraftState finalState;
+
+        /**
+         * Constructor.
+         *
+         * @param indexIn
+         *        index of the member
+         * @param initialStateIn
+         *        initial state
+         * @param finalStateIn
+         *        final state
+         */
+        private MemberResult(final int indexIn, final SpacecraftState initialStateIn,
+                             final SpacecraftState finalStateIn) {
+            this.index = indexIn;
+            this.initialState = initialStateIn;
+            this.finalState = finalStateIn;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.propagation.numerical;
+
+import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Handler receiving the results of an {@link EnsemblePropagator} as soon as each ensemble member has been
+ * propagated.
+ * <p>
+ * Results are delivered in completion order, which is generally not the order of the initial states collection: the
+ * index of the member in this collection is provided to the handler for this reason.
+ * </p>
+ *
+ * @concurrency not thread-safe
+ *
+ * @concurrency.comment the handler is only called from the thread which called
+ *                      {@link EnsemblePropagator#propagate(java.util.Collection, fr.cnes.sirius.patrius.time.AbsoluteDate,
+ *                      EnsembleResultHandler)}, it does not need to be thread-safe
+ *
+ * @see EnsemblePropagator
+ *
+ * @since 4.14
+ */
+public interface EnsembleResultHandler {
+
+    /**
+     * Handle the result of the propagation of one ensemble member.
+     *
+     * @param index
+     *        index of the member in the initial states collection (iteration order)
+     * @param initialState
+     *        initial state of the member
+     * @param finalState
+     *        state of the member at the target date (or at the date propagation was stopped by an event)
+     * @throws PatriusException
+     *         if the result cannot be handled, remaining propagations are then cancelled
+     */
+    void handleResult(int index, SpacecraftState initialState, SpacecraftState finalState) throws PatriusException;
+}
@@ -67,9 +67,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import fr.cnes.sirius.patrius.assembly.properties.MassEquation;
 import fr.cnes.sirius.patrius.attitudes.AttitudeProvider;
+import fr.cnes.sirius.patrius.bodies.CelestialEphemerisSnapshot;
 import fr.cnes.sirius.patrius.events.EventDetector;
 import fr.cnes.sirius.patrius.events.detectors.NullMassDetector;
 import fr.cnes.sirius.patrius.events.utils.AdaptedEventDetector;
@@ -92,6 +97,7 @@ import fr.cnes.sirius.patrius.orbits.Orbit;
 import fr.cnes.sirius.patrius.orbits.OrbitType;
 import fr.cnes.sirius.patrius.orbits.PositionAngle;
 import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.propagation.AdditionalStatesStorage;
 import fr.cnes.sirius.patrius.propagation.BoundedPropagator;
 import fr.cnes.sirius.patrius.propagation.MassProvider;
 import fr.cnes.sirius.patrius.propagation.Propagator;
@@ -103,6 +109,7 @@ import fr.cnes.sirius.patrius.propagation.sampling.PatriusStepHandler;
 import fr.cnes.sirius.patrius.propagation.sampling.PatriusStepInterpolator;
 import fr.cnes.sirius.patrius.propagation.sampling.PatriusStepNormalizer;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelUtils;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusExceptionWrapper;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
@@ -294,6 +301,15 @@ public class NumericalPropagator implements Propagator, Observer {
      */
     private double[] addStatesRelativeTolerances;
 
+    /** True if the additional states storage is reused from one derivatives computation to the next. */
+    private boolean derivativesStateReuse;
+
+    /** Number of threads used to evaluate the force models contributions (1 for sequential evaluation). */
+    private int forceModelsParallelism;
+
+    /** Snapshot of the celestial points ephemerides used during each derivatives computation (may be null). */
+    private CelestialEphemerisSnapshot ephemerisSnapshot;
+
     /**
      * Create a new instance of NumericalPropagator, based on orbit definition mu. After creation,
      * the instance is empty, i.e. there are no forces at all, not even the Newtonian gravitational one. The
@@ -372,6 +388,7 @@ public class NumericalPropagator implements Propagator, Observer {
             throw new PropagationException(PatriusMessages.ODE_INTEGRATOR_NOT_SET_FOR_ORBIT_PROPAGATION);
         }
         this.forceModels = new ArrayList<>();
+        this.forceModelsParallelism = 1;
         this.detectors = new ArrayList<>();
         this.startDate = null;
         this.referenceDate = null;
@@ -1131,6 +1148,8 @@ public class NumericalPropagator implements Propagator, Observer {
 
             } catch (final PatriusExceptionWrapper oew) {
                 throw oew.getException();
+            } finally {
+                diffEq.releaseResources();
             }
 
             if (!this.addEquationsAndTolerances.isEmpty()) {
@@ -1397,6 +1416,111 @@ public class NumericalPropagator implements Propagator, Observer {
         return this.calls;
     }
 
+    /**
+     * Enable or disable the reuse of the additional states storage during derivatives computation.
+     * <p>
+     * By default, the {@link SpacecraftState} provided to the force models and additional equations at each
+     * derivatives computation owns a fresh copy of the additional states (mass, attitude, partial derivatives...). When
+     * this mode is enabled, the additional states map and arrays are allocated once per propagation (in an
+     * {@link AdditionalStatesStorage}) and updated in place at each call, which avoids copying them for propagations
+     * with many additional states. The orbit, the attitudes and the {@link SpacecraftState} itself are still built at
+     * each call.
+     * </p>
+     * <p>
+     * The {@link ForceModel#addContribution(SpacecraftState, TimeDerivativesEquations)} and
+     * {@link AdditionalEquations#computeDerivatives(SpacecraftState, TimeDerivativesEquations)} contracts are kept:
+     * the provided state is fully consistent for the duration of the call. However, force models and additional
+     * equations must not keep a reference to the state (or to arrays returned by
+     * {@link SpacecraftState#getAdditionalStates()}) beyond the call, since its additional states are overwritten by
+     * the next derivatives computation. All force models and additional equations provided by PATRIUS comply with
+     * this rule. States provided to step handlers and event detectors are not affected.
+     * </p>
+     *
+     * @param reuse
+     *        true to reuse the additional states storage, false (default) to build a new storage at each call
+     * @since 4.14
+     */
+    public void setDerivativesStateReuse(final boolean reuse) {
+        this.derivativesStateReuse = reuse;
+    }
+
+    /**
+     * Returns true if the additional states storage is reused during derivatives computation.
+     *
+     * @return true if the additional states storage is reused during derivatives computation
+     * @see #setDerivativesStateReuse(boolean)
+     * @since 4.14
+     */
+    public boolean isDerivativesStateReuse() {
+        return this.derivativesStateReuse;
+    }
+
+    /**
+     * Set the number of threads used to evaluate the force models contributions at each derivatives computation.
+     * <p>
+     * By default (1 thread), the force models contributions are evaluated one after another. With more threads, the
+     * contributions of the force models are evaluated concurrently, each force model accumulating its contribution
+     * into its own buffer. Buffers are then summed up in the force models addition order, hence the results are
+     * strictly identical to the sequential evaluation. This mode reduces the wall-clock time of high-fidelity
+     * propagations (large gravity fields, drag, radiation pressure on facets assemblies...) on multi-core machines;
+     * it is not worth it for cheap force models. Threads are created at the beginning of each propagation and
+     * released at its end.
+     * </p>
+     * <p>
+     * Force models which are also {@link PatriusStepHandler step handlers} (such as continuous thrust maneuvers, which
+     * update the mass flow rate) are always evaluated in the propagation thread. Other force models are evaluated
+     * concurrently, hence they must not share unsynchronized mutable objects (the same force model instance must not
+     * be added twice for instance). Assemblies shared by several force models are supported.
+     * </p>
+     *
+     * @param nbThreads
+     *        number of threads used to evaluate the force models contributions (values lower than 1 are replaced
+     *        by 1)
+     * @since 4.14
+     */
+    public void setForceModelsParallelism(final int nbThreads) {
+        this.forceModelsParallelism = MathLib.max(1, nbThreads);
+    }
+
+    /**
+     * Getter for the number of threads used to evaluate the force models contributions.
+     *
+     * @return the number of threads used to evaluate the force models contributions (1 for sequential evaluation)
+     * @see #setForceModelsParallelism(int)
+     * @since 4.14
+     */
+    public int getForceModelsParallelism() {
+        return this.forceModelsParallelism;
+    }
+
+    /**
+     * Set the snapshot of the celestial points ephemerides used during each derivatives computation.
+     * <p>
+     * A {@link CelestialEphemerisSnapshot.Scope scope} of the snapshot is open at the beginning of each derivatives
+     * computation and closed at its end: the ephemerides of the celestial points (Sun, Moon, etc.) are then evaluated
+     * only once per date and frame, whatever the number of force models and attitude laws using them. The celestial
+     * points themselves are not modified, hence other propagations are not affected. By default, no snapshot is used.
+     * </p>
+     *
+     * @param snapshot
+     *        snapshot of the celestial points ephemerides (null to disable)
+     * @since 4.14
+     */
+    public void setCelestialEphemerisSnapshot(final CelestialEphemerisSnapshot snapshot) {
+        this.ephemerisSnapshot = snapshot;
+    }
+
+    /**
+     * Getter for the snapshot of the celestial points ephemerides used during each derivatives computation.
+     *
+     * @return the snapshot of the celestial points ephemerides (null if none)
+     * @see #setCelestialEphemerisSnapshot(CelestialEphemerisSnapshot)
+     * @since 4.14
+     */
+    public CelestialEphemerisSnapshot getCelestialEphemerisSnapshot() {
+        return this.ephemerisSnapshot;
+    }
+
     /**
      * Add event handlers to integrator.
      *
@@ -1570,10 +1694,195 @@ public class NumericalPropagator implements Propagator, Observer {
         /** Current velocity. */
         private Vector3D velocity;
 
+        /** Reused additional states storage (null if additional states storage is not reused). */
+        private final transient AdditionalStatesStorage addStatesStorage;
+
+        /** Pool evaluating the force models contributions (null for sequential evaluation). */
+        private final transient ExecutorService forcesPool;
+
+        /**
+         * Buffers of the force models evaluated concurrently, in force models order (null entries for the force
+         * models evaluated in the propagation thread).
+         */
+        private final ForceModelContribution[] contributions;
+
+        /** Pending evaluations of the force models contributions, in force models order. */
+        private final transient Future<?>[] pending;
+
         /** Build a new instance. */
         public DifferentialEquations() {
             NumericalPropagator.this.calls = 0;
             this.jacobian = new double[6][6];
+
+            // Force models evaluated concurrently: all but the ones which are also step handlers
+            final List<ForceModel> forces = NumericalPropagator.this.forceModels;
+            int nbConcurrent = 0;
+            for (final ForceModel forceModel : forces) {
+                if (!(forceModel instanceof PatriusStepHandler)) {
+                    nbConcurrent++;
+                }
+            }
+            if (NumericalPropagator.this.forceModelsParallelism > 1 && nbConcurrent > 1) {
+                this.forcesPool = new ForkJoinPool(MathLib.min(NumericalPropagator.this.forceModelsParallelism,
+                    nbConcurrent));
+                this.contributions = new ForceModelContribution[forces.size()];
+                this.pending = new Future<?>[forces.size()];
+                for (int i = 0; i < forces.size(); i++) {
+                    if (!(forces.get(i) instanceof PatriusStepHandler)) {
+                        this.contributions[i] = new ForceModelContribution(forces.get(i));
+                    }
+                }
+            } else {
+                this.forcesPool = null;
+                this.contributions = null;
+                this.pending = null;
+            }
+
+            if (NumericalPropagator.this.derivativesStateReuse) {
+                // Additional states storage allocated once for the whole propagation
+                this.addStatesStorage = new AdditionalStatesStorage(NumericalPropagator.this.addStateInfos);
+            } else {
+                this.addStatesStorage = null;
+            }
+        }
+
+        /**
+         * Build the current spacecraft state from the state vector.
+         *
+         * @param y
+         *        state vector
+         * @param type
+         *        orbit type of the state vector
+         * @param currentDate
+         *        current date
+         * @return the current spacecraft state
+         */
+        private SpacecraftState buildCurrentState(final double[] y, final OrbitType type,
+                                                  final AbsoluteDate currentDate) {
+            final NumericalPropagator prop = NumericalPropagator.this;
+            final AttitudeProvider attForces;
+            final AttitudeProvider attEvents;
+            if (prop.attitudeProviderByDefault == null) {
+                attForces = prop.attitudeProviderForces;
+                attEvents = prop.attitudeProviderEvents;
+            } else {
+                attForces = prop.attitudeProviderByDefault;
+                attEvents = null;
+            }
+
+            final SpacecraftState state;
+            if (this.addStatesStorage == null) {
+                state = new SpacecraftState(y, type, prop.angleType, currentDate, prop.currentState.getMu(),
+                    prop.currentState.getFrame(), prop.addStateInfos, attForces, attEvents);
+            } else {
+                // Update additional states storage in place
+                final Orbit orbit = type.mapArrayToOrbit(y, prop.angleType, currentDate, prop.currentState.getMu(),
+                    prop.currentState.getFrame());
+                state = this.addStatesStorage.buildState(y, orbit, attForces, attEvents);
+            }
+            return state;
+        }
+
+        /**
+         * Evaluate the force models contributions concurrently and add them to the derivatives, in force models
+         * order.
+         *
+         * @param state
+         *        current state
+         * @param yDDot
+         *        second order derivatives where the accelerations are summed up (second order integration), null if
+         *        the full contributions are to be added to the first order derivatives
+         * @throws PatriusException
+         *         if some force model contribution cannot be computed
+         */
+        private void addConcurrentContributions(final SpacecraftState state,
+                                                final double[] yDDot) throws PatriusException {
+            final List<ForceModel> forces = NumericalPropagator.this.forceModels;
+            final boolean accelerationOnly = yDDot != null;
+            final CelestialEphemerisSnapshot.Scope scope = CelestialEphemerisSnapshot.getCurrentScope();
+
+            // Submit the concurrent evaluations
+            for (int i = 0; i < this.contributions.length; i++) {
+                final ForceModelContribution contribution = this.contributions[i];
+                if (contribution != null) {
+                    this.pending[i] = this.forcesPool.submit(() -> {
+                        // The ephemerides snapshot of the propagation thread is shared with the pool threads
+                        try (CelestialEphemerisSnapshot.Scope shared = scope == null ? null : scope.share()) {
+                            contribution.compute(state, accelerationOnly);
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            // Deterministic reduction in force models order, the other force models being evaluated meanwhile
+            boolean completed = false;
+            try {
+                for (int i = 0; i < this.contributions.length; i++) {
+                    final ForceModelContribution contribution = this.contributions[i];
+                    if (contribution != null) {
+                        this.pending[i].get();
+                        contribution.addTo(this, yDDot);
+                    } else if (accelerationOnly) {
+                        // Force model evaluated in propagation thread
+                        final Vector3D acc = forces.get(i).computeAcceleration(state);
+                        yDDot[0] += acc.getX();
+                        yDDot[1] += acc.getY();
+                        yDDot[2] += acc.getZ();
+                    } else {
+                        forces.get(i).addContribution(state, this);
+                    }
+                }
+                completed = true;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PropagationException(e, PatriusMessages.FORCE_MODELS_EVALUATION_INTERRUPTED);
+            } catch (final ExecutionException e) {
+                throw ParallelUtils.unwrap(e.getCause());
+            } finally {
+                if (!completed) {
+                    // Buffers must not be written anymore once this method has returned
+                    this.awaitPendingContributions();
+                }
+            }
+        }
+
+        /**
+         * Wait for the end of all the pending force models evaluations, ignoring their results.
+         */
+        private void awaitPendingContributions() {
+            for (final Future<?> future : this.pending) {
+                if (future != null) {
+                    try {
+                        future.get();
+                    } catch (final InterruptedException e) {
+                        // Keep interruption status and give up waiting
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (final ExecutionException e) {
+                        // ignore: failure already reported or not relevant anymore
+                    }
+                }
+            }
+        }
+
+        /**
+         * Release the resources used by the differential equations (threads evaluating the force models).
+         */
+        public void releaseResources() {
+            if (this.forcesPool != null) {
+                this.forcesPool.shutdownNow();
+            }
+        }
+
+        /**
+         * Open a scope of the celestial points ephemerides snapshot in the current thread, if any.
+         *
+         * @return the open scope, null if the propagator has no snapshot
+         */
+        private CelestialEphemerisSnapshot.Scope openSnapshotScope() {
+            final CelestialEphemerisSnapshot snapshot = NumericalPropagator.this.ephemerisSnapshot;
+            return snapshot == null ? null : snapshot.open();
         }
 
         /** {@inheritDoc} */
@@ -1586,30 +1895,22 @@ public class NumericalPropagator implements Propagator, Observer {
         @Override
         public void computeDerivatives(final double t, final double[] y, final double[] yDot) {
 
-            try {
+            try (CelestialEphemerisSnapshot.Scope scope = this.openSnapshotScope()) {
                 // update space dynamics view
                 final AbsoluteDate currentDate = NumericalPropagator.this.referenceDate.shiftedBy(t);
-                if (NumericalPropagator.this.attitudeProviderByDefault == null) {
-                    NumericalPropagator.this.currentState = new SpacecraftState(y, NumericalPropagator.this.orbitType,
-                            NumericalPropagator.this.angleType, currentDate,
-                            NumericalPropagator.this.currentState.getMu(),
-                            NumericalPropagator.this.currentState.getFrame(), NumericalPropagator.this.addStateInfos,
-                            NumericalPropagator.this.attitudeProviderForces,
-                            NumericalPropagator.this.attitudeProviderEvents);
-                } else {
-                    NumericalPropagator.this.currentState = new SpacecraftState(y, NumericalPropagator.this.orbitType,
-                            NumericalPropagator.this.angleType, currentDate,
-                            NumericalPropagator.this.currentState.getMu(),
-                            NumericalPropagator.this.currentState.getFrame(), NumericalPropagator.this.addStateInfos,
-                            NumericalPropagator.this.attitudeProviderByDefault, null);
-                }
+                NumericalPropagator.this.currentState = this.buildCurrentState(y, NumericalPropagator.this.orbitType,
+                    currentDate);
 
                 // initialize derivatives
                 this.initDerivatives(yDot, NumericalPropagator.this.currentState.getOrbit());
 
                 // compute the contributions of all forces
-                for (final ForceModel forceModel : NumericalPropagator.this.forceModels) {
-                    forceModel.addContribution(NumericalPropagator.this.currentState, this);
+                if (this.forcesPool == null) {
+                    for (final ForceModel forceModel : NumericalPropagator.this.forceModels) {
+                        forceModel.addContribution(NumericalPropagator.this.currentState, this);
+                    }
+                } else {
+                    this.addConcurrentContributions(NumericalPropagator.this.currentState, null);
                 }
 
                 // Add contribution for additional state
@@ -1669,10 +1970,15 @@ public class NumericalPropagator implements Propagator, Observer {
         /** {@inheritDoc} */
         @Override
         public void addAcceleration(final Vector3D gamma, final Frame frame) throws PatriusException {
-            final Transform t = frame.getTransformTo(NumericalPropagator.this.currentState.getFrame(),
+            if (frame == NumericalPropagator.this.currentState.getFrame()) {
+                // Acceleration already expressed in integration frame: no transform needed
+                this.addXYZAcceleration(gamma.getX(), gamma.getY(), gamma.getZ());
+            } else {
+                final Transform t = frame.getTransformTo(NumericalPropagator.this.currentState.getFrame(),
                     NumericalPropagator.this.currentState.getDate());
-            final Vector3D gammInRefFrame = t.transformVector(gamma);
-            this.addXYZAcceleration(gammInRefFrame.getX(), gammInRefFrame.getY(), gammInRefFrame.getZ());
+                final Vector3D gammInRefFrame = t.transformVector(gamma);
+                this.addXYZAcceleration(gammInRefFrame.getX(), gammInRefFrame.getY(), gammInRefFrame.getZ());
+            }
         }
 
         /** {@inheritDoc} */
@@ -1688,7 +1994,7 @@ public class NumericalPropagator implements Propagator, Observer {
                 computeSecondDerivatives(final double t, final double[] y, final double[] yDot, final double[] yDDot) {
             // Second order derivatives for integrators such as Cowell
 
-            try {
+            try (CelestialEphemerisSnapshot.Scope scope = this.openSnapshotScope()) {
                 // At this point: y contains position, yDot contains velocity (cartesian coordinates
                 // only)
 
@@ -1697,20 +2003,7 @@ public class NumericalPropagator implements Propagator, Observer {
                 // Build state
                 final double[] x = ((CowellIntegrator) NumericalPropagator.this.integrator).getMapper().buildFullState(
                         y, yDot);
-                if (NumericalPropagator.this.attitudeProviderByDefault == null) {
-                    NumericalPropagator.this.currentState = new SpacecraftState(x, OrbitType.CARTESIAN,
-                            NumericalPropagator.this.angleType, currentDate,
-                            NumericalPropagator.this.currentState.getMu(),
-                            NumericalPropagator.this.currentState.getFrame(), NumericalPropagator.this.addStateInfos,
-                            NumericalPropagator.this.attitudeProviderForces,
-                            NumericalPropagator.this.attitudeProviderEvents);
-                } else {
-                    NumericalPropagator.this.currentState = new SpacecraftState(x, OrbitType.CARTESIAN,
-                            NumericalPropagator.this.angleType, currentDate,
-                            NumericalPropagator.this.currentState.getMu(),
-                            NumericalPropagator.this.currentState.getFrame(), NumericalPropagator.this.addStateInfos,
-                            NumericalPropagator.this.attitudeProviderByDefault, null);
-                }
+                NumericalPropagator.this.currentState = this.buildCurrentState(x, OrbitType.CARTESIAN, currentDate);
 
                 // initialize derivatives
                 Arrays.fill(yDDot, 0.0);
@@ -1723,11 +2016,15 @@ public class NumericalPropagator implements Propagator, Observer {
                 }
 
                 // compute the contributions of all forces
-                for (final ForceModel forceModel : NumericalPropagator.this.forceModels) {
-                    final Vector3D acc = forceModel.computeAcceleration(NumericalPropagator.this.currentState);
-                    yDDot[0] += acc.getX();
-                    yDDot[1] += acc.getY();
-                    yDDot[2] += acc.getZ();
+                if (this.forcesPool == null) {
+                    for (final ForceModel forceModel : NumericalPropagator.this.forceModels) {
+                        final Vector3D acc = forceModel.computeAcceleration(NumericalPropagator.this.currentState);
+                        yDDot[0] += acc.getX();
+                        yDDot[1] += acc.getY();
+                        yDDot[2] += acc.getZ();
+                    }
+                } else {
+                    this.addConcurrentContributions(NumericalPropagator.this.currentState, yDDot);
                 }
 
 
@@ -1751,4 +2048,145 @@ public class NumericalPropagator implements Propagator, Observer {
         }
     }
 
+
+    /**
+     * Buffer of the contribution of one force model, used when force models are evaluated concurrently.
+     * <p>
+     * The accelerations and additional states derivatives provided by the force model are recorded in call order,
+     * and replayed afterwards into the derivatives of the propagator: the arithmetic operations are hence exactly the
+     * same as with a sequential evaluation.
+     * </p>
+     */
+    private static final class ForceModelContribution implements TimeDerivativesEquations {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 2817036401932470569L;
+
+        /** Initial capacity of the accelerations buffer (number of accelerations). */
+        private static final int INITIAL_CAPACITY = 4;
+
+        /** Force model. */
+        private final ForceModel forceModel;
+
+        /** Recorded accelerations in integration frame (x, y, z for each acceleration). */
+        private double[] accelerations;
+
+        /** Number of recorded accelerations. */
+        private int nbAccelerations;
+
+        /** Names of the recorded additional states derivatives. */
+        private final List<String> derivativesNames;
+
+        /** Recorded additional states derivatives. */
+        private final List<double[]> derivatives;
+
+        /** State for which the contribution is computed. */
+        private SpacecraftState state;
+
+        /**
+         * Build a new instance.
+         *
+         * @param forceModelIn
+         *        force model
+         */
+        public ForceModelContribution(final ForceModel forceModelIn) {
+            this.forceModel = forceModelIn;
+            this.accelerations = new double[3 * INITIAL_CAPACITY];
+            this.derivativesNames = new ArrayList<>();
+            this.derivatives = new ArrayList<>();
+        }
+
+        /**
+         * Compute the contribution of the force model.
+         *
+         * @param s
+         *        current state
+         * @param accelerationOnly
+         *        true if only the acceleration is to be computed (second order integration)
+         * @throws PatriusException
+         *         if the contribution cannot be computed
+         */
+        public void compute(final SpacecraftState s, final boolean accelerationOnly) throws PatriusException {
+            this.state = s;
+            this.nbAccelerations = 0;
+            this.derivativesNames.clear();
+            this.derivatives.clear();
+            if (accelerationOnly) {
+                final Vector3D acc = this.forceModel.computeAcceleration(s);
+                this.addXYZAcceleration(acc.getX(), acc.getY(), acc.getZ());
+            } else {
+                this.forceModel.addContribution(s, this);
+            }
+        }
+
+        /**
+         * Add the recorded contribution to the propagator derivatives.
+         *
+         * @param adder
+         *        propagator derivatives (first order integration)
+         * @param yDDot
+         *        second order derivatives where accelerations are summed up (second order integration), null for
+         *        first order integration
+         */
+        public void addTo(final TimeDerivativesEquations adder, final double[] yDDot) {
+            for (int i = 0; i < this.nbAccelerations; i++) {
+                final double x = this.accelerations[3 * i];
+                final double y = this.accelerations[3 * i + 1];
+                final double z = this.accelerations[3 * i + 2];
+                if (yDDot == null) {
+                    adder.addXYZAcceleration(x, y, z);
+                } else {
+                    yDDot[0] += x;
+                    yDDot[1] += y;
+                    yDDot[2] += z;
+                }
+            }
+            for (int i = 0; i < this.derivatives.size(); i++) {
+                adder.addAdditionalStateDerivative(this.derivativesNames.get(i), this.derivatives.get(i));
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Not used by force models: does nothing.
+         * </p>
+         */
+        @Override
+        public void initDerivatives(final double[] yDot, final Orbit currentOrbit) {
+            // Nothing to do
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void addXYZAcceleration(final double x, final double y, final double z) {
+            if (3 * this.nbAccelerations == this.accelerations.length) {
+                this.accelerations = Arrays.copyOf(this.accelerations, 2 * this.accelerations.length);
+            }
+            this.accelerations[3 * this.nbAccelerations] = x;
+            this.accelerations[3 * this.nbAccelerations + 1] = y;
+            this.accelerations[3 * this.nbAccelerations + 2] = z;
+            this.nbAccelerations++;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void addAcceleration(final Vector3D gamma, final Frame frame) throws PatriusException {
+            // Same computation as the propagator derivatives
+            if (frame == this.state.getFrame()) {
+                this.addXYZAcceleration(gamma.getX(), gamma.getY(), gamma.getZ());
+            } else {
+                final Transform t = frame.getTransformTo(this.state.getFrame(), this.state.getDate());
+                final Vector3D gammInRefFrame = t.transformVector(gamma);
+                this.addXYZAcceleration(gammInRefFrame.getX(), gammInRefFrame.getY(), gammInRefFrame.getZ());
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void addAdditionalStateDerivative(final String name, final double[] pDot) {
+            this.derivativesNames.add(name);
+            this.derivatives.add(pDot.clone());
+        }
+    }
 }
@@ -0,0 +1,880 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.propagation.numerical.multi;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import fr.cnes.sirius.patrius.events.EventDetector.Action;
+import fr.cnes.sirius.patrius.events.MultiEventDetector;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.propagation.sampling.multi.MultiAdaptedStepHandler;
+import fr.cnes.sirius.patrius.propagation.sampling.multi.MultiPatriusStepHandler;
+import fr.cnes.sirius.patrius.propagation.sampling.multi.MultiPatriusStepInterpolator;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelUtils;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+import fr.cnes.sirius.patrius.utils.exception.PropagationException;
+
+/**
+ * Decoupled integration of the satellites of a {@link MultiNumericalPropagator}.
+ * <p>
+ * Each satellite is propagated by its own single-satellite {@link MultiNumericalPropagator} (hence with its own
+ * integrator and step size control) over the whole propagation span, in its own thread. At most
+ * <code>parallelism</code> satellites are integrated at the same time. The satellites are only synchronized at the end
+ * of each synchronization interval, whose length is bounded by the maximal check interval of the multi-satellites
+ * event detectors and by the maximal step of the multi-satellites step handler: a satellite reaching the end of the
+ * interval waits for the other ones and then goes on with its integration, the integrator being neither stopped nor
+ * restarted. Results hence do not depend on the synchronization dates.
+ * </p>
+ * <p>
+ * Within an interval, the steps of each satellite integration are used to locate the multi-satellites events and to
+ * feed the step handler. Steps are only kept while they may be needed: for the current interval if there are
+ * multi-satellites detectors or a step handler, from the date reached by the slowest satellite if a satellite may be
+ * stopped by one of its own detectors, not at all otherwise.
+ * </p>
+ * <p>
+ * When a multi-satellites event stops the propagation, resets the states or the derivatives, all satellite propagators
+ * are restarted from the event date: the part of the interval computed after the event is discarded.
+ * </p>
+ *
+ * @concurrency not thread-safe
+ *
+ * @concurrency.comment attributes are mutable and related to propagation.
+ *
+ * @see MultiNumericalPropagator#setDecoupledIntegration(MultiNumericalPropagator.IntegratorBuilder, int)
+ *
+ * @since 4.14
+ */
+final class DecoupledMultiPropagation {
+
+    /** Single-satellite propagators (in initial states order). */
+    private final Map<String, MultiNumericalPropagator> propagators;
+
+    /** Multi-satellites event detectors. */
+    private final List<DetectorState> detectors;
+
+    /** Multi-satellites step handler (may be null). */
+    private final MultiPatriusStepHandler handler;
+
+    /** Maximal number of threads. */
+    private final int parallelism;
+
+    /** Maximal duration between two synchronizations (s). */
+    private final double maxSynchronizationStep;
+
+    /** True if a satellite propagation may be stopped by one of its own detectors. */
+    private final boolean mayStopEarly;
+
+    /** Multi-satellites event detectors removed during propagation. */
+    private final List<MultiEventDetector> removedDetectors;
+
+    /** Lock guarding the synchronization between the satellites integrations and the propagation. */
+    private final Object lock;
+
+    /** Satellites integrations (in initial states order). */
+    private final List<SatelliteRun> runs;
+
+    /** Propagation direction. */
+    private boolean forward;
+
+    /** Target date. */
+    private AbsoluteDate target;
+
+    /** End of the current synchronization interval. */
+    private AbsoluteDate syncDate;
+
+    /** Start of the current synchronization interval. */
+    private AbsoluteDate intervalStart;
+
+    /** True if the satellites integrations have to be aborted. */
+    private boolean abort;
+
+    /**
+     * Constructor.
+     *
+     * @param propagatorsIn
+     *        single-satellite propagators (in initial states order)
+     * @param detectorsIn
+     *        multi-satellites event detectors
+     * @param handlerIn
+     *        multi-satellites step handler (may be null)
+     * @param parallelismIn
+     *        maximal number of threads
+     * @param maxSynchronizationStepIn
+     *        maximal duration between two synchronizations (s), {@link Double#POSITIVE_INFINITY} if synchronization
+     *        is only needed at the end of propagation
+     * @param mayStopEarlyIn
+     *        true if a satellite propagation may be stopped by one of its own detectors
+     */
+    DecoupledMultiPropagation(final Map<String, MultiNumericalPropagator> propagatorsIn,
+                              final List<MultiEventDetector> detectorsIn,
+                              final MultiPatriusStepHandler handlerIn, final int parallelismIn,
+                              final double maxSynchronizationStepIn, final boolean mayStopEarlyIn) {
+        this.propagators = propagatorsIn;
+        this.detectors = new ArrayList<>();
+        for (final MultiEventDetector detector : detectorsIn) {
+            this.detectors.add(new DetectorState(detector));
+        }
+        this.handler = handlerIn;
+        this.parallelism = parallelismIn;
+        this.maxSynchronizationStep = maxSynchronizationStepIn;
+        this.mayStopEarly = mayStopEarlyIn;
+        this.removedDetectors = new ArrayList<>();
+        this.lock = new Object();
+        this.runs = new ArrayList<>();
+    }
+
+    /**
+     * Propagate all satellites.
+     *
+     * @param initialStates
+     *        initial states (in propagation frames)
+     * @param start
+     *        initial date
+     * @param targetIn
+     *        target date
+     * @return states at end of propagation (target date or stop event date)
+     * @throws PatriusException
+     *         if a satellite cannot be propagated or if an event detector or the step handler fails
+     */
+    Map<String, SpacecraftState> propagate(final Map<String, SpacecraftState> initialStates,
+                                           final AbsoluteDate start,
+                                           final AbsoluteDate targetIn) throws PatriusException {
+
+        this.forward = targetIn.durationFrom(start) >= 0;
+        this.target = targetIn;
+
+        // Initialization
+        for (final DetectorState detector : this.detectors) {
+            detector.detector.init(initialStates, targetIn);
+        }
+        if (this.handler != null) {
+            this.handler.init(initialStates, targetIn);
+        }
+        this.updateSwitchingFunctions(initialStates);
+
+        // One thread per satellite (waiting satellites do not hold any thread of the parallelism budget)
+        final Semaphore permits = new Semaphore(MathLib.min(this.parallelism, this.propagators.size()));
+        final ExecutorService executor = Executors.newFixedThreadPool(this.propagators.size());
+        try {
+            Map<String, SpacecraftState> current = initialStates;
+            AbsoluteDate t = start;
+            this.startRuns(executor, permits, t);
+            boolean isLast = false;
+            while (!isLast) {
+
+                // Let each satellite be integrated up to the next synchronization date
+                final AbsoluteDate intervalTarget = this.nextSynchronizationDate(t);
+                this.awaitInterval(t, intervalTarget);
+
+                // A satellite may have been stopped before the synchronization date by one of its own detectors
+                AbsoluteDate reached = intervalTarget;
+                for (final SatelliteRun run : this.runs) {
+                    if (run.finalState != null && this.isBefore(run.finalState.getDate(), reached)) {
+                        reached = run.finalState.getDate();
+                    }
+                }
+
+                // Locate and handle multi-satellites events
+                AbsoluteDate stepEnd = reached;
+                Action action = Action.CONTINUE;
+                DetectorState triggered = null;
+                AbsoluteDate searchStart = t;
+                EventOccurrence occurrence = this.findFirstEvent(searchStart, reached);
+                while (occurrence != null) {
+                    final Map<String, SpacecraftState> states = this.getStates(occurrence.date);
+                    final MultiEventDetector detector = occurrence.detector.detector;
+                    searchStart = occurrence.date;
+                    if (!detector.filterEvent(states, occurrence.increasing, this.forward)) {
+                        action = detector.eventOccurred(states, occurrence.increasing, this.forward);
+                        if (action != Action.CONTINUE) {
+                            // Propagation is interrupted at event date
+                            stepEnd = occurrence.date;
+                            triggered = occurrence.detector;
+                            break;
+                        }
+                        if (detector.shouldBeRemoved()) {
+                            this.removeDetector(occurrence.detector);
+                        }
+                    }
+                    this.updateSwitchingFunctions(states);
+                    occurrence = this.findFirstEvent(searchStart, reached);
+                }
+
+                // Stop at satellite stop date unless propagation is restarted before
+                isLast = action == Action.STOP || stepEnd.equals(targetIn)
+                        || (triggered == null && !reached.equals(intervalTarget));
+
+                // Step handling
+                if (this.handler != null) {
+                    this.handler.handleStep(new DecoupledStepInterpolator(t, stepEnd, this.forward), isLast);
+                }
+
+                current = this.getStates(stepEnd);
+                if (triggered != null) {
+                    if (action == Action.RESET_STATE) {
+                        current = triggered.detector.resetStates(current);
+                    }
+                    if (triggered.detector.shouldBeRemoved()) {
+                        this.removeDetector(triggered);
+                    }
+                    if (!isLast) {
+                        // Restart all satellites from event date
+                        this.stopRuns();
+                        for (final Entry<String, MultiNumericalPropagator> entry : this.propagators.entrySet()) {
+                            entry.getValue().removeInitialState(entry.getKey());
+                            entry.getValue().addInitialState(current.get(entry.getKey()), entry.getKey());
+                        }
+                        this.startRuns(executor, permits, stepEnd);
+                    }
+                }
+                this.updateSwitchingFunctions(current);
+                t = stepEnd;
+            }
+
+            return current;
+
+        } finally {
+            this.stopRuns();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the multi-satellites event detectors removed during propagation.
+     *
+     * @return the removed event detectors
+     * @see MultiEventDetector#shouldBeRemoved()
+     */
+    List<MultiEventDetector> getRemovedDetectors() {
+        return this.removedDetectors;
+    }
+
+    /**
+     * Remove an event detector.
+     *
+     * @param detector
+     *        detector state to remove
+     */
+    private void removeDetector(final DetectorState detector) {
+        this.detectors.remove(detector);
+        this.removedDetectors.add(detector.detector);
+    }
+
+    /**
+     * Compute the next synchronization date.
+     *
+     * @param t
+     *        current date
+     * @return next synchronization date
+     */
+    private AbsoluteDate nextSynchronizationDate(final AbsoluteDate t) {
+        final double remaining = this.target.durationFrom(t);
+        if (MathLib.abs(remaining) <= this.maxSynchronizationStep) {
+            return this.target;
+        }
+        return t.shiftedBy(this.forward ? this.maxSynchronizationStep : -this.maxSynchronizationStep);
+    }
+
+    /**
+     * Check if a date is before another one in propagation direction.
+     *
+     * @param date1
+     *        first date
+     * @param date2
+     *        second date
+     * @return true if first date is strictly before second date in propagation direction
+     */
+    private boolean isBefore(final AbsoluteDate date1, final AbsoluteDate date2) {
+        final int cmp = date1.compareTo(date2);
+        return this.forward ? cmp < 0 : cmp > 0;
+    }
+
+    /**
+     * Start the integration of all satellites from their current initial states.
+     *
+     * @param executor
+     *        executor running the satellites integrations
+     * @param permits
+     *        permits bounding the number of satellites integrated at the same time
+     * @param t
+     *        start date
+     */
+    private void startRuns(final ExecutorService executor, final Semaphore permits, final AbsoluteDate t) {
+        synchronized (this.lock) {
+            this.abort = false;
+            this.intervalStart = t;
+            this.syncDate = this.nextSynchronizationDate(t);
+            this.runs.clear();
+            for (final Entry<String, MultiNumericalPropagator> entry : this.propagators.entrySet()) {
+                this.runs.add(new SatelliteRun(entry.getKey(), entry.getValue(), permits, t));
+            }
+        }
+        for (final SatelliteRun run : this.runs) {
+            run.future = executor.submit(run);
+        }
+    }
+
+    /**
+     * Abort the integration of all satellites and wait for their end.
+     */
+    private void stopRuns() {
+        synchronized (this.lock) {
+            this.abort = true;
+            this.lock.notifyAll();
+        }
+        boolean interrupted = false;
+        for (final SatelliteRun run : this.runs) {
+            while (run.future != null) {
+                try {
+                    run.future.get();
+                    run.future = null;
+                } catch (final InterruptedException e) {
+                    // Satellites integrations end shortly once aborted
+                    interrupted = true;
+                } catch (final ExecutionException e) {
+                    // Failures are recorded by the integrations themselves
+                    run.future = null;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Let all satellites be integrated up to the given synchronization date and wait for them.
+     *
+     * @param t
+     *        start of the synchronization interval
+     * @param intervalTarget
+     *        end of the synchronization interval
+     * @throws PatriusException
+     *         if a satellite cannot be propagated
+     */
+    private void awaitInterval(final AbsoluteDate t, final AbsoluteDate intervalTarget) throws PatriusException {
+        synchronized (this.lock) {
+            this.intervalStart = t;
+            this.syncDate = intervalTarget;
+            this.pruneSteps();
+            this.lock.notifyAll();
+            try {
+                while (!this.isIntervalDone()) {
+                    this.lock.wait();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PropagationException(e, PatriusMessages.DECOUPLED_PROPAGATION_INTERRUPTED);
+            }
+            for (final SatelliteRun run : this.runs) {
+                if (run.failure != null) {
+                    throw PropagationException.unwrap(ParallelUtils.unwrap(run.failure));
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if all satellites have been integrated up to the current synchronization date (or have been stopped
+     * before). Should be called with the lock held.
+     *
+     * @return true if all satellites have been integrated up to the current synchronization date or if an
+     *         integration failed
+     */
+    private boolean isIntervalDone() {
+        boolean done = true;
+        for (final SatelliteRun run : this.runs) {
+            if (run.failure != null) {
+                return true;
+            }
+            done &= run.finished || run.waiting && !this.isBefore(run.reached, this.syncDate);
+        }
+        return done;
+    }
+
+    /**
+     * Drop the integration steps which are not needed anymore. Should be called with the lock held.
+     */
+    private void pruneSteps() {
+        final AbsoluteDate floor;
+        if (!this.detectors.isEmpty() || this.handler != null) {
+            // States are needed over the current interval
+            floor = this.intervalStart;
+        } else if (this.mayStopEarly) {
+            // States are needed at the earliest date at which a satellite has been or may be stopped
+            AbsoluteDate earliest = null;
+            for (final SatelliteRun run : this.runs) {
+                if (earliest == null || this.isBefore(run.reached, earliest)) {
+                    earliest = run.reached;
+                }
+            }
+            floor = earliest;
+        } else {
+            // States are only needed at the end of propagation
+            floor = null;
+        }
+        for (final SatelliteRun run : this.runs) {
+            final Deque<MultiAdaptedStepHandler> steps = run.steps;
+            while (!steps.isEmpty()
+                    && (floor == null || this.isBefore(steps.peekFirst().getCurrentDate(), floor))) {
+                steps.pollFirst();
+            }
+        }
+    }
+
+    /**
+     * Get the states of all satellites at a date of the current synchronization interval.
+     *
+     * @param date
+     *        date
+     * @return states of all satellites
+     * @throws PatriusException
+     *         if states cannot be interpolated
+     */
+    private Map<String, SpacecraftState> getStates(final AbsoluteDate date) throws PatriusException {
+        final Map<String, SpacecraftState> states = new LinkedHashMap<>();
+        for (final SatelliteRun run : this.runs) {
+            states.put(run.satId, run.getState(date));
+        }
+        return states;
+    }
+
+    /**
+     * Update the value of the switching functions of all detectors.
+     *
+     * @param states
+     *        current states
+     * @throws PatriusException
+     *         if a switching function cannot be computed
+     */
+    private void updateSwitchingFunctions(final Map<String, SpacecraftState> states) throws PatriusException {
+        for (final DetectorState detector : this.detectors) {
+            detector.g = detector.detector.g(states);
+        }
+    }
+
+    /**
+     * Find the first multi-satellites event occurring in the given interval.
+     * <p>
+     * The switching functions values at interval start are the ones stored in the detectors states. The interval is
+     * assumed shorter than the detectors maximal check interval.
+     * </p>
+     *
+     * @param ta
+     *        interval start
+     * @param tb
+     *        interval end
+     * @return first event occurrence, null if no event occurs in the interval
+     * @throws PatriusException
+     *         if a switching function cannot be computed
+     */
+    private EventOccurrence findFirstEvent(final AbsoluteDate ta,
+                                           final AbsoluteDate tb) throws PatriusException {
+        if (this.detectors.isEmpty() || ta.equals(tb)) {
+            return null;
+        }
+
+        final Map<String, SpacecraftState> statesB = this.getStates(tb);
+        EventOccurrence first = null;
+        for (final DetectorState state : this.detectors) {
+            final MultiEventDetector detector = state.detector;
+            final double ga = state.g;
+            final double gb = detector.g(statesB);
+            if ((ga >= 0) == (gb >= 0)) {
+                // No sign change
+                continue;
+            }
+
+            // Increase is measured with respect to physical time
+            final boolean increasing = this.forward ^ (ga >= 0);
+            final int slope = detector.getSlopeSelection();
+            if ((slope == MultiEventDetector.INCREASING && !increasing)
+                    || (slope == MultiEventDetector.DECREASING && increasing)) {
+                continue;
+            }
+
+            // Bisection: the event date is the first date after the root (in propagation direction)
+            AbsoluteDate lo = ta;
+            AbsoluteDate hi = tb;
+            int iter = 0;
+            while (MathLib.abs(hi.durationFrom(lo)) > detector.getThreshold()
+                    && iter < detector.getMaxIterationCount()) {
+                final AbsoluteDate mid = lo.shiftedBy(hi.durationFrom(lo) / 2.);
+                if ((detector.g(this.getStates(mid)) >= 0) == (ga >= 0)) {
+                    lo = mid;
+                } else {
+                    hi = mid;
+                }
+                iter++;
+            }
+
+            if (first == null || this.isBefore(hi, first.date)) {
+                first = new EventOccurrence(state, hi, increasing);
+            }
+        }
+        return first;
+    }
+
+    /** Multi-satellites event detector and its switching function value at the last check. */
+    private static final class DetectorState {
+
+        /** Event detector. */
+        private final MultiEventDetector detector;
+
+        /** Switching function value at the last check. */
+        private double g;
+
+        /**
+         * Constructor.
+         *
+         * @param detectorIn
+         *        event detector
+         */
+        private DetectorState(final MultiEventDetector detectorIn) {
+            this.detector = detectorIn;
+        }
+    }
+
+    /** Located multi-satellites event. */
+    private static final class EventOccurrence {
+
+        /** Detector state. */
+        private final DetectorState detector;
+
+        /** Event date. */
+        private final AbsoluteDate date;
+
+        /** True if the switching function increases around the event. */
+        private final boolean increasing;
+
+        /**
+         * Constructor.
+         *
+         * @param detectorIn
+         *        detector state
+         * @param dateIn
+         *        event date
+         * @param increasingIn
+         *        true if the switching function increases around the event
+         */
+        private EventOccurrence(final DetectorState detectorIn, final AbsoluteDate dateIn,
+                                final boolean increasingIn) {
+            this.detector = detectorIn;
+            this.date = dateIn;
+            this.increasing = increasingIn;
+        }
+    }
+
+    /**
+     * Integration of a satellite over the whole propagation span, paused at the synchronization dates.
+     * <p>
+     * The integration runs in its own thread and holds one of the permits while integrating. The fields shared with
+     * the propagation are guarded by the lock.
+     * </p>
+     */
+    private final class SatelliteRun implements Runnable, MultiPatriusStepHandler {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = -4420512717939815342L;
+
+        /** Satellite ID. */
+        private final String satId;
+
+        /** Single-satellite propagator. */
+        private final MultiNumericalPropagator propagator;
+
+        /** Permits bounding the number of satellites integrated at the same time. */
+        private final Semaphore permits;
+
+        /** Integration steps which may still be needed (in propagation order). */
+        private final Deque<MultiAdaptedStepHandler> steps;
+
+        /** Date reached by the integration. */
+        private AbsoluteDate reached;
+
+        /** True if the integration waits for the next synchronization date. */
+        private boolean waiting;
+
+        /** True if the integration is over. */
+        private boolean finished;
+
+        /** State at the end of the integration (null if not finished or aborted). */
+        private SpacecraftState finalState;
+
+        /** Failure of the integration (null if none). */
+        private Exception failure;
+
+        /** True if the integration thread holds a permit (only accessed by the integration thread). */
+        private boolean holding;
+
+        /** Pending integration (only accessed by the propagation thread). */
+        private Future<?> future;
+
+        /**
+         * Constructor.
+         *
+         * @param satIdIn
+         *        satellite ID
+         * @param propagatorIn
+         *        single-satellite propagator
+         * @param permitsIn
+         *        permits bounding the number of satellites integrated at the same time
+         * @param start
+         *        start date
+         */
+        private SatelliteRun(final String satIdIn, final MultiNumericalPropagator propagatorIn,
+                             final Semaphore permitsIn, final AbsoluteDate start) {
+            this.satId = satIdIn;
+            this.propagator = propagatorIn;
+            this.permits = permitsIn;
+            this.steps = new ArrayDeque<>();
+            this.reached = start;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        @SuppressWarnings("PMD.AvoidCatchingGenericException")
+        public void run() {
+            final Object lck = DecoupledMultiPropagation.this.lock;
+            try {
+                this.permits.acquire();
+                this.holding = true;
+                this.propagator.setMasterMode(this);
+                final SpacecraftState end = this.propagator.propagate(DecoupledMultiPropagation.this.target)
+                    .get(this.satId);
+                synchronized (lck) {
+                    this.finalState = end;
+                    this.reached = end.getDate();
+                }
+            } catch (final AbortedRunException e) {
+                // Integration aborted by the propagation: nothing to report
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.fail(new PropagationException(e, PatriusMessages.DECOUPLED_PROPAGATION_INTERRUPTED));
+            } catch (final PatriusException | RuntimeException e) {
+                this.fail(e);
+            } finally {
+                if (this.holding) {
+                    this.permits.release();
+                    this.holding = false;
+                }
+                synchronized (lck) {
+                    this.finished = true;
+                    lck.notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Record the failure of the integration.
+         *
+         * @param e
+         *        failure
+         */
+        private void fail(final Exception e) {
+            synchronized (DecoupledMultiPropagation.this.lock) {
+                this.failure = e;
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void init(final Map<String, SpacecraftState> s0, final AbsoluteDate t) {
+            // Nothing to do
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void handleStep(final MultiPatriusStepInterpolator interpolator,
+                               final boolean isLast) throws PropagationException {
+            final DecoupledMultiPropagation propagation = DecoupledMultiPropagation.this;
+            final MultiAdaptedStepHandler step = ((MultiAdaptedStepHandler) interpolator).copy();
+            boolean paused = false;
+            synchronized (propagation.lock) {
+                if (propagation.abort) {
+                    throw new AbortedRunException();
+                }
+                this.steps.addLast(step);
+                this.reached = step.getCurrentDate();
+                propagation.pruneSteps();
+                if (!isLast && this.mustPause()) {
+                    // Wait for the other satellites without holding a permit
+                    this.waiting = true;
+                    this.permits.release();
+                    this.holding = false;
+                    propagation.lock.notifyAll();
+                    try {
+                        while (!propagation.abort && this.mustPause()) {
+                            propagation.lock.wait();
+                        }
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new PropagationException(e, PatriusMessages.DECOUPLED_PROPAGATION_INTERRUPTED);
+                    } finally {
+                        this.waiting = false;
+                    }
+                    if (propagation.abort) {
+                        throw new AbortedRunException();
+                    }
+                    paused = true;
+                }
+            }
+            if (paused) {
+                try {
+                    this.permits.acquire();
+                    this.holding = true;
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new PropagationException(e, PatriusMessages.DECOUPLED_PROPAGATION_INTERRUPTED);
+                }
+            }
+        }
+
+        /**
+         * Check if the integration has reached the current synchronization date and must wait for the other
+         * satellites. Should be called with the lock held.
+         *
+         * @return true if the integration must wait for the other satellites
+         */
+        private boolean mustPause() {
+            final DecoupledMultiPropagation propagation = DecoupledMultiPropagation.this;
+            return !propagation.syncDate.equals(propagation.target)
+                    && !propagation.isBefore(this.reached, propagation.syncDate);
+        }
+
+        /**
+         * Get the state of the satellite at a date of the current synchronization interval. The integration must be
+         * waiting or over.
+         *
+         * @param date
+         *        date
+         * @return state of the satellite
+         * @throws PatriusException
+         *         if state cannot be interpolated
+         */
+        private SpacecraftState getState(final AbsoluteDate date) throws PatriusException {
+            if (this.finalState != null && this.finalState.getDate().equals(date)) {
+                // Integrated state
+                return this.finalState;
+            }
+            final DecoupledMultiPropagation propagation = DecoupledMultiPropagation.this;
+            for (final MultiAdaptedStepHandler step : this.steps) {
+                if (!propagation.isBefore(date, step.getPreviousDate())
+                        && !propagation.isBefore(step.getCurrentDate(), date)) {
+                    step.setInterpolatedDate(date);
+                    return step.getInterpolatedStates().get(this.satId);
+                }
+            }
+            final AbsoluteDate lower = this.steps.isEmpty() ? this.reached : this.steps.peekFirst().getPreviousDate();
+            throw new PropagationException(PatriusMessages.OUT_OF_RANGE_EPHEMERIDES_DATE, date, lower, this.reached);
+        }
+    }
+
+    /** Exception aborting the integration of a satellite. */
+    private static final class AbortedRunException extends RuntimeException {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 2637218741090745238L;
+    }
+
+    /** Step interpolator over the integration steps of the current synchronization interval. */
+    private final class DecoupledStepInterpolator implements MultiPatriusStepInterpolator {
+
+        /** Previous date. */
+        private final AbsoluteDate previousDate;
+
+        /** Current date. */
+        private final AbsoluteDate currentDate;
+
+        /** Propagation direction. */
+        private final boolean forward;
+
+        /** Interpolated date. */
+        private AbsoluteDate interpolatedDate;
+
+        /**
+         * Constructor.
+         *
+         * @param previousDateIn
+         *        previous date
+         * @param currentDateIn
+         *        current date
+         * @param forwardIn
+         *        propagation direction
+         */
+        private DecoupledStepInterpolator(final AbsoluteDate previousDateIn, final AbsoluteDate currentDateIn,
+                                          final boolean forwardIn) {
+            this.previousDate = previousDateIn;
+            this.currentDate = currentDateIn;
+            this.forward = forwardIn;
+            this.interpolatedDate = currentDateIn;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getCurrentDate() {
+            return this.currentDate;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getPreviousDate() {
+            return this.previousDate;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public AbsoluteDate getInterpolatedDate() {
+            return this.interpolatedDate;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void setInterpolatedDate(final AbsoluteDate date) {
+            this.interpolatedDate = date;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Map<String, SpacecraftState> getInterpolatedStates() throws PatriusException {
+            return DecoupledMultiPropagation.this.getStates(this.interpolatedDate);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isForward() {
+            return this.forward;
+        }
+    }
+}
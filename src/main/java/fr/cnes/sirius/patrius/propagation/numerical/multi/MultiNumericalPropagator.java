@@ -324,6 +324,15 @@ public class MultiNumericalPropagator implements MultiPropagator, Observer, Seri
      */
     private double[] orbitDefaultRelativeTolerance;
 
+    /** Master mode step handler (used in decoupled integration). */
+    private transient MultiPatriusStepHandler masterHandler;
+
+    /** Builder of the integrator of each spacecraft (null if all spacecraft are integrated together). */
+    private IntegratorBuilder decoupledIntegratorBuilder;
+
+    /** Maximal number of threads used in decoupled integration. */
+    private int decoupledParallelism;
+
     /**
      * Create a new instance of MultiNumericalPropagator. After creation, the instance is empty,
      * i.e. there are no forces at all, not even the Newtonian gravitational one. The defaults are
@@ -435,6 +444,8 @@ public class MultiNumericalPropagator implements MultiPropagator, Observer, Seri
         this.muMap = new HashMap<>();
         this.massMultiModelHandlers = new HashMap<>();
         this.nullMassDetectors = new HashMap<>();
+        this.decoupledIntegratorBuilder = null;
+        this.decoupledParallelism = 1;
         if (this.multiIntegrator instanceof AbstractIntegrator) {
             ((AbstractIntegrator) this.multiIntegrator).addObserver(this);
         }
@@ -841,6 +852,7 @@ public class MultiNumericalPropagator implements MultiPropagator, Observer, Seri
     @Override
     public void setSlaveMode() {
         this.masterMultiModeHandler = null;
+        this.masterHandler = null;
         this.ephemerisMultiModeHandler = null;
         this.mode = SLAVE_MODE;
     }
@@ -876,6 +888,7 @@ public class MultiNumericalPropagator implements MultiPropagator, Observer, Seri
     public void setMasterMode(final MultiPatriusStepHandler handler) {
         this.ephemerisMultiModeHandler = null;
         this.masterMultiModeHandler = new MultiAdaptedStepHandler(handler);
+        this.masterHandler = handler;
         this.mode = MASTER_MODE;
     }
 
@@ -893,6 +906,7 @@ public class MultiNumericalPropagator implements MultiPropagator, Observer, Seri
     @Override
     public void setEphemerisMode() {
         this.masterMultiModeHandler = null;
+        this.masterHandler = null;
         this.ephemerisMultiModeHandler = new MultiEphemerisModeHandler();
         this.mode = EPHEMERIS_GENERATION_MODE;
     }
@@ -1173,6 +1187,60 @@ public class MultiNumericalPropagator implements MultiPropagator, Observer, Seri
         this.selectEquationsAndTolerances(name, satId).setTolerances(absTol, relTol);
     }
 
+    /**
+     * Enable the decoupled integration of the spacecraft.
+     * <p>
+     * By default, the states of all spacecraft are stacked in a single state vector integrated by the integrator
+     * provided at construction: the step size is then driven by the most demanding spacecraft. In decoupled
+     * integration, each spacecraft is integrated with its own integrator (built by the provided builder), hence with
+     * its own adaptive step size, possibly concurrently.
+     * </p>
+     * <p>
+     * The spacecraft are only synchronized at the multi-spacecraft events checks and at the steps of the master mode
+     * handler:
+     * <ul>
+     * <li>synchronization dates are separated by at most the smallest maximal check interval of the
+     * {@link MultiEventDetector multi-spacecraft event detectors} and, in master mode, by the maximal step of the
+     * integrator provided at construction (if adaptive). Each integrator goes on across synchronization dates
+     * without being restarted, so that results do not depend on the synchronization dates,</li>
+     * <li>multi-spacecraft events are located between synchronization dates on the integration steps of each
+     * spacecraft, which are only kept while needed. If an event stops the propagation, resets the states or the
+     * derivatives, all spacecraft are restarted from the event date,</li>
+     * <li>a propagation stopped by a single-spacecraft detector (registered with
+     * {@link #addEventDetector(EventDetector, String)} or null mass detector) stops all spacecraft at the same
+     * date.</li>
+     * </ul>
+     * Single-spacecraft detectors are initialized at the beginning of the propagation and after each restart.
+     * </p>
+     * <p>
+     * Decoupled integration is not available in ephemeris generation mode and does not support multi-spacecraft
+     * attitude providers (attitude providers depending on several spacecraft). Since several spacecraft may be
+     * integrated concurrently, force models, detectors and mass models shared between spacecraft must be thread-safe
+     * if more than one thread is used.
+     * </p>
+     *
+     * @param builder
+     *        builder of the integrator of each spacecraft, null to integrate all spacecraft together (default)
+     * @param nbThreads
+     *        maximal number of spacecraft integrated at the same time (values lower than 1 are replaced by 1)
+     * @since 4.14
+     */
+    public void setDecoupledIntegration(final IntegratorBuilder builder, final int nbThreads) {
+        this.decoupledIntegratorBuilder = builder;
+        this.decoupledParallelism = MathLib.max(1, nbThreads);
+    }
+
+    /**
+     * Returns true if the spacecraft are integrated with their own integrators.
+     *
+     * @return true if the spacecraft are integrated with their own integrators
+     * @see #setDecoupledIntegration(IntegratorBuilder, int)
+     * @since 4.14
+     */
+    public boolean isDecoupledIntegration() {
+        return this.decoupledIntegratorBuilder != null;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Map<String, SpacecraftState> propagate(final AbsoluteDate target)
@@ -1255,6 +1323,11 @@ public class MultiNumericalPropagator implements MultiPropagator, Observer, Seri
                 return this.initialStates;
             }
 
+            if (this.decoupledIntegratorBuilder != null) {
+                // Each spacecraft is integrated with its own integrator
+                return this.propagateDecoupled(tEnd, activateHandlers);
+            }
+
             // Copy the list of step handlers into the integrator before propagation
             // Mass model handler is set in first position to ensure all other handlers will have
             // synchronized masses
@@ -1404,6 +1477,145 @@ public class MultiNumericalPropagator implements MultiPropagator, Observer, Seri
         }
     }
 
+    /**
+     * Decoupled propagation: each spacecraft is integrated with its own integrator.
+     *
+     * @param tEnd target date to which orbit should be propagated
+     * @param activateHandlers if true, step and event handlers should be activated
+     * @return states at end of propagation
+     * @throws PatriusException if orbit cannot be propagated or if configuration is not supported
+     */
+    private Map<String, SpacecraftState> propagateDecoupled(final AbsoluteDate tEnd,
+                                                            final boolean activateHandlers) throws PatriusException {
+
+        if (this.mode == EPHEMERIS_GENERATION_MODE) {
+            throw new PropagationException(PatriusMessages.DECOUPLED_PROPAGATION_UNSUPPORTED,
+                "ephemeris generation mode");
+        }
+
+        // One single-spacecraft propagator for each spacecraft
+        final Map<String, MultiNumericalPropagator> propagators = new LinkedHashMap<>();
+        boolean mayStopEarly = false;
+        for (final String satId : this.initialStates.keySet()) {
+            final MultiNumericalPropagator propagator = this.buildDecoupledPropagator(satId, activateHandlers);
+            propagators.put(satId, propagator);
+            mayStopEarly |= !propagator.multiDetectors.isEmpty() || !propagator.nullMassDetectors.isEmpty();
+        }
+
+        // Multi-spacecraft detectors and step handler are handled at synchronization dates
+        final List<MultiEventDetector> detectors = new ArrayList<>();
+        double maxSynchronizationStep = Double.POSITIVE_INFINITY;
+        MultiPatriusStepHandler handler = null;
+        if (activateHandlers) {
+            for (final MultiEventDetector detector : this.multiDetectors) {
+                if (!(detector instanceof OneSatEventDetectorWrapper)) {
+                    detectors.add(detector);
+                    maxSynchronizationStep = MathLib.min(maxSynchronizationStep, detector.getMaxCheckInterval());
+                }
+            }
+            handler = this.masterHandler;
+            if (handler != null && this.multiIntegrator instanceof AdaptiveStepsizeIntegrator) {
+                maxSynchronizationStep = MathLib.min(maxSynchronizationStep,
+                    ((AdaptiveStepsizeIntegrator) this.multiIntegrator).getMaxStep());
+            }
+        }
+
+        final DecoupledMultiPropagation propagation = new DecoupledMultiPropagation(propagators, detectors,
+            handler, this.decoupledParallelism, maxSynchronizationStep, mayStopEarly);
+        final Map<String, SpacecraftState> finalStates = propagation.propagate(this.initialStates, this.startDate,
+            tEnd);
+
+        // Remove detectors which should be removed
+        this.multiDetectors.removeAll(propagation.getRemovedDetectors());
+        for (final Entry<String, MultiNumericalPropagator> entry : propagators.entrySet()) {
+            for (final MultiEventDetector detector : new ArrayList<>(this.multiDetectors)) {
+                if (detector instanceof OneSatEventDetectorWrapper
+                        && ((OneSatEventDetectorWrapper) detector).getID().equals(entry.getKey())
+                        && !entry.getValue().getEventsDetectors().contains(detector)) {
+                    this.multiDetectors.remove(detector);
+                }
+            }
+        }
+
+        // get final state
+        this.initialStates = new LinkedHashMap<>(finalStates);
+        this.startDate = finalStates.values().iterator().next().getDate();
+        return this.initialStates;
+    }
+
+    /**
+     * Build the single-spacecraft propagator used in decoupled integration. The returned propagator shares the
+     * dynamics (force models, additional equations, attitude providers, mass model) and the single-spacecraft event
+     * detectors of the given spacecraft.
+     *
+     * @param satId the spacecraft ID
+     * @param activateHandlers if true, single-spacecraft event detectors are added
+     * @return single-spacecraft propagator
+     * @throws PatriusException if integrator cannot be built or if spacecraft uses a multi-spacecraft attitude
+     *         provider
+     */
+    private MultiNumericalPropagator buildDecoupledPropagator(final String satId,
+                                                              final boolean activateHandlers) throws PatriusException {
+        final Map<String, Frame> frame = new HashMap<>();
+        frame.put(satId, this.propagationFrameMap.get(satId));
+        final MultiNumericalPropagator propagator = new MultiNumericalPropagator(
+            this.decoupledIntegratorBuilder.buildIntegrator(satId), frame, this.orbitType, this.angleType);
+        propagator.addInitialState(this.initialStates.get(satId), satId);
+
+        // Dynamics
+        if (this.forceModels.containsKey(satId)) {
+            propagator.forceModels.put(satId, this.forceModels.get(satId));
+        }
+        if (this.addEquationsAndTolerances.containsKey(satId)) {
+            propagator.addEquationsAndTolerances.put(satId,
+                new ArrayList<>(this.addEquationsAndTolerances.get(satId)));
+        }
+        copyDecoupledAttitudeProvider(this.attitudeProvidersByDefault, propagator.attitudeProvidersByDefault,
+            satId);
+        copyDecoupledAttitudeProvider(this.attitudeProvidersForces, propagator.attitudeProvidersForces, satId);
+        copyDecoupledAttitudeProvider(this.attitudeProvidersEvents, propagator.attitudeProvidersEvents, satId);
+        if (this.orbitAbsoluteTolerances.containsKey(satId)) {
+            propagator.orbitAbsoluteTolerances.put(satId, this.orbitAbsoluteTolerances.get(satId));
+            propagator.orbitRelativeTolerances.put(satId, this.orbitRelativeTolerances.get(satId));
+        }
+        if (this.massMultiModelHandlers.containsKey(satId)) {
+            propagator.massMultiModelHandlers.put(satId, this.massMultiModelHandlers.get(satId));
+            propagator.nullMassDetectors.put(satId, this.nullMassDetectors.get(satId));
+        }
+
+        // Single-spacecraft event detectors
+        if (activateHandlers) {
+            for (final MultiEventDetector detector : this.multiDetectors) {
+                if (detector instanceof OneSatEventDetectorWrapper
+                        && ((OneSatEventDetectorWrapper) detector).getID().equals(satId)) {
+                    propagator.multiDetectors.add(detector);
+                }
+            }
+        }
+        return propagator;
+    }
+
+    /**
+     * Copy the attitude provider of a spacecraft for decoupled integration.
+     *
+     * @param source attitude providers of the multi-spacecraft propagator
+     * @param destination attitude providers of the single-spacecraft propagator
+     * @param satId the spacecraft ID
+     * @throws PropagationException if the attitude provider depends on several spacecraft
+     */
+    private static void copyDecoupledAttitudeProvider(final Map<String, MultiAttitudeProvider> source,
+                                                      final Map<String, MultiAttitudeProvider> destination,
+                                                      final String satId) throws PropagationException {
+        final MultiAttitudeProvider provider = source.get(satId);
+        if (provider != null) {
+            if (!(provider instanceof MultiAttitudeProviderWrapper)) {
+                throw new PropagationException(PatriusMessages.DECOUPLED_PROPAGATION_UNSUPPORTED,
+                    "multi-spacecraft attitude providers");
+            }
+            destination.put(satId, provider);
+        }
+    }
+
     /**
      * Manage the state frame : the orbit to propagate is converted in the propagation frame.
      *
@@ -1963,6 +2175,25 @@ public class MultiNumericalPropagator implements MultiPropagator, Observer, Seri
         this.multiDetectors.remove(multiDetector);
     }
 
+    /**
+     * Builder of the integrator of each spacecraft in decoupled integration.
+     *
+     * @see MultiNumericalPropagator#setDecoupledIntegration(IntegratorBuilder, int)
+     * @since 4.14
+     */
+    @FunctionalInterface
+    public interface IntegratorBuilder extends Serializable {
+
+        /**
+         * Build a new integrator for the given spacecraft. A new integrator must be returned at each call.
+         *
+         * @param satId the spacecraft ID
+         * @return a new integrator
+         * @throws PatriusException if the integrator cannot be built
+         */
+        FirstOrderIntegrator buildIntegrator(String satId) throws PatriusException;
+    }
+
     /** Internal class for differential equations representation. */
     private class DifferentialEquations implements FirstOrderDifferentialEquations,
         TimeDerivativesEquations, SecondOrderDifferentialEquations {
@@ -0,0 +1,793 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.propagation.precomputed;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.cnes.sirius.patrius.attitudes.AttitudeProvider;
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.math.analysis.polynomials.ChebyshevDecompositionEngine;
+import fr.cnes.sirius.patrius.math.analysis.polynomials.PolynomialsUtils;
+import fr.cnes.sirius.patrius.math.exception.NotPositiveException;
+import fr.cnes.sirius.patrius.math.exception.NotStrictlyPositiveException;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.orbits.Orbit;
+import fr.cnes.sirius.patrius.orbits.OrbitType;
+import fr.cnes.sirius.patrius.orbits.PositionAngle;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.propagation.AbstractPropagator;
+import fr.cnes.sirius.patrius.propagation.BoundedPropagator;
+import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.propagation.numerical.AdditionalStateInfo;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+import fr.cnes.sirius.patrius.utils.exception.PropagationException;
+
+/**
+ * Compact version of an {@link IntegratedEphemeris}.
+ * <p>
+ * The dense output of the integrator is refitted into contiguous segments, each segment holding one Chebyshev
+ * polynomial of fixed degree per component of the integrated state vector (orbital parameters in the propagation
+ * {@link OrbitType orbit type} followed by additional states). Segments are built by successive bisections of the
+ * ephemeris ranges until the position error with respect to the original ephemeris is lower than a user-defined
+ * tolerance, the same tolerance being applied as an absolute error on additional states components. A state
+ * discontinuity (impulse maneuver for instance) is isolated in a segment shorter than
+ * {@link #MIN_SEGMENT_DURATION}, on which the tolerance is not guaranteed.
+ * </p>
+ * <p>
+ * All the coefficients are stored in a single flat buffer. They can be written to a binary file with
+ * {@link #write(File)}, and the file can later be memory-mapped with {@link #load(File, Frame, AttitudeProvider)}:
+ * coefficients are then read from the file on demand and do not use heap memory.
+ * </p>
+ * <p>
+ * As this class implements the {@link BoundedPropagator} interface, it can be used in place of the original
+ * ephemeris, including for events detection.
+ * </p>
+ *
+ * @concurrency conditionally thread-safe
+ *
+ * @concurrency.comment {@link #getSpacecraftState(AbsoluteDate)} and
+ *                      {@link #getPVCoordinates(AbsoluteDate, Frame)} are thread-safe if the attitude providers are
+ *                      thread-safe; propagation methods are not thread-safe
+ *
+ * @see IntegratedEphemeris#compress(double)
+ *
+ * @since 4.14
+ */
+public class CompressedIntegratedEphemeris extends AbstractPropagator implements BoundedPropagator {
+
+    /** Default degree of the Chebyshev polynomials. */
+    public static final int DEFAULT_DEGREE = 15;
+
+    /** Minimum duration of a segment (s): shorter segments are only built around state discontinuities. */
+    public static final double MIN_SEGMENT_DURATION = 1.0e-3;
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = 2863012470541138657L;
+
+    /** Identifier of compressed ephemeris files. */
+    private static final int MAGIC_NUMBER = 0x50434945;
+
+    /** Version of compressed ephemeris files format. */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Size of a double (bytes). */
+    private static final int DOUBLE_SIZE = Double.SIZE / Byte.SIZE;
+
+    /** Number of doubles written at once. */
+    private static final int CHUNK_SIZE = 8192;
+
+    /** Propagation orbit type. */
+    private final OrbitType orbitType;
+
+    /** Position angle type. */
+    private final PositionAngle angleType;
+
+    /** Reference frame. */
+    private final Frame referenceFrame;
+
+    /** Additional states informations. */
+    private final Map<String, AdditionalStateInfo> addStateInfos;
+
+    /** Central body gravitational constant. */
+    private final double mu;
+
+    /** First date of the range, reference date of the segments bounds. */
+    private final AbsoluteDate minDate;
+
+    /** Last date of the range. */
+    private final AbsoluteDate maxDate;
+
+    /** Size of the state vector. */
+    private final int dimension;
+
+    /** Number of coefficients per polynomial. */
+    private final int nbCoefficients;
+
+    /** Segments bounds (s from min date): segment i is [bounds[i]; bounds[i + 1]]. */
+    private final double[] bounds;
+
+    /** Coefficients, ordered by segment, then by state vector component, then by increasing degree. */
+    private transient DoubleBuffer coefficients;
+
+    /**
+     * Build a compressed version of an integrated ephemeris.
+     * <p>
+     * The attitude providers of the compressed ephemeris are those of the original ephemeris.
+     * </p>
+     *
+     * @param ephemeris
+     *        ephemeris to compress
+     * @param tolerance
+     *        maximum position error (m) with respect to the original ephemeris, also used as maximum absolute error
+     *        on additional states components
+     * @param degree
+     *        degree of the Chebyshev polynomials
+     * @throws PatriusException
+     *         if the ephemeris cannot be compressed within the tolerance
+     * @throws NotStrictlyPositiveException
+     *         if {@code tolerance <= 0}
+     * @throws NotPositiveException
+     *         if {@code degree < 0}
+     */
+    public CompressedIntegratedEphemeris(final IntegratedEphemeris ephemeris, final double tolerance,
+                                        final int degree) throws PatriusException {
+        super(ephemeris.getAttitudeProviderForces(), ephemeris.getAttitudeProviderEvents());
+        if (!(tolerance > 0.)) {
+            throw new NotStrictlyPositiveException(tolerance);
+        }
+        if (degree < 0) {
+            throw new NotPositiveException(degree);
+        }
+        if (ephemeris.getAttitudeProviderForces() == null && ephemeris.getAttitudeProviderEvents() == null) {
+            this.setAttitudeProvider(ephemeris.getAttitudeProvider());
+        }
+
+        this.orbitType = ephemeris.getOrbitType();
+        this.angleType = ephemeris.getPositionAngle();
+        this.referenceFrame = ephemeris.getReferenceFrame();
+        this.addStateInfos = ephemeris.getAdditionalStateInfos();
+        this.mu = ephemeris.getMu();
+        this.minDate = ephemeris.getMinDate();
+        this.maxDate = ephemeris.getMaxDate();
+        this.dimension = ephemeris.getInterpolatedState(this.minDate).length;
+        this.nbCoefficients = degree + 1;
+        this.setOrbitFrame(this.referenceFrame);
+
+        // Fit each range independently
+        final int segmentSize = this.dimension * this.nbCoefficients;
+        final List<AbsoluteDate> boundaries = ephemeris.getRangesBoundaries();
+        double[] segmentsBounds = new double[boundaries.size()];
+        double[] segmentsCoefficients = new double[segmentSize * boundaries.size()];
+        int nbSegments = 0;
+        for (int i = 0; i < boundaries.size() - 1; i++) {
+
+            final Deque<double[]> intervals = new ArrayDeque<>();
+            intervals.push(new double[] { boundaries.get(i).durationFrom(this.minDate),
+                boundaries.get(i + 1).durationFrom(this.minDate) });
+            boolean previousForced = false;
+
+            while (!intervals.isEmpty()) {
+                final double[] interval = intervals.pop();
+                final double[] segment = this.fit(ephemeris, interval[0], interval[1]);
+                final double error = this.maxError(ephemeris, interval[0], interval[1], segment);
+                final boolean forced = interval[1] - interval[0] < MIN_SEGMENT_DURATION;
+                if (error > tolerance && !forced) {
+                    // Split interval, first half being processed first
+                    final double middle = 0.5 * (interval[0] + interval[1]);
+                    intervals.push(new double[] { middle, interval[1] });
+                    intervals.push(new double[] { interval[0], middle });
+                } else {
+                    final boolean discontinuity = error > tolerance;
+                    if (discontinuity && previousForced) {
+                        // Not an isolated discontinuity: tolerance cannot be reached
+                        throw new PatriusException(PatriusMessages.UNABLE_TO_COMPRESS_EPHEMERIS, tolerance,
+                            this.minDate.shiftedBy(interval[0]));
+                    }
+                    previousForced = discontinuity;
+
+                    // Store segment
+                    segmentsBounds = ensureCapacity(segmentsBounds, nbSegments + 2);
+                    segmentsCoefficients = ensureCapacity(segmentsCoefficients, (nbSegments + 1) * segmentSize);
+                    segmentsBounds[nbSegments] = interval[0];
+                    segmentsBounds[nbSegments + 1] = interval[1];
+                    System.arraycopy(segment, 0, segmentsCoefficients, nbSegments * segmentSize, segmentSize);
+                    nbSegments++;
+                }
+            }
+        }
+
+        this.bounds = Arrays.copyOf(segmentsBounds, nbSegments + 1);
+        this.coefficients = DoubleBuffer.wrap(Arrays.copyOf(segmentsCoefficients, nbSegments * segmentSize));
+    }
+
+    /**
+     * Constructor for ephemerides read from a file.
+     *
+     * @param orbitTypeIn
+     *        orbit type
+     * @param angleTypeIn
+     *        position angle type
+     * @param frame
+     *        reference frame
+     * @param additionalStateInfos
+     *        additional states informations
+     * @param muIn
+     *        central body attraction coefficient
+     * @param minDateIn
+     *        first date of the range
+     * @param maxDateIn
+     *        last date of the range
+     * @param dimensionIn
+     *        size of the state vector
+     * @param nbCoefficientsIn
+     *        number of coefficients per polynomial
+     * @param boundsIn
+     *        segments bounds
+     * @param coefficientsIn
+     *        coefficients
+     * @param attitudeForcesProvider
+     *        attitude provider for forces computation
+     * @param attitudeEventsProvider
+     *        attitude provider for events computation
+     * @throws PatriusException
+     *         if the frame is not pseudo-inertial
+     */
+    private CompressedIntegratedEphemeris(final OrbitType orbitTypeIn, final PositionAngle angleTypeIn,
+                                          final Frame frame,
+                                          final Map<String, AdditionalStateInfo> additionalStateInfos,
+                                          final double muIn, final AbsoluteDate minDateIn,
+                                          final AbsoluteDate maxDateIn, final int dimensionIn,
+                                          final int nbCoefficientsIn, final double[] boundsIn,
+                                          final DoubleBuffer coefficientsIn,
+                                          final AttitudeProvider attitudeForcesProvider,
+                                          final AttitudeProvider attitudeEventsProvider) throws PatriusException {
+        super(attitudeForcesProvider, attitudeEventsProvider);
+        if (!frame.isPseudoInertial()) {
+            throw new PatriusException(PatriusMessages.NOT_INERTIAL_FRAME);
+        }
+        this.orbitType = orbitTypeIn;
+        this.angleType = angleTypeIn;
+        this.referenceFrame = frame;
+        this.addStateInfos = additionalStateInfos;
+        this.mu = muIn;
+        this.minDate = minDateIn;
+        this.maxDate = maxDateIn;
+        this.dimension = dimensionIn;
+        this.nbCoefficients = nbCoefficientsIn;
+        this.bounds = boundsIn;
+        this.coefficients = coefficientsIn;
+        this.setOrbitFrame(frame);
+    }
+
+    /**
+     * Fit the state vector of an ephemeris on an interval.
+     *
+     * @param ephemeris
+     *        ephemeris to compress
+     * @param start
+     *        start of the interval (s from min date)
+     * @param end
+     *        end of the interval (s from min date)
+     * @return coefficients of the segment, ordered by state vector component, then by increasing degree
+     * @throws PropagationException
+     *         if the ephemeris cannot be interpolated
+     */
+    private double[] fit(final IntegratedEphemeris ephemeris, final double start,
+                         final double end) throws PropagationException {
+        // Sample the ephemeris at the Chebyshev abscissas (strictly inside the interval)
+        final double[] abscissas = PolynomialsUtils.getChebyshevAbscissas(start, end, this.nbCoefficients);
+        final double[][] samples = new double[this.nbCoefficients][];
+        for (int k = 0; k < this.nbCoefficients; k++) {
+            samples[k] = ephemeris.getInterpolatedState(this.minDate.shiftedBy(abscissas[k]));
+        }
+
+        // Interpolate each component
+        final double[] segment = new double[this.dimension * this.nbCoefficients];
+        final double[] values = new double[this.nbCoefficients];
+        for (int j = 0; j < this.dimension; j++) {
+            for (int k = 0; k < this.nbCoefficients; k++) {
+                values[k] = samples[k][j];
+            }
+            final double[] c = ChebyshevDecompositionEngine.interpolateChebyshevFunction(start, end, values)
+                .getCoefficients();
+            System.arraycopy(c, 0, segment, j * this.nbCoefficients, this.nbCoefficients);
+        }
+        return segment;
+    }
+
+    /**
+     * Compute the maximum error of a fitted segment, checked between the Chebyshev abscissas.
+     *
+     * @param ephemeris
+     *        ephemeris to compress
+     * @param start
+     *        start of the interval (s from min date)
+     * @param end
+     *        end of the interval (s from min date)
+     * @param segment
+     *        coefficients of the segment
+     * @return maximum error: position error (m) or absolute error on additional states components
+     * @throws PropagationException
+     *         if the ephemeris cannot be interpolated
+     */
+    private double maxError(final IntegratedEphemeris ephemeris, final double start, final double end,
+                            final double[] segment) throws PropagationException {
+        final double[] abscissas = PolynomialsUtils.getChebyshevAbscissas(start, end, this.nbCoefficients);
+        final DoubleBuffer buffer = DoubleBuffer.wrap(segment);
+        final double[] fitted = new double[this.dimension];
+        double error = 0.;
+        for (int k = 0; k <= this.nbCoefficients; k++) {
+            final double lower = k == 0 ? start : abscissas[k - 1];
+            final double upper = k == this.nbCoefficients ? end : abscissas[k];
+            final double t = 0.5 * (lower + upper);
+            final AbsoluteDate date = this.minDate.shiftedBy(t);
+
+            final double[] reference = ephemeris.getInterpolatedState(date);
+            evaluate(buffer, 0, this.dimension, this.nbCoefficients, start, end, t, fitted);
+
+            // Position error
+            final Vector3D p1 = this.orbitType.mapArrayToOrbit(reference, this.angleType, date, this.mu,
+                this.referenceFrame).getPVCoordinates().getPosition();
+            final Vector3D p2 = this.orbitType.mapArrayToOrbit(fitted, this.angleType, date, this.mu,
+                this.referenceFrame).getPVCoordinates().getPosition();
+            error = MathLib.max(error, p1.distance(p2));
+
+            // Additional states error
+            for (int j = SpacecraftState.ORBIT_DIMENSION; j < this.dimension; j++) {
+                error = MathLib.max(error, MathLib.abs(reference[j] - fitted[j]));
+            }
+        }
+        return error;
+    }
+
+    /**
+     * Evaluate the Chebyshev polynomials of a segment using Clenshaw's recurrence.
+     *
+     * @param buffer
+     *        coefficients buffer
+     * @param offset
+     *        index of the first coefficient of the segment
+     * @param dim
+     *        size of the state vector
+     * @param nbCoeffs
+     *        number of coefficients per polynomial
+     * @param start
+     *        start of the segment
+     * @param end
+     *        end of the segment
+     * @param t
+     *        evaluation abscissa
+     * @param y
+     *        placeholder where to put the state vector
+     */
+    private static void evaluate(final DoubleBuffer buffer, final int offset, final int dim, final int nbCoeffs,
+                                 final double start, final double end, final double t, final double[] y) {
+        // Change of variable
+        final double x = (2. * t - start - end) / (end - start);
+        final double x2 = 2. * x;
+        for (int j = 0; j < dim; j++) {
+            final int first = offset + j * nbCoeffs;
+            double d = 0.;
+            double dd = 0.;
+            for (int i = nbCoeffs - 1; i > 0; i--) {
+                final double sv = d;
+                d = x2 * d - dd + buffer.get(first + i);
+                dd = sv;
+            }
+            y[j] = x * d - dd + buffer.get(first);
+        }
+    }
+
+    /**
+     * Grow an array if needed.
+     *
+     * @param array
+     *        array
+     * @param size
+     *        required size
+     * @return the array itself if large enough, a larger copy otherwise
+     */
+    private static double[] ensureCapacity(final double[] array, final int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, MathLib.max(size, 2 * array.length));
+    }
+
+    /**
+     * Get the degree of the Chebyshev polynomials.
+     *
+     * @return the degree of the Chebyshev polynomials
+     */
+    public int getDegree() {
+        return this.nbCoefficients - 1;
+    }
+
+    /**
+     * Get the number of segments.
+     *
+     * @return the number of segments
+     */
+    public int getSegmentsNumber() {
+        return this.bounds.length - 1;
+    }
+
+    /**
+     * Get the state vector at some date.
+     *
+     * @param date
+     *        desired interpolation date
+     * @return state vector (orbital parameters followed by additional states)
+     * @exception PropagationException
+     *            if specified date is outside of supported range
+     */
+    private double[] interpolate(final AbsoluteDate date) throws PropagationException {
+        if ((date.compareTo(this.minDate) < 0) || (date.compareTo(this.maxDate) > 0)) {
+            // Date is outside of supported range
+            throw new PropagationException(PatriusMessages.OUT_OF_RANGE_EPHEMERIDES_DATE,
+                date, this.minDate, this.maxDate);
+        }
+
+        // Find segment (later segment on boundaries)
+        final double t = date.durationFrom(this.minDate);
+        final int last = this.bounds.length - 2;
+        int index = Arrays.binarySearch(this.bounds, t);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        index = MathLib.max(0, MathLib.min(index, last));
+
+        // Evaluate
+        final double[] y = new double[this.dimension];
+        evaluate(this.coefficients, index * this.dimension * this.nbCoefficients, this.dimension,
+            this.nbCoefficients, this.bounds[index], this.bounds[index + 1], t, y);
+        return y;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected SpacecraftState basicPropagate(final AbsoluteDate date) throws PropagationException {
+        final double[] y = this.interpolate(date);
+        final SpacecraftState spacecraftState;
+        if (this.getAttitudeProvider() == null) {
+            spacecraftState = new SpacecraftState(y, this.orbitType, this.angleType, date, this.mu,
+                this.referenceFrame, this.addStateInfos, this.getAttitudeProviderForces(),
+                this.getAttitudeProviderEvents());
+        } else {
+            spacecraftState = new SpacecraftState(y, this.orbitType, this.angleType, date, this.mu,
+                this.referenceFrame, this.addStateInfos, this.getAttitudeProvider(), null);
+        }
+        return spacecraftState;
+    }
+
+    /**
+     * In this class, nothing as to be done in the frame managing before propagation
+     * because propagation will be performed in the reference frame.
+     * It just throws a PatriusException if this frame is non inertial or pseudo-inertial.
+     *
+     * @throws PatriusException
+     *         if the frame is non inertial or pseudo-inertial
+     */
+    @Override
+    public void manageStateFrame() throws PatriusException {
+        if (!this.referenceFrame.isPseudoInertial()) {
+            throw new PatriusException(PatriusMessages.NOT_INERTIAL_FRAME);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Orbit propagateOrbit(final AbsoluteDate date) throws PropagationException {
+        return this.basicPropagate(date).getOrbit();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PVCoordinates getPVCoordinates(final AbsoluteDate date, final Frame frame) throws PatriusException {
+        return this.basicPropagate(date).getPVCoordinates(frame);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbsoluteDate getMinDate() {
+        return this.minDate;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbsoluteDate getMaxDate() {
+        return this.maxDate;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void resetInitialState(final SpacecraftState state) throws PropagationException {
+        throw new PropagationException(PatriusMessages.NON_RESETABLE_STATE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SpacecraftState getInitialState() throws PatriusException {
+        return this.basicPropagate(this.minDate);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SpacecraftState getSpacecraftState(final AbsoluteDate date) throws PropagationException {
+        return this.basicPropagate(date);
+    }
+
+    /**
+     * Write the ephemeris to a binary file.
+     * <p>
+     * The file holds the segments and coefficients as well as the orbit type, position angle type, central body
+     * attraction coefficient and additional states informations. The reference frame and the attitude providers are
+     * not written and must be provided when the file is {@link #load(File, Frame, AttitudeProvider) loaded}.
+     * </p>
+     *
+     * @param file
+     *        file to write (overwritten if it already exists)
+     * @throws IOException
+     *         if the file cannot be written
+     */
+    public void write(final File file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            // Header
+            final ByteBuffer header = ByteBuffer.allocate(this.headerSize());
+            header.putInt(MAGIC_NUMBER);
+            header.putInt(FORMAT_VERSION);
+            header.putLong(this.minDate.getEpoch());
+            header.putDouble(this.minDate.getOffset());
+            header.putLong(this.maxDate.getEpoch());
+            header.putDouble(this.maxDate.getOffset());
+            header.putInt(this.orbitType.ordinal());
+            header.putInt(this.angleType.ordinal());
+            header.putDouble(this.mu);
+            header.putInt(this.dimension);
+            header.putInt(this.nbCoefficients);
+            header.putInt(this.bounds.length - 1);
+            header.putInt(this.addStateInfos.size());
+            for (final Map.Entry<String, AdditionalStateInfo> entry : this.addStateInfos.entrySet()) {
+                final byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                header.putInt(name.length);
+                header.put(name);
+                header.putInt(entry.getValue().getSize());
+                header.putInt(entry.getValue().getIndex());
+            }
+            // Padding included
+            header.rewind();
+            writeFully(channel, header);
+
+            // Segments bounds and coefficients
+            final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE * DOUBLE_SIZE);
+            writeDoubles(channel, DoubleBuffer.wrap(this.bounds), chunk);
+            final DoubleBuffer all = this.coefficients.duplicate();
+            all.rewind();
+            writeDoubles(channel, all, chunk);
+        }
+    }
+
+    /**
+     * Compute the size of the file header, padded so that the doubles that follow are aligned.
+     *
+     * @return the size of the file header (bytes)
+     */
+    private int headerSize() {
+        // Magic number, version, dates, orbit and angle types, mu, dimension, coefficients and segments numbers
+        int size = 2 * Integer.BYTES + 2 * (Long.BYTES + DOUBLE_SIZE) + 2 * Integer.BYTES + DOUBLE_SIZE + 4
+                * Integer.BYTES;
+        for (final String name : this.addStateInfos.keySet()) {
+            size += 3 * Integer.BYTES + name.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return (size + DOUBLE_SIZE - 1) / DOUBLE_SIZE * DOUBLE_SIZE;
+    }
+
+    /**
+     * Write the remaining doubles of a buffer to a channel.
+     *
+     * @param channel
+     *        channel
+     * @param doubles
+     *        doubles to write
+     * @param chunk
+     *        buffer used for the conversion to bytes
+     * @throws IOException
+     *         if the doubles cannot be written
+     */
+    private static void writeDoubles(final FileChannel channel, final DoubleBuffer doubles,
+                                     final ByteBuffer chunk) throws IOException {
+        while (doubles.hasRemaining()) {
+            chunk.clear();
+            final int n = MathLib.min(CHUNK_SIZE, doubles.remaining());
+            final DoubleBuffer view = chunk.asDoubleBuffer();
+            for (int i = 0; i < n; i++) {
+                view.put(doubles.get());
+            }
+            chunk.limit(n * DOUBLE_SIZE);
+            writeFully(channel, chunk);
+        }
+    }
+
+    /**
+     * Write all the remaining bytes of a buffer to a channel.
+     *
+     * @param channel
+     *        channel
+     * @param buffer
+     *        bytes to write
+     * @throws IOException
+     *         if the bytes cannot be written
+     */
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Load an ephemeris written by {@link #write(File)}, using the same attitude provider for forces and events.
+     *
+     * @param file
+     *        file to load
+     * @param frame
+     *        reference frame of the ephemeris (must be the one of the written ephemeris)
+     * @param attitudeProvider
+     *        attitude provider (may be null)
+     * @return the loaded ephemeris
+     * @throws IOException
+     *         if the file cannot be read
+     * @throws PatriusException
+     *         if the file is not a compressed ephemeris file or if the frame is not pseudo-inertial
+     * @see #load(File, Frame, AttitudeProvider, AttitudeProvider)
+     */
+    public static CompressedIntegratedEphemeris load(final File file, final Frame frame,
+                                                     final AttitudeProvider attitudeProvider)
+        throws IOException, PatriusException {
+        final CompressedIntegratedEphemeris ephemeris = load(file, frame, null, null);
+        ephemeris.setAttitudeProvider(attitudeProvider);
+        return ephemeris;
+    }
+
+    /**
+     * Load an ephemeris written by {@link #write(File)}.
+     * <p>
+     * Coefficients are memory-mapped: they are read from the file on demand and do not use heap memory. The file
+     * must not be modified while the ephemeris is in use. Coefficients size is limited to 2 GB.
+     * </p>
+     *
+     * @param file
+     *        file to load
+     * @param frame
+     *        reference frame of the ephemeris (must be the one of the written ephemeris)
+     * @param attitudeForcesProvider
+     *        attitude provider for forces computation (may be null)
+     * @param attitudeEventsProvider
+     *        attitude provider for events computation (may be null)
+     * @return the loaded ephemeris
+     * @throws IOException
+     *         if the file cannot be read
+     * @throws PatriusException
+     *         if the file is not a compressed ephemeris file or if the frame is not pseudo-inertial
+     */
+    public static CompressedIntegratedEphemeris load(final File file, final Frame frame,
+                                                     final AttitudeProvider attitudeForcesProvider,
+                                                     final AttitudeProvider attitudeEventsProvider)
+        throws IOException, PatriusException {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                MathLib.min(fileSize, Integer.MAX_VALUE));
+            try {
+                if (header.getInt() != MAGIC_NUMBER || header.getInt() != FORMAT_VERSION) {
+                    throw new PatriusException(PatriusMessages.NOT_A_COMPRESSED_EPHEMERIS_FILE, file.getName());
+                }
+                final AbsoluteDate minDate = new AbsoluteDate(header.getLong(), header.getDouble());
+                final AbsoluteDate maxDate = new AbsoluteDate(header.getLong(), header.getDouble());
+                final OrbitType orbitType = OrbitType.values()[header.getInt()];
+                final PositionAngle angleType = PositionAngle.values()[header.getInt()];
+                final double mu = header.getDouble();
+                final int dimension = header.getInt();
+                final int nbCoefficients = header.getInt();
+                final int nbSegments = header.getInt();
+                final int nbAddStates = header.getInt();
+                final Map<String, AdditionalStateInfo> addStateInfos = new LinkedHashMap<>();
+                for (int i = 0; i < nbAddStates; i++) {
+                    final byte[] name = new byte[header.getInt()];
+                    header.get(name);
+                    final int size = header.getInt();
+                    addStateInfos.put(new String(name, StandardCharsets.UTF_8),
+                        new AdditionalStateInfo(size, header.getInt()));
+                }
+                header.position((header.position() + DOUBLE_SIZE - 1) / DOUBLE_SIZE * DOUBLE_SIZE);
+
+                // Segments bounds (on heap)
+                final double[] bounds = new double[nbSegments + 1];
+                header.asDoubleBuffer().get(bounds);
+                final long coefficientsStart = header.position() + (long) bounds.length * DOUBLE_SIZE;
+                final long coefficientsSize = (long) nbSegments * dimension * nbCoefficients * DOUBLE_SIZE;
+                if (coefficientsStart + coefficientsSize != fileSize) {
+                    throw new PatriusException(PatriusMessages.NOT_A_COMPRESSED_EPHEMERIS_FILE, file.getName());
+                }
+
+                // Coefficients (memory-mapped)
+                final DoubleBuffer coefficients = channel.map(FileChannel.MapMode.READ_ONLY, coefficientsStart,
+                    coefficientsSize).asDoubleBuffer();
+
+                return new CompressedIntegratedEphemeris(orbitType, angleType, frame, addStateInfos, mu, minDate,
+                    maxDate, dimension, nbCoefficients, bounds, coefficients, attitudeForcesProvider,
+                    attitudeEventsProvider);
+
+            } catch (final BufferUnderflowException | ArrayIndexOutOfBoundsException
+                    | NegativeArraySizeException e) {
+                // Truncated or corrupted file
+                throw new PatriusException(e, PatriusMessages.NOT_A_COMPRESSED_EPHEMERIS_FILE, file.getName());
+            }
+        }
+    }
+
+    /**
+     * Serialize the instance.
+     *
+     * @param oos
+     *        stream where object should be written
+     * @throws IOException
+     *         if object cannot be written to stream
+     */
+    private void writeObject(final ObjectOutputStream oos) throws IOException {
+        oos.defaultWriteObject();
+        final double[] array = new double[this.coefficients.capacity()];
+        final DoubleBuffer all = this.coefficients.duplicate();
+        all.rewind();
+        all.get(array);
+        oos.writeObject(array);
+    }
+
+    /**
+     * Deserialize the instance.
+     *
+     * @param ois
+     *        stream from which the object should be read
+     * @throws ClassNotFoundException
+     *         if a class in the stream cannot be found
+     * @throws IOException
+     *         if object cannot be read from the stream
+     */
+    private void readObject(final ObjectInputStream ois) throws ClassNotFoundException, IOException {
+        ois.defaultReadObject();
+        this.coefficients = DoubleBuffer.wrap((double[]) ois.readObject());
+    }
+}
@@ -108,7 +108,7 @@ public class Ephemeris extends AbstractPropagator implements BoundedPropagator {
                 return states;
             }
         };
-        this.cache = new TimeStampedCache<>(interpolationPoints,
+        this.cache = new TimeStampedCache<>(Ephemeris.class.getName(), interpolationPoints,
             PatriusConfiguration.getCacheSlotsNumber(),
             Double.POSITIVE_INFINITY, Constants.JULIAN_DAY,
             generator, SpacecraftState.class);
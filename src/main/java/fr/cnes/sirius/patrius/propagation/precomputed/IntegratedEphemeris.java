@@ -33,8 +33,10 @@
  */
 package fr.cnes.sirius.patrius.propagation.precomputed;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 
 import fr.cnes.sirius.patrius.attitudes.AttitudeProvider;
 import fr.cnes.sirius.patrius.frames.Frame;
@@ -78,6 +80,8 @@ import fr.cnes.sirius.patrius.utils.exception.PropagationException;
  * </p>
  * <p>
  * Note that this class stores all intermediate states along with interpolation models, so it may be memory intensive.
+ * A compact version of the ephemeris, fitted with Chebyshev polynomials within a user-defined tolerance, can be built
+ * with {@link #compress(double)}.
  * </p>
  * 
  * @see fr.cnes.sirius.patrius.propagation.numerical.NumericalPropagator
@@ -256,6 +260,96 @@ public class IntegratedEphemeris
         this.models.get(index).setInterpolatedTime(date.durationFrom(this.startDates.get(index)));
     }
 
+    /**
+     * Get the raw interpolated state vector at some date.
+     * <p>
+     * Unlike the propagation methods, this method does not change the interpolated point of the models: it can be
+     * called concurrently.
+     * </p>
+     * 
+     * @param date
+     *        desired interpolation date
+     * @return the interpolated state vector (orbital parameters followed by additional states), owned by the caller
+     * @exception PropagationException
+     *            if specified date is outside of supported range
+     */
+    double[] getInterpolatedState(final AbsoluteDate date) throws PropagationException {
+        final int index = this.getLeg(date);
+        return this.models.get(index).getInterpolatedState(date.durationFrom(this.startDates.get(index)));
+    }
+
+    /**
+     * Get the boundaries of the ranges, in chronological order and without duplicates.
+     * 
+     * @return the boundaries of the ranges
+     */
+    List<AbsoluteDate> getRangesBoundaries() {
+        final TreeSet<AbsoluteDate> boundaries = new TreeSet<>(this.minDates);
+        boundaries.addAll(this.maxDates);
+        return new ArrayList<>(boundaries);
+    }
+
+    /**
+     * Getter for the propagation orbit type.
+     * 
+     * @return the propagation orbit type
+     */
+    OrbitType getOrbitType() {
+        return this.orbitType;
+    }
+
+    /**
+     * Getter for the position angle type.
+     * 
+     * @return the position angle type
+     */
+    PositionAngle getPositionAngle() {
+        return this.angleType;
+    }
+
+    /**
+     * Getter for the reference frame.
+     * 
+     * @return the reference frame
+     */
+    Frame getReferenceFrame() {
+        return this.referenceFrame;
+    }
+
+    /**
+     * Getter for the additional states informations.
+     * 
+     * @return the additional states informations
+     */
+    Map<String, AdditionalStateInfo> getAdditionalStateInfos() {
+        return this.addStateInfos;
+    }
+
+    /**
+     * Getter for the central body gravitational constant.
+     * 
+     * @return the central body gravitational constant
+     */
+    double getMu() {
+        return this.mu;
+    }
+
+    /**
+     * Build a compact version of this ephemeris, fitted with Chebyshev polynomials of degree
+     * {@link CompressedIntegratedEphemeris#DEFAULT_DEGREE}.
+     * 
+     * @param tolerance
+     *        maximum position error (m) of the compressed ephemeris with respect to this ephemeris
+     * @return the compressed ephemeris
+     * @throws PatriusException
+     *         if the ephemeris cannot be compressed within the tolerance
+     * @see CompressedIntegratedEphemeris#CompressedIntegratedEphemeris(IntegratedEphemeris, double, int)
+     * @since 4.14
+     */
+    public CompressedIntegratedEphemeris compress(final double tolerance) throws PatriusException {
+        return new CompressedIntegratedEphemeris(this, tolerance, CompressedIntegratedEphemeris.DEFAULT_DEGREE);
+    }
+
     /** {@inheritDoc} */
     @Override
     @SuppressWarnings({"PMD.AvoidRethrowingException", "PMD.PreserveStackTrace"})
@@ -126,8 +126,10 @@ public final class USKLoader implements USKProvider, DataLoader {
         this.stillAccept = true;
         this.fileNameIn = fileName;
 
-        this.abciufAbciumCache = new FIFOThreadSafeCache<>();
-        this.uskDataCache = new FIFOThreadSafeCache<>();
+        this.abciufAbciumCache = new FIFOThreadSafeCache<>(FIFOThreadSafeCache.DEFAULT_MAX_SIZE,
+            USKLoader.class.getName() + ".abciufAbcium");
+        this.uskDataCache = new FIFOThreadSafeCache<>(FIFOThreadSafeCache.DEFAULT_MAX_SIZE,
+            USKLoader.class.getName() + ".uskData");
     }
 
     /** {@inheritDoc} */
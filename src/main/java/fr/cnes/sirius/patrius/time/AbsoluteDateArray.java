@@ -0,0 +1,434 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.time;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Immutable array of {@link AbsoluteDate dates} stored in primitive arrays.
+ * <p>
+ * Each date is stored as its {@link AbsoluteDate#getEpoch() epoch} and {@link AbsoluteDate#getOffset() offset} in two
+ * parallel primitive arrays, which is much more compact than a list of dates for large time grids. Dates are only
+ * built when {@link #get(int) requested}; durations, shifts, apparent offsets and searches are computed on the
+ * primitive arrays with the same arithmetic as {@link AbsoluteDate}.
+ * </p>
+ * <p>
+ * Dates need not be sorted, except for {@link #binarySearch(AbsoluteDate)} and {@link #floorIndex(AbsoluteDate)}
+ * which require a chronological order.
+ * </p>
+ *
+ * @concurrency immutable
+ *
+ * @see AbsoluteDate
+ *
+ * @since 4.14
+ */
+public final class AbsoluteDateArray implements Iterable<AbsoluteDate>, Serializable {
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = -4307312695937658542L;
+
+    /** Epochs of the dates, in seconds from 2000-01-01T12:00:00 TAI. */
+    private final long[] epochs;
+
+    /** Offsets of the dates from their epochs, in seconds. */
+    private final double[] offsets;
+
+    /**
+     * Constructor.
+     *
+     * @param dates
+     *        dates
+     */
+    public AbsoluteDateArray(final AbsoluteDate... dates) {
+        this(Arrays.asList(dates));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dates
+     *        dates, in collection iteration order
+     */
+    public AbsoluteDateArray(final Collection<AbsoluteDate> dates) {
+        this.epochs = new long[dates.size()];
+        this.offsets = new double[dates.size()];
+        int i = 0;
+        for (final AbsoluteDate date : dates) {
+            this.epochs[i] = date.getEpoch();
+            this.offsets[i] = date.getOffset();
+            i++;
+        }
+    }
+
+    /**
+     * Private constructor from already filled arrays.
+     *
+     * @param epochsIn
+     *        epochs (not copied)
+     * @param offsetsIn
+     *        offsets (not copied)
+     */
+    private AbsoluteDateArray(final long[] epochsIn, final double[] offsetsIn) {
+        this.epochs = epochsIn;
+        this.offsets = offsetsIn;
+    }
+
+    /**
+     * Build a regular time grid.
+     * <p>
+     * Date i is {@code start.shiftedBy(i * step)}: rounding errors do not accumulate along the grid.
+     * </p>
+     *
+     * @param start
+     *        first date of the grid
+     * @param step
+     *        step between two consecutive dates (s), may be negative
+     * @param size
+     *        number of dates
+     * @return time grid
+     * @exception IllegalArgumentException
+     *            if size is negative or step is not finite
+     */
+    public static AbsoluteDateArray fromStep(final AbsoluteDate start, final double step, final int size) {
+        if (size < 0) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.NUMBER_TOO_SMALL, size, 0);
+        }
+        if (Double.isInfinite(step) || Double.isNaN(step)) {
+            throw PatriusException.createIllegalArgumentException(PatriusMessages.NOT_FINITE_NUMBER, step);
+        }
+        final long[] epochs = new long[size];
+        final double[] offsets = new double[size];
+        for (int i = 0; i < size; i++) {
+            shift(start.getEpoch(), start.getOffset(), i * step, epochs, offsets, i);
+        }
+        return new AbsoluteDateArray(epochs, offsets);
+    }
+
+    /**
+     * Get the number of dates.
+     *
+     * @return number of dates
+     */
+    public int size() {
+        return this.epochs.length;
+    }
+
+    /**
+     * Get a date.
+     *
+     * @param i
+     *        date index
+     * @return i-th date
+     */
+    public AbsoluteDate get(final int i) {
+        return new AbsoluteDate(this.epochs[i], this.offsets[i]);
+    }
+
+    /**
+     * Get the epoch of a date.
+     *
+     * @param i
+     *        date index
+     * @return epoch of the i-th date
+     * @see AbsoluteDate#getEpoch()
+     */
+    public long getEpoch(final int i) {
+        return this.epochs[i];
+    }
+
+    /**
+     * Get the offset of a date.
+     *
+     * @param i
+     *        date index
+     * @return offset of the i-th date
+     * @see AbsoluteDate#getOffset()
+     */
+    public double getOffset(final int i) {
+        return this.offsets[i];
+    }
+
+    /**
+     * Compute the physically elapsed duration between a date and an instant.
+     *
+     * @param i
+     *        date index
+     * @param instant
+     *        instant to subtract from the i-th date
+     * @return offset in seconds between the i-th date and the instant (positive if the date is posterior to the
+     *         instant)
+     * @see AbsoluteDate#durationFrom(AbsoluteDate)
+     */
+    public double durationFrom(final int i, final AbsoluteDate instant) {
+        return (this.epochs[i] - instant.getEpoch()) + (this.offsets[i] - instant.getOffset());
+    }
+
+    /**
+     * Compute the physically elapsed durations between all dates and an instant.
+     *
+     * @param instant
+     *        instant to subtract from the dates
+     * @return offsets in seconds between the dates and the instant (positive for dates posterior to the instant)
+     * @see AbsoluteDate#durationFrom(AbsoluteDate)
+     */
+    public double[] durationFrom(final AbsoluteDate instant) {
+        final long epoch = instant.getEpoch();
+        final double offset = instant.getOffset();
+        final double[] durations = new double[this.epochs.length];
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = (this.epochs[i] - epoch) + (this.offsets[i] - offset);
+        }
+        return durations;
+    }
+
+    /**
+     * Compute the apparent clock offsets between all dates and an instant <em>in the perspective of a specific
+     * {@link TimeScale time scale}</em>.
+     * <p>
+     * This is the bulk version of {@link AbsoluteDate#offsetFrom(AbsoluteDate, TimeScale)}. The time scale offset of
+     * the instant is computed only once, and the time scale offsets of the dates are computed from the primitive
+     * arrays with {@link TimeScale#offsetFromTAI(long, double)}.
+     * </p>
+     *
+     * @param instant
+     *        instant to subtract from the dates
+     * @param timeScale
+     *        time scale with respect to which the offsets should be computed
+     * @return apparent clock offsets in seconds between the dates and the instant
+     * @see AbsoluteDate#offsetFrom(AbsoluteDate, TimeScale)
+     */
+    public double[] offsetFrom(final AbsoluteDate instant, final TimeScale timeScale) {
+        final long epoch = instant.getEpoch();
+        final double offset = instant.getOffset() + timeScale.offsetFromTAI(instant);
+        final double[] apparentOffsets = new double[this.epochs.length];
+        for (int i = 0; i < apparentOffsets.length; i++) {
+            final double offsetI = this.offsets[i] + timeScale.offsetFromTAI(this.epochs[i], this.offsets[i]);
+            apparentOffsets[i] = (this.epochs[i] - epoch) + (offsetI - offset);
+        }
+        return apparentOffsets;
+    }
+
+    /**
+     * Get a time-shifted array.
+     *
+     * @param dt
+     *        time shift in seconds
+     * @return a new array, where each date is shifted with respect to the corresponding date of the instance
+     * @see AbsoluteDate#shiftedBy(double)
+     */
+    public AbsoluteDateArray shiftedBy(final double dt) {
+        final long[] shiftedEpochs = new long[this.epochs.length];
+        final double[] shiftedOffsets = new double[this.offsets.length];
+        for (int i = 0; i < shiftedEpochs.length; i++) {
+            shift(this.epochs[i], this.offsets[i], dt, shiftedEpochs, shiftedOffsets, i);
+        }
+        return new AbsoluteDateArray(shiftedEpochs, shiftedOffsets);
+    }
+
+    /**
+     * Search a date in the array using the binary search algorithm.
+     * <p>
+     * Dates must be in chronological order. The contract is the same as {@link Arrays#binarySearch(double[], double)}.
+     * </p>
+     *
+     * @param date
+     *        date to search
+     * @return index of the date if it is contained in the array, otherwise (-(insertion point) - 1), where the
+     *         insertion point is the index of the first date after the searched date, or {@link #size()} if all
+     *         dates are before the searched date
+     */
+    public int binarySearch(final AbsoluteDate date) {
+        int low = 0;
+        int high = this.epochs.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final double delta = this.durationFrom(mid, date);
+            if (delta < 0) {
+                low = mid + 1;
+            } else if (delta > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Get the index of the last date before or equal to a given date.
+     * <p>
+     * Dates must be in chronological order.
+     * </p>
+     *
+     * @param date
+     *        date to search
+     * @return index of the last date before or equal to the given date, -1 if all dates are after the given date
+     */
+    public int floorIndex(final AbsoluteDate date) {
+        final int index = this.binarySearch(date);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Get the dates as an array.
+     *
+     * @return new array of dates
+     */
+    public AbsoluteDate[] toArray() {
+        final AbsoluteDate[] dates = new AbsoluteDate[this.epochs.length];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = this.get(i);
+        }
+        return dates;
+    }
+
+    /**
+     * Get the dates as a list.
+     *
+     * @return new list of dates
+     */
+    public List<AbsoluteDate> toList() {
+        final List<AbsoluteDate> dates = new ArrayList<>(this.epochs.length);
+        for (int i = 0; i < this.epochs.length; i++) {
+            dates.add(this.get(i));
+        }
+        return dates;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<AbsoluteDate> iterator() {
+        return new Iterator<AbsoluteDate>() {
+
+            /** Index of the next date. */
+            private int next = 0;
+
+            /** {@inheritDoc} */
+            @Override
+            public boolean hasNext() {
+                return this.next < AbsoluteDateArray.this.epochs.length;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public AbsoluteDate next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return AbsoluteDateArray.this.get(this.next++);
+            }
+        };
+    }
+
+    /**
+     * Check if the instance contains the same dates as another array.
+     * <p>
+     * Dates are compared as with {@link AbsoluteDate#equals(Object)}.
+     * </p>
+     *
+     * @param object
+     *        other array
+     * @return true if both arrays contain the same dates in the same order
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object == this) {
+            return true;
+        }
+        if (!(object instanceof AbsoluteDateArray)) {
+            return false;
+        }
+        final AbsoluteDateArray other = (AbsoluteDateArray) object;
+        if (other.epochs.length != this.epochs.length) {
+            return false;
+        }
+        for (int i = 0; i < this.epochs.length; i++) {
+            if (!this.get(i).equals(other.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < this.epochs.length; i++) {
+            hash = 31 * hash + this.get(i).hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Shift a date, storing the result in arrays.
+     * <p>
+     * This is the same computation as {@link AbsoluteDate#AbsoluteDate(AbsoluteDate, double)}.
+     * </p>
+     *
+     * @param epoch
+     *        epoch of the date to shift
+     * @param offset
+     *        offset of the date to shift
+     * @param dt
+     *        time shift in seconds
+     * @param epochsOut
+     *        array where the epoch of the shifted date is stored
+     * @param offsetsOut
+     *        array where the offset of the shifted date is stored
+     * @param i
+     *        index where the shifted date is stored
+     */
+    private static void shift(final long epoch, final double offset, final double dt,
+                              final long[] epochsOut, final double[] offsetsOut, final int i) {
+        if (dt == 0) {
+            // No delta-t
+            epochsOut[i] = epoch;
+            offsetsOut[i] = offset;
+            return;
+        }
+        final double sum = offset + dt;
+        if (Double.isInfinite(sum)) {
+            epochsOut[i] = (sum < 0) ? Long.MIN_VALUE : Long.MAX_VALUE;
+            offsetsOut[i] = sum;
+        } else {
+            // exact sum with Møller-Knuth TwoSum algorithm, see AbsoluteDate
+            final double oPrime = sum - dt;
+            final double dPrime = sum - oPrime;
+            final double deltaO = offset - oPrime;
+            final double deltaD = dt - dPrime;
+            final double residual = deltaO + deltaD;
+            final long dl = (long) MathLib.floor(sum);
+            epochsOut[i] = epoch + dl;
+            offsetsOut[i] = (sum - dl) + residual;
+        }
+    }
+}
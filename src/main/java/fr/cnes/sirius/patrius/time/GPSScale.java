@@ -55,6 +55,12 @@ public class GPSScale implements TimeScale {
         return -TAI_TO_GPS;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public double offsetFromTAI(final long epoch, final double offset) {
+        return -TAI_TO_GPS;
+    }
+
     /** {@inheritDoc} */
     @Override
     public double offsetToTAI(final DateComponents date, final TimeComponents time) {
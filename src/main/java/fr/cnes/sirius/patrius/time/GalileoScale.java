@@ -61,6 +61,12 @@ public class GalileoScale implements TimeScale {
         return -TAI_TO_GALILEO;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public double offsetFromTAI(final long epoch, final double offset) {
+        return -TAI_TO_GALILEO;
+    }
+
     /** {@inheritDoc} */
     @Override
     public double offsetToTAI(final DateComponents date, final TimeComponents time) {
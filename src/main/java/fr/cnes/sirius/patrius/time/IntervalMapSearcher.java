@@ -33,7 +33,7 @@ import java.util.TreeMap;
 import fr.cnes.sirius.patrius.math.exception.DimensionMismatchException;
 import fr.cnes.sirius.patrius.math.exception.NullArgumentException;
 import fr.cnes.sirius.patrius.tools.cache.CacheEntry;
-import fr.cnes.sirius.patrius.tools.cache.FIFOThreadSafeCache;
+import fr.cnes.sirius.patrius.tools.cache.IntervalThreadSafeCache;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
 
@@ -66,7 +66,7 @@ public class IntervalMapSearcher<T> implements Iterable<CacheEntry<AbsoluteDateI
     private final AbsoluteDateInterval lastInterval;
 
     /** Cache storing the last intervals data to avoid repeating computations. */
-    private final FIFOThreadSafeCache<AbsoluteDateInterval, T> cache;
+    private final IntervalThreadSafeCache<T> cache;
 
     /**
      * Simple constructor with a collection of {@link AbsoluteDateInterval intervals} and a collection of objects.
@@ -185,7 +185,8 @@ public class IntervalMapSearcher<T> implements Iterable<CacheEntry<AbsoluteDateI
         }
 
         // Initialize the cache mechanism
-        this.cache = new FIFOThreadSafeCache<>(cacheSize);
+        this.cache = new IntervalThreadSafeCache<>(cacheSize, IntervalThreadSafeCache.DEFAULT_STRIPES,
+            IntervalMapSearcher.class.getName());
     }
 
     /**
@@ -284,7 +285,7 @@ public class IntervalMapSearcher<T> implements Iterable<CacheEntry<AbsoluteDateI
      */
     public T getData(final AbsoluteDate date, final boolean throwException) {
         final CacheEntry<AbsoluteDateInterval, T> matchingCacheEntry =
-            this.cache.computeIf(entry -> entry.getKey().contains(date), () -> {
+            this.cache.computeIfAbsent(date, () -> {
                 //
                 // Search sample matching the provided date
                 //
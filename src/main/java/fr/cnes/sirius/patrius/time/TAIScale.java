@@ -49,6 +49,12 @@ public class TAIScale implements TimeScale {
         return 0;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public double offsetFromTAI(final long epoch, final double offset) {
+        return 0;
+    }
+
     /** {@inheritDoc} */
     @Override
     public double offsetToTAI(final DateComponents date, final TimeComponents time) {
@@ -57,6 +57,12 @@ public class TTScale implements TimeScale {
         return TT_MINUS_TAI;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public double offsetFromTAI(final long epoch, final double offset) {
+        return TT_MINUS_TAI;
+    }
+
     /** {@inheritDoc} */
     @Override
     public double offsetToTAI(final DateComponents date, final TimeComponents time) {
@@ -48,6 +48,28 @@ public interface TimeScale extends Serializable {
      */
     double offsetFromTAI(AbsoluteDate date);
 
+    /**
+     * Get the offset to convert locations from {@link TAIScale} to instance, the date being given by its
+     * {@link AbsoluteDate#getEpoch() epoch} and {@link AbsoluteDate#getOffset() offset}.
+     * <p>
+     * This method is meant for bulk computations on dates stored in primitive arrays (see
+     * {@link AbsoluteDateArray}). The default implementation builds the date: time scales which can avoid it should
+     * override this method.
+     * </p>
+     * 
+     * @param epoch
+     *        epoch of the conversion date
+     * @param offset
+     *        offset of the conversion date from its epoch
+     * @return offset in seconds to add to a location in <em>{@link TAIScale}
+     * time scale</em> to get a location in <em>instance time scale</em>
+     * @see #offsetFromTAI(AbsoluteDate)
+     * @since 4.14
+     */
+    default double offsetFromTAI(final long epoch, final double offset) {
+        return this.offsetFromTAI(new AbsoluteDate(epoch, offset));
+    }
+
     /**
      * Get the offset to convert locations from instance to {@link TAIScale}.
      * 
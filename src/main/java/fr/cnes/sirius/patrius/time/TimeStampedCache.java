@@ -28,21 +28,31 @@ package fr.cnes.sirius.patrius.time;
 
 import java.io.Serializable;
 import java.lang.reflect.Array;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.tools.cache.CacheMetrics;
+import fr.cnes.sirius.patrius.tools.cache.CacheMetricsRegistry;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
 import fr.cnes.sirius.patrius.utils.exception.TimeStampedCacheException;
 
 /**
  * Generic thread-safe cache for {@link TimeStamped time-stamped} data.
+ * <p>
+ * Reads are lock-free: the list of slots and the content of each slot are immutable snapshots, replaced as a whole
+ * (copy-on-write) when a slot is created, evicted or extended. Only these modifications, which require calls to the
+ * generator, are serialized. The cache also keeps a hint of the last used entry, so that consecutive requests close
+ * to each other do not need to search the slot. The hint is an immutable snapshot shared by all threads: a stale hint
+ * is only a worse first guess.
+ * </p>
+ * <p>
+ * A cache built with a name reports its usage to the {@link CacheMetrics metrics} registered under this name in the
+ * {@link CacheMetricsRegistry}: a hit is a request served without calling the generator.
+ * </p>
  * 
  * @param <T>
  *        Type of the cached data.
@@ -82,8 +92,8 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
     /** Number of entries in a neighbors array. */
     private final int neighborsSize;
 
-    /** Independent time slots cached. */
-    private final List<Slot> slots;
+    /** Independent time slots cached (immutable snapshot, chronologically sorted). */
+    private volatile Slot[] slots;
 
     /** Number of calls to the generate method. */
     private final AtomicInteger calls;
@@ -91,8 +101,17 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
     /** Number of evictions. */
     private final AtomicInteger evictions;
 
-    /** Global lock. */
-    private final ReadWriteLock lock;
+    /** Lock for slots creation, eviction and extension. */
+    private final ReentrantLock lock;
+
+    /** Hint of the last used entry (immutable snapshot, may be null). */
+    private transient volatile Hint hint;
+
+    /** Name of the {@link CacheMetrics metrics} the cache reports to (null if metrics are disabled). */
+    private final String name;
+
+    /** Metrics the cache reports to (null if not resolved yet or if metrics are disabled). */
+    private transient CacheMetrics metrics;
 
     /**
      * Simple constructor.
@@ -115,6 +134,33 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
     public TimeStampedCache(final int neighborsSizeIn, final int maxSlotsIn, final double maxSpanIn,
         final double newSlotInterval, final TimeStampedGenerator<T> generatorIn,
         final Class<T> entriesClassIn) {
+        this(null, neighborsSizeIn, maxSlotsIn, maxSpanIn, newSlotInterval, generatorIn, entriesClassIn);
+    }
+
+    /**
+     * Constructor reporting usage to {@link CacheMetrics metrics}.
+     * 
+     * @param metricsName
+     *        name of the metrics in the {@link CacheMetricsRegistry} (null to disable metrics)
+     * @param neighborsSizeIn
+     *        fixed size of the arrays to be returned by {@link #getNeighbors(AbsoluteDate)}, must be at least 2
+     * @param maxSlotsIn
+     *        maximum number of independent cached time slots
+     * @param maxSpanIn
+     *        maximum duration span in seconds of one slot
+     *        (can be set to {@code Double.POSITIVE_INFINITY} if desired)
+     * @param newSlotInterval
+     *        time interval above which a new slot is created
+     *        instead of extending an existing one
+     * @param generatorIn
+     *        generator to use for yet non-existent data
+     * @param entriesClassIn
+     *        class of the cached entries
+     * @since 4.14
+     */
+    public TimeStampedCache(final String metricsName, final int neighborsSizeIn, final int maxSlotsIn,
+        final double maxSpanIn, final double newSlotInterval, final TimeStampedGenerator<T> generatorIn,
+        final Class<T> entriesClassIn) {
 
         // safety check
         if (maxSlotsIn < 1) {
@@ -132,10 +178,11 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
         this.entriesClass = entriesClassIn;
         this.generator = generatorIn;
         this.neighborsSize = neighborsSizeIn;
-        this.slots = new ArrayList<>(maxSlotsIn);
+        this.slots = this.newSlotsArray(0);
         this.calls = new AtomicInteger(0);
         this.evictions = new AtomicInteger(0);
-        this.lock = new ReentrantReadWriteLock();
+        this.lock = new ReentrantLock();
+        this.name = metricsName;
     }
 
     /**
@@ -214,13 +261,7 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
      * @return number of slots in use
      */
     public int getSlots() {
-
-        this.lock.readLock().lock();
-        try {
-            return this.slots.size();
-        } finally {
-            this.lock.readLock().unlock();
-        }
+        return this.slots.length;
     }
 
     /**
@@ -229,17 +270,11 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
      * @return total number of entries cached
      */
     public int getEntries() {
-
-        this.lock.readLock().lock();
-        try {
-            int entries = 0;
-            for (final Slot slot : this.slots) {
-                entries += slot.getEntries();
-            }
-            return entries;
-        } finally {
-            this.lock.readLock().unlock();
+        int entries = 0;
+        for (final Slot slot : this.slots) {
+            entries += slot.getEntries();
         }
+        return entries;
     }
 
     /**
@@ -251,16 +286,11 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
      * @see #getSlots()
      */
     public T getEarliest() {
-
-        this.lock.readLock().lock();
-        try {
-            if (this.slots.isEmpty()) {
-                throw PatriusException.createIllegalStateException(PatriusMessages.NO_CACHED_ENTRIES);
-            }
-            return this.slots.get(0).getEarliest();
-        } finally {
-            this.lock.readLock().unlock();
+        final Slot[] current = this.slots;
+        if (current.length == 0) {
+            throw PatriusException.createIllegalStateException(PatriusMessages.NO_CACHED_ENTRIES);
         }
+        return current[0].getEarliest();
     }
 
     /**
@@ -272,16 +302,11 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
      * @see #getSlots()
      */
     public T getLatest() {
-
-        this.lock.readLock().lock();
-        try {
-            if (this.slots.isEmpty()) {
-                throw PatriusException.createIllegalStateException(PatriusMessages.NO_CACHED_ENTRIES);
-            }
-            return this.slots.get(this.slots.size() - 1).getLatest();
-        } finally {
-            this.lock.readLock().unlock();
+        final Slot[] current = this.slots;
+        if (current.length == 0) {
+            throw PatriusException.createIllegalStateException(PatriusMessages.NO_CACHED_ENTRIES);
         }
+        return current[current.length - 1].getLatest();
     }
 
     /**
@@ -315,139 +340,201 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
      * @see #getLatest()
      */
     public T[] getNeighbors(final AbsoluteDate central) throws TimeStampedCacheException {
+        final long dateQuantum = this.quantum(central);
+        final CacheMetrics cacheMetrics = this.getMetrics();
+        if (cacheMetrics == null) {
+            return this.selectSlot(central, dateQuantum, null).getNeighbors(central, dateQuantum, null);
+        }
 
-        this.lock.readLock().lock();
-        try {
-            final long dateQuantum = this.quantum(central);
-            return this.selectSlot(central, dateQuantum).getNeighbors(central, dateQuantum);
-        } finally {
-            this.lock.readLock().unlock();
+        // the generations performed during the call are counted in a call-local counter
+        final Generations generations = new Generations();
+        final T[] neighbors = this.selectSlot(central, dateQuantum, generations).getNeighbors(central, dateQuantum,
+            generations);
+        if (generations.count == 0) {
+            cacheMetrics.recordHit();
+        } else {
+            cacheMetrics.recordMiss();
         }
+        return neighbors;
+    }
+
+    /**
+     * Get the metrics the cache reports to.
+     * 
+     * @return metrics the cache reports to, null if metrics are disabled
+     */
+    private CacheMetrics getMetrics() {
+        if (this.name == null || !CacheMetricsRegistry.isEnabled()) {
+            return null;
+        }
+        CacheMetrics cacheMetrics = this.metrics;
+        if (cacheMetrics == null) {
+            // resolving the metrics concurrently is harmless
+            cacheMetrics = CacheMetricsRegistry.getMetrics(this.name);
+            this.metrics = cacheMetrics;
+        }
+        return cacheMetrics;
     }
 
     /**
      * Convert a date to a rough global quantum.
-     * <p>
-     * We own a global read lock while calling this method.
-     * </p>
      * 
      * @param date
      *        date to convert
      * @return quantum corresponding to the date
      */
     private long quantum(final AbsoluteDate date) {
-        this.reference.compareAndSet(null, date);
-        return MathLib.round(date.durationFrom(this.reference.get()) / QUANTUM_STEP);
+        AbsoluteDate ref = this.reference.get();
+        if (ref == null) {
+            // only the first call may set the reference date
+            this.reference.compareAndSet(null, date);
+            ref = this.reference.get();
+        }
+        return MathLib.round(date.durationFrom(ref) / QUANTUM_STEP);
+    }
+
+    /**
+     * Check whether a slot is suitable for a date.
+     * 
+     * @param slot
+     *        slot to check
+     * @param dateQuantum
+     *        global quantum of the date
+     * @return true if the slot can be used or extended for the date
+     */
+    private boolean isSuitable(final Slot slot, final long dateQuantum) {
+        final Content content = slot.content;
+        return content.earliestQuantum <= dateQuantum + this.newSlotQuantumGap
+                && content.latestQuantum >= dateQuantum - this.newSlotQuantumGap;
     }
 
     /**
      * Select a slot containing a date.
-     * <p>
-     * We own a global read lock while calling this method.
-     * </p>
      * 
      * @param date
      *        target date
      * @param dateQuantum
      *        global quantum of the date
+     * @param generations
+     *        counter of the generations performed during the call (null if metrics are disabled)
      * @return slot covering the date
      * @exception TimeStampedCacheException
      *            if entries are not chronologically
      *            sorted or if new data cannot be generated
      */
-    // CHECKSTYLE: stop CyclomaticComplexity check
-    // Reason: Orekit code kept as such
-    private Slot selectSlot(final AbsoluteDate date, final long dateQuantum) throws TimeStampedCacheException {
-        // CHECKSTYLE: resume CyclomaticComplexity check
-
-        Slot selected = null;
-
-        int index = this.slots.isEmpty() ? 0 : this.slotIndex(dateQuantum);
-        if (this.slots.isEmpty() ||
-            this.slots.get(index).getEarliestQuantum() > dateQuantum + this.newSlotQuantumGap ||
-            this.slots.get(index).getLatestQuantum() < dateQuantum - this.newSlotQuantumGap) {
-            // no existing slot is suitable
-
-            // upgrade the read lock to a write lock so we can change the list of available slots
-            this.lock.readLock().unlock();
-            this.lock.writeLock().lock();
-
-            try {
-                // check slots again as another thread may have changed
-                // the list while we were waiting for the write lock
-                index = this.slots.isEmpty() ? 0 : this.slotIndex(dateQuantum);
-                if (this.slots.isEmpty() ||
-                    this.slots.get(index).getEarliestQuantum() > dateQuantum + this.newSlotQuantumGap ||
-                    this.slots.get(index).getLatestQuantum() < dateQuantum - this.newSlotQuantumGap) {
-
-                    // we really need to create a new slot in the current thread
-                    // (no other threads have created it while we were waiting for the lock)
-                    if ((!this.slots.isEmpty()) &&
-                        this.slots.get(index).getLatestQuantum() < dateQuantum - this.newSlotQuantumGap) {
-                        ++index;
-                    }
+    private Slot selectSlot(final AbsoluteDate date, final long dateQuantum,
+                            final Generations generations) throws TimeStampedCacheException {
+
+        // lock-free lookup in the current slots snapshot
+        Slot[] current = this.slots;
+        int index = current.length == 0 ? 0 : slotIndex(current, dateQuantum);
+        if (current.length > 0 && this.isSuitable(current[index], dateQuantum)) {
+            return current[index];
+        }
 
-                    if (this.slots.size() >= this.maxSlots) {
-                        // we must prevent exceeding allowed max
+        // no existing slot is suitable
+        this.lock.lock();
+        try {
+            // check slots again as another thread may have changed
+            // the list while we were waiting for the lock
+            current = this.slots;
+            index = current.length == 0 ? 0 : slotIndex(current, dateQuantum);
+            if (current.length > 0 && this.isSuitable(current[index], dateQuantum)) {
+                return current[index];
+            }
 
-                        // select the oldest accessed slot for eviction
-                        int evict = 0;
-                        for (int i = 0; i < this.slots.size(); ++i) {
-                            if (this.slots.get(i).getLastAccess() < this.slots.get(evict).getLastAccess()) {
-                                evict = i;
-                            }
-                        }
+            // we really need to create a new slot in the current thread
+            // (no other threads have created it while we were waiting for the lock)
+            if (current.length > 0 && current[index].content.latestQuantum < dateQuantum - this.newSlotQuantumGap) {
+                ++index;
+            }
 
-                        // evict the selected slot
-                        this.evictions.incrementAndGet();
-                        this.slots.remove(evict);
+            int evict = -1;
+            if (current.length >= this.maxSlots) {
+                // we must prevent exceeding allowed max
 
-                        if (evict < index) {
-                            // adjust index of created slot as it was shifted by the eviction
-                            index--;
-                        }
+                // select the oldest accessed slot for eviction
+                evict = 0;
+                for (int i = 0; i < current.length; ++i) {
+                    if (current[i].getLastAccess() < current[evict].getLastAccess()) {
+                        evict = i;
                     }
+                }
 
-                    this.slots.add(index, new Slot(date));
+                // evict the selected slot
+                this.evictions.incrementAndGet();
+                final CacheMetrics cacheMetrics = this.getMetrics();
+                if (cacheMetrics != null) {
+                    cacheMetrics.recordEvictions(1);
                 }
 
-            } finally {
-                // downgrade back to a read lock
-                this.lock.readLock().lock();
-                this.lock.writeLock().unlock();
+                if (evict < index) {
+                    // adjust index of created slot as it was shifted by the eviction
+                    index--;
+                }
             }
-        }
 
-        selected = this.slots.get(index);
+            final Slot created = new Slot(date, generations);
 
-        return selected;
+            // copy-on-write update of the slots list
+            final Slot[] updated = this.newSlotsArray(evict < 0 ? current.length + 1 : current.length);
+            int k = 0;
+            for (int i = 0; i < current.length; ++i) {
+                if (i != evict) {
+                    if (k == index) {
+                        updated[k++] = created;
+                    }
+                    updated[k++] = current[i];
+                }
+            }
+            if (k == index) {
+                updated[k] = created;
+            }
+            this.slots = updated;
+
+            return created;
+
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Allocate a slots array.
+     * 
+     * @param size
+     *        array size
+     * @return new slots array
+     */
+    @SuppressWarnings("unchecked")
+    private Slot[] newSlotsArray(final int size) {
+        return (Slot[]) Array.newInstance(Slot.class, size);
     }
 
     /**
      * Get the index of the slot in which a date could be cached.
-     * <p>
-     * We own a global read lock while calling this method.
-     * </p>
      * 
+     * @param current
+     *        slots snapshot (not empty)
      * @param dateQuantum
      *        quantum of the date to search for
      * @return the slot in which the date could be cached
      */
-    private int slotIndex(final long dateQuantum) {
+    private static int slotIndex(final TimeStampedCache<?>.Slot[] current, final long dateQuantum) {
 
         // Initialization
         int iInf = 0;
-        final long qInf = this.slots.get(iInf).getEarliestQuantum();
-        int iSup = this.slots.size() - 1;
-        final long qSup = this.slots.get(iSup).getLatestQuantum();
+        final long qInf = current[iInf].content.earliestQuantum;
+        int iSup = current.length - 1;
+        final long qSup = current[iSup].content.latestQuantum;
         while (iSup - iInf > 0) {
             // Loop
             final int iInterp = (int) ((iInf * (qSup - dateQuantum) + iSup * (dateQuantum - qInf)) / (qSup - qInf));
             final int iMed = MathLib.max(iInf, MathLib.min(iInterp, iSup));
-            final Slot slot = this.slots.get(iMed);
-            if (dateQuantum < slot.getEarliestQuantum()) {
+            final TimeStampedCache<?>.Content content = current[iMed].content;
+            if (dateQuantum < content.earliestQuantum) {
                 iSup = iMed - 1;
-            } else if (dateQuantum > slot.getLatestQuantum()) {
+            } else if (dateQuantum > content.latestQuantum) {
                 iInf = MathLib.min(iSup, iMed + 1);
             } else {
                 // Direct return
@@ -459,56 +546,201 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
         return iInf;
     }
 
-    /** Time slot. */
-    private final class Slot implements Serializable {
+    /**
+     * Immutable hint of the last used entry.
+     * <p>
+     * The hint is only stored in the cache itself, never in thread-bound storage, so that it cannot keep the cache
+     * reachable.
+     * </p>
+     */
+    private static final class Hint {
 
-         /** Serializable UID. */
-        private static final long serialVersionUID = -5108552978209563473L;
+        /** Slot of the last used entry. */
+        private final Object slot;
+
+        /** Index of the last used entry in the slot content. */
+        private final int index;
+
+        /**
+         * Simple constructor.
+         * 
+         * @param slotIn
+         *        slot of the last used entry
+         * @param indexIn
+         *        index of the last used entry in the slot content
+         */
+        public Hint(final Object slotIn, final int indexIn) {
+            this.slot = slotIn;
+            this.index = indexIn;
+        }
+    }
+
+    /** Call-local counter of the calls to the generator, used for metrics. */
+    private static final class Generations {
+
+        /** Number of calls to the generator. */
+        private int count;
+    }
+
+    /** Immutable content of a time slot. */
+    private final class Content implements Serializable {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 8473720826463637042L;
 
         /** Cached time-stamped entries. */
-        private final List<Entry> cache;
+        private final Entry[] entries;
 
         /** Earliest quantum. */
-        private final AtomicLong earliestQuantum;
+        private final long earliestQuantum;
 
         /** Latest quantum. */
-        private final AtomicLong latestQuantum;
+        private final long latestQuantum;
+
+        /**
+         * Simple constructor.
+         * 
+         * @param entriesIn
+         *        cached time-stamped entries (not empty, the array is not copied)
+         */
+        public Content(final Entry[] entriesIn) {
+            this.entries = entriesIn;
+            this.earliestQuantum = entriesIn[0].getQuantum();
+            this.latestQuantum = entriesIn[entriesIn.length - 1].getQuantum();
+        }
+
+        /**
+         * Get the mean step between entries.
+         * 
+         * @return mean step between entries (or an arbitrary non-null value
+         *         if there are fewer than 2 entries)
+         */
+        public double getMeanStep() {
+            if (this.entries.length < 2) {
+                return 1.0;
+            }
+            final AbsoluteDate t0 = this.entries[0].getData().getDate();
+            final AbsoluteDate tn = this.entries[this.entries.length - 1].getData().getDate();
+            return tn.durationFrom(t0) / (this.entries.length - 1);
+        }
+
+        /**
+         * Get the index of the entry corresponding to a date.
+         * 
+         * @param dateQuantum
+         *        global quantum of the date
+         * @param guess
+         *        index from a previous recent call
+         * @return index in the array such that entry[index] is before
+         *         date and entry[index + 1] is after date (or they are at array boundaries)
+         */
+        // CHECKSTYLE: stop CyclomaticComplexity check
+        // CHECKSTYLE: stop ReturnCount check
+        // Reason: Orekit code kept as such
+        public int entryIndex(final long dateQuantum, final int guess) {
+            // CHECKSTYLE: resume CyclomaticComplexity check
+            // CHECKSTYLE: resume ReturnCount check
+
+            // first quick guesses, assuming a recent search was close enough
+            final Entry[] cache = this.entries;
+            if (guess > 0 && guess < cache.length) {
+                if (cache[guess].getQuantum() <= dateQuantum) {
+                    if (guess + 1 < cache.length && cache[guess + 1].getQuantum() > dateQuantum) {
+                        // good guess!
+                        return guess;
+                    }
+                    // perhaps we have simply shifted just one point forward ?
+                    if (guess + 2 < cache.length && cache[guess + 2].getQuantum() > dateQuantum) {
+                        return guess + 1;
+                    }
+                } else {
+                    // perhaps we have simply shifted just one point backward ?
+                    if (guess > 1 && cache[guess - 1].getQuantum() <= dateQuantum) {
+                        return guess - 1;
+                    }
+                }
+            }
+
+            // quick guesses have failed, we need to perform a full blown search
+            if (dateQuantum < this.earliestQuantum) {
+                // date if before the first entry
+                return -1;
+            } else if (dateQuantum > this.latestQuantum) {
+                // date is after the last entry
+                return cache.length;
+            } else {
+
+                // try to get an existing entry
+                int iInf = 0;
+                final long qInf = cache[iInf].getQuantum();
+                int iSup = cache.length - 1;
+                final long qSup = cache[iSup].getQuantum();
+                while (iSup - iInf > 0) {
+                    // within a continuous slot, entries are expected to be roughly linear
+                    final int iInterp = (int) ((iInf * (qSup - dateQuantum)
+                        + iSup * (dateQuantum - qInf)) / (qSup - qInf));
+                    final int iMed = MathLib.max(iInf + 1, MathLib.min(iInterp, iSup));
+                    final Entry entry = cache[iMed];
+                    if (dateQuantum < entry.getQuantum()) {
+                        iSup = iMed - 1;
+                    } else if (dateQuantum > entry.getQuantum()) {
+                        iInf = iMed;
+                    } else {
+                        return iMed;
+                    }
+                }
 
-        /** Index from a previous recent call. */
-        private final AtomicInteger guessedIndex;
+                return iInf;
+            }
+        }
+    }
+
+    /** Time slot. */
+    private final class Slot implements Serializable {
+
+         /** Serializable UID. */
+        private static final long serialVersionUID = -5108552978209563473L;
+
+        /** Cached entries (immutable snapshot, replaced when the slot is extended). */
+        private volatile Content content;
 
         /** Last access time. */
-        private final AtomicLong lastAccess;
+        private final long lastAccess;
 
         /**
          * Simple constructor.
+         * <p>
+         * We own the cache lock while calling this constructor.
+         * </p>
          * 
          * @param date
          *        central date for initial entries to insert in the slot
+         * @param generations
+         *        counter of the generations performed during the call (null if metrics are disabled)
          * @exception TimeStampedCacheException
          *            if entries are not chronologically
          *            sorted or if new data cannot be generated
          */
-        public Slot(final AbsoluteDate date) throws TimeStampedCacheException {
-
-            // allocate cache
-            this.cache = new ArrayList<>();
+        public Slot(final AbsoluteDate date, final Generations generations) throws TimeStampedCacheException {
 
             // set up first entries
             AbsoluteDate generationDate = date;
 
             TimeStampedCache.this.calls.incrementAndGet();
-            for (final T entry : this.generateAndCheck(null, generationDate)) {
-                this.cache.add(new Entry(entry, TimeStampedCache.this.quantum(entry.getDate())));
+            final List<T> first = this.generateAndCheck(null, generationDate, generations);
+            final Entry[] entries = this.newEntriesArray(first.size());
+            for (int i = 0; i < entries.length; ++i) {
+                entries[i] = new Entry(first.get(i), TimeStampedCache.this.quantum(first.get(i).getDate()));
             }
-            this.earliestQuantum = new AtomicLong(this.cache.get(0).getQuantum());
-            this.latestQuantum = new AtomicLong(this.cache.get(this.cache.size() - 1).getQuantum());
+            this.content = new Content(entries);
 
-            while (this.cache.size() < TimeStampedCache.this.neighborsSize) {
+            while (this.content.entries.length < TimeStampedCache.this.neighborsSize) {
                 // we need to generate more entries
 
-                final T entry0 = this.cache.get(0).getData();
-                final T entryN = this.cache.get(this.cache.size() - 1).getData();
+                final Content current = this.content;
+                final int size = current.entries.length;
+                final T entry0 = current.entries[0].getData();
+                final T entryN = current.entries[size - 1].getData();
                 TimeStampedCache.this.calls.incrementAndGet();
 
                 final T existing;
@@ -517,20 +749,19 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
                     existing = entryN;
                     generationDate =
                         entryN.getDate().shiftedBy(
-                            this.getMeanStep() * (TimeStampedCache.this.neighborsSize - this.cache.size()));
-                    this.appendAtEnd(this.generateAndCheck(existing, generationDate));
+                            current.getMeanStep() * (TimeStampedCache.this.neighborsSize - size));
+                    this.appendAtEnd(this.generateAndCheck(existing, generationDate, generations));
                 } else {
                     // generate additional point at the start of the slot
                     existing = entry0;
                     generationDate =
                         entry0.getDate().shiftedBy(
-                            -this.getMeanStep() * (TimeStampedCache.this.neighborsSize - this.cache.size()));
-                    this.insertAtStart(this.generateAndCheck(existing, generationDate));
+                            -current.getMeanStep() * (TimeStampedCache.this.neighborsSize - size));
+                    this.insertAtStart(this.generateAndCheck(existing, generationDate, generations));
                 }
             }
 
-            this.guessedIndex = new AtomicInteger(this.cache.size() / 2);
-            this.lastAccess = new AtomicLong(System.currentTimeMillis());
+            this.lastAccess = System.currentTimeMillis();
         }
 
         /**
@@ -539,16 +770,7 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
          * @return earliest entry contained in the slot
          */
         public T getEarliest() {
-            return this.cache.get(0).getData();
-        }
-
-        /**
-         * Get the quantum of the earliest date contained in the slot.
-         * 
-         * @return quantum of the earliest date contained in the slot
-         */
-        public long getEarliestQuantum() {
-            return this.earliestQuantum.get();
+            return this.content.entries[0].getData();
         }
 
         /**
@@ -557,16 +779,8 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
          * @return latest entry contained in the slot
          */
         public T getLatest() {
-            return this.cache.get(this.cache.size() - 1).getData();
-        }
-
-        /**
-         * Get the quantum of the latest date contained in the slot.
-         * 
-         * @return quantum of the latest date contained in the slot
-         */
-        public long getLatestQuantum() {
-            return this.latestQuantum.get();
+            final Entry[] entries = this.content.entries;
+            return entries[entries.length - 1].getData();
         }
 
         /**
@@ -575,22 +789,7 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
          * @return number of entries contained din the slot
          */
         public int getEntries() {
-            return this.cache.size();
-        }
-
-        /**
-         * Get the mean step between entries.
-         * 
-         * @return mean step between entries (or an arbitrary non-null value
-         *         if there are fewer than 2 entries)
-         */
-        private double getMeanStep() {
-            if (this.cache.size() < 2) {
-                return 1.0;
-            }
-            final AbsoluteDate t0 = this.cache.get(0).getData().getDate();
-            final AbsoluteDate tn = this.cache.get(this.cache.size() - 1).getData().getDate();
-            return tn.durationFrom(t0) / (this.cache.size() - 1);
+            return this.content.entries.length;
         }
 
         /**
@@ -599,7 +798,7 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
          * @return last known access time
          */
         public long getLastAccess() {
-            return this.lastAccess.get();
+            return this.lastAccess;
         }
 
         /**
@@ -617,51 +816,54 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
          *        central date
          * @param dateQuantum
          *        global quantum of the date
+         * @param generations
+         *        counter of the generations performed during the call (null if metrics are disabled)
          * @return a new array containing date neighbors
          * @exception TimeStampedCacheException
          *            if entries are not chronologically
          *            sorted or if new data cannot be generated
-         * @see #getBefore(AbsoluteDate)
-         * @see #getAfter(AbsoluteDate)
          */
         // CHECKSTYLE: stop CyclomaticComplexity check
         // Reason: Orekit code kept as such
-        public T[] getNeighbors(final AbsoluteDate central, final long dateQuantum) throws TimeStampedCacheException {
+        public T[] getNeighbors(final AbsoluteDate central, final long dateQuantum,
+                                final Generations generations) throws TimeStampedCacheException {
             // CHECKSTYLE: resume CyclomaticComplexity check
 
-            int index = this.entryIndex(central, dateQuantum);
-            int firstNeighbor = index - (TimeStampedCache.this.neighborsSize - 1) / 2;
+            final int half = (TimeStampedCache.this.neighborsSize - 1) / 2;
+            final Hint lastHint = TimeStampedCache.this.hint;
+            Content current = this.content;
+            int index = current.entryIndex(dateQuantum,
+                lastHint != null && lastHint.slot == this ? lastHint.index : current.entries.length / 2);
+            int firstNeighbor = index - half;
 
-            if (firstNeighbor < 0 || firstNeighbor + TimeStampedCache.this.neighborsSize > this.cache.size()) {
+            if (firstNeighbor < 0 || firstNeighbor + TimeStampedCache.this.neighborsSize > current.entries.length) {
                 // the cache is not balanced around the desired date, we can try to generate new data
-
-                // upgrade the read lock to a write lock so we can change the list of available slots
-                TimeStampedCache.this.lock.readLock().unlock();
-                TimeStampedCache.this.lock.writeLock().lock();
+                TimeStampedCache.this.lock.lock();
 
                 try {
                     // check entries again as another thread may have changed
-                    // the list while we were waiting for the write lock
+                    // the slot while we were waiting for the lock
                     boolean loop = true;
                     while (loop) {
-                        index = this.entryIndex(central, dateQuantum);
-                        firstNeighbor = index - (TimeStampedCache.this.neighborsSize - 1) / 2;
+                        current = this.content;
+                        index = current.entryIndex(dateQuantum, index);
+                        firstNeighbor = index - half;
                         if (firstNeighbor < 0
-                            || firstNeighbor + TimeStampedCache.this.neighborsSize > this.cache.size()) {
+                            || firstNeighbor + TimeStampedCache.this.neighborsSize > current.entries.length) {
 
                             // estimate which data we need to be generated
-                            final double step = this.getMeanStep();
+                            final double step = current.getMeanStep();
                             final T existing;
                             final AbsoluteDate generationDate;
                             final boolean simplyRebalance;
                             if (firstNeighbor < 0) {
-                                existing = this.cache.get(0).getData();
+                                existing = current.entries[0].getData();
                                 generationDate = existing.getDate().shiftedBy(step * firstNeighbor);
                                 simplyRebalance = existing.getDate().compareTo(central) <= 0;
                             } else {
-                                existing = this.cache.get(this.cache.size() - 1).getData();
-                                generationDate = existing.getDate().shiftedBy(
-                                    step * (firstNeighbor + TimeStampedCache.this.neighborsSize - this.cache.size()));
+                                existing = current.entries[current.entries.length - 1].getData();
+                                generationDate = existing.getDate().shiftedBy(step
+                                    * (firstNeighbor + TimeStampedCache.this.neighborsSize - current.entries.length));
                                 simplyRebalance = existing.getDate().compareTo(central) >= 0;
                             }
                             TimeStampedCache.this.calls.incrementAndGet();
@@ -669,9 +871,9 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
                             // generated data and add it to the slot
                             try {
                                 if (firstNeighbor < 0) {
-                                    this.insertAtStart(this.generateAndCheck(existing, generationDate));
+                                    this.insertAtStart(this.generateAndCheck(existing, generationDate, generations));
                                 } else {
-                                    this.appendAtEnd(this.generateAndCheck(existing, generationDate));
+                                    this.appendAtEnd(this.generateAndCheck(existing, generationDate, generations));
                                 }
                             } catch (final TimeStampedCacheException tce) {
                                 if (simplyRebalance) {
@@ -690,110 +892,39 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
                         }
                     }
                 } finally {
-                    // downgrade back to a read lock
-                    TimeStampedCache.this.lock.readLock().lock();
-                    TimeStampedCache.this.lock.writeLock().unlock();
+                    TimeStampedCache.this.lock.unlock();
                 }
             }
 
+            // remember the entry for the next call
+            if (lastHint == null || lastHint.slot != this || lastHint.index != index) {
+                TimeStampedCache.this.hint = new Hint(this, index);
+            }
+
             @SuppressWarnings("unchecked")
             final T[] array =
                 (T[]) Array.newInstance(TimeStampedCache.this.entriesClass, TimeStampedCache.this.neighborsSize);
-            if (firstNeighbor + TimeStampedCache.this.neighborsSize > this.cache.size()) {
+            if (firstNeighbor + TimeStampedCache.this.neighborsSize > current.entries.length) {
                 // we end up with a non-balanced neighborhood,
                 // adjust the start point to fit within the cache
-                firstNeighbor = this.cache.size() - TimeStampedCache.this.neighborsSize;
+                firstNeighbor = current.entries.length - TimeStampedCache.this.neighborsSize;
             }
             if (firstNeighbor < 0) {
                 firstNeighbor = 0;
             }
             for (int i = 0; i < TimeStampedCache.this.neighborsSize; ++i) {
-                array[i] = this.cache.get(firstNeighbor + i).getData();
+                array[i] = current.entries[firstNeighbor + i].getData();
             }
 
             return array;
         }
 
         /**
-         * Get the index of the entry corresponding to a date.
+         * Insert data at slot start.
          * <p>
-         * We own a local read lock while calling this method.
+         * We own the cache lock while calling this method.
          * </p>
          * 
-         * @param date
-         *        date
-         * @param dateQuantum
-         *        global quantum of the date
-         * @return index in the array such that entry[index] is before
-         *         date and entry[index + 1] is after date (or they are at array boundaries)
-         */
-        // CHECKSTYLE: stop CyclomaticComplexity check
-        // CHECKSTYLE: stop ReturnCount check
-        // Reason: Orekit code kept as such
-        private int entryIndex(final AbsoluteDate date, final long dateQuantum) {
-            // CHECKSTYLE: resume CyclomaticComplexity check
-            // CHECKSTYLE: resume ReturnCount check
-
-            // first quick guesses, assuming a recent search was close enough
-            final int guess = this.guessedIndex.get();
-            if (guess > 0 && guess < this.cache.size()) {
-                if (this.cache.get(guess).getQuantum() <= dateQuantum) {
-                    if (guess + 1 < this.cache.size() && this.cache.get(guess + 1).getQuantum() > dateQuantum) {
-                        // good guess!
-                        return guess;
-                    }
-                    // perhaps we have simply shifted just one point forward ?
-                    if (guess + 2 < this.cache.size() && this.cache.get(guess + 2).getQuantum() > dateQuantum) {
-                        this.guessedIndex.set(guess + 1);
-                        return guess + 1;
-                    }
-                } else {
-                    // perhaps we have simply shifted just one point backward ?
-                    if (guess > 1 && this.cache.get(guess - 1).getQuantum() <= dateQuantum) {
-                        this.guessedIndex.set(guess - 1);
-                        return guess - 1;
-                    }
-                }
-            }
-
-            // quick guesses have failed, we need to perform a full blown search
-            if (dateQuantum < this.getEarliestQuantum()) {
-                // date if before the first entry
-                return -1;
-            } else if (dateQuantum > this.getLatestQuantum()) {
-                // date is after the last entry
-                return this.cache.size();
-            } else {
-
-                // try to get an existing entry
-                int iInf = 0;
-                final long qInf = this.cache.get(iInf).getQuantum();
-                int iSup = this.cache.size() - 1;
-                final long qSup = this.cache.get(iSup).getQuantum();
-                while (iSup - iInf > 0) {
-                    // within a continuous slot, entries are expected to be roughly linear
-                    final int iInterp = (int) ((iInf * (qSup - dateQuantum)
-                        + iSup * (dateQuantum - qInf)) / (qSup - qInf));
-                    final int iMed = MathLib.max(iInf + 1, MathLib.min(iInterp, iSup));
-                    final Entry entry = this.cache.get(iMed);
-                    if (dateQuantum < entry.getQuantum()) {
-                        iSup = iMed - 1;
-                    } else if (dateQuantum > entry.getQuantum()) {
-                        iInf = iMed;
-                    } else {
-                        this.guessedIndex.set(iMed);
-                        return iMed;
-                    }
-                }
-
-                this.guessedIndex.set(iInf);
-                return iInf;
-            }
-        }
-
-        /**
-         * Insert data at slot start.
-         * 
          * @param data
          *        data to insert
          * @exception TimeStampedCacheException
@@ -801,41 +932,49 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
          */
         private void insertAtStart(final List<T> data) throws TimeStampedCacheException {
 
-            // insert data at start
-            boolean inserted = false;
-            final long q0 = this.earliestQuantum.get();
-            for (int i = 0; i < data.size(); ++i) {
-                final long quantum = TimeStampedCache.this.quantum(data.get(i).getDate());
+            // count data that can be inserted at start
+            final Entry[] cache = this.content.entries;
+            final long q0 = cache[0].getQuantum();
+            final long[] quanta = new long[data.size()];
+            int inserted = 0;
+            while (inserted < data.size()) {
+                final long quantum = TimeStampedCache.this.quantum(data.get(inserted).getDate());
                 if (quantum < q0) {
                     // data quantum is before earliest quantum, it can be inserted at the start
-                    this.cache.add(i, new Entry(data.get(i), quantum));
-                    inserted = true;
+                    quanta[inserted++] = quantum;
                 } else {
                     break;
                 }
             }
 
-            if (!inserted) {
+            if (inserted == 0) {
                 // Insertion exception
                 throw new TimeStampedCacheException(PatriusMessages.UNABLE_TO_GENERATE_NEW_DATA_BEFORE,
-                    this.cache.get(0).getData().getDate());
+                    cache[0].getData().getDate());
             }
 
             // evict excess data at end
-            final AbsoluteDate t0 = this.cache.get(0).getData().getDate();
-            while (this.cache.size() > TimeStampedCache.this.neighborsSize
-                && this.cache.get(this.cache.size() - 1).getData().getDate().durationFrom(t0) > 
-                TimeStampedCache.this.maxSpan) {
-                this.cache.remove(this.cache.size() - 1);
+            final AbsoluteDate t0 = data.get(0).getDate();
+            int kept = cache.length;
+            while (inserted + kept > TimeStampedCache.this.neighborsSize
+                && cache[kept - 1].getData().getDate().durationFrom(t0) > TimeStampedCache.this.maxSpan) {
+                kept--;
             }
 
-            // update boundaries
-            this.earliestQuantum.set(this.cache.get(0).getQuantum());
-            this.latestQuantum.set(this.cache.get(this.cache.size() - 1).getQuantum());
+            // copy-on-write update of the slot content
+            final Entry[] updated = this.newEntriesArray(inserted + kept);
+            for (int i = 0; i < inserted; ++i) {
+                updated[i] = new Entry(data.get(i), quanta[i]);
+            }
+            System.arraycopy(cache, 0, updated, inserted, kept);
+            this.content = new Content(updated);
         }
 
         /**
          * Append data at slot end.
+         * <p>
+         * We own the cache lock while calling this method.
+         * </p>
          * 
          * @param data
          *        data to append
@@ -844,37 +983,57 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
          */
         private void appendAtEnd(final List<T> data) throws TimeStampedCacheException {
 
-            // append data at end
-            boolean appended = false;
-            final long qn = this.latestQuantum.get();
-            final int n = this.cache.size();
+            // count data that can be appended at end
+            final Entry[] cache = this.content.entries;
+            final long qn = cache[cache.length - 1].getQuantum();
+            final long[] quanta = new long[data.size()];
+            int appended = 0;
             for (int i = data.size() - 1; i >= 0; --i) {
                 final long quantum = TimeStampedCache.this.quantum(data.get(i).getDate());
                 if (quantum > qn) {
                     // data quantum is after latest quantum, it can be inserted at the end
-                    this.cache.add(n, new Entry(data.get(i), quantum));
-                    appended = true;
+                    quanta[i] = quantum;
+                    appended++;
                 } else {
                     break;
                 }
             }
 
-            if (!appended) {
+            if (appended == 0) {
                 // Insertion exception
                 throw new TimeStampedCacheException(PatriusMessages.UNABLE_TO_GENERATE_NEW_DATA_AFTER,
-                    this.cache.get(this.cache.size() - 1).getData().getDate());
+                    cache[cache.length - 1].getData().getDate());
             }
 
             // evict excess data at start
-            final AbsoluteDate tn = this.cache.get(this.cache.size() - 1).getData().getDate();
-            while (this.cache.size() > TimeStampedCache.this.neighborsSize &&
-                tn.durationFrom(this.cache.get(0).getData().getDate()) > TimeStampedCache.this.maxSpan) {
-                this.cache.remove(0);
+            final AbsoluteDate tn = data.get(data.size() - 1).getDate();
+            int removed = 0;
+            while (cache.length - removed + appended > TimeStampedCache.this.neighborsSize
+                && tn.durationFrom(cache[removed].getData().getDate()) > TimeStampedCache.this.maxSpan) {
+                removed++;
             }
 
-            // update boundaries
-            this.earliestQuantum.set(this.cache.get(0).getQuantum());
-            this.latestQuantum.set(this.cache.get(this.cache.size() - 1).getQuantum());
+            // copy-on-write update of the slot content
+            final int kept = cache.length - removed;
+            final Entry[] updated = this.newEntriesArray(kept + appended);
+            System.arraycopy(cache, removed, updated, 0, kept);
+            final int offset = data.size() - appended;
+            for (int i = 0; i < appended; ++i) {
+                updated[kept + i] = new Entry(data.get(offset + i), quanta[offset + i]);
+            }
+            this.content = new Content(updated);
+        }
+
+        /**
+         * Allocate an entries array.
+         * 
+         * @param size
+         *        array size
+         * @return new entries array
+         */
+        @SuppressWarnings("unchecked")
+        private Entry[] newEntriesArray(final int size) {
+            return (Entry[]) Array.newInstance(Entry.class, size);
         }
 
         /**
@@ -885,13 +1044,24 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
          * @param date
          *        date that must be covered by the range of the generated array
          *        (guaranteed to lie between {@link #getEarliest()} and {@link #getLatest()})
+         * @param generations
+         *        counter of the generations performed during the call (null if metrics are disabled)
          * @return chronologically sorted list of generated entries
          * @exception TimeStampedCacheException
          *            if if entries are not chronologically
          *            sorted or if new data cannot be generated
          */
-        private List<T> generateAndCheck(final T existing, final AbsoluteDate date) throws TimeStampedCacheException {
+        private List<T> generateAndCheck(final T existing, final AbsoluteDate date,
+                                         final Generations generations) throws TimeStampedCacheException {
+            final CacheMetrics cacheMetrics = TimeStampedCache.this.getMetrics();
+            final long start = cacheMetrics == null ? 0L : System.nanoTime();
             final List<T> entries = TimeStampedCache.this.generator.generate(existing, date);
+            if (cacheMetrics != null) {
+                cacheMetrics.recordGeneration(System.nanoTime() - start);
+            }
+            if (generations != null) {
+                generations.count++;
+            }
             if (entries.isEmpty()) {
                 throw new TimeStampedCacheException(PatriusMessages.NO_DATA_GENERATED, date);
             }
@@ -904,49 +1074,49 @@ public class TimeStampedCache<T extends TimeStamped> implements Serializable {
             }
             return entries;
         }
+    }
 
-        /** Container for entries. */
-        private class Entry implements Serializable {
-
-             /** Serializable UID. */
-            private static final long serialVersionUID = 6785993636980995351L;
-
-            /** Entry data. */
-            private final T data;
-
-            /** Global quantum of the entry. */
-            private final long quantum;
-
-            /**
-             * Simple constructor.
-             * 
-             * @param dataIn
-             *        entry data
-             * @param quantumIn
-             *        entry quantum
-             */
-            public Entry(final T dataIn, final long quantumIn) {
-                this.quantum = quantumIn;
-                this.data = dataIn;
-            }
+    /** Container for entries. */
+    private class Entry implements Serializable {
 
-            /**
-             * Get the quantum.
-             * 
-             * @return quantum
-             */
-            public long getQuantum() {
-                return this.quantum;
-            }
+         /** Serializable UID. */
+        private static final long serialVersionUID = 6785993636980995351L;
 
-            /**
-             * Get the data.
-             * 
-             * @return data
-             */
-            public T getData() {
-                return this.data;
-            }
+        /** Entry data. */
+        private final T data;
+
+        /** Global quantum of the entry. */
+        private final long quantum;
+
+        /**
+         * Simple constructor.
+         * 
+         * @param dataIn
+         *        entry data
+         * @param quantumIn
+         *        entry quantum
+         */
+        public Entry(final T dataIn, final long quantumIn) {
+            this.quantum = quantumIn;
+            this.data = dataIn;
+        }
+
+        /**
+         * Get the quantum.
+         * 
+         * @return quantum
+         */
+        public long getQuantum() {
+            return this.quantum;
+        }
+
+        /**
+         * Get the data.
+         * 
+         * @return data
+         */
+        public T getData() {
+            return this.data;
         }
     }
 }
@@ -29,12 +29,12 @@
 package fr.cnes.sirius.patrius.time;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 
 import fr.cnes.sirius.patrius.utils.Constants;
-import fr.cnes.sirius.patrius.utils.PatriusConfiguration;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
 import fr.cnes.sirius.patrius.utils.exception.TimeStampedCacheException;
@@ -74,89 +74,147 @@ import fr.cnes.sirius.patrius.utils.exception.TimeStampedCacheException;
 public class UTCScale implements TimeScale {
 
     /** Serial UID. */
-    private static final long serialVersionUID = -8824177435275758263L;
+    private static final long serialVersionUID = -2907815405587127731L;
 
-    /** 1000. */
-    private static final double ONE_THOUSAND = 1000;
+    /** Chronologically sorted offset models. */
+    private final UTCTAIOffset[] offsets;
 
-    /** Time steps. */
-    private final TimeStampedCache<UTCTAIOffset> cache;
+    /** Epochs of the offset models start dates (see {@link AbsoluteDate#getEpoch()}). */
+    private final long[] leapEpochs;
+
+    /** Offsets of the offset models start dates (see {@link AbsoluteDate#getOffset()}). */
+    private final double[] leapOffsets;
+
+    /** Modified julian days of the offset models start dates. */
+    private final int[] leapMJDs;
 
     /**
      * Package private constructor for the factory.
      * Used to create the prototype instance of this class that is used to
      * clone all subsequent instances of {@link UTCScale}. Initializes the offset
      * table that is shared among all instances.
+     * <p>
+     * The offset table is immutable once built, and stored as primitive arrays so that lookups are performed without
+     * any locking nor object allocation. Dates after the last known leap, which is the most common case, are handled
+     * in constant time.
+     * </p>
      * 
      * @param entries
      *        user supplied entries
      * @exception PatriusException
-     *            if cache cannot be set up
+     *            if offset table cannot be set up, or if the last offset model starts before J2000 epoch (which
+     *            denotes incomplete leap seconds data)
      */
     UTCScale(final SortedMap<DateComponents, Integer> entries) throws PatriusException {
 
-        // create cache
-        this.cache = new TimeStampedCache<>(2,
-            PatriusConfiguration.getCacheSlotsNumber(), Double.POSITIVE_INFINITY,
-            ONE_THOUSAND * Constants.JULIAN_YEAR, new Generator(entries), UTCTAIOffset.class);
+        final List<UTCTAIOffset> list = buildOffsets(entries);
+        final AbsoluteDate lastLeap = list.get(list.size() - 1).getDate();
+        if (lastLeap.compareTo(AbsoluteDate.J2000_EPOCH) < 0) {
+            throw new TimeStampedCacheException(PatriusMessages.UNABLE_TO_GENERATE_NEW_DATA_AFTER, lastLeap);
+        }
+        this.offsets = list.toArray(new UTCTAIOffset[list.size()]);
+        this.leapEpochs = new long[this.offsets.length];
+        this.leapOffsets = new double[this.offsets.length];
+        this.leapMJDs = new int[this.offsets.length];
+        for (int i = 0; i < this.offsets.length; i++) {
+            final AbsoluteDate leapDate = this.offsets[i].getDate();
+            this.leapEpochs[i] = leapDate.getEpoch();
+            this.leapOffsets[i] = leapDate.getOffset();
+            this.leapMJDs[i] = this.offsets[i].getMJD();
+        }
+    }
 
-        // ensure the cache is populated right from the beginning
-        // (this allows calling getEarliest() or getLatest() even before computing first offset)
-        this.cache.getNeighbors(AbsoluteDate.J2000_EPOCH);
+    /**
+     * Check whether a date is before the start of an offset model.
+     * <p>
+     * This is equivalent to {@code date.compareTo(offsets[index].getDate()) < 0}.
+     * </p>
+     * 
+     * @param epoch
+     *        epoch of the date to check
+     * @param offset
+     *        offset of the date to check
+     * @param index
+     *        index of the offset model
+     * @return true if the date is strictly before the start of the offset model
+     */
+    private boolean isBefore(final long epoch, final double offset, final int index) {
+        return (epoch - this.leapEpochs[index]) + (offset - this.leapOffsets[index]) < 0;
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public double offsetFromTAI(final AbsoluteDate date) {
-        final double res;
-        if (this.cache.getEarliest().getDate().compareTo(date) > 0) {
-            // the date is before the first known leap
-            res = 0;
-        } else if (this.cache.getLatest().getDate().compareTo(date) <= 0) {
+    /**
+     * Get the index of the offset model applicable at a date.
+     * 
+     * @param epoch
+     *        epoch of the date
+     * @param offset
+     *        offset of the date
+     * @return index of the last offset model starting at or before the date, -1 if the date is before the first
+     *         known leap
+     */
+    private int index(final long epoch, final double offset) {
+        final int last = this.offsets.length - 1;
+        if (!this.isBefore(epoch, offset, last)) {
             // the date is after the last known leap
-            res = -this.cache.getLatest().getOffset(date);
-        } else {
-            // the date is nominally bracketed by two leaps
-            try {
-                res = -this.cache.getNeighbors(date)[0].getOffset(date);
-            } catch (final TimeStampedCacheException tce) {
-                // this should never happen as boundaries have been handled in the previous statements
-                throw PatriusException.createInternalError(tce);
+            return last;
+        }
+        if (this.isBefore(epoch, offset, 0)) {
+            // the date is before the first known leap
+            return -1;
+        }
+
+        // the date is nominally bracketed by two leaps: offsets[iInf] <= date < offsets[iSup]
+        int iInf = 0;
+        int iSup = last;
+        while (iSup - iInf > 1) {
+            final int iMed = (iInf + iSup) >>> 1;
+            if (this.isBefore(epoch, offset, iMed)) {
+                iSup = iMed;
+            } else {
+                iInf = iMed;
             }
         }
-        return res;
+        return iInf;
+    }
+
+    /**
+     * Get the index of the offset model applicable at a date given in UTC.
+     * 
+     * @param mjd
+     *        modified julian day of the date
+     * @return index of the last offset model starting at or before the day, -1 if the day is before the first
+     *         known leap
+     */
+    private int index(final int mjd) {
+        final int last = this.offsets.length - 1;
+        if (this.leapMJDs[last] <= mjd) {
+            // the date is after the last known leap
+            return last;
+        }
+        final int search = Arrays.binarySearch(this.leapMJDs, 0, last, mjd);
+        // leaps all occur on different days, a negative value gives the insertion point
+        return search >= 0 ? search : -search - 2;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double offsetFromTAI(final AbsoluteDate date) {
+        return this.offsetFromTAI(date.getEpoch(), date.getOffset());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double offsetFromTAI(final long epoch, final double offset) {
+        final int i = this.index(epoch, offset);
+        return i < 0 ? 0 : -this.offsets[i].getOffset(epoch, offset);
     }
 
     /** {@inheritDoc} */
     @Override
     public double offsetToTAI(final DateComponents date,
                               final TimeComponents time) {
-
-        final double res;
-        if (this.cache.getEarliest().getMJD() > date.getMJD()) {
-            // the date is before the first known leap
-            res = 0;
-        } else if (this.cache.getLatest().getMJD() <= date.getMJD()) {
-            // the date is after the last known leap
-            res = this.cache.getLatest().getOffset(date, time);
-        } else {
-            // the date is nominally bracketed by two leaps
-            try {
-                // find close neighbors, assuming date in TAI, i.e a date earlier than real UTC date
-                final UTCTAIOffset[] neighbors =
-                    this.cache.getNeighbors(new AbsoluteDate(date, time, TimeScalesFactory.getTAI()));
-                if (neighbors[1].getMJD() <= date.getMJD()) {
-                    // the date is in fact just after a leap second!
-                    res = neighbors[1].getOffset(date, time);
-                } else {
-                    res = neighbors[0].getOffset(date, time);
-                }
-            } catch (final TimeStampedCacheException tce) {
-                // this should never happen as boundaries have been handled in the previous statements
-                throw PatriusException.createInternalError(tce);
-            }
-        }
-        return res;
+        final int i = this.index(date.getMJD());
+        return i < 0 ? 0 : this.offsets[i].getOffset(date, time);
     }
 
     /** {@inheritDoc} */
@@ -177,7 +235,7 @@ public class UTCScale implements TimeScale {
      * @return date of the first known leap second
      */
     public AbsoluteDate getFirstKnownLeapSecond() {
-        return this.cache.getEarliest().getDate();
+        return this.offsets[0].getDate();
     }
 
     /**
@@ -186,7 +244,7 @@ public class UTCScale implements TimeScale {
      * @return date of the last known leap second
      */
     public AbsoluteDate getLastKnownLeapSecond() {
-        return this.cache.getLatest().getDate();
+        return this.offsets[this.offsets.length - 1].getDate();
     }
 
     /**
@@ -197,23 +255,8 @@ public class UTCScale implements TimeScale {
      * @return true if time is within a leap second introduction
      */
     public boolean insideLeap(final AbsoluteDate date) {
-        final boolean res;
-        if (this.cache.getEarliest().getDate().compareTo(date) > 0) {
-            // the date is before the first known leap
-            res = false;
-        } else if (this.cache.getLatest().getDate().compareTo(date) <= 0) {
-            // the date is after the last known leap
-            res = date.compareTo(this.cache.getLatest().getValidityStart()) < 0;
-        } else {
-            // the date is nominally bracketed by two leaps
-            try {
-                res = date.compareTo(this.cache.getNeighbors(date)[0].getValidityStart()) < 0;
-            } catch (final TimeStampedCacheException tce) {
-                // this should never happen as boundaries have been handled in the previous statements
-                throw PatriusException.createInternalError(tce);
-            }
-        }
-        return res;
+        final int i = this.index(date.getEpoch(), date.getOffset());
+        return i >= 0 && date.compareTo(this.offsets[i].getValidityStart()) < 0;
     }
 
     /**
@@ -224,129 +267,97 @@ public class UTCScale implements TimeScale {
      * @return value of the previous leap
      */
     public double getLeap(final AbsoluteDate date) {
-        final double res;
-        if (this.cache.getEarliest().getDate().compareTo(date) > 0) {
-            res = 0;
-        } else if (this.cache.getLatest().getDate().compareTo(date) <= 0) {
-            // the date is after the last known leap
-            res = this.cache.getLatest().getLeap();
-        } else {
-            // the date is nominally bracketed by two leaps
-            try {
-                res = this.cache.getNeighbors(date)[0].getLeap();
-            } catch (final TimeStampedCacheException tce) {
-                // this should never happen as boundaries have been handled in the previous statements
-                throw PatriusException.createInternalError(tce);
-            }
+        final int i = this.index(date.getEpoch(), date.getOffset());
+        return i < 0 ? 0 : this.offsets[i].getLeap();
+    }
+
+    /**
+     * Build the offset models.
+     * 
+     * @param entries
+     *        user supplied entries
+     * @return chronologically sorted offset models
+     */
+    private static List<UTCTAIOffset> buildOffsets(final SortedMap<DateComponents, Integer> entries) {
+
+        final List<UTCTAIOffset> offsets = new ArrayList<>();
+
+        // set up the linear offsets used between 1961-01-01 and 1971-12-31
+        // excerpt from UTC-TAI.history file:
+        // 1961 Jan. 1 - 1961 Aug. 1 1.422 818 0s + (MJD - 37 300) x 0.001 296s
+        // Aug. 1 - 1962 Jan. 1 1.372 818 0s + ""
+        // 1962 Jan. 1 - 1963 Nov. 1 1.845 858 0s + (MJD - 37 665) x 0.001 123 2s
+        // 1963 Nov. 1 - 1964 Jan. 1 1.945 858 0s + ""
+        // 1964 Jan. 1 - April 1 3.240 130 0s + (MJD - 38 761) x 0.001 296s
+        // April 1 - Sept. 1 3.340 130 0s + ""
+        // Sept. 1 - 1965 Jan. 1 3.440 130 0s + ""
+        // 1965 Jan. 1 - March 1 3.540 130 0s + ""
+        // March 1 - Jul. 1 3.640 130 0s + ""
+        // Jul. 1 - Sept. 1 3.740 130 0s + ""
+        // Sept. 1 - 1966 Jan. 1 3.840 130 0s + ""
+        // 1966 Jan. 1 - 1968 Feb. 1 4.313 170 0s + (MJD - 39 126) x 0.002 592s
+        // 1968 Feb. 1 - 1972 Jan. 1 4.213 170 0s + ""
+        addOffsetModel(offsets, new DateComponents(1961, 1, 1), 37300, 1.4228180, 0.0012960);
+        addOffsetModel(offsets, new DateComponents(1961, 8, 1), 37300, 1.3728180, 0.0012960);
+        addOffsetModel(offsets, new DateComponents(1962, 1, 1), 37665, 1.8458580, 0.0011232);
+        addOffsetModel(offsets, new DateComponents(1963, 11, 1), 37665, 1.9458580, 0.0011232);
+        addOffsetModel(offsets, new DateComponents(1964, 1, 1), 38761, 3.2401300, 0.0012960);
+        addOffsetModel(offsets, new DateComponents(1964, 4, 1), 38761, 3.3401300, 0.0012960);
+        addOffsetModel(offsets, new DateComponents(1964, 9, 1), 38761, 3.4401300, 0.0012960);
+        addOffsetModel(offsets, new DateComponents(1965, 1, 1), 38761, 3.5401300, 0.0012960);
+        addOffsetModel(offsets, new DateComponents(1965, 3, 1), 38761, 3.6401300, 0.0012960);
+        addOffsetModel(offsets, new DateComponents(1965, 7, 1), 38761, 3.7401300, 0.0012960);
+        addOffsetModel(offsets, new DateComponents(1965, 9, 1), 38761, 3.8401300, 0.0012960);
+        addOffsetModel(offsets, new DateComponents(1966, 1, 1), 39126, 4.3131700, 0.0025920);
+        addOffsetModel(offsets, new DateComponents(1968, 2, 1), 39126, 4.2131700, 0.0025920);
+
+        // add leap second entries in chronological order
+        for (final Map.Entry<DateComponents, Integer> entry : entries.entrySet()) {
+            addOffsetModel(offsets, entry.getKey(), 0, entry.getValue(), 0);
         }
-        return res;
+
+        return offsets;
     }
 
+    /**
+     * Add an offset model.
+     * <p>
+     * This method <em>must</em> be called in chronological order.
+     * </p>
+     * 
+     * @param offsets
+     *        offset models to complete
+     * @param date
+     *        date of the constant offset model start
+     * @param mjdRef
+     *        reference date of the linear model as a modified julian day
+     * @param offset
+     *        offset at reference date in seconds (TAI minus UTC)
+     * @param slope
+     *        offset slope in seconds per UTC day (TAI minus UTC / dUTC)
+     */
+    private static void addOffsetModel(final List<UTCTAIOffset> offsets, final DateComponents date,
+                                       final int mjdRef, final double offset, final double slope) {
+
+        final TimeScale tai = TimeScalesFactory.getTAI();
 
-    /** Generator for leap seconds entries. */
-    private static class Generator implements TimeStampedGenerator<UTCTAIOffset> {
-
-        /** Serializable UID. */
-        private static final long serialVersionUID = 4872444368668180483L;
-        /** List of {@link UTCTAIOffset} entries. */
-        private final List<UTCTAIOffset> offsets;
-
-        /**
-         * Simple constructor.
-         * 
-         * @param entries
-         *        user supplied entries
-         */
-        public Generator(final SortedMap<DateComponents, Integer> entries) {
-
-            this.offsets = new ArrayList<>();
-
-            // set up the linear offsets used between 1961-01-01 and 1971-12-31
-            // excerpt from UTC-TAI.history file:
-            // 1961 Jan. 1 - 1961 Aug. 1 1.422 818 0s + (MJD - 37 300) x 0.001 296s
-            // Aug. 1 - 1962 Jan. 1 1.372 818 0s + ""
-            // 1962 Jan. 1 - 1963 Nov. 1 1.845 858 0s + (MJD - 37 665) x 0.001 123 2s
-            // 1963 Nov. 1 - 1964 Jan. 1 1.945 858 0s + ""
-            // 1964 Jan. 1 - April 1 3.240 130 0s + (MJD - 38 761) x 0.001 296s
-            // April 1 - Sept. 1 3.340 130 0s + ""
-            // Sept. 1 - 1965 Jan. 1 3.440 130 0s + ""
-            // 1965 Jan. 1 - March 1 3.540 130 0s + ""
-            // March 1 - Jul. 1 3.640 130 0s + ""
-            // Jul. 1 - Sept. 1 3.740 130 0s + ""
-            // Sept. 1 - 1966 Jan. 1 3.840 130 0s + ""
-            // 1966 Jan. 1 - 1968 Feb. 1 4.313 170 0s + (MJD - 39 126) x 0.002 592s
-            // 1968 Feb. 1 - 1972 Jan. 1 4.213 170 0s + ""
-            this.addOffsetModel(new DateComponents(1961, 1, 1), 37300, 1.4228180, 0.0012960);
-            this.addOffsetModel(new DateComponents(1961, 8, 1), 37300, 1.3728180, 0.0012960);
-            this.addOffsetModel(new DateComponents(1962, 1, 1), 37665, 1.8458580, 0.0011232);
-            this.addOffsetModel(new DateComponents(1963, 11, 1), 37665, 1.9458580, 0.0011232);
-            this.addOffsetModel(new DateComponents(1964, 1, 1), 38761, 3.2401300, 0.0012960);
-            this.addOffsetModel(new DateComponents(1964, 4, 1), 38761, 3.3401300, 0.0012960);
-            this.addOffsetModel(new DateComponents(1964, 9, 1), 38761, 3.4401300, 0.0012960);
-            this.addOffsetModel(new DateComponents(1965, 1, 1), 38761, 3.5401300, 0.0012960);
-            this.addOffsetModel(new DateComponents(1965, 3, 1), 38761, 3.6401300, 0.0012960);
-            this.addOffsetModel(new DateComponents(1965, 7, 1), 38761, 3.7401300, 0.0012960);
-            this.addOffsetModel(new DateComponents(1965, 9, 1), 38761, 3.8401300, 0.0012960);
-            this.addOffsetModel(new DateComponents(1966, 1, 1), 39126, 4.3131700, 0.0025920);
-            this.addOffsetModel(new DateComponents(1968, 2, 1), 39126, 4.2131700, 0.0025920);
-
-            // add leap second entries in chronological order
-            for (final Map.Entry<DateComponents, Integer> entry : entries.entrySet()) {
-                this.addOffsetModel(entry.getKey(), 0, entry.getValue(), 0);
-            }
+        // start of the leap
+        final UTCTAIOffset previous = offsets.isEmpty() ? null : offsets.get(offsets.size() - 1);
+        final double previousOffset = (previous == null) ? 0.0 : previous.getOffset(date, TimeComponents.H00);
+        final AbsoluteDate leapStart = new AbsoluteDate(date, tai).shiftedBy(previousOffset);
 
-        }
+        // end of the leap
+        final double startOffset = offset + slope * (date.getMJD() - mjdRef);
+        final AbsoluteDate leapEnd = new AbsoluteDate(date, tai).shiftedBy(startOffset);
 
-        /** {@inheritDoc} */
-        @Override
-        public List<UTCTAIOffset> generate(final UTCTAIOffset existing,
-                                           final AbsoluteDate date) throws TimeStampedCacheException {
-            if (existing != null) {
-                // short cut to avoid going through all cache updating as nothing new is available
-                throw new TimeStampedCacheException(PatriusMessages.UNABLE_TO_GENERATE_NEW_DATA_AFTER,
-                    this.offsets.get(this.offsets.size() - 1).getDate());
-            }
-            return this.offsets;
-        }
+        // leap computed at leap start and in UTC scale
+        final double normalizedSlope = slope / Constants.JULIAN_DAY;
+        final double leap = leapEnd.durationFrom(leapStart) / (1 + normalizedSlope);
 
-        /**
-         * Add an offset model.
-         * <p>
-         * This method <em>must</em> be called in chronological order.
-         * </p>
-         * 
-         * @param date
-         *        date of the constant offset model start
-         * @param mjdRef
-         *        reference date of the linear model as a modified julian day
-         * @param offset
-         *        offset at reference date in seconds (TAI minus UTC)
-         * @param slope
-         *        offset slope in seconds per UTC day (TAI minus UTC / dUTC)
-         */
-        private void addOffsetModel(final DateComponents date, final int mjdRef,
-                                    final double offset, final double slope) {
-
-            final TimeScale tai = TimeScalesFactory.getTAI();
-
-            // start of the leap
-            final UTCTAIOffset previous = this.offsets.isEmpty() ? null : this.offsets.get(this.offsets.size() - 1);
-            final double previousOffset = (previous == null) ? 0.0 : previous.getOffset(date, TimeComponents.H00);
-            final AbsoluteDate leapStart = new AbsoluteDate(date, tai).shiftedBy(previousOffset);
-
-            // end of the leap
-            final double startOffset = offset + slope * (date.getMJD() - mjdRef);
-            final AbsoluteDate leapEnd = new AbsoluteDate(date, tai).shiftedBy(startOffset);
-
-            // leap computed at leap start and in UTC scale
-            final double normalizedSlope = slope / Constants.JULIAN_DAY;
-            final double leap = leapEnd.durationFrom(leapStart) / (1 + normalizedSlope);
-
-            if (previous != null) {
-                previous.setValidityEnd(leapStart);
-            }
-            this.offsets.add(new UTCTAIOffset(leapStart, date.getMJD(), leap, offset, mjdRef, normalizedSlope));
+        if (previous != null) {
+            previous.setValidityEnd(leapStart);
         }
+        offsets.add(new UTCTAIOffset(leapStart, date.getMJD(), leap, offset, mjdRef, normalizedSlope));
     }
 
     // CHECKSTYLE: resume MagicNumber check
@@ -24,16 +24,20 @@
 package fr.cnes.sirius.patrius.time;
 
 import java.io.BufferedReader;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import fr.cnes.sirius.patrius.data.BinaryCacheableDataLoader;
 import fr.cnes.sirius.patrius.utils.exception.PatriusException;
 import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
 
@@ -53,11 +57,14 @@ import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
  * 
  * @author Luc Maisonobe
  */
-public class UTCTAIHistoryFilesLoader implements UTCTAILoader {
+public class UTCTAIHistoryFilesLoader implements UTCTAILoader, BinaryCacheableDataLoader {
 
     /** Supported files name pattern. */
     private static final String SUPPORTED_NAMES = "^UTC-TAI\\.history$";
 
+    /** Binary representation identifier. */
+    private static final String BINARY_FORMAT = "UTCTAIHistory-1";
+
     /** Regular data lines pattern. */
     private final Pattern regularPattern;
 
@@ -240,4 +247,33 @@ public class UTCTAIHistoryFilesLoader implements UTCTAILoader {
             throw new PatriusException(PatriusMessages.NO_ENTRIES_IN_IERS_UTC_TAI_HISTORY_FILE, name);
         }
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getBinaryFormat() {
+        return BINARY_FORMAT;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void convertData(final InputStream input, final String name,
+                            final DataOutput output) throws IOException, ParseException, PatriusException {
+        this.loadData(input, name);
+        output.writeInt(this.entries.size());
+        for (final Map.Entry<DateComponents, Integer> entry : this.entries.entrySet()) {
+            output.writeInt(entry.getKey().getMJD());
+            output.writeInt(entry.getValue());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void loadBinaryData(final ByteBuffer buffer, final String name) {
+        this.entries.clear();
+        final int size = buffer.getInt();
+        for (int i = 0; i < size; i++) {
+            final DateComponents leapDay = new DateComponents(DateComponents.MODIFIED_JULIAN_EPOCH, buffer.getInt());
+            this.entries.put(leapDay, buffer.getInt());
+        }
+    }
 }
@@ -201,7 +201,22 @@ class UTCTAIOffset implements TimeStamped, Serializable {
      * @return TAI - UTC offset in seconds.
      */
     public double getOffset(final AbsoluteDate date) {
-        return this.offset + date.durationFrom(this.reference) * this.slopeTAI;
+        return this.getOffset(date.getEpoch(), date.getOffset());
+    }
+
+    /**
+     * Get the TAI - UTC offset in seconds.
+     * 
+     * @param epoch
+     *        epoch of the date at which the offset is requested
+     * @param dateOffset
+     *        offset of the date at which the offset is requested
+     * @return TAI - UTC offset in seconds.
+     * @see #getOffset(AbsoluteDate)
+     */
+    public double getOffset(final long epoch, final double dateOffset) {
+        final double duration = (epoch - this.reference.getEpoch()) + (dateOffset - this.reference.getOffset());
+        return this.offset + duration * this.slopeTAI;
     }
 
     /**
@@ -32,7 +32,7 @@ import fr.cnes.sirius.patrius.time.AbsoluteDate;
 import fr.cnes.sirius.patrius.time.AbsoluteDateInterval;
 import fr.cnes.sirius.patrius.time.TimeStamped;
 import fr.cnes.sirius.patrius.tools.cache.CacheEntry;
-import fr.cnes.sirius.patrius.tools.cache.FIFOThreadSafeCache;
+import fr.cnes.sirius.patrius.tools.cache.IntervalThreadSafeCache;
 
 /**
  * Class representing an interpolable ephemeris for any time stamped data. It is thread-safe.
@@ -89,7 +89,7 @@ public class TimeStampedInterpolableEphemeris<IN extends TimeStamped, OUT> imple
     private final TimeStampedInterpolationFunctionBuilder<IN, OUT> interpolationFunctionBuilder;
 
     /** The cache storing the last interpolation functions to avoid repeating computations. */
-    private final FIFOThreadSafeCache<AbsoluteDateInterval, Function<AbsoluteDate, ? extends OUT>> cache;
+    private final IntervalThreadSafeCache<Function<AbsoluteDate, ? extends OUT>> cache;
 
     /** Search method for the right interval of samples. */
     private SearchMethod searchMethod;
@@ -97,8 +97,8 @@ public class TimeStampedInterpolableEphemeris<IN extends TimeStamped, OUT> imple
     /**
      * Simplified constructor.<br>
      * By default, the given samples are copied to be stored, plus they are checked to be strictly sorted (in increasing
-     * order and no samples with the same date) and a cache size of {@link FIFOThreadSafeCache#DEFAULT_MAX_SIZE} is
-     * used.
+     * order and no samples with the same date) and a cache size of
+     * {@link IntervalThreadSafeCache#DEFAULT_MAX_SIZE} is used.
      * <p>
      * Note: The interpolation function builder has to implement {@link Serializable} if the interpolable ephemeris
      * should be serializable (not required).
@@ -126,7 +126,7 @@ public class TimeStampedInterpolableEphemeris<IN extends TimeStamped, OUT> imple
                                             final TimeStampedInterpolationFunctionBuilder<IN, OUT> interpFctBuilder,
                                             final boolean acceptOutOfOptimalRange) {
         this(samples, order, interpFctBuilder, acceptOutOfOptimalRange, true, true,
-                FIFOThreadSafeCache.DEFAULT_MAX_SIZE);
+                IntervalThreadSafeCache.DEFAULT_MAX_SIZE);
     }
 
     /**
@@ -189,7 +189,8 @@ public class TimeStampedInterpolableEphemeris<IN extends TimeStamped, OUT> imple
         this.halfOrder = order / 2;
         this.acceptOutOfOptimalRange = acceptOutOfOptimalRange;
         this.interpolationFunctionBuilder = interpFctBuilder;
-        this.cache = new FIFOThreadSafeCache<>(cacheSize);
+        this.cache = new IntervalThreadSafeCache<>(cacheSize, IntervalThreadSafeCache.DEFAULT_STRIPES,
+            TimeStampedInterpolableEphemeris.class.getName());
         this.searchMethod = SearchMethod.PROPORTIONAL;
 
         // Define the usable first/last dates depending on the acceptOutOfOptimalRange value
@@ -223,8 +224,8 @@ public class TimeStampedInterpolableEphemeris<IN extends TimeStamped, OUT> imple
                                              final int halfOrder,
                                              final boolean acceptOutOfOptimalRange,
                                              final TimeStampedInterpolationFunctionBuilder<IN, OUT> interpFctBuilder,
-                                             final FIFOThreadSafeCache<AbsoluteDateInterval,
-                                             Function<AbsoluteDate, ? extends OUT>> cache,
+                                             final IntervalThreadSafeCache<Function<AbsoluteDate, ? extends OUT>>
+                                             cache,
                                              final SearchMethod searchMethod) {
         this.samples = samples;
         this.halfOrder = halfOrder;
@@ -313,7 +314,7 @@ public class TimeStampedInterpolableEphemeris<IN extends TimeStamped, OUT> imple
      */
     public OUT interpolate(final AbsoluteDate date) {
         final CacheEntry<AbsoluteDateInterval, Function<AbsoluteDate, ? extends OUT>> cacheEntry = this.cache
-            .computeIf(entry -> entry.getKey().contains(date), () -> {
+            .computeIfAbsent(date, () -> {
 
                 //
                 // Search samples surrounding the provided date
@@ -0,0 +1,174 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.tools.cache;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage counters of a cache.
+ * <p>
+ * Instances are obtained from the {@link CacheMetricsRegistry} under a stable name: all the caches built with the same
+ * name (for example all the instances of a given internal cache) report to the same counters. Counters use
+ * {@link LongAdder} so that concurrent updates do not contend.
+ * </p>
+ *
+ * @concurrency thread-safe
+ *
+ * @concurrency.comment counters are updated atomically, a reset concurrent with updates may lose some of them
+ *
+ * @see CacheMetricsRegistry
+ *
+ * @since 4.14
+ */
+public final class CacheMetrics implements CacheMetricsMXBean {
+
+    /** Nanoseconds to seconds conversion factor. */
+    private static final double NANOS_TO_SECONDS = 1.0e-9;
+
+    /** Name of the metrics. */
+    private final String name;
+
+    /** Number of hits. */
+    private final LongAdder hits;
+
+    /** Number of misses. */
+    private final LongAdder misses;
+
+    /** Number of evictions. */
+    private final LongAdder evictions;
+
+    /** Number of generations. */
+    private final LongAdder generations;
+
+    /** Total generation time (ns). */
+    private final LongAdder generationNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param nameIn
+     *        name of the metrics
+     */
+    CacheMetrics(final String nameIn) {
+        this.name = nameIn;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.generations = new LongAdder();
+        this.generationNanos = new LongAdder();
+    }
+
+    /**
+     * Record a lookup served by already cached data.
+     */
+    public void recordHit() {
+        this.hits.increment();
+    }
+
+    /**
+     * Record a lookup which required data generation.
+     */
+    public void recordMiss() {
+        this.misses.increment();
+    }
+
+    /**
+     * Record evicted entries (or slots).
+     *
+     * @param count
+     *        number of evicted entries
+     */
+    public void recordEvictions(final int count) {
+        this.evictions.add(count);
+    }
+
+    /**
+     * Record a call to the data generator.
+     *
+     * @param nanos
+     *        generation time (ns), as measured with {@link System#nanoTime()}
+     */
+    public void recordGeneration(final long nanos) {
+        this.generations.increment();
+        this.generationNanos.add(nanos);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getHitRatio() {
+        final long nbHits = this.getHits();
+        return (double) nbHits / (nbHits + this.getMisses());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getGenerations() {
+        return this.generations.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getGenerationTime() {
+        return this.generationNanos.sum() * NANOS_TO_SECONDS;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void reset() {
+        this.hits.reset();
+        this.misses.reset();
+        this.evictions.reset();
+        this.generations.reset();
+        this.generationNanos.reset();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s: %d hits, %d misses (hit ratio %.4f), %d evictions, "
+                + "%d generations in %.6f s", this.name, this.getHits(), this.getMisses(), this.getHitRatio(),
+            this.getEvictions(), this.getGenerations(), this.getGenerationTime());
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.tools.cache;
+
+/**
+ * Management interface of the {@link CacheMetrics cache metrics}, exported through JMX by
+ * {@link CacheMetricsRegistry#registerMBeans()}.
+ *
+ * @see CacheMetrics
+ *
+ * @since 4.14
+ */
+public interface CacheMetricsMXBean {
+
+    /**
+     * Get the name under which the metrics are registered.
+     *
+     * @return name of the metrics
+     */
+    String getName();
+
+    /**
+     * Get the number of lookups served by already cached data.
+     *
+     * @return number of hits
+     */
+    long getHits();
+
+    /**
+     * Get the number of lookups which required data generation.
+     *
+     * @return number of misses
+     */
+    long getMisses();
+
+    /**
+     * Get the ratio of lookups served by already cached data.
+     *
+     * @return hits / (hits + misses), {@link Double#NaN} if there was no lookup
+     */
+    double getHitRatio();
+
+    /**
+     * Get the number of evicted entries (or slots).
+     *
+     * @return number of evictions
+     */
+    long getEvictions();
+
+    /**
+     * Get the number of calls to the data generator.
+     * <p>
+     * A single miss may require several generations.
+     * </p>
+     *
+     * @return number of generations
+     */
+    long getGenerations();
+
+    /**
+     * Get the total time spent in the data generator.
+     *
+     * @return total generation time (s)
+     */
+    double getGenerationTime();
+
+    /**
+     * Reset all counters to zero.
+     */
+    void reset();
+}
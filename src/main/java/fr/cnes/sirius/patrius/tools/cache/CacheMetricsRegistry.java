@@ -0,0 +1,223 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.tools.cache;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Registry of the {@link CacheMetrics cache metrics}.
+ * <p>
+ * The time-stamped caches and the {@link FIFOThreadSafeCache} built with a name report their hits, misses, evictions
+ * and generation times to the metrics registered under this name. All the internal caches of PATRIUS are named after
+ * the class owning them (for example {@code fr.cnes.sirius.patrius.bodies.JPLHistoricEphemerisLoader}), so that the
+ * numbers of cache slots or entries can be tuned from the metrics collected on actual runs.
+ * </p>
+ * <p>
+ * Metrics are disabled by default, so that caches do not pay for them: they must be {@link #setEnabled(boolean)
+ * enabled} before the runs to analyze. While they are disabled, {@link #getMetrics(String)} returns null and the
+ * caches report nothing.
+ * </p>
+ * <p>
+ * Metrics can be read {@link #getAllMetrics() programmatically} or exported as MXBeans in the platform MBean server
+ * (object names {@code fr.cnes.sirius.patrius:type=Cache,name=<name>}) with {@link #registerMBeans()}.
+ * </p>
+ *
+ * @concurrency thread-safe
+ *
+ * @concurrency.comment metrics are stored in a concurrent map
+ *
+ * @since 4.14
+ */
+public final class CacheMetricsRegistry {
+
+    /** JMX domain of the exported metrics. */
+    public static final String JMX_DOMAIN = "fr.cnes.sirius.patrius";
+
+    /** Registered metrics. */
+    private static final Map<String, CacheMetrics> METRICS = new ConcurrentHashMap<>();
+
+    /** Indicates if the metrics are exported through JMX. */
+    private static volatile boolean exported;
+
+    /** Indicates if the metrics are enabled. */
+    private static volatile boolean enabled;
+
+    /**
+     * Private constructor.
+     */
+    private CacheMetricsRegistry() {
+        // Nothing to do
+    }
+
+    /**
+     * Enable or disable the metrics of all the caches.
+     * <p>
+     * Metrics are disabled by default. Disabling them does not reset the metrics already collected.
+     * </p>
+     *
+     * @param enabledIn
+     *        true to enable the metrics, false to disable them
+     */
+    public static void setEnabled(final boolean enabledIn) {
+        enabled = enabledIn;
+    }
+
+    /**
+     * Indicates if the metrics are enabled.
+     *
+     * @return true if the metrics are enabled
+     * @see #setEnabled(boolean)
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the metrics registered under a name, creating them if needed.
+     * <p>
+     * If metrics are exported through JMX, newly created metrics are exported too.
+     * </p>
+     *
+     * @param name
+     *        name of the metrics
+     * @return metrics registered under the given name, null if metrics are {@link #setEnabled(boolean) disabled}
+     */
+    public static CacheMetrics getMetrics(final String name) {
+        if (!enabled) {
+            return null;
+        }
+        CacheMetrics metrics = METRICS.get(name);
+        if (metrics == null) {
+            final CacheMetrics created = new CacheMetrics(name);
+            metrics = METRICS.putIfAbsent(name, created);
+            if (metrics == null) {
+                metrics = created;
+                if (exported) {
+                    try {
+                        register(ManagementFactory.getPlatformMBeanServer(), created);
+                    } catch (final PatriusException e) {
+                        // Export failure must not prevent the cache from working:
+                        // metrics are still available programmatically
+                    }
+                }
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Get all the registered metrics.
+     *
+     * @return unmodifiable view of the registered metrics, sorted by name
+     */
+    public static SortedMap<String, CacheMetrics> getAllMetrics() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(METRICS));
+    }
+
+    /**
+     * Reset all the registered metrics.
+     */
+    public static void resetAll() {
+        for (final CacheMetrics metrics : METRICS.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Export all the metrics, including the metrics registered later, in the platform MBean server.
+     *
+     * @throws PatriusException
+     *         if some metrics cannot be exported
+     */
+    public static synchronized void registerMBeans() throws PatriusException {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        exported = true;
+        for (final CacheMetrics metrics : METRICS.values()) {
+            register(server, metrics);
+        }
+    }
+
+    /**
+     * Remove all the metrics from the platform MBean server.
+     *
+     * @throws PatriusException
+     *         if some metrics cannot be removed
+     */
+    public static synchronized void unregisterMBeans() throws PatriusException {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        exported = false;
+        for (final CacheMetrics metrics : METRICS.values()) {
+            try {
+                server.unregisterMBean(objectName(metrics.getName()));
+            } catch (final InstanceNotFoundException e) {
+                // Metrics were not exported
+            } catch (final JMException e) {
+                throw new PatriusException(e, PatriusMessages.CACHE_METRICS_JMX_FAILURE, metrics.getName());
+            }
+        }
+    }
+
+    /**
+     * Build the JMX object name of metrics.
+     *
+     * @param name
+     *        name of the metrics
+     * @return object name
+     * @throws JMException
+     *         if the object name cannot be built
+     */
+    public static ObjectName objectName(final String name) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=Cache,name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * Export metrics in a MBean server, if not already exported.
+     *
+     * @param server
+     *        MBean server
+     * @param metrics
+     *        metrics to export
+     * @throws PatriusException
+     *         if the metrics cannot be exported
+     */
+    private static void register(final MBeanServer server, final CacheMetrics metrics) throws PatriusException {
+        try {
+            server.registerMBean(metrics, objectName(metrics.getName()));
+        } catch (final InstanceAlreadyExistsException e) {
+            // Already exported
+        } catch (final JMException e) {
+            throw new PatriusException(e, PatriusMessages.CACHE_METRICS_JMX_FAILURE, metrics.getName());
+        }
+    }
+}
@@ -41,6 +41,11 @@ import fr.cnes.sirius.patrius.utils.StringTablePrinter;
  * implementation).
  * </p>
  *
+ * <p>
+ * A cache built with a name reports its usage to the {@link CacheMetrics metrics} registered under this name in the
+ * {@link CacheMetricsRegistry}.
+ * </p>
+ *
  * @param <K>
  *        The key, usually used to identify if the computation has already been performed
  * @param <V>
@@ -78,6 +83,12 @@ public class FIFOThreadSafeCache<K, V> implements Serializable {
     /** Indicates when the cache is full and needs to poll. */
     private transient volatile boolean needsPoll;
 
+    /** Name of the {@link CacheMetrics metrics} the cache reports to (null if metrics are disabled). */
+    private final String name;
+
+    /** Metrics the cache reports to (null if not resolved yet or if metrics are disabled). */
+    private transient CacheMetrics metrics;
+
     /**
      * Constructor with default max size {@link #DEFAULT_MAX_SIZE}.
      */
@@ -94,6 +105,21 @@ public class FIFOThreadSafeCache<K, V> implements Serializable {
      *         if {@code listMaxSize < 0}
      */
     public FIFOThreadSafeCache(final int listMaxSize) {
+        this(listMaxSize, null);
+    }
+
+    /**
+     * Constructor reporting usage to {@link CacheMetrics metrics}.
+     *
+     * @param listMaxSize
+     *        The max size of the cache. 0 is a legitimate value emulating the absence of cache.
+     * @param metricsName
+     *        Name of the metrics in the {@link CacheMetricsRegistry} (null to disable metrics)
+     * @throws NotPositiveException
+     *         if {@code listMaxSize < 0}
+     * @since 4.14
+     */
+    public FIFOThreadSafeCache(final int listMaxSize, final String metricsName) {
         // Check input
         if (listMaxSize < 0) {
             throw new NotPositiveException(listMaxSize);
@@ -104,6 +130,7 @@ public class FIFOThreadSafeCache<K, V> implements Serializable {
         this.nbCallComputeIf = new AtomicInteger(0);
         this.nbCallAddEntry = new AtomicInteger(0);
         this.needsPoll = false;
+        this.name = metricsName;
     }
 
     /**
@@ -124,7 +151,7 @@ public class FIFOThreadSafeCache<K, V> implements Serializable {
 
         // Quick escape in case of no cache
         if (this.listMaxSize == 0) {
-            return entrySupplier.get();
+            return this.generate(entrySupplier);
         }
 
         // Look for an entry that matches the predicate in the internal structure
@@ -132,11 +159,15 @@ public class FIFOThreadSafeCache<K, V> implements Serializable {
 
         if (entry != null) {
             // The predicate matched an entry. It is directly returned
+            final CacheMetrics cacheMetrics = this.getMetrics();
+            if (cacheMetrics != null) {
+                cacheMetrics.recordHit();
+            }
             return entry;
         }
 
         // The predicate did not match any entry. The entry needs to be computed.
-        entry = entrySupplier.get();
+        entry = this.generate(entrySupplier);
 
         // Note that in a multi-thread situation, the entry might be added while it has, meanwhile, been added in the
         // structure by another thread. Not a big deal...
@@ -226,6 +257,43 @@ public class FIFOThreadSafeCache<K, V> implements Serializable {
         return tablePrinter.toString();
     }
 
+    /**
+     * Internal method to compute an entry, reporting a miss to the metrics.
+     *
+     * @param entrySupplier
+     *        The supplier that will build the entry
+     * @return the entry computed
+     */
+    private CacheEntry<K, V> generate(final Supplier<CacheEntry<K, V>> entrySupplier) {
+        final CacheMetrics cacheMetrics = this.getMetrics();
+        if (cacheMetrics == null) {
+            return entrySupplier.get();
+        }
+        cacheMetrics.recordMiss();
+        final long start = System.nanoTime();
+        final CacheEntry<K, V> entry = entrySupplier.get();
+        cacheMetrics.recordGeneration(System.nanoTime() - start);
+        return entry;
+    }
+
+    /**
+     * Get the metrics the cache reports to.
+     *
+     * @return metrics the cache reports to, null if metrics are disabled
+     */
+    private CacheMetrics getMetrics() {
+        if (this.name == null || !CacheMetricsRegistry.isEnabled()) {
+            return null;
+        }
+        CacheMetrics cacheMetrics = this.metrics;
+        if (cacheMetrics == null) {
+            // resolving the metrics concurrently is harmless
+            cacheMetrics = CacheMetricsRegistry.getMetrics(this.name);
+            this.metrics = cacheMetrics;
+        }
+        return cacheMetrics;
+    }
+
     /**
      * Internal method to look for an entry that matches the predicate. Returns null if no entry matched the predicate.
      *
@@ -267,6 +335,10 @@ public class FIFOThreadSafeCache<K, V> implements Serializable {
         // the next time the last element of the structure will be removed
         if (this.needsPoll) {
             this.structure.pollLast();
+            final CacheMetrics cacheMetrics = this.getMetrics();
+            if (cacheMetrics != null) {
+                cacheMetrics.recordEvictions(1);
+            }
         } else if (nbCall >= this.listMaxSize) {
             this.needsPoll = true;
         }
@@ -0,0 +1,492 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.tools.cache;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import fr.cnes.sirius.patrius.math.exception.NotPositiveException;
+import fr.cnes.sirius.patrius.math.exception.NotStrictlyPositiveException;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.AbsoluteDateInterval;
+
+/**
+ * Thread-safe cache of values associated to non-overlapping {@link AbsoluteDateInterval date intervals}.
+ * <p>
+ * Contrary to the {@link FIFOThreadSafeCache}, which scans its entries with a predicate, the entries are indexed by the
+ * lower bound of their interval: the entry containing a date is found with an ordered map lookup.
+ * </p>
+ * <p>
+ * The cache can be split into stripes (for instance {@link #PROCESSOR_STRIPES}), each thread using the stripe selected
+ * by its identifier. Threads walking different time regions thus do not evict each other entries, and do not contend on
+ * the same lock. The max size of the cache is split across the stripes, so that the memory footprint does not depend
+ * on the number of stripes: there are never more stripes than entries. Striping is opt-in: by default, a single stripe
+ * is shared by all threads, since a thread only ever uses its own stripe. Each stripe is a segmented
+ * LRU cache: new entries enter a probationary segment and are promoted to a protected segment (80% of the stripe size)
+ * when they are used again. When the stripe is full, the least recently used probationary entry is evicted, so that a
+ * sequential walk over many intervals does not evict the frequently used ones.
+ * </p>
+ * <p>
+ * The intervals of the cached entries must not overlap, except on their bounds.
+ * </p>
+ *
+ * @param <V>
+ *        The value associated to the intervals
+ *
+ * @concurrency thread-safe
+ *
+ * @concurrency.comment each stripe is guarded by its own lock
+ *
+ * @see FIFOThreadSafeCache
+ *
+ * @since 4.14
+ */
+public class IntervalThreadSafeCache<V> implements Serializable {
+
+    /** Default max size of the cache. */
+    public static final int DEFAULT_MAX_SIZE = FIFOThreadSafeCache.DEFAULT_MAX_SIZE;
+
+    /**
+     * Default number of stripes: a single stripe shared by all threads, so that a sequential caller benefits from the
+     * whole max size.
+     */
+    public static final int DEFAULT_STRIPES = 1;
+
+    /**
+     * Number of stripes suited to concurrent callers: the smallest power of 2 greater than or equal to the number of
+     * available processors.
+     */
+    public static final int PROCESSOR_STRIPES = Integer.highestOneBit(
+        MathLib.max(1, 2 * Runtime.getRuntime().availableProcessors() - 1));
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = 2931655284106410578L;
+
+    /** Ratio of the stripe size dedicated to the protected segment. */
+    private static final double PROTECTED_RATIO = 0.8;
+
+    /** Max size of the cache. */
+    private final int maxSize;
+
+    /** Number of stripes. */
+    private final int nbStripes;
+
+    /** Name of the {@link CacheMetrics metrics} the cache reports to (null if metrics are disabled). */
+    private final String name;
+
+    /** Stripes. */
+    private transient Stripe<V>[] stripes;
+
+    /** Number of calls of the {@link #computeIfAbsent(AbsoluteDate, Supplier)} method. */
+    private transient LongAdder nbCalls;
+
+    /** Number of computed entries. */
+    private transient LongAdder nbComputed;
+
+    /** Metrics the cache reports to (null if not resolved yet or if metrics are disabled). */
+    private transient CacheMetrics metrics;
+
+    /**
+     * Constructor with default max size {@link #DEFAULT_MAX_SIZE} and default number of stripes
+     * {@link #DEFAULT_STRIPES}.
+     */
+    public IntervalThreadSafeCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor with default number of stripes {@link #DEFAULT_STRIPES}.
+     *
+     * @param maxSize
+     *        The max size of the cache. 0 is a legitimate value emulating the absence of cache.
+     * @throws NotPositiveException
+     *         if {@code maxSize < 0}
+     */
+    public IntervalThreadSafeCache(final int maxSize) {
+        this(maxSize, DEFAULT_STRIPES, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize
+     *        The max size of the cache, split across the stripes. 0 is a legitimate value emulating the absence of
+     *        cache.
+     * @param stripes
+     *        Number of stripes, rounded up to a power of 2 and then reduced, if necessary, to the largest power of 2
+     *        not greater than {@code maxSize} (1 to share the same entries between all threads)
+     * @param metricsName
+     *        Name of the metrics in the {@link CacheMetricsRegistry} (null to disable metrics)
+     * @throws NotPositiveException
+     *         if {@code maxSize < 0}
+     * @throws NotStrictlyPositiveException
+     *         if {@code stripes <= 0}
+     */
+    public IntervalThreadSafeCache(final int maxSize, final int stripes, final String metricsName) {
+        if (maxSize < 0) {
+            throw new NotPositiveException(maxSize);
+        }
+        if (stripes <= 0) {
+            throw new NotStrictlyPositiveException(stripes);
+        }
+        this.maxSize = maxSize;
+        // Each stripe holds at least one entry
+        this.nbStripes = MathLib.max(1, MathLib.min(Integer.highestOneBit(2 * stripes - 1),
+            Integer.highestOneBit(maxSize)));
+        this.name = metricsName;
+        this.init();
+    }
+
+    /**
+     * Get the entry whose interval contains a date, computing and adding it to the cache if necessary.
+     *
+     * @param date
+     *        The date
+     * @param entrySupplier
+     *        The supplier that will build the entry if required: its interval must contain the date. If it returns
+     *        {@code null}, {@code null} is returned and nothing is added into the cache.
+     * @return the entry containing the date. Can be {@code null} if the supplier provided such a value.
+     */
+    public CacheEntry<AbsoluteDateInterval, V> computeIfAbsent(final AbsoluteDate date,
+            final Supplier<CacheEntry<AbsoluteDateInterval, V>> entrySupplier) {
+
+        this.nbCalls.increment();
+
+        // Look for the entry in the stripe of the current thread
+        final CacheMetrics cacheMetrics = this.getMetrics();
+        final Stripe<V> stripe = this.maxSize == 0 ? null : this.stripes[stripeIndex()];
+        if (stripe != null) {
+            final CacheEntry<AbsoluteDateInterval, V> entry = stripe.get(date);
+            if (entry != null) {
+                if (cacheMetrics != null) {
+                    cacheMetrics.recordHit();
+                }
+                return entry;
+            }
+        }
+
+        // The entry needs to be computed, outside of the lock
+        this.nbComputed.increment();
+        final CacheEntry<AbsoluteDateInterval, V> entry;
+        if (cacheMetrics == null) {
+            entry = entrySupplier.get();
+        } else {
+            cacheMetrics.recordMiss();
+            final long start = System.nanoTime();
+            entry = entrySupplier.get();
+            cacheMetrics.recordGeneration(System.nanoTime() - start);
+        }
+
+        if (stripe != null && entry != null) {
+            final boolean evicted = stripe.put(entry);
+            if (evicted && cacheMetrics != null) {
+                cacheMetrics.recordEvictions(1);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Clears the cache.
+     */
+    public void clear() {
+        for (final Stripe<V> stripe : this.stripes) {
+            stripe.clear();
+        }
+        this.nbCalls.reset();
+        this.nbComputed.reset();
+    }
+
+    /**
+     * Getter for the maximum size of the cache.
+     *
+     * @return the maximum size of the cache
+     */
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Getter for the number of stripes.
+     *
+     * @return the number of stripes
+     */
+    public int getStripes() {
+        return this.nbStripes;
+    }
+
+    /**
+     * Provides the ratio of reusability of this cache.
+     * <p>
+     * This method can help to chose the size of the cache.
+     * </p>
+     *
+     * @return the reusability ratio (0 means no reusability at all, 0.5 means that the supplier is called only half
+     *         time compared to the {@link #computeIfAbsent(AbsoluteDate, Supplier)} method)
+     */
+    public double getReusabilityRatio() {
+        final double nbTotalCalls = this.nbCalls.sum();
+        return (nbTotalCalls - this.nbComputed.sum()) / nbTotalCalls;
+    }
+
+    /**
+     * Get the index of the stripe of the current thread.
+     *
+     * @return index of the stripe of the current thread
+     */
+    private int stripeIndex() {
+        final long id = Thread.currentThread().getId();
+        final int h = (int) (id ^ (id >>> 32));
+        return (h ^ (h >>> 16)) & (this.nbStripes - 1);
+    }
+
+    /**
+     * Initialize the transient attributes.
+     */
+    private void init() {
+        @SuppressWarnings("unchecked")
+        final Stripe<V>[] array = new Stripe[this.nbStripes];
+        // The remainder of the split is given to the first stripes
+        final int stripeSize = this.maxSize / this.nbStripes;
+        final int remainder = this.maxSize % this.nbStripes;
+        for (int i = 0; i < this.nbStripes; i++) {
+            array[i] = new Stripe<>(i < remainder ? stripeSize + 1 : stripeSize);
+        }
+        this.stripes = array;
+        this.nbCalls = new LongAdder();
+        this.nbComputed = new LongAdder();
+    }
+
+    /**
+     * Get the metrics the cache reports to.
+     *
+     * @return metrics the cache reports to, null if metrics are disabled
+     */
+    private CacheMetrics getMetrics() {
+        if (this.name == null || !CacheMetricsRegistry.isEnabled()) {
+            return null;
+        }
+        CacheMetrics cacheMetrics = this.metrics;
+        if (cacheMetrics == null) {
+            // resolving the metrics concurrently is harmless
+            cacheMetrics = CacheMetricsRegistry.getMetrics(this.name);
+            this.metrics = cacheMetrics;
+        }
+        return cacheMetrics;
+    }
+
+    /**
+     * Private method for the serialization. It reinitializes the transient attributes.
+     *
+     * @param aInputStream
+     *        stream where the cache should be written
+     * @throws ClassNotFoundException
+     *         if a class in the stream cannot be found
+     * @throws IOException
+     *         if object cannot be read from the stream
+     */
+    private void readObject(final ObjectInputStream aInputStream) throws ClassNotFoundException, IOException {
+        // Perform the default deserialization first
+        aInputStream.defaultReadObject();
+
+        // Handle transient attributes
+        this.init();
+    }
+
+    /**
+     * Segmented LRU cache of one stripe.
+     *
+     * @param <V>
+     *        The value associated to the intervals
+     */
+    private static final class Stripe<V> {
+
+        /** Max size of the stripe. */
+        private final int maxSize;
+
+        /** Max size of the protected segment. */
+        private final int maxProtectedSize;
+
+        /** Entries indexed by the lower bound of their interval. */
+        private final TreeMap<AbsoluteDate, Node<V>> index;
+
+        /** Sentinel of the probationary segment (most recently used entry is next, least recently used is prev). */
+        private final Node<V> probation;
+
+        /** Sentinel of the protected segment (most recently used entry is next, least recently used is prev). */
+        private final Node<V> protection;
+
+        /** Size of the protected segment. */
+        private int protectedSize;
+
+        /**
+         * Constructor.
+         *
+         * @param maxSizeIn
+         *        max size of the stripe
+         */
+        private Stripe(final int maxSizeIn) {
+            this.maxSize = maxSizeIn;
+            // At least one probationary entry
+            this.maxProtectedSize = MathLib.max(0, MathLib.min(maxSizeIn - 1, (int) (PROTECTED_RATIO * maxSizeIn)));
+            this.index = new TreeMap<>();
+            this.probation = new Node<>(null);
+            this.protection = new Node<>(null);
+        }
+
+        /**
+         * Get the entry containing a date and mark it as used.
+         *
+         * @param date
+         *        date
+         * @return the entry containing the date, null if not cached
+         */
+        private synchronized CacheEntry<AbsoluteDateInterval, V> get(final AbsoluteDate date) {
+            Map.Entry<AbsoluteDate, Node<V>> candidate = this.index.floorEntry(date);
+            if (candidate != null && !candidate.getValue().entry.getKey().contains(date)) {
+                // the date may be the closed upper bound of the previous interval
+                candidate = this.index.lowerEntry(candidate.getKey());
+            }
+            if (candidate == null || !candidate.getValue().entry.getKey().contains(date)) {
+                return null;
+            }
+
+            final Node<V> node = candidate.getValue();
+            node.unlink();
+            if (!node.isProtected && this.protectedSize == this.maxProtectedSize) {
+                if (this.maxProtectedSize == 0) {
+                    // no protected segment: plain LRU
+                    node.linkAfter(this.probation);
+                    return node.entry;
+                }
+                // demote the least recently used protected entry
+                final Node<V> demoted = this.protection.prev;
+                demoted.unlink();
+                demoted.isProtected = false;
+                demoted.linkAfter(this.probation);
+                this.protectedSize--;
+            }
+            if (!node.isProtected) {
+                node.isProtected = true;
+                this.protectedSize++;
+            }
+            node.linkAfter(this.protection);
+            return node.entry;
+        }
+
+        /**
+         * Add an entry in the probationary segment.
+         *
+         * @param entry
+         *        entry to add
+         * @return true if an entry has been evicted
+         */
+        private synchronized boolean put(final CacheEntry<AbsoluteDateInterval, V> entry) {
+            final AbsoluteDate key = entry.getKey().getLowerData();
+            if (this.index.containsKey(key)) {
+                // already added by another thread using the same stripe
+                return false;
+            }
+            final Node<V> node = new Node<>(entry);
+            node.linkAfter(this.probation);
+            this.index.put(key, node);
+            if (this.index.size() > this.maxSize) {
+                // evict the least recently used probationary entry
+                final Node<V> evicted = this.probation.prev;
+                evicted.unlink();
+                this.index.remove(evicted.entry.getKey().getLowerData());
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Remove all the entries.
+         */
+        private synchronized void clear() {
+            this.index.clear();
+            this.probation.next = this.probation;
+            this.probation.prev = this.probation;
+            this.protection.next = this.protection;
+            this.protection.prev = this.protection;
+            this.protectedSize = 0;
+        }
+    }
+
+    /**
+     * Node of the doubly linked lists of the segments.
+     *
+     * @param <V>
+     *        The value associated to the intervals
+     */
+    private static final class Node<V> {
+
+        /** Cached entry (null for sentinels). */
+        private final CacheEntry<AbsoluteDateInterval, V> entry;
+
+        /** Previous node. */
+        private Node<V> prev;
+
+        /** Next node. */
+        private Node<V> next;
+
+        /** Indicates if the node belongs to the protected segment. */
+        private boolean isProtected;
+
+        /**
+         * Constructor.
+         *
+         * @param entryIn
+         *        cached entry (null for sentinels, which are linked to themselves)
+         */
+        private Node(final CacheEntry<AbsoluteDateInterval, V> entryIn) {
+            this.entry = entryIn;
+            this.prev = this;
+            this.next = this;
+        }
+
+        /**
+         * Remove the node from its list.
+         */
+        private void unlink() {
+            this.prev.next = this.next;
+            this.next.prev = this.prev;
+        }
+
+        /**
+         * Insert the node after another one.
+         *
+         * @param node
+         *        node after which the instance is inserted
+         */
+        private void linkAfter(final Node<V> node) {
+            this.prev = node;
+            this.next = node.next;
+            node.next.prev = this;
+            node.next = this;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.tools.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Helpers for the data-parallel loops run on fork-join pools.
+ * <p>
+ * The loops are run either on a pool supplied by the caller or on a pool shared by all the loops using the same
+ * parallelism: pools are never created per call.
+ * </p>
+ * <p>
+ * This class is internal to PATRIUS: it is public only so that it can be used from the other packages.
+ * </p>
+ *
+ * @concurrency thread-safe
+ *
+ * @since 4.14
+ */
+public final class ParallelUtils {
+
+    /** Number of tasks per thread (for load balancing). */
+    public static final int TASKS_PER_THREAD = 4;
+
+    /** Shared pools, indexed by parallelism. */
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor.
+     */
+    private ParallelUtils() {
+        // Nothing to do
+    }
+
+    /**
+     * Get the pool shared by the loops using a given parallelism.
+     * <p>
+     * The pool is created on first use and lives as long as the application: its worker threads are daemon threads
+     * which are released when idle.
+     * </p>
+     *
+     * @param parallelism
+     *        parallelism of the pool
+     * @return the shared pool
+     */
+    public static ForkJoinPool getSharedPool(final int parallelism) {
+        return POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+    }
+
+    /**
+     * Run a task on contiguous ranges of indices, concurrently if more than one thread is allowed.
+     * <p>
+     * The indices are split into at most {@link #TASKS_PER_THREAD} ranges per thread, each range containing at least
+     * {@code minChunkSize} indices. The task is run in the calling thread if a single range is needed, otherwise on
+     * the {@link #getSharedPool(int) shared pool} of the given parallelism.
+     * </p>
+     *
+     * @param n
+     *        number of indices
+     * @param minChunkSize
+     *        minimum number of indices per range
+     * @param parallelism
+     *        maximum number of threads used
+     * @param task
+     *        task to run
+     * @param interrupted
+     *        message of the exception thrown if the calling thread is interrupted
+     * @throws PatriusException
+     *         if the task fails or if it is interrupted
+     */
+    public static void run(final int n, final int minChunkSize, final int parallelism, final RangeTask task,
+                           final PatriusMessages interrupted) throws PatriusException {
+        final int nbChunks = n / minChunkSize;
+        final int nbThreads = MathLib.min(parallelism, nbChunks);
+        if (nbThreads <= 1) {
+            task.run(0, n);
+        } else {
+            submit(getSharedPool(parallelism), n, MathLib.min(nbChunks, nbThreads * TASKS_PER_THREAD), task,
+                interrupted);
+        }
+    }
+
+    /**
+     * Run a task on contiguous ranges of indices of a pool supplied by the caller.
+     * <p>
+     * The indices are split into at most {@link #TASKS_PER_THREAD} ranges per thread of the pool, each range
+     * containing at least {@code minChunkSize} indices. The task is run in the calling thread if a single range is
+     * needed. The pool is not shut down.
+     * </p>
+     *
+     * @param n
+     *        number of indices
+     * @param minChunkSize
+     *        minimum number of indices per range
+     * @param pool
+     *        pool running the task
+     * @param task
+     *        task to run
+     * @param interrupted
+     *        message of the exception thrown if the calling thread is interrupted
+     * @throws PatriusException
+     *         if the task fails or if it is interrupted
+     */
+    public static void run(final int n, final int minChunkSize, final ForkJoinPool pool, final RangeTask task,
+                           final PatriusMessages interrupted) throws PatriusException {
+        final int nbChunks = n / minChunkSize;
+        final int nbThreads = MathLib.min(pool.getParallelism(), nbChunks);
+        if (nbThreads <= 1) {
+            task.run(0, n);
+        } else {
+            submit(pool, n, MathLib.min(nbChunks, nbThreads * TASKS_PER_THREAD), task, interrupted);
+        }
+    }
+
+    /**
+     * Submit the ranges of indices to a pool and wait for their completion.
+     *
+     * @param pool
+     *        pool running the task
+     * @param n
+     *        number of indices
+     * @param nbTasks
+     *        number of ranges
+     * @param task
+     *        task to run
+     * @param interrupted
+     *        message of the exception thrown if the calling thread is interrupted
+     * @throws PatriusException
+     *         if the task fails or if it is interrupted
+     */
+    private static void submit(final ForkJoinPool pool, final int n, final int nbTasks, final RangeTask task,
+                               final PatriusMessages interrupted) throws PatriusException {
+        final List<Future<Void>> pending = new ArrayList<>(nbTasks);
+        try {
+            for (int t = 0; t < nbTasks; t++) {
+                final int start = (int) ((long) n * t / nbTasks);
+                final int end = (int) ((long) n * (t + 1) / nbTasks);
+                pending.add(pool.submit(() -> {
+                    task.run(start, end);
+                    return null;
+                }));
+            }
+            for (final Future<Void> future : pending) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PatriusException(e, interrupted);
+        } catch (final ExecutionException e) {
+            throw unwrap(e.getCause());
+        } finally {
+            // the pool outlives the loop: do not leave tasks running after a failure
+            for (final Future<Void> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Unwrap the exception raised by a task run on a fork-join pool.
+     * <p>
+     * The fork-join pool wraps checked exceptions into runtime exceptions, hence the cause chain is searched for the
+     * original exception. Runtime exceptions and errors which do not embed any Patrius exception are rethrown as is.
+     * </p>
+     *
+     * @param cause
+     *        exception raised by the task
+     * @return the original Patrius exception, or a new one wrapping a checked exception
+     */
+    public static PatriusException unwrap(final Throwable cause) {
+        // Recover a possible embedded Patrius exception
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof PatriusException) {
+                return (PatriusException) t;
+            }
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new PatriusException(cause, PatriusMessages.SIMPLE_MESSAGE, cause.getMessage());
+    }
+
+    /** Task operating on a contiguous range of indices. */
+    @FunctionalInterface
+    public interface RangeTask {
+
+        /**
+         * Run the task.
+         *
+         * @param start
+         *        first index (inclusive)
+         * @param end
+         *        last index (exclusive)
+         * @throws PatriusException
+         *         if the task fails
+         */
+        void run(int start, int end) throws PatriusException;
+    }
+}
@@ -568,6 +568,74 @@ public class AngularCoordinates implements TimeShiftable<AngularCoordinates>, Se
         return subtractOffset(offset, false);
     }
 
+    /**
+     * Apply the rotation to positions and velocities stored in primitive arrays, in place.
+     * <p>
+     * This is equivalent to calling {@link #applyTo(PVCoordinates)} on each (position, velocity) couple, without
+     * building any intermediate object. Coordinates are stored as consecutive (x, y, z) triplets: the coordinates of
+     * point i are stored at indices 3i, 3i + 1 and 3i + 2.
+     * </p>
+     * 
+     * @param positions
+     *        positions to apply the rotation to, replaced by their images
+     * @param velocities
+     *        velocities to apply the rotation to, replaced by their images (may be null if only positions are
+     *        needed)
+     * @param from
+     *        index of the first point to transform (inclusive)
+     * @param to
+     *        index of the last point to transform (exclusive)
+     * @since 4.14
+     */
+    public void applyTo(final double[] positions, final double[] velocities, final int from, final int to) {
+
+        // inverse rotation quaternion
+        final double[] q = this.rotation.getQi();
+        final double m0 = -q[0];
+        final double q1 = q[1];
+        final double q2 = q[2];
+        final double q3 = q[3];
+
+        final boolean kinematic = velocities != null && !this.projectVelocityAndAcceleration;
+        final double wx = this.rotationRate.getX();
+        final double wy = this.rotationRate.getY();
+        final double wz = this.rotationRate.getZ();
+
+        for (int i = 3 * from; i < 3 * to; i += 3) {
+            // position
+            final double x = positions[i];
+            final double y = positions[i + 1];
+            final double z = positions[i + 2];
+            final double s = q1 * x + q2 * y + q3 * z;
+            final double px = 2 * (m0 * (x * m0 + (q2 * z - q3 * y)) + s * q1) - x;
+            final double py = 2 * (m0 * (y * m0 + (q3 * x - q1 * z)) + s * q2) - y;
+            final double pz = 2 * (m0 * (z * m0 + (q1 * y - q2 * x)) + s * q3) - z;
+            positions[i] = px;
+            positions[i + 1] = py;
+            positions[i + 2] = pz;
+
+            if (velocities != null) {
+                // velocity
+                final double vx = velocities[i];
+                final double vy = velocities[i + 1];
+                final double vz = velocities[i + 2];
+                final double sv = q1 * vx + q2 * vy + q3 * vz;
+                double tx = 2 * (m0 * (vx * m0 + (q2 * vz - q3 * vy)) + sv * q1) - vx;
+                double ty = 2 * (m0 * (vy * m0 + (q3 * vx - q1 * vz)) + sv * q2) - vy;
+                double tz = 2 * (m0 * (vz * m0 + (q1 * vy - q2 * vx)) + sv * q3) - vz;
+                if (kinematic) {
+                    // remove rotation rate effect
+                    tx -= wy * pz - wz * py;
+                    ty -= wz * px - wx * pz;
+                    tz -= wx * py - wy * px;
+                }
+                velocities[i] = tx;
+                velocities[i + 1] = ty;
+                velocities[i + 2] = tz;
+            }
+        }
+    }
+
     /**
      * Apply the rotation to a pv coordinates.
      * 
@@ -1792,7 +1792,39 @@ public enum PatriusMessages implements Localizable {
             "The azimuthal degree ({0}) cannot be greater (in absolute value) to the radial degree ({1})."),
     /** Message. */
     DIFFERENCE_AZIMUTHAL_AND_RADIAL_DEGREES_ODD(
-            "The difference between the azimuthal degree ({0}) and the radial degree ({1}) must be an even number.");
+            "The difference between the azimuthal degree ({0}) and the radial degree ({1}) must be an even number."),
+    /** Message. */
+    ENSEMBLE_PROPAGATION_INTERRUPTED("ensemble propagation has been interrupted"),
+    /** Message. */
+    FORCE_MODELS_EVALUATION_INTERRUPTED("force models evaluation has been interrupted"),
+    /** Message. */
+    UNABLE_TO_COMPRESS_EPHEMERIS("unable to compress ephemeris within tolerance {0} m around {1}"),
+    /** Message. */
+    NOT_A_COMPRESSED_EPHEMERIS_FILE("file {0} is not a compressed ephemeris file"),
+    /** Message. */
+    DECOUPLED_PROPAGATION_INTERRUPTED("decoupled multi-satellite propagation has been interrupted"),
+    /** Message. */
+    DECOUPLED_PROPAGATION_UNSUPPORTED("decoupled multi-satellite propagation does not support {0}"),
+    /** Message. */
+    TLE_CATALOG_PROPAGATION_INTERRUPTED("TLE catalogue propagation has been interrupted"),
+    /** Message. */
+    CONJUNCTION_SCREENING_INTERRUPTED("conjunction screening has been interrupted"),
+    /** Message. */
+    FRAME_BATCH_TRANSFORM_INTERRUPTED("batch frame transformation has been interrupted"),
+    /** Message. */
+    OUT_OF_RANGE_TABULATED_TRANSFORM_DATE("out of range date for tabulated transform: {0}, [{1}, {2}]"),
+    /** Message. */
+    NOT_A_TABULATED_TRANSFORM_FILE("file {0} is not a tabulated transform file"),
+    /** Message. */
+    TABULATED_TRANSFORM_ACCURACY_NOT_REACHED("unable to reach accuracy {0} rad for tabulated transform with segments of {1} s"),
+    /** Message. */
+    UNABLE_TO_WRITE_FILE("unable to write file {0}: {1}"),
+    /** Message. */
+    CACHE_METRICS_JMX_FAILURE("unable to export cache metrics {0} through JMX"),
+    /** Message. */
+    INCONSISTENT_EPHEMERIS_TYPE("ephemeris loader generates {0} ephemerides instead of {1}"),
+    /** Message. */
+    MESH_CONSTRUCTION_INTERRUPTED("mesh construction has been interrupted");
     
     /**
      * Bogus string constant.
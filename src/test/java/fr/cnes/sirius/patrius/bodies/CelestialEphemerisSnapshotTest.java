@@ -0,0 +1,296 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.bodies;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.Utils;
+import fr.cnes.sirius.patrius.forces.SphericalSpacecraft;
+import fr.cnes.sirius.patrius.forces.gravity.DirectBodyAttraction;
+import fr.cnes.sirius.patrius.forces.gravity.NewtonianGravityModel;
+import fr.cnes.sirius.patrius.forces.gravity.ThirdBodyAttraction;
+import fr.cnes.sirius.patrius.forces.radiation.SolarRadiationPressure;
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.math.TestUtils;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.math.ode.nonstiff.DormandPrince853Integrator;
+import fr.cnes.sirius.patrius.orbits.KeplerianOrbit;
+import fr.cnes.sirius.patrius.orbits.Orbit;
+import fr.cnes.sirius.patrius.orbits.PositionAngle;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.propagation.MassProvider;
+import fr.cnes.sirius.patrius.propagation.SimpleMassModel;
+import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.propagation.numerical.NumericalPropagator;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.TimeScalesFactory;
+import fr.cnes.sirius.patrius.tools.cache.CacheMetrics;
+import fr.cnes.sirius.patrius.tools.cache.CacheMetricsRegistry;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Unit test class for the {@link CelestialEphemerisSnapshot} class.
+ *
+ * @since 4.14
+ */
+public class CelestialEphemerisSnapshotTest {
+
+    /**
+     * @description Propagate an orbit perturbed by the Sun, the Moon and the solar radiation pressure, with and
+     *              without a snapshot of the celestial points ephemerides, sequentially and with force models
+     *              evaluated concurrently.
+     *
+     * @testedMethod {@link NumericalPropagator#setCelestialEphemerisSnapshot(CelestialEphemerisSnapshot)}
+     * @testedMethod {@link CelestialEphemerisSnapshot#open()}
+     *
+     * @testPassCriteria the propagated states are the same (threshold: 0), the snapshot reports hits, the celestial
+     *                   points ephemerides are left untouched and no scope remains open after the propagation
+     *
+     * @throws PatriusException
+     *         if the propagation fails
+     */
+    @Test
+    public void testPropagation() throws PatriusException {
+        final CelestialBody sun = CelestialBodyFactory.getSun();
+        final CelestialBody moon = CelestialBodyFactory.getMoon();
+        final CelestialBodyEphemeris sunEphemeris = sun.getEphemeris();
+        final CelestialBodyEphemeris moonEphemeris = moon.getEphemeris();
+
+        final SpacecraftState reference = propagate(sun, moon, null, 1);
+
+        final CelestialEphemerisSnapshot snapshot = new CelestialEphemerisSnapshot("snapshotPropagation");
+        final CacheMetrics metrics = snapshot.getMetrics();
+        for (final int parallelism : new int[] { 1, 3 }) {
+            metrics.reset();
+            final SpacecraftState actual = propagate(sun, moon, snapshot, parallelism);
+            Assert.assertEquals(reference.getPVCoordinates().getPosition(), actual.getPVCoordinates().getPosition());
+            Assert.assertEquals(reference.getPVCoordinates().getVelocity(), actual.getPVCoordinates().getVelocity());
+            Assert.assertTrue(metrics.getHits() > 0);
+            Assert.assertTrue(metrics.getMisses() > 0);
+        }
+
+        // The celestial points are not modified
+        Assert.assertSame(sunEphemeris, sun.getEphemeris());
+        Assert.assertSame(moonEphemeris, moon.getEphemeris());
+        Assert.assertNull(CelestialEphemerisSnapshot.getCurrentScope());
+    }
+
+    /**
+     * @description Check the states kept by a scope.
+     *
+     * @testedMethod {@link CelestialEphemerisSnapshot#open()}
+     * @testedMethod {@link CelestialEphemerisSnapshot#getPVCoordinates(CelestialBodyEphemeris, AbsoluteDate, Frame)}
+     * @testedMethod {@link CelestialEphemerisSnapshot.Scope#share()}
+     * @testedMethod {@link CelestialEphemerisSnapshot.Scope#close()}
+     *
+     * @testPassCriteria states are computed once per ephemeris, date and frame, for at most
+     *                   {@link CelestialEphemerisSnapshot#MAX_STATES} states, only while the scope is open, and are
+     *                   shared with the threads sharing the scope
+     *
+     * @throws Exception
+     *         if the ephemeris cannot be computed
+     */
+    @Test
+    public void testScope() throws Exception {
+        final CountingEphemeris moonEphemeris = new CountingEphemeris();
+        final CelestialEphemerisSnapshot snapshot = new CelestialEphemerisSnapshot("snapshotScope");
+        final CacheMetrics metrics = snapshot.getMetrics();
+        metrics.reset();
+
+        final AbsoluteDate date = new AbsoluteDate(2003, 6, 1, TimeScalesFactory.getTT());
+        final Frame[] frames = { FramesFactory.getGCRF(), FramesFactory.getEME2000(), FramesFactory.getICRF(),
+            FramesFactory.getEclipticJ2000(), FramesFactory.getCIRF() };
+
+        // No scope: no sharing
+        Assert.assertNull(CelestialEphemerisSnapshot.getCurrentScope());
+        CelestialEphemerisSnapshot.getPVCoordinates(moonEphemeris, date, frames[0]);
+        Assert.assertEquals(0, metrics.getMisses());
+
+        final PVCoordinates pv;
+        try (CelestialEphemerisSnapshot.Scope scope = snapshot.open()) {
+            Assert.assertSame(scope, CelestialEphemerisSnapshot.getCurrentScope());
+
+            // States computed once
+            for (final Frame frame : frames) {
+                final PVCoordinates pvFrame = CelestialEphemerisSnapshot.getPVCoordinates(moonEphemeris, date, frame);
+                Assert.assertSame(pvFrame, CelestialEphemerisSnapshot.getPVCoordinates(moonEphemeris, date, frame));
+            }
+            Assert.assertEquals(6, moonEphemeris.calls);
+            Assert.assertEquals(5, metrics.getMisses());
+            Assert.assertEquals(5, metrics.getHits());
+
+            // Other dates
+            pv = CelestialEphemerisSnapshot.getPVCoordinates(moonEphemeris, date.shiftedBy(60.), frames[0]);
+            Assert.assertEquals(6, metrics.getMisses());
+            Assert.assertSame(pv, CelestialEphemerisSnapshot.getPVCoordinates(moonEphemeris, date.shiftedBy(60.),
+                frames[0]));
+            for (int i = 0; i < CelestialEphemerisSnapshot.MAX_STATES - 5; i++) {
+                CelestialEphemerisSnapshot.getPVCoordinates(moonEphemeris, date.shiftedBy(120. + i), frames[0]);
+            }
+            Assert.assertEquals(CelestialEphemerisSnapshot.MAX_STATES + 1, metrics.getMisses());
+
+            // Only the most recent states are kept
+            CelestialEphemerisSnapshot.getPVCoordinates(moonEphemeris, date, frames[4]);
+            Assert.assertEquals(CelestialEphemerisSnapshot.MAX_STATES + 1, metrics.getMisses());
+            CelestialEphemerisSnapshot.getPVCoordinates(moonEphemeris, date, frames[0]);
+            Assert.assertEquals(CelestialEphemerisSnapshot.MAX_STATES + 2, metrics.getMisses());
+
+            // Nested scope
+            try (CelestialEphemerisSnapshot.Scope nested = snapshot.open()) {
+                Assert.assertNotSame(pv, CelestialEphemerisSnapshot.getPVCoordinates(moonEphemeris,
+                    date.shiftedBy(60.), frames[0]));
+            }
+            Assert.assertSame(scope, CelestialEphemerisSnapshot.getCurrentScope());
+
+            // Shared scope
+            final ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Assert.assertSame(pv, executor.submit(() -> {
+                    try (CelestialEphemerisSnapshot.Scope shared = scope.share()) {
+                        return CelestialEphemerisSnapshot.getPVCoordinates(moonEphemeris, date.shiftedBy(60.),
+                            frames[0]);
+                    }
+                }).get());
+                Assert.assertNull(executor.submit(CelestialEphemerisSnapshot::getCurrentScope).get());
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        // Closed scope
+        Assert.assertNull(CelestialEphemerisSnapshot.getCurrentScope());
+        final long misses = metrics.getMisses();
+        final int calls = moonEphemeris.calls;
+        CelestialEphemerisSnapshot.getPVCoordinates(moonEphemeris, date.shiftedBy(60.), frames[0]);
+        Assert.assertEquals(misses, metrics.getMisses());
+        Assert.assertEquals(calls + 1, moonEphemeris.calls);
+    }
+
+    /**
+     * @description Evaluate the snapshot serialization and deserialization processes.
+     *
+     * @testedMethod {@link CelestialEphemerisSnapshot#getMetrics()}
+     * @testedMethod {@link NumericalPropagator#getCelestialEphemerisSnapshot()}
+     *
+     * @testPassCriteria the deserialized snapshot reports to the same metrics
+     *
+     * @throws PatriusException
+     *         if the propagator cannot be built
+     */
+    @Test
+    public void testSerialization() throws PatriusException {
+        final CelestialEphemerisSnapshot snapshot = new CelestialEphemerisSnapshot();
+        final CelestialEphemerisSnapshot deserialized = TestUtils.serializeAndRecover(snapshot);
+        Assert.assertSame(snapshot.getMetrics(), deserialized.getMetrics());
+
+        final NumericalPropagator propagator = new NumericalPropagator(new DormandPrince853Integrator(0.1, 300.,
+            1e-6, 1e-9));
+        Assert.assertNull(propagator.getCelestialEphemerisSnapshot());
+        propagator.setCelestialEphemerisSnapshot(snapshot);
+        Assert.assertSame(snapshot, propagator.getCelestialEphemerisSnapshot());
+    }
+
+    /**
+     * Propagate a LEO orbit over one day with Sun and Moon attraction and solar radiation pressure.
+     *
+     * @param sun
+     *        the Sun
+     * @param moon
+     *        the Moon
+     * @param snapshot
+     *        snapshot of the celestial points ephemerides (may be null)
+     * @param parallelism
+     *        number of threads used to evaluate the force models
+     * @return the final state
+     * @throws PatriusException
+     *         if the propagation fails
+     */
+    private static SpacecraftState propagate(final CelestialBody sun, final CelestialBody moon,
+                                             final CelestialEphemerisSnapshot snapshot, final int parallelism)
+        throws PatriusException {
+        final AbsoluteDate date = new AbsoluteDate(2003, 6, 1, TimeScalesFactory.getTT());
+        final Orbit orbit = new KeplerianOrbit(7000000., 0.01, 1.2, 0.3, 0.4, 0.5, PositionAngle.TRUE,
+            FramesFactory.getGCRF(), date, Constants.EGM96_EARTH_MU);
+        final NumericalPropagator propagator = new NumericalPropagator(new DormandPrince853Integrator(0.1, 300.,
+            1e-6, 1e-9));
+        propagator.addForceModel(new DirectBodyAttraction(new NewtonianGravityModel(Constants.EGM96_EARTH_MU)));
+        propagator.addForceModel(new ThirdBodyAttraction(sun.getGravityModel()));
+        propagator.addForceModel(new ThirdBodyAttraction(moon.getGravityModel()));
+        propagator.addForceModel(new SolarRadiationPressure(sun, Constants.EGM96_EARTH_EQUATORIAL_RADIUS,
+            new SphericalSpacecraft(10., 2.2, 0.5, 0.2, 0., "Main")));
+        final MassProvider massModel = new SimpleMassModel(1000., "Main");
+        propagator.setInitialState(new SpacecraftState(orbit, massModel));
+        propagator.setMassProviderEquation(massModel);
+        propagator.setCelestialEphemerisSnapshot(snapshot);
+        propagator.setForceModelsParallelism(parallelism);
+        return propagator.propagate(date.shiftedBy(Constants.JULIAN_DAY));
+    }
+
+    /**
+     * Ephemeris counting its evaluations.
+     */
+    private static class CountingEphemeris implements CelestialBodyEphemeris {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 2184425616467303447L;
+
+        /** Number of evaluations. */
+        private int calls;
+
+        /** {@inheritDoc} */
+        @Override
+        public PVCoordinates getPVCoordinates(final AbsoluteDate date, final Frame frame) {
+            this.calls++;
+            return new PVCoordinates(new Vector3D(date.durationFrom(AbsoluteDate.J2000_EPOCH), 0., 0.),
+                Vector3D.PLUS_I);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Frame getNativeFrame(final AbsoluteDate date) {
+            return FramesFactory.getGCRF();
+        }
+    }
+
+    /**
+     * Set up.
+     */
+    @Before
+    public void setUp() {
+        Utils.setDataRoot("regular-data");
+        CacheMetricsRegistry.setEnabled(true);
+    }
+
+    /**
+     * Restore the default state of the cache metrics.
+     */
+    @After
+    public void tearDown() {
+        CacheMetricsRegistry.setEnabled(false);
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.bodies;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.Utils;
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.math.TestUtils;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.TimeScalesFactory;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Unit test class for the {@link JPLMappedEphemerisLoader} class.
+ *
+ * @since 4.14
+ */
+public class JPLMappedEphemerisLoaderTest {
+
+    /**
+     * @description Compare the ephemerides and the constants of the memory-mapped loader with those of
+     *              {@link JPLHistoricEphemerisLoader}, for DE and INPOP files.
+     *
+     * @testedMethod {@link JPLMappedEphemerisLoader#loadCelestialBodyEphemeris(String)}
+     * @testedMethod {@link JPLMappedEphemerisLoader#getLoadedGravitationalCoefficient(EphemerisType)}
+     * @testedMethod {@link JPLMappedEphemerisLoader#getLoadedConstant(String...)}
+     *
+     * @testPassCriteria the positions, velocities and constants are the same (threshold: 0), for all the ephemeris
+     *                   types, in big-endian and little-endian files, in TDB and TCB
+     *
+     * @throws PatriusException
+     *         if the files cannot be read
+     */
+    @Test
+    public void testVsHistoricLoader() throws PatriusException {
+        final AbsoluteDate t0 = new AbsoluteDate(1969, 7, 17, 10, 43, 23.4, TimeScalesFactory.getTT());
+
+        // DE405: several files, evaluated over records and chunks bounds
+        Utils.setDataRoot("regular-data/de405-ephemerides");
+        for (final EphemerisType type : EphemerisType.values()) {
+            checkVsHistoric(JPLHistoricEphemerisLoader.DEFAULT_DE_SUPPORTED_NAMES, type, t0, 3600.);
+            checkVsHistoric(JPLHistoricEphemerisLoader.DEFAULT_DE_SUPPORTED_NAMES, type,
+                new AbsoluteDate(2003, 1, 1, TimeScalesFactory.getTT()), 3600.);
+        }
+
+        // INPOP: big-endian and little-endian files, TCB and TDB
+        Utils.setDataRoot("inpop");
+        for (final String names : new String[] { "^inpop.*_TCB_.*_bigendian\\.dat$",
+            "^inpop.*_TCB_.*_littleendian\\.dat$", "^inpop.*_TDB_.*\\.dat$" }) {
+            for (final EphemerisType type : new EphemerisType[] { EphemerisType.SUN, EphemerisType.MOON,
+                EphemerisType.EARTH_MOON, EphemerisType.MARS }) {
+                checkVsHistoric(names, type, t0, 3637.);
+            }
+        }
+    }
+
+    /**
+     * @description Check the errors of the loader.
+     *
+     * @testedMethod {@link JPLMappedEphemerisLoader#loadCelestialBodyEphemeris(String)}
+     * @testedMethod {@link JPLMappedEphemerisLoader#getLoadedConstant(String...)}
+     *
+     * @testPassCriteria dates out of the files range and missing files are rejected, unknown constants are NaN
+     *
+     * @throws PatriusException
+     *         if the files cannot be read
+     */
+    @Test
+    public void testErrors() throws PatriusException {
+        Utils.setDataRoot("regular-data/de405-ephemerides");
+        final JPLMappedEphemerisLoader loader = new JPLMappedEphemerisLoader(
+            JPLHistoricEphemerisLoader.DEFAULT_DE_SUPPORTED_NAMES, EphemerisType.MARS);
+        Assert.assertTrue(Double.isNaN(loader.getLoadedConstant("UNKNOWN")));
+
+        // Gap between two files
+        final CelestialBodyEphemeris mars = loader.loadCelestialBodyEphemeris(CelestialBodyFactory.MARS);
+        try {
+            mars.getPVCoordinates(new AbsoluteDate(1980, 1, 1, TimeScalesFactory.getTT()), FramesFactory.getICRF());
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(PatriusMessages.OUT_OF_RANGE_EPHEMERIDES_DATE, e.getSpecifier());
+        }
+
+        // No files
+        final JPLMappedEphemerisLoader noFiles = new JPLMappedEphemerisLoader("^dummy$", EphemerisType.MARS);
+        try {
+            noFiles.getLoadedAstronomicalUnit();
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(PatriusMessages.NO_JPL_EPHEMERIDES_BINARY_FILES_FOUND, e.getSpecifier());
+        }
+    }
+
+    /**
+     * @description Evaluate the ephemeris concurrently and use the loader through a {@link JPLCelestialBodyLoader}.
+     *
+     * @testedMethod {@link JPLMappedEphemerisLoader#loadCelestialBodyEphemeris(String)}
+     * @testedMethod {@link JPLCelestialBodyLoader#JPLCelestialBodyLoader(String, EphemerisType, GravityModel,
+     *               AbstractJPLEphemerisLoader)}
+     *
+     * @testPassCriteria the positions computed by several threads and by the celestial body are the same as the
+     *                   positions computed sequentially (threshold: 0)
+     *
+     * @throws PatriusException
+     *         if the files cannot be read
+     * @throws InterruptedException
+     *         if a thread is interrupted
+     * @throws ExecutionException
+     *         if a thread fails
+     */
+    @Test
+    public void testConcurrency() throws PatriusException, InterruptedException, ExecutionException {
+        Utils.setDataRoot("regular-data/de405-ephemerides");
+        final JPLMappedEphemerisLoader loader = new JPLMappedEphemerisLoader(
+            JPLHistoricEphemerisLoader.DEFAULT_DE_SUPPORTED_NAMES, EphemerisType.MOON);
+        final CelestialBodyEphemeris moon = loader.loadCelestialBodyEphemeris(CelestialBodyFactory.MOON);
+        final Frame gcrf = FramesFactory.getGCRF();
+        final AbsoluteDate t0 = new AbsoluteDate(1969, 6, 1, TimeScalesFactory.getTT());
+        final int nbDates = 1000;
+        final PVCoordinates[] expected = new PVCoordinates[nbDates];
+        for (int i = 0; i < nbDates; i++) {
+            expected[i] = moon.getPVCoordinates(t0.shiftedBy(i * 7200.), gcrf);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int offset = 97 * t;
+                results.add(executor.submit(() -> {
+                    boolean ok = true;
+                    for (int k = 0; k < nbDates; k++) {
+                        final int i = (k + offset) % nbDates;
+                        ok &= moon.getPVCoordinates(t0.shiftedBy(i * 7200.), gcrf).getPosition()
+                            .equals(expected[i].getPosition());
+                    }
+                    return ok;
+                }));
+            }
+            for (final Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Celestial body built with the mapped loader
+        final JPLCelestialBodyLoader bodyLoader = new JPLCelestialBodyLoader(
+            JPLHistoricEphemerisLoader.DEFAULT_DE_SUPPORTED_NAMES, EphemerisType.MOON, null, loader);
+        Assert.assertSame(loader, bodyLoader.getEphemerisLoader());
+        final CelestialBody body = bodyLoader.loadCelestialBody(CelestialBodyFactory.MOON);
+        Assert.assertEquals(loader.getLoadedGravitationalCoefficient(EphemerisType.MOON), body.getGM(), 0.);
+        Assert.assertEquals(expected[10].getPosition(),
+            body.getPVCoordinates(t0.shiftedBy(10 * 7200.), gcrf).getPosition());
+
+        // Loader generating another ephemeris type
+        try {
+            new JPLCelestialBodyLoader(JPLHistoricEphemerisLoader.DEFAULT_DE_SUPPORTED_NAMES, EphemerisType.MARS,
+                null, loader);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            Assert.assertTrue(true);
+        }
+    }
+
+    /**
+     * @description Evaluate the loader serialization and deserialization processes.
+     *
+     * @testedMethod {@link JPLMappedEphemerisLoader#loadCelestialBodyEphemeris(String)}
+     *
+     * @testPassCriteria the deserialized loader maps the files again and gives the same results (threshold: 0)
+     *
+     * @throws PatriusException
+     *         if the files cannot be read
+     */
+    @Test
+    public void testSerialization() throws PatriusException {
+        Utils.setDataRoot("regular-data/de405-ephemerides");
+        final AbsoluteDate date = new AbsoluteDate(2003, 6, 1, TimeScalesFactory.getTT());
+        final Frame frame = FramesFactory.getGCRF();
+        final JPLMappedEphemerisLoader loader = new JPLMappedEphemerisLoader(
+            JPLHistoricEphemerisLoader.DEFAULT_DE_SUPPORTED_NAMES, EphemerisType.MARS);
+        final CelestialBodyEphemeris mars1 = loader.loadCelestialBodyEphemeris(CelestialBodyFactory.MARS);
+        final PVCoordinates pv = mars1.getPVCoordinates(date, frame);
+
+        final JPLMappedEphemerisLoader deserializedLoader = TestUtils.serializeAndRecover(loader);
+        Assert.assertEquals(loader.getLoadedAstronomicalUnit(), deserializedLoader.getLoadedAstronomicalUnit(), 0.);
+        Assert.assertEquals(pv, deserializedLoader.loadCelestialBodyEphemeris(CelestialBodyFactory.MARS)
+            .getPVCoordinates(date, frame));
+        Assert.assertEquals(pv, TestUtils.serializeAndRecover(mars1).getPVCoordinates(date, frame));
+    }
+
+    /**
+     * Compare the ephemeris of the memory-mapped loader with the ephemeris of the historic loader over 30 days.
+     *
+     * @param names
+     *        supported files names
+     * @param type
+     *        ephemeris type
+     * @param t0
+     *        first date
+     * @param step
+     *        time step (s)
+     * @throws PatriusException
+     *         if the files cannot be read
+     */
+    private static void checkVsHistoric(final String names, final EphemerisType type, final AbsoluteDate t0,
+                                        final double step) throws PatriusException {
+        final JPLHistoricEphemerisLoader historic = new JPLHistoricEphemerisLoader(names, type);
+        final JPLMappedEphemerisLoader mapped = new JPLMappedEphemerisLoader(names, type);
+        Assert.assertEquals(historic.getLoadedAstronomicalUnit(), mapped.getLoadedAstronomicalUnit(), 0.);
+        Assert.assertEquals(historic.getLoadedEarthMoonMassRatio(), mapped.getLoadedEarthMoonMassRatio(), 0.);
+        Assert.assertEquals(historic.getLoadedGravitationalCoefficient(type),
+            mapped.getLoadedGravitationalCoefficient(type), 0.);
+
+        final CelestialBodyEphemeris expected = historic.loadCelestialBodyEphemeris(type.name());
+        final CelestialBodyEphemeris actual = mapped.loadCelestialBodyEphemeris(type.name());
+        final Frame frame = expected.getNativeFrame(t0);
+        Assert.assertEquals(frame, actual.getNativeFrame(t0));
+        for (double dt = 0; dt < 30 * Constants.JULIAN_DAY; dt += step) {
+            final AbsoluteDate date = t0.shiftedBy(dt);
+            final PVCoordinates pvExpected = expected.getPVCoordinates(date, frame);
+            final PVCoordinates pvActual = actual.getPVCoordinates(date, frame);
+            Assert.assertEquals(pvExpected.getPosition(), pvActual.getPosition());
+            Assert.assertEquals(pvExpected.getVelocity(), pvActual.getVelocity());
+        }
+    }
+
+    /**
+     * Set up.
+     */
+    @Before
+    public void setUp() {
+        Utils.setDataRoot("regular-data");
+    }
+}
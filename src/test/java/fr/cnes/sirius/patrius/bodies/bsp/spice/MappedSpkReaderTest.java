@@ -0,0 +1,403 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.bodies.bsp.spice;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.Utils;
+import fr.cnes.sirius.patrius.math.TestUtils;
+import fr.cnes.sirius.patrius.math.exception.NonMonotonicSequenceException;
+import fr.cnes.sirius.patrius.math.linear.Array2DRowRealMatrix;
+import fr.cnes.sirius.patrius.math.linear.ArrayRealVector;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Unit test class for the {@link MappedSpkReader} and {@link SpkKernel} classes.
+ *
+ * @since 4.14
+ */
+public class MappedSpkReaderTest {
+
+    /** Borrelly comet NAIF ID code. */
+    private static final int BORRELLY = 1000005;
+
+    /** Sun NAIF ID code. */
+    private static final int SUN = 10;
+
+    /** J2000 frame NAIF ID code. */
+    private static final int J2000 = 1;
+
+    /** ECLIPJ2000 frame NAIF ID code. */
+    private static final int ECLIPJ2000 = 17;
+
+    /**
+     * @description Check the segments read from big-endian, little-endian and pre-FTP files.
+     *
+     * @testedMethod {@link SpkKernel#SpkKernel(File)}
+     * @testedMethod {@link SpkKernel#getSegments()}
+     * @testedMethod {@link SpkKernel#findSegment(int, double)}
+     *
+     * @testPassCriteria the segments match the file summaries, invalid files are rejected
+     *
+     * @throws PatriusException
+     *         if a file cannot be read
+     * @throws URISyntaxException
+     *         if a file cannot be located
+     */
+    @Test
+    public void testKernel() throws PatriusException, URISyntaxException {
+        // Big-endian file
+        final SpkKernel borrelly = new SpkKernel(getFile("type2_borrelly.bsp"));
+        Assert.assertEquals(24, borrelly.getSegments().size());
+        final SpkKernel.Segment first = borrelly.getSegments().get(0);
+        Assert.assertSame(borrelly, first.getKernel());
+        Assert.assertEquals("K014/40", first.getName());
+        Assert.assertEquals(BORRELLY, first.getTarget());
+        Assert.assertEquals(SUN, first.getCenter());
+        Assert.assertEquals(J2000, first.getFrame());
+        Assert.assertEquals(2, first.getType());
+        Assert.assertEquals(63201600., first.getStart(), 0.);
+        Assert.assertEquals(65966400., first.getStop(), 0.);
+        Assert.assertTrue(first.toString().startsWith("K014/40: target 1000005"));
+
+        // Overlapping segments: the last one has priority
+        Assert.assertSame(borrelly.getSegments().get(23), borrelly.findSegment(BORRELLY, 126000000.));
+        Assert.assertSame(borrelly.getSegments().get(22), borrelly.findSegment(BORRELLY, 125000000.));
+        Assert.assertSame(borrelly.getSegments().get(23), borrelly.findSegment(BORRELLY, 125582400.));
+        Assert.assertSame(borrelly.getSegments().get(23), borrelly.findSegment(BORRELLY, 126100800.));
+        Assert.assertSame(borrelly.getSegments().get(22), borrelly.findSegment(BORRELLY, 124027200.));
+        Assert.assertSame(borrelly.getSegments().get(23), borrelly.findSegment(BORRELLY, 126273600.));
+        Assert.assertNull(borrelly.findSegment(BORRELLY, 126273600.1));
+        Assert.assertNull(borrelly.findSegment(BORRELLY, 0.));
+        Assert.assertNull(borrelly.findSegment(SUN, 1e8));
+
+        // Little-endian file
+        final SpkKernel ison = new SpkKernel(getFile("type1_ison.bsp"));
+        Assert.assertEquals(2, ison.getSegments().size());
+        Assert.assertEquals(1003203, ison.getSegments().get(1).getTarget());
+        Assert.assertEquals(1, ison.getSegments().get(1).getType());
+        try {
+            ison.getSegments().get(1).getState(4.1e8);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(PatriusMessages.PDB_SPK_TYPE_NOT_SUPPORTED, e.getSpecifier());
+        }
+
+        // File older than the binary file format identification
+        final SpkKernel mars = new SpkKernel(getFile("mar022-1.bsp"));
+        Assert.assertEquals(7, mars.getSegments().size());
+        Assert.assertEquals(4, mars.getSegments().get(6).getTarget());
+
+        // Invalid files
+        checkInvalid("empty_file.bsp", PatriusMessages.PDB_NOT_ENOUGH_BYTES);
+        checkInvalid("pck_file.tpc", PatriusMessages.PDB_WRONG_ARCHITECTURE);
+        checkInvalid("corrupted_spk_file.bsp", PatriusMessages.PDB_WRONG_ARCHITECTURE);
+        try {
+            new SpkKernel(new File("dummyFile.bsp"));
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(PatriusMessages.UNABLE_TO_FIND_FILE, e.getSpecifier());
+        }
+    }
+
+    /**
+     * @description Compare the states computed by the mapped reader with the states computed by the SPICE port.
+     *
+     * @testedMethod {@link MappedSpkReader#getStateRelativeToBody(int, double, int, int)}
+     *
+     * @testPassCriteria the states are the same as {@link SpkReader#getStateRelativeToBody(String, double, String,
+     *                   String, double[])} ones (threshold: 0)
+     *
+     * @throws PatriusException
+     *         if a file cannot be read
+     * @throws IOException
+     *         if the SPICE kernel cannot be loaded
+     * @throws URISyntaxException
+     *         if a file cannot be located
+     */
+    @Test
+    public void testStateVsSpkReader() throws PatriusException, IOException, URISyntaxException {
+        Utils.clear();
+        final File file = getFile("type2_borrelly.bsp");
+        SpiceKernelManager.loadSpiceKernel(file.getAbsolutePath());
+        try {
+            final MappedSpkReader reader = new MappedSpkReader(new SpkKernel(file));
+            final double[] lightTime = new double[1];
+            for (double epoch = 63201600.; epoch <= 126273600.; epoch += 86400. * 7.3) {
+                Assert.assertArrayEquals(SpkReader.getStateRelativeToBody("1000005", epoch, "J2000", "10", lightTime),
+                    reader.getStateRelativeToBody(BORRELLY, epoch, J2000, SUN), 0.);
+                Assert.assertArrayEquals(SpkReader.getStateRelativeToBody("10", epoch, "J2000", "1000005", lightTime),
+                    reader.getStateRelativeToBody(SUN, epoch, J2000, BORRELLY), 0.);
+            }
+
+            // Same body
+            Assert.assertArrayEquals(new double[6], reader.getStateRelativeToBody(BORRELLY, 1e8, J2000, BORRELLY), 0.);
+
+            // No data
+            try {
+                reader.getStateRelativeToBody(BORRELLY, 0., J2000, SUN);
+                Assert.fail();
+            } catch (final PatriusException e) {
+                Assert.assertEquals(PatriusMessages.PDB_INSUFFICIENT_DATA_FOR_STATE, e.getSpecifier());
+            }
+            try {
+                reader.getStateRelativeToBody(BORRELLY, 1e8, J2000, 399);
+                Assert.fail();
+            } catch (final PatriusException e) {
+                Assert.assertEquals(PatriusMessages.PDB_INSUFFICIENT_DATA_FOR_STATE, e.getSpecifier());
+            }
+        } finally {
+            SpiceKernelManager.clearAllKernels();
+        }
+    }
+
+    /**
+     * @description Check states computed through chains of centers in different inertial frames, over several
+     *              kernels.
+     *
+     * @testedMethod {@link MappedSpkReader#addKernel(SpkKernel)}
+     * @testedMethod {@link MappedSpkReader#findSegment(int, double)}
+     * @testedMethod {@link MappedSpkReader#getStateRelativeToBody(int, double, int, int)}
+     *
+     * @testPassCriteria states are consistent with the segments states and the frames rotations (relative threshold:
+     *                   1E-14), unsupported segment types are rejected
+     *
+     * @throws PatriusException
+     *         if a file cannot be read
+     * @throws URISyntaxException
+     *         if a file cannot be located
+     */
+    @Test
+    public void testChains() throws PatriusException, URISyntaxException {
+        final MappedSpkReader borrelly = new MappedSpkReader(new SpkKernel(getFile("type2_borrelly.bsp")));
+        final MappedSpkReader reader = borrelly.addKernel(new SpkKernel(getFile("mar022-1.bsp")));
+        Assert.assertEquals(1, borrelly.getKernels().size());
+        Assert.assertEquals(2, reader.getKernels().size());
+        Assert.assertSame(reader.getKernels().get(1), reader.findSegment(401, -8.7e8).getKernel());
+        Assert.assertNull(borrelly.findSegment(401, -8.7e8));
+
+        // Phobos relative to Mars: type 3 segment, in FK4
+        final double epoch = -8.7e8;
+        final SpkKernel.Segment phobos = reader.findSegment(401, epoch);
+        Assert.assertEquals(4, phobos.getFrame());
+        Assert.assertArrayEquals(phobos.getState(epoch), reader.getStateRelativeToBody(401, epoch, 4, 4), 0.);
+
+        // Phobos relative to Earth in J2000 and ECLIPJ2000: the chains meet at the solar system barycenter
+        final double[] j2000 = reader.getStateRelativeToBody(401, epoch, J2000, 399);
+        final double[] ecliptic = reader.getStateRelativeToBody(401, epoch, ECLIPJ2000, 399);
+        final Array2DRowRealMatrix rotation = SpiceChangeFrame.frameRotationMatrix(J2000, ECLIPJ2000);
+        final double[] expected = rotation.operate(new double[] { j2000[0], j2000[1], j2000[2] });
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(expected[i], ecliptic[i], 1e-14 * new ArrayRealVector(j2000, 0, 3).getNorm());
+        }
+
+        // Reverse query
+        final double[] reverse = reader.getStateRelativeToBody(399, epoch, J2000, 401);
+        for (int i = 0; i < 6; i++) {
+            Assert.assertEquals(-j2000[i], reverse[i], 1e-14 * MathLib.abs(j2000[i]) + 1e-14);
+        }
+
+        // Unsupported segment type
+        final MappedSpkReader stations = new MappedSpkReader(new SpkKernel(getFile("mer1_ls_040128_iau2000_v1.bsp")));
+        try {
+            stations.getStateRelativeToBody(-253900, 1e8, J2000, 499);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(PatriusMessages.PDB_SPK_TYPE_NOT_SUPPORTED, e.getSpecifier());
+        }
+    }
+
+    /**
+     * @description Evaluate states at sorted epochs in a single pass.
+     *
+     * @testedMethod {@link MappedSpkReader#getStatesRelativeToBody(int, double[], int, int)}
+     *
+     * @testPassCriteria the states are the same as the states computed epoch by epoch (threshold: 0), including on
+     *                   segments and records bounds; unsorted epochs are rejected
+     *
+     * @throws PatriusException
+     *         if a file cannot be read
+     * @throws URISyntaxException
+     *         if a file cannot be located
+     */
+    @Test
+    public void testBatch() throws PatriusException, URISyntaxException {
+        final MappedSpkReader reader = new MappedSpkReader(new SpkKernel(getFile("type2_borrelly.bsp")),
+            new SpkKernel(getFile("mar022-1.bsp")));
+
+        // Epochs over the whole coverage, with duplicates and segments bounds
+        final double[] epochs = new double[1000];
+        for (int i = 0; i < epochs.length; i++) {
+            epochs[i] = 63201600. + (i / 2) * 126144.;
+        }
+        epochs[epochs.length - 1] = 126273600.;
+        final double[][] states = reader.getStatesRelativeToBody(BORRELLY, epochs, ECLIPJ2000, SUN);
+        Assert.assertEquals(epochs.length, states.length);
+        for (int i = 0; i < epochs.length; i++) {
+            Assert.assertArrayEquals(reader.getStateRelativeToBody(BORRELLY, epochs[i], ECLIPJ2000, SUN), states[i],
+                0.);
+        }
+
+        // Chains of centers
+        final double[] marsEpochs = new double[500];
+        for (int i = 0; i < marsEpochs.length; i++) {
+            marsEpochs[i] = -891604800. + i * 63244.8;
+        }
+        final double[][] marsStates = reader.getStatesRelativeToBody(401, marsEpochs, J2000, 399);
+        for (int i = 0; i < marsEpochs.length; i++) {
+            Assert.assertArrayEquals(reader.getStateRelativeToBody(401, marsEpochs[i], J2000, 399), marsStates[i],
+                0.);
+        }
+        Assert.assertEquals(0, reader.getStatesRelativeToBody(401, new double[0], J2000, 399).length);
+
+        // Epoch out of the coverage
+        try {
+            reader.getStatesRelativeToBody(BORRELLY, new double[] { 1e8, 2e8 }, J2000, SUN);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(PatriusMessages.PDB_INSUFFICIENT_DATA_FOR_STATE, e.getSpecifier());
+        }
+
+        // Unsorted epochs
+        try {
+            reader.getStatesRelativeToBody(BORRELLY, new double[] { 1e8, 9e7 }, J2000, SUN);
+            Assert.fail();
+        } catch (final NonMonotonicSequenceException e) {
+            // expected
+        }
+    }
+
+    /**
+     * @description Evaluate states concurrently.
+     *
+     * @testedMethod {@link MappedSpkReader#getStateRelativeToBody(int, double, int, int)}
+     *
+     * @testPassCriteria the states computed by several threads are the same as the states computed sequentially
+     *                   (threshold: 0), also after serialization
+     *
+     * @throws PatriusException
+     *         if a file cannot be read
+     * @throws URISyntaxException
+     *         if a file cannot be located
+     * @throws InterruptedException
+     *         if a thread is interrupted
+     * @throws ExecutionException
+     *         if a thread fails
+     */
+    @Test
+    public void testConcurrency() throws PatriusException, URISyntaxException, InterruptedException,
+        ExecutionException {
+        final MappedSpkReader reader = new MappedSpkReader(new SpkKernel(getFile("type2_borrelly.bsp")),
+            new SpkKernel(getFile("mar022-1.bsp")));
+        final int nbEpochs = 2000;
+        final double[][] expected = new double[nbEpochs][];
+        for (int i = 0; i < nbEpochs; i++) {
+            expected[i] = reader.getStateRelativeToBody(BORRELLY, epoch(i), ECLIPJ2000, SUN);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int offset = 97 * t;
+                results.add(executor.submit(() -> {
+                    boolean ok = true;
+                    for (int k = 0; k < nbEpochs; k++) {
+                        final int i = (k + offset) % nbEpochs;
+                        final double[] state = reader.getStateRelativeToBody(BORRELLY, epoch(i), ECLIPJ2000, SUN);
+                        for (int j = 0; j < 6; j++) {
+                            ok &= state[j] == expected[i][j];
+                        }
+                        // Interleave queries on another kernel
+                        reader.getStateRelativeToBody(401, -8.7e8 + k, J2000, 399);
+                    }
+                    return ok;
+                }));
+            }
+            for (final Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Serialization: the files are mapped again
+        final MappedSpkReader recovered = TestUtils.serializeAndRecover(reader);
+        Assert.assertEquals(reader.getKernels().get(0).getFile(), recovered.getKernels().get(0).getFile());
+        Assert.assertArrayEquals(expected[10], recovered.getStateRelativeToBody(BORRELLY, epoch(10), ECLIPJ2000, SUN),
+            0.);
+    }
+
+    /**
+     * Epoch of the concurrency test.
+     *
+     * @param i
+     *        index of the epoch
+     * @return epoch (s after J2000 TDB)
+     */
+    private static double epoch(final int i) {
+        return 63201600. + i * 31535.8;
+    }
+
+    /**
+     * Check an invalid file is rejected.
+     *
+     * @param name
+     *        file name
+     * @param message
+     *        expected message
+     * @throws URISyntaxException
+     *         if the file cannot be located
+     */
+    private static void checkInvalid(final String name, final PatriusMessages message) throws URISyntaxException {
+        try {
+            new SpkKernel(getFile(name));
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(message, e.getSpecifier());
+        }
+    }
+
+    /**
+     * Get a test file.
+     *
+     * @param name
+     *        file name
+     * @return file
+     * @throws URISyntaxException
+     *         if the file cannot be located
+     */
+    private static File getFile(final String name) throws URISyntaxException {
+        return new File(ClassLoader.getSystemResource("spk_ephem_data" + File.separator + name).toURI());
+    }
+}
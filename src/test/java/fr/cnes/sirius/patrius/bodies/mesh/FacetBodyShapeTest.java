@@ -2228,6 +2228,117 @@ public class FacetBodyShapeTest {
         Assert.assertEquals(0., reference3.subtract(actual3[1].getPosition()).getNorm(), 0.);
     }
 
+    /**
+     * @testType UT
+     *
+     * @description check that the shape built with several threads is the same as the shape built sequentially, on
+     *              a mesh large enough for the BSP tree branches and the triangles links to be built concurrently, and
+     *              that the triangles neighbors are listed in the same order as with the original pairwise linking
+     *              algorithm (on a small mesh and on the large one)
+     *
+     * @testPassCriteria triangles neighbors (including their order) and intersections with lines of sight are the
+     *                   same (threshold: 0), a non strictly positive parallelism is rejected
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     *
+     * @throws PatriusException if an error occurs
+     * @throws URISyntaxException if an error about URI syntax occurs
+     */
+    @Test
+    public void parallelConstructionTest() throws PatriusException, URISyntaxException, IOException {
+        // Initialization
+        final String modelFile = "mnt" + File.separator + "m1phobos.tab";
+        final String fullName = FacetBodyShape.class.getClassLoader().getResource(modelFile).toURI().getPath();
+        final FacetBodyShape sequential = new FacetBodyShape("Phobos", this.body.getBodyFrame(),
+            new GeodeticMeshLoader(fullName));
+        final FacetBodyShape parallel = new FacetBodyShape("Phobos", this.body.getBodyFrame(),
+            new GeodeticMeshLoader(fullName), 4);
+        Assert.assertEquals(1, sequential.getParallelism());
+        Assert.assertEquals(4, parallel.getParallelism());
+        Assert.assertEquals(4, parallel.resize(MarginType.DISTANCE, 10.).getParallelism());
+
+        // Neighbors
+        final Triangle[] triangles1 = sequential.getTriangles();
+        final Triangle[] triangles2 = parallel.getTriangles();
+        Assert.assertEquals(triangles1.length, triangles2.length);
+        for (int i = 0; i < triangles1.length; i++) {
+            final List<Triangle> neighbors1 = triangles1[i].getNeighbors();
+            final List<Triangle> neighbors2 = triangles2[i].getNeighbors();
+            Assert.assertEquals(triangles1[i].getID(), triangles2[i].getID());
+            Assert.assertEquals(neighbors1.size(), neighbors2.size());
+            for (int j = 0; j < neighbors1.size(); j++) {
+                Assert.assertEquals(neighbors1.get(j).getID(), neighbors2.get(j).getID());
+            }
+        }
+
+        // Neighbors order of the original algorithm, on a small mesh and on the large one
+        final File smallFile = File.createTempFile("SmallBody", ".obj");
+        smallFile.deleteOnExit();
+        writeBodyFile(smallFile.getPath(), 7, 12, this.bodyRadius / 1E3, 0.);
+        final FacetBodyShape small = new FacetBodyShape("Small", this.body.getBodyFrame(),
+            new ObjMeshLoader(smallFile.getPath()), 4);
+        checkReferenceNeighbors(small.getTriangles(), new ObjMeshLoader(smallFile.getPath()).getTriangles());
+        checkReferenceNeighbors(triangles2, new GeodeticMeshLoader(fullName).getTriangles());
+
+        // Intersections
+        final AbsoluteDate date = AbsoluteDate.J2000_EPOCH;
+        final Frame frame = sequential.getBodyFrame();
+        for (int k = 0; k < 100; k++) {
+            final Vector3D position = new Vector3D(MathLib.cos(k), MathLib.sin(2. * k), MathLib.cos(3. * k))
+                .scalarMultiply(sequential.getMaxNorm() * 2.);
+            final Vector3D target = new Vector3D(MathLib.sin(k), MathLib.cos(5. * k), MathLib.sin(7. * k))
+                .scalarMultiply(sequential.getMinNorm() * 0.5);
+            final Line line = new Line(position, target);
+            final FacetPoint[] points1 = sequential.getIntersectionPoints(line, frame, date);
+            final FacetPoint[] points2 = parallel.getIntersectionPoints(line, frame, date);
+            Assert.assertEquals(points1.length, points2.length);
+            for (int j = 0; j < points1.length; j++) {
+                Assert.assertEquals(points1[j].getPosition(), points2[j].getPosition());
+            }
+        }
+
+        // Wrong parallelism
+        try {
+            new FacetBodyShape("Phobos", this.body.getBodyFrame(), this.meshProv, 0);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+            Assert.assertTrue(true);
+        }
+    }
+
+    /**
+     * Check the neighbors of triangles against the ones given by the original linking algorithm, which links each pair
+     * of neighbor triangles when the first one of the pair (in storage order) is processed.
+     *
+     * @param triangles triangles linked by a facet body shape
+     * @param reference same triangles, not linked yet
+     */
+    private static void checkReferenceNeighbors(final Triangle[] triangles, final Triangle[] reference) {
+        for (final Triangle triangle : reference) {
+            for (final Vertex vertex : triangle.getVertices()) {
+                for (final Triangle triangle2 : vertex.getNeighbors()) {
+                    if (triangle.isNeighborByVertexID(triangle2) && !triangle.getNeighbors().contains(triangle2)) {
+                        triangle.addNeighbors(triangle2);
+                        triangle2.addNeighbors(triangle);
+                    }
+                }
+            }
+        }
+        Assert.assertEquals(reference.length, triangles.length);
+        for (int i = 0; i < reference.length; i++) {
+            final List<Triangle> expected = reference[i].getNeighbors();
+            final List<Triangle> actual = triangles[i].getNeighbors();
+            Assert.assertEquals(reference[i].getID(), triangles[i].getID());
+            Assert.assertEquals(expected.size(), actual.size());
+            for (int j = 0; j < expected.size(); j++) {
+                Assert.assertEquals(expected.get(j).getID(), actual.get(j).getID());
+            }
+        }
+    }
+
     // /**
     // * @testType UT
     // *
@@ -0,0 +1,277 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.Utils;
+import fr.cnes.sirius.patrius.forces.atmospheres.solarActivity.ACSOLFormatReader;
+import fr.cnes.sirius.patrius.forces.gravity.potential.EGMFormatReader;
+import fr.cnes.sirius.patrius.frames.configuration.eop.EOP2000History;
+import fr.cnes.sirius.patrius.frames.configuration.eop.EOPC04FilesLoader;
+import fr.cnes.sirius.patrius.frames.configuration.eop.EOPEntry;
+import fr.cnes.sirius.patrius.frames.configuration.eop.EOPInterpolators;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.TimeStamped;
+import fr.cnes.sirius.patrius.time.UTCTAIHistoryFilesLoader;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Unit tests for the binary data cache ({@link DataProvidersManager#setBinaryCacheDirectory(File)}).
+ *
+ * @since 4.14
+ */
+public class BinaryDataCacheTest {
+
+    /** Features description. */
+    public enum features {
+        /**
+         * @featureTitle Binary data cache
+         *
+         * @featureDescription persistent binary representation of parsed data files
+         *
+         * @coveredRequirements
+         */
+        BINARY_DATA_CACHE
+    }
+
+    /** Cache directory. */
+    private File directory;
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#BINARY_DATA_CACHE}
+     *
+     * @testedMethod {@link EOPC04FilesLoader#convertData(java.io.InputStream, String, java.io.DataOutput)}
+     * @testedMethod {@link EOPC04FilesLoader#loadBinaryData(java.nio.ByteBuffer, String)}
+     *
+     * @description load EOP C04 files without cache, when building the cache and when reading the cache
+     *
+     * @input EOP C04 files
+     *
+     * @output EOP histories
+     *
+     * @testPassCriteria one cache file is created per data file, EOP entries are exactly the same
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testEOPC04() throws PatriusException {
+        final String names = "^eopc04_IAU2000\\.\\d\\d$";
+        final EOP2000History reference = new EOP2000History(EOPInterpolators.LAGRANGE4);
+        new EOPC04FilesLoader(names).fillHistory(reference);
+        Assert.assertEquals(0, this.directory.list().length);
+
+        DataProvidersManager.getInstance().setBinaryCacheDirectory(this.directory);
+        final EOP2000History built = new EOP2000History(EOPInterpolators.LAGRANGE4);
+        new EOPC04FilesLoader(names).fillHistory(built);
+        Assert.assertEquals(3, this.directory.list().length);
+        checkEOP(reference, built);
+
+        final EOP2000History cached = new EOP2000History(EOPInterpolators.LAGRANGE4);
+        new EOPC04FilesLoader(names).fillHistory(cached);
+        Assert.assertEquals(3, this.directory.list().length);
+        checkEOP(reference, cached);
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#BINARY_DATA_CACHE}
+     *
+     * @testedMethod {@link UTCTAIHistoryFilesLoader#loadBinaryData(java.nio.ByteBuffer, String)}
+     * @testedMethod {@link EGMFormatReader#loadBinaryData(java.nio.ByteBuffer, String)}
+     * @testedMethod {@link ACSOLFormatReader#loadBinaryData(java.nio.ByteBuffer, String)}
+     *
+     * @description load UTC-TAI history, gravity field and solar activity files without cache and from the cache
+     *
+     * @input UTC-TAI.history, egm96_to5.ascii.gz and ACSOL.act files
+     *
+     * @output leap seconds, potential coefficients and solar activity
+     *
+     * @testPassCriteria loaded data are exactly the same
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testLoaders() throws PatriusException {
+        final DataProvidersManager manager = DataProvidersManager.getInstance();
+        final UTCTAIHistoryFilesLoader utcReference = new UTCTAIHistoryFilesLoader();
+        final EGMFormatReader egmReference = new EGMFormatReader("egm96_to5.ascii", false);
+        final ACSOLFormatReader acsolReference = new ACSOLFormatReader("ACSOL.act");
+        manager.feed(utcReference.getSupportedNames(), utcReference);
+        manager.feed(egmReference.getSupportedNames(), egmReference);
+        manager.feed(acsolReference.getSupportedNames(), acsolReference);
+
+        manager.setBinaryCacheDirectory(this.directory);
+        for (int i = 0; i < 2; i++) {
+            // First iteration builds the cache, second one reads it
+            final UTCTAIHistoryFilesLoader utc = new UTCTAIHistoryFilesLoader();
+            final EGMFormatReader egm = new EGMFormatReader("egm96_to5.ascii", false);
+            final ACSOLFormatReader acsol = new ACSOLFormatReader("ACSOL.act");
+            manager.feed(utc.getSupportedNames(), utc);
+            manager.feed(egm.getSupportedNames(), egm);
+            manager.feed(acsol.getSupportedNames(), acsol);
+            Assert.assertEquals(3, this.directory.list().length);
+
+            Assert.assertEquals(utcReference.loadTimeSteps(), utc.loadTimeSteps());
+
+            Assert.assertEquals(egmReference.getAe(), egm.getAe(), 0.);
+            Assert.assertEquals(egmReference.getMu(), egm.getMu(), 0.);
+            for (final boolean normalized : new boolean[] { true, false }) {
+                Assert.assertArrayEquals(egmReference.getC(5, 5, normalized), egm.getC(5, 5, normalized));
+                Assert.assertArrayEquals(egmReference.getS(5, 5, normalized), egm.getS(5, 5, normalized));
+                Assert.assertArrayEquals(egmReference.getJ(normalized, 5), egm.getJ(normalized, 5), 0.);
+            }
+
+            Assert.assertEquals(acsolReference.getMinDate(), acsol.getMinDate());
+            Assert.assertEquals(acsolReference.getMaxDate(), acsol.getMaxDate());
+            Assert.assertEquals(
+                acsolReference.getInstantFluxValues(acsolReference.getMinDate(), acsolReference.getMaxDate()),
+                acsol.getInstantFluxValues(acsol.getMinDate(), acsol.getMaxDate()));
+            final Map<AbsoluteDate, Double[]> apKpReference = acsolReference.getApKpValues(
+                acsolReference.getMinDate(), acsolReference.getMaxDate());
+            final Map<AbsoluteDate, Double[]> apKp = acsol.getApKpValues(acsol.getMinDate(), acsol.getMaxDate());
+            Assert.assertEquals(apKpReference.keySet(), apKp.keySet());
+            for (final Map.Entry<AbsoluteDate, Double[]> entry : apKpReference.entrySet()) {
+                Assert.assertArrayEquals(entry.getValue(), apKp.get(entry.getKey()));
+            }
+        }
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#BINARY_DATA_CACHE}
+     *
+     * @testedMethod {@link DataProvidersManager#setBinaryCacheDirectory(File)}
+     *
+     * @description check corrupted cache files are ignored and rebuilt, check cache directory errors
+     *
+     * @input corrupted cache file, regular file as cache directory
+     *
+     * @output loaded data, exception
+     *
+     * @testPassCriteria data are loaded despite the corrupted cache file, which is rebuilt; an exception is thrown
+     *                   when the cache directory is a regular file
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testCorruptedCache() throws PatriusException, IOException {
+        final DataProvidersManager manager = DataProvidersManager.getInstance();
+        final UTCTAIHistoryFilesLoader reference = new UTCTAIHistoryFilesLoader();
+        manager.feed(reference.getSupportedNames(), reference);
+
+        manager.setBinaryCacheDirectory(this.directory);
+        manager.feed(reference.getSupportedNames(), new UTCTAIHistoryFilesLoader());
+        final File[] files = this.directory.listFiles();
+        Assert.assertEquals(1, files.length);
+        final byte[] content = Files.readAllBytes(files[0].toPath());
+
+        // Truncated cache file
+        Files.write(files[0].toPath(), new byte[] { 1, 2, 3 });
+        final UTCTAIHistoryFilesLoader truncated = new UTCTAIHistoryFilesLoader();
+        manager.feed(reference.getSupportedNames(), truncated);
+        Assert.assertEquals(reference.loadTimeSteps(), truncated.loadTimeSteps());
+        Assert.assertArrayEquals(content, Files.readAllBytes(files[0].toPath()));
+
+        // Cache file with inconsistent payload size
+        final byte[] extended = new byte[content.length + 8];
+        System.arraycopy(content, 0, extended, 0, content.length);
+        Files.write(files[0].toPath(), extended);
+        final UTCTAIHistoryFilesLoader inconsistent = new UTCTAIHistoryFilesLoader();
+        manager.feed(reference.getSupportedNames(), inconsistent);
+        Assert.assertEquals(reference.loadTimeSteps(), inconsistent.loadTimeSteps());
+        Assert.assertArrayEquals(content, Files.readAllBytes(files[0].toPath()));
+
+        // Regular file as cache directory
+        try {
+            manager.setBinaryCacheDirectory(files[0]);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            // expected
+        }
+        Assert.assertEquals(this.directory, manager.getBinaryCacheDirectory());
+    }
+
+    /**
+     * Check two EOP histories contain exactly the same entries.
+     *
+     * @param expected expected history
+     * @param actual actual history
+     */
+    private static void checkEOP(final EOP2000History expected, final EOP2000History actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        final Iterator<TimeStamped> iterator = actual.iterator();
+        for (final TimeStamped timeStamped : expected) {
+            final EOPEntry e = (EOPEntry) timeStamped;
+            final EOPEntry a = (EOPEntry) iterator.next();
+            Assert.assertEquals(e.getDate(), a.getDate());
+            Assert.assertEquals(e.getUT1MinusTAI(), a.getUT1MinusTAI(), 0.);
+            Assert.assertEquals(e.getLOD(), a.getLOD(), 0.);
+            Assert.assertEquals(e.getX(), a.getX(), 0.);
+            Assert.assertEquals(e.getY(), a.getY(), 0.);
+            Assert.assertEquals(e.getDX(), a.getDX(), 0.);
+            Assert.assertEquals(e.getDY(), a.getDY(), 0.);
+        }
+    }
+
+    /**
+     * Set up.
+     *
+     * @throws IOException if cache directory cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        Utils.setDataRoot("regular-data:potential/egm-format:atmosphere");
+        this.directory = Files.createTempDirectory("patrius-cache").toFile();
+    }
+
+    /**
+     * Tear down.
+     *
+     * @throws PatriusException should not happen
+     */
+    @After
+    public void tearDown() throws PatriusException {
+        DataProvidersManager.getInstance().setBinaryCacheDirectory(null);
+        for (final File file : this.directory.listFiles()) {
+            file.delete();
+        }
+        this.directory.delete();
+    }
+}
@@ -0,0 +1,311 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.Utils;
+import fr.cnes.sirius.patrius.bodies.EllipsoidBodyShape;
+import fr.cnes.sirius.patrius.bodies.EllipsoidPoint;
+import fr.cnes.sirius.patrius.bodies.OneAxisEllipsoid;
+import fr.cnes.sirius.patrius.events.EventDetector.Action;
+import fr.cnes.sirius.patrius.events.detectors.ElevationDetector;
+import fr.cnes.sirius.patrius.events.detectors.ElevationDetectorsGroup;
+import fr.cnes.sirius.patrius.events.postprocessing.EventsLogger;
+import fr.cnes.sirius.patrius.events.postprocessing.EventsLogger.LoggedEvent;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.frames.TopocentricFrame;
+import fr.cnes.sirius.patrius.math.ode.nonstiff.DormandPrince853Integrator;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.orbits.KeplerianOrbit;
+import fr.cnes.sirius.patrius.orbits.Orbit;
+import fr.cnes.sirius.patrius.orbits.OrbitType;
+import fr.cnes.sirius.patrius.orbits.PositionAngle;
+import fr.cnes.sirius.patrius.propagation.Propagator;
+import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.propagation.analytical.KeplerianPropagator;
+import fr.cnes.sirius.patrius.propagation.numerical.NumericalPropagator;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.TimeScalesFactory;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Unit tests for {@link ElevationDetectorsGroup}.
+ *
+ * @since 4.14
+ */
+public class ElevationDetectorsGroupTest {
+
+    /** Features description. */
+    public enum features {
+        /**
+         * @featureTitle Grouped elevation detectors
+         *
+         * @featureDescription elevation detectors sharing a common step screening
+         *
+         * @coveredRequirements
+         */
+        ELEVATION_DETECTORS_GROUP
+    }
+
+    /** Threshold elevation (rad). */
+    private static final double ELEVATION = MathLib.toRadians(5.);
+
+    /** Propagation duration (s). */
+    private static final double DURATION = Constants.JULIAN_DAY;
+
+    /** Earth shape. */
+    private static EllipsoidBodyShape earth;
+
+    /** Initial orbit. */
+    private static Orbit orbit;
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#ELEVATION_DETECTORS_GROUP}
+     *
+     * @testedMethod {@link ElevationDetectorsGroup#getDetectors()}
+     *
+     * @description compare the events of grouped elevation detectors with the events of the original elevation
+     *              detectors, with an analytical propagator
+     *
+     * @input LEO orbit, 40 stations spread over the Earth
+     *
+     * @output raising and setting events
+     *
+     * @testPassCriteria the same events are detected (1E-6 s on dates)
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testAnalytical() throws PatriusException {
+        final List<ElevationDetector> detectors = buildDetectors();
+        final List<LoggedEvent> reference = propagate(new KeplerianPropagator(orbit), detectors);
+        final List<LoggedEvent> grouped = propagate(new KeplerianPropagator(orbit),
+            new ElevationDetectorsGroup(detectors).getDetectors());
+        checkEvents(reference, grouped);
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#ELEVATION_DETECTORS_GROUP}
+     *
+     * @testedMethod {@link ElevationDetectorsGroup#getDetectors()}
+     *
+     * @description compare the events of grouped elevation detectors with the events of the original elevation
+     *              detectors, with a numerical propagator
+     *
+     * @input LEO orbit, 40 stations spread over the Earth
+     *
+     * @output raising and setting events
+     *
+     * @testPassCriteria the same events are detected (1E-6 s on dates)
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testNumerical() throws PatriusException {
+        final List<ElevationDetector> detectors = buildDetectors();
+        final List<LoggedEvent> reference = propagate(buildNumericalPropagator(), detectors);
+        final List<LoggedEvent> grouped = propagate(buildNumericalPropagator(),
+            new ElevationDetectorsGroup(detectors).getDetectors());
+        checkEvents(reference, grouped);
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#ELEVATION_DETECTORS_GROUP}
+     *
+     * @testedMethod {@link EventDetector#isSignChangePossible(AbsoluteDate, AbsoluteDate,
+     *               fr.cnes.sirius.patrius.propagation.SpacecraftStateProvider)}
+     * @testedMethod {@link ElevationDetectorsGroup#ElevationDetectorsGroup(List)}
+     *
+     * @description check the step screening of the group and the group construction errors
+     *
+     * @input stations under and far from the spacecraft ground track, station defined on another body
+     *
+     * @output screening result, exception
+     *
+     * @testPassCriteria only stations close to the ground track may see a sign change, an exception is raised for
+     *                   the station defined on another body
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testScreening() throws PatriusException {
+        final Propagator propagator = new KeplerianPropagator(orbit);
+        final AbsoluteDate start = orbit.getDate();
+        final AbsoluteDate end = start.shiftedBy(60.);
+
+        // Station at the sub-satellite point, and at its antipode
+        final SpacecraftState state = propagator.propagate(start.shiftedBy(30.));
+        final EllipsoidPoint subSatellite = earth.buildPoint(state.getPVCoordinates().getPosition(),
+            state.getFrame(), state.getDate(), "");
+        final double latitude = subSatellite.getLLHCoordinates().getLatitude();
+        final double longitude = subSatellite.getLLHCoordinates().getLongitude();
+        final List<ElevationDetector> detectors = new ArrayList<>();
+        detectors.add(new ElevationDetector(ELEVATION, station(latitude, longitude)));
+        detectors.add(new ElevationDetector(ELEVATION, station(-latitude, longitude + MathLib.PI)));
+        detectors.add(new ElevationDetector(MathLib.toRadians(89.9), station(latitude, longitude)));
+        final List<EventDetector> grouped = new ElevationDetectorsGroup(detectors).getDetectors();
+
+        // Satellite remains visible from sub-satellite point, and invisible from its antipode
+        Assert.assertFalse(grouped.get(0).isSignChangePossible(start, end, propagator));
+        Assert.assertFalse(grouped.get(1).isSignChangePossible(start, end, propagator));
+        // Satellite crosses zenith cone
+        Assert.assertTrue(grouped.get(2).isSignChangePossible(start, end, propagator));
+        // Backward step
+        Assert.assertFalse(grouped.get(1).isSignChangePossible(end, start, propagator));
+        // Copies share the group screening
+        Assert.assertFalse(grouped.get(0).copy().isSignChangePossible(start, end, propagator));
+        // Plain detectors are always sampled
+        Assert.assertTrue(detectors.get(0).isSignChangePossible(start, end, propagator));
+
+        // Stations defined on different bodies
+        final EllipsoidBodyShape other = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+            Constants.WGS84_EARTH_FLATTENING, FramesFactory.getGCRF());
+        detectors.add(new ElevationDetector(ELEVATION, new TopocentricFrame(new EllipsoidPoint(other,
+            other.getLLHCoordinatesSystem(), 0., 0., 0., ""), "other")));
+        try {
+            new ElevationDetectorsGroup(detectors);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            // expected
+        }
+        Assert.assertTrue(new ElevationDetectorsGroup(Collections.<ElevationDetector>emptyList()).getDetectors()
+            .isEmpty());
+    }
+
+    /**
+     * Propagate with elevation detectors.
+     *
+     * @param propagator propagator
+     * @param detectors elevation detectors
+     * @return logged events, with the index of their detector as additional information
+     * @throws PatriusException if propagation fails
+     */
+    private static List<LoggedEvent> propagate(final Propagator propagator,
+                                               final List<? extends EventDetector> detectors)
+        throws PatriusException {
+        final EventsLogger logger = new EventsLogger();
+        for (final EventDetector detector : detectors) {
+            propagator.addEventDetector(logger.monitorDetector(detector));
+        }
+        propagator.propagate(orbit.getDate().shiftedBy(DURATION));
+        final List<LoggedEvent> events = new ArrayList<>();
+        for (final LoggedEvent event : logger.getLoggedEvents()) {
+            events.add(event);
+        }
+        Assert.assertFalse(events.isEmpty());
+        return events;
+    }
+
+    /**
+     * Check events are the same.
+     *
+     * @param expected expected events
+     * @param actual actual events
+     */
+    private static void checkEvents(final List<LoggedEvent> expected, final List<LoggedEvent> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final LoggedEvent e = expected.get(i);
+            final LoggedEvent a = actual.get(i);
+            Assert.assertEquals(0., a.getState().getDate().durationFrom(e.getState().getDate()), 1.e-6);
+            Assert.assertEquals(e.isIncreasing(), a.isIncreasing());
+            Assert.assertEquals(((ElevationDetector) e.getEventDetector()).getTopocentricFrame(),
+                ((ElevationDetector) a.getEventDetector()).getTopocentricFrame());
+        }
+    }
+
+    /**
+     * Build elevation detectors for stations spread over the Earth.
+     *
+     * @return elevation detectors
+     */
+    private static List<ElevationDetector> buildDetectors() {
+        final List<ElevationDetector> detectors = new ArrayList<>();
+        for (int i = -2; i <= 2; i++) {
+            for (int j = 0; j < 8; j++) {
+                detectors.add(new ElevationDetector(ELEVATION, station(MathLib.toRadians(30. * i),
+                    MathLib.toRadians(45. * j)), 60., 1.e-6, Action.CONTINUE, Action.CONTINUE));
+            }
+        }
+        return detectors;
+    }
+
+    /**
+     * Build a station.
+     *
+     * @param latitude station latitude (rad)
+     * @param longitude station longitude (rad)
+     * @return station topocentric frame
+     */
+    private static TopocentricFrame station(final double latitude, final double longitude) {
+        return new TopocentricFrame(new EllipsoidPoint(earth, earth.getLLHCoordinatesSystem(), latitude, longitude,
+            0., ""), "station");
+    }
+
+    /**
+     * Build a numerical propagator.
+     *
+     * @return numerical propagator (Keplerian motion)
+     * @throws PatriusException if initial state cannot be built
+     */
+    private static NumericalPropagator buildNumericalPropagator() throws PatriusException {
+        final double[][] tolerances = NumericalPropagator.tolerances(1.e-3, orbit, OrbitType.CARTESIAN);
+        final NumericalPropagator propagator = new NumericalPropagator(new DormandPrince853Integrator(1.e-3, 600.,
+            tolerances[0], tolerances[1]), orbit.getFrame(), OrbitType.CARTESIAN, PositionAngle.TRUE);
+        propagator.setInitialState(new SpacecraftState(orbit));
+        return propagator;
+    }
+
+    /**
+     * Set up.
+     *
+     * @throws PatriusException if frames cannot be built
+     */
+    @BeforeClass
+    public static void setUpBeforeClass() throws PatriusException {
+        Utils.setDataRoot("regular-data");
+        FramesFactory.setConfiguration(Utils.getIERS2003ConfigurationWOEOP(true));
+        earth = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS, Constants.WGS84_EARTH_FLATTENING,
+            FramesFactory.getITRF());
+        orbit = new KeplerianOrbit(7000.e3, 0.001, MathLib.toRadians(98.), 0., 0., 0., PositionAngle.MEAN,
+            FramesFactory.getGCRF(), new AbsoluteDate(2003, 9, 15, 12, 0, 0, TimeScalesFactory.getUTC()),
+            Constants.EGM96_EARTH_MU);
+    }
+}
@@ -0,0 +1,345 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.events.screening;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.Utils;
+import fr.cnes.sirius.patrius.events.EventDetector.Action;
+import fr.cnes.sirius.patrius.events.detectors.ExtremaDistanceDetector;
+import fr.cnes.sirius.patrius.events.postprocessing.EventsLogger;
+import fr.cnes.sirius.patrius.events.postprocessing.EventsLogger.LoggedEvent;
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.math.exception.NotStrictlyPositiveException;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.orbits.KeplerianOrbit;
+import fr.cnes.sirius.patrius.orbits.PositionAngle;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinatesProvider;
+import fr.cnes.sirius.patrius.propagation.analytical.KeplerianPropagator;
+import fr.cnes.sirius.patrius.propagation.analytical.tle.TLE;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Unit tests for {@link ConjunctionScreening}.
+ *
+ * @since 4.14
+ */
+public class ConjunctionScreeningTest {
+
+    /** Features description. */
+    public enum features {
+        /**
+         * @featureTitle Conjunction screening
+         *
+         * @featureDescription close approaches screening of a set of objects
+         *
+         * @coveredRequirements
+         */
+        CONJUNCTION_SCREENING
+    }
+
+    /** Screening distance (m). */
+    private static final double DISTANCE = 25000.;
+
+    /** Sampling step (s). */
+    private static final double STEP = 60.;
+
+    /** Screening start date. */
+    private static final AbsoluteDate START = AbsoluteDate.J2000_EPOCH;
+
+    /** Screening end date. */
+    private static final AbsoluteDate END = START.shiftedBy(6 * 3600.);
+
+    /** Number of LEO objects. */
+    private static final int NB_LEO = 6;
+
+    /** Number of GEO objects in the mixed catalogue. */
+    private static final int NB_GEO = 8;
+
+    /** Screening frame. */
+    private static Frame frame;
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#CONJUNCTION_SCREENING}
+     *
+     * @testedMethod {@link ConjunctionScreening#screen(ConjunctionScreening.ProvidersBuilder, AbsoluteDate,
+     *               AbsoluteDate)}
+     *
+     * @description all-vs-all screening of objects on crossing circular orbits, sequential and concurrent, compared
+     *              to a brute force screening using one {@link ExtremaDistanceDetector} per pair
+     *
+     * @input six LEO objects on crossing orbits and one GEO object, 25 km screening distance
+     *
+     * @output close approaches
+     *
+     * @testPassCriteria the same close approaches are found (1E-4 s on TCA, 1E-3 m on miss distance), sequential and
+     *                   concurrent results are identical, at most one objects list is built per thread
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testAllVersusAll() throws PatriusException {
+        final List<CloseApproach> reference = bruteForce(ConjunctionScreeningTest::buildObjects, NB_LEO);
+        Assert.assertFalse(reference.isEmpty());
+
+        final List<CloseApproach> sequential = new ConjunctionScreening(frame, DISTANCE, STEP, 1).screen(
+            ConjunctionScreeningTest::buildObjects, START, END);
+        checkApproaches(reference, sequential);
+
+        // Objects lists are reused by the tasks: at most one list per thread
+        final AtomicInteger nbBuilds = new AtomicInteger();
+        final List<CloseApproach> concurrent = new ConjunctionScreening(frame, DISTANCE, STEP, 3).screen(() -> {
+            nbBuilds.incrementAndGet();
+            return buildObjects();
+        }, START, END);
+        Assert.assertEquals(sequential, concurrent);
+        Assert.assertTrue(nbBuilds.get() <= 3);
+
+        // The screening interval spans several sampling windows
+        Assert.assertTrue(END.durationFrom(START) / STEP > 2 * ConjunctionScreening.WINDOW_SLICES);
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#CONJUNCTION_SCREENING}
+     *
+     * @testedMethod {@link ConjunctionScreening#screen(ConjunctionScreening.ProvidersBuilder, int, AbsoluteDate,
+     *               AbsoluteDate)}
+     *
+     * @description screening of primary objects against a catalogue
+     *
+     * @input two primary objects, the other ones being secondary objects
+     *
+     * @output close approaches
+     *
+     * @testPassCriteria only the close approaches involving a primary object are found
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testPrimaries() throws PatriusException {
+        final List<CloseApproach> reference = bruteForce(ConjunctionScreeningTest::buildObjects, 2);
+
+        final List<CloseApproach> result = new ConjunctionScreening(frame, DISTANCE, STEP, 4).screen(
+            ConjunctionScreeningTest::buildObjects, 2, START, END);
+        checkApproaches(reference, result);
+        for (final CloseApproach approach : result) {
+            Assert.assertTrue(approach.getPrimaryIndex() < 2);
+            Assert.assertTrue(approach.getSecondaryIndex() > approach.getPrimaryIndex());
+        }
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#CONJUNCTION_SCREENING}
+     *
+     * @testedMethod {@link ConjunctionScreening#screen(ConjunctionScreening.ProvidersBuilder, int, AbsoluteDate,
+     *               AbsoluteDate)}
+     *
+     * @description screening of fast objects among a majority of slow objects
+     *
+     * @input the LEO objects and a majority of GEO objects
+     *
+     * @output close approaches
+     *
+     * @testPassCriteria the same close approaches as with a brute force screening are found: the path bounding boxes
+     *                   of the LEO objects, much larger than the GEO ones, are handled out of the spatial grid
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testOversizeBoxes() throws PatriusException {
+        final List<CloseApproach> reference = bruteForce(ConjunctionScreeningTest::buildMixedObjects,
+            NB_LEO + NB_GEO);
+        Assert.assertFalse(reference.isEmpty());
+
+        final List<CloseApproach> result = new ConjunctionScreening(frame, DISTANCE, STEP, 2).screen(
+            ConjunctionScreeningTest::buildMixedObjects, START, END);
+        checkApproaches(reference, result);
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#CONJUNCTION_SCREENING}
+     *
+     * @testedMethod {@link ConjunctionScreening#ConjunctionScreening(Frame, double, double, double, double, int)}
+     * @testedMethod {@link ConjunctionScreening#tleProviders(List)}
+     *
+     * @description check errors cases and TLE providers builder
+     *
+     * @input wrong screening settings, TLE list
+     *
+     * @output exceptions, TLE providers
+     *
+     * @testPassCriteria exceptions are thrown for wrong settings, one provider is built for each TLE
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testErrors() throws PatriusException {
+        try {
+            new ConjunctionScreening(frame, -1., STEP, 1);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new ConjunctionScreening(frame, DISTANCE, 0., 1);
+            Assert.fail();
+        } catch (final NotStrictlyPositiveException e) {
+            // expected
+        }
+        try {
+            new ConjunctionScreening(frame, DISTANCE, STEP, STEP, 0., 1);
+            Assert.fail();
+        } catch (final NotStrictlyPositiveException e) {
+            // expected
+        }
+        try {
+            new ConjunctionScreening(frame, DISTANCE, STEP, 1).screen(ConjunctionScreeningTest::buildObjects, END,
+                START);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+
+        final TLE tle = new TLE("1 27421U 02021A   02124.48976499 -.00021470  00000-0 -89879-2 0    20",
+            "2 27421  98.7490 199.5121 0001333 133.9522 226.1918 14.26113993    62");
+        Assert.assertEquals(2, ConjunctionScreening.tleProviders(Collections.nCopies(2, tle)).build().size());
+    }
+
+    /**
+     * Brute force screening: one {@link ExtremaDistanceDetector} for each pair.
+     *
+     * @param builder objects builder
+     * @param nbPrimaries number of primary objects
+     * @return close approaches sorted chronologically
+     * @throws PatriusException if propagation fails
+     */
+    private static List<CloseApproach> bruteForce(final ConjunctionScreening.ProvidersBuilder builder,
+                                                  final int nbPrimaries) throws PatriusException {
+        final List<PVCoordinatesProvider> objects = builder.build();
+        final List<CloseApproach> approaches = new ArrayList<>();
+        for (int i = 0; i < nbPrimaries; i++) {
+            for (int j = i + 1; j < objects.size(); j++) {
+                final KeplerianPropagator propagator = (KeplerianPropagator) builder.build().get(i);
+                final EventsLogger logger = new EventsLogger();
+                propagator.addEventDetector(logger.monitorDetector(new ExtremaDistanceDetector(objects.get(j),
+                    ExtremaDistanceDetector.MIN, STEP, 1.e-6, Action.CONTINUE)));
+                propagator.propagate(END);
+                for (final LoggedEvent event : logger.getLoggedEvents()) {
+                    final AbsoluteDate date = event.getState().getDate();
+                    final double distance = objects.get(j).getPVCoordinates(date, frame).getPosition()
+                        .distance(event.getState().getPVCoordinates(frame).getPosition());
+                    if (distance <= DISTANCE) {
+                        approaches.add(new CloseApproach(i, j, date, distance, 0.));
+                    }
+                }
+            }
+        }
+        Collections.sort(approaches);
+        return approaches;
+    }
+
+    /**
+     * Check close approaches against reference ones.
+     *
+     * @param expected reference close approaches
+     * @param actual screening close approaches
+     */
+    private static void checkApproaches(final List<CloseApproach> expected, final List<CloseApproach> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int k = 0; k < expected.size(); k++) {
+            Assert.assertEquals(expected.get(k).getPrimaryIndex(), actual.get(k).getPrimaryIndex());
+            Assert.assertEquals(expected.get(k).getSecondaryIndex(), actual.get(k).getSecondaryIndex());
+            Assert.assertEquals(0., actual.get(k).getTCA().durationFrom(expected.get(k).getTCA()), 1.e-4);
+            Assert.assertEquals(expected.get(k).getMissDistance(), actual.get(k).getMissDistance(), 1.e-3);
+            Assert.assertTrue(actual.get(k).getRelativeSpeed() > 0.);
+        }
+    }
+
+    /**
+     * Build the screened objects: LEO objects on circular orbits with same radius, crossing at their common nodes
+     * with small phase shifts, and a GEO object.
+     *
+     * @return screened objects
+     * @throws PatriusException if propagators cannot be built
+     */
+    private static List<PVCoordinatesProvider> buildObjects() throws PatriusException {
+        final List<PVCoordinatesProvider> objects = new ArrayList<>();
+        for (int k = 0; k < NB_LEO; k++) {
+            objects.add(new KeplerianPropagator(new KeplerianOrbit(7000.e3, 0., MathLib.toRadians(10. + 25. * k), 0.,
+                0., MathLib.PI / 2 - 0.002 * k, PositionAngle.MEAN, frame, START, Constants.EGM96_EARTH_MU)));
+        }
+        objects.add(new KeplerianPropagator(new KeplerianOrbit(42164.e3, 0., 0., 0., 0., 0., PositionAngle.MEAN,
+            frame, START, Constants.EGM96_EARTH_MU)));
+        return objects;
+    }
+
+    /**
+     * Build the screened objects: the LEO objects of {@link #buildObjects()} followed by GEO objects spread in
+     * longitude.
+     *
+     * @return screened objects
+     * @throws PatriusException if propagators cannot be built
+     */
+    private static List<PVCoordinatesProvider> buildMixedObjects() throws PatriusException {
+        final List<PVCoordinatesProvider> objects = new ArrayList<>(buildObjects().subList(0, NB_LEO));
+        for (int k = 0; k < NB_GEO; k++) {
+            objects.add(new KeplerianPropagator(new KeplerianOrbit(42164.e3, 0., 0., 0., 0., 2 * MathLib.PI * k / NB_GEO,
+                PositionAngle.MEAN, frame, START, Constants.EGM96_EARTH_MU)));
+        }
+        return objects;
+    }
+
+    /**
+     * Set up.
+     *
+     * @throws PatriusException if GCRF frame cannot be built
+     */
+    @BeforeClass
+    public static void setUpBeforeClass() throws PatriusException {
+        Utils.setDataRoot("regular-data");
+        frame = FramesFactory.getGCRF();
+    }
+}
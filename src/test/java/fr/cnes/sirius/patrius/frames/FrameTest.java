@@ -46,6 +46,7 @@
 package fr.cnes.sirius.patrius.frames;
 
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -56,9 +57,11 @@ import fr.cnes.sirius.patrius.Utils;
 import fr.cnes.sirius.patrius.bodies.CelestialBodyFactory;
 import fr.cnes.sirius.patrius.bodies.EllipsoidPoint;
 import fr.cnes.sirius.patrius.bodies.OneAxisEllipsoid;
+import fr.cnes.sirius.patrius.frames.configuration.FramesConfiguration;
 import fr.cnes.sirius.patrius.frames.transformations.EME2000Provider;
 import fr.cnes.sirius.patrius.frames.transformations.FixedTransformProvider;
 import fr.cnes.sirius.patrius.frames.transformations.Transform;
+import fr.cnes.sirius.patrius.frames.transformations.TransformProvider;
 import fr.cnes.sirius.patrius.math.TestUtils;
 import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Rotation;
 import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
@@ -328,6 +331,186 @@ public class FrameTest {
         checkNoTransform(new Transform(T.getDate(), T, S.getInverse()), random);
     }
 
+    @Test
+    public void testFindCommonDifferentBranches() throws PatriusException {
+        final Random random = new Random(0x3e5ac8b11f2d4e07l);
+        final AbsoluteDate date = AbsoluteDate.J2000_EPOCH;
+        final Frame eme2000 = FramesFactory.getEME2000();
+
+        // long branches with a common ancestor at depth 5
+        Frame common = eme2000;
+        for (int i = 0; i < 3; i++) {
+            common = new Frame(common, randomTransform(random), "c" + i);
+        }
+        Frame branch1 = common;
+        Frame branch2 = common;
+        Transform expected1 = Transform.IDENTITY;
+        Transform expected2 = Transform.IDENTITY;
+        for (int i = 0; i < 7; i++) {
+            final Transform t1 = randomTransform(random);
+            branch1 = new Frame(branch1, t1, "b1-" + i);
+            expected1 = new Transform(date, expected1, t1);
+            if (i < 4) {
+                final Transform t2 = randomTransform(random);
+                branch2 = new Frame(branch2, t2, "b2-" + i);
+                expected2 = new Transform(date, expected2, t2);
+            }
+        }
+        final Transform expected = new Transform(date, expected1.getInverse(), expected2);
+        final Transform actual = branch1.getTransformTo(branch2, date);
+        checkNoTransform(new Transform(date, actual, expected.getInverse()), random);
+
+        // frames with no common ancestor
+        try {
+            branch1.getTransformTo(OrphanFrame.getNewOrphanFrame("orphan"), date);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testTransformMemo() throws PatriusException {
+        final Random random = new Random(0x5f1d2b7e9c4a3801l);
+        final int[] calls = new int[1];
+        final Transform fixed = randomTransform(random);
+        final TransformProvider counting = new FixedTransformProvider(fixed) {
+            /** Serializable UID. */
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Transform getTransform(final AbsoluteDate date, final FramesConfiguration config,
+                                          final boolean computeSpinDerivatives) {
+                calls[0]++;
+                return fixed;
+            }
+        };
+        final Frame frame = new Frame(FramesFactory.getGCRF(), counting, "counting");
+        final Frame other = new Frame(FramesFactory.getGCRF(), randomTransform(random), "other");
+        final AbsoluteDate date1 = AbsoluteDate.J2000_EPOCH;
+        final AbsoluteDate date2 = date1.shiftedBy(10.);
+
+        Assert.assertEquals(0, Frame.getTransformMemoSize());
+        try {
+            // memo disabled: transform is composed on each call
+            frame.getTransformTo(other, date1);
+            frame.getTransformTo(other, date1);
+            Assert.assertEquals(2, calls[0]);
+
+            // memo enabled: repeated same-date conversions reuse the composed transform
+            Frame.setTransformMemoSize(2);
+            Assert.assertEquals(2, Frame.getTransformMemoSize());
+            final Transform t1 = frame.getTransformTo(other, date1);
+            Assert.assertSame(t1, frame.getTransformTo(other, new AbsoluteDate(date1, 0.)));
+            Assert.assertEquals(3, calls[0]);
+            final Transform t2 = frame.getTransformTo(other, date2);
+            Assert.assertSame(t2, frame.getTransformTo(other, date2));
+            Assert.assertSame(t1, frame.getTransformTo(other, date1));
+            Assert.assertEquals(4, calls[0]);
+            checkNoTransform(new Transform(date1, t1, other.getTransformTo(frame, date1)), random);
+            Assert.assertEquals(5, calls[0]);
+
+            // oldest entry has been replaced
+            frame.getTransformTo(other, date2);
+            Assert.assertEquals(5, calls[0]);
+            frame.getTransformTo(other, date1);
+            Assert.assertEquals(6, calls[0]);
+
+            // spin derivatives flag is part of the key
+            frame.getTransformTo(other, date1, true);
+            Assert.assertEquals(7, calls[0]);
+
+            // setting the size clears the memo
+            Frame.setTransformMemoSize(2);
+            frame.getTransformTo(other, date1, true);
+            Assert.assertEquals(8, calls[0]);
+        } finally {
+            Frame.setTransformMemoSize(0);
+        }
+
+        try {
+            Frame.setTransformMemoSize(-1);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testBatchTransform() throws PatriusException {
+        Utils.setDataRoot("regular-data");
+        final Random random = new Random(0x7c3b9e15a2d04f68l);
+        final Frame gcrf = FramesFactory.getGCRF();
+        final Frame itrf = FramesFactory.getITRF();
+        final AbsoluteDate reference = new AbsoluteDate(2005, 3, 5, 0, 0, 0., TimeScalesFactory.getUTC());
+
+        // sorted dates with some duplicates
+        final int n = 2000;
+        final double[] dates = new double[n];
+        final double[] positions = new double[3 * n];
+        final double[] velocities = new double[3 * n];
+        for (int i = 0; i < n; i++) {
+            dates[i] = (i / 2) * 60.;
+            for (int k = 0; k < 3; k++) {
+                positions[3 * i + k] = 7.0e6 * (2 * random.nextDouble() - 1);
+                velocities[3 * i + k] = 7.0e3 * (2 * random.nextDouble() - 1);
+            }
+        }
+
+        for (final int parallelism : new int[] { 1, 4 }) {
+            final double[] p = positions.clone();
+            final double[] v = velocities.clone();
+            final double[] pOnly = positions.clone();
+            gcrf.transformPVCoordinates(itrf, reference, dates, p, v, parallelism);
+            gcrf.transformPVCoordinates(itrf, reference, dates, pOnly, null, parallelism);
+
+            // same results on a pool supplied by the caller
+            final double[] pPool = positions.clone();
+            final double[] vPool = velocities.clone();
+            final ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                gcrf.transformPVCoordinates(itrf, reference, dates, pPool, vPool, pool);
+            } finally {
+                pool.shutdown();
+            }
+            Assert.assertArrayEquals(p, pPool, 0.);
+            Assert.assertArrayEquals(v, vPool, 0.);
+
+            for (int i = 0; i < n; i++) {
+                final Transform t = gcrf.getTransformTo(itrf, reference.shiftedBy(dates[i]));
+                final PVCoordinates expected = t.transformPVCoordinates(new PVCoordinates(
+                    new Vector3D(positions[3 * i], positions[3 * i + 1], positions[3 * i + 2]),
+                    new Vector3D(velocities[3 * i], velocities[3 * i + 1], velocities[3 * i + 2])));
+                Assert.assertEquals(0., expected.getPosition().distance(new Vector3D(p[3 * i], p[3 * i + 1],
+                    p[3 * i + 2])), 1.0e-8);
+                Assert.assertEquals(0., expected.getVelocity().distance(new Vector3D(v[3 * i], v[3 * i + 1],
+                    v[3 * i + 2])), 1.0e-11);
+                Assert.assertEquals(0., expected.getPosition().distance(new Vector3D(pOnly[3 * i],
+                    pOnly[3 * i + 1], pOnly[3 * i + 2])), 1.0e-8);
+            }
+        }
+
+        // errors
+        try {
+            gcrf.transformPVCoordinates(itrf, reference, dates, new double[3], null, 1);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            gcrf.transformPVCoordinates(itrf, reference, dates, positions, new double[3], 1);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            gcrf.transformPVCoordinates(itrf, reference, dates, positions, velocities, 0);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
     @Test
     public void testIsChildOf() {
         final Random random = new Random(0xb7d1a155e726da78l);
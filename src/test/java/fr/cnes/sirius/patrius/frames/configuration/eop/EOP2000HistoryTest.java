@@ -37,6 +37,8 @@ import org.junit.Test;
 
 import fr.cnes.sirius.patrius.Utils;
 import fr.cnes.sirius.patrius.math.TestUtils;
+import fr.cnes.sirius.patrius.math.analysis.polynomials.PolynomialFunctionLagrangeForm;
+import fr.cnes.sirius.patrius.math.util.MathLib;
 import fr.cnes.sirius.patrius.time.AbsoluteDate;
 import fr.cnes.sirius.patrius.time.DateComponents;
 import fr.cnes.sirius.patrius.time.TimeScale;
@@ -277,6 +279,75 @@ public class EOP2000HistoryTest {
             historyDeserialize.getNutationCorrection(date).getDY(), 1.0e-10);
     }
 
+    @Test
+    public void testPrecomputedInterpolation() throws PatriusException {
+        // Irregular history (gaps, half-day entry): precomputed polynomials must match direct Lagrange interpolation
+        final TimeScale utc = TimeScalesFactory.getUTC();
+        final AbsoluteDate t0 = new AbsoluteDate(2003, 1, 1, utc);
+        final double[] offsets = { 0, 1, 2, 3, 3.5, 4, 7, 8, 9, 10, 11, 15, 16, 17 };
+        final List<EOP2000Entry> ets = new ArrayList<>();
+        for (int i = 0; i < offsets.length; i++) {
+            final double t = offsets[i];
+            ets.add(new EOP2000Entry(t0.shiftedBy(t * Constants.JULIAN_DAY), -0.29 - 1.0e-3 * t + 1.0e-5 * t * t,
+                5.0e-4 + 2.0e-5 * MathLib.sin(t), asToRad(-0.1 + 0.003 * t), asToRad(0.2 - 0.002 * MathLib.cos(t)),
+                asToRad(1.0e-5 * i), asToRad(-2.0e-5 * (i % 3))));
+        }
+
+        for (final EOPInterpolators interpolator : EOPInterpolators.values()) {
+            final EOP2000History history = new EOP2000History(interpolator);
+            EOP2000History.fillHistory(ets, history);
+            final int order = interpolator.getInterpolationPoints();
+            for (double t = 0; t <= 17; t += 0.0625) {
+                final AbsoluteDate date = t0.shiftedBy(t * Constants.JULIAN_DAY);
+                int i = 0;
+                while (i < offsets.length - 2 && offsets[i + 1] <= t) {
+                    i++;
+                }
+                final int first = MathLib.max(0, MathLib.min(i - order / 2 + 1, offsets.length - order));
+                final double[] x = new double[order];
+                final double[][] y = new double[6][order];
+                for (int j = 0; j < order; j++) {
+                    final EOP2000Entry entry = ets.get(first + j);
+                    x[j] = offsets[first + j];
+                    y[0][j] = entry.getUT1MinusTAI();
+                    y[1][j] = entry.getLOD();
+                    y[2][j] = entry.getX();
+                    y[3][j] = entry.getY();
+                    y[4][j] = entry.getDX();
+                    y[5][j] = entry.getDY();
+                }
+                Assert.assertEquals(PolynomialFunctionLagrangeForm.evaluate(x, y[0], t),
+                    history.getUT1MinusTAI(date), 1.0e-13);
+                Assert.assertEquals(PolynomialFunctionLagrangeForm.evaluate(x, y[1], t), history.getLOD(date),
+                    1.0e-17);
+                final PoleCorrection pole = history.getPoleCorrection(date);
+                Assert.assertEquals(PolynomialFunctionLagrangeForm.evaluate(x, y[2], t), pole.getXp(), 1.0e-19);
+                Assert.assertEquals(PolynomialFunctionLagrangeForm.evaluate(x, y[3], t), pole.getYp(), 1.0e-19);
+                final NutationCorrection nutation = history.getNutationCorrection(date);
+                Assert.assertEquals(PolynomialFunctionLagrangeForm.evaluate(x, y[4], t), nutation.getDX(), 1.0e-22);
+                Assert.assertEquals(PolynomialFunctionLagrangeForm.evaluate(x, y[5], t), nutation.getDY(), 1.0e-22);
+            }
+
+            // out of range
+            try {
+                history.getLOD(t0.shiftedBy(-1.));
+                Assert.fail();
+            } catch (final IllegalStateException e) {
+                // expected
+            }
+        }
+
+        // not enough entries
+        final EOP2000History history = new EOP2000History(EOPInterpolators.LAGRANGE4);
+        EOP2000History.fillHistory(ets.subList(0, 3), history);
+        try {
+            history.getLOD(t0);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
     @Before
     public void setUp() {
         Utils.setDataRoot("regular-data");
@@ -0,0 +1,153 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.frames.configuration.precessionnutation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.frames.configuration.FrameConvention;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.PatriusConfiguration;
+import fr.cnes.sirius.patrius.utils.PatriusConfiguration.PatriusVersionCompatibility;
+
+/**
+ * Test class for {@link SharedIERS20032010PrecessionNutation}.
+ *
+ * @since 4.14
+ */
+public class SharedIERS20032010PrecessionNutationTest {
+
+    /**
+     * Check the CIP coordinates against the per-term series evaluation, for both conventions and compatibility modes.
+     */
+    @Test
+    public void testAgainstSeries() {
+        final Random random = new Random(0x5e1a3c7b9d2f4e61L);
+        for (final PrecessionNutationConvention convention : PrecessionNutationConvention.values()) {
+            final PrecessionNutationModel reference = new IERS20032010PrecessionNutation(convention);
+            final PrecessionNutationModel shared = new SharedIERS20032010PrecessionNutation(convention);
+            Assert.assertTrue(shared.isDirect());
+            Assert.assertEquals(reference.getOrigin(), shared.getOrigin());
+            for (final PatriusVersionCompatibility mode : new PatriusVersionCompatibility[] {
+                PatriusVersionCompatibility.OLD_MODELS, PatriusVersionCompatibility.NEW_MODELS }) {
+                PatriusConfiguration.setPatriusCompatibilityMode(mode);
+                for (int i = 0; i < 200; i++) {
+                    final AbsoluteDate date = AbsoluteDate.J2000_EPOCH.shiftedBy((2 * random.nextDouble() - 1) * 50
+                            * Constants.JULIAN_YEAR);
+                    final CIPCoordinates expected = reference.getCIPCoordinates(date);
+                    final CIPCoordinates actual = shared.getCIPCoordinates(date);
+                    Assert.assertEquals(date, actual.getDate());
+                    assertArrayEquals(expected.getCIPMotion(), actual.getCIPMotion(), 1.0e-17);
+                    assertArrayEquals(expected.getCIPMotionTimeDerivatives(),
+                        actual.getCIPMotionTimeDerivatives(), 1.0e-25);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check the shared cache returns cached values for the same dates, and consistent values when used concurrently.
+     *
+     * @throws InterruptedException
+     *         if interrupted
+     * @throws ExecutionException
+     *         if a task failed
+     */
+    @Test
+    public void testCache() throws InterruptedException, ExecutionException {
+        PatriusConfiguration.setPatriusCompatibilityMode(PatriusVersionCompatibility.NEW_MODELS);
+        final PrecessionNutationModel reference =
+            new SharedIERS20032010PrecessionNutation(PrecessionNutationConvention.IERS2010);
+        final PrecessionNutationModel cached =
+            new SharedIERS20032010PrecessionNutation(PrecessionNutationConvention.IERS2010, 100);
+        Assert.assertEquals(FrameConvention.IERS2010, cached.getOrigin());
+
+        final AbsoluteDate date = AbsoluteDate.J2000_EPOCH.shiftedBy(1234.5);
+        final CIPCoordinates first = cached.getCIPCoordinates(date);
+        Assert.assertSame(first, cached.getCIPCoordinates(new AbsoluteDate(date, 0.)));
+        Assert.assertEquals(reference.getCIPCoordinates(date), first);
+        Assert.assertEquals(date.shiftedBy(1.e-3), cached.getCIPCoordinates(date.shiftedBy(1.e-3)).getDate());
+
+        // concurrent access to a small cache: many collisions
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int seed = t;
+                futures.add(executor.submit(() -> {
+                    final Random random = new Random(seed);
+                    boolean ok = true;
+                    for (int i = 0; i < 500; i++) {
+                        final AbsoluteDate d = AbsoluteDate.J2000_EPOCH.shiftedBy(3600. * random.nextInt(300));
+                        ok &= reference.getCIPCoordinates(d).equals(cached.getCIPCoordinates(d));
+                    }
+                    return ok;
+                }));
+            }
+            for (final Future<Boolean> future : futures) {
+                Assert.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try {
+            new SharedIERS20032010PrecessionNutation(PrecessionNutationConvention.IERS2010, -1);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Restore default compatibility mode.
+     */
+    @After
+    public void tearDown() {
+        PatriusConfiguration.setPatriusCompatibilityMode(PatriusVersionCompatibility.NEW_MODELS);
+    }
+
+    /**
+     * Check two arrays are equal.
+     *
+     * @param expected
+     *        expected array
+     * @param actual
+     *        actual array
+     * @param threshold
+     *        absolute threshold
+     */
+    private static void assertArrayEquals(final double[] expected, final double[] actual, final double threshold) {
+        Assert.assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(expected[i], actual[i], threshold);
+        }
+    }
+}
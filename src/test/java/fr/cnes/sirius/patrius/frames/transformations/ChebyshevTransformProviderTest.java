@@ -0,0 +1,306 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.frames.transformations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.Utils;
+import fr.cnes.sirius.patrius.frames.Frame;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Rotation;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.TimeScalesFactory;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Unit tests for {@link ChebyshevTransformProvider}.
+ *
+ * @since 4.14
+ */
+public class ChebyshevTransformProviderTest {
+
+    /** Features description. */
+    public enum features {
+        /**
+         * @featureTitle Tabulated transform provider
+         *
+         * @featureDescription transforms represented by Chebyshev polynomials, persisted in binary files
+         *
+         * @coveredRequirements
+         */
+        CHEBYSHEV_TRANSFORM_PROVIDER
+    }
+
+    /** Required angular accuracy (rad). */
+    private static final double ACCURACY = 1.0e-11;
+
+    /** Temporary directory. */
+    private File directory;
+
+    /** Start of the tabulated range. */
+    private AbsoluteDate start;
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#CHEBYSHEV_TRANSFORM_PROVIDER}
+     *
+     * @testedMethod {@link ChebyshevTransformProvider#build(Frame, Frame, AbsoluteDate, AbsoluteDate, double)}
+     * @testedMethod {@link ChebyshevTransformProvider#getTransform(AbsoluteDate, boolean)}
+     *
+     * @description tabulate the GCRF to ITRF transform over two days and compare it to the raw transform
+     *
+     * @input GCRF and ITRF frames
+     *
+     * @output tabulated transforms
+     *
+     * @testPassCriteria rotation errors are below the required accuracy, frames built on the tabulated provider
+     *                   transform positions and velocities as ITRF, fallback is used outside of the tabulated range
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testGCRFToITRF() throws PatriusException {
+        final Frame gcrf = FramesFactory.getGCRF();
+        final Frame itrf = FramesFactory.getITRF();
+        final AbsoluteDate end = this.start.shiftedBy(2 * 86400.);
+        final ChebyshevTransformProvider provider = ChebyshevTransformProvider.build(gcrf, itrf, this.start, end,
+            ACCURACY);
+        Assert.assertEquals(this.start, provider.getStartDate());
+        Assert.assertTrue(provider.getEndDate().compareTo(end) >= 0);
+        Assert.assertEquals(ACCURACY, provider.getAccuracy(), 0.);
+        Assert.assertEquals(ChebyshevTransformProvider.DEFAULT_DEGREE, provider.getDegree());
+        Assert.assertTrue(provider.getSegmentDuration() <= 86400.);
+
+        final Frame tabulated = new Frame(gcrf, provider, "tabulated ITRF");
+        final PVCoordinates pv = new PVCoordinates(7.0e6, 1.0e6, -2.0e6, 1.0e3, 7.0e3, 1.0e2);
+        for (double dt = 0; dt <= 2 * 86400.; dt += 617.) {
+            final AbsoluteDate date = this.start.shiftedBy(dt);
+            final Transform reference = gcrf.getTransformTo(itrf, date, true);
+            final Transform transform = provider.getTransform(date, true);
+            Assert.assertEquals(0., Rotation.distance(reference.getRotation(), transform.getRotation()), ACCURACY);
+            Assert.assertEquals(0., reference.getRotationRate().distance(transform.getRotationRate()), 1.0e-14);
+            Assert.assertEquals(0., reference.getRotationAcceleration().distance(
+                transform.getRotationAcceleration()), 1.0e-16);
+
+            final PVCoordinates expected = gcrf.getTransformTo(itrf, date).transformPVCoordinates(pv);
+            final PVCoordinates actual = gcrf.getTransformTo(tabulated, date).transformPVCoordinates(pv);
+            Assert.assertEquals(0., expected.getPosition().distance(actual.getPosition()), 1.0e-3);
+            Assert.assertEquals(0., expected.getVelocity().distance(actual.getVelocity()), 1.0e-6);
+        }
+
+        // fallback outside of the tabulated range
+        final AbsoluteDate before = this.start.shiftedBy(-10.);
+        Assert.assertEquals(0., Rotation.distance(gcrf.getTransformTo(itrf, before).getRotation(),
+            provider.getTransform(before).getRotation()), 0.);
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#CHEBYSHEV_TRANSFORM_PROVIDER}
+     *
+     * @testedMethod {@link ChebyshevTransformProvider#write(File)}
+     * @testedMethod {@link ChebyshevTransformProvider#load(File, TransformProvider)}
+     * @testedMethod {@link ChebyshevTransformProvider#loadOrBuild(File, TransformProvider, AbsoluteDate,
+     *               AbsoluteDate, double)}
+     *
+     * @description write a tabulated provider, load it back, serialize it
+     *
+     * @input tabulated GCRF to ITRF transform
+     *
+     * @output loaded and deserialized providers
+     *
+     * @testPassCriteria loaded and deserialized providers return exactly the same transforms, an exception is
+     *                   thrown out of range without fallback, an existing file covering the range is reused
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testPersistence() throws PatriusException, IOException, ClassNotFoundException {
+        final TransformProvider raw = new TIRFProvider();
+        final File file = new File(this.directory, "tirf.bin");
+        final ChebyshevTransformProvider built = ChebyshevTransformProvider.loadOrBuild(file, raw, this.start,
+            this.start.shiftedBy(43200.), ACCURACY);
+        Assert.assertTrue(file.isFile());
+        final long modified = file.lastModified();
+
+        final ChebyshevTransformProvider loaded = ChebyshevTransformProvider.load(file, null);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (final ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(loaded);
+        }
+        final ChebyshevTransformProvider deserialized;
+        try (final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            deserialized = (ChebyshevTransformProvider) ois.readObject();
+        }
+
+        for (final ChebyshevTransformProvider other : new ChebyshevTransformProvider[] { loaded, deserialized }) {
+            Assert.assertEquals(built.getStartDate(), other.getStartDate());
+            Assert.assertEquals(built.getEndDate(), other.getEndDate());
+            Assert.assertEquals(built.getSegmentDuration(), other.getSegmentDuration(), 0.);
+            for (double dt = 0; dt <= 43200.; dt += 1234.5) {
+                final AbsoluteDate date = this.start.shiftedBy(dt);
+                final Transform expected = built.getTransform(date);
+                final Transform actual = other.getTransform(date);
+                Assert.assertEquals(0., Rotation.distance(expected.getRotation(), actual.getRotation()), 0.);
+                Assert.assertEquals(0., expected.getRotationRate().distance(actual.getRotationRate()), 0.);
+            }
+        }
+
+        // out of range without fallback
+        try {
+            loaded.getTransform(loaded.getEndDate().shiftedBy(1.));
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(PatriusMessages.OUT_OF_RANGE_TABULATED_TRANSFORM_DATE, e.getSpecifier());
+        }
+
+        // existing file is reused for a smaller range
+        final ChebyshevTransformProvider reused = ChebyshevTransformProvider.loadOrBuild(file, raw,
+            this.start.shiftedBy(3600.), this.start.shiftedBy(7200.), 10 * ACCURACY);
+        Assert.assertEquals(built.getSegmentDuration(), reused.getSegmentDuration(), 0.);
+        Assert.assertEquals(modified, file.lastModified());
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#CHEBYSHEV_TRANSFORM_PROVIDER}
+     *
+     * @testedMethod {@link ChebyshevTransformProvider#load(File, TransformProvider)}
+     * @testedMethod {@link ChebyshevTransformProvider#build(TransformProvider, AbsoluteDate, AbsoluteDate, double,
+     *               int)}
+     *
+     * @description check errors on corrupted files, unreachable accuracy and invalid arguments
+     *
+     * @input corrupted files, invalid arguments
+     *
+     * @output exceptions
+     *
+     * @testPassCriteria expected exceptions are thrown, corrupted files are rebuilt by loadOrBuild
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testErrors() throws PatriusException, IOException {
+        final TransformProvider raw = new TIRFProvider();
+        final File file = new File(this.directory, "corrupted.bin");
+
+        // truncated file
+        Files.write(file.toPath(), new byte[] { 1, 2, 3 });
+        try {
+            ChebyshevTransformProvider.load(file, raw);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(PatriusMessages.NOT_A_TABULATED_TRANSFORM_FILE, e.getSpecifier());
+        }
+
+        // inconsistent payload size
+        ChebyshevTransformProvider.build(raw, this.start, this.start.shiftedBy(3600.), ACCURACY).write(file);
+        final byte[] content = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), new byte[content.length + 8]);
+        try {
+            ChebyshevTransformProvider.load(file, raw);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(PatriusMessages.NOT_A_TABULATED_TRANSFORM_FILE, e.getSpecifier());
+        }
+        final byte[] extended = new byte[content.length + 8];
+        System.arraycopy(content, 0, extended, 0, content.length);
+        Files.write(file.toPath(), extended);
+        ChebyshevTransformProvider.loadOrBuild(file, raw, this.start, this.start.shiftedBy(3600.), ACCURACY);
+        Assert.assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+
+        // missing file
+        try {
+            ChebyshevTransformProvider.load(new File(this.directory, "missing.bin"), raw);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(PatriusMessages.UNABLE_TO_FIND_FILE, e.getSpecifier());
+        }
+
+        // unreachable accuracy
+        try {
+            ChebyshevTransformProvider.build(raw, this.start, this.start.shiftedBy(3600.), 0., 2);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(PatriusMessages.TABULATED_TRANSFORM_ACCURACY_NOT_REACHED, e.getSpecifier());
+        }
+
+        // invalid arguments
+        try {
+            ChebyshevTransformProvider.build(raw, this.start, this.start, ACCURACY);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            ChebyshevTransformProvider.build(raw, this.start, this.start.shiftedBy(3600.), ACCURACY, 0);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Set up.
+     *
+     * @throws PatriusException if UTC cannot be loaded
+     * @throws IOException if temporary directory cannot be created
+     */
+    @Before
+    public void setUp() throws PatriusException, IOException {
+        Utils.setDataRoot("regular-data");
+        FramesFactory.setConfiguration(Utils.getIERS2010Configuration());
+        this.start = new AbsoluteDate(2005, 3, 5, 0, 0, 0., TimeScalesFactory.getUTC());
+        this.directory = Files.createTempDirectory("patrius-chebyshev").toFile();
+    }
+
+    /**
+     * Tear down.
+     */
+    @After
+    public void tearDown() {
+        for (final File file : this.directory.listFiles()) {
+            file.delete();
+        }
+        this.directory.delete();
+    }
+}
@@ -95,6 +95,35 @@ public class ContinuousOutputModelTest {
 
     }
 
+    @Test
+    public void testRandomAccessWithoutMutation() throws DimensionMismatchException, NumberIsTooSmallException,
+                                                 MaxCountExceededException, NoBracketingException {
+
+        final ContinuousOutputModel cm = new ContinuousOutputModel();
+        this.integ.addStepHandler(cm);
+        this.integ.integrate(this.pb,
+            this.pb.getInitialTime(), this.pb.getInitialState(),
+            this.pb.getFinalTime(), new double[this.pb.getDimension()]);
+
+        final double refTime = 0.5 * (this.pb.getFinalTime() + this.pb.getInitialTime());
+        cm.setInterpolatedTime(refTime);
+        final double[] refY = cm.getInterpolatedState().clone();
+
+        final Random random = new Random(347588535632l);
+        for (int i = 0; i < 1000; ++i) {
+            final double r = random.nextDouble();
+            final double time = r * this.pb.getInitialTime() + (1.0 - r) * this.pb.getFinalTime();
+            cm.setInterpolatedTime(time);
+            final double[] expectedY = cm.getInterpolatedState().clone();
+            cm.setInterpolatedTime(refTime);
+            Assert.assertArrayEquals(expectedY, cm.getInterpolatedState(time), 0.);
+            // the interpolated point of the model is left unchanged
+            Assert.assertEquals(refTime, cm.getInterpolatedTime(), 0.);
+            Assert.assertArrayEquals(refY, cm.getInterpolatedState(), 0.);
+        }
+
+    }
+
     @Test
     public void testModelsMerging() throws MaxCountExceededException, MathIllegalArgumentException {
 
@@ -0,0 +1,290 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.propagation.analytical.tle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.Utils;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.AbsoluteDateArray;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+
+/**
+ * Unit tests for {@link TLECatalogPropagator}.
+ *
+ * @since 4.14
+ */
+public class TLECatalogPropagatorTest {
+
+    /** Features description. */
+    public enum features {
+        /**
+         * @featureTitle TLE catalogue propagation
+         *
+         * @featureDescription propagation of a catalogue of TLEs on a dates grid
+         *
+         * @coveredRequirements
+         */
+        TLE_CATALOG_PROPAGATION
+    }
+
+    /** Catalogue TLEs. */
+    private List<TLE> tles;
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#TLE_CATALOG_PROPAGATION}
+     *
+     * @testedMethod {@link TLECatalogPropagator#TLECatalogPropagator(List, int)}
+     * @testedMethod {@link TLECatalogPropagator#propagate(AbsoluteDate[], double[], double[])}
+     * @testedMethod {@link TLECatalogPropagator#propagate(AbsoluteDateArray, double[], double[])}
+     *
+     * @description check that the catalogue propagation gives exactly the results of {@link TLEPropagator}, sequential
+     *              or concurrent, for near-Earth and deep space objects
+     *
+     * @input a catalogue mixing SGP4 and SDP4 objects, a dates grid over two days
+     *
+     * @output positions and velocities
+     *
+     * @testPassCriteria positions and velocities are exactly the ones of {@link TLEPropagator} (0 tolerance), no
+     *                   failure is reported
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testPropagation() throws PatriusException {
+        final AbsoluteDate[] dates = this.buildDates(this.tles.get(0).getDate(), 97);
+        for (final int nbThreads : new int[] { 1, 4 }) {
+            final TLECatalogPropagator catalog = new TLECatalogPropagator(this.tles, nbThreads);
+            Assert.assertEquals(this.tles.size(), catalog.size());
+            Assert.assertEquals(FramesFactory.getTEME(), catalog.getFrame());
+
+            final double[] positions = new double[3 * catalog.size() * dates.length];
+            final double[] velocities = new double[positions.length];
+            Assert.assertEquals(0, catalog.propagate(dates, positions, velocities).length);
+            this.checkResults(dates, positions, velocities);
+
+            // Same grid stored in primitive arrays
+            final double[] positions2 = new double[positions.length];
+            final double[] velocities2 = new double[positions.length];
+            Assert.assertEquals(0,
+                catalog.propagate(new AbsoluteDateArray(dates), positions2, velocities2).length);
+            Assert.assertArrayEquals(positions, positions2, 0.);
+            Assert.assertArrayEquals(velocities, velocities2, 0.);
+        }
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#TLE_CATALOG_PROPAGATION}
+     *
+     * @testedMethod {@link TLECatalogPropagator#fromElements(int[], AbsoluteDate[], double[], double[], double[],
+     *               double[], double[], double[], double[], int)}
+     *
+     * @description check the catalogue built from TLE elements given in structure-of-arrays form
+     *
+     * @input the elements of the reference catalogue TLEs
+     *
+     * @output positions and velocities
+     *
+     * @testPassCriteria results are exactly the ones of {@link TLEPropagator}, an exception is thrown if arrays
+     *                   lengths are not consistent
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testFromElements() throws PatriusException {
+        final int n = this.tles.size();
+        final int[] numbers = new int[n];
+        final AbsoluteDate[] epochs = new AbsoluteDate[n];
+        final double[] meanMotions = new double[n];
+        final double[] e = new double[n];
+        final double[] i = new double[n];
+        final double[] pa = new double[n];
+        final double[] raan = new double[n];
+        final double[] meanAnomalies = new double[n];
+        final double[] bStars = new double[n];
+        for (int k = 0; k < n; k++) {
+            final TLE tle = this.tles.get(k);
+            numbers[k] = tle.getSatelliteNumber();
+            epochs[k] = tle.getDate();
+            meanMotions[k] = tle.getMeanMotion();
+            e[k] = tle.getE();
+            i[k] = tle.getI();
+            pa[k] = tle.getPerigeeArgument();
+            raan[k] = tle.getRaan();
+            meanAnomalies[k] = tle.getMeanAnomaly();
+            bStars[k] = tle.getBStar();
+        }
+
+        final TLECatalogPropagator catalog = TLECatalogPropagator.fromElements(numbers, epochs, meanMotions, e, i, pa,
+            raan, meanAnomalies, bStars, 2);
+        Assert.assertEquals(numbers[1], catalog.getTLE(1).getSatelliteNumber());
+        final AbsoluteDate[] dates = this.buildDates(this.tles.get(0).getDate(), 11);
+        final double[] positions = new double[3 * n * dates.length];
+        final double[] velocities = new double[positions.length];
+        Assert.assertEquals(0, catalog.propagate(dates, positions, velocities).length);
+        this.checkResults(dates, positions, velocities);
+
+        // Inconsistent arrays
+        try {
+            TLECatalogPropagator.fromElements(numbers, epochs, meanMotions, e, i, pa, raan, meanAnomalies,
+                new double[n - 1], 2);
+            Assert.fail();
+        } catch (final PatriusException ex) {
+            Assert.assertEquals(PatriusMessages.DIMENSIONS_MISMATCH_SIMPLE, ex.getSpecifier());
+        }
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#TLE_CATALOG_PROPAGATION}
+     *
+     * @testedMethod {@link TLECatalogPropagator#propagate(AbsoluteDate[], double[], double[])}
+     *
+     * @description check the handling of objects which cannot be propagated and of too small output arrays
+     *
+     * @input a catalogue including an object whose eccentricity exceeds the model limit during the propagation
+     *
+     * @output failed objects indices
+     *
+     * @testPassCriteria the failing object is reported and its results are NaN where {@link TLEPropagator} fails,
+     *                   other objects are propagated; an exception is thrown if output arrays are too small
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testFailures() throws PatriusException {
+        // Object whose eccentricity becomes too large with time (negative ballistic coefficient)
+        final TLE ref = this.tles.get(1);
+        final TLE decaying = new TLE(ref.getSatelliteNumber(), 'U', 0, 0, "", 0, 0, ref.getDate(),
+            ref.getMeanMotion(), 0., 0., 0.1, ref.getI(), ref.getPerigeeArgument(), ref.getRaan(),
+            ref.getMeanAnomaly(), 0, -1.);
+        this.tles.add(1, decaying);
+
+        final TLECatalogPropagator catalog = new TLECatalogPropagator(this.tles, 3);
+        final AbsoluteDate[] dates = this.buildDates(ref.getDate(), 50);
+        final double[] positions = new double[3 * catalog.size() * dates.length];
+        final double[] velocities = new double[positions.length];
+        final int[] failed = catalog.propagate(dates, positions, velocities);
+        Assert.assertArrayEquals(new int[] { 1 }, failed);
+        this.checkResults(dates, positions, velocities);
+
+        // Too small arrays
+        try {
+            catalog.propagate(dates, new double[positions.length - 1], velocities);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            Assert.assertEquals(PatriusMessages.DIMENSIONS_MISMATCH_SIMPLE, e.getSpecifier());
+        }
+    }
+
+    /**
+     * Check catalogue results against {@link TLEPropagator}.
+     *
+     * @param dates dates grid
+     * @param positions catalogue positions
+     * @param velocities catalogue velocities
+     * @throws PatriusException if a propagator cannot be built
+     */
+    private void checkResults(final AbsoluteDate[] dates, final double[] positions,
+                              final double[] velocities) throws PatriusException {
+        for (int k = 0; k < this.tles.size(); k++) {
+            final TLEPropagator propagator = TLEPropagator.selectExtrapolator(this.tles.get(k));
+            for (int j = 0; j < dates.length; j++) {
+                final int index = 3 * (k * dates.length + j);
+                PVCoordinates expected = null;
+                try {
+                    expected = propagator.getPVCoordinates(dates[j]);
+                } catch (final PatriusException e) {
+                    // failure expected in catalogue
+                }
+                if (expected == null) {
+                    Assert.assertTrue(Double.isNaN(positions[index]));
+                    Assert.assertTrue(Double.isNaN(velocities[index + 2]));
+                } else {
+                    Assert.assertEquals(expected.getPosition().getX(), positions[index], 0.);
+                    Assert.assertEquals(expected.getPosition().getY(), positions[index + 1], 0.);
+                    Assert.assertEquals(expected.getPosition().getZ(), positions[index + 2], 0.);
+                    Assert.assertEquals(expected.getVelocity().getX(), velocities[index], 0.);
+                    Assert.assertEquals(expected.getVelocity().getY(), velocities[index + 1], 0.);
+                    Assert.assertEquals(expected.getVelocity().getZ(), velocities[index + 2], 0.);
+                }
+            }
+        }
+    }
+
+    /**
+     * Build a dates grid over two days.
+     *
+     * @param start first date
+     * @param nbDates number of dates
+     * @return dates grid
+     */
+    private AbsoluteDate[] buildDates(final AbsoluteDate start, final int nbDates) {
+        final AbsoluteDate[] dates = new AbsoluteDate[nbDates];
+        for (int j = 0; j < nbDates; j++) {
+            dates[j] = start.shiftedBy(j * 2 * 86400. / (nbDates - 1));
+        }
+        return dates;
+    }
+
+    /**
+     * Set up.
+     *
+     * @throws PatriusException if TLEs cannot be parsed
+     */
+    @Before
+    public void setUp() throws PatriusException {
+        Utils.setDataRoot("regular-data");
+        final TLE gps = new TLE("1 37753U 11036A   12090.13205652 -.00000006  00000-0  00000+0 0  2272",
+            "2 37753  55.0032 176.5796 0004733  13.2285 346.8266  2.00565440  5153");
+        final TLE geo = new TLE("1 27508U 02040A   12021.25695307 -.00000113  00000-0  10000-3 0  7326",
+            "2 27508   0.0571 356.7800 0005033 344.4621 218.7816  1.00271798 34501");
+        final TLE leo1 = new TLE("1 31135U 07013A   11003.00000000  .00000816  00000+0  47577-4 0    11",
+            "2 31135   2.4656 183.9084 0021119 236.4164  60.4567 15.10546832    15");
+        final TLE leo2 = new TLE("1 27421U 02021A   02124.48976499 -.00021470  00000-0 -89879-2 0    20",
+            "2 27421  98.7490 199.5121 0001333 133.9522 226.1918 14.26113993    62");
+        this.tles = new ArrayList<>();
+        for (int k = 0; k < 10; k++) {
+            this.tles.add(gps);
+            this.tles.add(leo1);
+            this.tles.add(geo);
+            this.tles.add(leo2);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.propagation.numerical;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.Utils;
+import fr.cnes.sirius.patrius.forces.gravity.DirectBodyAttraction;
+import fr.cnes.sirius.patrius.forces.gravity.NewtonianGravityModel;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.math.ode.nonstiff.DormandPrince853Integrator;
+import fr.cnes.sirius.patrius.orbits.CartesianOrbit;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.tools.parallel.ParallelRunner;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PatriusMessages;
+import fr.cnes.sirius.patrius.utils.exception.PropagationException;
+
+/**
+ * Unit tests for {@link EnsemblePropagator}.
+ *
+ * @since 4.14
+ */
+public class EnsemblePropagatorTest {
+
+    /** Features description. */
+    enum features {
+        /**
+         * @featureTitle Ensemble propagation
+         *
+         * @featureDescription Concurrent propagation of a collection of initial states
+         *
+         * @coveredRequirements NA
+         */
+        ENSEMBLE_PROPAGATION
+    }
+
+    /** Number of ensemble members. */
+    private static final int NB_MEMBERS = 24;
+
+    /** Initial date. */
+    private AbsoluteDate initDate;
+
+    /** Initial states. */
+    private List<SpacecraftState> samples;
+
+    /** Ensemble propagator. */
+    private EnsemblePropagator ensemble;
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#ENSEMBLE_PROPAGATION}
+     *
+     * @testedMethod {@link EnsemblePropagator#propagate(java.util.Collection, AbsoluteDate)}
+     *
+     * @description check that concurrent propagation gives exactly the same results as sequential propagation, in
+     *              the initial states order
+     *
+     * @testPassCriteria results are strictly identical
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testSequentialConsistency() throws PatriusException {
+        final AbsoluteDate target = this.initDate.shiftedBy(3 * 3600.);
+        final List<SpacecraftState> results = this.ensemble.propagate(this.samples, target);
+        Assert.assertEquals(NB_MEMBERS, results.size());
+        for (int i = 0; i < NB_MEMBERS; i++) {
+            final SpacecraftState expected = this.ensemble.propagate(this.samples.get(i), target);
+            Assert.assertEquals(0., results.get(i).getDate().durationFrom(target), 0.);
+            Assert.assertEquals(0., expected.getPVCoordinates().getPosition()
+                .distance(results.get(i).getPVCoordinates().getPosition()), 0.);
+            Assert.assertEquals(0., expected.getPVCoordinates().getVelocity()
+                .distance(results.get(i).getPVCoordinates().getVelocity()), 0.);
+        }
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#ENSEMBLE_PROPAGATION}
+     *
+     * @testedMethod {@link EnsemblePropagator#propagate(java.util.Collection, AbsoluteDate, EnsembleResultHandler)}
+     *
+     * @description check that each member is streamed once to the handler, and that exceptions raised by the
+     *              handler or by the builder are propagated
+     *
+     * @testPassCriteria all members are received once, exceptions are raised as expected
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testStreaming() throws PatriusException {
+        final AbsoluteDate target = this.initDate.shiftedBy(600.);
+        final int[] received = new int[NB_MEMBERS];
+        this.ensemble.propagate(this.samples, target, (index, initialState, finalState) -> {
+            Assert.assertSame(this.samples.get(index), initialState);
+            received[index]++;
+        });
+        for (final int count : received) {
+            Assert.assertEquals(1, count);
+        }
+
+        // Handler failure
+        try {
+            this.ensemble.propagate(this.samples, target, (index, initialState, finalState) -> {
+                throw new PatriusException(PatriusMessages.SIMPLE_MESSAGE, "handler");
+            });
+            Assert.fail();
+        } catch (final PropagationException e) {
+            Assert.assertEquals("handler", e.getMessage());
+        }
+
+        // Builder failure
+        final EnsemblePropagator failing = new EnsemblePropagator(() -> {
+            throw new PatriusException(PatriusMessages.SIMPLE_MESSAGE, "builder");
+        }, 2);
+        Assert.assertEquals(2, failing.getParallelism());
+        try {
+            failing.propagate(this.samples, target);
+            Assert.fail();
+        } catch (final PropagationException e) {
+            Assert.assertEquals("builder", e.getMessage());
+        }
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#ENSEMBLE_PROPAGATION}
+     *
+     * @testedMethod {@link EnsemblePropagator#getTaskFactory(SpacecraftState, AbsoluteDate)}
+     *
+     * @description check that ensemble members can be run by a {@link ParallelRunner}
+     *
+     * @testPassCriteria all concurrent runs give the reference result
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testParallelRunner() throws InterruptedException {
+        final ParallelRunner runner = new ParallelRunner(4);
+        runner.addTask(this.ensemble.getTaskFactory(this.samples.get(0), this.initDate.shiftedBy(1800.)), 8);
+        runner.addTask(this.ensemble.getTaskFactory(this.samples.get(1), this.initDate.shiftedBy(-900.)), 8);
+        Assert.assertTrue(runner.getResultSummary(), runner.runAll());
+    }
+
+    /**
+     * Set up.
+     *
+     * @throws PatriusException
+     *         if data cannot be loaded
+     */
+    @Before
+    public void setUp() throws PatriusException {
+        Utils.setDataRoot("regular-data");
+        FramesFactory.setConfiguration(Utils.getIERS2003ConfigurationWOEOP(true));
+        this.initDate = AbsoluteDate.J2000_EPOCH;
+
+        // Dispersed initial states
+        final double mu = Constants.EGM96_EARTH_MU;
+        this.samples = new ArrayList<>();
+        for (int i = 0; i < NB_MEMBERS; i++) {
+            final Vector3D position = new Vector3D(7.0e6 + 10. * i, 1.0e6, 4.0e6 - 5. * i);
+            final Vector3D velocity = new Vector3D(-500.0, 8000.0 + 0.1 * i, 1000.0);
+            this.samples.add(new SpacecraftState(new CartesianOrbit(new PVCoordinates(position, velocity),
+                FramesFactory.getGCRF(), this.initDate, mu)));
+        }
+
+        // Force model data shared by all members
+        final NewtonianGravityModel gravity = new NewtonianGravityModel(mu);
+        this.ensemble = new EnsemblePropagator(() -> {
+            final NumericalPropagator propagator = new NumericalPropagator(new DormandPrince853Integrator(0.001,
+                200., 1e-6, 1e-9));
+            propagator.addForceModel(new DirectBodyAttraction(gravity));
+            return propagator;
+        }, 4);
+    }
+}
@@ -74,6 +74,11 @@ import org.junit.Before;
 import org.junit.Test;
 
 import fr.cnes.sirius.patrius.Utils;
+import fr.cnes.sirius.patrius.assembly.AssemblyBuilder;
+import fr.cnes.sirius.patrius.assembly.models.MassModel;
+import fr.cnes.sirius.patrius.assembly.properties.MassProperty;
+import fr.cnes.sirius.patrius.assembly.properties.PropulsiveProperty;
+import fr.cnes.sirius.patrius.assembly.properties.TankProperty;
 import fr.cnes.sirius.patrius.attitudes.Attitude;
 import fr.cnes.sirius.patrius.attitudes.AttitudeProvider;
 import fr.cnes.sirius.patrius.attitudes.BodyCenterPointing;
@@ -84,6 +89,8 @@ import fr.cnes.sirius.patrius.bodies.CelestialBodyFactory;
 import fr.cnes.sirius.patrius.bodies.EphemerisType;
 import fr.cnes.sirius.patrius.bodies.JPLCelestialBodyLoader;
 import fr.cnes.sirius.patrius.bodies.JPLHistoricEphemerisLoader;
+import fr.cnes.sirius.patrius.bodies.MeeusMoon;
+import fr.cnes.sirius.patrius.bodies.MeeusSun;
 import fr.cnes.sirius.patrius.bodies.OneAxisEllipsoid;
 import fr.cnes.sirius.patrius.events.EventDetector;
 import fr.cnes.sirius.patrius.events.EventDetector.Action;
@@ -97,11 +104,15 @@ import fr.cnes.sirius.patrius.forces.gravity.AbstractGravityModel;
 import fr.cnes.sirius.patrius.forces.gravity.CunninghamGravityModel;
 import fr.cnes.sirius.patrius.forces.gravity.DirectBodyAttraction;
 import fr.cnes.sirius.patrius.forces.gravity.NewtonianGravityModel;
+import fr.cnes.sirius.patrius.forces.gravity.ThirdBodyAttraction;
 import fr.cnes.sirius.patrius.forces.gravity.potential.GravityFieldFactory;
 import fr.cnes.sirius.patrius.forces.gravity.potential.PotentialCoefficientsProvider;
+import fr.cnes.sirius.patrius.forces.maneuvers.ContinuousThrustManeuver;
+import fr.cnes.sirius.patrius.forces.radiation.SolarRadiationPressure;
 import fr.cnes.sirius.patrius.frames.Frame;
 import fr.cnes.sirius.patrius.frames.FramesFactory;
 import fr.cnes.sirius.patrius.frames.LOFType;
+import fr.cnes.sirius.patrius.frames.transformations.Transform;
 import fr.cnes.sirius.patrius.math.TestUtils;
 import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Rotation;
 import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
@@ -2894,6 +2905,139 @@ public class NumericalPropagatorTest {
         }
     }
 
+    /**
+     * @testType UT
+     *
+     * @testedMethod {@link NumericalPropagator#setDerivativesStateReuse(boolean)}
+     *
+     * @description check that reusing the additional states storage during derivatives computation gives exactly
+     *              the same results as the default mode, for first and second order integrators
+     *
+     * @testPassCriteria orbit and additional states are strictly identical
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testDerivativesStateReuse() throws PatriusException {
+        final AbsoluteDate target = this.initDate.shiftedBy(1200.);
+        final SpacecraftState[] results = new SpacecraftState[2];
+        for (final boolean reuse : new boolean[] { false, true }) {
+            this.setUp();
+            this.propagator.addAdditionalEquations(new TemperatureAndMassEquationsLinear());
+            this.propagator.setInitialState(this.propagator.getInitialState().addAdditionalState(
+                TemperatureAndMassEquationsLinear.KEY, new double[] { 280., 1000. }));
+            Assert.assertFalse(this.propagator.isDerivativesStateReuse());
+            this.propagator.setDerivativesStateReuse(reuse);
+            Assert.assertEquals(reuse, this.propagator.isDerivativesStateReuse());
+            results[reuse ? 1 : 0] = this.propagator.propagate(target);
+        }
+
+        Assert.assertEquals(0., results[0].getDate().durationFrom(results[1].getDate()), 0.);
+        Assert.assertEquals(results[0].getPVCoordinates().getPosition(), results[1].getPVCoordinates().getPosition());
+        Assert.assertEquals(results[0].getPVCoordinates().getVelocity(), results[1].getPVCoordinates().getVelocity());
+        Assert.assertArrayEquals(results[0].getAdditionalState(TemperatureAndMassEquationsLinear.KEY),
+            results[1].getAdditionalState(TemperatureAndMassEquationsLinear.KEY), 0.);
+        Assert.assertEquals(results[0].getMass(DEFAULT), results[1].getMass(DEFAULT), 0.);
+        // Temperature has reached fusion and mass has been melting
+        Assert.assertTrue(results[1].getAdditionalState(TemperatureAndMassEquationsLinear.KEY)[1] < 1000.);
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedMethod {@link NumericalPropagator#setForceModelsParallelism(int)}
+     *
+     * @description check that the concurrent evaluation of the force models gives exactly the same results as the
+     *              sequential evaluation (including a maneuver, evaluated in the propagation thread, and force models
+     *              sharing the same spacecraft model), and that force models exceptions are properly propagated
+     *
+     * @testPassCriteria orbit and mass are strictly identical, force model exception is raised
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testForceModelsParallelism() throws PatriusException {
+        final AbsoluteDate target = this.initDate.shiftedBy(7200.);
+        final SpacecraftState[] results = new SpacecraftState[2];
+        final int[] parallelisms = { 1, 4 };
+        for (int i = 0; i < parallelisms.length; i++) {
+            // Spacecraft with a tank
+            final AssemblyBuilder builder = new AssemblyBuilder();
+            builder.addMainPart("BODY");
+            builder.addProperty(new MassProperty(900.), "BODY");
+            builder.addPart("TANK", "BODY", Transform.IDENTITY);
+            final TankProperty tank = new TankProperty(100.);
+            builder.addProperty(tank, "TANK");
+            final MassProvider massModel = new MassModel(builder.returnAssembly());
+            final AttitudeProvider attitudeProvider = new LofOffset(this.orbit.getFrame(), LOFType.LVLH);
+            final SpacecraftState initial = new SpacecraftState(this.orbit, attitudeProvider.getAttitude(this.orbit,
+                this.initDate, this.orbit.getFrame()), massModel);
+
+            final DormandPrince853Integrator dop = new DormandPrince853Integrator(0.001, 200, new double[] { 0.001,
+                1.0e-9, 1.0e-9, 1.0e-6, 1.0e-6, 1.0e-6 }, new double[] { 1.0e-7, 1.0e-4, 1.0e-4, 1.0e-7, 1.0e-7,
+                1.0e-7 });
+            dop.setInitialStepSize(60);
+            final NumericalPropagator numProp = new NumericalPropagator(dop, initial.getFrame());
+            Assert.assertEquals(1, numProp.getForceModelsParallelism());
+            numProp.setForceModelsParallelism(parallelisms[i]);
+            Assert.assertEquals(parallelisms[i], numProp.getForceModelsParallelism());
+            numProp.setInitialState(initial);
+            numProp.setAttitudeProvider(attitudeProvider);
+            numProp.setMassProviderEquation(massModel);
+            numProp.setAdditionalStateTolerance("MASS_TANK", new double[] { 0.01 }, new double[] { 1.0e-7 });
+
+            // Force models, drag and solar radiation pressure sharing the same spacecraft model
+            final OneAxisEllipsoid earth = new OneAxisEllipsoid(Utils.ae, 1.0 / 298.257222101,
+                FramesFactory.getITRF());
+            final SphericalSpacecraft spacecraft = new SphericalSpacecraft(10., 2.2, 0.5, 0.5, 0., "BODY");
+            final MeeusSun sun = new MeeusSun();
+            numProp.addForceModel(new DirectBodyAttraction(new NewtonianGravityModel(this.mu)));
+            numProp.addForceModel(new DragForce(new SimpleExponentialAtmosphere(earth, 0.0004, 42000.0, 7500.0),
+                spacecraft));
+            numProp.addForceModel(new SolarRadiationPressure(sun, earth.getEquatorialRadius(), spacecraft));
+            numProp.addForceModel(new ThirdBodyAttraction(sun.getGravityModel()));
+            numProp.addForceModel(new ThirdBodyAttraction(new MeeusMoon().getGravityModel()));
+            numProp.addForceModel(new ContinuousThrustManeuver(this.initDate.shiftedBy(600.), 1200.,
+                new PropulsiveProperty(10., 300.), Vector3D.PLUS_I, massModel, tank));
+            results[i] = numProp.propagate(target);
+        }
+
+        Assert.assertEquals(0., results[0].getDate().durationFrom(results[1].getDate()), 0.);
+        Assert.assertEquals(results[0].getPVCoordinates().getPosition(), results[1].getPVCoordinates().getPosition());
+        Assert.assertEquals(results[0].getPVCoordinates().getVelocity(), results[1].getPVCoordinates().getVelocity());
+        Assert.assertEquals(results[0].getMass("TANK"), results[1].getMass("TANK"), 0.);
+        // Maneuver has been performed
+        Assert.assertTrue(results[1].getMass("TANK") < 100.);
+
+        // Failing force model
+        this.setUp();
+        this.propagator.setForceModelsParallelism(2);
+        this.propagator.addForceModel(new DirectBodyAttraction(new NewtonianGravityModel(this.mu)) {
+            /** Serializable UID. */
+            private static final long serialVersionUID = 1L;
+
+            /** {@inheritDoc} */
+            @Override
+            public void addContribution(final SpacecraftState s,
+                                        final TimeDerivativesEquations adder) throws PatriusException {
+                if (s.getDate().durationFrom(NumericalPropagatorTest.this.initDate) > 100.) {
+                    throw new PatriusException(PatriusMessages.SIMPLE_MESSAGE, "failure");
+                }
+                super.addContribution(s, adder);
+            }
+        });
+        try {
+            this.propagator.propagate(target);
+            Assert.fail();
+        } catch (final PropagationException e) {
+            Assert.assertEquals("failure", e.getMessage());
+        }
+    }
+
     @Before
     public void setUp() throws PatriusException {
         Utils.setDataRoot("regular-data:potential/shm-format");
@@ -57,7 +57,9 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Assert;
@@ -85,8 +87,10 @@ import fr.cnes.sirius.patrius.bodies.JPLCelestialBodyLoader;
 import fr.cnes.sirius.patrius.bodies.OneAxisEllipsoid;
 import fr.cnes.sirius.patrius.events.EventDetector;
 import fr.cnes.sirius.patrius.events.EventDetector.Action;
+import fr.cnes.sirius.patrius.events.MultiEventDetector;
 import fr.cnes.sirius.patrius.events.detectors.DateDetector;
 import fr.cnes.sirius.patrius.events.detectors.NodeDetector;
+import fr.cnes.sirius.patrius.events.MultiAbstractDetector;
 import fr.cnes.sirius.patrius.events.sensor.SatToSatMutualVisibilityTest;
 import fr.cnes.sirius.patrius.forces.ForceModel;
 import fr.cnes.sirius.patrius.forces.SphericalSpacecraft;
@@ -2992,6 +2996,178 @@ public class MultiNumericalPropagatorTest {
         propagator.propagate(initDate.shiftedBy(3600 * 24));
     }
 
+    /**
+     * @throws PatriusException
+     * @testType UT
+     *
+     * @testedFeature {@link features#MULTI_SAT_PROPAGATION_INTEGRATOR}
+     *
+     * @testedMethod {@link MultiNumericalPropagator#setDecoupledIntegration(MultiNumericalPropagator.IntegratorBuilder, int)}
+     * @testedMethod {@link MultiNumericalPropagator#isDecoupledIntegration()}
+     * @testedMethod {@link MultiNumericalPropagator#propagate(AbsoluteDate)}
+     *
+     * @description Test the decoupled integration (one integrator per spacecraft) against the default coupled
+     *              integration, with single-sat and multi-sat detectors and a master mode step handler
+     *
+     * @input the two spacecraft of the default setting (mass equation for the first one, attitude provider for the
+     *        second one), a multi-sat detector and a fixed step handler
+     *
+     * @output final states, events dates and step handler dates
+     *
+     * @testPassCriteria decoupled and coupled integrations give the same results (tolerance: 1 mm on positions,
+     *                   1E-5 s on events dates, integration being performed with different step sizes), with one
+     *                   or two threads. Synchronizations do not change the decoupled integration results. A multi-sat
+     *                   STOP event stops all spacecraft at the event date. Ephemeris mode is not supported.
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testDecoupledIntegration() throws PatriusException {
+
+        // Reference: coupled integration
+        final List<AbsoluteDate> refEvents = new ArrayList<>();
+        final List<AbsoluteDate> refSteps = new ArrayList<>();
+        this.multiNumericalPropagator.addEventDetector(zCrossingDetector(refEvents, Action.CONTINUE));
+        this.multiNumericalPropagator.addEventDetector(myAscNodeDetector(Action.CONTINUE, STATE2), STATE2);
+        this.multiNumericalPropagator.setMasterMode(1000., datesRecorder(refSteps));
+        Assert.assertFalse(this.multiNumericalPropagator.isDecoupledIntegration());
+        final Map<String, SpacecraftState> refStates = this.multiNumericalPropagator.propagate(this.finalDate);
+        Assert.assertTrue(refEvents.size() > 2);
+
+        // Decoupled integration without synchronization
+        this.setUp();
+        this.multiNumericalPropagator.addEventDetector(myAscNodeDetector(Action.CONTINUE, STATE2), STATE2);
+        this.multiNumericalPropagator.setDecoupledIntegration(satId -> new DormandPrince853Integrator(0.001, 200.,
+            new double[] { 0.001, 1.0e-9, 1.0e-9, 1.0e-6, 1.0e-6, 1.0e-6 },
+            new double[] { 1.0e-7, 1.0e-4, 1.0e-4, 1.0e-7, 1.0e-7, 1.0e-7 }), 1);
+        final Map<String, SpacecraftState> unsyncStates = this.multiNumericalPropagator.propagate(this.finalDate);
+
+        for (final int nbThreads : new int[] { 1, 2 }) {
+            this.setUp();
+            final List<AbsoluteDate> events = new ArrayList<>();
+            final List<AbsoluteDate> steps = new ArrayList<>();
+            this.multiNumericalPropagator.addEventDetector(zCrossingDetector(events, Action.CONTINUE));
+            this.multiNumericalPropagator.addEventDetector(myAscNodeDetector(Action.CONTINUE, STATE2), STATE2);
+            this.multiNumericalPropagator.setMasterMode(1000., datesRecorder(steps));
+            this.multiNumericalPropagator.setDecoupledIntegration(satId -> new DormandPrince853Integrator(0.001, 200.,
+                new double[] { 0.001, 1.0e-9, 1.0e-9, 1.0e-6, 1.0e-6, 1.0e-6 },
+                new double[] { 1.0e-7, 1.0e-4, 1.0e-4, 1.0e-7, 1.0e-7, 1.0e-7 }), nbThreads);
+            Assert.assertTrue(this.multiNumericalPropagator.isDecoupledIntegration());
+            final Map<String, SpacecraftState> finalStates = this.multiNumericalPropagator.propagate(this.finalDate);
+
+            // Check final states
+            for (final String satId : new String[] { STATE1, STATE2 }) {
+                Assert.assertEquals(0., finalStates.get(satId).getDate().durationFrom(this.finalDate), 0.);
+                Assert.assertEquals(0., finalStates.get(satId).getPVCoordinates().getPosition()
+                    .distance(refStates.get(satId).getPVCoordinates().getPosition()), 1.e-3);
+            }
+            Assert.assertEquals(refStates.get(STATE1).getMass(DEFAULT), finalStates.get(STATE1).getMass(DEFAULT),
+                0.);
+            Assert.assertNotNull(finalStates.get(STATE2).getAttitude());
+
+            // Integrators are not restarted at synchronization dates
+            for (final String satId : new String[] { STATE1, STATE2 }) {
+                Assert.assertEquals(0., finalStates.get(satId).getPVCoordinates().getPosition()
+                    .distance(unsyncStates.get(satId).getPVCoordinates().getPosition()), 0.);
+            }
+
+            // Check events and steps
+            Assert.assertEquals(refEvents.size(), events.size());
+            for (int i = 0; i < refEvents.size(); i++) {
+                Assert.assertEquals(0., events.get(i).durationFrom(refEvents.get(i)), 1.e-5);
+            }
+            Assert.assertEquals(refSteps.size(), steps.size());
+            for (int i = 0; i < refSteps.size(); i++) {
+                Assert.assertEquals(0., steps.get(i).durationFrom(refSteps.get(i)), 0.);
+            }
+        }
+
+        // Multi-sat STOP event: all spacecraft are stopped at event date
+        this.setUp();
+        final List<AbsoluteDate> events = new ArrayList<>();
+        this.multiNumericalPropagator.addEventDetector(zCrossingDetector(events, Action.STOP));
+        this.multiNumericalPropagator.setDecoupledIntegration(satId -> new DormandPrince853Integrator(0.001, 200.,
+            1.e-3, 1.e-10), 2);
+        final Map<String, SpacecraftState> stopStates = this.multiNumericalPropagator.propagate(this.finalDate);
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(0., events.get(0).durationFrom(refEvents.get(0)), 1.e-5);
+        Assert.assertEquals(0., stopStates.get(STATE1).getDate().durationFrom(events.get(0)), 0.);
+        Assert.assertEquals(0., stopStates.get(STATE2).getDate().durationFrom(events.get(0)), 0.);
+
+        // Ephemeris mode is not supported
+        this.setUp();
+        this.multiNumericalPropagator.setEphemerisMode();
+        this.multiNumericalPropagator.setDecoupledIntegration(satId -> new DormandPrince853Integrator(0.001, 200.,
+            1.e-3, 1.e-10), 1);
+        try {
+            this.multiNumericalPropagator.propagate(this.finalDate);
+            Assert.fail();
+        } catch (final PropagationException e) {
+            Assert.assertEquals(PatriusMessages.DECOUPLED_PROPAGATION_UNSUPPORTED, e.getSpecifier());
+        }
+    }
+
+    /**
+     * Fixed step handler storing the steps dates.
+     *
+     * @param dates list in which steps dates are stored
+     * @return fixed step handler
+     */
+    private static MultiPatriusFixedStepHandler datesRecorder(final List<AbsoluteDate> dates) {
+        return new MultiPatriusFixedStepHandler(){
+
+            /** Serializable UID. */
+            private static final long serialVersionUID = 3474390236451085215L;
+
+            /** {@inheritDoc} */
+            @Override
+            public void init(final Map<String, SpacecraftState> s0, final AbsoluteDate t) {
+                // nothing to do
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public void handleStep(final Map<String, SpacecraftState> currentStates, final boolean isLast) {
+                dates.add(currentStates.get(STATE1).getDate());
+            }
+        };
+    }
+
+    /**
+     * Multi-sat detector of the crossings of the z coordinates of the two spacecraft.
+     *
+     * @param dates list in which events dates are stored
+     * @param action action at event occurrence
+     * @return multi-sat detector
+     */
+    private static MultiAbstractDetector zCrossingDetector(final List<AbsoluteDate> dates, final Action action) {
+        return new MultiAbstractDetector(MultiEventDetector.INCREASING_DECREASING, 300., 1.e-6){
+
+            /** {@inheritDoc} */
+            @Override
+            public double g(final Map<String, SpacecraftState> s) throws PatriusException {
+                return s.get(STATE1).getPVCoordinates().getPosition().getZ()
+                        - s.get(STATE2).getPVCoordinates().getPosition().getZ();
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public Action eventOccurred(final Map<String, SpacecraftState> s, final boolean increasing,
+                                        final boolean forward) {
+                dates.add(s.get(STATE1).getDate());
+                return action;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public boolean shouldBeRemoved() {
+                return false;
+            }
+        };
+    }
+
     /**
      * Initializations
      *
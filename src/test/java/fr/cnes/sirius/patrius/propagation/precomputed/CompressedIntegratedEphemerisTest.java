@@ -0,0 +1,329 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.propagation.precomputed;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.Utils;
+import fr.cnes.sirius.patrius.attitudes.LofOffset;
+import fr.cnes.sirius.patrius.events.EventDetector.Action;
+import fr.cnes.sirius.patrius.events.detectors.ApsideDetector;
+import fr.cnes.sirius.patrius.events.detectors.DateDetector;
+import fr.cnes.sirius.patrius.events.postprocessing.EventsLogger;
+import fr.cnes.sirius.patrius.events.postprocessing.EventsLogger.LoggedEvent;
+import fr.cnes.sirius.patrius.forces.gravity.DirectBodyAttraction;
+import fr.cnes.sirius.patrius.forces.gravity.NewtonianGravityModel;
+import fr.cnes.sirius.patrius.forces.maneuvers.ImpulseManeuver;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.frames.LOFType;
+import fr.cnes.sirius.patrius.math.TestUtils;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.math.ode.nonstiff.DormandPrince853Integrator;
+import fr.cnes.sirius.patrius.orbits.EquinoctialOrbit;
+import fr.cnes.sirius.patrius.orbits.Orbit;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.propagation.BoundedPropagator;
+import fr.cnes.sirius.patrius.propagation.MassProvider;
+import fr.cnes.sirius.patrius.propagation.SimpleMassModel;
+import fr.cnes.sirius.patrius.propagation.SpacecraftState;
+import fr.cnes.sirius.patrius.propagation.numerical.NumericalPropagator;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.utils.Constants;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+import fr.cnes.sirius.patrius.utils.exception.PropagationException;
+
+/**
+ * Unit tests for {@link CompressedIntegratedEphemeris}.
+ *
+ * @since 4.14
+ */
+public class CompressedIntegratedEphemerisTest {
+
+    /** Features description. */
+    enum features {
+        /**
+         * @featureTitle Compressed integrated ephemeris
+         *
+         * @featureDescription Chebyshev compression and memory-mapped persistence of integrated ephemerides
+         *
+         * @coveredRequirements NA
+         */
+        COMPRESSED_EPHEMERIS
+    }
+
+    /** Compression tolerance (m). */
+    private static final double TOLERANCE = 1.0e-3;
+
+    /** Initial orbit. */
+    private Orbit initialOrbit;
+
+    /** Mass model. */
+    private MassProvider massModel;
+
+    /** Numerical propagator. */
+    private NumericalPropagator propagator;
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#COMPRESSED_EPHEMERIS}
+     *
+     * @testedMethod {@link IntegratedEphemeris#compress(double)}
+     * @testedMethod {@link CompressedIntegratedEphemeris#getSpacecraftState(AbsoluteDate)}
+     *
+     * @description compress a one day LEO ephemeris and compare it with the original ephemeris
+     *
+     * @testPassCriteria position error lower than tolerance, additional states and range preserved, far fewer
+     *                   coefficients than steps
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testCompression() throws PatriusException {
+        final IntegratedEphemeris ephemeris = this.buildEphemeris(Constants.JULIAN_DAY);
+        final CompressedIntegratedEphemeris compressed = ephemeris.compress(TOLERANCE);
+
+        Assert.assertEquals(CompressedIntegratedEphemeris.DEFAULT_DEGREE, compressed.getDegree());
+        Assert.assertEquals(0., compressed.getMinDate().durationFrom(ephemeris.getMinDate()), 0.);
+        Assert.assertEquals(0., compressed.getMaxDate().durationFrom(ephemeris.getMaxDate()), 0.);
+        // About 15 revolutions: a few segments per revolution
+        Assert.assertTrue(compressed.getSegmentsNumber() < 200);
+
+        for (double dt = 0; dt <= Constants.JULIAN_DAY; dt += 17.) {
+            final AbsoluteDate date = this.initialOrbit.getDate().shiftedBy(dt);
+            final SpacecraftState expected = ephemeris.getSpacecraftState(date);
+            final SpacecraftState actual = compressed.getSpacecraftState(date);
+            Assert.assertEquals(0., expected.getPVCoordinates().getPosition()
+                .distance(actual.getPVCoordinates().getPosition()), TOLERANCE);
+            Assert.assertEquals(expected.getMass("part"), actual.getMass("part"), TOLERANCE);
+            Assert.assertNotNull(actual.getAttitude());
+        }
+        Assert.assertEquals(0., ephemeris.getInitialState().getPVCoordinates().getPosition()
+            .distance(compressed.getInitialState().getPVCoordinates().getPosition()), TOLERANCE);
+
+        // Out of range
+        try {
+            compressed.getSpacecraftState(compressed.getMaxDate().shiftedBy(1.));
+            Assert.fail();
+        } catch (final PropagationException e) {
+            // expected
+        }
+        try {
+            compressed.resetInitialState(ephemeris.getInitialState());
+            Assert.fail();
+        } catch (final PropagationException e) {
+            // expected
+        }
+
+        // Tighter tolerance and lower degree: more segments
+        final CompressedIntegratedEphemeris compressed2 = new CompressedIntegratedEphemeris(ephemeris, 1.0e-4, 8);
+        Assert.assertEquals(8, compressed2.getDegree());
+        Assert.assertTrue(compressed2.getSegmentsNumber() > compressed.getSegmentsNumber());
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#COMPRESSED_EPHEMERIS}
+     *
+     * @testedMethod {@link CompressedIntegratedEphemeris#write(File)}
+     * @testedMethod {@link CompressedIntegratedEphemeris#load(File, fr.cnes.sirius.patrius.frames.Frame,
+     *               fr.cnes.sirius.patrius.attitudes.AttitudeProvider)}
+     *
+     * @description write a compressed ephemeris to a file, memory-map it, and serialize it
+     *
+     * @testPassCriteria loaded and deserialized ephemerides give exactly the same states, corrupted files are
+     *                   rejected, as well as a non pseudo-inertial frame
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testPersistence() throws PatriusException, IOException {
+        final CompressedIntegratedEphemeris compressed = this.buildEphemeris(6 * 3600.).compress(TOLERANCE);
+
+        final File file = File.createTempFile("compressedEphemeris", ".bin");
+        file.deleteOnExit();
+        compressed.write(file);
+        final CompressedIntegratedEphemeris loaded = CompressedIntegratedEphemeris.load(file,
+            FramesFactory.getEME2000(), new LofOffset(FramesFactory.getEME2000(), LOFType.LVLH));
+        final CompressedIntegratedEphemeris deserialized = TestUtils.serializeAndRecover(compressed);
+
+        Assert.assertEquals(compressed.getSegmentsNumber(), loaded.getSegmentsNumber());
+        Assert.assertEquals(compressed.getDegree(), loaded.getDegree());
+        Assert.assertEquals(0., compressed.getMinDate().durationFrom(loaded.getMinDate()), 0.);
+        Assert.assertEquals(0., compressed.getMaxDate().durationFrom(loaded.getMaxDate()), 0.);
+        for (double dt = 0; dt <= 6 * 3600.; dt += 60.) {
+            final AbsoluteDate date = this.initialOrbit.getDate().shiftedBy(dt);
+            final SpacecraftState expected = compressed.getSpacecraftState(date);
+            for (final CompressedIntegratedEphemeris other : new CompressedIntegratedEphemeris[] { loaded,
+                deserialized }) {
+                final SpacecraftState actual = other.getSpacecraftState(date);
+                Assert.assertEquals(expected.getPVCoordinates().getPosition(), actual.getPVCoordinates().getPosition());
+                Assert.assertEquals(expected.getPVCoordinates().getVelocity(), actual.getPVCoordinates().getVelocity());
+                Assert.assertEquals(expected.getMass("part"), actual.getMass("part"), 0.);
+            }
+        }
+
+        // Not pseudo-inertial frame
+        try {
+            CompressedIntegratedEphemeris.load(file, FramesFactory.getITRF(), null);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            // expected
+        }
+
+        // Truncated file
+        final byte[] content = Files.readAllBytes(file.toPath());
+        final File truncated = File.createTempFile("compressedEphemeris", ".bin");
+        truncated.deleteOnExit();
+        Files.write(truncated.toPath(), Arrays.copyOf(content, content.length - 8));
+        try {
+            CompressedIntegratedEphemeris.load(truncated, FramesFactory.getEME2000(), null);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            // expected
+        }
+        // Not an ephemeris file
+        Files.write(truncated.toPath(), new byte[] { 1, 2, 3 });
+        try {
+            CompressedIntegratedEphemeris.load(truncated, FramesFactory.getEME2000(), null);
+            Assert.fail();
+        } catch (final PatriusException e) {
+            // expected
+        }
+    }
+
+    /**
+     * @testType UT
+     *
+     * @testedFeature {@link features#COMPRESSED_EPHEMERIS}
+     *
+     * @testedMethod {@link CompressedIntegratedEphemeris#propagate(AbsoluteDate)}
+     *
+     * @description compress an ephemeris including an impulse maneuver and detect apsides on both ephemerides
+     *
+     * @testPassCriteria maneuver discontinuity is isolated, same events are detected
+     *
+     * @referenceVersion 4.14
+     *
+     * @nonRegressionVersion 4.14
+     */
+    @Test
+    public void testEventsAndDiscontinuity() throws PatriusException {
+        final AbsoluteDate maneuverDate = this.initialOrbit.getDate().shiftedBy(2000.);
+        this.propagator.addEventDetector(new ImpulseManeuver(new DateDetector(maneuverDate), new Vector3D(10., 0.,
+            0.), 300., this.massModel, "part"));
+        final IntegratedEphemeris ephemeris = this.buildEphemeris(4 * 3600.);
+        final CompressedIntegratedEphemeris compressed = ephemeris.compress(TOLERANCE);
+
+        // Maneuver is preserved
+        for (final double dt : new double[] { -1., 1. }) {
+            final AbsoluteDate date = maneuverDate.shiftedBy(dt);
+            Assert.assertEquals(0., ephemeris.getSpacecraftState(date).getPVCoordinates().getVelocity()
+                .distance(compressed.getSpacecraftState(date).getPVCoordinates().getVelocity()), 1.0e-3);
+            Assert.assertEquals(0., ephemeris.getSpacecraftState(date).getPVCoordinates().getPosition()
+                .distance(compressed.getSpacecraftState(date).getPVCoordinates().getPosition()), TOLERANCE);
+        }
+        Assert.assertTrue(compressed.getSpacecraftState(maneuverDate.shiftedBy(1.)).getMass("part") < 1000.);
+
+        // Events
+        final List<LoggedEvent> expected = logApsides(ephemeris);
+        final List<LoggedEvent> actual = logApsides(compressed);
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(0., expected.get(i).getState().getDate()
+                .durationFrom(actual.get(i).getState().getDate()), 1.0e-2);
+        }
+    }
+
+    /**
+     * Log apsides on a bounded propagator.
+     *
+     * @param ephemeris
+     *        ephemeris
+     * @return logged events
+     * @throws PropagationException
+     *         if propagation fails
+     */
+    private static List<LoggedEvent> logApsides(final BoundedPropagator ephemeris)
+        throws PropagationException {
+        final EventsLogger logger = new EventsLogger();
+        ephemeris.addEventDetector(logger.monitorDetector(new ApsideDetector(600., 1.0e-6, Action.CONTINUE,
+            Action.CONTINUE)));
+        ephemeris.propagate(ephemeris.getMinDate(), ephemeris.getMaxDate());
+        return logger.getLoggedEvents();
+    }
+
+    /**
+     * Propagate the initial orbit in ephemeris mode.
+     *
+     * @param duration
+     *        propagation duration
+     * @return the generated ephemeris
+     * @throws PatriusException
+     *         if propagation fails
+     */
+    private IntegratedEphemeris buildEphemeris(final double duration) throws PatriusException {
+        this.propagator.setEphemerisMode();
+        this.propagator.propagate(this.initialOrbit.getDate().shiftedBy(duration));
+        return (IntegratedEphemeris) this.propagator.getGeneratedEphemeris();
+    }
+
+    /**
+     * Set up.
+     *
+     * @throws PatriusException
+     *         if data cannot be loaded
+     */
+    @Before
+    public void setUp() throws PatriusException {
+        Utils.setDataRoot("regular-data");
+        FramesFactory.setConfiguration(Utils.getIERS2003ConfigurationWOEOP(true));
+        final double mu = 3.9860047e14;
+        this.initialOrbit = new EquinoctialOrbit(new PVCoordinates(new Vector3D(7.0e6, 1.0e6, 4.0e6), new Vector3D(
+            -500.0, 8000.0, 1000.0)), FramesFactory.getEME2000(), AbsoluteDate.J2000_EPOCH.shiftedBy(584.), mu);
+
+        final double[] absTolerance = { 0.0001, 1.0e-11, 1.0e-11, 1.0e-8, 1.0e-8, 1.0e-8 };
+        final double[] relTolerance = { 1.0e-8, 1.0e-8, 1.0e-8, 1.0e-9, 1.0e-9, 1.0e-9 };
+        final DormandPrince853Integrator integrator = new DormandPrince853Integrator(0.001, 500, absTolerance,
+            relTolerance);
+        integrator.setInitialStepSize(100);
+
+        this.massModel = new SimpleMassModel(1000., "part");
+        this.propagator = new NumericalPropagator(integrator, this.initialOrbit.getFrame());
+        this.propagator.setInitialState(new SpacecraftState(this.initialOrbit, this.massModel));
+        this.propagator.setMassProviderEquation(this.massModel);
+        this.propagator.setAttitudeProvider(new LofOffset(this.initialOrbit.getFrame(), LOFType.LVLH));
+        this.propagator.addForceModel(new DirectBodyAttraction(new NewtonianGravityModel(mu)));
+    }
+}
@@ -175,7 +175,7 @@ public class PVEphemerisTest {
         }
 
         // Evaluate the cache reusability ratio value (non regression)
-        Assert.assertEquals(0.9776357827476039, pvEphemeris.getCacheReusabilityRatio(), 0.);
+        Assert.assertEquals(0.9800319488817891, pvEphemeris.getCacheReusabilityRatio(), 0.);
 
         // Evaluate the getPVCoordinates(AbsoluteDate, Frame) method with a frame transformation
         final AbsoluteDate date = initialDate.shiftedBy(153.);
@@ -0,0 +1,206 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.time;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.Utils;
+import fr.cnes.sirius.patrius.frames.FramesFactory;
+import fr.cnes.sirius.patrius.math.TestUtils;
+import fr.cnes.sirius.patrius.math.geometry.euclidean.threed.Vector3D;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.EphemerisPvHermite;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.EphemerisPvLagrange;
+import fr.cnes.sirius.patrius.orbits.pvcoordinates.PVCoordinates;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Test class for {@link AbsoluteDateArray}.
+ *
+ * @since 4.14
+ */
+public class AbsoluteDateArrayTest {
+
+    /** UTC time scale. */
+    private TimeScale utc;
+
+    /**
+     * Check dates, durations and shifts are exactly the ones of {@link AbsoluteDate}.
+     */
+    @Test
+    public void testConsistencyWithDates() {
+        final Random random = new Random(0x2c6a9f31e8d4b705L);
+        final List<AbsoluteDate> dates = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            dates.add(AbsoluteDate.J2000_EPOCH.shiftedBy((2 * random.nextDouble() - 1) * 1.e9));
+        }
+        final AbsoluteDateArray array = new AbsoluteDateArray(dates);
+        Assert.assertEquals(dates.size(), array.size());
+        Assert.assertEquals(dates, array.toList());
+        Assert.assertArrayEquals(dates.toArray(), array.toArray());
+
+        final AbsoluteDate instant = new AbsoluteDate(2010, 3, 5, 1, 2, 3.456, this.utc);
+        final double[] durations = array.durationFrom(instant);
+        final double[] offsets = array.offsetFrom(instant, this.utc);
+        final TimeScale tt = TimeScalesFactory.getTT();
+        final TimeScale tdb = TimeScalesFactory.getTDB();
+        final double[] offsetsTT = array.offsetFrom(instant, tt);
+        final double[] offsetsTDB = array.offsetFrom(instant, tdb);
+        final double dt = 1234.56789;
+        final AbsoluteDateArray shifted = array.shiftedBy(dt);
+        int i = 0;
+        for (final AbsoluteDate date : array) {
+            Assert.assertEquals(dates.get(i), date);
+            Assert.assertEquals(date.getEpoch(), array.getEpoch(i));
+            Assert.assertEquals(date.getOffset(), array.getOffset(i), 0.);
+            Assert.assertEquals(date.durationFrom(instant), durations[i], 0.);
+            Assert.assertEquals(date.durationFrom(instant), array.durationFrom(i, instant), 0.);
+            Assert.assertEquals(date.offsetFrom(instant, this.utc), offsets[i], 0.);
+            Assert.assertEquals(date.offsetFrom(instant, tt), offsetsTT[i], 0.);
+            Assert.assertEquals(date.offsetFrom(instant, tdb), offsetsTDB[i], 0.);
+            final AbsoluteDate expected = date.shiftedBy(dt);
+            Assert.assertEquals(expected.getEpoch(), shifted.getEpoch(i));
+            Assert.assertEquals(expected.getOffset(), shifted.getOffset(i), 0.);
+            i++;
+        }
+        Assert.assertEquals(dates.size(), i);
+
+        Assert.assertEquals(array, new AbsoluteDateArray(dates.toArray(new AbsoluteDate[0])));
+        Assert.assertEquals(array.hashCode(), new AbsoluteDateArray(dates).hashCode());
+        Assert.assertFalse(array.equals(shifted));
+        Assert.assertFalse(array.equals(dates));
+        Assert.assertEquals(array, TestUtils.serializeAndRecover(array));
+    }
+
+    /**
+     * Check regular grids and searches.
+     */
+    @Test
+    public void testGridAndSearch() {
+        final AbsoluteDate start = new AbsoluteDate(2005, 12, 31, 23, 59, 0., this.utc);
+        final double step = 0.125;
+        final int n = 10001;
+        final AbsoluteDateArray grid = AbsoluteDateArray.fromStep(start, step, n);
+        Assert.assertEquals(n, grid.size());
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(start.shiftedBy(i * step), grid.get(i));
+        }
+        // leap second at the end of 2005: 61 seconds elapsed but apparent offset is 60 seconds
+        final AbsoluteDate endOfDay = new AbsoluteDate(2006, 1, 1, 0, 0, 0., this.utc);
+        Assert.assertEquals(488, grid.binarySearch(endOfDay));
+        Assert.assertEquals(60., grid.offsetFrom(start, this.utc)[488], 0.);
+
+        // searches
+        Assert.assertEquals(0, grid.binarySearch(start));
+        Assert.assertEquals(n - 1, grid.binarySearch(grid.get(n - 1)));
+        Assert.assertEquals(-1, grid.binarySearch(start.shiftedBy(-1.e-3)));
+        Assert.assertEquals(-1, grid.floorIndex(start.shiftedBy(-1.e-3)));
+        Assert.assertEquals(-n - 1, grid.binarySearch(start.shiftedBy(1.e4)));
+        Assert.assertEquals(n - 1, grid.floorIndex(start.shiftedBy(1.e4)));
+        Assert.assertEquals(-43, grid.binarySearch(grid.get(41).shiftedBy(0.0625)));
+        Assert.assertEquals(41, grid.floorIndex(grid.get(41).shiftedBy(0.0625)));
+        Assert.assertEquals(-1, new AbsoluteDateArray().binarySearch(start));
+
+        // decreasing grid
+        final AbsoluteDateArray backward = AbsoluteDateArray.fromStep(start, -step, 3);
+        Assert.assertEquals(start.shiftedBy(-2 * step), backward.get(2));
+
+        // iterator end
+        final Iterator<AbsoluteDate> iterator = new AbsoluteDateArray(start).iterator();
+        iterator.next();
+        Assert.assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            Assert.fail();
+        } catch (final NoSuchElementException e) {
+            // expected
+        }
+
+        // wrong inputs
+        for (final double wrongStep : new double[] { Double.NaN, Double.POSITIVE_INFINITY }) {
+            try {
+                AbsoluteDateArray.fromStep(start, wrongStep, n);
+                Assert.fail();
+            } catch (final IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            AbsoluteDateArray.fromStep(start, step, -1);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Check ephemerides built from a dates array are the same as those built from dates.
+     *
+     * @throws PatriusException
+     *         if interpolation fails
+     */
+    @Test
+    public void testEphemeris() throws PatriusException {
+        final AbsoluteDateArray grid = AbsoluteDateArray.fromStep(AbsoluteDate.J2000_EPOCH, 60., 20);
+        final PVCoordinates[] pv = new PVCoordinates[grid.size()];
+        final Vector3D[] acc = new Vector3D[grid.size()];
+        for (int i = 0; i < pv.length; i++) {
+            final double t = i * 60.;
+            pv[i] = new PVCoordinates(new Vector3D(7.e6 + t, t * t, -t), new Vector3D(1., 2 * t, -1.));
+            acc[i] = new Vector3D(0., 2., 0.);
+        }
+        final AbsoluteDate[] dates = grid.toArray();
+        final AbsoluteDate date = AbsoluteDate.J2000_EPOCH.shiftedBy(512.3);
+
+        final EphemerisPvLagrange lagrange =
+            new EphemerisPvLagrange(pv, 8, FramesFactory.getGCRF(), grid, null);
+        final EphemerisPvLagrange lagrangeRef =
+            new EphemerisPvLagrange(pv, 8, FramesFactory.getGCRF(), dates, null);
+        Assert.assertEquals(lagrangeRef.getPVCoordinates(date, FramesFactory.getGCRF()),
+            lagrange.getPVCoordinates(date, FramesFactory.getGCRF()));
+
+        final EphemerisPvHermite hermite =
+            new EphemerisPvHermite(pv, 4, acc, FramesFactory.getGCRF(), grid, null);
+        final EphemerisPvHermite hermiteRef =
+            new EphemerisPvHermite(pv, 4, acc, FramesFactory.getGCRF(), dates, null);
+        Assert.assertEquals(hermiteRef.getPVCoordinates(date, FramesFactory.getGCRF()),
+            hermite.getPVCoordinates(date, FramesFactory.getGCRF()));
+        Assert.assertEquals(dates[0], hermite.getDateRef());
+    }
+
+    /**
+     * Set up.
+     *
+     * @throws PatriusException
+     *         if UTC scale cannot be loaded
+     */
+    @Before
+    public void setUp() throws PatriusException {
+        Utils.setDataRoot("regular-data");
+        this.utc = TimeScalesFactory.getUTC();
+    }
+}
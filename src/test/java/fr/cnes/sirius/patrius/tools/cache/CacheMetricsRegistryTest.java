@@ -0,0 +1,265 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.tools.cache;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.math.TestUtils;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.TimeStampedCache;
+import fr.cnes.sirius.patrius.time.TimeStampedGenerator;
+import fr.cnes.sirius.patrius.utils.exception.PatriusException;
+
+/**
+ * Unit test class for the {@link CacheMetricsRegistry} class.
+ *
+ * @since 4.14
+ */
+public class CacheMetricsRegistryTest {
+
+    /** Step of the generated dates (s). */
+    private static final double STEP = 60.;
+
+    /**
+     * @description Check the counters reported by {@link FIFOThreadSafeCache} instances sharing the same name.
+     *
+     * @testedMethod {@link FIFOThreadSafeCache#FIFOThreadSafeCache(int, String)}
+     * @testedMethod {@link CacheMetricsRegistry#getMetrics(String)}
+     * @testedMethod {@link CacheMetricsRegistry#getAllMetrics()}
+     *
+     * @testPassCriteria hits, misses, evictions and generations are aggregated over the instances
+     */
+    @Test
+    public void testFIFOCache() {
+        final String name = "test.fifo";
+        final FIFOThreadSafeCache<Integer, Integer> cache1 = new FIFOThreadSafeCache<>(2, name);
+        final FIFOThreadSafeCache<Integer, Integer> cache2 = new FIFOThreadSafeCache<>(2, name);
+        final CacheMetrics metrics = CacheMetricsRegistry.getMetrics(name);
+        metrics.reset();
+        Assert.assertEquals(name, metrics.getName());
+        Assert.assertTrue(Double.isNaN(metrics.getHitRatio()));
+
+        // 3 keys in a cache of size 2: 3 misses, 1 eviction, then 1 hit
+        for (final int key : new int[] { 1, 2, 3, 3 }) {
+            Assert.assertEquals(key, cache1.computeIfAbsent(key, () -> new CacheEntry<>(key, key)).getValue()
+                .intValue());
+        }
+        cache2.computeIfAbsent(1, () -> new CacheEntry<>(1, 1));
+        cache2.computeIfAbsent(1, () -> new CacheEntry<>(1, 1));
+
+        Assert.assertEquals(2, metrics.getHits());
+        Assert.assertEquals(4, metrics.getMisses());
+        Assert.assertEquals(1. / 3., metrics.getHitRatio(), 0.);
+        Assert.assertEquals(1, metrics.getEvictions());
+        Assert.assertEquals(4, metrics.getGenerations());
+        Assert.assertTrue(metrics.getGenerationTime() >= 0.);
+        Assert.assertSame(metrics, CacheMetricsRegistry.getAllMetrics().get(name));
+        Assert.assertTrue(metrics.toString().startsWith(name + ": 2 hits, 4 misses"));
+
+        // Deserialized caches report to the same metrics
+        final FIFOThreadSafeCache<Integer, Integer> cache3 = TestUtils.serializeAndRecover(cache1);
+        cache3.computeIfAbsent(1, () -> new CacheEntry<>(1, 1));
+        Assert.assertEquals(5, metrics.getMisses());
+
+        // Unnamed caches do not report
+        final int nbMetrics = CacheMetricsRegistry.getAllMetrics().size();
+        new FIFOThreadSafeCache<Integer, Integer>(2).computeIfAbsent(1, () -> new CacheEntry<>(1, 1));
+        Assert.assertEquals(nbMetrics, CacheMetricsRegistry.getAllMetrics().size());
+
+        CacheMetricsRegistry.resetAll();
+        Assert.assertEquals(0, metrics.getHits());
+        Assert.assertEquals(0, metrics.getMisses());
+        Assert.assertEquals(0, metrics.getEvictions());
+        Assert.assertEquals(0, metrics.getGenerations());
+        Assert.assertEquals(0., metrics.getGenerationTime(), 0.);
+    }
+
+    /**
+     * @description Check the counters reported by a {@link TimeStampedCache}.
+     *
+     * @testedMethod {@link TimeStampedCache#TimeStampedCache(String, int, int, double, double, TimeStampedGenerator,
+     *               Class)}
+     *
+     * @testPassCriteria a request served without generation is a hit, a slot eviction is reported
+     *
+     * @throws PatriusException
+     *         if data cannot be generated
+     */
+    @Test
+    public void testTimeStampedCache() throws PatriusException {
+        final String name = "test.timeStamped";
+        final TimeStampedCache<AbsoluteDate> cache = new TimeStampedCache<>(name, 4, 1, Double.POSITIVE_INFINITY,
+            STEP * 100, new Generator(), AbsoluteDate.class);
+        final CacheMetrics metrics = CacheMetricsRegistry.getMetrics(name);
+        metrics.reset();
+
+        final AbsoluteDate date = AbsoluteDate.J2000_EPOCH.shiftedBy(1000.);
+        cache.getNeighbors(date);
+        Assert.assertEquals(0, metrics.getHits());
+        Assert.assertEquals(1, metrics.getMisses());
+        Assert.assertEquals(cache.getGenerateCalls(), metrics.getGenerations());
+
+        cache.getNeighbors(date.shiftedBy(STEP / 2));
+        cache.getNeighbors(date);
+        Assert.assertEquals(2, metrics.getHits());
+        Assert.assertEquals(1, metrics.getMisses());
+
+        // far date with a single slot: the slot is evicted
+        cache.getNeighbors(date.shiftedBy(1.e6));
+        Assert.assertEquals(2, metrics.getMisses());
+        Assert.assertEquals(1, metrics.getEvictions());
+        Assert.assertEquals(cache.getSlotsEvictions(), metrics.getEvictions());
+        Assert.assertEquals(cache.getGenerateCalls(), metrics.getGenerations());
+    }
+
+    /**
+     * @description Check the metrics are exported in the platform MBean server.
+     *
+     * @testedMethod {@link CacheMetricsRegistry#registerMBeans()}
+     * @testedMethod {@link CacheMetricsRegistry#unregisterMBeans()}
+     *
+     * @testPassCriteria metrics registered before and after the export are readable through JMX, and removed after
+     *                   unregistration
+     *
+     * @throws PatriusException
+     *         if metrics cannot be exported
+     * @throws JMException
+     *         if JMX attributes cannot be read
+     */
+    @Test
+    public void testJMX() throws PatriusException, JMException {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final CacheMetrics before = CacheMetricsRegistry.getMetrics("test.jmx.before");
+        before.reset();
+        before.recordHit();
+        try {
+            CacheMetricsRegistry.registerMBeans();
+            // registering twice is harmless
+            CacheMetricsRegistry.registerMBeans();
+            final CacheMetrics after = CacheMetricsRegistry.getMetrics("test.jmx:after");
+            after.reset();
+            after.recordMiss();
+            after.recordEvictions(3);
+
+            Assert.assertEquals(1L, server.getAttribute(CacheMetricsRegistry.objectName("test.jmx.before"), "Hits"));
+            Assert.assertEquals(1L, server.getAttribute(CacheMetricsRegistry.objectName("test.jmx:after"), "Misses"));
+            Assert.assertEquals(3L,
+                server.getAttribute(CacheMetricsRegistry.objectName("test.jmx:after"), "Evictions"));
+            Assert.assertEquals(0.,
+                server.getAttribute(CacheMetricsRegistry.objectName("test.jmx:after"), "HitRatio"));
+            server.invoke(CacheMetricsRegistry.objectName("test.jmx:after"), "reset", null, null);
+            Assert.assertEquals(0, after.getMisses());
+        } finally {
+            CacheMetricsRegistry.unregisterMBeans();
+        }
+        Assert.assertFalse(server.isRegistered(CacheMetricsRegistry.objectName("test.jmx.before")));
+        CacheMetricsRegistry.getMetrics("test.jmx.later");
+        Assert.assertFalse(server.isRegistered(CacheMetricsRegistry.objectName("test.jmx.later")));
+    }
+
+    /**
+     * @description Check that disabled metrics are neither created nor updated.
+     *
+     * @testedMethod {@link CacheMetricsRegistry#setEnabled(boolean)}
+     * @testedMethod {@link CacheMetricsRegistry#isEnabled()}
+     *
+     * @testPassCriteria metrics are null while disabled, and caches built while metrics were disabled report once they
+     *                   are enabled
+     */
+    @Test
+    public void testDisabled() {
+        final String name = "test.disabled";
+        CacheMetricsRegistry.setEnabled(false);
+        Assert.assertFalse(CacheMetricsRegistry.isEnabled());
+        Assert.assertNull(CacheMetricsRegistry.getMetrics(name));
+        final FIFOThreadSafeCache<Integer, Integer> cache = new FIFOThreadSafeCache<>(2, name);
+        cache.computeIfAbsent(1, () -> new CacheEntry<>(1, 1));
+        Assert.assertFalse(CacheMetricsRegistry.getAllMetrics().containsKey(name));
+
+        CacheMetricsRegistry.setEnabled(true);
+        Assert.assertTrue(CacheMetricsRegistry.isEnabled());
+        cache.computeIfAbsent(1, () -> new CacheEntry<>(1, 1));
+        final CacheMetrics metrics = CacheMetricsRegistry.getMetrics(name);
+        Assert.assertEquals(1, metrics.getHits());
+        Assert.assertEquals(0, metrics.getMisses());
+
+        // Disabling keeps the collected metrics
+        CacheMetricsRegistry.setEnabled(false);
+        cache.computeIfAbsent(1, () -> new CacheEntry<>(1, 1));
+        Assert.assertEquals(1, metrics.getHits());
+        Assert.assertSame(metrics, CacheMetricsRegistry.getAllMetrics().get(name));
+    }
+
+    /**
+     * Enable the cache metrics.
+     */
+    @Before
+    public void setUp() {
+        CacheMetricsRegistry.setEnabled(true);
+    }
+
+    /**
+     * Restore the default state of the cache metrics.
+     */
+    @After
+    public void tearDown() {
+        CacheMetricsRegistry.setEnabled(false);
+    }
+
+    /** Generator of dates on a regular grid. */
+    private static class Generator implements TimeStampedGenerator<AbsoluteDate> {
+
+        /** Serializable UID. */
+        private static final long serialVersionUID = 4207218262003409513L;
+
+        /** {@inheritDoc} */
+        @Override
+        public List<AbsoluteDate> generate(final AbsoluteDate existing, final AbsoluteDate date) {
+            final List<AbsoluteDate> dates = new ArrayList<>();
+            final double t = date.durationFrom(AbsoluteDate.J2000_EPOCH);
+            if (existing == null) {
+                dates.add(AbsoluteDate.J2000_EPOCH.shiftedBy(MathLib.floor(t / STEP) * STEP));
+            } else {
+                final double t0 = existing.durationFrom(AbsoluteDate.J2000_EPOCH);
+                if (t > t0) {
+                    for (double s = t0 + STEP; s < t + STEP; s += STEP) {
+                        dates.add(AbsoluteDate.J2000_EPOCH.shiftedBy(s));
+                    }
+                } else {
+                    for (double s = MathLib.floor(t / STEP) * STEP; s < t0; s += STEP) {
+                        dates.add(AbsoluteDate.J2000_EPOCH.shiftedBy(s));
+                    }
+                }
+            }
+            return dates;
+        }
+    }
+}
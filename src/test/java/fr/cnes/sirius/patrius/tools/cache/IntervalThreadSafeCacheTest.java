@@ -0,0 +1,297 @@
+/**
+ *
+ * Copyright 2011-2022 CNES
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * HISTORY
+ * END-HISTORY
+ */
+package fr.cnes.sirius.patrius.tools.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.cnes.sirius.patrius.math.TestUtils;
+import fr.cnes.sirius.patrius.math.exception.NotPositiveException;
+import fr.cnes.sirius.patrius.math.exception.NotStrictlyPositiveException;
+import fr.cnes.sirius.patrius.math.interval.IntervalEndpointType;
+import fr.cnes.sirius.patrius.math.util.MathLib;
+import fr.cnes.sirius.patrius.time.AbsoluteDate;
+import fr.cnes.sirius.patrius.time.AbsoluteDateInterval;
+
+/**
+ * Unit test class for the {@link IntervalThreadSafeCache} class.
+ *
+ * @since 4.14
+ */
+public class IntervalThreadSafeCacheTest {
+
+    /** Duration of the intervals (s). */
+    private static final double STEP = 10.;
+
+    /**
+     * @description Builds new instances and tests the basic getters.
+     *
+     * @testedMethod {@link IntervalThreadSafeCache#IntervalThreadSafeCache()}
+     * @testedMethod {@link IntervalThreadSafeCache#IntervalThreadSafeCache(int)}
+     * @testedMethod {@link IntervalThreadSafeCache#IntervalThreadSafeCache(int, int, String)}
+     * @testedMethod {@link IntervalThreadSafeCache#getMaxSize()}
+     * @testedMethod {@link IntervalThreadSafeCache#getStripes()}
+     * @testedMethod {@link IntervalThreadSafeCache#getReusabilityRatio()}
+     * @testedMethod {@link IntervalThreadSafeCache#clear()}
+     *
+     * @testPassCriteria the instances are built with the expected sizes, and invalid sizes are rejected
+     */
+    @Test
+    public void testConstructor() {
+        IntervalThreadSafeCache<Integer> cache = new IntervalThreadSafeCache<>();
+        Assert.assertEquals(IntervalThreadSafeCache.DEFAULT_MAX_SIZE, cache.getMaxSize());
+        Assert.assertEquals(1, cache.getStripes());
+        Assert.assertEquals(1, Integer.bitCount(IntervalThreadSafeCache.PROCESSOR_STRIPES));
+        Assert.assertTrue(IntervalThreadSafeCache.PROCESSOR_STRIPES >= Runtime.getRuntime().availableProcessors());
+        Assert.assertTrue(IntervalThreadSafeCache.PROCESSOR_STRIPES < 2 * Runtime.getRuntime().availableProcessors());
+
+        // Number of stripes rounded up to a power of 2
+        Assert.assertEquals(4, new IntervalThreadSafeCache<Integer>(8, 3, null).getStripes());
+        Assert.assertEquals(1, new IntervalThreadSafeCache<Integer>(3, 1, null).getStripes());
+
+        // Never more stripes than entries
+        cache = new IntervalThreadSafeCache<>(3, 3, null);
+        Assert.assertEquals(3, cache.getMaxSize());
+        Assert.assertEquals(2, cache.getStripes());
+        Assert.assertEquals(1, new IntervalThreadSafeCache<Integer>(0, 4, null).getStripes());
+
+        // 10 intervals requested 10 times each
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                Assert.assertEquals(i, get(cache, i, 0.05 + 0.1 * j).getValue().intValue());
+            }
+        }
+        Assert.assertEquals(0.9, cache.getReusabilityRatio(), 1e-15);
+        cache.clear();
+        Assert.assertTrue(Double.isNaN(cache.getReusabilityRatio()));
+
+        // Disabled cache
+        cache = new IntervalThreadSafeCache<>(0);
+        get(cache, 0, 0.5);
+        get(cache, 0, 0.5);
+        Assert.assertEquals(0., cache.getReusabilityRatio(), 0.);
+
+        try {
+            new IntervalThreadSafeCache<Integer>(-1);
+            Assert.fail();
+        } catch (final NotPositiveException e) {
+            // expected
+        }
+        try {
+            new IntervalThreadSafeCache<Integer>(1, 0, null);
+            Assert.fail();
+        } catch (final NotStrictlyPositiveException e) {
+            // expected
+        }
+    }
+
+    /**
+     * @description Evaluate the lookup of the entry containing a date, including on the interval bounds.
+     *
+     * @testedMethod {@link IntervalThreadSafeCache#computeIfAbsent(AbsoluteDate, Supplier)}
+     *
+     * @testPassCriteria the cached entry containing the date is returned, the supplier is called otherwise; a null
+     *                   entry is not cached
+     */
+    @Test
+    public void testLookup() {
+        final IntervalThreadSafeCache<Integer> cache = new IntervalThreadSafeCache<>(8, 1, null);
+        final AtomicInteger calls = new AtomicInteger();
+
+        // Closed intervals [0, 10] and [20, 30[
+        cache.computeIfAbsent(date(0.), () -> {
+            calls.incrementAndGet();
+            return new CacheEntry<>(new AbsoluteDateInterval(date(0.), STEP), 0);
+        });
+        cache.computeIfAbsent(date(2 * STEP), () -> {
+            calls.incrementAndGet();
+            return new CacheEntry<>(new AbsoluteDateInterval(IntervalEndpointType.CLOSED, date(2 * STEP),
+                date(3 * STEP), IntervalEndpointType.OPEN), 2);
+        });
+        Assert.assertEquals(2, calls.get());
+
+        // Inside and on the closed bounds
+        final Supplier<CacheEntry<AbsoluteDateInterval, Integer>> fail = () -> {
+            throw new AssertionError();
+        };
+        Assert.assertEquals(0, cache.computeIfAbsent(date(0.), fail).getValue().intValue());
+        Assert.assertEquals(0, cache.computeIfAbsent(date(STEP / 2), fail).getValue().intValue());
+        Assert.assertEquals(0, cache.computeIfAbsent(date(STEP), fail).getValue().intValue());
+        Assert.assertEquals(2, cache.computeIfAbsent(date(2.5 * STEP), fail).getValue().intValue());
+
+        // Between the intervals, on the open bound and before the first interval: null supplier
+        Assert.assertNull(cache.computeIfAbsent(date(1.5 * STEP), () -> null));
+        Assert.assertNull(cache.computeIfAbsent(date(3 * STEP), () -> null));
+        Assert.assertNull(cache.computeIfAbsent(date(-1.), () -> null));
+
+        // Adjacent interval [10, 20]: the shared bound is found in one of the intervals
+        Assert.assertEquals(1, get(cache, 1, 0.5).getValue().intValue());
+        Assert.assertEquals(1, cache.computeIfAbsent(date(STEP), fail).getValue().intValue());
+        Assert.assertEquals(2, cache.computeIfAbsent(date(2 * STEP), fail).getValue().intValue());
+        Assert.assertEquals(1, cache.computeIfAbsent(date(2 * STEP - 1.), fail).getValue().intValue());
+    }
+
+    /**
+     * @description Evaluate the segmented LRU replacement policy.
+     *
+     * @testedMethod {@link IntervalThreadSafeCache#computeIfAbsent(AbsoluteDate, Supplier)}
+     *
+     * @testPassCriteria entries used again survive a scan over many other intervals, and the metrics report the hits,
+     *                   misses and evictions
+     */
+    @Test
+    public void testSegmentedLRU() {
+        final String name = "test.interval";
+        final IntervalThreadSafeCache<Integer> cache = new IntervalThreadSafeCache<>(5, 1, name);
+        final CacheMetrics metrics = CacheMetricsRegistry.getMetrics(name);
+        metrics.reset();
+
+        // Two hot intervals, used twice
+        for (int k = 0; k < 2; k++) {
+            get(cache, 0, 0.5);
+            get(cache, 1, 0.5);
+        }
+        Assert.assertEquals(2, metrics.getHits());
+        Assert.assertEquals(2, metrics.getMisses());
+
+        // Scan over 20 intervals used once
+        for (int i = 10; i < 30; i++) {
+            get(cache, i, 0.5);
+        }
+        Assert.assertEquals(22, metrics.getMisses());
+        Assert.assertEquals(17, metrics.getEvictions());
+
+        // The hot intervals are still cached
+        get(cache, 0, 0.5);
+        get(cache, 1, 0.5);
+        Assert.assertEquals(4, metrics.getHits());
+        Assert.assertEquals(22, metrics.getGenerations());
+
+        // Without protected segment (size 1), the cache behaves as a LRU cache
+        final IntervalThreadSafeCache<Integer> lru = new IntervalThreadSafeCache<>(1, 1, null);
+        get(lru, 0, 0.5);
+        get(lru, 0, 0.6);
+        get(lru, 1, 0.5);
+        get(lru, 0, 0.5);
+        Assert.assertEquals(0.25, lru.getReusabilityRatio(), 0.);
+
+        // Deserialized caches are empty and report to the same metrics
+        final IntervalThreadSafeCache<Integer> recovered = TestUtils.serializeAndRecover(cache);
+        Assert.assertEquals(cache.getMaxSize(), recovered.getMaxSize());
+        Assert.assertEquals(cache.getStripes(), recovered.getStripes());
+        get(recovered, 0, 0.5);
+        Assert.assertEquals(23, metrics.getMisses());
+    }
+
+    /**
+     * @description Evaluate the cache access with a multi-threads analysis.
+     *
+     * @testedMethod {@link IntervalThreadSafeCache#computeIfAbsent(AbsoluteDate, Supplier)}
+     *
+     * @testPassCriteria each thread gets the values of the requested intervals
+     *
+     * @throws InterruptedException
+     *         if a thread is interrupted
+     * @throws ExecutionException
+     *         if a thread fails
+     */
+    @Test
+    public void testMultiThread() throws InterruptedException, ExecutionException {
+        final IntervalThreadSafeCache<Integer> cache = new IntervalThreadSafeCache<>(4, 4, null);
+        final int nbThreads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < nbThreads; t++) {
+                final int offset = 100 * t;
+                results.add(executor.submit(() -> {
+                    boolean ok = true;
+                    for (int k = 0; k < 10_000; k++) {
+                        // Each thread walks its own time region, with some shared intervals
+                        final int i = k % 7 == 0 ? k % 3 : offset + (k / 10) % 20;
+                        ok &= get(cache, i, 0.05 + 0.9 * MathLib.random()).getValue().intValue() == i;
+                    }
+                    return ok;
+                }));
+            }
+            for (final Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(cache.getReusabilityRatio() > 0.);
+    }
+
+    /**
+     * Get the value of the i-th interval [i * STEP, (i + 1) * STEP] from the cache.
+     *
+     * @param cache
+     *        cache
+     * @param i
+     *        index of the interval
+     * @param fraction
+     *        fraction of the interval at which the date is taken
+     * @return cache entry
+     */
+    private static CacheEntry<AbsoluteDateInterval, Integer> get(final IntervalThreadSafeCache<Integer> cache,
+                                                                 final int i, final double fraction) {
+        return cache.computeIfAbsent(date((i + fraction) * STEP),
+            () -> new CacheEntry<>(new AbsoluteDateInterval(date(i * STEP), STEP), i));
+    }
+
+    /**
+     * Build a date.
+     *
+     * @param offset
+     *        offset from J2000 epoch (s)
+     * @return date
+     */
+    private static AbsoluteDate date(final double offset) {
+        return AbsoluteDate.J2000_EPOCH.shiftedBy(offset);
+    }
+
+    /**
+     * Enable the cache metrics.
+     */
+    @Before
+    public void setUp() {
+        CacheMetricsRegistry.setEnabled(true);
+    }
+
+    /**
+     * Restore the default state of the cache metrics.
+     */
+    @After
+    public void tearDown() {
+        CacheMetricsRegistry.setEnabled(false);
+    }
+}
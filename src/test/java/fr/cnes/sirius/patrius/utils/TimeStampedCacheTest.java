@@ -183,6 +183,25 @@ public class TimeStampedCacheTest {
             cache.getSlotsEvictions() > n / 60);
     }
 
+    @Test
+    public void testMultithreadedSlotExtension() throws TimeStampedCacheException {
+        // concurrent readers and extensions of a single slot, in both directions
+        final TimeStampedCache<AbsoluteDate> cache = createCache(1, 3600, 13);
+        final List<AbsoluteDate> dates = new ArrayList<>();
+        for (int i = 0; i < 2000; ++i) {
+            dates.add(AbsoluteDate.GALILEO_EPOCH.shiftedBy(0.5 * 3600 * i));
+            dates.add(AbsoluteDate.GALILEO_EPOCH.shiftedBy(-0.5 * 3600 * i));
+        }
+        Assert.assertEquals(dates.size(), checkDatesMultiThread(dates, cache, 8));
+        Assert.assertEquals(1, cache.getSlots());
+        Assert.assertEquals(0, cache.getSlotsEvictions());
+        Assert.assertTrue(cache.getEntries() >= 2000);
+        final AbsoluteDate[] neighbors = cache.getNeighbors(AbsoluteDate.GALILEO_EPOCH.shiftedBy(0.25 * 3600));
+        for (int i = 0; i < neighbors.length; ++i) {
+            Assert.assertEquals((i - 6) * 3600, neighbors[i].durationFrom(AbsoluteDate.GALILEO_EPOCH), 1.0e-10);
+        }
+    }
+
     @Test
     public void testSmallShift() throws TimeStampedCacheException {
         final double hour = 3600;